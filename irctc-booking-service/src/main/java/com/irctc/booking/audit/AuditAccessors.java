@@ -0,0 +1,132 @@
+package com.irctc.booking.audit;
+
+import jakarta.persistence.Id;
+import jakarta.persistence.ManyToMany;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.OneToOne;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-entity-class field accessors for audit snapshots.
+ *
+ * Fields are resolved once per class into MethodHandle getters, so capturing a
+ * snapshot on the request path is a handful of direct calls instead of a
+ * reflective scan of the class. Relationship fields are left out, as before.
+ *
+ * @author IRCTC Development Team
+ * @version 1.0.0
+ */
+public final class AuditAccessors {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final ClassValue<AuditAccessors> CACHE = new ClassValue<>() {
+        @Override
+        protected AuditAccessors computeValue(Class<?> type) {
+            return new AuditAccessors(type);
+        }
+    };
+
+    private final String entityName;
+    private final MethodHandle idGetter;
+    private final String[] names;
+    private final MethodHandle[] getters;
+
+    private AuditAccessors(Class<?> type) {
+        this.entityName = type.getSimpleName();
+        MethodHandles.Lookup lookup;
+        try {
+            lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access fields of " + type.getName(), e);
+        }
+
+        MethodHandle id = null;
+        List<String> fieldNames = new ArrayList<>();
+        List<MethodHandle> fieldGetters = new ArrayList<>();
+        for (Field field : type.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+                continue;
+            }
+            MethodHandle getter = getter(lookup, field);
+            if (id == null && (field.isAnnotationPresent(Id.class) || "id".equals(field.getName()))) {
+                id = getter;
+            }
+            // Skip JPA-related fields
+            if (field.isAnnotationPresent(OneToMany.class) ||
+                field.isAnnotationPresent(ManyToOne.class) ||
+                field.isAnnotationPresent(ManyToMany.class) ||
+                field.isAnnotationPresent(OneToOne.class)) {
+                continue;
+            }
+            fieldNames.add(field.getName());
+            fieldGetters.add(getter);
+        }
+        this.idGetter = id;
+        this.names = fieldNames.toArray(new String[0]);
+        this.getters = fieldGetters.toArray(new MethodHandle[0]);
+    }
+
+    public static AuditAccessors of(Class<?> type) {
+        return CACHE.get(type);
+    }
+
+    public String entityName() {
+        return entityName;
+    }
+
+    /**
+     * Entity ID as a Long, or null when the entity has no numeric ID yet
+     */
+    public Long id(Object entity) {
+        if (idGetter == null) {
+            return null;
+        }
+        Object id = invoke(idGetter, entity);
+        return id instanceof Number number ? number.longValue() : null;
+    }
+
+    /**
+     * Non-null column values by field name, in declaration order
+     */
+    public Map<String, Object> snapshot(Object entity) {
+        Map<String, Object> data = new LinkedHashMap<>(names.length * 2);
+        for (int i = 0; i < getters.length; i++) {
+            Object value = invoke(getters[i], entity);
+            // Handle special types
+            if (value != null) {
+                data.put(names[i], value instanceof LocalDateTime ? value.toString() : value);
+            }
+        }
+        return data;
+    }
+
+    private static MethodHandle getter(MethodHandles.Lookup lookup, Field field) {
+        try {
+            return lookup.unreflectGetter(field).asType(GETTER_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access field " + field.getName(), e);
+        }
+    }
+
+    private static Object invoke(MethodHandle getter, Object entity) {
+        try {
+            return (Object) getter.invokeExact(entity);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.irctc.booking.audit;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * One entity change as captured on the request thread.
+ *
+ * values holds the entity's state after the change, or for DELETE its state
+ * just before removal. Revision numbers and old values are resolved later by
+ * the {@link AuditPipeline} writer.
+ *
+ * @author IRCTC Development Team
+ * @version 1.0.0
+ */
+public record AuditChange(String entityName, Long entityId, String action, Map<String, Object> values,
+                          String changedBy, String changedByUsername, String ipAddress, LocalDateTime changedAt) {
+}
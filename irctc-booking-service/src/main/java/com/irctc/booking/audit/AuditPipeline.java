@@ -0,0 +1,394 @@
+package com.irctc.booking.audit;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.irctc.booking.audit.entity.EntityAuditLog;
+import com.irctc.booking.audit.repository.EntityAuditLogRepository;
+import com.irctc.booking.audit.sink.AuditSink;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous entity audit pipeline
+ *
+ * - {@link EntityAuditListener} captures a snapshot per change and hands it
+ *   here; inside a transaction the changes are held until it commits and
+ *   dropped if it rolls back
+ * - committed changes go onto a bounded in-memory queue, so the request path
+ *   never touches the database or a pool connection for auditing
+ * - one background writer drains the queue in batches, assigns revision
+ *   numbers, diffs each change against the entity's previous revision and
+ *   hands the rows to the configured {@link AuditSink} (JDBC batch insert, or
+ *   Kafka with {@code audit.pipeline.sink=kafka})
+ *
+ * Each batch reads the latest stored revision of the entities it touches,
+ * one query per entity type, so several instances writing to the same table
+ * continue from each other's revisions. Two instances racing on one entity
+ * hit the unique (entity_name, entity_id, revision_number) constraint, and
+ * the losing batch is prepared again from a fresh read. A sink that does not
+ * store revisions locally (Kafka) gets rows without revision numbers or
+ * previous values, and its consumer assigns them against its own store.
+ *
+ * If the queue is full a change is dropped and counted rather than blocking
+ * the request.
+ *
+ * @author IRCTC Development Team
+ * @version 1.0.0
+ */
+@Component
+public class AuditPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditPipeline.class);
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    /**
+     * Attempts per batch; a revision clash with another instance costs one
+     */
+    private static final int MAX_ATTEMPTS = 3;
+
+    private static final ObjectMapper objectMapper;
+
+    static {
+        objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        // 500.00 must read back as it was written, or every diff flags it
+        objectMapper.enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+    }
+
+    @Autowired
+    private AuditSink sink;
+
+    @Autowired
+    private EntityAuditLogRepository auditLogRepository;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Value("${audit.pipeline.queue-capacity:50000}")
+    private int queueCapacity = 50000;
+
+    @Value("${audit.pipeline.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${audit.pipeline.flush-interval-ms:200}")
+    private long flushIntervalMs = 200;
+
+    private BlockingQueue<AuditChange> queue;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    private Counter writtenCounter;
+    private Counter droppedCounter;
+    private Counter failedCounter;
+
+    /**
+     * Latest revision of one entity, as stored or as assigned earlier in the batch
+     */
+    private record EntityState(long revision, Map<String, Object> values) {
+    }
+
+    @PostConstruct
+    public void start() {
+        queue = new LinkedBlockingQueue<>(queueCapacity);
+        if (meterRegistry != null) {
+            writtenCounter = Counter.builder("audit.pipeline.written")
+                .description("Audit rows handed to the sink").register(meterRegistry);
+            droppedCounter = Counter.builder("audit.pipeline.dropped")
+                .description("Audit changes dropped because the queue was full").register(meterRegistry);
+            failedCounter = Counter.builder("audit.pipeline.failed")
+                .description("Audit rows lost to sink failures").register(meterRegistry);
+            Gauge.builder("audit.pipeline.queue.size", queue, Collection::size)
+                .description("Audit changes waiting for the writer").register(meterRegistry);
+        }
+
+        running = true;
+        writerThread = new Thread(this::runWriter, "audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        logger.info("📝 Audit pipeline started: sink={}, batchSize={}, queueCapacity={}",
+            sink.getClass().getSimpleName(), batchSize, queueCapacity);
+    }
+
+    /**
+     * Flushes what is still queued before the data source goes away
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        writerThread.interrupt();
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<AuditChange> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            writeBatch(remaining);
+        }
+    }
+
+    /**
+     * Queues a change once the current transaction commits, or immediately
+     * when there is no transaction
+     */
+    public void submit(AuditChange change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(change);
+            return;
+        }
+        PendingChanges pending = null;
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingChanges changes && changes.owner == this) {
+                pending = changes;
+                break;
+            }
+        }
+        if (pending == null) {
+            // Synchronizations are suspended with their transaction, so REQUIRES_NEW gets its own list
+            pending = new PendingChanges(this);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.changes.add(change);
+    }
+
+    /**
+     * Changes made in one transaction, queued when it commits
+     */
+    private static final class PendingChanges implements TransactionSynchronization {
+
+        private final AuditPipeline owner;
+        private final List<AuditChange> changes = new ArrayList<>();
+
+        PendingChanges(AuditPipeline owner) {
+            this.owner = owner;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (status == STATUS_COMMITTED) {
+                changes.forEach(owner::enqueue);
+            }
+        }
+    }
+
+    /**
+     * Changes waiting for the writer
+     */
+    public int queueSize() {
+        return queue.size();
+    }
+
+    private void enqueue(AuditChange change) {
+        if (!queue.offer(change)) {
+            if (droppedCounter != null) {
+                droppedCounter.increment();
+            }
+            logger.error("❌ Audit queue full ({}), dropped {} {} for entityId={}",
+                queueCapacity, change.entityName(), change.action(), change.entityId());
+        }
+    }
+
+    private void runWriter() {
+        List<AuditChange> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                AuditChange first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                // Shutdown; stop() drains what is left
+                break;
+            } catch (Exception e) {
+                logger.error("❌ Audit writer failed on a batch of {}", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Resolves revisions and diffs for one batch and writes it to the sink
+     */
+    synchronized void writeBatch(List<AuditChange> changes) {
+        for (int attempt = 1; ; attempt++) {
+            List<EntityAuditLog> auditLogs;
+            try {
+                auditLogs = prepare(changes);
+            } catch (Exception e) {
+                logger.error("❌ Could not prepare {} audit rows", changes.size(), e);
+                countFailed(changes.size());
+                return;
+            }
+
+            try {
+                sink.write(auditLogs);
+            } catch (Exception e) {
+                if (attempt == MAX_ATTEMPTS) {
+                    logger.error("❌ Dropping audit batch of {} after {} attempts", auditLogs.size(), attempt, e);
+                    countFailed(auditLogs.size());
+                    return;
+                }
+                // Another instance may have taken these revisions, so read them again
+                logger.warn("⚠️ Audit batch of {} failed, retrying: {}", auditLogs.size(), e.getMessage());
+                continue;
+            }
+            if (writtenCounter != null) {
+                writtenCounter.increment(auditLogs.size());
+            }
+            logger.debug("✅ Wrote {} audit rows", auditLogs.size());
+            return;
+        }
+    }
+
+    /**
+     * Turns the batch into audit rows, numbering each entity's changes on
+     * from its latest stored revision
+     */
+    private List<EntityAuditLog> prepare(List<AuditChange> changes) throws Exception {
+        Map<String, EntityState> states = sink.storesRevisions() ? loadLatestStates(changes) : null;
+        List<EntityAuditLog> auditLogs = new ArrayList<>(changes.size());
+        for (AuditChange change : changes) {
+            auditLogs.add(toAuditLog(change, states));
+        }
+        return auditLogs;
+    }
+
+    /**
+     * Builds one row; without states the revision number and previous values
+     * are left to the sink's consumer
+     */
+    private EntityAuditLog toAuditLog(AuditChange change, Map<String, EntityState> states) throws Exception {
+        String key = key(change.entityName(), change.entityId());
+        EntityState previous = states != null ? states.get(key) : null;
+        Long revision = states == null ? null : previous != null ? previous.revision() + 1 : 1L;
+        // Parsed from JSON like the stored revisions, so both sides of a diff hold the same types
+        Map<String, Object> values = change.values() != null
+            ? objectMapper.readValue(objectMapper.writeValueAsBytes(change.values()), MAP_TYPE) : null;
+
+        EntityAuditLog auditLog = new EntityAuditLog();
+        auditLog.setEntityName(change.entityName());
+        auditLog.setEntityId(change.entityId());
+        auditLog.setRevisionNumber(revision);
+        auditLog.setAction(change.action());
+        auditLog.setChangedBy(change.changedBy());
+        auditLog.setChangedByUsername(change.changedByUsername());
+        auditLog.setIpAddress(change.ipAddress());
+        auditLog.setChangedAt(change.changedAt());
+
+        Map<String, Object> oldValues = null;
+        Map<String, Object> newValues = null;
+        switch (change.action()) {
+            case "CREATE" -> newValues = values;
+            case "UPDATE" -> {
+                oldValues = previous != null ? previous.values() : null;
+                newValues = values;
+            }
+            default -> oldValues = values;
+        }
+
+        try {
+            if (oldValues != null) {
+                auditLog.setOldValues(objectMapper.writeValueAsString(oldValues));
+            }
+            if (newValues != null) {
+                auditLog.setNewValues(objectMapper.writeValueAsString(newValues));
+                if (states != null || "CREATE".equals(change.action())) {
+                    auditLog.setChangedFields(objectMapper.writeValueAsString(changedFields(oldValues, newValues)));
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Error serializing audit values", e);
+        }
+
+        if (states != null) {
+            // Later changes to the same entity in this batch follow on from this one
+            states.put(key, new EntityState(revision, newValues));
+        }
+        return auditLog;
+    }
+
+    /**
+     * Fields whose value differs from the previous revision, all fields for the first one
+     */
+    static List<String> changedFields(Map<String, Object> oldValues, Map<String, Object> newValues) {
+        if (oldValues == null) {
+            return new ArrayList<>(newValues.keySet());
+        }
+        List<String> changed = new ArrayList<>();
+        for (Map.Entry<String, Object> entry : newValues.entrySet()) {
+            if (!Objects.equals(entry.getValue(), oldValues.get(entry.getKey()))) {
+                changed.add(entry.getKey());
+            }
+        }
+        for (String field : oldValues.keySet()) {
+            if (!newValues.containsKey(field)) {
+                changed.add(field);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Reads the latest stored revision of every entity in the batch, one query
+     * per entity type
+     */
+    private Map<String, EntityState> loadLatestStates(List<AuditChange> changes) throws Exception {
+        Map<String, Set<Long>> entityIds = new HashMap<>();
+        for (AuditChange change : changes) {
+            // A created entity has no earlier revisions to find
+            if (!"CREATE".equals(change.action())) {
+                entityIds.computeIfAbsent(change.entityName(), k -> new HashSet<>()).add(change.entityId());
+            }
+        }
+        Map<String, EntityState> states = new HashMap<>();
+        for (Map.Entry<String, Set<Long>> entry : entityIds.entrySet()) {
+            for (EntityAuditLog latest : auditLogRepository.findLatestRevisions(entry.getKey(), entry.getValue())) {
+                Map<String, Object> values = latest.getNewValues() != null
+                    ? objectMapper.readValue(latest.getNewValues(), MAP_TYPE) : null;
+                states.put(key(latest.getEntityName(), latest.getEntityId()),
+                    new EntityState(latest.getRevisionNumber(), values));
+            }
+        }
+        return states;
+    }
+
+    private void countFailed(int count) {
+        if (failedCounter != null) {
+            failedCounter.increment(count);
+        }
+    }
+
+    private static String key(String entityName, Long entityId) {
+        return entityName + ":" + entityId;
+    }
+}
@@ -18,6 +18,8 @@ import java.time.LocalDateTime;
     @Index(name = "idx_audit_changed_by", columnList = "changedBy"),
     @Index(name = "idx_audit_changed_at", columnList = "changedAt"),
     @Index(name = "idx_audit_action", columnList = "action")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "uk_audit_entity_revision", columnNames = {"entity_name", "entity_id", "revision_number"})
 })
 @Data
 public class EntityAuditLog {
@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -60,6 +61,15 @@ public interface EntityAuditLogRepository extends JpaRepository<EntityAuditLog,
            "WHERE e.entityName = :entityName AND e.entityId = :entityId")
     Long getNextRevisionNumber(@Param("entityName") String entityName, @Param("entityId") Long entityId);
     
+    /**
+     * Latest audit log of each of the given entities, for the audit writer
+     */
+    @Query("SELECT e FROM EntityAuditLog e WHERE e.entityName = :entityName AND e.entityId IN :entityIds " +
+           "AND e.revisionNumber = (SELECT MAX(e2.revisionNumber) FROM EntityAuditLog e2 " +
+           "WHERE e2.entityName = e.entityName AND e2.entityId = e.entityId)")
+    List<EntityAuditLog> findLatestRevisions(@Param("entityName") String entityName,
+                                             @Param("entityIds") Collection<Long> entityIds);
+    
     /**
      * Set revision number for a new audit log
      */
@@ -0,0 +1,29 @@
+package com.irctc.booking.audit.sink;
+
+import com.irctc.booking.audit.entity.EntityAuditLog;
+
+import java.util.List;
+
+/**
+ * Destination for audit rows produced by the audit pipeline writer.
+ *
+ * Called from the single background writer thread, never from a request.
+ *
+ * @author IRCTC Development Team
+ * @version 1.0.0
+ */
+public interface AuditSink {
+
+    /**
+     * Write one batch of audit rows; throwing fails the whole batch
+     */
+    void write(List<EntityAuditLog> auditLogs);
+
+    /**
+     * Whether the rows land in entity_audit_log, where the pipeline can read
+     * the latest revision back to number and diff the next change
+     */
+    default boolean storesRevisions() {
+        return true;
+    }
+}
@@ -0,0 +1,56 @@
+package com.irctc.booking.audit.sink;
+
+import com.irctc.booking.audit.entity.EntityAuditLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Publishes audit rows to Kafka instead of writing them locally, for
+ * deployments where a downstream consumer owns the audit store.
+ *
+ * Rows are keyed by entity so each entity's changes stay in order on one
+ * partition. Nothing is written to entity_audit_log here, so the rows carry
+ * no revision number and UPDATE rows no previous values; the consumer assigns
+ * both against its own store. Sends are not awaited; failures are logged by
+ * the callback.
+ *
+ * @author IRCTC Development Team
+ * @version 1.0.0
+ */
+@Component
+@ConditionalOnProperty(name = "audit.pipeline.sink", havingValue = "kafka")
+public class KafkaAuditSink implements AuditSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(KafkaAuditSink.class);
+
+    @Autowired
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Value("${audit.pipeline.kafka-topic:entity-audit-events}")
+    private String topic = "entity-audit-events";
+
+    @Override
+    public void write(List<EntityAuditLog> auditLogs) {
+        for (EntityAuditLog log : auditLogs) {
+            String key = log.getEntityName() + ":" + log.getEntityId();
+            kafkaTemplate.send(topic, key, log).whenComplete((result, ex) -> {
+                if (ex != null) {
+                    logger.error("❌ Failed to publish audit {} for {}: {}",
+                        log.getAction(), key, ex.getMessage());
+                }
+            });
+        }
+    }
+
+    @Override
+    public boolean storesRevisions() {
+        return false;
+    }
+}
@@ -1,10 +1,13 @@
 package com.irctc.booking.client;
 
+import com.irctc.shared.events.TrainEvents;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -47,6 +50,12 @@ public interface TrainServiceClient {
         @RequestParam String seatClass
     );
     
+    /**
+     * Page through all trains by id for reference replication
+     */
+    @GetMapping("/api/trains/reference")
+    TrainReferencePage getTrainReferences(@RequestParam Long afterId, @RequestParam int size);
+    
     /**
      * Response DTO for Train information
      */
@@ -139,5 +148,79 @@ public interface TrainServiceClient {
         public String getSeatClass() { return seatClass; }
         public void setSeatClass(String seatClass) { this.seatClass = seatClass; }
     }
+    
+    /**
+     * Replicated train reference data, versioned by the train entity's @Version
+     */
+    class TrainReference extends TrainResponse {
+        private LocalDateTime departureTime;
+        private LocalDateTime arrivalTime;
+        private String status;
+        private Long version;
+        
+        public static TrainReference from(TrainResponse train) {
+            TrainReference reference = new TrainReference();
+            reference.setId(train.getId());
+            reference.setTrainNumber(train.getTrainNumber());
+            reference.setTrainName(train.getTrainName());
+            reference.setSourceStation(train.getSourceStation());
+            reference.setDestinationStation(train.getDestinationStation());
+            reference.setBaseFare(train.getBaseFare());
+            reference.setTrainType(train.getTrainType());
+            reference.setTrainClass(train.getTrainClass());
+            reference.setTotalSeats(train.getTotalSeats());
+            reference.setAvailableSeats(train.getAvailableSeats());
+            reference.setDistance(train.getDistance());
+            reference.setDuration(train.getDuration());
+            return reference;
+        }
+        
+        public static TrainReference from(TrainEvents.TrainChangedEvent event) {
+            TrainReference reference = new TrainReference();
+            reference.setId(event.getTrainId());
+            reference.setTrainNumber(event.getTrainNumber());
+            reference.setTrainName(event.getTrainName());
+            reference.setSourceStation(event.getSourceStation());
+            reference.setDestinationStation(event.getDestinationStation());
+            reference.setBaseFare(event.getBaseFare());
+            reference.setTrainType(event.getTrainType());
+            reference.setTrainClass(event.getTrainClass());
+            reference.setTotalSeats(event.getTotalSeats());
+            reference.setAvailableSeats(event.getAvailableSeats());
+            reference.setDistance(event.getDistance());
+            reference.setDuration(event.getDuration());
+            reference.setDepartureTime(event.getDepartureTime());
+            reference.setArrivalTime(event.getArrivalTime());
+            reference.setStatus(event.getStatus());
+            reference.setVersion(event.getVersion());
+            return reference;
+        }
+        
+        // Getters and setters
+        public LocalDateTime getDepartureTime() { return departureTime; }
+        public void setDepartureTime(LocalDateTime departureTime) { this.departureTime = departureTime; }
+        public LocalDateTime getArrivalTime() { return arrivalTime; }
+        public void setArrivalTime(LocalDateTime arrivalTime) { this.arrivalTime = arrivalTime; }
+        public String getStatus() { return status; }
+        public void setStatus(String status) { this.status = status; }
+        public Long getVersion() { return version; }
+        public void setVersion(Long version) { this.version = version; }
+    }
+    
+    /**
+     * Response DTO for one page of train references
+     */
+    class TrainReferencePage {
+        private List<TrainReference> trains;
+        private Long nextAfterId;
+        private boolean hasMore;
+        
+        // Getters and setters
+        public List<TrainReference> getTrains() { return trains; }
+        public void setTrains(List<TrainReference> trains) { this.trains = trains; }
+        public Long getNextAfterId() { return nextAfterId; }
+        public void setNextAfterId(Long nextAfterId) { this.nextAfterId = nextAfterId; }
+        public boolean isHasMore() { return hasMore; }
+        public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+    }
 }
-
@@ -28,6 +28,12 @@ public class TrainServiceClientFallback implements TrainServiceClient {
         return null;
     }
     
+    @Override
+    public TrainReferencePage getTrainReferences(Long afterId, int size) {
+        logger.warn("Train Service unavailable - skipping train reference page after ID: {}", afterId);
+        return null;
+    }
+    
     @Override
     public FareResponse calculateFare(Long trainId, String sourceStation, String destinationStation, 
                                      String seatClass, Integer passengerCount) {
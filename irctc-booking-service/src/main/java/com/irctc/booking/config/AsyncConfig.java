@@ -8,6 +8,7 @@ import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * Async Configuration
@@ -29,6 +30,9 @@ public class AsyncConfig {
         executor.setMaxPoolSize(10);
         executor.setQueueCapacity(100);
         executor.setThreadNamePrefix("async-booking-");
+        // After-commit listeners (QR pre-render, travel statistics) are submitted from booking
+        // requests; a full queue runs them on the caller instead of failing the request
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
         executor.setWaitForTasksToCompleteOnShutdown(true);
         executor.setAwaitTerminationSeconds(60);
         executor.initialize();
@@ -50,7 +54,7 @@ public class AsyncConfig {
     
     /**
      * TransactionTemplate bean for programmatic transaction management
-     * Used by EntityAuditListener to save audit logs in separate transactions
+     * Runs callbacks in their own transaction (PROPAGATION_REQUIRES_NEW)
      */
     @Bean
     public TransactionTemplate transactionTemplate(PlatformTransactionManager transactionManager) {
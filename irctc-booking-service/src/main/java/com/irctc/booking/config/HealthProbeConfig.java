@@ -0,0 +1,50 @@
+package com.irctc.booking.config;
+
+import com.irctc.shared.health.DependencyChecks;
+import com.irctc.shared.health.DependencyHealthMonitor;
+import com.irctc.shared.health.HealthProbeSettings;
+import com.irctc.shared.health.KafkaClusterProbe;
+import com.netflix.discovery.EurekaClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Background dependency checks behind the Booking health indicators
+ *
+ * Database, Redis, Kafka and Eureka checks run on the shared monitor (health.probe.*);
+ * the indicators only read its last results.
+ */
+@Configuration
+public class HealthProbeConfig {
+
+    @Bean
+    @ConfigurationProperties(prefix = "health.probe")
+    public HealthProbeSettings healthProbeSettings() {
+        return new HealthProbeSettings();
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public DependencyHealthMonitor dependencyHealthMonitor(HealthProbeSettings healthProbeSettings,
+                                                         ObjectProvider<DataSource> dataSource,
+                                                         ObjectProvider<RedisConnectionFactory> redisConnectionFactory,
+                                                         ObjectProvider<KafkaTemplate<String, Object>> kafkaTemplate,
+                                                         ObjectProvider<EurekaClient> eurekaClient) {
+        long timeoutMs = healthProbeSettings.getTimeoutMs();
+        KafkaTemplate<String, Object> template = kafkaTemplate.getIfAvailable();
+        Map<String, Object> kafkaConfig = template != null
+            ? template.getProducerFactory().getConfigurationProperties() : null;
+
+        return new DependencyHealthMonitor(healthProbeSettings)
+            .register(DependencyHealthMonitor.DATABASE, DependencyChecks.database(dataSource.getIfAvailable(), timeoutMs))
+            .register(DependencyHealthMonitor.REDIS, DependencyChecks.redis(redisConnectionFactory.getIfAvailable()))
+            .register(DependencyHealthMonitor.KAFKA, new KafkaClusterProbe(kafkaConfig, timeoutMs))
+            .register(DependencyHealthMonitor.EUREKA, DependencyChecks.eureka(eurekaClient.getIfAvailable()));
+    }
+}
@@ -1,13 +1,22 @@
 package com.irctc.booking.config;
 
+import com.irctc.shared.events.TrainEvents;
+import com.irctc.shared.events.codec.BinaryEventSerializer;
+import com.irctc.shared.events.codec.KafkaProducerProfile;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 
 import java.util.HashMap;
@@ -18,6 +27,9 @@ import java.util.Map;
  * 
  * Configures KafkaTemplate with JsonSerializer for Object values
  * to support publishing BookingEvents and other event objects.
+ * events.codec=binary switches shared events to the compact binary
+ * codec and events.producer-profile picks a compression/batching profile.
+ * Also provides the consumer side for the train reference replica.
  * 
  * @author IRCTC Development Team
  * @version 1.0.0
@@ -28,18 +40,31 @@ public class KafkaConfig {
     @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
     private String bootstrapServers;
 
+    @Value("${events.codec:json}")
+    private String eventCodec;
+
+    @Value("${events.producer-profile:default}")
+    private String producerProfile;
+
+    @Value("${events.schema-registry-path:}")
+    private String schemaRegistryPath;
+
     @Bean
     public ProducerFactory<String, Object> producerFactory() {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        // Binary only once every consumer reads with DualFormatEventDeserializer
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG,
+            "binary".equalsIgnoreCase(eventCodec) ? BinaryEventSerializer.class : JsonSerializer.class);
+        configProps.put(BinaryEventSerializer.SCHEMA_REGISTRY_PATH, schemaRegistryPath);
         configProps.put(ProducerConfig.ACKS_CONFIG, "all");
         configProps.put(ProducerConfig.RETRIES_CONFIG, 3);
         configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, 16384);
         configProps.put(ProducerConfig.LINGER_MS_CONFIG, 1);
         configProps.put(ProducerConfig.BUFFER_MEMORY_CONFIG, 33554432);
         configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        KafkaProducerProfile.fromName(producerProfile).applyTo(configProps);
         
         return new DefaultKafkaProducerFactory<>(configProps);
     }
@@ -48,5 +73,34 @@ public class KafkaConfig {
     public KafkaTemplate<String, Object> kafkaTemplate() {
         return new KafkaTemplate<>(producerFactory());
     }
-}
 
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, TrainEvents.TrainChangedEvent> trainReferenceListenerContainerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, true);
+        // Undecodable records are logged and skipped; reconciliation repairs whatever they carried
+        ErrorHandlingDeserializer<TrainEvents.TrainChangedEvent> valueDeserializer = new ErrorHandlingDeserializer<>(
+            new JsonDeserializer<>(TrainEvents.TrainChangedEvent.class, false));
+
+        ConcurrentKafkaListenerContainerFactory<String, TrainEvents.TrainChangedEvent> factory =
+            new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(configProps, new StringDeserializer(), valueDeserializer));
+        return factory;
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, TrainEvents.SeatAvailabilityChangedEvent> seatAvailabilityListenerContainerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, true);
+        // Undecodable records are logged and skipped; the next change to the counter supersedes them
+        ErrorHandlingDeserializer<TrainEvents.SeatAvailabilityChangedEvent> valueDeserializer = new ErrorHandlingDeserializer<>(
+            new JsonDeserializer<>(TrainEvents.SeatAvailabilityChangedEvent.class, false));
+
+        ConcurrentKafkaListenerContainerFactory<String, TrainEvents.SeatAvailabilityChangedEvent> factory =
+            new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(configProps, new StringDeserializer(), valueDeserializer));
+        return factory;
+    }
+}
@@ -0,0 +1,41 @@
+package com.irctc.booking.controller;
+
+import com.irctc.booking.dto.BulkBookingJobResponse;
+import com.irctc.booking.entity.BulkBookingJob;
+import com.irctc.booking.entity.BulkBookingJobItem;
+import com.irctc.booking.exception.EntityNotFoundException;
+import com.irctc.booking.service.BulkBookingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Bulk Booking Controller
+ * Pollable status and per-item results of jobs submitted to POST /api/bookings/async/bulk
+ * 
+ * @author IRCTC Development Team
+ * @version 1.0.0
+ */
+@RestController
+@RequestMapping({"/api/v1/bookings/bulk-jobs", "/api/bookings/bulk-jobs"})
+public class BulkBookingController {
+    
+    @Autowired
+    private BulkBookingService bulkBookingService;
+    
+    /**
+     * Get job progress, optionally with per-item results
+     * GET /api/bookings/bulk-jobs/{jobId}?includeItems=true&itemStatus=REJECTED
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<BulkBookingJobResponse> getJob(@PathVariable Long jobId,
+                                                         @RequestParam(defaultValue = "true") boolean includeItems,
+                                                         @RequestParam(required = false) String itemStatus) {
+        BulkBookingJob job = bulkBookingService.getJob(jobId)
+            .orElseThrow(() -> new EntityNotFoundException("BulkBookingJob", jobId));
+        List<BulkBookingJobItem> items = includeItems ? bulkBookingService.getJobItems(jobId, itemStatus) : null;
+        return ResponseEntity.ok(BulkBookingJobResponse.from(job, items));
+    }
+}
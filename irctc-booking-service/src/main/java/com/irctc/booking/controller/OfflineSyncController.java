@@ -1,10 +1,17 @@
 package com.irctc.booking.controller;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.irctc.booking.dto.offline.*;
 import com.irctc.booking.entity.OfflineAction;
 import com.irctc.booking.service.OfflineActionService;
 import com.irctc.booking.service.OfflineSyncService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -16,6 +23,9 @@ public class OfflineSyncController {
 
     private final OfflineSyncService offlineSyncService;
     private final OfflineActionService offlineActionService;
+    private final ObjectMapper etagWriter = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .addMixIn(OfflineSyncResponse.SyncMetadata.class, IgnoreGeneratedAt.class);
 
     public OfflineSyncController(OfflineSyncService offlineSyncService,
                                  OfflineActionService offlineActionService) {
@@ -23,9 +33,24 @@ public class OfflineSyncController {
         this.offlineActionService = offlineActionService;
     }
 
+    /**
+     * Generate an offline bundle. Send the previous bundle's metadata.syncToken to receive only
+     * changes since then; the response carries an ETag and answers 304 when nothing changed.
+     * Responses are gzip-compressed by the server when the client sends Accept-Encoding: gzip.
+     */
     @PostMapping("/sync")
-    public ResponseEntity<OfflineSyncResponse> sync(@RequestBody OfflineSyncRequest request) {
-        return ResponseEntity.ok(offlineSyncService.generateOfflineBundle(request));
+    public ResponseEntity<OfflineSyncResponse> sync(@RequestBody OfflineSyncRequest request,
+                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        OfflineSyncResponse bundle = offlineSyncService.generateOfflineBundle(request);
+        String etag = computeEtag(bundle);
+        if (etag != null && ifNoneMatch != null && etagMatches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (etag != null) {
+            builder.eTag(etag);
+        }
+        return builder.body(bundle);
     }
 
     @GetMapping("/users/{userId}/tickets")
@@ -55,6 +80,38 @@ public class OfflineSyncController {
         return ResponseEntity.ok(responses);
     }
 
+    /**
+     * ETag over the bundle content, ignoring the generation timestamp which changes on every call
+     */
+    private String computeEtag(OfflineSyncResponse bundle) {
+        if (bundle == null) {
+            return null;
+        }
+        try {
+            byte[] content = etagWriter.writeValueAsBytes(bundle);
+            return "\"" + DigestUtils.md5DigestAsHex(content) + "\"";
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private boolean etagMatches(String ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.startsWith("W/")) {
+                trimmed = trimmed.substring(2);
+            }
+            if (trimmed.equals(etag) || "*".equals(trimmed)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @JsonIgnoreProperties({"generatedAt"})
+    private abstract static class IgnoreGeneratedAt {
+    }
+
     private OfflineActionResponse map(OfflineAction action) {
         OfflineActionResponse response = new OfflineActionResponse();
         response.setId(action.getId());
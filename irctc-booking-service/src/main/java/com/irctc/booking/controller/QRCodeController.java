@@ -1,14 +1,22 @@
 package com.irctc.booking.controller;
 
+import com.irctc.booking.dto.QRCodeImage;
 import com.irctc.booking.dto.QRCodeResponse;
 import com.irctc.booking.dto.QRCodeVerificationRequest;
 import com.irctc.booking.dto.QRCodeVerificationResponse;
 import com.irctc.booking.service.QRCodeService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+
 /**
  * QR Code Controller
  * REST API for QR code generation and verification
@@ -33,6 +41,31 @@ public class QRCodeController {
         return ResponseEntity.ok(response);
     }
     
+    /**
+     * Get the QR code as a raw PNG instead of a Base64 data URI
+     * GET /api/bookings/{id}/qr-code.png
+     * 
+     * The image is cacheable by the client until the QR code expires and
+     * answers 304 when the If-None-Match ETag still matches.
+     */
+    @GetMapping(value = "/{id}/qr-code.png", produces = MediaType.IMAGE_PNG_VALUE)
+    public ResponseEntity<byte[]> getQRCodePng(@PathVariable Long id,
+                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        QRCodeImage image = qrCodeService.getQRCodeImage(id);
+        String etag = "\"" + image.getEtag() + "\"";
+        long maxAge = Math.max(0, Duration.between(LocalDateTime.now(), image.getExpiresAt()).getSeconds());
+        CacheControl cacheControl = CacheControl.maxAge(Duration.ofSeconds(maxAge)).cachePrivate();
+        
+        if (ifNoneMatch != null && etagMatches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok()
+            .eTag(etag)
+            .cacheControl(cacheControl)
+            .contentType(MediaType.IMAGE_PNG)
+            .body(image.getPng());
+    }
+    
     /**
      * Verify QR code
      * POST /api/bookings/verify-qr
@@ -53,5 +86,17 @@ public class QRCodeController {
         QRCodeResponse response = qrCodeService.getQRCodeStatus(id);
         return ResponseEntity.ok(response);
     }
+    
+    private boolean etagMatches(String ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.startsWith("W/")) {
+                trimmed = trimmed.substring(2);
+            }
+            if (trimmed.equals(etag) || "*".equals(trimmed)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
-
@@ -2,15 +2,20 @@ package com.irctc.booking.controller;
 
 import com.irctc.booking.annotation.Auditable;
 import com.irctc.booking.dto.*;
+import com.irctc.booking.entity.BulkBookingJob;
 import com.irctc.booking.entity.SimpleBooking;
 import com.irctc.booking.service.SimpleBookingService;
 import com.irctc.booking.service.IdempotencyService;
 import com.irctc.booking.service.AsyncBookingService;
+import com.irctc.booking.service.BulkBookingService;
 import com.irctc.booking.service.BookingModificationService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.net.URI;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
@@ -28,6 +33,9 @@ public class SimpleBookingController {
     @Autowired(required = false)
     private AsyncBookingService asyncBookingService;
     
+    @Autowired(required = false)
+    private BulkBookingService bulkBookingService;
+    
     @Autowired
     private BookingModificationService modificationService;
 
@@ -55,6 +63,42 @@ public class SimpleBookingController {
         return ResponseEntity.ok(bookingService.getBookingsByUserId(userId));
     }
 
+    /**
+     * Bookings of a user by journey date, including archived journeys when the range reaches them
+     * GET /api/bookings/user/{userId}/history?from=2024-01-01&to=2024-12-31
+     */
+    @GetMapping("/user/{userId}/history")
+    public ResponseEntity<List<SimpleBooking>> getBookingHistory(
+            @PathVariable Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(bookingService.getBookingHistory(userId, from, to));
+    }
+
+    /**
+     * Keyset-paginated bookings of a user for data exports
+     * GET /api/bookings/export?userId=1&afterId=0&limit=500
+     */
+    @GetMapping("/export")
+    public ResponseEntity<List<SimpleBooking>> exportBookings(@RequestParam Long userId,
+                                                              @RequestParam(defaultValue = "0") Long afterId,
+                                                              @RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(bookingService.getBookingsForExport(userId, afterId, limit));
+    }
+
+    /**
+     * Keyset-paginated booking IDs of a user, for services exporting records that hang off bookings
+     * GET /api/bookings/export/ids?userId=1&afterId=0&limit=1000
+     */
+    @GetMapping("/export/ids")
+    public ResponseEntity<List<Long>> exportBookingIds(@RequestParam Long userId,
+                                                       @RequestParam(defaultValue = "0") Long afterId,
+                                                       @RequestParam(defaultValue = "1000") int limit) {
+        return ResponseEntity.ok(bookingService.getBookingsForExport(userId, afterId, limit).stream()
+            .map(SimpleBooking::getId)
+            .toList());
+    }
+
     @PostMapping
     @Auditable(entityType = "Booking", action = "CREATE", logRequestBody = true)
     public ResponseEntity<SimpleBooking> createBooking(@RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
@@ -157,10 +201,14 @@ public class SimpleBookingController {
 
     @PostMapping("/async/bulk")
     @Auditable(entityType = "Booking", action = "BULK_CREATE")
-    public ResponseEntity<String> createBulkBookingsAsync(@RequestBody List<SimpleBooking> bookings) {
-        if (asyncBookingService != null) {
-            CompletableFuture<List<SimpleBooking>> future = asyncBookingService.processBulkBookings(bookings);
-            return ResponseEntity.accepted().body("Processing " + bookings.size() + " bookings asynchronously");
+    public ResponseEntity<?> createBulkBookingsAsync(@RequestBody List<SimpleBooking> bookings) {
+        if (asyncBookingService != null && bulkBookingService != null) {
+            BulkBookingJob job = bulkBookingService.createJob(bookings);
+            asyncBookingService.processBulkBookings(job.getId(), bookings);
+            // Poll the Location for progress and per-item results
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/bookings/bulk-jobs/" + job.getId()))
+                    .body(BulkBookingJobResponse.from(job, null));
         }
         return ResponseEntity.badRequest().body("Async service not available");
     }
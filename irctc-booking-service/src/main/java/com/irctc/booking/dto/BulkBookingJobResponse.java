@@ -0,0 +1,45 @@
+package com.irctc.booking.dto;
+
+import com.irctc.booking.entity.BulkBookingJob;
+import com.irctc.booking.entity.BulkBookingJobItem;
+import lombok.Data;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Response DTO for polling a bulk booking job
+ */
+@Data
+public class BulkBookingJobResponse {
+    private Long jobId;
+    private String status; // QUEUED, PROCESSING, COMPLETED, PARTIALLY_COMPLETED, FAILED
+    private Integer totalItems;
+    private Integer bookedItems;
+    private Integer rejectedItems;
+    private Integer failedItems;
+    private Integer pendingItems;
+    private String errorMessage;
+    
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    
+    private List<BulkBookingJobItem> items; // Null when only the summary was requested
+    
+    public static BulkBookingJobResponse from(BulkBookingJob job, List<BulkBookingJobItem> items) {
+        BulkBookingJobResponse response = new BulkBookingJobResponse();
+        response.setJobId(job.getId());
+        response.setStatus(job.getStatus());
+        response.setTotalItems(job.getTotalItems());
+        response.setBookedItems(job.getBookedItems());
+        response.setRejectedItems(job.getRejectedItems());
+        response.setFailedItems(job.getFailedItems());
+        response.setPendingItems(job.getTotalItems() - job.getBookedItems() - job.getRejectedItems() - job.getFailedItems());
+        response.setErrorMessage(job.getErrorMessage());
+        response.setCreatedAt(job.getCreatedAt());
+        response.setStartedAt(job.getStartedAt());
+        response.setCompletedAt(job.getCompletedAt());
+        response.setItems(items);
+        return response;
+    }
+}
@@ -0,0 +1,16 @@
+package com.irctc.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * Rendered QR code PNG with the metadata needed for HTTP caching
+ */
+@Data
+@AllArgsConstructor
+public class QRCodeImage {
+    private byte[] png;
+    private String etag; // SHA-256 of the QR payload
+    private LocalDateTime expiresAt;
+}
@@ -1,11 +1,13 @@
 package com.irctc.booking.dto.offline;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 
 /**
  * Lightweight passenger payload that can be safely cached offline on mobile devices.
  */
 @Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class OfflinePassengerDTO {
     private Long passengerId;
     private String name;
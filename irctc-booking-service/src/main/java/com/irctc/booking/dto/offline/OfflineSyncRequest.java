@@ -17,5 +17,7 @@ public class OfflineSyncRequest {
     private boolean includeTickets = true;
     private boolean includeSchedules = true;
     private LocalDateTime lastSyncTime;
+    /** Opaque token returned by the previous sync; takes precedence over lastSyncTime */
+    private String syncToken;
 }
 
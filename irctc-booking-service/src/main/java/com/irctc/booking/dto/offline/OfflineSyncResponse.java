@@ -1,5 +1,6 @@
 package com.irctc.booking.dto.offline;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 
 import java.time.LocalDateTime;
@@ -10,20 +11,27 @@ import java.util.List;
  * Response produced when generating offline bundles.
  */
 @Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class OfflineSyncResponse {
     private List<OfflineTicketDTO> tickets = Collections.emptyList();
+    /** Bookings removed since the client's sync token (incremental bundles only) */
+    private List<Long> deletedBookingIds = Collections.emptyList();
     private List<OfflineTrainScheduleDTO> trainSchedules = Collections.emptyList();
     private List<OfflineActionResponse> pendingActions = Collections.emptyList();
     private SyncMetadata metadata = new SyncMetadata();
 
     @Data
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public static class SyncMetadata {
         private LocalDateTime generatedAt = LocalDateTime.now();
         private LocalDateTime lastSyncTime;
         private Integer ticketCount;
         private Integer scheduleCount;
         private Integer pendingActionCount;
+        private Integer deletedCount;
         private boolean incremental;
+        /** Token to send with the next sync to receive only subsequent changes */
+        private String syncToken;
     }
 }
 
@@ -1,5 +1,6 @@
 package com.irctc.booking.dto.offline;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 
 import java.math.BigDecimal;
@@ -10,6 +11,7 @@ import java.util.List;
  * Snapshot of a booking that can be cached on-device for offline ticket viewing.
  */
 @Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class OfflineTicketDTO {
     private Long bookingId;
     private String pnrNumber;
@@ -1,22 +1,30 @@
 package com.irctc.booking.dto.offline;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Map;
 
 /**
  * Minimal train schedule payload for offline search.
  */
 @Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class OfflineTrainScheduleDTO {
     private Long trainId;
     private String trainNumber;
     private String trainName;
     private String sourceStation;
     private String destinationStation;
+    private LocalDateTime departureTime;
+    private LocalDateTime arrivalTime;
     private String trainType;
     private String trainClass;
     private Integer availableSeats;
+    // Seats left per upcoming journey date; dates not listed have no bookings yet
+    private Map<LocalDate, Integer> availableSeatsByDate;
     private Double baseFare;
     private LocalDateTime snapshotTime;
 }
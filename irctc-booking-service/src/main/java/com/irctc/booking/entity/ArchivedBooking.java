@@ -0,0 +1,67 @@
+package com.irctc.booking.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Booking of a completed journey, moved out of the hot bookings table by
+ * {@link com.irctc.booking.service.BookingArchivalService}. Rows are only ever
+ * inserted by the mover, never changed.
+ */
+@Entity
+@Immutable
+@Table(name = "bookings_archive", indexes = {
+    @Index(name = "idx_bookings_archive_month", columnList = "journeyMonth, id"),
+    @Index(name = "idx_bookings_archive_user", columnList = "userId, journeyDate"),
+    @Index(name = "idx_bookings_archive_pnr", columnList = "pnrNumber")
+})
+@Data
+public class ArchivedBooking {
+
+    @Id
+    private Long id; // Same ID the booking had in the hot table
+
+    @Column(nullable = false)
+    private Integer journeyMonth; // yyyyMM, the partition key
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long trainId;
+
+    @Column(nullable = false)
+    private String pnrNumber;
+
+    @Column(nullable = false)
+    private LocalDate journeyDate;
+
+    @Column(nullable = false)
+    private LocalDateTime bookingTime;
+
+    @Column(nullable = false)
+    private String status;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal totalFare;
+
+    @OneToMany(fetch = FetchType.LAZY)
+    @JoinColumn(name = "booking_id", insertable = false, updatable = false)
+    private List<ArchivedPassenger> passengers;
+
+    @Column(name = "tenant_id", length = 50)
+    private String tenantId;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime lastModifiedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,52 @@
+package com.irctc.booking.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Passenger of an {@link ArchivedBooking}
+ */
+@Entity
+@Immutable
+@Table(name = "passengers_archive", indexes = {
+    @Index(name = "idx_passengers_archive_booking", columnList = "bookingId")
+})
+@Data
+public class ArchivedPassenger {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Integer journeyMonth;
+
+    @Column(name = "booking_id", nullable = false)
+    private Long bookingId;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    private Integer age;
+
+    @Column(nullable = false)
+    private String gender;
+
+    @Column(nullable = false)
+    private String seatNumber;
+
+    @Column(nullable = false)
+    private String idProofType;
+
+    @Column(nullable = false)
+    private String idProofNumber;
+
+    @Column(name = "tenant_id", length = 50)
+    private String tenantId;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,42 @@
+package com.irctc.booking.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marker left behind when a booking is hard-deleted so offline clients
+ * syncing incrementally learn to drop it from their local cache.
+ */
+@Entity
+@Table(name = "booking_tombstones", indexes = {
+    @Index(name = "idx_booking_tombstones_user_deleted", columnList = "userId, deletedAt")
+})
+@Data
+public class BookingTombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long bookingId;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(length = 20)
+    private String pnrNumber;
+
+    @Column(name = "tenant_id", length = 50)
+    private String tenantId;
+
+    @Column(nullable = false)
+    private LocalDateTime deletedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        deletedAt = deletedAt == null ? LocalDateTime.now() : deletedAt;
+    }
+}
@@ -0,0 +1,57 @@
+package com.irctc.booking.entity;
+
+import com.irctc.booking.tenant.TenantAware;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "bulk_booking_jobs", indexes = {
+    @Index(name = "idx_bulk_booking_job_status", columnList = "status"),
+    @Index(name = "idx_bulk_booking_job_tenant", columnList = "tenantId")
+})
+@Data
+public class BulkBookingJob implements TenantAware {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 40)
+    private String status; // QUEUED, PROCESSING, COMPLETED, PARTIALLY_COMPLETED, FAILED
+
+    @Column(nullable = false)
+    private Integer totalItems;
+
+    @Column(nullable = false)
+    private Integer bookedItems = 0;
+
+    @Column(nullable = false)
+    private Integer rejectedItems = 0;
+
+    @Column(nullable = false)
+    private Integer failedItems = 0;
+
+    @Column(columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @Column(name = "tenant_id", length = 50)
+    private String tenantId;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,49 @@
+package com.irctc.booking.entity;
+
+import com.irctc.booking.tenant.TenantAware;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "bulk_booking_job_items", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_bulk_booking_job_item", columnNames = {"job_id", "item_index"})
+})
+@Data
+public class BulkBookingJobItem implements TenantAware {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bulk_booking_job_items_seq")
+    @SequenceGenerator(name = "bulk_booking_job_items_seq", sequenceName = "bulk_booking_job_items_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "job_id", nullable = false)
+    private Long jobId;
+
+    @Column(name = "item_index", nullable = false)
+    private Integer itemIndex; // Position in the submitted list
+
+    private Long userId;
+    private Long trainId;
+    private Integer passengerCount;
+
+    @Column(nullable = false, length = 40)
+    private String status; // BOOKED, REJECTED, FAILED
+
+    private Long bookingId;
+    private String pnrNumber;
+
+    @Column(columnDefinition = "TEXT")
+    private String message;
+
+    @Column(name = "tenant_id", length = 50)
+    private String tenantId;
+
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
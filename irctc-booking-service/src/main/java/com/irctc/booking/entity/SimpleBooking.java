@@ -6,6 +6,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.Data;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -17,14 +18,17 @@ import java.util.List;
         @Index(name = "idx_bookings_user", columnList = "userId"),
         @Index(name = "idx_bookings_train", columnList = "trainId"),
         @Index(name = "idx_bookings_status", columnList = "status"),
-        @Index(name = "idx_bookings_tenant_id", columnList = "tenantId")
+        @Index(name = "idx_bookings_tenant_id", columnList = "tenantId"),
+        @Index(name = "idx_bookings_user_modified", columnList = "userId, lastModifiedAt"),
+        @Index(name = "idx_bookings_journey_date", columnList = "journeyDate, id")
     }
 )
 @EntityListeners(com.irctc.booking.audit.EntityAuditListener.class)
 @Data
 public class SimpleBooking implements TenantAware {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id;
     
     @NotNull(message = "User ID is required")
@@ -42,6 +46,9 @@ public class SimpleBooking implements TenantAware {
     @Column(nullable = false, unique = true)
     private String pnrNumber;
     
+    // Drives hot/archive placement; required on new bookings, NULL on rows that predate it
+    private LocalDate journeyDate;
+    
     @NotNull(message = "Booking time is required")
     @Column(nullable = false)
     private LocalDateTime bookingTime;
@@ -59,7 +66,7 @@ public class SimpleBooking implements TenantAware {
     private BigDecimal totalFare;
     
     @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
-    @JoinColumn(name = "booking_id")
+    @JoinColumn(name = "booking_id", nullable = false, updatable = false) // FK written in the passenger INSERT, no follow-up UPDATE
     private List<SimplePassenger> passengers;
     
     @Column(name = "tenant_id", length = 50)
@@ -68,13 +75,22 @@ public class SimpleBooking implements TenantAware {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     
+    // Bumped on every write; drives incremental offline sync
+    private LocalDateTime lastModifiedAt;
+    
+    // Set on read-only copies served from bookings_archive, which must never be saved; kept in JSON so cached copies stay flagged
+    @Transient
+    private boolean archived;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
+        lastModifiedAt = createdAt;
     }
     
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        lastModifiedAt = updatedAt;
     }
 }
@@ -11,7 +11,8 @@ import java.time.LocalDateTime;
 @Data
 public class SimplePassenger implements TenantAware {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "passengers_seq")
+    @SequenceGenerator(name = "passengers_seq", sequenceName = "passengers_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
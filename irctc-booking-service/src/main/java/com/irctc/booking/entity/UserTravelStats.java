@@ -0,0 +1,76 @@
+package com.irctc.booking.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Running travel statistics of one user, across all tenants (scope '*') or within one tenant.
+ * Route and train sketches, exact trip counts per route and train, and monthly
+ * buckets are JSON; statsVersion is the aggregate definition the row was built with.
+ */
+@Entity
+@Table(name = "user_travel_stats",
+    uniqueConstraints = @UniqueConstraint(name = "uk_user_travel_stats_scope", columnNames = {"user_id", "scope"}),
+    indexes = @Index(name = "idx_user_travel_stats_version", columnList = "stats_version"))
+@Data
+public class UserTravelStats {
+
+    public static final String ALL_TENANTS = "*";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 50)
+    private String scope;
+
+    @Column(nullable = false)
+    private Integer totalBookings = 0;
+
+    @Column(nullable = false)
+    private Integer confirmedTrips = 0;
+
+    @Column(nullable = false)
+    private Integer cancelledTrips = 0;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalSpent = BigDecimal.ZERO;
+
+    @Column(nullable = false)
+    private Double totalDistanceKm = 0d;
+
+    @Column(columnDefinition = "TEXT")
+    private String routeSketch;
+
+    @Column(columnDefinition = "TEXT")
+    private String trainSketch;
+
+    @Column(columnDefinition = "TEXT")
+    private String monthlyBuckets;
+
+    @Column(columnDefinition = "TEXT")
+    private String routeCounts;
+
+    @Column(columnDefinition = "TEXT")
+    private String trainCounts;
+
+    @Column(name = "stats_version", nullable = false)
+    private Integer statsVersion;
+
+    @Version
+    private Long version;
+
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = LocalDateTime.now();
+    }
+}
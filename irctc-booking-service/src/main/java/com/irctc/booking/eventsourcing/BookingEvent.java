@@ -21,7 +21,8 @@ import java.time.LocalDateTime;
 public class BookingEvent {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_events_seq")
+    @SequenceGenerator(name = "booking_events_seq", sequenceName = "booking_events_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false, length = 100)
@@ -18,6 +18,9 @@ import java.util.Map;
  * Booking Event Replay Service
  * Rebuilds aggregate state by replaying events
  * 
+ * Replayed bookings are views for inspection and are never saved, so a replay
+ * changes no stored status and publishes no BookingChangedEvent.
+ * 
  * @author IRCTC Development Team
  * @version 1.0.0
  */
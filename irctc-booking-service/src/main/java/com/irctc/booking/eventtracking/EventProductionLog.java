@@ -22,7 +22,8 @@ import java.time.LocalDateTime;
 public class EventProductionLog {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "event_production_log_seq")
+    @SequenceGenerator(name = "event_production_log_seq", sequenceName = "event_production_log_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false, length = 100, unique = true)
@@ -0,0 +1,101 @@
+package com.irctc.booking.id;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * PNR Generator
+ *
+ * Issues 10-digit PNRs from the {@code pnr_seq} database sequence through a
+ * {@link PooledLoSequence}, so a database round trip is only needed once per
+ * block. Sequence values are passed through a keyed Feistel permutation of
+ * the 10-digit space: the result is unique for every sequence value but
+ * consecutive bookings do not get guessable consecutive PNRs.
+ *
+ * The permutation key must be the same on every instance.
+ *
+ * @author IRCTC Development Team
+ * @version 1.0.0
+ */
+@Component
+public class PnrGenerator {
+
+    static final long HALF_DOMAIN = 100_000L;
+    static final long DOMAIN = HALF_DOMAIN * HALF_DOMAIN; // 10 digits
+    private static final int ROUNDS = 4;
+    private static final int ALLOCATION_SIZE = 100; // INCREMENT BY of pnr_seq (V15)
+
+    private final long[] roundKeys;
+    private final PooledLoSequence sequence;
+
+    public PnrGenerator(JdbcTemplate jdbcTemplate,
+                        EntityManagerFactory entityManagerFactory,
+                        @Value("${booking.pnr.permutation-key:IRCTC_PNR_PERMUTATION_KEY_2024}") String permutationKey) {
+        this.roundKeys = deriveRoundKeys(permutationKey);
+        String nextValueSql = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getJdbcServices().getDialect().getSequenceSupport().getSequenceNextValString("pnr_seq");
+        this.sequence = new PooledLoSequence(
+            () -> jdbcTemplate.queryForObject(nextValueSql, Long.class), ALLOCATION_SIZE);
+    }
+
+    PnrGenerator(PooledLoSequence sequence, String permutationKey) {
+        this.roundKeys = deriveRoundKeys(permutationKey);
+        this.sequence = sequence;
+    }
+
+    public String nextPnr() {
+        return format(sequence.next());
+    }
+
+    String format(long sequenceValue) {
+        if (sequenceValue < 0 || sequenceValue >= DOMAIN) {
+            throw new IllegalStateException("PNR sequence exhausted at " + sequenceValue);
+        }
+        return String.format("%010d", permute(sequenceValue));
+    }
+
+    /**
+     * Balanced Feistel network over two 5-digit halves; a bijection on [0, 10^10)
+     */
+    long permute(long value) {
+        long left = value / HALF_DOMAIN;
+        long right = value % HALF_DOMAIN;
+        for (int round = 0; round < ROUNDS; round++) {
+            long mixed = (left + roundFunction(right, roundKeys[round])) % HALF_DOMAIN;
+            left = right;
+            right = mixed;
+        }
+        return left * HALF_DOMAIN + right;
+    }
+
+    private static long roundFunction(long half, long key) {
+        long z = half * 0x9E3779B97F4A7C15L ^ key;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return Math.floorMod(z, HALF_DOMAIN);
+    }
+
+    private static long[] deriveRoundKeys(String permutationKey) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                .digest(permutationKey.getBytes(StandardCharsets.UTF_8));
+            ByteBuffer buffer = ByteBuffer.wrap(digest);
+            long[] keys = new long[ROUNDS];
+            for (int i = 0; i < ROUNDS; i++) {
+                keys[i] = buffer.getLong();
+            }
+            return keys;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
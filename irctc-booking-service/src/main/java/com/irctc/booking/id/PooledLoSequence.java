@@ -0,0 +1,39 @@
+package com.irctc.booking.id;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Pooled-lo allocator over a database sequence
+ *
+ * Each call to the sequence reserves a block: the returned value is the low
+ * end and the next {@code blockSize - 1} values are handed out from memory.
+ * The sequence must be created with {@code INCREMENT BY blockSize}. This is the
+ * same scheme Hibernate's pooled-lo optimizer uses for entity IDs, so several
+ * instances can share one sequence without coordination.
+ *
+ * @author IRCTC Development Team
+ * @version 1.0.0
+ */
+public class PooledLoSequence {
+
+    private final LongSupplier sequence;
+    private final int blockSize;
+    private long next;
+    private long limit; // exclusive
+
+    public PooledLoSequence(LongSupplier sequence, int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+        }
+        this.sequence = sequence;
+        this.blockSize = blockSize;
+    }
+
+    public synchronized long next() {
+        if (next >= limit) {
+            next = sequence.getAsLong();
+            limit = next + blockSize;
+        }
+        return next++;
+    }
+}
@@ -0,0 +1,30 @@
+package com.irctc.booking.repository;
+
+import com.irctc.booking.entity.ArchivedBooking;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Read access to bookings_archive. Rows are written by BookingArchivalService
+ * with plain SQL, never through this repository.
+ */
+@Repository
+public interface ArchivedBookingRepository extends JpaRepository<ArchivedBooking, Long> {
+
+    Optional<ArchivedBooking> findByPnrNumber(String pnrNumber);
+
+    List<ArchivedBooking> findByUserIdAndJourneyDateBetweenOrderByJourneyDateDesc(Long userId, LocalDate from, LocalDate to);
+
+    List<ArchivedBooking> findByUserIdAndIdGreaterThanOrderByIdAsc(Long userId, Long afterId, Pageable pageable);
+
+    List<ArchivedBooking> findByUserIdAndTenantIdAndIdGreaterThanOrderByIdAsc(Long userId, String tenantId, Long afterId, Pageable pageable);
+
+    @Query("SELECT MAX(b.journeyDate) FROM ArchivedBooking b")
+    LocalDate findLatestJourneyDate();
+}
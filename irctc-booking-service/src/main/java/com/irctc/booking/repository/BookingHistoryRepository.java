@@ -0,0 +1,170 @@
+package com.irctc.booking.repository;
+
+import com.irctc.booking.entity.ArchivedBooking;
+import com.irctc.booking.entity.ArchivedPassenger;
+import com.irctc.booking.entity.SimpleBooking;
+import com.irctc.booking.entity.SimplePassenger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Booking History Repository
+ *
+ * Facade over the hot bookings table and bookings_archive. A booking lives in
+ * exactly one of them, so results are simply concatenated. The archive is only
+ * queried when the requested journey range reaches back to dates that have been
+ * archived; the archive's latest journey date is cached as a watermark and
+ * refreshed by the mover after each run, or after a short TTL so runs on other
+ * instances are picked up.
+ *
+ * Archived rows are returned as detached {@link SimpleBooking} copies flagged
+ * {@link SimpleBooking#isArchived() archived}; services refuse to modify them,
+ * since saving one would re-insert it into the hot table.
+ *
+ * @author IRCTC Development Team
+ * @version 1.0.0
+ */
+@Repository
+public class BookingHistoryRepository {
+
+    private static final LocalDate MIN_DATE = LocalDate.of(1970, 1, 1);
+    private static final LocalDate MAX_DATE = LocalDate.of(9999, 12, 31);
+
+    @Autowired
+    private SimpleBookingRepository bookingRepository;
+
+    @Autowired
+    private ArchivedBookingRepository archivedBookingRepository;
+
+    @Value("${booking.archive.watermark-ttl-seconds:60}")
+    private long watermarkTtlSeconds = 60;
+
+    private volatile LocalDate archiveWatermark;
+    private volatile long watermarkLoadedAt;
+
+    /**
+     * Bookings of a user whose journey date falls in [from, to]; null bounds are open
+     */
+    @Transactional(readOnly = true)
+    public List<SimpleBooking> findByUserId(Long userId, LocalDate from, LocalDate to) {
+        LocalDate lower = from != null ? from : MIN_DATE;
+        LocalDate upper = to != null ? to : MAX_DATE;
+
+        List<SimpleBooking> bookings = new ArrayList<>(
+            bookingRepository.findByUserIdAndJourneyDateBetweenOrderByJourneyDateDesc(userId, lower, upper));
+        if (reachesArchive(lower)) {
+            for (ArchivedBooking archived : archivedBookingRepository
+                    .findByUserIdAndJourneyDateBetweenOrderByJourneyDateDesc(userId, lower, upper)) {
+                bookings.add(toBooking(archived));
+            }
+            // Hot rows not yet moved can be older than archived ones
+            bookings.sort(Comparator.comparing(SimpleBooking::getJourneyDate,
+                Comparator.nullsFirst(Comparator.<LocalDate>naturalOrder())).reversed());
+        }
+        return bookings;
+    }
+
+    /**
+     * Keyset page over both tables in ID order, for exports that must be complete
+     *
+     * @param tenantId restricts both tables in the query, so a page is never emptied by filtering; null for all tenants
+     */
+    @Transactional(readOnly = true)
+    public List<SimpleBooking> findForExport(Long userId, String tenantId, Long afterId, int limit) {
+        PageRequest page = PageRequest.of(0, limit);
+        List<SimpleBooking> bookings = new ArrayList<>(tenantId != null
+            ? bookingRepository.findByUserIdAndTenantIdAndIdGreaterThanOrderByIdAsc(userId, tenantId, afterId, page)
+            : bookingRepository.findByUserIdAndIdGreaterThanOrderByIdAsc(userId, afterId, page));
+        if (currentWatermark() != null) {
+            List<ArchivedBooking> archivedPage = tenantId != null
+                ? archivedBookingRepository.findByUserIdAndTenantIdAndIdGreaterThanOrderByIdAsc(userId, tenantId, afterId, page)
+                : archivedBookingRepository.findByUserIdAndIdGreaterThanOrderByIdAsc(userId, afterId, page);
+            for (ArchivedBooking archived : archivedPage) {
+                bookings.add(toBooking(archived));
+            }
+            bookings.sort(Comparator.comparing(SimpleBooking::getId));
+        }
+        return bookings.size() > limit ? new ArrayList<>(bookings.subList(0, limit)) : bookings;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<SimpleBooking> findArchivedById(Long id) {
+        if (currentWatermark() == null) {
+            return Optional.empty();
+        }
+        return archivedBookingRepository.findById(id).map(BookingHistoryRepository::toBooking);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<SimpleBooking> findArchivedByPnr(String pnrNumber) {
+        if (currentWatermark() == null) {
+            return Optional.empty();
+        }
+        return archivedBookingRepository.findByPnrNumber(pnrNumber).map(BookingHistoryRepository::toBooking);
+    }
+
+    /**
+     * Called by the mover after it has committed archived rows
+     */
+    public void refreshWatermark() {
+        archiveWatermark = archivedBookingRepository.findLatestJourneyDate();
+        watermarkLoadedAt = System.currentTimeMillis();
+    }
+
+    boolean reachesArchive(LocalDate lower) {
+        LocalDate watermark = currentWatermark();
+        return watermark != null && !lower.isAfter(watermark);
+    }
+
+    private LocalDate currentWatermark() {
+        if (System.currentTimeMillis() - watermarkLoadedAt > watermarkTtlSeconds * 1000) {
+            refreshWatermark();
+        }
+        return archiveWatermark;
+    }
+
+    private static SimpleBooking toBooking(ArchivedBooking archived) {
+        SimpleBooking booking = new SimpleBooking();
+        booking.setId(archived.getId());
+        booking.setUserId(archived.getUserId());
+        booking.setTrainId(archived.getTrainId());
+        booking.setPnrNumber(archived.getPnrNumber());
+        booking.setJourneyDate(archived.getJourneyDate());
+        booking.setBookingTime(archived.getBookingTime());
+        booking.setStatus(archived.getStatus());
+        booking.setTotalFare(archived.getTotalFare());
+        booking.setTenantId(archived.getTenantId());
+        booking.setCreatedAt(archived.getCreatedAt());
+        booking.setUpdatedAt(archived.getUpdatedAt());
+        booking.setLastModifiedAt(archived.getLastModifiedAt());
+        booking.setArchived(true);
+        List<SimplePassenger> passengers = new ArrayList<>();
+        if (archived.getPassengers() != null) {
+            for (ArchivedPassenger archivedPassenger : archived.getPassengers()) {
+                SimplePassenger passenger = new SimplePassenger();
+                passenger.setId(archivedPassenger.getId());
+                passenger.setName(archivedPassenger.getName());
+                passenger.setAge(archivedPassenger.getAge());
+                passenger.setGender(archivedPassenger.getGender());
+                passenger.setSeatNumber(archivedPassenger.getSeatNumber());
+                passenger.setIdProofType(archivedPassenger.getIdProofType());
+                passenger.setIdProofNumber(archivedPassenger.getIdProofNumber());
+                passenger.setTenantId(archivedPassenger.getTenantId());
+                passenger.setCreatedAt(archivedPassenger.getCreatedAt());
+                passenger.setUpdatedAt(archivedPassenger.getUpdatedAt());
+                passengers.add(passenger);
+            }
+        }
+        booking.setPassengers(passengers);
+        return booking;
+    }
+}
@@ -0,0 +1,14 @@
+package com.irctc.booking.repository;
+
+import com.irctc.booking.entity.BookingTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface BookingTombstoneRepository extends JpaRepository<BookingTombstone, Long> {
+
+    List<BookingTombstone> findByUserIdAndDeletedAtGreaterThanEqual(Long userId, LocalDateTime since);
+}
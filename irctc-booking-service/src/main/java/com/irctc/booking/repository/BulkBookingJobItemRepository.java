@@ -0,0 +1,15 @@
+package com.irctc.booking.repository;
+
+import com.irctc.booking.entity.BulkBookingJobItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BulkBookingJobItemRepository extends JpaRepository<BulkBookingJobItem, Long> {
+
+    List<BulkBookingJobItem> findByJobIdOrderByItemIndexAsc(Long jobId);
+
+    List<BulkBookingJobItem> findByJobIdAndStatusOrderByItemIndexAsc(Long jobId, String status);
+}
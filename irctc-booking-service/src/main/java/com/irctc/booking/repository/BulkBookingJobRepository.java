@@ -0,0 +1,17 @@
+package com.irctc.booking.repository;
+
+import com.irctc.booking.entity.BulkBookingJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BulkBookingJobRepository extends JpaRepository<BulkBookingJob, Long> {
+
+    @Modifying
+    @Query("UPDATE BulkBookingJob j SET j.bookedItems = j.bookedItems + :booked, " +
+           "j.rejectedItems = j.rejectedItems + :rejected, j.failedItems = j.failedItems + :failed " +
+           "WHERE j.id = :id")
+    void incrementCounts(Long id, int booked, int rejected, int failed);
+}
@@ -1,8 +1,13 @@
 package com.irctc.booking.repository;
 
 import com.irctc.booking.entity.SimpleBooking;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,4 +15,19 @@ import java.util.Optional;
 public interface SimpleBookingRepository extends JpaRepository<SimpleBooking, Long> {
     Optional<SimpleBooking> findByPnrNumber(String pnrNumber);
     List<SimpleBooking> findByUserId(Long userId);
+
+    /**
+     * Keyset page of a user's bookings in ID order, used for bulk exports
+     */
+    List<SimpleBooking> findByUserIdAndIdGreaterThanOrderByIdAsc(Long userId, Long afterId, Pageable pageable);
+    List<SimpleBooking> findByUserIdAndTenantIdAndIdGreaterThanOrderByIdAsc(Long userId, String tenantId, Long afterId, Pageable pageable);
+
+    @Query("SELECT DISTINCT b FROM SimpleBooking b LEFT JOIN FETCH b.passengers " +
+           "WHERE b.userId = :userId AND b.lastModifiedAt >= :since")
+    List<SimpleBooking> findModifiedSince(@Param("userId") Long userId, @Param("since") LocalDateTime since);
+
+    List<SimpleBooking> findByUserIdAndJourneyDateBetweenOrderByJourneyDateDesc(Long userId, LocalDate from, LocalDate to);
+
+    @Query("SELECT DISTINCT b.trainId FROM SimpleBooking b WHERE b.userId = :userId")
+    List<Long> findDistinctTrainIdsByUserId(@Param("userId") Long userId);
 }
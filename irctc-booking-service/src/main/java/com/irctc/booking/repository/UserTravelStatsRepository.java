@@ -0,0 +1,33 @@
+package com.irctc.booking.repository;
+
+import com.irctc.booking.entity.UserTravelStats;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UserTravelStatsRepository extends JpaRepository<UserTravelStats, Long> {
+
+    Optional<UserTravelStats> findByUserIdAndScope(Long userId, String scope);
+
+    List<UserTravelStats> findByUserIdAndScopeIn(Long userId, Collection<String> scopes);
+
+    List<UserTravelStats> findByUserId(Long userId);
+
+    @Query("SELECT DISTINCT s.userId FROM UserTravelStats s WHERE s.statsVersion <> :statsVersion")
+    List<Long> findUserIdsWithStatsVersionNot(@Param("statsVersion") int statsVersion, Pageable pageable);
+
+    /**
+     * Leave the user's statistics to the rebuild job
+     */
+    @Modifying
+    @Query("UPDATE UserTravelStats s SET s.statsVersion = 0, s.version = s.version + 1 WHERE s.userId = :userId")
+    int markForRebuild(@Param("userId") Long userId);
+}
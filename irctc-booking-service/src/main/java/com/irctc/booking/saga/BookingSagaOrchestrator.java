@@ -5,12 +5,15 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.irctc.booking.entity.SimpleBooking;
 import com.irctc.booking.eventtracking.TrackedEventPublisher;
 import com.irctc.booking.repository.SimpleBookingRepository;
+import com.irctc.booking.service.BookingChangedEvent;
 import com.irctc.booking.service.SimpleBookingService;
+import com.irctc.booking.service.TrainReferenceStore;
 import com.irctc.shared.events.BookingEvents;
 import com.irctc.shared.events.PaymentEvents;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -53,6 +56,12 @@ public class BookingSagaOrchestrator {
     @Autowired(required = false)
     private TrackedEventPublisher trackedEventPublisher;
     
+    @Autowired(required = false)
+    private ApplicationEventPublisher applicationEventPublisher;
+    
+    @Autowired(required = false)
+    private TrainReferenceStore trainReferenceStore;
+    
     private final ObjectMapper objectMapper = new ObjectMapper();
     
     /**
@@ -233,8 +242,14 @@ public class BookingSagaOrchestrator {
                     .orElseThrow(() -> new RuntimeException("Booking not found"));
             
             // Update booking status to CONFIRMED
+            BookingChangedEvent.Snapshot before = BookingChangedEvent.Snapshot.of(booking, trainReferenceStore);
             booking.setStatus("CONFIRMED");
-            bookingRepository.save(booking);
+            SimpleBooking saved = bookingRepository.save(booking);
+            // Keeps the user's travel statistics current
+            if (applicationEventPublisher != null) {
+                applicationEventPublisher.publishEvent(
+                    BookingChangedEvent.changed(saved.getId(), before, saved, trainReferenceStore));
+            }
             
             // Publish booking confirmed event
             BookingEvents.BookingConfirmedEvent confirmedEvent = new BookingEvents.BookingConfirmedEvent(
@@ -1,13 +1,19 @@
 package com.irctc.booking.service;
 
+import com.irctc.booking.entity.BulkBookingJob;
 import com.irctc.booking.entity.SimpleBooking;
+import com.irctc.booking.repository.BookingHistoryRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -27,7 +33,13 @@ public class AsyncBookingService {
     private static final Logger logger = LoggerFactory.getLogger(AsyncBookingService.class);
 
     @Autowired(required = false)
-    private SimpleBookingService bookingService;
+    private BulkBookingService bulkBookingService;
+
+    @Autowired(required = false)
+    private BookingArchivalService archivalService;
+
+    @Autowired(required = false)
+    private BookingHistoryRepository historyRepository;
 
     /**
      * Send booking confirmation email asynchronously
@@ -52,28 +64,23 @@ public class AsyncBookingService {
     }
 
     /**
-     * Process bulk booking creation asynchronously
+     * Process a bulk booking job asynchronously
      * 
+     * @param jobId Job created by {@link BulkBookingService#createJob}
      * @param bookings List of bookings to create
-     * @return CompletableFuture with list of created bookings
+     * @return CompletableFuture with the finished job
      */
     @Async("taskExecutor")
-    public CompletableFuture<List<SimpleBooking>> processBulkBookings(List<SimpleBooking> bookings) {
+    public CompletableFuture<BulkBookingJob> processBulkBookings(Long jobId, List<SimpleBooking> bookings) {
         try {
-            logger.info("📦 Processing {} bookings asynchronously", bookings.size());
+            logger.info("📦 Processing bulk booking job {} with {} bookings asynchronously", jobId, bookings.size());
             
-            // Process bookings
-            for (SimpleBooking booking : bookings) {
-                if (bookingService != null) {
-                    bookingService.createBooking(booking);
-                }
-                Thread.sleep(100); // Simulate processing time
-            }
+            BulkBookingJob job = bulkBookingService.processJob(jobId, bookings);
             
-            logger.info("✅ Processed {} bookings asynchronously", bookings.size());
-            return CompletableFuture.completedFuture(bookings);
+            logger.info("✅ Processed bulk booking job {}: {}", jobId, job.getStatus());
+            return CompletableFuture.completedFuture(job);
         } catch (Exception e) {
-            logger.error("❌ Failed to process bulk bookings", e);
+            logger.error("❌ Failed to process bulk booking job {}", jobId, e);
             return CompletableFuture.failedFuture(e);
         }
     }
@@ -81,6 +88,8 @@ public class AsyncBookingService {
     /**
      * Generate booking report asynchronously
      * 
+     * Covers the user's whole history, including archived journeys.
+     * 
      * @param userId User ID for report generation
      * @return CompletableFuture with report data
      */
@@ -89,10 +98,20 @@ public class AsyncBookingService {
         try {
             logger.info("📊 Generating booking report for user ID: {}", userId);
             
-            // Simulate report generation
-            Thread.sleep(2000); // Simulate heavy processing
+            List<SimpleBooking> bookings = historyRepository != null
+                ? historyRepository.findByUserId(userId, null, null)
+                : List.of();
+            Map<String, Long> byStatus = new TreeMap<>();
+            BigDecimal totalFare = BigDecimal.ZERO;
+            for (SimpleBooking booking : bookings) {
+                byStatus.merge(booking.getStatus(), 1L, Long::sum);
+                if (booking.getTotalFare() != null) {
+                    totalFare = totalFare.add(booking.getTotalFare());
+                }
+            }
             
-            String report = String.format("Booking report for user %d generated successfully", userId);
+            String report = String.format("Booking report for user %d: %d bookings, total fare %s, by status %s",
+                userId, bookings.size(), totalFare.toPlainString(), byStatus);
             logger.info("✅ Booking report generated for user ID: {}", userId);
             
             return CompletableFuture.completedFuture(report);
@@ -105,7 +124,7 @@ public class AsyncBookingService {
     /**
      * Archive old bookings asynchronously
      * 
-     * @param daysOld Number of days old bookings to archive
+     * @param daysOld Bookings whose journey is more than this many days ago are archived
      * @return CompletableFuture with number of archived bookings
      */
     @Async("taskExecutor")
@@ -113,10 +132,9 @@ public class AsyncBookingService {
         try {
             logger.info("🗄️ Archiving bookings older than {} days", daysOld);
             
-            // Simulate archiving process
-            Thread.sleep(1000);
-            
-            int archivedCount = 0; // In real implementation, this would be the actual count
+            int archivedCount = archivalService != null
+                ? archivalService.archiveCompletedJourneys(LocalDate.now().minusDays(daysOld))
+                : 0;
             logger.info("✅ Archived {} old bookings", archivedCount);
             
             return CompletableFuture.completedFuture(archivedCount);
@@ -126,4 +144,3 @@ public class AsyncBookingService {
         }
     }
 }
-
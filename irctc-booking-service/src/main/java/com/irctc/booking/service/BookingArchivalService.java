@@ -0,0 +1,179 @@
+package com.irctc.booking.service;
+
+import com.irctc.booking.repository.BookingHistoryRepository;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Booking Archival Service
+ *
+ * Moves bookings whose journey is older than {@code booking.archive.hot-days}
+ * out of the hot tables into the append-only *_archive tables (see V17):
+ * - bookings, their passengers and their event-store entries are copied with
+ *   INSERT ... SELECT and then deleted, one transaction per keyset chunk, so a
+ *   failed run never leaves a booking in both places or in neither
+ * - published outbox rows past {@code booking.archive.outbox-retention-days}
+ *   are deleted in chunks; they are transport copies of events already on Kafka
+ *
+ * Bookings without a trustworthy journey date are never moved, since they may
+ * still be due to travel and archived bookings can no longer be changed.
+ *
+ * Runs nightly under a ShedLock so only one instance moves rows.
+ *
+ * @author IRCTC Development Team
+ * @version 1.0.0
+ */
+@Service
+public class BookingArchivalService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingArchivalService.class);
+
+    private static final String JOURNEY_MONTH =
+        "EXTRACT(YEAR FROM b.journey_date) * 100 + EXTRACT(MONTH FROM b.journey_date)";
+
+    // A NULL journey date, or one equal to the booking date as the old default set it, says
+    // nothing about when the train runs; such bookings stay hot rather than risk archiving a trip
+    private static final String SELECT_EXPIRED_IDS =
+        "SELECT id FROM bookings WHERE journey_date < ? AND journey_date <> CAST(booking_time AS DATE) " +
+        "AND id > ? ORDER BY id LIMIT ?";
+
+    private static final String COPY_BOOKINGS =
+        "INSERT INTO bookings_archive (id, journey_month, user_id, train_id, pnr_number, journey_date, " +
+        "booking_time, status, total_fare, tenant_id, created_at, updated_at, last_modified_at, archived_at) " +
+        "SELECT b.id, " + JOURNEY_MONTH + ", b.user_id, b.train_id, b.pnr_number, b.journey_date, " +
+        "b.booking_time, b.status, b.total_fare, b.tenant_id, b.created_at, b.updated_at, b.last_modified_at, " +
+        "CURRENT_TIMESTAMP FROM bookings b WHERE b.id IN (:ids)";
+
+    private static final String COPY_PASSENGERS =
+        "INSERT INTO passengers_archive (id, journey_month, booking_id, name, age, gender, seat_number, " +
+        "id_proof_type, id_proof_number, tenant_id, created_at, updated_at) " +
+        "SELECT p.id, " + JOURNEY_MONTH + ", p.booking_id, p.name, p.age, p.gender, p.seat_number, " +
+        "p.id_proof_type, p.id_proof_number, p.tenant_id, p.created_at, p.updated_at " +
+        "FROM passengers p JOIN bookings b ON b.id = p.booking_id WHERE p.booking_id IN (:ids)";
+
+    private static final String COPY_EVENTS =
+        "INSERT INTO booking_events_archive (id, journey_month, event_id, aggregate_id, event_type, event_data, " +
+        "timestamp, correlation_id, user_id, version, event_metadata, archived_at) " +
+        "SELECT e.id, " + JOURNEY_MONTH + ", e.event_id, e.aggregate_id, e.event_type, e.event_data, " +
+        "e.timestamp, e.correlation_id, e.user_id, e.version, e.event_metadata, CURRENT_TIMESTAMP " +
+        "FROM booking_events e JOIN bookings b ON e.aggregate_id = CAST(b.id AS VARCHAR(50)) " +
+        "WHERE e.aggregate_id IN (:aggregateIds)";
+
+    private static final String SELECT_PURGEABLE_OUTBOX_IDS =
+        "SELECT id FROM outbox_events WHERE status = 'PUBLISHED' AND published_at < ? AND id > ? ORDER BY id LIMIT ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired(required = false)
+    private BookingHistoryRepository historyRepository;
+
+    @Value("${booking.archive.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${booking.archive.hot-days:7}")
+    private int hotDays = 7;
+
+    @Value("${booking.archive.chunk-size:500}")
+    private int chunkSize = 500;
+
+    @Value("${booking.archive.outbox-retention-days:7}")
+    private int outboxRetentionDays = 7;
+
+    /**
+     * Nightly move of completed journeys, outside the booking peak
+     */
+    @Scheduled(cron = "${booking.archive.cron:0 30 2 * * *}")
+    @SchedulerLock(name = "bookingArchival", lockAtLeastFor = "PT1M", lockAtMostFor = "PT2H")
+    public void runScheduledArchival() {
+        if (!enabled) {
+            return;
+        }
+        archiveCompletedJourneys(LocalDate.now().minusDays(hotDays));
+        purgePublishedOutboxEvents(LocalDateTime.now().minusDays(outboxRetentionDays));
+    }
+
+    /**
+     * Move every booking with a journey date before the cutoff to the archive
+     *
+     * @return number of bookings archived
+     */
+    public int archiveCompletedJourneys(LocalDate cutoff) {
+        logger.info("🗄️ Archiving bookings with journeys before {}", cutoff);
+        NamedParameterJdbcTemplate named = new NamedParameterJdbcTemplate(jdbcTemplate);
+        long afterId = 0;
+        int archived = 0;
+
+        while (true) {
+            List<Long> ids = jdbcTemplate.queryForList(SELECT_EXPIRED_IDS, Long.class, cutoff, afterId, chunkSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            List<String> aggregateIds = ids.stream().map(String::valueOf).toList();
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("aggregateIds", aggregateIds);
+
+            Integer moved = transactionTemplate.execute(status -> {
+                // Copies join bookings for the journey month, so they run before the deletes
+                int bookings = named.update(COPY_BOOKINGS, params);
+                named.update(COPY_PASSENGERS, params);
+                named.update(COPY_EVENTS, params);
+                named.update("DELETE FROM booking_events WHERE aggregate_id IN (:aggregateIds)", params);
+                named.update("DELETE FROM passengers WHERE booking_id IN (:ids)", params);
+                named.update("DELETE FROM bookings WHERE id IN (:ids)", params);
+                return bookings;
+            });
+            archived += moved != null ? moved : 0;
+            afterId = ids.get(ids.size() - 1);
+        }
+
+        if (archived > 0 && historyRepository != null) {
+            historyRepository.refreshWatermark();
+        }
+        logger.info("✅ Archived {} bookings with journeys before {}", archived, cutoff);
+        return archived;
+    }
+
+    /**
+     * Delete published outbox rows older than the given time
+     *
+     * @return number of rows deleted
+     */
+    public int purgePublishedOutboxEvents(LocalDateTime publishedBefore) {
+        NamedParameterJdbcTemplate named = new NamedParameterJdbcTemplate(jdbcTemplate);
+        long afterId = 0;
+        int purged = 0;
+
+        while (true) {
+            List<Long> ids = jdbcTemplate.queryForList(SELECT_PURGEABLE_OUTBOX_IDS, Long.class,
+                publishedBefore, afterId, chunkSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            Integer deleted = transactionTemplate.execute(status ->
+                named.update("DELETE FROM outbox_events WHERE id IN (:ids)", new MapSqlParameterSource("ids", ids)));
+            purged += deleted != null ? deleted : 0;
+            afterId = ids.get(ids.size() - 1);
+        }
+
+        logger.info("🧹 Purged {} published outbox events older than {}", purged, publishedBefore);
+        return purged;
+    }
+}
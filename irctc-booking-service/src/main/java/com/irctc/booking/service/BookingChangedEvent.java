@@ -0,0 +1,67 @@
+package com.irctc.booking.service;
+
+import com.irctc.booking.client.TrainServiceClient;
+import com.irctc.booking.entity.SimpleBooking;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Application event published when a booking is created, changed or deleted
+ *
+ * Carries what the booking looked like before and after the change: before
+ * is null for a new booking and after is null for a deleted one. Listeners
+ * that keep running totals subtract the first and add the second. Train name,
+ * route and distance are captured when the event is published, so a listener
+ * subtracts the same route it added even if the train's reference data has
+ * changed since.
+ *
+ * @author IRCTC Development Team
+ * @version 1.0.0
+ */
+public record BookingChangedEvent(Long bookingId, Snapshot before, Snapshot after) {
+
+    /**
+     * @param train the train's details when the booking was captured, or null when the train was unknown
+     */
+    public record Snapshot(Long userId, String tenantId, Long trainId, TrainDetails train, String status,
+                           BigDecimal totalFare, LocalDateTime bookingTime) {
+
+        public static Snapshot of(SimpleBooking booking, TrainServiceClient.TrainResponse train) {
+            return new Snapshot(booking.getUserId(), booking.getTenantId(), booking.getTrainId(),
+                TrainDetails.of(train), booking.getStatus(), booking.getTotalFare(), booking.getBookingTime());
+        }
+
+        public static Snapshot of(SimpleBooking booking, TrainReferenceStore trains) {
+            return of(booking, trains != null ? trains.get(booking.getTrainId()).orElse(null) : null);
+        }
+    }
+
+    public record TrainDetails(String trainName, String sourceStation, String destinationStation, Integer distance) {
+
+        static TrainDetails of(TrainServiceClient.TrainResponse train) {
+            return train != null
+                ? new TrainDetails(train.getTrainName(), train.getSourceStation(), train.getDestinationStation(),
+                    train.getDistance())
+                : null;
+        }
+
+        public String routeKey() {
+            return (sourceStation != null ? sourceStation : "UNKNOWN") + " → "
+                + (destinationStation != null ? destinationStation : "UNKNOWN");
+        }
+    }
+
+    public static BookingChangedEvent created(SimpleBooking booking, TrainReferenceStore trains) {
+        return new BookingChangedEvent(booking.getId(), null, Snapshot.of(booking, trains));
+    }
+
+    public static BookingChangedEvent changed(Long bookingId, Snapshot before, SimpleBooking after,
+                                              TrainReferenceStore trains) {
+        return new BookingChangedEvent(bookingId, before, Snapshot.of(after, trains));
+    }
+
+    public static BookingChangedEvent deleted(SimpleBooking booking, TrainReferenceStore trains) {
+        return new BookingChangedEvent(booking.getId(), Snapshot.of(booking, trains), null);
+    }
+}
@@ -0,0 +1,13 @@
+package com.irctc.booking.service;
+
+/**
+ * Application event published when a booking reaches CONFIRMED status
+ *
+ * Listeners run after the surrounding transaction commits, so they can
+ * safely load the booking by ID.
+ *
+ * @author IRCTC Development Team
+ * @version 1.0.0
+ */
+public record BookingConfirmedEvent(Long bookingId, Long userId, String tenantId) {
+}
@@ -15,9 +15,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
@@ -43,8 +45,14 @@ public class BookingModificationService {
     @Autowired(required = false)
     private TrainServiceClient trainServiceClient;
     
+    @Autowired(required = false)
+    private TrainReferenceStore trainReferenceStore;
+    
     @Autowired(required = false)
     private PaymentServiceClient paymentServiceClient;
+
+    @Autowired(required = false)
+    private ApplicationEventPublisher applicationEventPublisher;
     
     /**
      * Get available modification options for a booking
@@ -58,6 +66,7 @@ public class BookingModificationService {
         if (TenantContext.hasTenant() && !TenantContext.getTenantId().equals(booking.getTenantId())) {
             throw new EntityNotFoundException("Booking", bookingId);
         }
+        rejectArchived(booking);
         
         // Check if booking can be modified
         if (!canModifyBooking(booking)) {
@@ -110,6 +119,7 @@ public class BookingModificationService {
         if (TenantContext.hasTenant() && !TenantContext.getTenantId().equals(booking.getTenantId())) {
             throw new EntityNotFoundException("Booking", request.getBookingId());
         }
+        rejectArchived(booking);
         
         // Validate modification is allowed
         if (!canModifyDate(booking)) {
@@ -129,10 +139,12 @@ public class BookingModificationService {
         BigDecimal newFare = booking.getTotalFare();
         Long trainIdToUse = request.getNewTrainId() != null ? request.getNewTrainId() : booking.getTrainId();
         
-        if (trainServiceClient != null) {
+        if (trainReferenceStore != null || trainServiceClient != null) {
             try {
-                // Get train information
-                TrainServiceClient.TrainResponse train = trainServiceClient.getTrainById(trainIdToUse);
+                // Get train information, from the local replica when available
+                TrainServiceClient.TrainResponse train = trainReferenceStore != null
+                    ? trainReferenceStore.get(trainIdToUse).orElse(null)
+                    : trainServiceClient.getTrainById(trainIdToUse);
                 if (train != null && train.getBaseFare() != null) {
                     // Use base fare from train service
                     newFare = BigDecimal.valueOf(train.getBaseFare());
@@ -202,8 +214,13 @@ public class BookingModificationService {
             }
         }
         
-        // Update booking
+        BookingChangedEvent.Snapshot before = BookingChangedEvent.Snapshot.of(booking, trainReferenceStore);
+        Long previousTrainId = booking.getTrainId();
+        LocalDate previousJourneyDate = booking.getJourneyDate();
+
+        // Update booking; the journey date moves with it, as archival and seat counts key on it
         booking.setBookingTime(request.getNewJourneyDate());
+        booking.setJourneyDate(request.getNewJourneyDate().toLocalDate());
         if (request.getNewTrainId() != null) {
             booking.setTrainId(request.getNewTrainId());
         }
@@ -211,6 +228,9 @@ public class BookingModificationService {
         booking.setUpdatedAt(LocalDateTime.now());
         
         SimpleBooking saved = bookingRepository.save(booking);
+        publishBookingChanged(before, saved);
+        // Seats are released on the old train and date and taken on the new ones
+        bookingService.publishBookingJourneyChanged(saved, previousTrainId, previousJourneyDate);
         
         logger.info("✅ Date modified for booking {}: {} -> {}", 
             booking.getId(), booking.getBookingTime(), request.getNewJourneyDate());
@@ -233,6 +253,7 @@ public class BookingModificationService {
         if (TenantContext.hasTenant() && !TenantContext.getTenantId().equals(booking.getTenantId())) {
             throw new EntityNotFoundException("Booking", request.getBookingId());
         }
+        rejectArchived(booking);
         
         // Validate modification is allowed
         if (!canUpgradeSeat(booking)) {
@@ -250,6 +271,8 @@ public class BookingModificationService {
         // Process payment/refund
         String paymentStatus = processPaymentForModification(booking.getId(), totalAmount, "Seat upgrade");
         
+        BookingChangedEvent.Snapshot before = BookingChangedEvent.Snapshot.of(booking, trainReferenceStore);
+
         // Update booking fare
         booking.setTotalFare(request.getNewFare());
         booking.setUpdatedAt(LocalDateTime.now());
@@ -260,6 +283,7 @@ public class BookingModificationService {
         }
         
         SimpleBooking saved = bookingRepository.save(booking);
+        publishBookingChanged(before, saved);
         
         logger.info("✅ Seat upgraded for booking {}: New class {}, New fare {}", 
             booking.getId(), request.getNewSeatClass(), request.getNewFare());
@@ -282,6 +306,7 @@ public class BookingModificationService {
         if (TenantContext.hasTenant() && !TenantContext.getTenantId().equals(booking.getTenantId())) {
             throw new EntityNotFoundException("Booking", request.getBookingId());
         }
+        rejectArchived(booking);
         
         // Validate modification is allowed
         if (!canModifyPassengers(booking)) {
@@ -295,6 +320,8 @@ public class BookingModificationService {
             booking.setPassengers(new ArrayList<>(booking.getPassengers()));
         }
         
+        BookingChangedEvent.Snapshot before = BookingChangedEvent.Snapshot.of(booking, trainReferenceStore);
+
         // Remove passengers
         if (request.getPassengerIdsToRemove() != null && !request.getPassengerIdsToRemove().isEmpty()) {
             List<SimplePassenger> passengersToRemove = booking.getPassengers().stream()
@@ -335,6 +362,7 @@ public class BookingModificationService {
         booking.setUpdatedAt(LocalDateTime.now());
         
         SimpleBooking saved = bookingRepository.save(booking);
+        publishBookingChanged(before, saved);
         
         logger.info("✅ Passengers modified for booking {}: Added {}, Removed {}", 
             booking.getId(), passengersAdded, passengersRemoved);
@@ -363,6 +391,7 @@ public class BookingModificationService {
         if (TenantContext.hasTenant() && !TenantContext.getTenantId().equals(booking.getTenantId())) {
             throw new EntityNotFoundException("Booking", request.getBookingId());
         }
+        rejectArchived(booking);
         
         // Validate modification is allowed
         if (!canChangeRoute(booking)) {
@@ -380,6 +409,8 @@ public class BookingModificationService {
         // Process payment/refund
         String paymentStatus = processPaymentForModification(booking.getId(), totalAmount, "Route change");
         
+        BookingChangedEvent.Snapshot before = BookingChangedEvent.Snapshot.of(booking, trainReferenceStore);
+
         // Update booking
         if (request.getNewTrainId() != null) {
             booking.setTrainId(request.getNewTrainId());
@@ -388,6 +419,7 @@ public class BookingModificationService {
         booking.setUpdatedAt(LocalDateTime.now());
         
         SimpleBooking saved = bookingRepository.save(booking);
+        publishBookingChanged(before, saved);
         
         logger.info("✅ Route changed for booking {}: {} -> {}", 
             booking.getId(), booking.getBookingTime(), request.getNewSourceStation() + " to " + request.getNewDestinationStation());
@@ -397,6 +429,16 @@ public class BookingModificationService {
         return response;
     }
     
+    /**
+     * Archived bookings are detached copies of completed journeys; saving one would re-insert it into the hot table
+     */
+    private void rejectArchived(SimpleBooking booking) {
+        if (booking.isArchived()) {
+            throw new BusinessException("Booking " + booking.getId() + " is archived and can no longer be modified",
+                "BOOKING_ARCHIVED");
+        }
+    }
+    
     /**
      * Check if booking can be modified
      */
@@ -542,5 +584,10 @@ public class BookingModificationService {
         
         return response;
     }
-}
 
+    private void publishBookingChanged(BookingChangedEvent.Snapshot before, SimpleBooking saved) {
+        if (applicationEventPublisher != null) {
+            applicationEventPublisher.publishEvent(BookingChangedEvent.changed(saved.getId(), before, saved, trainReferenceStore));
+        }
+    }
+}
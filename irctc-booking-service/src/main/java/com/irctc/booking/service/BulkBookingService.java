@@ -0,0 +1,470 @@
+package com.irctc.booking.service;
+
+import com.irctc.booking.client.TrainServiceClient;
+import com.irctc.booking.entity.BulkBookingJob;
+import com.irctc.booking.entity.BulkBookingJobItem;
+import com.irctc.booking.entity.SimpleBooking;
+import com.irctc.booking.entity.SimplePassenger;
+import com.irctc.booking.exception.ValidationException;
+import com.irctc.booking.id.PnrGenerator;
+import com.irctc.booking.lock.DistributedLockService;
+import com.irctc.booking.metrics.BookingMetrics;
+import com.irctc.booking.repository.BulkBookingJobItemRepository;
+import com.irctc.booking.repository.BulkBookingJobRepository;
+import com.irctc.booking.repository.SimpleBookingRepository;
+import com.irctc.booking.tenant.TenantContext;
+import com.irctc.shared.events.BookingEvents;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Bulk Booking Service
+ *
+ * Group booking pipeline behind {@code POST /api/bookings/async/bulk}. Instead of
+ * running {@link SimpleBookingService#createBooking} once per item, a job:
+ * - validates every item before anything is written; invalid items are rejected
+ * - groups the remaining items by train and takes the train's booking lock and
+ *   seat availability once per group, allocating seats in submission order
+ * - inserts bookings, passengers and item results in chunks, one transaction per
+ *   chunk, so the pooled-lo IDs and JDBC batching apply
+ * - writes one aggregated outbox event per chunk instead of one publish per booking
+ *
+ * Per-item results are stored in bulk_booking_job_items and polled through
+ * {@code GET /api/bookings/bulk-jobs/{jobId}}.
+ *
+ * @author IRCTC Development Team
+ * @version 1.0.0
+ */
+@Service
+public class BulkBookingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkBookingService.class);
+
+    public static final String BULK_BOOKING_TOPIC = "booking-created-batch";
+
+    public static final String JOB_QUEUED = "QUEUED";
+    public static final String JOB_PROCESSING = "PROCESSING";
+    public static final String JOB_COMPLETED = "COMPLETED";
+    public static final String JOB_PARTIALLY_COMPLETED = "PARTIALLY_COMPLETED";
+    public static final String JOB_FAILED = "FAILED";
+
+    public static final String ITEM_BOOKED = "BOOKED";
+    public static final String ITEM_REJECTED = "REJECTED";
+    public static final String ITEM_FAILED = "FAILED";
+
+    @Autowired
+    private SimpleBookingRepository bookingRepository;
+
+    @Autowired
+    private BulkBookingJobRepository jobRepository;
+
+    @Autowired
+    private BulkBookingJobItemRepository itemRepository;
+
+    @Autowired
+    private OutboxEventService outboxEventService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired(required = false)
+    private TrainServiceClient trainServiceClient;
+
+    @Autowired(required = false)
+    private DistributedLockService lockService;
+
+    @Autowired(required = false)
+    private PnrGenerator pnrGenerator;
+
+    @Autowired(required = false)
+    private BookingCacheService cacheService;
+
+    @Autowired(required = false)
+    private BookingMetrics bookingMetrics;
+
+    @Autowired(required = false)
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Autowired(required = false)
+    private TrainReferenceStore trainReferenceStore;
+
+    @Value("${booking.bulk.chunk-size:50}")
+    private int chunkSize = 50;
+
+    @Value("${booking.bulk.max-items:1000}")
+    private int maxItems = 1000;
+
+    @Value("${booking.bulk.lock-timeout-seconds:120}")
+    private long lockTimeoutSeconds = 120;
+
+    @Value("${booking.bulk.lock-wait-seconds:10}")
+    private long lockWaitSeconds = 10;
+
+    /**
+     * Register a job for a submitted batch; processing happens asynchronously
+     */
+    public BulkBookingJob createJob(List<SimpleBooking> bookings) {
+        if (bookings == null || bookings.isEmpty()) {
+            throw new ValidationException("Bulk booking request contains no bookings");
+        }
+        if (bookings.size() > maxItems) {
+            throw new ValidationException("Bulk booking request exceeds the limit of " + maxItems + " bookings");
+        }
+
+        BulkBookingJob job = new BulkBookingJob();
+        job.setStatus(JOB_QUEUED);
+        job.setTotalItems(bookings.size());
+        if (TenantContext.hasTenant()) {
+            job.setTenantId(TenantContext.getTenantId());
+        }
+        BulkBookingJob saved = jobRepository.save(job);
+        logger.info("📦 Bulk booking job {} queued with {} items", saved.getId(), bookings.size());
+        return saved;
+    }
+
+    public Optional<BulkBookingJob> getJob(Long jobId) {
+        return jobRepository.findById(jobId)
+            .filter(job -> job.getTenantId() == null || !TenantContext.hasTenant()
+                || job.getTenantId().equals(TenantContext.getTenantId()));
+    }
+
+    public List<BulkBookingJobItem> getJobItems(Long jobId, String status) {
+        if (status != null) {
+            return itemRepository.findByJobIdAndStatusOrderByItemIndexAsc(jobId, status);
+        }
+        return itemRepository.findByJobIdOrderByItemIndexAsc(jobId);
+    }
+
+    /**
+     * Run the pipeline for a queued job
+     */
+    public BulkBookingJob processJob(Long jobId, List<SimpleBooking> bookings) {
+        BulkBookingJob job = jobRepository.findById(jobId)
+            .orElseThrow(() -> new IllegalArgumentException("Bulk booking job not found: " + jobId));
+
+        // Runs on the task executor, or on the request thread when the pool is full, so the
+        // job's tenant is set for the run and the thread's own tenant put back afterwards
+        TenantContext.Snapshot previous = TenantContext.capture();
+        if (job.getTenantId() != null) {
+            TenantContext.setTenantId(job.getTenantId());
+        }
+
+        try {
+            job.setStatus(JOB_PROCESSING);
+            job.setStartedAt(LocalDateTime.now());
+            jobRepository.save(job);
+
+            // 1. Validate the whole batch before touching inventory
+            Map<Long, List<PendingItem>> byTrain = new LinkedHashMap<>();
+            List<BulkBookingJobItem> rejected = new ArrayList<>();
+            for (int i = 0; i < bookings.size(); i++) {
+                SimpleBooking booking = bookings.get(i);
+                String error = validate(booking);
+                if (error != null) {
+                    rejected.add(itemResult(jobId, i, booking, ITEM_REJECTED, error));
+                } else {
+                    byTrain.computeIfAbsent(booking.getTrainId(), k -> new ArrayList<>())
+                        .add(new PendingItem(i, booking));
+                }
+            }
+            recordResults(jobId, rejected, 0, rejected.size(), 0);
+            logger.info("📦 Bulk booking job {}: {} valid items on {} trains, {} rejected",
+                jobId, bookings.size() - rejected.size(), byTrain.size(), rejected.size());
+
+            // 2. One lock and one availability read per train, then chunked inserts
+            for (Map.Entry<Long, List<PendingItem>> group : byTrain.entrySet()) {
+                processTrainGroup(jobId, group.getKey(), group.getValue());
+            }
+
+            return completeJob(jobId, null);
+        } catch (Exception e) {
+            logger.error("❌ Bulk booking job {} failed", jobId, e);
+            return completeJob(jobId, e.getMessage());
+        } finally {
+            TenantContext.restore(previous);
+        }
+    }
+
+    private void processTrainGroup(Long jobId, Long trainId, List<PendingItem> items) {
+        DistributedLockService.LockHandle lock = null;
+        if (lockService != null) {
+            // Same key as createBooking, so single bookings on this train wait for the group
+            lock = lockService.acquireLock("booking:" + trainId, lockTimeoutSeconds, lockWaitSeconds);
+            if (lock == null) {
+                failItems(jobId, items, "Could not acquire booking lock for train " + trainId);
+                return;
+            }
+        }
+
+        try {
+            int remainingSeats = availableSeats(trainId);
+            List<PendingItem> accepted = new ArrayList<>();
+            List<BulkBookingJobItem> rejected = new ArrayList<>();
+            for (PendingItem item : items) {
+                int seats = seatsRequested(item.booking());
+                if (seats > remainingSeats) {
+                    rejected.add(itemResult(jobId, item.index(), item.booking(), ITEM_REJECTED,
+                        "Insufficient seats on train " + trainId + ": requested " + seats
+                            + ", available " + remainingSeats));
+                } else {
+                    remainingSeats -= seats;
+                    accepted.add(item);
+                }
+            }
+            recordResults(jobId, rejected, 0, rejected.size(), 0);
+
+            for (int from = 0; from < accepted.size(); from += chunkSize) {
+                List<PendingItem> chunk = accepted.subList(from, Math.min(from + chunkSize, accepted.size()));
+                persistChunk(jobId, trainId, chunk);
+                if (lock != null) {
+                    lockService.renewLock(lock, lockTimeoutSeconds);
+                }
+            }
+        } finally {
+            if (lock != null) {
+                lockService.releaseLock(lock);
+            }
+        }
+    }
+
+    /**
+     * Insert one chunk of bookings with their item results and aggregated event in a single transaction
+     */
+    private void persistChunk(Long jobId, Long trainId, List<PendingItem> chunk) {
+        List<SimpleBooking> saved;
+        try {
+            saved = transactionTemplate.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                List<SimpleBooking> toSave = new ArrayList<>(chunk.size());
+                for (PendingItem item : chunk) {
+                    SimpleBooking booking = item.booking();
+                    if (TenantContext.hasTenant()) {
+                        booking.setTenantId(TenantContext.getTenantId());
+                    }
+                    booking.setPnrNumber(generatePnr());
+                    booking.setBookingTime(now);
+                    booking.setStatus("CONFIRMED");
+                    booking.setCreatedAt(now);
+                    toSave.add(booking);
+                }
+                List<SimpleBooking> bookingsSaved = bookingRepository.saveAll(toSave);
+
+                List<BulkBookingJobItem> results = new ArrayList<>(chunk.size());
+                List<BookingEvents.BookingCreatedEvent> events = new ArrayList<>(chunk.size());
+                for (int i = 0; i < chunk.size(); i++) {
+                    SimpleBooking booking = bookingsSaved.get(i);
+                    BulkBookingJobItem result = itemResult(jobId, chunk.get(i).index(), booking, ITEM_BOOKED, null);
+                    result.setBookingId(booking.getId());
+                    result.setPnrNumber(booking.getPnrNumber());
+                    results.add(result);
+                    events.add(new BookingEvents.BookingCreatedEvent(
+                        booking.getId(),
+                        booking.getUserId(),
+                        booking.getTrainId(),
+                        booking.getPnrNumber(),
+                        booking.getTotalFare(),
+                        booking.getPassengers() != null ? booking.getPassengers().size() : 0,
+                        booking.getJourneyDate() != null ? booking.getJourneyDate().atStartOfDay() : booking.getBookingTime()
+                    ));
+                }
+                itemRepository.saveAll(results);
+
+                Map<String, Object> payload = new HashMap<>();
+                payload.put("jobId", jobId);
+                payload.put("trainId", trainId);
+                payload.put("bookingCount", events.size());
+                payload.put("bookings", events);
+                outboxEventService.saveEvent(BULK_BOOKING_TOPIC, payload);
+
+                jobRepository.incrementCounts(jobId, bookingsSaved.size(), 0, 0);
+
+                // QR pre-generation and travel statistics listeners run after this transaction commits
+                if (applicationEventPublisher != null) {
+                    for (SimpleBooking booking : bookingsSaved) {
+                        applicationEventPublisher.publishEvent(
+                            new BookingConfirmedEvent(booking.getId(), booking.getUserId(), booking.getTenantId()));
+                        applicationEventPublisher.publishEvent(BookingChangedEvent.created(booking, trainReferenceStore));
+                    }
+                }
+                return bookingsSaved;
+            });
+        } catch (Exception e) {
+            logger.error("❌ Bulk booking job {}: chunk of {} bookings on train {} failed", jobId, chunk.size(), trainId, e);
+            failItems(jobId, chunk, "Booking insert failed: " + e.getMessage());
+            return;
+        }
+
+        afterChunkCommitted(saved);
+        logger.info("✅ Bulk booking job {}: booked {} on train {}", jobId, saved.size(), trainId);
+    }
+
+    private void afterChunkCommitted(List<SimpleBooking> saved) {
+        if (cacheService != null) {
+            Set<Long> userIds = new LinkedHashSet<>();
+            for (SimpleBooking booking : saved) {
+                userIds.add(booking.getUserId());
+            }
+            userIds.forEach(cacheService::invalidateUserBookings);
+        }
+
+        if (bookingMetrics != null) {
+            for (SimpleBooking booking : saved) {
+                bookingMetrics.incrementBookingsCreated();
+                bookingMetrics.incrementBookingsConfirmed();
+                bookingMetrics.recordRevenue(booking.getTotalFare());
+                if (booking.getPassengers() != null) {
+                    bookingMetrics.incrementPassengersBooked(booking.getPassengers().size());
+                }
+            }
+        }
+    }
+
+    private void failItems(Long jobId, List<PendingItem> items, String message) {
+        List<BulkBookingJobItem> failed = new ArrayList<>(items.size());
+        for (PendingItem item : items) {
+            // The booking may carry an ID from the rolled-back insert
+            failed.add(itemResult(jobId, item.index(), item.booking(), ITEM_FAILED, message));
+        }
+        recordResults(jobId, failed, 0, 0, failed.size());
+        if (bookingMetrics != null) {
+            failed.forEach(f -> bookingMetrics.incrementBookingsFailed());
+        }
+    }
+
+    private void recordResults(Long jobId, List<BulkBookingJobItem> results, int booked, int rejected, int failed) {
+        if (results.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            itemRepository.saveAll(results);
+            jobRepository.incrementCounts(jobId, booked, rejected, failed);
+        });
+    }
+
+    private BulkBookingJob completeJob(Long jobId, String errorMessage) {
+        BulkBookingJob job = jobRepository.findById(jobId).orElseThrow();
+        if (errorMessage != null || job.getBookedItems() == 0) {
+            job.setStatus(JOB_FAILED);
+        } else if (job.getBookedItems().equals(job.getTotalItems())) {
+            job.setStatus(JOB_COMPLETED);
+        } else {
+            job.setStatus(JOB_PARTIALLY_COMPLETED);
+        }
+        job.setErrorMessage(errorMessage);
+        job.setCompletedAt(LocalDateTime.now());
+        BulkBookingJob saved = jobRepository.save(job);
+        logger.info("📦 Bulk booking job {} finished {}: booked={}, rejected={}, failed={}",
+            jobId, saved.getStatus(), saved.getBookedItems(), saved.getRejectedItems(), saved.getFailedItems());
+        return saved;
+    }
+
+    /**
+     * Check the fields a client must supply; server-assigned fields (PNR, status, times) are ignored
+     */
+    String validate(SimpleBooking booking) {
+        if (booking == null) {
+            return "Booking is empty";
+        }
+        // saveAll merges entities that carry an ID, which would overwrite an existing booking
+        if (booking.getId() != null) {
+            return "Booking ID must not be set";
+        }
+        if (booking.getUserId() == null || booking.getUserId() <= 0) {
+            return "User ID must be positive";
+        }
+        if (booking.getTrainId() == null || booking.getTrainId() <= 0) {
+            return "Train ID must be positive";
+        }
+        if (booking.getJourneyDate() == null) {
+            return "Journey date is required";
+        }
+        BigDecimal fare = booking.getTotalFare();
+        if (fare == null || fare.signum() <= 0) {
+            return "Total fare must be greater than 0";
+        }
+        if (fare.scale() > 2 || fare.precision() - fare.scale() > 8) {
+            return "Total fare must have at most 8 integer digits and 2 decimal places";
+        }
+        if (booking.getPassengers() != null) {
+            for (SimplePassenger passenger : booking.getPassengers()) {
+                if (passenger != null && passenger.getId() != null) {
+                    return "Passenger ID must not be set";
+                }
+                if (passenger == null || isBlank(passenger.getName()) || passenger.getAge() == null
+                        || isBlank(passenger.getGender()) || isBlank(passenger.getSeatNumber())
+                        || isBlank(passenger.getIdProofType()) || isBlank(passenger.getIdProofNumber())) {
+                    return "Passenger name, age, gender, seat number and ID proof are required";
+                }
+            }
+        }
+        return null;
+    }
+
+    private int availableSeats(Long trainId) {
+        if (trainServiceClient == null) {
+            return Integer.MAX_VALUE;
+        }
+        try {
+            TrainServiceClient.TrainResponse train = trainServiceClient.getTrainById(trainId);
+            if (train != null && train.getAvailableSeats() != null) {
+                return train.getAvailableSeats();
+            }
+        } catch (Exception e) {
+            logger.warn("Could not read seat availability for train {}: {}", trainId, e.getMessage());
+        }
+        // Same as createBooking: no availability information means no seat check
+        return Integer.MAX_VALUE;
+    }
+
+    private static int seatsRequested(SimpleBooking booking) {
+        return booking.getPassengers() != null && !booking.getPassengers().isEmpty()
+            ? booking.getPassengers().size() : 1;
+    }
+
+    private static BulkBookingJobItem itemResult(Long jobId, int index, SimpleBooking booking,
+                                                 String status, String message) {
+        BulkBookingJobItem item = new BulkBookingJobItem();
+        item.setJobId(jobId);
+        item.setItemIndex(index);
+        item.setStatus(status);
+        item.setMessage(message);
+        item.setTenantId(TenantContext.hasTenant() ? TenantContext.getTenantId() : null);
+        if (booking != null) {
+            item.setUserId(booking.getUserId());
+            item.setTrainId(booking.getTrainId());
+            item.setPassengerCount(booking.getPassengers() != null ? booking.getPassengers().size() : 0);
+        }
+        return item;
+    }
+
+    private String generatePnr() {
+        if (pnrGenerator != null) {
+            return pnrGenerator.nextPnr();
+        }
+        return UUID.randomUUID().toString().substring(0, 10).toUpperCase();
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private record PendingItem(int index, SimpleBooking booking) {
+    }
+}
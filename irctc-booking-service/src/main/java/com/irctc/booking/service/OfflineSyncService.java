@@ -1,55 +1,92 @@
 package com.irctc.booking.service;
 
-import com.irctc.booking.client.TrainServiceClient;
+import com.irctc.booking.client.TrainServiceClient.TrainReference;
 import com.irctc.booking.dto.offline.*;
+import com.irctc.booking.entity.BookingTombstone;
 import com.irctc.booking.entity.OfflineAction;
 import com.irctc.booking.entity.SimpleBooking;
 import com.irctc.booking.entity.SimplePassenger;
+import com.irctc.booking.repository.BookingTombstoneRepository;
 import com.irctc.booking.repository.SimpleBookingRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Service
 public class OfflineSyncService {
 
     private static final Logger logger = LoggerFactory.getLogger(OfflineSyncService.class);
-    private static final long CACHE_TTL_MINUTES = 30;
+    private static final String SYNC_TOKEN_VERSION = "v1";
+    // Re-read a small window before the token so rows committed late with an older timestamp are not missed;
+    // clients upsert tickets by bookingId, so the overlap is harmless
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(5);
 
     private final SimpleBookingRepository bookingRepository;
-    private final TrainServiceClient trainServiceClient;
+    private final TrainReferenceStore trainReferenceStore;
     private final OfflineActionService offlineActionService;
-    private final Map<Long, CachedSchedule> scheduleCache = new ConcurrentHashMap<>();
+    private final BookingTombstoneRepository bookingTombstoneRepository;
 
     public OfflineSyncService(SimpleBookingRepository bookingRepository,
-                              TrainServiceClient trainServiceClient,
-                              OfflineActionService offlineActionService) {
+                              TrainReferenceStore trainReferenceStore,
+                              OfflineActionService offlineActionService,
+                              BookingTombstoneRepository bookingTombstoneRepository) {
         this.bookingRepository = bookingRepository;
-        this.trainServiceClient = trainServiceClient;
+        this.trainReferenceStore = trainReferenceStore;
         this.offlineActionService = offlineActionService;
+        this.bookingTombstoneRepository = bookingTombstoneRepository;
     }
 
     public OfflineSyncResponse generateOfflineBundle(OfflineSyncRequest request) {
         OfflineSyncResponse response = new OfflineSyncResponse();
         OfflineSyncResponse.SyncMetadata metadata = new OfflineSyncResponse.SyncMetadata();
-        metadata.setLastSyncTime(request.getLastSyncTime());
-        metadata.setIncremental(request.getLastSyncTime() != null);
+        LocalDateTime since = resolveSince(request);
+        boolean incremental = since != null;
+        metadata.setLastSyncTime(since);
+        metadata.setIncremental(incremental);
 
-        if (request.isIncludeTickets() && request.getUserId() != null) {
-            List<OfflineTicketDTO> tickets = toOfflineTickets(bookingRepository.findByUserId(request.getUserId()));
+        LocalDateTime highWaterMark = since;
+        List<SimpleBooking> bookings = null;
+        if (request.getUserId() != null && request.isIncludeTickets()) {
+            bookings = incremental
+                ? bookingRepository.findModifiedSince(request.getUserId(), since.minus(SYNC_OVERLAP))
+                : bookingRepository.findByUserId(request.getUserId());
+            highWaterMark = latest(highWaterMark, bookings.stream()
+                .map(SimpleBooking::getLastModifiedAt)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null));
+        }
+
+        if (bookings != null) {
+            List<OfflineTicketDTO> tickets = toOfflineTickets(bookings);
             response.setTickets(tickets);
             metadata.setTicketCount(tickets.size());
         } else {
             metadata.setTicketCount(0);
         }
 
+        if (incremental && request.getUserId() != null) {
+            List<BookingTombstone> tombstones = bookingTombstoneRepository
+                .findByUserIdAndDeletedAtGreaterThanEqual(request.getUserId(), since.minus(SYNC_OVERLAP));
+            response.setDeletedBookingIds(tombstones.stream().map(BookingTombstone::getBookingId).toList());
+            metadata.setDeletedCount(tombstones.size());
+            for (BookingTombstone tombstone : tombstones) {
+                highWaterMark = latest(highWaterMark, tombstone.getDeletedAt());
+            }
+        } else {
+            metadata.setDeletedCount(0);
+        }
+
         if (request.isIncludeSchedules()) {
-            List<OfflineTrainScheduleDTO> schedules = buildScheduleSnapshot(request);
+            List<OfflineTrainScheduleDTO> schedules = buildScheduleSnapshot(request, bookings, incremental);
             response.setTrainSchedules(schedules);
             metadata.setScheduleCount(schedules.size());
         } else {
@@ -66,6 +103,7 @@ public class OfflineSyncService {
             metadata.setPendingActionCount(0);
         }
 
+        metadata.setSyncToken(encodeSyncToken(highWaterMark));
         metadata.setGeneratedAt(LocalDateTime.now());
         response.setMetadata(metadata);
         return response;
@@ -90,7 +128,7 @@ public class OfflineSyncService {
         dto.setStatus(booking.getStatus());
         dto.setTotalFare(booking.getTotalFare());
         dto.setBookingTime(booking.getBookingTime());
-        dto.setLastUpdated(LocalDateTime.now());
+        dto.setLastUpdated(booking.getLastModifiedAt() != null ? booking.getLastModifiedAt() : booking.getBookingTime());
 
         if (booking.getPassengers() != null) {
             List<OfflinePassengerDTO> passengers = booking.getPassengers().stream()
@@ -114,15 +152,20 @@ public class OfflineSyncService {
         return dto;
     }
 
-    private List<OfflineTrainScheduleDTO> buildScheduleSnapshot(OfflineSyncRequest request) {
+    private List<OfflineTrainScheduleDTO> buildScheduleSnapshot(OfflineSyncRequest request,
+                                                                List<SimpleBooking> bookings,
+                                                                boolean incremental) {
         Set<Long> trainIds = new HashSet<>();
         if (request.getTrainIds() != null) {
             trainIds.addAll(request.getTrainIds());
         }
-        if (request.getUserId() != null) {
-            bookingRepository.findByUserId(request.getUserId()).stream()
+        if (bookings != null) {
+            // Incremental bundles only refresh schedules of trains whose bookings changed
+            bookings.stream()
                 .map(SimpleBooking::getTrainId)
                 .forEach(trainIds::add);
+        } else if (request.getUserId() != null && !incremental) {
+            trainIds.addAll(bookingRepository.findDistinctTrainIdsByUserId(request.getUserId()));
         }
 
         List<String> trainNumbers = request.getTrainNumbers() != null ? request.getTrainNumbers() : Collections.emptyList();
@@ -147,50 +190,84 @@ public class OfflineSyncService {
     }
 
     private Optional<OfflineTrainScheduleDTO> fetchScheduleByTrainId(Long trainId) {
-        CachedSchedule cached = scheduleCache.get(trainId);
-        if (cached != null && !cached.isExpired()) {
-            return Optional.of(cached.payload());
-        }
-        try {
-            TrainServiceClient.TrainResponse train = trainServiceClient.getTrainById(trainId);
-            OfflineTrainScheduleDTO dto = mapToScheduleDto(train);
-            scheduleCache.put(trainId, new CachedSchedule(dto));
-            return Optional.of(dto);
-        } catch (Exception ex) {
-            logger.warn("Unable to fetch train schedule for trainId {}: {}", trainId, ex.getMessage());
-            return Optional.empty();
+        Optional<OfflineTrainScheduleDTO> schedule = trainReferenceStore.get(trainId).map(this::mapToScheduleDto);
+        if (schedule.isEmpty()) {
+            logger.warn("No train reference for trainId {}, omitting its schedule", trainId);
         }
+        return schedule;
     }
 
     private Optional<OfflineTrainScheduleDTO> fetchScheduleByTrainNumber(String trainNumber) {
-        try {
-            TrainServiceClient.TrainResponse train = trainServiceClient.getTrainByNumber(trainNumber);
-            OfflineTrainScheduleDTO dto = mapToScheduleDto(train);
-            if (train.getId() != null) {
-                scheduleCache.put(train.getId(), new CachedSchedule(dto));
-            }
-            return Optional.of(dto);
-        } catch (Exception ex) {
-            logger.warn("Unable to fetch train schedule for trainNumber {}: {}", trainNumber, ex.getMessage());
-            return Optional.empty();
+        Optional<OfflineTrainScheduleDTO> schedule = trainReferenceStore.getByNumber(trainNumber).map(this::mapToScheduleDto);
+        if (schedule.isEmpty()) {
+            logger.warn("No train reference for trainNumber {}, omitting its schedule", trainNumber);
         }
+        return schedule;
     }
 
-    private OfflineTrainScheduleDTO mapToScheduleDto(TrainServiceClient.TrainResponse train) {
+    private OfflineTrainScheduleDTO mapToScheduleDto(TrainReference train) {
         OfflineTrainScheduleDTO dto = new OfflineTrainScheduleDTO();
         dto.setTrainId(train.getId());
         dto.setTrainNumber(train.getTrainNumber());
         dto.setTrainName(train.getTrainName());
         dto.setSourceStation(train.getSourceStation());
         dto.setDestinationStation(train.getDestinationStation());
+        dto.setDepartureTime(train.getDepartureTime());
+        dto.setArrivalTime(train.getArrivalTime());
         dto.setTrainType(train.getTrainType());
         dto.setTrainClass(train.getTrainClass());
         dto.setAvailableSeats(train.getAvailableSeats());
+        Map<LocalDate, Integer> seatsByDate = trainReferenceStore.getAvailableSeatsByDate(train.getId(), LocalDate.now());
+        if (seatsByDate != null && !seatsByDate.isEmpty()) {
+            dto.setAvailableSeatsByDate(seatsByDate);
+        }
         dto.setBaseFare(train.getBaseFare());
         dto.setSnapshotTime(LocalDateTime.now());
         return dto;
     }
 
+    private LocalDateTime resolveSince(OfflineSyncRequest request) {
+        if (request.getSyncToken() != null && !request.getSyncToken().isBlank()) {
+            LocalDateTime decoded = decodeSyncToken(request.getSyncToken());
+            if (decoded != null) {
+                return decoded;
+            }
+            logger.warn("Ignoring invalid sync token for user {}, falling back to full sync", request.getUserId());
+            return null;
+        }
+        return request.getLastSyncTime();
+    }
+
+    static String encodeSyncToken(LocalDateTime highWaterMark) {
+        if (highWaterMark == null) {
+            return null;
+        }
+        long micros = ChronoUnit.MICROS.between(LocalDateTime.of(1970, 1, 1, 0, 0), highWaterMark);
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString((SYNC_TOKEN_VERSION + ":" + micros).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static LocalDateTime decodeSyncToken(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(':');
+            if (separator < 0 || !SYNC_TOKEN_VERSION.equals(decoded.substring(0, separator))) {
+                return null;
+            }
+            long micros = Long.parseLong(decoded.substring(separator + 1));
+            return LocalDateTime.of(1970, 1, 1, 0, 0).plus(micros, ChronoUnit.MICROS);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    private static LocalDateTime latest(LocalDateTime current, LocalDateTime candidate) {
+        if (candidate == null) {
+            return current;
+        }
+        return current == null || candidate.isAfter(current) ? candidate : current;
+    }
+
     private OfflineActionResponse toResponse(OfflineAction action) {
         OfflineActionResponse response = new OfflineActionResponse();
         response.setId(action.getId());
@@ -203,15 +280,5 @@ public class OfflineSyncService {
         response.setProcessedAt(action.getProcessedAt());
         return response;
     }
-
-    private record CachedSchedule(OfflineTrainScheduleDTO payload, LocalDateTime cachedAt) {
-        CachedSchedule(OfflineTrainScheduleDTO payload) {
-            this(payload, LocalDateTime.now());
-        }
-
-        boolean isExpired() {
-            return cachedAt.plusMinutes(CACHE_TTL_MINUTES).isBefore(LocalDateTime.now());
-        }
-    }
 }
 
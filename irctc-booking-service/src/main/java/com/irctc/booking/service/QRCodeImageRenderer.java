@@ -0,0 +1,203 @@
+package com.irctc.booking.service;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * QR Code Image Renderer
+ *
+ * Turns a QR payload into PNG bytes without going through AWT. The
+ * {@link BitMatrix} produced by ZXing is written straight into a 1-bit
+ * grayscale PNG (eight pixels per byte), so a 300x300 ticket code is about
+ * 11 KB of raw scanlines before compression instead of a full RGB raster.
+ *
+ * Rendered images are kept in a bounded LRU cache keyed by the SHA-256 of the
+ * payload. The payload is the signed ticket token, so identical payloads always
+ * render to identical bytes and the hash doubles as the HTTP ETag.
+ *
+ * @author IRCTC Development Team
+ * @version 1.0.0
+ */
+@Component
+public class QRCodeImageRenderer {
+
+    private static final Logger logger = LoggerFactory.getLogger(QRCodeImageRenderer.class);
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final String DATA_URI_PREFIX = "data:image/png;base64,";
+
+    private final Map<String, byte[]> cache;
+    private final int width;
+    private final int height;
+
+    public QRCodeImageRenderer(@Value("${qr.code.width:300}") int width,
+                               @Value("${qr.code.height:300}") int height,
+                               @Value("${qr.code.image-cache.max-entries:10000}") int maxEntries) {
+        this.width = width;
+        this.height = height;
+        this.cache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Get the PNG for a payload, rendering it on a cache miss
+     */
+    public byte[] renderPng(String payload) {
+        String key = payloadHash(payload);
+        byte[] png;
+        synchronized (cache) {
+            png = cache.get(key);
+        }
+        if (png != null) {
+            return png;
+        }
+
+        png = encodePng(encodeMatrix(payload));
+        synchronized (cache) {
+            cache.put(key, png);
+        }
+        logger.debug("Rendered QR code image {} ({} bytes)", key, png.length);
+        return png;
+    }
+
+    /**
+     * Get the PNG for a payload as a Base64 data URI
+     */
+    public String renderDataUri(String payload) {
+        return DATA_URI_PREFIX + Base64.getEncoder().encodeToString(renderPng(payload));
+    }
+
+    /**
+     * Hex SHA-256 of a payload, used as cache key and ETag
+     */
+    public String payloadHash(String payload) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(payload.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Drop a payload's image, e.g. when its QR code is revoked
+     */
+    public void evict(String payload) {
+        synchronized (cache) {
+            cache.remove(payloadHash(payload));
+        }
+    }
+
+    public int getCachedImageCount() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private BitMatrix encodeMatrix(String payload) {
+        try {
+            Map<EncodeHintType, Object> hints = new HashMap<>();
+            hints.put(EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.H);
+            hints.put(EncodeHintType.CHARACTER_SET, "UTF-8");
+            hints.put(EncodeHintType.MARGIN, 1);
+            return new QRCodeWriter().encode(payload, BarcodeFormat.QR_CODE, width, height, hints);
+        } catch (WriterException e) {
+            logger.error("Error generating QR code image: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to generate QR code image", e);
+        }
+    }
+
+    /**
+     * Encode a matrix as a 1-bit grayscale PNG: set modules are black (0), the rest white (1)
+     */
+    static byte[] encodePng(BitMatrix matrix) {
+        int w = matrix.getWidth();
+        int h = matrix.getHeight();
+        int rowBytes = (w + 7) / 8;
+
+        ByteArrayOutputStream raw = new ByteArrayOutputStream(64 + h * (rowBytes + 1) / 4);
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (DeflaterOutputStream idat = new DeflaterOutputStream(raw, deflater)) {
+            byte[] scanline = new byte[rowBytes + 1]; // leading filter byte stays 0 (None)
+            for (int y = 0; y < h; y++) {
+                Arrays.fill(scanline, 1, scanline.length, (byte) 0);
+                for (int x = 0; x < w; x++) {
+                    if (!matrix.get(x, y)) {
+                        scanline[1 + (x >>> 3)] |= (byte) (0x80 >>> (x & 7));
+                    }
+                }
+                idat.write(scanline);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode QR code PNG", e);
+        } finally {
+            deflater.end();
+        }
+
+        ByteArrayOutputStream png = new ByteArrayOutputStream(raw.size() + 64);
+        png.writeBytes(PNG_SIGNATURE);
+
+        byte[] ihdr = new byte[13];
+        putInt(ihdr, 0, w);
+        putInt(ihdr, 4, h);
+        ihdr[8] = 1;  // bit depth
+        ihdr[9] = 0;  // colour type: grayscale
+        ihdr[10] = 0; // compression: deflate
+        ihdr[11] = 0; // filter method
+        ihdr[12] = 0; // no interlace
+        writeChunk(png, "IHDR", ihdr);
+        writeChunk(png, "IDAT", raw.toByteArray());
+        writeChunk(png, "IEND", new byte[0]);
+        return png.toByteArray();
+    }
+
+    private static void writeChunk(ByteArrayOutputStream out, String type, byte[] data) {
+        byte[] header = new byte[8];
+        putInt(header, 0, data.length);
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(typeBytes, 0, header, 4, 4);
+        out.writeBytes(header);
+        out.writeBytes(data);
+
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data);
+        byte[] crcBytes = new byte[4];
+        putInt(crcBytes, 0, (int) crc.getValue());
+        out.writeBytes(crcBytes);
+    }
+
+    private static void putInt(byte[] target, int offset, int value) {
+        target[offset] = (byte) (value >>> 24);
+        target[offset + 1] = (byte) (value >>> 16);
+        target[offset + 2] = (byte) (value >>> 8);
+        target[offset + 3] = (byte) value;
+    }
+}
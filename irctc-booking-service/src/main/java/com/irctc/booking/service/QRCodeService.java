@@ -1,11 +1,6 @@
 package com.irctc.booking.service;
 
-import com.google.zxing.BarcodeFormat;
-import com.google.zxing.EncodeHintType;
-import com.google.zxing.WriterException;
-import com.google.zxing.common.BitMatrix;
-import com.google.zxing.qrcode.QRCodeWriter;
-import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.irctc.booking.dto.QRCodeImage;
 import com.irctc.booking.dto.QRCodeResponse;
 import com.irctc.booking.dto.QRCodeVerificationRequest;
 import com.irctc.booking.dto.QRCodeVerificationResponse;
@@ -22,17 +17,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
-import javax.imageio.ImageIO;
-import java.awt.*;
-import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -41,6 +33,10 @@ import java.util.Optional;
  * QR Code Service
  * Handles QR code generation, encryption, and verification for ticket verification
  * 
+ * QR codes are generated in the background as soon as a booking is confirmed,
+ * so ticket downloads only read the stored token and the rendered image from
+ * {@link QRCodeImageRenderer}'s cache.
+ * 
  * @author IRCTC Development Team
  * @version 1.0.0
  */
@@ -55,18 +51,15 @@ public class QRCodeService {
     @Autowired
     private SimpleBookingService bookingService;
     
+    @Autowired
+    private QRCodeImageRenderer imageRenderer;
+    
     @Value("${qr.code.secret:IRCTC_QR_CODE_SECRET_KEY_FOR_ENCRYPTION_2024}")
     private String qrCodeSecret;
     
     @Value("${qr.code.expiration.hours:24}")
     private int expirationHours;
     
-    @Value("${qr.code.width:300}")
-    private int qrCodeWidth;
-    
-    @Value("${qr.code.height:300}")
-    private int qrCodeHeight;
-    
     /**
      * Generate QR code for a booking
      */
@@ -227,6 +220,53 @@ public class QRCodeService {
         return convertToResponse(qrCode, qrCodeImage);
     }
     
+    /**
+     * Get the raw PNG of a booking's active QR code, generating the code if needed
+     */
+    @Transactional
+    public QRCodeImage getQRCodeImage(Long bookingId) {
+        String payload;
+        LocalDateTime expiresAt;
+        
+        Optional<QRCode> active = qrCodeRepository.findByBookingIdAndIsActiveTrue(bookingId)
+            .filter(qr -> qr.getExpiresAt().isAfter(LocalDateTime.now()));
+        if (active.isPresent()) {
+            // Same tenant check as generateQRCode
+            bookingService.getBookingById(bookingId)
+                .orElseThrow(() -> new EntityNotFoundException("Booking", bookingId));
+            payload = active.get().getQrCode();
+            expiresAt = active.get().getExpiresAt();
+        } else {
+            QRCodeResponse generated = generateQRCode(bookingId);
+            payload = generated.getQrCode();
+            expiresAt = generated.getExpiresAt();
+        }
+        
+        return new QRCodeImage(imageRenderer.renderPng(payload), imageRenderer.payloadHash(payload), expiresAt);
+    }
+    
+    /**
+     * Pre-generate the QR code and its image once a booking is confirmed
+     */
+    @Async("taskExecutor")
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onBookingConfirmed(BookingConfirmedEvent event) {
+        // May run on the request thread when the pool is full, so its tenant is put back afterwards
+        TenantContext.Snapshot previous = TenantContext.capture();
+        try {
+            if (event.tenantId() != null) {
+                TenantContext.setTenantId(event.tenantId());
+            }
+            generateQRCode(event.bookingId());
+        } catch (Exception e) {
+            // The QR code is generated on demand when the ticket is first requested
+            logger.warn("Failed to pre-generate QR code for booking {}: {}", event.bookingId(), e.getMessage());
+        } finally {
+            TenantContext.restore(previous);
+        }
+    }
+    
     /**
      * Create encrypted QR code data
      */
@@ -344,41 +384,7 @@ public class QRCodeService {
      * Generate QR code image as Base64 string
      */
     private String generateQRCodeImage(String data) {
-        try {
-            Map<EncodeHintType, Object> hints = new HashMap<>();
-            hints.put(EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.H);
-            hints.put(EncodeHintType.CHARACTER_SET, "UTF-8");
-            hints.put(EncodeHintType.MARGIN, 1);
-            
-            QRCodeWriter qrCodeWriter = new QRCodeWriter();
-            BitMatrix bitMatrix = qrCodeWriter.encode(data, BarcodeFormat.QR_CODE, qrCodeWidth, qrCodeHeight, hints);
-            
-            BufferedImage image = new BufferedImage(qrCodeWidth, qrCodeHeight, BufferedImage.TYPE_INT_RGB);
-            Graphics2D graphics = image.createGraphics();
-            graphics.setColor(Color.WHITE);
-            graphics.fillRect(0, 0, qrCodeWidth, qrCodeHeight);
-            graphics.setColor(Color.BLACK);
-            
-            for (int x = 0; x < qrCodeWidth; x++) {
-                for (int y = 0; y < qrCodeHeight; y++) {
-                    if (bitMatrix.get(x, y)) {
-                        graphics.fillRect(x, y, 1, 1);
-                    }
-                }
-            }
-            
-            graphics.dispose();
-            
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            ImageIO.write(image, "PNG", baos);
-            byte[] imageBytes = baos.toByteArray();
-            
-            return "data:image/png;base64," + Base64.getEncoder().encodeToString(imageBytes);
-            
-        } catch (WriterException | IOException e) {
-            logger.error("Error generating QR code image: {}", e.getMessage(), e);
-            throw new RuntimeException("Failed to generate QR code image", e);
-        }
+        return imageRenderer.renderDataUri(data);
     }
     
     /**
@@ -1,10 +1,15 @@
 package com.irctc.booking.service;
 
+import com.irctc.booking.entity.BookingTombstone;
 import com.irctc.booking.entity.SimpleBooking;
 import com.irctc.booking.eventtracking.TrackedEventPublisher;
 import com.irctc.booking.exception.EntityNotFoundException;
+import com.irctc.booking.exception.ValidationException;
+import com.irctc.booking.id.PnrGenerator;
 import com.irctc.booking.eventsourcing.BookingEventStore;
 import com.irctc.booking.metrics.BookingMetrics;
+import com.irctc.booking.repository.BookingHistoryRepository;
+import com.irctc.booking.repository.BookingTombstoneRepository;
 import com.irctc.booking.repository.SimpleBookingRepository;
 import com.irctc.booking.websocket.BookingStatusHandler;
 import com.irctc.shared.events.BookingEvents;
@@ -18,15 +23,20 @@ import com.irctc.booking.performance.PerformanceMonitoringService;
 import com.irctc.booking.tenant.TenantContext;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
@@ -65,6 +75,27 @@ public class SimpleBookingService {
     
     @Autowired(required = false)
     private ReferralRewardService referralRewardService;
+    
+    @Autowired(required = false)
+    private BookingTombstoneRepository bookingTombstoneRepository;
+    
+    @Autowired(required = false)
+    private ApplicationEventPublisher applicationEventPublisher;
+    
+    @Autowired(required = false)
+    private PnrGenerator pnrGenerator;
+
+    @Autowired(required = false)
+    private BookingHistoryRepository historyRepository;
+
+    @Autowired(required = false)
+    private TrainReferenceStore trainReferenceStore;
+
+    @Autowired(required = false)
+    private OutboxEventService outboxEventService;
+
+    @Autowired(required = false)
+    private TransactionTemplate transactionTemplate;
 
     public List<SimpleBooking> getAllBookings() {
         List<SimpleBooking> bookings = bookingRepository.findAll();
@@ -83,6 +114,9 @@ public class SimpleBookingService {
     public Optional<SimpleBooking> getBookingById(Long id) {
         logger.debug("Fetching booking from database: {}", id);
         Optional<SimpleBooking> booking = bookingRepository.findById(id);
+        if (booking.isEmpty() && historyRepository != null) {
+            booking = historyRepository.findArchivedById(id);
+        }
         // Validate tenant access
         if (booking.isPresent() && TenantContext.hasTenant()) {
             SimpleBooking b = booking.get();
@@ -97,6 +131,9 @@ public class SimpleBookingService {
     public Optional<SimpleBooking> getBookingByPnr(String pnrNumber) {
         logger.debug("Fetching booking from database by PNR: {}", pnrNumber);
         Optional<SimpleBooking> booking = bookingRepository.findByPnrNumber(pnrNumber);
+        if (booking.isEmpty() && historyRepository != null) {
+            booking = historyRepository.findArchivedByPnr(pnrNumber);
+        }
         // Validate tenant access
         if (booking.isPresent() && TenantContext.hasTenant()) {
             SimpleBooking b = booking.get();
@@ -122,10 +159,51 @@ public class SimpleBookingService {
         return bookings;
     }
 
+    /**
+     * Keyset page of a user's bookings with IDs greater than afterId, for GDPR exports
+     */
+    @Bulkhead(name = "booking-query", type = Bulkhead.Type.SEMAPHORE)
+    public List<SimpleBooking> getBookingsForExport(Long userId, Long afterId, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, 1000));
+        long after = afterId != null ? afterId : 0L;
+        // Tenant goes into the query: a page filtered afterwards could come back empty and end the export early
+        String tenantId = TenantContext.hasTenant() ? TenantContext.getTenantId() : null;
+        if (historyRepository != null) {
+            // Exports must include archived journeys
+            return historyRepository.findForExport(userId, tenantId, after, pageSize);
+        }
+        return tenantId != null
+            ? bookingRepository.findByUserIdAndTenantIdAndIdGreaterThanOrderByIdAsc(
+                userId, tenantId, after, PageRequest.of(0, pageSize))
+            : bookingRepository.findByUserIdAndIdGreaterThanOrderByIdAsc(userId, after, PageRequest.of(0, pageSize));
+    }
+
+    /**
+     * A user's bookings by journey date range; the archive is only read when the range reaches it
+     */
+    @Bulkhead(name = "booking-query", type = Bulkhead.Type.SEMAPHORE)
+    public List<SimpleBooking> getBookingHistory(Long userId, LocalDate from, LocalDate to) {
+        List<SimpleBooking> bookings = historyRepository != null
+            ? historyRepository.findByUserId(userId, from, to)
+            : bookingRepository.findByUserIdAndJourneyDateBetweenOrderByJourneyDateDesc(userId,
+                from != null ? from : LocalDate.of(1970, 1, 1), to != null ? to : LocalDate.of(9999, 12, 31));
+        if (TenantContext.hasTenant()) {
+            String tenantId = TenantContext.getTenantId();
+            return bookings.stream()
+                .filter(b -> tenantId.equals(b.getTenantId()))
+                .toList();
+        }
+        return bookings;
+    }
+
     @Bulkhead(name = "booking-creation", type = Bulkhead.Type.SEMAPHORE)
     @CacheEvict(value = {"bookings-by-user"}, key = "#booking.userId", allEntries = false)
     @DistributedLock(key = "booking:#{#booking.trainId}", timeout = 30, waitTime = 5)
     public SimpleBooking createBooking(SimpleBooking booking) {
+        if (booking.getJourneyDate() == null) {
+            // Archival is driven by the journey date, so it cannot be guessed from the booking date
+            throw new ValidationException("Journey date is required", Map.of("journeyDate", "must not be null"));
+        }
         Timer.Sample timer = bookingMetrics != null ? bookingMetrics.startBookingCreationTimer() : null;
         long startTime = System.currentTimeMillis();
         
@@ -139,7 +217,16 @@ public class SimpleBookingService {
             booking.setBookingTime(LocalDateTime.now());
             booking.setStatus("CONFIRMED");
             booking.setCreatedAt(LocalDateTime.now());
-            SimpleBooking saved = bookingRepository.save(booking);
+            // Seat inventory counts from booking-created, so the event commits with the booking
+            boolean viaOutbox = outboxEventService != null && transactionTemplate != null;
+            SimpleBooking saved = viaOutbox
+                ? transactionTemplate.execute(status -> {
+                    SimpleBooking inserted = bookingRepository.save(booking);
+                    outboxEventService.saveEvent("booking-created", bookingCreatedEvent(inserted));
+                    return inserted;
+                })
+                : bookingRepository.save(booking);
+            publishBookingChanged(BookingChangedEvent.created(saved, trainReferenceStore));
             
             // Store event in event store (Event Sourcing)
             if (eventStore != null) {
@@ -168,24 +255,16 @@ public class SimpleBookingService {
                 }
             }
             
-            // Publish event to Kafka (for event tracking and downstream services)
+            // Publish event to Kafka (for event tracking and downstream services), unless the outbox already has it
             try {
-                BookingEvents.BookingCreatedEvent bookingEvent = new BookingEvents.BookingCreatedEvent(
-                    saved.getId(),
-                    saved.getUserId(),
-                    saved.getTrainId(),
-                    saved.getPnrNumber(),
-                    saved.getTotalFare(),
-                    saved.getPassengers() != null ? saved.getPassengers().size() : 0,
-                    saved.getBookingTime()
-                );
-                
                 // Use TrackedEventPublisher if available (for event tracking), fallback to kafkaTemplate
-                if (trackedEventPublisher != null) {
-                    trackedEventPublisher.publishEvent("booking-created", bookingEvent);
+                if (viaOutbox) {
+                    logger.info("💾 Booking created event queued in the outbox for booking: {}", saved.getId());
+                } else if (trackedEventPublisher != null) {
+                    trackedEventPublisher.publishEvent("booking-created", bookingCreatedEvent(saved));
                     logger.info("📤 Published booking created event (tracked) for booking: {}", saved.getId());
                 } else if (kafkaTemplate != null) {
-                    kafkaTemplate.send("booking-created", bookingEvent);
+                    kafkaTemplate.send("booking-created", bookingCreatedEvent(saved));
                     logger.info("📤 Published booking created event for booking: {}", saved.getId());
                 } else {
                     logger.debug("Kafka not available, skipping event publication for booking: {}", saved.getId());
@@ -210,6 +289,11 @@ public class SimpleBookingService {
                 referralRewardService.recordReferralForBooking(saved);
             }
             
+            // Pre-generate the ticket QR code in the background
+            if ("CONFIRMED".equals(saved.getStatus())) {
+                publishBookingConfirmed(saved);
+            }
+            
             // Metrics
             if (bookingMetrics != null) {
                 bookingMetrics.incrementBookingsCreated();
@@ -263,14 +347,19 @@ public class SimpleBookingService {
         }
 
         String oldStatus = booking.getStatus();
+        BookingChangedEvent.Snapshot before = BookingChangedEvent.Snapshot.of(booking, trainReferenceStore);
         
         booking.setUserId(bookingDetails.getUserId());
         booking.setTrainId(bookingDetails.getTrainId());
         booking.setStatus(bookingDetails.getStatus());
         booking.setTotalFare(bookingDetails.getTotalFare());
         booking.setPassengers(bookingDetails.getPassengers());
+        if (bookingDetails.getJourneyDate() != null) {
+            booking.setJourneyDate(bookingDetails.getJourneyDate());
+        }
 
         SimpleBooking saved = bookingRepository.save(booking);
+        publishBookingChanged(BookingChangedEvent.changed(saved.getId(), before, saved, trainReferenceStore));
         
         // Store event in event store (Event Sourcing)
         if (eventStore != null && !oldStatus.equals(saved.getStatus())) {
@@ -297,6 +386,13 @@ public class SimpleBookingService {
             logger.info("📝 Event stored: {} for booking: {}", eventType, saved.getId());
         }
         
+        if (!oldStatus.equals(saved.getStatus()) && "CONFIRMED".equals(saved.getStatus())) {
+            publishBookingConfirmed(saved);
+        }
+        if (!oldStatus.equals(saved.getStatus()) && "CANCELLED".equals(saved.getStatus())) {
+            publishBookingCancelled(saved);
+        }
+        
         // Metrics - track status changes
         if (bookingMetrics != null && !oldStatus.equals(saved.getStatus())) {
             if ("CONFIRMED".equals(saved.getStatus())) {
@@ -320,6 +416,8 @@ public class SimpleBookingService {
         return saved;
     }
 
+    // One transaction, so the lazy passenger list is still readable for the cancelled event's seat count
+    @Transactional
     public void cancelBooking(Long id) {
         Timer.Sample timer = bookingMetrics != null ? bookingMetrics.startBookingCancellationTimer() : null;
         
@@ -332,8 +430,14 @@ public class SimpleBookingService {
                 throw new EntityNotFoundException("Booking", id);
             }
             
+            boolean alreadyCancelled = "CANCELLED".equals(booking.getStatus());
+            BookingChangedEvent.Snapshot before = BookingChangedEvent.Snapshot.of(booking, trainReferenceStore);
             booking.setStatus("CANCELLED");
             SimpleBooking saved = bookingRepository.save(booking);
+            if (!alreadyCancelled) {
+                publishBookingCancelled(saved);
+                publishBookingChanged(BookingChangedEvent.changed(saved.getId(), before, saved, trainReferenceStore));
+            }
             
             // Store event in event store (Event Sourcing)
             if (eventStore != null) {
@@ -403,6 +507,17 @@ public class SimpleBookingService {
             
             // Actually delete the entity - this will trigger @PreRemove audit listener
             bookingRepository.delete(booking);
+            publishBookingChanged(BookingChangedEvent.deleted(booking, trainReferenceStore));
+            
+            // Leave a tombstone so offline clients drop the booking on their next incremental sync
+            if (bookingTombstoneRepository != null) {
+                BookingTombstone tombstone = new BookingTombstone();
+                tombstone.setBookingId(booking.getId());
+                tombstone.setUserId(booking.getUserId());
+                tombstone.setPnrNumber(booking.getPnrNumber());
+                tombstone.setTenantId(booking.getTenantId());
+                bookingTombstoneRepository.save(tombstone);
+            }
             
             logger.info("✅ Booking deleted: {}", id);
         } catch (Exception e) {
@@ -427,7 +542,94 @@ public class SimpleBookingService {
         }
     }
 
+    private void publishBookingConfirmed(SimpleBooking booking) {
+        if (applicationEventPublisher != null) {
+            applicationEventPublisher.publishEvent(
+                new BookingConfirmedEvent(booking.getId(), booking.getUserId(), booking.getTenantId()));
+        }
+    }
+
+    /**
+     * Keeps the user's travel statistics current
+     */
+    private void publishBookingChanged(BookingChangedEvent event) {
+        if (applicationEventPublisher != null) {
+            applicationEventPublisher.publishEvent(event);
+        }
+    }
+
+    /**
+     * Lets downstream seat inventory release the booking's seats
+     */
+    private void publishBookingCancelled(SimpleBooking booking) {
+        try {
+            BookingEvents.BookingCancelledEvent event = new BookingEvents.BookingCancelledEvent(
+                booking.getId(), booking.getUserId(), booking.getPnrNumber(), null, null);
+            event.setTrainId(booking.getTrainId());
+            event.setPassengerCount(booking.getPassengers() != null ? booking.getPassengers().size() : 0);
+            event.setJourneyDate(booking.getJourneyDate() != null ? booking.getJourneyDate().atStartOfDay() : null);
+            if (outboxEventService != null) {
+                // Joins the cancellation's transaction, so the seats are released exactly when it commits
+                outboxEventService.saveEvent("booking-cancelled", event);
+            } else if (trackedEventPublisher != null) {
+                trackedEventPublisher.publishEvent("booking-cancelled", event);
+            } else if (kafkaTemplate != null) {
+                kafkaTemplate.send("booking-cancelled", event);
+            } else {
+                return;
+            }
+            logger.info("📤 Published booking cancelled event for booking: {}", booking.getId());
+        } catch (Exception e) {
+            logger.error("Failed to publish booking cancelled event for booking: {}", booking.getId(), e);
+        }
+    }
+
+    /**
+     * Lets downstream seat inventory move the booking's seats after a date or train change
+     */
+    public void publishBookingJourneyChanged(SimpleBooking booking, Long previousTrainId, LocalDate previousJourneyDate) {
+        if (Objects.equals(previousTrainId, booking.getTrainId())
+                && Objects.equals(previousJourneyDate, booking.getJourneyDate())) {
+            return;
+        }
+        try {
+            BookingEvents.BookingJourneyChangedEvent event = new BookingEvents.BookingJourneyChangedEvent(
+                booking.getId(), booking.getUserId(), booking.getPnrNumber(),
+                booking.getPassengers() != null ? booking.getPassengers().size() : 0,
+                previousTrainId, previousJourneyDate != null ? previousJourneyDate.atStartOfDay() : null,
+                booking.getTrainId(), booking.getJourneyDate() != null ? booking.getJourneyDate().atStartOfDay() : null);
+            if (outboxEventService != null) {
+                // Joins the modification's transaction, so the seats move exactly when it commits
+                outboxEventService.saveEvent("booking-journey-changed", event);
+            } else if (trackedEventPublisher != null) {
+                trackedEventPublisher.publishEvent("booking-journey-changed", event);
+            } else if (kafkaTemplate != null) {
+                kafkaTemplate.send("booking-journey-changed", event);
+            } else {
+                return;
+            }
+            logger.info("📤 Published journey changed event for booking: {}", booking.getId());
+        } catch (Exception e) {
+            logger.error("Failed to publish journey changed event for booking: {}", booking.getId(), e);
+        }
+    }
+
+    private static BookingEvents.BookingCreatedEvent bookingCreatedEvent(SimpleBooking booking) {
+        return new BookingEvents.BookingCreatedEvent(
+            booking.getId(),
+            booking.getUserId(),
+            booking.getTrainId(),
+            booking.getPnrNumber(),
+            booking.getTotalFare(),
+            booking.getPassengers() != null ? booking.getPassengers().size() : 0,
+            booking.getJourneyDate() != null ? booking.getJourneyDate().atStartOfDay() : booking.getBookingTime()
+        );
+    }
+
     private String generatePnr() {
+        if (pnrGenerator != null) {
+            return pnrGenerator.nextPnr();
+        }
         return UUID.randomUUID().toString().substring(0, 10).toUpperCase();
     }
 }
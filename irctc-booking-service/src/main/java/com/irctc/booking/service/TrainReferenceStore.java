@@ -0,0 +1,243 @@
+package com.irctc.booking.service;
+
+import com.irctc.booking.client.TrainServiceClient;
+import com.irctc.booking.client.TrainServiceClient.TrainReference;
+import com.irctc.shared.events.TrainEvents;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Supplier;
+
+/**
+ * In-process replica of Train Service reference data (number, name, stations, times, classes)
+ *
+ * Bootstrapped by paging /api/trains/reference and kept current from
+ * train-reference-events. Every entry carries the train's optimistic-lock
+ * version and is only replaced by a higher one, so a late event or a page read
+ * before a concurrent update can never roll a train back. The same paged pass
+ * runs periodically to repair missed events and drop trains that no longer
+ * exist. Until the first pass completes a miss is read through to Train
+ * Service once; afterwards reads never leave the process.
+ *
+ * Seats left per journey date are replicated the same way from
+ * train-seat-availability-events, keeping the highest counter version per
+ * train and date. Dates without an event have no entry, and departed dates
+ * are dropped on reconciliation.
+ */
+@Service
+public class TrainReferenceStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrainReferenceStore.class);
+
+    private final TrainServiceClient trainServiceClient;
+    private final Map<Long, TrainReference> byId = new ConcurrentHashMap<>();
+    private final Map<String, Long> idsByNumber = new ConcurrentHashMap<>();
+    private final Map<Long, NavigableMap<LocalDate, SeatCount>> seatsByTrain = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    @Value("${train.reference.page-size:500}")
+    private int pageSize = 500;
+
+    record SeatCount(int availableSeats, long version) {
+    }
+
+    public TrainReferenceStore(TrainServiceClient trainServiceClient) {
+        this.trainServiceClient = trainServiceClient;
+    }
+
+    public Optional<TrainReference> get(Long trainId) {
+        if (trainId == null) {
+            return Optional.empty();
+        }
+        TrainReference reference = byId.get(trainId);
+        if (reference == null && !ready) {
+            reference = readThrough(() -> trainServiceClient.getTrainById(trainId), "id " + trainId);
+        }
+        return Optional.ofNullable(reference);
+    }
+
+    public Optional<TrainReference> getByNumber(String trainNumber) {
+        if (trainNumber == null) {
+            return Optional.empty();
+        }
+        Long trainId = idsByNumber.get(trainNumber);
+        TrainReference reference = trainId != null ? byId.get(trainId) : null;
+        if (reference == null && !ready) {
+            reference = readThrough(() -> trainServiceClient.getTrainByNumber(trainNumber), "number " + trainNumber);
+        }
+        return Optional.ofNullable(reference);
+    }
+
+    /**
+     * Seats left per journey date from {@code from} onwards, for dates that have seen a booking
+     */
+    public Map<LocalDate, Integer> getAvailableSeatsByDate(Long trainId, LocalDate from) {
+        NavigableMap<LocalDate, SeatCount> seats = trainId != null ? seatsByTrain.get(trainId) : null;
+        if (seats == null) {
+            return Map.of();
+        }
+        Map<LocalDate, Integer> byDate = new LinkedHashMap<>();
+        seats.tailMap(from, true).forEach((date, count) -> byDate.put(date, count.availableSeats()));
+        return byDate;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    @KafkaListener(
+        topics = "${train.reference.topic:train-reference-events}",
+        // Every instance keeps a full replica, so each one needs its own group
+        groupId = "irctc-booking-train-reference-${random.uuid}",
+        properties = "auto.offset.reset=latest",
+        containerFactory = "trainReferenceListenerContainerFactory")
+    public void onTrainChanged(TrainEvents.TrainChangedEvent event) {
+        if (event == null || event.getTrainId() == null) {
+            return;
+        }
+        apply(TrainReference.from(event));
+    }
+
+    @KafkaListener(
+        topics = "${train.reference.seat-availability-topic:train-seat-availability-events}",
+        groupId = "irctc-booking-seat-availability-${random.uuid}",
+        // Replay what the topic still holds; older versions of a counter are discarded on arrival
+        properties = "auto.offset.reset=earliest",
+        containerFactory = "seatAvailabilityListenerContainerFactory")
+    public void onSeatAvailabilityChanged(TrainEvents.SeatAvailabilityChangedEvent event) {
+        if (event == null || event.getTrainId() == null || event.getJourneyDate() == null
+                || event.getAvailableSeats() == null || event.getJourneyDate().isBefore(LocalDate.now())) {
+            return;
+        }
+        SeatCount incoming = new SeatCount(event.getAvailableSeats(), event.getVersion() != null ? event.getVersion() : 0L);
+        seatsByTrain.computeIfAbsent(event.getTrainId(), id -> new ConcurrentSkipListMap<>())
+            .merge(event.getJourneyDate(), incoming,
+                (current, added) -> added.version() > current.version() ? added : current);
+    }
+
+    /**
+     * Page through every train and converge the replica on it.
+     */
+    @Scheduled(initialDelayString = "${train.reference.bootstrap-delay-ms:5000}",
+               fixedDelayString = "${train.reference.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        Set<Long> unseen = new HashSet<>(byId.keySet());
+        long afterId = 0L;
+        int pages = 0;
+        try {
+            while (true) {
+                TrainServiceClient.TrainReferencePage page = trainServiceClient.getTrainReferences(afterId, pageSize);
+                if (page == null) {
+                    logger.warn("⚠️  Train reference reconciliation aborted after {} pages: Train Service unavailable", pages);
+                    return;
+                }
+                pages++;
+                if (page.getTrains() != null) {
+                    for (TrainReference reference : page.getTrains()) {
+                        apply(reference);
+                        unseen.remove(reference.getId());
+                    }
+                }
+                if (!page.isHasMore() || page.getNextAfterId() == null || page.getNextAfterId() <= afterId) {
+                    break;
+                }
+                afterId = page.getNextAfterId();
+            }
+        } catch (Exception e) {
+            logger.warn("⚠️  Train reference reconciliation failed after {} pages: {}", pages, e.getMessage());
+            return;
+        }
+        // Only a complete pass can prove a train is gone
+        unseen.forEach(this::remove);
+        LocalDate today = LocalDate.now();
+        seatsByTrain.values().forEach(seats -> seats.headMap(today, false).clear());
+        if (!ready) {
+            logger.info("✅ Train reference replica bootstrapped with {} trains", byId.size());
+        }
+        ready = true;
+    }
+
+    /**
+     * Store a reference unless an equal or newer version is already held.
+     *
+     * @return true if the replica changed
+     */
+    boolean apply(TrainReference incoming) {
+        if (incoming == null || incoming.getId() == null) {
+            return false;
+        }
+        TrainReference[] replaced = new TrainReference[1];
+        TrainReference stored = byId.compute(incoming.getId(), (id, current) -> {
+            if (current != null && !isNewer(incoming, current)) {
+                return current;
+            }
+            replaced[0] = current;
+            return incoming;
+        });
+        if (stored != incoming) {
+            return false;
+        }
+        TrainReference previous = replaced[0];
+        if (previous != null && previous.getTrainNumber() != null
+                && !previous.getTrainNumber().equals(incoming.getTrainNumber())) {
+            idsByNumber.remove(previous.getTrainNumber(), incoming.getId());
+        }
+        if (incoming.getTrainNumber() != null) {
+            idsByNumber.put(incoming.getTrainNumber(), incoming.getId());
+        }
+        return true;
+    }
+
+    private void remove(Long trainId) {
+        TrainReference removed = byId.remove(trainId);
+        seatsByTrain.remove(trainId);
+        if (removed != null && removed.getTrainNumber() != null) {
+            idsByNumber.remove(removed.getTrainNumber(), trainId);
+        }
+    }
+
+    private static boolean isNewer(TrainReference incoming, TrainReference current) {
+        // Read-through entries carry no version and yield to any replicated one
+        if (incoming.getVersion() == null) {
+            return current.getVersion() == null;
+        }
+        return current.getVersion() == null || incoming.getVersion() > current.getVersion();
+    }
+
+    private TrainReference readThrough(Supplier<TrainServiceClient.TrainResponse> call, String key) {
+        try {
+            TrainServiceClient.TrainResponse train = call.get();
+            if (train == null || train.getId() == null) {
+                return null;
+            }
+            TrainReference reference = TrainReference.from(train);
+            apply(reference);
+            return byId.get(reference.getId());
+        } catch (Exception e) {
+            logger.warn("Unable to fetch train info for {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    // Visible for tests
+    void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+}
@@ -0,0 +1,284 @@
+package com.irctc.booking.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.irctc.booking.dto.analytics.TravelAnalyticsResponse;
+import com.irctc.booking.entity.UserTravelStats;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.function.ToLongFunction;
+
+/**
+ * Working copy of a {@link UserTravelStats} row that bookings are added to and subtracted from.
+ *
+ * Favourite routes and trains are kept in Space-Saving top-K sketches of
+ * {@link #SKETCH_CAPACITY} entries: a new key takes the least travelled
+ * entry's place once the sketch is full, so the heaviest routes survive
+ * however many a user has travelled. Counts are exact until then, which
+ * covers nearly every traveller. uniqueRoutes and uniqueTrains come from
+ * exact trip counts per route key and train id, kept beside the sketches,
+ * so they stay exact past the capacity and drop a key when its last trip is
+ * subtracted.
+ */
+class TravelStatsAggregate {
+
+    static final int SKETCH_CAPACITY = 32;
+    private static final int MAX_TOP_ROUTES = 5;
+    private static final int MAX_TOP_TRAINS = 5;
+
+    private static final TypeReference<List<RouteEntry>> ROUTES = new TypeReference<>() { };
+    private static final TypeReference<List<TrainEntry>> TRAINS = new TypeReference<>() { };
+    private static final TypeReference<TreeMap<String, MonthEntry>> MONTHS = new TypeReference<>() { };
+    private static final TypeReference<TreeMap<String, Long>> ROUTE_COUNTS = new TypeReference<>() { };
+    private static final TypeReference<TreeMap<Long, Long>> TRAIN_COUNTS = new TypeReference<>() { };
+
+    @Data
+    static class RouteEntry {
+        private String key;
+        private String source;
+        private String destination;
+        private Integer distance;
+        private long trips;
+        private BigDecimal spent = BigDecimal.ZERO;
+    }
+
+    @Data
+    static class TrainEntry {
+        private Long trainId;
+        private String trainName;
+        private long trips;
+        private BigDecimal spent = BigDecimal.ZERO;
+    }
+
+    @Data
+    static class MonthEntry {
+        private int trips;
+        private BigDecimal amount = BigDecimal.ZERO;
+    }
+
+    private int totalBookings;
+    private int confirmedTrips;
+    private int cancelledTrips;
+    private BigDecimal totalSpent = BigDecimal.ZERO;
+    private double totalDistanceKm;
+    private List<RouteEntry> routes = new ArrayList<>();
+    private List<TrainEntry> trains = new ArrayList<>();
+    private TreeMap<String, MonthEntry> months = new TreeMap<>();
+    private TreeMap<String, Long> routeCounts = new TreeMap<>();
+    private TreeMap<Long, Long> trainCounts = new TreeMap<>();
+
+    static TravelStatsAggregate read(UserTravelStats row, ObjectMapper objectMapper) {
+        TravelStatsAggregate aggregate = new TravelStatsAggregate();
+        aggregate.totalBookings = row.getTotalBookings();
+        aggregate.confirmedTrips = row.getConfirmedTrips();
+        aggregate.cancelledTrips = row.getCancelledTrips();
+        aggregate.totalSpent = row.getTotalSpent();
+        aggregate.totalDistanceKm = row.getTotalDistanceKm();
+        try {
+            if (row.getRouteSketch() != null) {
+                aggregate.routes = objectMapper.readValue(row.getRouteSketch(), ROUTES);
+            }
+            if (row.getTrainSketch() != null) {
+                aggregate.trains = objectMapper.readValue(row.getTrainSketch(), TRAINS);
+            }
+            if (row.getMonthlyBuckets() != null) {
+                aggregate.months = objectMapper.readValue(row.getMonthlyBuckets(), MONTHS);
+            }
+            if (row.getRouteCounts() != null) {
+                aggregate.routeCounts = objectMapper.readValue(row.getRouteCounts(), ROUTE_COUNTS);
+            }
+            if (row.getTrainCounts() != null) {
+                aggregate.trainCounts = objectMapper.readValue(row.getTrainCounts(), TRAIN_COUNTS);
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("Unreadable travel statistics for user " + row.getUserId(), e);
+        }
+        return aggregate;
+    }
+
+    void writeTo(UserTravelStats row, ObjectMapper objectMapper) {
+        row.setTotalBookings(totalBookings);
+        row.setConfirmedTrips(confirmedTrips);
+        row.setCancelledTrips(cancelledTrips);
+        row.setTotalSpent(totalSpent);
+        row.setTotalDistanceKm(totalDistanceKm);
+        try {
+            row.setRouteSketch(objectMapper.writeValueAsString(routes));
+            row.setTrainSketch(objectMapper.writeValueAsString(trains));
+            row.setMonthlyBuckets(objectMapper.writeValueAsString(months));
+            row.setRouteCounts(objectMapper.writeValueAsString(routeCounts));
+            row.setTrainCounts(objectMapper.writeValueAsString(trainCounts));
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot serialize travel statistics for user " + row.getUserId(), e);
+        }
+    }
+
+    /**
+     * Add (sign 1) or subtract (sign -1) one booking
+     *
+     * Routes, trains and distance come from the snapshot's train details and
+     * stay untouched when the train was unknown at the time.
+     */
+    void apply(BookingChangedEvent.Snapshot booking, int sign) {
+        BigDecimal fare = booking.totalFare() != null ? booking.totalFare() : BigDecimal.ZERO;
+        BigDecimal signedFare = sign > 0 ? fare : fare.negate();
+
+        totalBookings += sign;
+        if ("CONFIRMED".equalsIgnoreCase(booking.status())) {
+            confirmedTrips += sign;
+        } else if ("CANCELLED".equalsIgnoreCase(booking.status())) {
+            cancelledTrips += sign;
+        }
+        totalSpent = totalSpent.add(signedFare);
+
+        String month = (booking.bookingTime() != null ? YearMonth.from(booking.bookingTime()) : YearMonth.now()).toString();
+        MonthEntry monthEntry = months.computeIfAbsent(month, key -> new MonthEntry());
+        monthEntry.trips += sign;
+        monthEntry.amount = monthEntry.amount.add(signedFare);
+        if (monthEntry.trips <= 0) {
+            months.remove(month);
+        }
+
+        BookingChangedEvent.TrainDetails train = booking.train();
+        if (train == null) {
+            return;
+        }
+        if (train.distance() != null) {
+            totalDistanceKm += sign * train.distance();
+        }
+
+        String routeKey = train.routeKey();
+        count(routeCounts, routeKey, sign);
+        if (booking.trainId() != null) {
+            count(trainCounts, booking.trainId(), sign);
+        }
+        RouteEntry route = routes.stream().filter(entry -> entry.key.equals(routeKey)).findFirst().orElse(null);
+        if (sign > 0) {
+            if (route == null) {
+                route = new RouteEntry();
+                route.key = routeKey;
+                route.source = train.sourceStation();
+                route.destination = train.destinationStation();
+                route.distance = train.distance();
+                route.trips = admit(routes, RouteEntry::getTrips);
+                route.spent = fare;
+                routes.add(route);
+            } else {
+                route.trips++;
+                route.spent = route.spent.add(fare);
+            }
+        } else if (route != null) {
+            route.trips--;
+            route.spent = route.spent.subtract(fare);
+            if (route.trips <= 0) {
+                routes.remove(route);
+            }
+        }
+
+        if (booking.trainId() == null) {
+            return;
+        }
+        TrainEntry trainEntry = trains.stream().filter(entry -> entry.trainId.equals(booking.trainId())).findFirst().orElse(null);
+        if (sign > 0) {
+            if (trainEntry == null) {
+                trainEntry = new TrainEntry();
+                trainEntry.trainId = booking.trainId();
+                trainEntry.trainName = train.trainName();
+                trainEntry.trips = admit(trains, TrainEntry::getTrips);
+                trainEntry.spent = fare;
+                trains.add(trainEntry);
+            } else {
+                trainEntry.trips++;
+                trainEntry.spent = trainEntry.spent.add(fare);
+            }
+        } else if (trainEntry != null) {
+            trainEntry.trips--;
+            trainEntry.spent = trainEntry.spent.subtract(fare);
+            if (trainEntry.trips <= 0) {
+                trains.remove(trainEntry);
+            }
+        }
+    }
+
+    private static <K> void count(TreeMap<K, Long> counts, K key, int sign) {
+        long trips = counts.getOrDefault(key, 0L) + sign;
+        if (trips > 0) {
+            counts.put(key, trips);
+        } else {
+            counts.remove(key);
+        }
+    }
+
+    /**
+     * Make room for a new key; it inherits the evicted entry's count plus one, as Space-Saving prescribes
+     */
+    private static <T> long admit(List<T> sketch, ToLongFunction<T> trips) {
+        if (sketch.size() < SKETCH_CAPACITY) {
+            return 1;
+        }
+        T least = sketch.stream().min(Comparator.comparingLong(trips)).orElseThrow();
+        sketch.remove(least);
+        return trips.applyAsLong(least) + 1;
+    }
+
+    TravelAnalyticsResponse toResponse(Long userId) {
+        TravelAnalyticsResponse response = new TravelAnalyticsResponse();
+        response.setUserId(userId);
+        response.setTotalBookings(totalBookings);
+        if (totalBookings == 0) {
+            return response;
+        }
+        response.setConfirmedTrips(confirmedTrips);
+        response.setCancelledTrips(cancelledTrips);
+        response.setTotalSpent(totalSpent);
+        response.setAverageFare(totalSpent.divide(BigDecimal.valueOf(totalBookings), 2, RoundingMode.HALF_UP));
+        response.setTotalDistanceKm(Math.round(totalDistanceKm * 100.0) / 100.0);
+        response.setUniqueRoutes(routeCounts.size());
+        response.setUniqueTrains(trainCounts.size());
+
+        response.setMonthlySummaries(months.entrySet().stream()
+            .map(entry -> {
+                TravelAnalyticsResponse.MonthlySummary summary = new TravelAnalyticsResponse.MonthlySummary();
+                summary.setMonth(entry.getKey());
+                summary.setTrips(entry.getValue().trips);
+                summary.setAmount(entry.getValue().amount);
+                return summary;
+            })
+            .toList());
+
+        response.setFavoriteRoutes(routes.stream()
+            .sorted(Comparator.comparingLong(RouteEntry::getTrips).reversed())
+            .limit(MAX_TOP_ROUTES)
+            .map(entry -> {
+                TravelAnalyticsResponse.RouteSummary summary = new TravelAnalyticsResponse.RouteSummary();
+                summary.setSourceStation(entry.source);
+                summary.setDestinationStation(entry.destination);
+                summary.setTrips(entry.trips);
+                summary.setTotalSpent(entry.spent);
+                summary.setDistanceKm(entry.distance != null ? Double.valueOf(entry.distance) : null);
+                return summary;
+            })
+            .toList());
+
+        response.setTopTrains(trains.stream()
+            .sorted(Comparator.comparingLong(TrainEntry::getTrips).reversed())
+            .limit(MAX_TOP_TRAINS)
+            .map(entry -> {
+                TravelAnalyticsResponse.TrainSummary summary = new TravelAnalyticsResponse.TrainSummary();
+                summary.setTrainId(entry.trainId);
+                summary.setTrainName(entry.trainName);
+                summary.setTrips(entry.trips);
+                summary.setTotalSpent(entry.spent);
+                return summary;
+            })
+            .toList());
+        return response;
+    }
+}
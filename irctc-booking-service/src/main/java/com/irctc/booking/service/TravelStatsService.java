@@ -0,0 +1,313 @@
+package com.irctc.booking.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.irctc.booking.client.TrainServiceClient;
+import com.irctc.booking.dto.analytics.TravelAnalyticsResponse;
+import com.irctc.booking.entity.SimpleBooking;
+import com.irctc.booking.entity.UserTravelStats;
+import com.irctc.booking.repository.BookingHistoryRepository;
+import com.irctc.booking.repository.UserTravelStatsRepository;
+import com.irctc.booking.tenant.TenantContext;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Travel Statistics Service
+ *
+ * Keeps one {@link UserTravelStats} row per user and scope up to date from
+ * {@link BookingChangedEvent}s, so the travel dashboard reads a single row
+ * instead of the user's whole booking history:
+ * - every change subtracts the booking as it was and adds it as it is now,
+ *   under an optimistic lock with a few retries, on the task executor; a
+ *   change that still cannot be applied, or that the executor rejects, marks
+ *   the user's rows for the rebuild job
+ * - rows are only updated once built; a user without rows is built from
+ *   history on the first dashboard read
+ * - raising {@link #STATS_VERSION} (or marking a user) makes the scheduled job
+ *   rebuild the rows from live and archived bookings
+ *
+ * @author IRCTC Development Team
+ * @version 1.0.0
+ */
+@Service
+public class TravelStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TravelStatsService.class);
+
+    /**
+     * Definition of the aggregate; bump whenever what a row holds or how it is computed changes
+     */
+    static final int STATS_VERSION = 2;
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final UserTravelStatsRepository statsRepository;
+    private final BookingHistoryRepository historyRepository;
+    private final TrainReferenceStore trainReferenceStore;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor taskExecutor;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final int pageSize;
+
+    public TravelStatsService(UserTravelStatsRepository statsRepository,
+                              BookingHistoryRepository historyRepository,
+                              TrainReferenceStore trainReferenceStore,
+                              PlatformTransactionManager transactionManager,
+                              @Qualifier("taskExecutor") Executor taskExecutor,
+                              @Value("${booking.travel-stats.page-size:500}") int pageSize) {
+        this.statsRepository = statsRepository;
+        this.historyRepository = historyRepository;
+        this.trainReferenceStore = trainReferenceStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Work may run on the committing thread after commit, where joining its transaction would never commit
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.taskExecutor = taskExecutor;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Statistics of a user within the current tenant, or across all tenants without one
+     */
+    public TravelAnalyticsResponse getStats(Long userId) {
+        String scope = TenantContext.hasTenant() ? TenantContext.getTenantId() : UserTravelStats.ALL_TENANTS;
+        Map<String, UserTravelStats> rows = byScope(
+            statsRepository.findByUserIdAndScopeIn(userId, new LinkedHashSet<>(List.of(scope, UserTravelStats.ALL_TENANTS))));
+
+        if (isCurrent(rows.get(UserTravelStats.ALL_TENANTS))) {
+            // A built user without a row for this tenant has no bookings in it
+            UserTravelStats row = rows.get(scope);
+            return (row != null ? TravelStatsAggregate.read(row, objectMapper) : new TravelStatsAggregate())
+                .toResponse(userId);
+        }
+
+        Map<String, TravelStatsAggregate> aggregates = computeFromHistory(userId);
+        try {
+            store(userId, aggregates);
+        } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+            // Another read or the job stored the same rows first
+            logger.debug("Travel statistics of user {} were stored concurrently", userId);
+        }
+        return aggregates.getOrDefault(scope, new TravelStatsAggregate()).toResponse(userId);
+    }
+
+    /**
+     * Hands the change to the task executor once the booking commits; a rejected
+     * task leaves the users to the rebuild job instead of dropping the change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        Set<Long> userIds = new LinkedHashSet<>();
+        if (event.before() != null && event.before().userId() != null) {
+            userIds.add(event.before().userId());
+        }
+        if (event.after() != null && event.after().userId() != null) {
+            userIds.add(event.after().userId());
+        }
+        if (userIds.isEmpty()) {
+            return;
+        }
+        try {
+            taskExecutor.execute(() -> {
+                for (Long userId : userIds) {
+                    applyWithRetry(userId, event);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Also covers the TaskRejectedException of Spring executors
+            logger.warn("⚠️ Travel statistics update for booking {} rejected: {}", event.bookingId(), e.getMessage());
+            userIds.forEach(this::markForRebuild);
+        }
+    }
+
+    /**
+     * Rebuild rows left behind by a {@link #STATS_VERSION} change or a failed update, a page of users per run
+     *
+     * @return number of users rebuilt
+     */
+    @Scheduled(initialDelayString = "${booking.travel-stats.rebuild-initial-delay-ms:60000}",
+               fixedDelayString = "${booking.travel-stats.rebuild-interval-ms:300000}")
+    @SchedulerLock(name = "travelStatsRebuild", lockAtLeastFor = "PT30S", lockAtMostFor = "PT30M")
+    public int rebuildOutdated() {
+        List<Long> userIds = statsRepository.findUserIdsWithStatsVersionNot(STATS_VERSION, PageRequest.of(0, pageSize));
+        int rebuilt = 0;
+        for (Long userId : userIds) {
+            try {
+                rebuild(userId);
+                rebuilt++;
+            } catch (Exception e) {
+                logger.warn("⚠️ Failed to rebuild travel statistics of user {}: {}", userId, e.getMessage());
+            }
+        }
+        if (rebuilt > 0) {
+            logger.info("📊 Rebuilt travel statistics of {} users", rebuilt);
+        }
+        return rebuilt;
+    }
+
+    /**
+     * Recompute all of a user's rows from their booking history
+     */
+    public void rebuild(Long userId) {
+        store(userId, computeFromHistory(userId));
+    }
+
+    private void applyWithRetry(Long userId, BookingChangedEvent event) {
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> apply(userId, event));
+                return;
+            } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+                logger.debug("Conflict applying booking {} to travel statistics of user {} (attempt {})",
+                    event.bookingId(), userId, attempt);
+            } catch (Exception e) {
+                logger.warn("⚠️ Failed to apply booking {} to travel statistics of user {}: {}",
+                    event.bookingId(), userId, e.getMessage());
+                break;
+            }
+        }
+        markForRebuild(userId);
+    }
+
+    private void markForRebuild(Long userId) {
+        logger.warn("⚠️ Travel statistics of user {} left to the rebuild job", userId);
+        try {
+            transactionTemplate.executeWithoutResult(status -> statsRepository.markForRebuild(userId));
+        } catch (Exception e) {
+            logger.error("❌ Failed to mark travel statistics of user {} for rebuild: {}", userId, e.getMessage());
+        }
+    }
+
+    private void apply(Long userId, BookingChangedEvent event) {
+        BookingChangedEvent.Snapshot removed = ownedBy(event.before(), userId);
+        BookingChangedEvent.Snapshot added = ownedBy(event.after(), userId);
+
+        Set<String> scopes = new LinkedHashSet<>();
+        scopes.add(UserTravelStats.ALL_TENANTS);
+        if (removed != null && removed.tenantId() != null) {
+            scopes.add(removed.tenantId());
+        }
+        if (added != null && added.tenantId() != null) {
+            scopes.add(added.tenantId());
+        }
+
+        Map<String, UserTravelStats> rows = byScope(statsRepository.findByUserIdAndScopeIn(userId, scopes));
+        if (!isCurrent(rows.get(UserTravelStats.ALL_TENANTS))) {
+            // Not built yet or awaiting a rebuild, which will read this booking from history
+            return;
+        }
+
+        for (String scope : scopes) {
+            UserTravelStats row = rows.computeIfAbsent(scope, key -> newRow(userId, key));
+            TravelStatsAggregate aggregate = TravelStatsAggregate.read(row, objectMapper);
+            // Train details come from the event, so a removal undoes exactly what was added
+            if (removed != null && inScope(removed, scope)) {
+                aggregate.apply(removed, -1);
+            }
+            if (added != null && inScope(added, scope)) {
+                aggregate.apply(added, 1);
+            }
+            aggregate.writeTo(row, objectMapper);
+        }
+        statsRepository.saveAll(rows.values());
+    }
+
+    private Map<String, TravelStatsAggregate> computeFromHistory(Long userId) {
+        Map<String, TravelStatsAggregate> aggregates = new HashMap<>();
+        aggregates.put(UserTravelStats.ALL_TENANTS, new TravelStatsAggregate());
+        Map<Long, TrainServiceClient.TrainResponse> trainCache = new HashMap<>();
+
+        long afterId = 0;
+        while (true) {
+            List<SimpleBooking> page = historyRepository.findForExport(userId, null, afterId, pageSize);
+            for (SimpleBooking booking : page) {
+                BookingChangedEvent.Snapshot snapshot =
+                    BookingChangedEvent.Snapshot.of(booking, resolveTrain(booking.getTrainId(), trainCache));
+                aggregates.get(UserTravelStats.ALL_TENANTS).apply(snapshot, 1);
+                if (snapshot.tenantId() != null) {
+                    aggregates.computeIfAbsent(snapshot.tenantId(), key -> new TravelStatsAggregate())
+                        .apply(snapshot, 1);
+                }
+            }
+            if (page.size() < pageSize) {
+                break;
+            }
+            afterId = page.get(page.size() - 1).getId();
+        }
+        return aggregates;
+    }
+
+    private void store(Long userId, Map<String, TravelStatsAggregate> aggregates) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<String, UserTravelStats> rows = byScope(statsRepository.findByUserId(userId));
+            for (Map.Entry<String, UserTravelStats> entry : rows.entrySet()) {
+                // Tenants the user no longer has bookings in are emptied
+                aggregates.getOrDefault(entry.getKey(), new TravelStatsAggregate()).writeTo(entry.getValue(), objectMapper);
+                entry.getValue().setStatsVersion(STATS_VERSION);
+            }
+            aggregates.forEach((scope, aggregate) -> {
+                if (!rows.containsKey(scope)) {
+                    UserTravelStats row = newRow(userId, scope);
+                    aggregate.writeTo(row, objectMapper);
+                    rows.put(scope, row);
+                }
+            });
+            statsRepository.saveAll(rows.values());
+        });
+    }
+
+    private TrainServiceClient.TrainResponse resolveTrain(Long trainId,
+                                                          Map<Long, TrainServiceClient.TrainResponse> cache) {
+        if (trainId == null) {
+            return null;
+        }
+        return cache.computeIfAbsent(trainId, id -> trainReferenceStore.get(id).orElse(null));
+    }
+
+    private static UserTravelStats newRow(Long userId, String scope) {
+        UserTravelStats row = new UserTravelStats();
+        row.setUserId(userId);
+        row.setScope(scope);
+        row.setStatsVersion(STATS_VERSION);
+        return row;
+    }
+
+    private static BookingChangedEvent.Snapshot ownedBy(BookingChangedEvent.Snapshot snapshot, Long userId) {
+        return snapshot != null && userId.equals(snapshot.userId()) ? snapshot : null;
+    }
+
+    private static boolean inScope(BookingChangedEvent.Snapshot snapshot, String scope) {
+        return UserTravelStats.ALL_TENANTS.equals(scope) || scope.equals(snapshot.tenantId());
+    }
+
+    private static boolean isCurrent(UserTravelStats row) {
+        return row != null && row.getStatsVersion() != null && row.getStatsVersion() == STATS_VERSION;
+    }
+
+    private static Map<String, UserTravelStats> byScope(List<UserTravelStats> rows) {
+        Map<String, UserTravelStats> byScope = new HashMap<>();
+        for (UserTravelStats row : rows) {
+            byScope.put(row.getScope(), row);
+        }
+        return byScope;
+    }
+}
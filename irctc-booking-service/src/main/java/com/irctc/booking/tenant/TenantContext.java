@@ -55,6 +55,36 @@ public class TenantContext {
         return TENANT_ID.get() != null || TENANT_CODE.get() != null;
     }
     
+    /**
+     * Tenant ID and code of a thread at one point in time
+     */
+    public record Snapshot(String tenantId, String tenantCode) {
+    }
+    
+    /**
+     * Capture the current tenant so it can be put back with {@link #restore(Snapshot)}
+     */
+    public static Snapshot capture() {
+        return new Snapshot(TENANT_ID.get(), TENANT_CODE.get());
+    }
+    
+    /**
+     * Put back a captured tenant; code that borrows a thread restores its
+     * caller's tenant instead of clearing it
+     */
+    public static void restore(Snapshot snapshot) {
+        restore(TENANT_ID, snapshot.tenantId());
+        restore(TENANT_CODE, snapshot.tenantCode());
+    }
+    
+    private static void restore(ThreadLocal<String> holder, String value) {
+        if (value != null) {
+            holder.set(value);
+        } else {
+            holder.remove();
+        }
+    }
+    
     /**
      * Clear tenant context
      */
@@ -5,22 +5,37 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.irctc.booking.entity.SimpleBooking;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
 
 import java.io.IOException;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * WebSocket Handler for Real-Time Booking Status Updates
- * 
+ *
  * Manages WebSocket connections and broadcasts booking status updates
  * to subscribed clients in real-time.
- * 
+ *
+ * Subscriptions are indexed by user ID so an update only touches the sessions
+ * of the booking's owner. Each update is serialized once and the same
+ * {@link TextMessage} is shared by all recipients. Sessions are wrapped in a
+ * {@link ConcurrentWebSocketSessionDecorator}, which gives every client a bounded
+ * send buffer so one slow client cannot stall delivery to the others; a client
+ * that stays over the send time limit is closed and dropped. When a
+ * {@link BookingUpdateRedisBridge} is available updates are also relayed to
+ * clients connected to other booking-service instances.
+ *
  * @author IRCTC Development Team
  * @version 1.0.0
  */
@@ -28,12 +43,21 @@ import java.util.concurrent.ConcurrentHashMap;
 public class BookingStatusHandler extends TextWebSocketHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(BookingStatusHandler.class);
-    
+
     private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
     private final Map<String, Long> userSubscriptions = new ConcurrentHashMap<>(); // sessionId -> userId
+    private final Map<Long, Set<String>> sessionsByUser = new ConcurrentHashMap<>(); // userId -> sessionIds
     private final ObjectMapper objectMapper;
-    
-    public BookingStatusHandler() {
+    private final ObjectProvider<BookingUpdateRedisBridge> redisBridge;
+
+    @Value("${websocket.booking-updates.send-time-limit-ms:5000}")
+    private int sendTimeLimitMs = 5000;
+
+    @Value("${websocket.booking-updates.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit = 512 * 1024;
+
+    public BookingStatusHandler(ObjectProvider<BookingUpdateRedisBridge> redisBridge) {
+        this.redisBridge = redisBridge;
         this.objectMapper = new ObjectMapper();
         this.objectMapper.registerModule(new JavaTimeModule());
     }
@@ -41,18 +65,20 @@ public class BookingStatusHandler extends TextWebSocketHandler {
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
         String sessionId = session.getId();
-        sessions.put(sessionId, session);
+        sessions.put(sessionId, new ConcurrentWebSocketSessionDecorator(
+            session, sendTimeLimitMs, sendBufferSizeLimit,
+            ConcurrentWebSocketSessionDecorator.OverflowStrategy.DROP));
         logger.info("✅ WebSocket connection established: {}", sessionId);
-        
+
         // Send welcome message
-        sendMessage(session, createMessage("connected", "WebSocket connection established"));
+        sendMessage(sessions.get(sessionId), createMessage("connected", "WebSocket connection established"));
     }
 
     @Override
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) throws Exception {
         String sessionId = session.getId();
         sessions.remove(sessionId);
-        userSubscriptions.remove(sessionId);
+        unsubscribe(sessionId);
         logger.info("❌ WebSocket connection closed: {} - Status: {}", sessionId, status);
     }
 
@@ -60,33 +86,34 @@ public class BookingStatusHandler extends TextWebSocketHandler {
     protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
         String sessionId = session.getId();
         String payload = message.getPayload();
-        
+        WebSocketSession target = sessions.getOrDefault(sessionId, session);
+
         logger.debug("📨 Received WebSocket message from {}: {}", sessionId, payload);
-        
+
         try {
             // Parse subscription message
             Map<String, Object> request = objectMapper.readValue(payload, Map.class);
             String action = (String) request.get("action");
-            
+
             if ("subscribe".equals(action)) {
                 // Subscribe to a specific user's bookings
                 Object userIdObj = request.get("userId");
                 if (userIdObj != null) {
                     Long userId = Long.valueOf(userIdObj.toString());
-                    userSubscriptions.put(sessionId, userId);
+                    subscribe(sessionId, userId);
                     logger.info("📋 Session {} subscribed to user {} bookings", sessionId, userId);
-                    sendMessage(session, createMessage("subscribed", "Subscribed to booking updates for user: " + userId));
+                    sendMessage(target, createMessage("subscribed", "Subscribed to booking updates for user: " + userId));
                 }
             } else if ("unsubscribe".equals(action)) {
-                userSubscriptions.remove(sessionId);
+                unsubscribe(sessionId);
                 logger.info("📋 Session {} unsubscribed", sessionId);
-                sendMessage(session, createMessage("unsubscribed", "Unsubscribed from booking updates"));
+                sendMessage(target, createMessage("unsubscribed", "Unsubscribed from booking updates"));
             } else {
-                sendMessage(session, createMessage("error", "Unknown action: " + action));
+                sendMessage(target, createMessage("error", "Unknown action: " + action));
             }
         } catch (Exception e) {
             logger.error("❌ Error handling WebSocket message", e);
-            sendMessage(session, createMessage("error", "Invalid message format"));
+            sendMessage(target, createMessage("error", "Invalid message format"));
         }
     }
 
@@ -94,55 +121,106 @@ public class BookingStatusHandler extends TextWebSocketHandler {
      * Broadcast booking status update to subscribed clients
      */
     public void broadcastBookingUpdate(SimpleBooking booking) {
-        String bookingJson;
+        String payload;
         try {
-            bookingJson = objectMapper.writeValueAsString(booking);
+            Map<String, Object> message = new LinkedHashMap<>();
+            message.put("type", "booking_update");
+            message.put("booking", booking);
+            payload = objectMapper.writeValueAsString(message);
         } catch (Exception e) {
             logger.error("❌ Error serializing booking", e);
             return;
         }
 
         Long bookingUserId = booking.getUserId();
-        int broadcastCount = 0;
-
-        for (Map.Entry<String, Long> subscription : userSubscriptions.entrySet()) {
-            String sessionId = subscription.getKey();
-            Long subscribedUserId = subscription.getValue();
-
-            // Only send to clients subscribed to this user's bookings
-            if (bookingUserId.equals(subscribedUserId)) {
-                WebSocketSession session = sessions.get(sessionId);
-                if (session != null && session.isOpen()) {
-                    try {
-                        Map<String, Object> message = Map.of(
-                            "type", "booking_update",
-                            "booking", objectMapper.readValue(bookingJson, Map.class)
-                        );
-                        sendMessage(session, objectMapper.writeValueAsString(message));
-                        broadcastCount++;
-                    } catch (Exception e) {
-                        logger.error("❌ Error sending booking update to session {}", sessionId, e);
-                    }
-                }
-            }
+        int broadcastCount = deliverToLocalSubscribers(bookingUserId, payload);
+
+        BookingUpdateRedisBridge bridge = redisBridge.getIfAvailable();
+        if (bridge != null) {
+            bridge.publish(bookingUserId, payload);
         }
 
         if (broadcastCount > 0) {
-            logger.info("📤 Broadcast booking update for booking {} to {} subscribers", 
+            logger.info("📤 Broadcast booking update for booking {} to {} subscribers",
                 booking.getId(), broadcastCount);
         }
     }
 
+    /**
+     * Deliver an already serialized update to the sessions of one user on this instance
+     *
+     * @return number of sessions the update was handed to
+     */
+    public int deliverToLocalSubscribers(Long userId, String payload) {
+        Set<String> sessionIds = userId != null ? sessionsByUser.get(userId) : null;
+        if (sessionIds == null || sessionIds.isEmpty()) {
+            return 0;
+        }
+
+        TextMessage textMessage = new TextMessage(payload);
+        int deliveredCount = 0;
+        for (String sessionId : sessionIds) {
+            WebSocketSession session = sessions.get(sessionId);
+            if (session != null && session.isOpen()) {
+                if (sendMessage(session, textMessage)) {
+                    deliveredCount++;
+                }
+            }
+        }
+        return deliveredCount;
+    }
+
+    private void subscribe(String sessionId, Long userId) {
+        Long previous = userSubscriptions.put(sessionId, userId);
+        if (previous != null && !previous.equals(userId)) {
+            removeFromIndex(previous, sessionId);
+        }
+        sessionsByUser.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(sessionId);
+    }
+
+    private void unsubscribe(String sessionId) {
+        Long userId = userSubscriptions.remove(sessionId);
+        if (userId != null) {
+            removeFromIndex(userId, sessionId);
+        }
+    }
+
+    private void removeFromIndex(Long userId, String sessionId) {
+        sessionsByUser.computeIfPresent(userId, (id, sessionIds) -> {
+            sessionIds.remove(sessionId);
+            return sessionIds.isEmpty() ? null : sessionIds;
+        });
+    }
+
     /**
      * Send a message to a specific session
      */
     private void sendMessage(WebSocketSession session, String message) {
+        sendMessage(session, new TextMessage(message));
+    }
+
+    private boolean sendMessage(WebSocketSession session, TextMessage message) {
         try {
             if (session.isOpen()) {
-                session.sendMessage(new TextMessage(message));
+                session.sendMessage(message);
+                return true;
             }
-        } catch (IOException e) {
-            logger.error("❌ Error sending WebSocket message", e);
+        } catch (SessionLimitExceededException e) {
+            logger.warn("⚠️ Closing slow WebSocket session {}: {}", session.getId(), e.getMessage());
+            close(session, e.getStatus());
+        } catch (IOException | IllegalStateException e) {
+            logger.error("❌ Error sending WebSocket message to session {}", session.getId(), e);
+        }
+        return false;
+    }
+
+    private void close(WebSocketSession session, CloseStatus status) {
+        sessions.remove(session.getId());
+        unsubscribe(session.getId());
+        try {
+            session.close(status);
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Failed to close WebSocket session {}: {}", session.getId(), e.getMessage());
         }
     }
 
@@ -169,5 +247,11 @@ public class BookingStatusHandler extends TextWebSocketHandler {
     public int getActiveConnections() {
         return sessions.size();
     }
-}
 
+    /**
+     * Get number of users with at least one subscribed session on this instance
+     */
+    public int getSubscribedUsers() {
+        return sessionsByUser.size();
+    }
+}
@@ -0,0 +1,110 @@
+package com.irctc.booking.websocket;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Redis pub/sub bridge for booking status updates
+ *
+ * Relays already serialized booking updates between booking-service instances
+ * so a client receives updates no matter which instance holds its WebSocket.
+ * Messages carry the origin instance ID and are ignored by the publisher,
+ * which has already delivered them to its own sessions.
+ *
+ * Wire format: {@code <instanceId>\n<userId>\n<payload>}
+ *
+ * @author IRCTC Development Team
+ * @version 1.0.0
+ */
+@Component
+@ConditionalOnProperty(name = "websocket.booking-updates.redis-bridge.enabled", havingValue = "true")
+public class BookingUpdateRedisBridge implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingUpdateRedisBridge.class);
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final StringRedisTemplate redisTemplate;
+    private final RedisConnectionFactory connectionFactory;
+    private final BookingStatusHandler bookingStatusHandler;
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Value("${websocket.booking-updates.redis-bridge.channel:booking-status-updates}")
+    private String channel;
+
+    public BookingUpdateRedisBridge(StringRedisTemplate redisTemplate,
+                                    RedisConnectionFactory connectionFactory,
+                                    BookingStatusHandler bookingStatusHandler) {
+        this.redisTemplate = redisTemplate;
+        this.connectionFactory = connectionFactory;
+        this.bookingStatusHandler = bookingStatusHandler;
+    }
+
+    @PostConstruct
+    public void start() {
+        listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(connectionFactory);
+        listenerContainer.addMessageListener(this, new ChannelTopic(channel));
+        listenerContainer.afterPropertiesSet();
+        try {
+            listenerContainer.start();
+            logger.info("📡 Booking update Redis bridge listening on channel {} (instance {})", channel, instanceId);
+        } catch (Exception e) {
+            // The container keeps retrying the subscription; local delivery is unaffected
+            logger.warn("⚠️ Booking update Redis bridge could not subscribe yet: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws Exception {
+        if (listenerContainer != null) {
+            listenerContainer.destroy();
+        }
+    }
+
+    /**
+     * Publish a serialized update for the other instances
+     */
+    public void publish(Long userId, String payload) {
+        try {
+            redisTemplate.convertAndSend(channel, instanceId + "\n" + userId + "\n" + payload);
+        } catch (Exception e) {
+            logger.warn("⚠️ Failed to relay booking update for user {} via Redis: {}", userId, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int firstBreak = body.indexOf('\n');
+        int secondBreak = firstBreak < 0 ? -1 : body.indexOf('\n', firstBreak + 1);
+        if (secondBreak < 0) {
+            logger.warn("⚠️ Ignoring malformed booking update relay message");
+            return;
+        }
+
+        if (instanceId.equals(body.substring(0, firstBreak))) {
+            return;
+        }
+
+        try {
+            Long userId = Long.valueOf(body.substring(firstBreak + 1, secondBreak));
+            bookingStatusHandler.deliverToLocalSubscribers(userId, body.substring(secondBreak + 1));
+        } catch (NumberFormatException e) {
+            logger.warn("⚠️ Ignoring booking update relay message with invalid user ID");
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Create the sequences backing pooled-lo ID allocation
+ *
+ * Replaces IDENTITY columns on the booking write path so Hibernate can batch
+ * inserts. Each sequence starts above the current maximum ID of its table,
+ * which needs a query first and is why this is a Java migration. The increments
+ * must match the allocationSize of the corresponding @SequenceGenerator.
+ *
+ * pnr_seq feeds {@link com.irctc.booking.id.PnrGenerator}.
+ */
+public class V15__Create_id_sequences extends BaseJavaMigration {
+
+    private static final String[][] TABLE_SEQUENCES = {
+        {"bookings", "bookings_seq"},
+        {"passengers", "passengers_seq"},
+        {"outbox_events", "outbox_events_seq"},
+        {"booking_events", "booking_events_seq"},
+        {"event_production_log", "event_production_log_seq"}
+    };
+
+    private static final int ENTITY_ALLOCATION_SIZE = 50;
+    private static final int PNR_ALLOCATION_SIZE = 100;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (Statement statement = context.getConnection().createStatement()) {
+            for (String[] tableSequence : TABLE_SEQUENCES) {
+                long start = 1;
+                try (ResultSet rs = statement.executeQuery("SELECT MAX(id) FROM " + tableSequence[0])) {
+                    if (rs.next()) {
+                        start = rs.getLong(1) + 1;
+                    }
+                }
+                statement.execute("CREATE SEQUENCE " + tableSequence[1]
+                    + " START WITH " + start + " INCREMENT BY " + ENTITY_ALLOCATION_SIZE);
+            }
+            statement.execute("CREATE SEQUENCE pnr_seq START WITH 1 INCREMENT BY " + PNR_ALLOCATION_SIZE);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+-- Delta sync support for offline bundles
+
+-- Modification timestamp maintained on every insert/update of a booking
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS last_modified_at TIMESTAMP;
+UPDATE bookings SET last_modified_at = COALESCE(updated_at, created_at) WHERE last_modified_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_bookings_user_modified ON bookings(user_id, last_modified_at);
+
+-- Tombstones for hard-deleted bookings so clients can drop them from their cache
+CREATE TABLE IF NOT EXISTS booking_tombstones (
+  id BIGINT AUTO_INCREMENT PRIMARY KEY,
+  booking_id BIGINT NOT NULL,
+  user_id BIGINT NOT NULL,
+  pnr_number VARCHAR(20),
+  tenant_id VARCHAR(50),
+  deleted_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_booking_tombstones_user_deleted ON booking_tombstones(user_id, deleted_at);
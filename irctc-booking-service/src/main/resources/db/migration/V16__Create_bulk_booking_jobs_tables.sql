@@ -0,0 +1,39 @@
+CREATE TABLE IF NOT EXISTS bulk_booking_jobs (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    status VARCHAR(40) NOT NULL,
+    total_items INT NOT NULL,
+    booked_items INT NOT NULL DEFAULT 0,
+    rejected_items INT NOT NULL DEFAULT 0,
+    failed_items INT NOT NULL DEFAULT 0,
+    error_message TEXT,
+    tenant_id VARCHAR(50),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    started_at TIMESTAMP,
+    completed_at TIMESTAMP,
+    updated_at TIMESTAMP,
+    CONSTRAINT chk_bulk_booking_jobs_status CHECK (status IN ('QUEUED','PROCESSING','COMPLETED','PARTIALLY_COMPLETED','FAILED'))
+);
+
+CREATE INDEX IF NOT EXISTS idx_bulk_booking_job_status ON bulk_booking_jobs(status);
+CREATE INDEX IF NOT EXISTS idx_bulk_booking_job_tenant ON bulk_booking_jobs(tenant_id);
+
+CREATE TABLE IF NOT EXISTS bulk_booking_job_items (
+    id BIGINT PRIMARY KEY,
+    job_id BIGINT NOT NULL,
+    item_index INT NOT NULL,
+    user_id BIGINT,
+    train_id BIGINT,
+    passenger_count INT,
+    status VARCHAR(40) NOT NULL,
+    booking_id BIGINT,
+    pnr_number VARCHAR(255),
+    message TEXT,
+    tenant_id VARCHAR(50),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_bulk_booking_job_item UNIQUE (job_id, item_index),
+    CONSTRAINT fk_bulk_booking_job_item_job FOREIGN KEY (job_id) REFERENCES bulk_booking_jobs(id),
+    CONSTRAINT chk_bulk_booking_job_items_status CHECK (status IN ('BOOKED','REJECTED','FAILED'))
+);
+
+-- Item results are written in the same batched transaction as their bookings
+CREATE SEQUENCE bulk_booking_job_items_seq START WITH 1 INCREMENT BY 50;
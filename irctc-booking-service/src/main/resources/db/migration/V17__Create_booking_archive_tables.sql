@@ -0,0 +1,72 @@
+-- Hot/cold booking storage
+--
+-- bookings keeps current and future journeys. Once a journey is older than
+-- booking.archive.hot-days, BookingArchivalService moves the booking, its
+-- passengers and its event-store entries into the *_archive tables, which are
+-- append-only and keyed by journey month. On PostgreSQL the archive tables are
+-- meant to be declared PARTITION BY RANGE (journey_month); H2 has no
+-- declarative partitioning, so here journey_month leads the indexes instead.
+--
+-- Existing bookings keep a NULL journey_date: the booking date says nothing
+-- about when the train runs, and the archiver never moves a NULL row.
+
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS journey_date DATE;
+CREATE INDEX IF NOT EXISTS idx_bookings_journey_date ON bookings(journey_date, id);
+
+CREATE TABLE IF NOT EXISTS bookings_archive (
+  id BIGINT PRIMARY KEY,
+  journey_month INT NOT NULL,
+  user_id BIGINT NOT NULL,
+  train_id BIGINT NOT NULL,
+  pnr_number VARCHAR(20) NOT NULL,
+  journey_date DATE NOT NULL,
+  booking_time TIMESTAMP NOT NULL,
+  status VARCHAR(50) NOT NULL,
+  total_fare DECIMAL(10, 2) NOT NULL,
+  tenant_id VARCHAR(50),
+  created_at TIMESTAMP,
+  updated_at TIMESTAMP,
+  last_modified_at TIMESTAMP,
+  archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_month ON bookings_archive(journey_month, id);
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_user ON bookings_archive(user_id, journey_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_pnr ON bookings_archive(pnr_number);
+
+CREATE TABLE IF NOT EXISTS passengers_archive (
+  id BIGINT PRIMARY KEY,
+  journey_month INT NOT NULL,
+  booking_id BIGINT NOT NULL,
+  name VARCHAR(255) NOT NULL,
+  age INT NOT NULL,
+  gender VARCHAR(20) NOT NULL,
+  seat_number VARCHAR(20) NOT NULL,
+  id_proof_type VARCHAR(50) NOT NULL,
+  id_proof_number VARCHAR(100) NOT NULL,
+  tenant_id VARCHAR(50),
+  created_at TIMESTAMP,
+  updated_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_passengers_archive_booking ON passengers_archive(booking_id);
+
+CREATE TABLE IF NOT EXISTS booking_events_archive (
+  id BIGINT PRIMARY KEY,
+  journey_month INT NOT NULL,
+  event_id VARCHAR(100) NOT NULL,
+  aggregate_id VARCHAR(50) NOT NULL,
+  event_type VARCHAR(100) NOT NULL,
+  event_data TEXT NOT NULL,
+  timestamp TIMESTAMP NOT NULL,
+  correlation_id VARCHAR(100),
+  user_id VARCHAR(100),
+  version VARCHAR(50),
+  event_metadata TEXT,
+  archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_booking_events_archive_aggregate ON booking_events_archive(aggregate_id, timestamp);
+
+-- Keyset scan for purging published outbox rows
+CREATE INDEX IF NOT EXISTS idx_outbox_status_published ON outbox_events(status, published_at, id);
@@ -0,0 +1,20 @@
+-- Per-user travel statistics kept current from booking changes; scope is a tenant id or '*' for all tenants
+CREATE TABLE IF NOT EXISTS user_travel_stats (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    scope VARCHAR(50) NOT NULL,
+    total_bookings INT NOT NULL DEFAULT 0,
+    confirmed_trips INT NOT NULL DEFAULT 0,
+    cancelled_trips INT NOT NULL DEFAULT 0,
+    total_spent DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    total_distance_km DOUBLE NOT NULL DEFAULT 0,
+    route_sketch TEXT,
+    train_sketch TEXT,
+    monthly_buckets TEXT,
+    stats_version INT NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP,
+    CONSTRAINT uk_user_travel_stats_scope UNIQUE (user_id, scope)
+);
+
+CREATE INDEX IF NOT EXISTS idx_user_travel_stats_version ON user_travel_stats(stats_version);
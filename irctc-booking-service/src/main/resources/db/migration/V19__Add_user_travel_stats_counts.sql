@@ -0,0 +1,3 @@
+-- Exact trip counts per route key and train id, so unique routes and trains are not capped by the sketches
+ALTER TABLE user_travel_stats ADD COLUMN IF NOT EXISTS route_counts TEXT;
+ALTER TABLE user_travel_stats ADD COLUMN IF NOT EXISTS train_counts TEXT;
@@ -0,0 +1,23 @@
+-- One row per entity revision
+--
+-- Every instance's audit writer numbers an entity's changes on from the
+-- latest stored revision. Two instances changing the same entity at once
+-- would both take the next number; the constraint rejects the second batch,
+-- which is then re-numbered from a fresh read.
+--
+-- Entities that already have duplicate revisions are renumbered first, in
+-- (revision_number, id) order, so their history keeps its order.
+
+UPDATE entity_audit_log a SET revision_number = (
+  SELECT COUNT(*) FROM entity_audit_log b
+  WHERE b.entity_name = a.entity_name AND b.entity_id = a.entity_id
+    AND (b.revision_number < a.revision_number OR (b.revision_number = a.revision_number AND b.id <= a.id))
+)
+WHERE (a.entity_name, a.entity_id) IN (
+  SELECT d.entity_name, d.entity_id FROM entity_audit_log d
+  GROUP BY d.entity_name, d.entity_id, d.revision_number
+  HAVING COUNT(*) > 1
+);
+
+ALTER TABLE entity_audit_log ADD CONSTRAINT uk_audit_entity_revision
+  UNIQUE (entity_name, entity_id, revision_number);
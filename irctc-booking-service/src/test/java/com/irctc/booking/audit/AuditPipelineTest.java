@@ -0,0 +1,225 @@
+package com.irctc.booking.audit;
+
+import com.irctc.booking.audit.entity.EntityAuditLog;
+import com.irctc.booking.audit.repository.EntityAuditLogRepository;
+import com.irctc.booking.audit.sink.AuditSink;
+import com.irctc.booking.audit.sink.JdbcAuditSink;
+import com.irctc.booking.entity.SimpleBooking;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the listener, pipeline and JDBC sink against the Flyway-migrated H2
+ * schema. Not transactional, because audit rows are only queued on commit.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({EntityAuditListener.class, AuditPipeline.class, JdbcAuditSink.class})
+@TestPropertySource(properties = {
+    "audit.pipeline.flush-interval-ms=20",
+    "spring.jpa.show-sql=false"
+})
+class AuditPipelineTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private AuditPipeline auditPipeline;
+
+    @Autowired
+    private EntityAuditLogRepository auditLogRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate tx;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        jdbcTemplate.update("DELETE FROM entity_audit_log");
+    }
+
+    @Test
+    void testCreateUpdateDeleteProduceOrderedRevisionsWithDiffs() throws Exception {
+        Long id = tx.execute(status -> {
+            SimpleBooking booking = newBooking("AUD0000001");
+            entityManager.persist(booking);
+            return booking.getId();
+        });
+        tx.executeWithoutResult(status -> entityManager.find(SimpleBooking.class, id).setStatus("CANCELLED"));
+        tx.executeWithoutResult(status -> entityManager.remove(entityManager.find(SimpleBooking.class, id)));
+
+        List<EntityAuditLog> history = awaitHistory(id, 3);
+
+        assertThat(history).extracting(EntityAuditLog::getAction).containsExactly("CREATE", "UPDATE", "DELETE");
+        assertThat(history).extracting(EntityAuditLog::getRevisionNumber).containsExactly(1L, 2L, 3L);
+        assertThat(history.get(0).getOldValues()).isNull();
+        assertThat(history.get(0).getNewValues()).contains("\"pnrNumber\":\"AUD0000001\"");
+
+        EntityAuditLog update = history.get(1);
+        assertThat(update.getOldValues()).isEqualTo(history.get(0).getNewValues());
+        assertThat(update.getChangedFields()).contains("\"status\"").doesNotContain("pnrNumber");
+        assertThat(update.getNewValues()).contains("\"status\":\"CANCELLED\"");
+
+        EntityAuditLog delete = history.get(2);
+        assertThat(delete.getNewValues()).isNull();
+        assertThat(delete.getOldValues()).contains("\"status\":\"CANCELLED\"");
+    }
+
+    @Test
+    void testRolledBackChangesAreNotAudited() throws Exception {
+        Long[] id = new Long[1];
+        tx.executeWithoutResult(status -> {
+            SimpleBooking booking = newBooking("AUD0000002");
+            entityManager.persist(booking);
+            entityManager.flush();
+            id[0] = booking.getId();
+            status.setRollbackOnly();
+        });
+        Long committed = tx.execute(status -> {
+            SimpleBooking booking = newBooking("AUD0000003");
+            entityManager.persist(booking);
+            return booking.getId();
+        });
+
+        awaitHistory(committed, 1);
+        assertThat(auditLogRepository.countByEntityNameAndEntityId("SimpleBooking", id[0])).isZero();
+    }
+
+    @Test
+    void testRevisionsContinueFromRowsWrittenByAnotherInstance() throws Exception {
+        Long id = tx.execute(status -> {
+            SimpleBooking booking = newBooking("AUD0000005");
+            entityManager.persist(booking);
+            return booking.getId();
+        });
+        awaitHistory(id, 1);
+        // Another instance audits an update this one never saw
+        insertRevision(id, 2L, "{\"status\":\"WAITLISTED\"}");
+
+        tx.executeWithoutResult(status -> entityManager.find(SimpleBooking.class, id).setStatus("CANCELLED"));
+
+        List<EntityAuditLog> history = awaitHistory(id, 3);
+        assertThat(history).extracting(EntityAuditLog::getRevisionNumber).containsExactly(1L, 2L, 3L);
+        assertThat(history.get(2).getOldValues()).isEqualTo("{\"status\":\"WAITLISTED\"}");
+    }
+
+    @Test
+    void testDuplicateRevisionIsRejected() {
+        insertRevision(9001L, 1L, "{}");
+
+        assertThatThrownBy(() -> insertRevision(9001L, 1L, "{}")).isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void testSinkWithoutStoredRevisionsLeavesNumberingToItsConsumer() {
+        List<EntityAuditLog> published = new ArrayList<>();
+        AuditPipeline pipeline = new AuditPipeline();
+        ReflectionTestUtils.setField(pipeline, "sink", new AuditSink() {
+            @Override
+            public void write(List<EntityAuditLog> auditLogs) {
+                published.addAll(auditLogs);
+            }
+
+            @Override
+            public boolean storesRevisions() {
+                return false;
+            }
+        });
+        ReflectionTestUtils.setField(pipeline, "auditLogRepository", auditLogRepository);
+
+        LocalDateTime now = LocalDateTime.now();
+        pipeline.writeBatch(List.of(
+            new AuditChange("SimpleBooking", 9002L, "CREATE", Map.of("status", "CONFIRMED"), null, null, null, now),
+            new AuditChange("SimpleBooking", 9002L, "UPDATE", Map.of("status", "CANCELLED"), null, null, null, now)));
+
+        assertThat(published).extracting(EntityAuditLog::getRevisionNumber).containsOnlyNulls();
+        assertThat(published.get(1).getOldValues()).isNull();
+        assertThat(published.get(1).getNewValues()).contains("CANCELLED");
+        assertThat(auditLogRepository.countByEntityNameAndEntityId("SimpleBooking", 9002L)).isZero();
+    }
+
+    @Test
+    void testAccessorsSkipRelationsAndReadId() {
+        SimpleBooking booking = newBooking("AUD0000004");
+        booking.setId(77L);
+        booking.setPassengers(List.of());
+
+        AuditAccessors accessors = AuditAccessors.of(SimpleBooking.class);
+        Map<String, Object> snapshot = accessors.snapshot(booking);
+
+        assertThat(accessors.id(booking)).isEqualTo(77L);
+        assertThat(accessors.entityName()).isEqualTo("SimpleBooking");
+        assertThat(snapshot).containsEntry("pnrNumber", "AUD0000004")
+            .containsEntry("bookingTime", booking.getBookingTime().toString())
+            .doesNotContainKey("passengers");
+        assertThat(AuditAccessors.of(SimpleBooking.class)).isSameAs(accessors);
+    }
+
+    @Test
+    void testChangedFieldsCoverAddedChangedAndRemovedKeys() {
+        Map<String, Object> before = Map.of("status", "CONFIRMED", "totalFare", 500.0, "tenantId", "t1");
+        Map<String, Object> after = Map.of("status", "CANCELLED", "totalFare", 500.0, "updatedAt", "2026-10-18T10:00");
+
+        assertThat(AuditPipeline.changedFields(before, after))
+            .containsExactlyInAnyOrder("status", "updatedAt", "tenantId");
+        assertThat(AuditPipeline.changedFields(null, after))
+            .containsExactlyInAnyOrder("status", "totalFare", "updatedAt");
+    }
+
+    private List<EntityAuditLog> awaitHistory(Long id, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        List<EntityAuditLog> history;
+        do {
+            history = auditLogRepository.findByEntityNameAndEntityIdOrderByRevisionNumberAsc("SimpleBooking", id);
+            if (history.size() >= expected && auditPipeline.queueSize() == 0) {
+                return history;
+            }
+            Thread.sleep(20);
+        } while (System.currentTimeMillis() < deadline);
+        return history;
+    }
+
+    private void insertRevision(Long entityId, Long revision, String newValues) {
+        jdbcTemplate.update("INSERT INTO entity_audit_log (entity_name, entity_id, revision_number, action, " +
+            "changed_at, new_values) VALUES ('SimpleBooking', ?, ?, 'UPDATE', CURRENT_TIMESTAMP, ?)",
+            entityId, revision, newValues);
+    }
+
+    private SimpleBooking newBooking(String pnr) {
+        SimpleBooking booking = new SimpleBooking();
+        booking.setUserId(1L);
+        booking.setTrainId(1L);
+        booking.setPnrNumber(pnr);
+        booking.setBookingTime(LocalDateTime.now());
+        booking.setStatus("CONFIRMED");
+        booking.setTotalFare(new BigDecimal("500.00"));
+        return booking;
+    }
+}
@@ -22,6 +22,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -67,6 +68,33 @@ class OfflineSyncControllerTest {
             .andExpect(jsonPath("$.metadata.ticketCount").value(2));
     }
 
+    @Test
+    void shouldReturnNotModifiedWhenBundleUnchanged() throws Exception {
+        OfflineSyncResponse response = new OfflineSyncResponse();
+        response.getMetadata().setSyncToken("token-1");
+        when(offlineSyncService.generateOfflineBundle(any(OfflineSyncRequest.class))).thenReturn(response);
+
+        OfflineSyncRequest request = new OfflineSyncRequest();
+        request.setUserId(1L);
+        String body = objectMapper.writeValueAsString(request);
+
+        String etag = mockMvc.perform(post("/api/offline/sync")
+                .contentType("application/json")
+                .content(body))
+            .andExpect(status().isOk())
+            .andExpect(header().exists("ETag"))
+            .andReturn().getResponse().getHeader("ETag");
+
+        // A later call regenerates the bundle with a new timestamp but identical content
+        response.getMetadata().setGeneratedAt(LocalDateTime.now().plusMinutes(5));
+
+        mockMvc.perform(post("/api/offline/sync")
+                .header("If-None-Match", etag)
+                .contentType("application/json")
+                .content(body))
+            .andExpect(status().isNotModified());
+    }
+
     @Test
     void shouldQueueOfflineAction() throws Exception {
         OfflineAction action = new OfflineAction();
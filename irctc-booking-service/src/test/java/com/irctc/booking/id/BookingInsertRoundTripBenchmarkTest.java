@@ -0,0 +1,107 @@
+package com.irctc.booking.id;
+
+import com.irctc.booking.entity.OutboxEvent;
+import com.irctc.booking.entity.SimpleBooking;
+import com.irctc.booking.entity.SimplePassenger;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures JDBC round trips per booking (booking + passengers + outbox row).
+ *
+ * The baseline run forces a JDBC batch size of 1, which is what the old
+ * IDENTITY mapping amounted to: one statement per row. The second run uses the
+ * configured batch size with pooled-lo sequence IDs. The slice has no
+ * AuditPipeline bean, so the audit listener records nothing and only the
+ * booking rows themselves are counted.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@TestPropertySource(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.format_sql=false"
+})
+class BookingInsertRoundTripBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingInsertRoundTripBenchmarkTest.class);
+
+    private static final int BOOKINGS = 40;
+    private static final int PASSENGERS_PER_BOOKING = 4;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void testBatchedInsertsNeedFewerRoundTripsPerBooking() {
+        double baseline = roundTripsPerBooking(1, 0);
+        double batched = roundTripsPerBooking(null, 1);
+
+        logger.info("Round trips per booking ({} passengers + outbox row): batch size 1 = {}, batched = {}",
+            PASSENGERS_PER_BOOKING, String.format("%.2f", baseline), String.format("%.2f", batched));
+        assertTrue(baseline >= 1 + PASSENGERS_PER_BOOKING + 1, "baseline " + baseline);
+        assertTrue(batched < 0.5, "batched " + batched);
+    }
+
+    private double roundTripsPerBooking(Integer batchSize, int run) {
+        Session session = entityManager.unwrap(Session.class);
+        session.setJdbcBatchSize(batchSize);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        for (int i = 0; i < BOOKINGS; i++) {
+            entityManager.persist(booking(run, i));
+            OutboxEvent event = new OutboxEvent();
+            event.setTopic("booking-created");
+            event.setPayload("{\"booking\":" + i + "}");
+            entityManager.persist(event);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        return (double) statistics.getPrepareStatementCount() / BOOKINGS;
+    }
+
+    private SimpleBooking booking(int run, int index) {
+        SimpleBooking booking = new SimpleBooking();
+        booking.setUserId(1L);
+        booking.setTrainId(100L);
+        booking.setPnrNumber(String.format("%d%09d", run, index));
+        booking.setBookingTime(LocalDateTime.now());
+        booking.setStatus("CONFIRMED");
+        booking.setTotalFare(BigDecimal.valueOf(500));
+        List<SimplePassenger> passengers = new ArrayList<>();
+        for (int p = 0; p < PASSENGERS_PER_BOOKING; p++) {
+            SimplePassenger passenger = new SimplePassenger();
+            passenger.setName("Passenger " + p);
+            passenger.setAge(30);
+            passenger.setGender("F");
+            passenger.setSeatNumber("S" + p);
+            passenger.setIdProofType("AADHAR");
+            passenger.setIdProofNumber("ID" + index + p);
+            passengers.add(passenger);
+        }
+        booking.setPassengers(passengers);
+        return booking;
+    }
+}
@@ -0,0 +1,59 @@
+package com.irctc.booking.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PnrGeneratorTest {
+
+    @Test
+    void testPnrsAreUniqueTenDigitNumbers() {
+        AtomicLong sequence = new AtomicLong(1);
+        PnrGenerator generator = new PnrGenerator(
+            new PooledLoSequence(() -> sequence.getAndAdd(100), 100), "test-key");
+
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < 200_000; i++) {
+            String pnr = generator.nextPnr();
+            assertTrue(pnr.matches("\\d{10}"), pnr);
+            assertTrue(seen.add(pnr), "duplicate PNR " + pnr);
+        }
+    }
+
+    @Test
+    void testConsecutiveSequenceValuesDoNotGiveConsecutivePnrs() {
+        PnrGenerator generator = new PnrGenerator(new PooledLoSequence(() -> 1L, 100), "test-key");
+
+        long first = Long.parseLong(generator.format(1000));
+        long second = Long.parseLong(generator.format(1001));
+
+        assertNotEquals(1, Math.abs(second - first));
+    }
+
+    @Test
+    void testSequenceIsQueriedOncePerBlock() {
+        AtomicInteger calls = new AtomicInteger();
+        AtomicLong sequence = new AtomicLong(1);
+        PooledLoSequence pooled = new PooledLoSequence(() -> {
+            calls.incrementAndGet();
+            return sequence.getAndAdd(100);
+        }, 100);
+
+        for (int i = 0; i < 250; i++) {
+            assertEquals(i + 1, pooled.next());
+        }
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void testExhaustedSequenceIsRejected() {
+        PnrGenerator generator = new PnrGenerator(new PooledLoSequence(() -> 1L, 100), "test-key");
+
+        assertThrows(IllegalStateException.class, () -> generator.format(PnrGenerator.DOMAIN));
+    }
+}
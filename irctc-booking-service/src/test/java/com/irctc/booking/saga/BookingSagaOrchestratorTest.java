@@ -0,0 +1,72 @@
+package com.irctc.booking.saga;
+
+import com.irctc.booking.entity.SimpleBooking;
+import com.irctc.booking.repository.SimpleBookingRepository;
+import com.irctc.booking.service.BookingChangedEvent;
+import com.irctc.booking.service.SimpleBookingService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class BookingSagaOrchestratorTest {
+
+    @Mock
+    private SagaInstanceRepository sagaRepository;
+
+    @Mock
+    private SimpleBookingService bookingService;
+
+    @Mock
+    private SimpleBookingRepository bookingRepository;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @InjectMocks
+    private BookingSagaOrchestrator orchestrator;
+
+    @Test
+    void testConfirmationPublishesBookingChange() {
+        SimpleBooking pending = new SimpleBooking();
+        pending.setId(55L);
+        pending.setUserId(3L);
+        pending.setTrainId(7L);
+        pending.setPnrNumber("PNR0000055");
+        pending.setTotalFare(new BigDecimal("700.00"));
+        pending.setStatus("PENDING");
+        when(sagaRepository.save(any(SagaInstance.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(bookingService.createBooking(any(SimpleBooking.class))).thenReturn(pending);
+        when(bookingRepository.findById(55L)).thenReturn(Optional.of(pending));
+        when(bookingRepository.save(any(SimpleBooking.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        SimpleBooking request = new SimpleBooking();
+        request.setUserId(3L);
+        request.setTrainId(7L);
+        request.setTotalFare(new BigDecimal("700.00"));
+        SagaInstance saga = orchestrator.startBookingSaga(request);
+
+        assertThat(saga.getStatus()).isEqualTo(SagaInstance.SagaStatus.COMPLETED);
+        ArgumentCaptor<BookingChangedEvent> event = ArgumentCaptor.forClass(BookingChangedEvent.class);
+        verify(applicationEventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().bookingId()).isEqualTo(55L);
+        assertThat(event.getValue().before().status()).isEqualTo("PENDING");
+        assertThat(event.getValue().after().status()).isEqualTo("CONFIRMED");
+        assertThat(event.getValue().after().userId()).isEqualTo(3L);
+    }
+}
@@ -0,0 +1,256 @@
+package com.irctc.booking.service;
+
+import com.irctc.booking.client.PaymentServiceClient;
+import com.irctc.booking.client.TrainServiceClient;
+import com.irctc.booking.dto.DateChangeRequest;
+import com.irctc.booking.entity.SimpleBooking;
+import com.irctc.booking.exception.BusinessException;
+import com.irctc.booking.repository.BookingHistoryRepository;
+import com.irctc.booking.repository.SimpleBookingRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the mover and the history facade against the Flyway-migrated H2 schema.
+ * Not transactional, because the mover commits each chunk itself.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({BookingArchivalService.class, BookingHistoryRepository.class, BookingModificationService.class,
+    ModificationChargeCalculator.class, BookingArchivalServiceTest.Config.class})
+@TestPropertySource(properties = {
+    "booking.archive.chunk-size=1",
+    "spring.jpa.show-sql=false"
+})
+class BookingArchivalServiceTest {
+
+    private static final long USER_ID = 4242L;
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        TransactionTemplate transactionTemplate(PlatformTransactionManager transactionManager) {
+            return new TransactionTemplate(transactionManager);
+        }
+    }
+
+    @Autowired
+    private BookingArchivalService archivalService;
+
+    @Autowired
+    private BookingHistoryRepository historyRepository;
+
+    @Autowired
+    private BookingModificationService modificationService;
+
+    @Autowired
+    private SimpleBookingRepository bookingRepository;
+
+    @MockBean
+    private SimpleBookingService bookingService;
+
+    @MockBean
+    private TrainServiceClient trainServiceClient;
+
+    @MockBean
+    private PaymentServiceClient paymentServiceClient;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        insertBooking(9001L, "ARC9001", today.minusDays(60));
+        insertBooking(9002L, "ARC9002", today.minusDays(40));
+        insertBooking(9003L, "ARC9003", today.plusDays(3));
+        insertPassenger(9101L, 9001L);
+        insertPassenger(9102L, 9002L);
+        insertPassenger(9103L, 9003L);
+        jdbcTemplate.update("INSERT INTO booking_events (id, event_id, aggregate_id, event_type, event_data) " +
+            "VALUES (9201, 'evt-9201', '9001', 'BOOKING_CREATED', '{}')");
+        // Forces a fresh watermark for every test
+        ReflectionTestUtils.setField(historyRepository, "watermarkLoadedAt", 0L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM booking_events_archive WHERE id = 9201");
+        jdbcTemplate.update("DELETE FROM booking_events WHERE id = 9201");
+        jdbcTemplate.update("DELETE FROM passengers_archive WHERE booking_id IN (9001, 9002, 9003, 9004, 9005)");
+        jdbcTemplate.update("DELETE FROM passengers WHERE booking_id IN (9001, 9002, 9003, 9004, 9005)");
+        jdbcTemplate.update("DELETE FROM bookings_archive WHERE id IN (9001, 9002, 9003, 9004, 9005)");
+        jdbcTemplate.update("DELETE FROM bookings WHERE id IN (9001, 9002, 9003, 9004, 9005)");
+        jdbcTemplate.update("DELETE FROM outbox_events WHERE id IN (9301, 9302, 9303)");
+    }
+
+    @Test
+    void testCompletedJourneysMoveToArchiveInChunks() {
+        int archived = archivalService.archiveCompletedJourneys(today.minusDays(7));
+
+        assertThat(archived).isEqualTo(2);
+        assertThat(count("bookings")).isEqualTo(1);
+        assertThat(count("bookings_archive")).isEqualTo(2);
+        assertThat(count("passengers")).isEqualTo(1);
+        assertThat(count("passengers_archive")).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM booking_events_archive WHERE aggregate_id = '9001'", Integer.class)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM booking_events WHERE aggregate_id = '9001'", Integer.class)).isZero();
+
+        LocalDate oldest = today.minusDays(60);
+        Integer month = jdbcTemplate.queryForObject("SELECT journey_month FROM bookings_archive WHERE id = 9001", Integer.class);
+        assertThat(month).isEqualTo(oldest.getYear() * 100 + oldest.getMonthValue());
+
+        // A second run finds nothing left to move
+        assertThat(archivalService.archiveCompletedJourneys(today.minusDays(7))).isZero();
+    }
+
+    @Test
+    void testBookingsWithoutATrustworthyJourneyDateStayHot() {
+        // Booked 60 days ago: one without a journey date, one carrying the booking date as the old default did
+        Timestamp bookedAt = Timestamp.valueOf(today.minusDays(60).atTime(9, 0));
+        jdbcTemplate.update("INSERT INTO bookings (id, user_id, train_id, pnr_number, booking_time, status, total_fare, " +
+            "created_at, last_modified_at, journey_date) VALUES (9004, ?, 1, 'ARC9004NUL', ?, 'CONFIRMED', 500.00, ?, ?, NULL)",
+            USER_ID, bookedAt, bookedAt, bookedAt);
+        jdbcTemplate.update("INSERT INTO bookings (id, user_id, train_id, pnr_number, booking_time, status, total_fare, " +
+            "created_at, last_modified_at, journey_date) VALUES (9005, ?, 1, 'ARC9005DEF', ?, 'CONFIRMED', 500.00, ?, ?, ?)",
+            USER_ID, bookedAt, bookedAt, bookedAt, Date.valueOf(today.minusDays(60)));
+
+        assertThat(archivalService.archiveCompletedJourneys(today.minusDays(7))).isEqualTo(2);
+
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM bookings WHERE id IN (9004, 9005) ORDER BY id", Long.class))
+            .containsExactly(9004L, 9005L);
+    }
+
+    @Test
+    void testHistoryFacadeReadsArchiveOnlyWhenRangeReachesIt() {
+        archivalService.archiveCompletedJourneys(today.minusDays(7));
+
+        List<SimpleBooking> all = historyRepository.findByUserId(USER_ID, null, null);
+        assertThat(all).extracting(SimpleBooking::getId).containsExactly(9003L, 9002L, 9001L);
+        assertThat(all.get(2).getPassengers()).hasSize(1);
+
+        List<SimpleBooking> upcoming = historyRepository.findByUserId(USER_ID, today, null);
+        assertThat(upcoming).extracting(SimpleBooking::getId).containsExactly(9003L);
+        assertThat(ReflectionTestUtils.<Boolean>invokeMethod(historyRepository, "reachesArchive", today)).isFalse();
+
+        assertThat(historyRepository.findArchivedByPnr("ARC9002")).isPresent();
+        assertThat(historyRepository.findForExport(USER_ID, null, 9001L, 10))
+            .extracting(SimpleBooking::getId).containsExactly(9002L, 9003L);
+    }
+
+    @Test
+    void testRescheduledBookingStaysUntilItsNewJourneyDate() {
+        LocalDateTime departure = today.plusDays(3).atTime(10, 0);
+        insertBooking(9004L, "ARC9004RSH", today.plusDays(3));
+        jdbcTemplate.update("UPDATE bookings SET booking_time = ? WHERE id = 9004", Timestamp.valueOf(departure));
+        when(bookingService.getBookingById(anyLong())).thenAnswer(invocation ->
+            bookingRepository.findById(invocation.getArgument(0)));
+
+        DateChangeRequest request = new DateChangeRequest();
+        request.setBookingId(9004L);
+        request.setNewJourneyDate(departure.plusDays(27));
+        modificationService.modifyDate(request);
+
+        // A run ten days on would have taken the booking under its original journey date
+        archivalService.archiveCompletedJourneys(today.plusDays(10));
+
+        assertThat(jdbcTemplate.queryForObject("SELECT journey_date FROM bookings WHERE id = 9004", Date.class))
+            .isEqualTo(Date.valueOf(today.plusDays(30)));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookings_archive WHERE id = 9004", Integer.class))
+            .isZero();
+    }
+
+    @Test
+    void testArchivedCopiesAreReadOnly() {
+        archivalService.archiveCompletedJourneys(today.minusDays(7));
+        when(bookingService.getBookingById(anyLong())).thenAnswer(invocation ->
+            historyRepository.findArchivedById(invocation.getArgument(0)));
+
+        assertThat(historyRepository.findArchivedById(9002L)).get().extracting(SimpleBooking::isArchived).isEqualTo(true);
+
+        DateChangeRequest request = new DateChangeRequest();
+        request.setBookingId(9002L);
+        request.setNewJourneyDate(LocalDateTime.now().plusDays(20));
+        assertThatThrownBy(() -> modificationService.modifyDate(request))
+            .isInstanceOf(BusinessException.class)
+            .hasMessageContaining("archived");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookings WHERE id = 9002", Integer.class)).isZero();
+    }
+
+    @Test
+    void testExportFiltersTenantInBothTablesBeforeTheLimit() {
+        jdbcTemplate.update("UPDATE bookings SET tenant_id = 'tenant-b' WHERE id = 9001");
+        jdbcTemplate.update("UPDATE bookings SET tenant_id = 'tenant-a' WHERE id IN (9002, 9003)");
+        archivalService.archiveCompletedJourneys(today.minusDays(7));
+
+        assertThat(historyRepository.findForExport(USER_ID, "tenant-a", 0L, 1))
+            .extracting(SimpleBooking::getId).containsExactly(9002L);
+        assertThat(historyRepository.findForExport(USER_ID, "tenant-a", 9002L, 1))
+            .extracting(SimpleBooking::getId).containsExactly(9003L);
+        assertThat(historyRepository.findForExport(USER_ID, "tenant-b", 0L, 10))
+            .extracting(SimpleBooking::getId).containsExactly(9001L);
+    }
+
+    @Test
+    void testPurgesOnlyOldPublishedOutboxEvents() {
+        LocalDateTime old = LocalDateTime.now().minusDays(30);
+        insertOutbox(9301L, "PUBLISHED", old);
+        insertOutbox(9302L, "PUBLISHED", LocalDateTime.now());
+        insertOutbox(9303L, "FAILED", null);
+
+        int purged = archivalService.purgePublishedOutboxEvents(LocalDateTime.now().minusDays(7));
+
+        assertThat(purged).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM outbox_events WHERE id IN (9301, 9302, 9303) ORDER BY id",
+            Long.class)).containsExactly(9302L, 9303L);
+    }
+
+    private void insertBooking(Long id, String pnr, LocalDate journeyDate) {
+        Timestamp bookedAt = Timestamp.valueOf(journeyDate.minusDays(10).atStartOfDay());
+        jdbcTemplate.update("INSERT INTO bookings (id, user_id, train_id, pnr_number, booking_time, status, total_fare, " +
+                "created_at, last_modified_at, journey_date) VALUES (?, ?, 1, ?, ?, 'CONFIRMED', 500.00, ?, ?, ?)",
+            id, USER_ID, pnr, bookedAt, bookedAt, bookedAt, Date.valueOf(journeyDate));
+    }
+
+    private void insertPassenger(Long id, Long bookingId) {
+        jdbcTemplate.update("INSERT INTO passengers (id, name, age, gender, seat_number, id_proof_type, id_proof_number, " +
+            "booking_id) VALUES (?, 'Asha', 34, 'F', 'S1-1', 'AADHAR', '1234', ?)", id, bookingId);
+    }
+
+    private void insertOutbox(Long id, String status, LocalDateTime publishedAt) {
+        jdbcTemplate.update("INSERT INTO outbox_events (id, topic, payload, status, published_at) VALUES (?, 'booking-created', '{}', ?, ?)",
+            id, status, publishedAt != null ? Timestamp.valueOf(publishedAt) : null);
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE id BETWEEN 9001 AND 9103", Integer.class);
+    }
+}
@@ -15,6 +15,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.*;
@@ -57,6 +58,7 @@ class BookingModificationServiceTest {
         testBooking.setTrainId(200L);
         testBooking.setPnrNumber("PNR123456");
         testBooking.setBookingTime(futureDate);
+        testBooking.setJourneyDate(futureDate.toLocalDate());
         testBooking.setStatus("CONFIRMED");
         testBooking.setTotalFare(new BigDecimal("2000.00"));
         
@@ -138,6 +140,9 @@ class BookingModificationServiceTest {
         assertEquals("DATE_CHANGE", response.getModificationType());
         assertEquals("SUCCESS", response.getStatus());
         verify(bookingRepository, times(1)).save(any(SimpleBooking.class));
+        // Seats move from the old journey date to the new one
+        verify(bookingService).publishBookingJourneyChanged(testBooking, 200L, futureDate.toLocalDate());
+        assertEquals(request.getNewJourneyDate().toLocalDate(), testBooking.getJourneyDate());
     }
     
     @Test
@@ -168,6 +173,36 @@ class BookingModificationServiceTest {
         verify(trainServiceClient, times(1)).getTrainById(300L);
     }
     
+    @Test
+    void testModifyDate_UsesTrainReferenceReplica() {
+        // Given
+        DateChangeRequest request = new DateChangeRequest();
+        request.setBookingId(1L);
+        request.setNewJourneyDate(LocalDateTime.now().plusDays(10));
+        request.setNewTrainId(300L);
+        
+        TrainServiceClient.TrainReference reference = new TrainServiceClient.TrainReference();
+        reference.setId(300L);
+        reference.setBaseFare(1500.0);
+        TrainReferenceStore trainReferenceStore = mock(TrainReferenceStore.class);
+        ReflectionTestUtils.setField(modificationService, "trainReferenceStore", trainReferenceStore);
+        
+        when(bookingService.getBookingById(1L)).thenReturn(Optional.of(testBooking));
+        when(trainReferenceStore.get(300L)).thenReturn(Optional.of(reference));
+        when(chargeCalculator.calculateDateChangeCharge(any(), any())).thenReturn(new BigDecimal("200.00"));
+        when(chargeCalculator.calculateFareDifference(any(), any())).thenReturn(new BigDecimal("-500.00"));
+        when(chargeCalculator.calculateTotalAmount(any(), any())).thenReturn(new BigDecimal("-300.00"));
+        when(bookingRepository.save(any(SimpleBooking.class))).thenReturn(testBooking);
+        
+        // When
+        ModificationResponse response = modificationService.modifyDate(request);
+        
+        // Then
+        assertNotNull(response);
+        verify(chargeCalculator).calculateFareDifference(any(), eq(new BigDecimal("1500.0")));
+        verifyNoInteractions(trainServiceClient);
+    }
+    
     @Test
     void testModifyDate_InvalidDate() {
         // Given
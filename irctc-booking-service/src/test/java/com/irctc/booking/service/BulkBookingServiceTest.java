@@ -0,0 +1,271 @@
+package com.irctc.booking.service;
+
+import com.irctc.booking.client.TrainServiceClient;
+import com.irctc.booking.entity.BulkBookingJob;
+import com.irctc.booking.entity.BulkBookingJobItem;
+import com.irctc.booking.entity.SimpleBooking;
+import com.irctc.booking.entity.SimplePassenger;
+import com.irctc.booking.exception.ValidationException;
+import com.irctc.booking.repository.BulkBookingJobItemRepository;
+import com.irctc.booking.repository.BulkBookingJobRepository;
+import com.irctc.booking.repository.SimpleBookingRepository;
+import com.irctc.booking.tenant.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class BulkBookingServiceTest {
+
+    @Mock
+    private SimpleBookingRepository bookingRepository;
+
+    @Mock
+    private BulkBookingJobRepository jobRepository;
+
+    @Mock
+    private BulkBookingJobItemRepository itemRepository;
+
+    @Mock
+    private OutboxEventService outboxEventService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private TrainServiceClient trainServiceClient;
+
+    @InjectMocks
+    private BulkBookingService bulkBookingService;
+
+    private BulkBookingJob job;
+    private final List<BulkBookingJobItem> savedItems = new ArrayList<>();
+    private final AtomicLong bookingIds = new AtomicLong(100);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(bulkBookingService, "chunkSize", 2);
+
+        job = new BulkBookingJob();
+        job.setId(1L);
+        job.setStatus(BulkBookingService.JOB_QUEUED);
+        when(jobRepository.findById(1L)).thenReturn(Optional.of(job));
+        when(jobRepository.save(any(BulkBookingJob.class))).thenAnswer(inv -> inv.getArgument(0));
+        doAnswer(inv -> {
+            job.setBookedItems(job.getBookedItems() + (int) inv.getArgument(1));
+            job.setRejectedItems(job.getRejectedItems() + (int) inv.getArgument(2));
+            job.setFailedItems(job.getFailedItems() + (int) inv.getArgument(3));
+            return null;
+        }).when(jobRepository).incrementCounts(eq(1L), anyInt(), anyInt(), anyInt());
+
+        when(itemRepository.saveAll(anyList())).thenAnswer(inv -> {
+            List<BulkBookingJobItem> items = inv.getArgument(0);
+            savedItems.addAll(items);
+            return items;
+        });
+        when(bookingRepository.saveAll(anyList())).thenAnswer(inv -> {
+            List<SimpleBooking> bookings = inv.getArgument(0);
+            bookings.forEach(b -> b.setId(bookingIds.incrementAndGet()));
+            return bookings;
+        });
+
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+            inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        doAnswer(inv -> {
+            inv.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    void testInvalidItemsRejectedAndValidItemsBookedInChunks() {
+        List<SimpleBooking> bookings = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            bookings.add(booking(10L + i, 7L, 1));
+        }
+        bookings.add(2, booking(20L, null, 1)); // missing train
+        job.setTotalItems(bookings.size());
+
+        BulkBookingJob result = bulkBookingService.processJob(1L, bookings);
+
+        assertThat(result.getStatus()).isEqualTo(BulkBookingService.JOB_PARTIALLY_COMPLETED);
+        assertThat(result.getBookedItems()).isEqualTo(5);
+        assertThat(result.getRejectedItems()).isEqualTo(1);
+        // 5 bookings with chunk size 2: three insert batches, three aggregated events, one train lookup
+        verify(bookingRepository, times(3)).saveAll(anyList());
+        verify(outboxEventService, times(3)).saveEvent(eq(BulkBookingService.BULK_BOOKING_TOPIC), any());
+        verify(trainServiceClient, times(1)).getTrainById(7L);
+
+        BulkBookingJobItem rejected = itemAt(2);
+        assertThat(rejected.getStatus()).isEqualTo(BulkBookingService.ITEM_REJECTED);
+        assertThat(rejected.getMessage()).contains("Train ID");
+        BulkBookingJobItem booked = itemAt(5);
+        assertThat(booked.getStatus()).isEqualTo(BulkBookingService.ITEM_BOOKED);
+        assertThat(booked.getBookingId()).isNotNull();
+        assertThat(booked.getPnrNumber()).isNotBlank();
+    }
+
+    @Test
+    void testSeatsAllocatedInSubmissionOrderPerTrain() {
+        TrainServiceClient.TrainResponse train = new TrainServiceClient.TrainResponse();
+        train.setId(7L);
+        train.setAvailableSeats(3);
+        when(trainServiceClient.getTrainById(7L)).thenReturn(train);
+        List<SimpleBooking> bookings = List.of(booking(1L, 7L, 2), booking(2L, 7L, 2), booking(3L, 7L, 1));
+        job.setTotalItems(bookings.size());
+
+        BulkBookingJob result = bulkBookingService.processJob(1L, bookings);
+
+        assertThat(result.getBookedItems()).isEqualTo(2);
+        assertThat(result.getRejectedItems()).isEqualTo(1);
+        assertThat(itemAt(0).getStatus()).isEqualTo(BulkBookingService.ITEM_BOOKED);
+        assertThat(itemAt(1).getStatus()).isEqualTo(BulkBookingService.ITEM_REJECTED);
+        assertThat(itemAt(1).getMessage()).contains("Insufficient seats");
+        assertThat(itemAt(2).getStatus()).isEqualTo(BulkBookingService.ITEM_BOOKED);
+    }
+
+    @Test
+    void testFailedChunkMarksItemsFailedAndKeepsGoing() {
+        when(bookingRepository.saveAll(anyList()))
+            .thenThrow(new IllegalStateException("constraint violation"))
+            .thenAnswer(inv -> {
+                List<SimpleBooking> bookings = inv.getArgument(0);
+                bookings.forEach(b -> b.setId(bookingIds.incrementAndGet()));
+                return bookings;
+            });
+        List<SimpleBooking> bookings = List.of(booking(1L, 7L, 1), booking(2L, 7L, 1), booking(3L, 7L, 1));
+        job.setTotalItems(bookings.size());
+
+        BulkBookingJob result = bulkBookingService.processJob(1L, bookings);
+
+        assertThat(result.getStatus()).isEqualTo(BulkBookingService.JOB_PARTIALLY_COMPLETED);
+        assertThat(result.getFailedItems()).isEqualTo(2);
+        assertThat(result.getBookedItems()).isEqualTo(1);
+        assertThat(itemAt(0).getStatus()).isEqualTo(BulkBookingService.ITEM_FAILED);
+        assertThat(itemAt(0).getMessage()).contains("constraint violation");
+        verify(outboxEventService, times(1)).saveEvent(any(), any());
+    }
+
+    @Test
+    void testItemsCarryingIdsAreRejected() {
+        SimpleBooking withBookingId = booking(10L, 7L, 1);
+        withBookingId.setId(42L);
+        SimpleBooking withPassengerId = booking(11L, 7L, 1);
+        withPassengerId.getPassengers().get(0).setId(43L);
+        List<SimpleBooking> bookings = List.of(withBookingId, withPassengerId, booking(12L, 7L, 1));
+        job.setTotalItems(bookings.size());
+
+        BulkBookingJob result = bulkBookingService.processJob(1L, bookings);
+
+        assertThat(result.getRejectedItems()).isEqualTo(2);
+        assertThat(result.getBookedItems()).isEqualTo(1);
+        assertThat(itemAt(0).getMessage()).isEqualTo("Booking ID must not be set");
+        assertThat(itemAt(1).getMessage()).isEqualTo("Passenger ID must not be set");
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void testJobRunsUnderItsTenantAndRestoresTheCallersTenant() {
+        // A full pool runs the job on the request thread, which has a tenant of its own
+        TenantContext.setTenantId("tenant-request");
+        job.setTenantId("tenant-job");
+        List<SimpleBooking> bookings = List.of(booking(10L, 7L, 1));
+        job.setTotalItems(bookings.size());
+
+        bulkBookingService.processJob(1L, bookings);
+
+        assertThat(bookings.get(0).getTenantId()).isEqualTo("tenant-job");
+        assertThat(TenantContext.getTenantId()).isEqualTo("tenant-request");
+    }
+
+    @Test
+    void testCreateJobRejectsEmptyBatch() {
+        assertThatThrownBy(() -> bulkBookingService.createJob(Collections.emptyList()))
+            .isInstanceOf(ValidationException.class);
+        verify(jobRepository, never()).save(any());
+    }
+
+    @Test
+    void testCreateJobQueuesJob() {
+        when(jobRepository.save(any(BulkBookingJob.class))).thenAnswer(inv -> {
+            BulkBookingJob saved = inv.getArgument(0);
+            saved.setId(5L);
+            return saved;
+        });
+
+        BulkBookingJob created = bulkBookingService.createJob(List.of(booking(1L, 7L, 1)));
+
+        ArgumentCaptor<BulkBookingJob> captor = ArgumentCaptor.forClass(BulkBookingJob.class);
+        verify(jobRepository).save(captor.capture());
+        assertThat(created.getId()).isEqualTo(5L);
+        assertThat(captor.getValue().getStatus()).isEqualTo(BulkBookingService.JOB_QUEUED);
+        assertThat(captor.getValue().getTotalItems()).isEqualTo(1);
+        verify(jobRepository, never()).incrementCounts(anyLong(), anyInt(), anyInt(), anyInt());
+    }
+
+    private BulkBookingJobItem itemAt(int index) {
+        return savedItems.stream()
+            .filter(item -> item.getItemIndex() == index)
+            .findFirst()
+            .orElseThrow();
+    }
+
+    private SimpleBooking booking(Long userId, Long trainId, int passengers) {
+        SimpleBooking booking = new SimpleBooking();
+        booking.setUserId(userId);
+        booking.setTrainId(trainId);
+        booking.setJourneyDate(LocalDate.now().plusDays(14));
+        booking.setTotalFare(BigDecimal.valueOf(500));
+        List<SimplePassenger> list = new ArrayList<>();
+        for (int i = 0; i < passengers; i++) {
+            SimplePassenger passenger = new SimplePassenger();
+            passenger.setName("Passenger " + i);
+            passenger.setAge(30);
+            passenger.setGender("F");
+            passenger.setSeatNumber("S1-" + i);
+            passenger.setIdProofType("AADHAR");
+            passenger.setIdProofNumber("1234");
+            list.add(passenger);
+        }
+        booking.setPassengers(list);
+        return booking;
+    }
+}
@@ -3,9 +3,12 @@ package com.irctc.booking.service;
 import com.irctc.booking.client.TrainServiceClient;
 import com.irctc.booking.dto.offline.OfflineSyncRequest;
 import com.irctc.booking.dto.offline.OfflineSyncResponse;
+import com.irctc.booking.dto.offline.OfflineTicketDTO;
 import com.irctc.booking.entity.OfflineAction;
 import com.irctc.booking.entity.SimpleBooking;
 import com.irctc.booking.entity.SimplePassenger;
+import com.irctc.booking.entity.BookingTombstone;
+import com.irctc.booking.repository.BookingTombstoneRepository;
 import com.irctc.booking.repository.SimpleBookingRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,10 +19,15 @@ import org.mockito.MockitoAnnotations;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class OfflineSyncServiceTest {
@@ -28,11 +36,14 @@ class OfflineSyncServiceTest {
     private SimpleBookingRepository bookingRepository;
 
     @Mock
-    private TrainServiceClient trainServiceClient;
+    private TrainReferenceStore trainReferenceStore;
 
     @Mock
     private OfflineActionService offlineActionService;
 
+    @Mock
+    private BookingTombstoneRepository bookingTombstoneRepository;
+
     @InjectMocks
     private OfflineSyncService offlineSyncService;
 
@@ -61,7 +72,7 @@ class OfflineSyncServiceTest {
         passenger.setIdProofType("AADHAAR");
         booking.setPassengers(List.of(passenger));
 
-        TrainServiceClient.TrainResponse trainResponse = new TrainServiceClient.TrainResponse();
+        TrainServiceClient.TrainReference trainResponse = new TrainServiceClient.TrainReference();
         trainResponse.setId(101L);
         trainResponse.setTrainNumber("12001");
         trainResponse.setTrainName("Shatabdi Express");
@@ -79,7 +90,7 @@ class OfflineSyncServiceTest {
         action.setStatus("QUEUED");
 
         when(bookingRepository.findByUserId(99L)).thenReturn(List.of(booking));
-        when(trainServiceClient.getTrainById(anyLong())).thenReturn(trainResponse);
+        when(trainReferenceStore.get(anyLong())).thenReturn(Optional.of(trainResponse));
         when(offlineActionService.getPendingActions(99L)).thenReturn(List.of(action));
 
         OfflineSyncRequest request = new OfflineSyncRequest();
@@ -94,5 +105,43 @@ class OfflineSyncServiceTest {
         assertThat(response.getMetadata().getTicketCount()).isEqualTo(1);
         assertThat(response.getMetadata().getScheduleCount()).isEqualTo(1);
     }
-}
 
+    @Test
+    void testIncrementalBundleReturnsOnlyChangesAndTombstones() {
+        LocalDateTime lastModified = LocalDateTime.of(2025, 1, 10, 12, 0);
+        SimpleBooking changed = new SimpleBooking();
+        changed.setId(2L);
+        changed.setUserId(99L);
+        changed.setTrainId(101L);
+        changed.setPnrNumber("PNR456");
+        changed.setStatus("CANCELLED");
+        changed.setTotalFare(BigDecimal.valueOf(800));
+        changed.setBookingTime(lastModified.minusDays(3));
+        changed.setLastModifiedAt(lastModified);
+
+        BookingTombstone tombstone = new BookingTombstone();
+        tombstone.setBookingId(3L);
+        tombstone.setUserId(99L);
+        tombstone.setDeletedAt(lastModified.plusMinutes(1));
+
+        when(bookingRepository.findModifiedSince(eq(99L), any(LocalDateTime.class))).thenReturn(List.of(changed));
+        when(bookingTombstoneRepository.findByUserIdAndDeletedAtGreaterThanEqual(eq(99L), any(LocalDateTime.class)))
+            .thenReturn(List.of(tombstone));
+        when(offlineActionService.getPendingActions(99L)).thenReturn(List.of());
+
+        OfflineSyncRequest request = new OfflineSyncRequest();
+        request.setUserId(99L);
+        request.setIncludeSchedules(false);
+        request.setSyncToken(OfflineSyncService.encodeSyncToken(lastModified.minusDays(1)));
+
+        OfflineSyncResponse response = offlineSyncService.generateOfflineBundle(request);
+
+        verify(bookingRepository, never()).findByUserId(anyLong());
+        assertThat(response.getMetadata().isIncremental()).isTrue();
+        assertThat(response.getTickets()).extracting(OfflineTicketDTO::getBookingId).containsExactly(2L);
+        assertThat(response.getTickets().get(0).getLastUpdated()).isEqualTo(lastModified);
+        assertThat(response.getDeletedBookingIds()).containsExactly(3L);
+        assertThat(OfflineSyncService.decodeSyncToken(response.getMetadata().getSyncToken()))
+            .isEqualTo(lastModified.plusMinutes(1));
+    }
+}
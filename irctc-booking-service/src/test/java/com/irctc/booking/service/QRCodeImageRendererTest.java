@@ -0,0 +1,64 @@
+package com.irctc.booking.service;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QRCodeImageRendererTest {
+
+    private final QRCodeImageRenderer renderer = new QRCodeImageRenderer(300, 300, 2);
+
+    @Test
+    void testRenderedPngMatchesQrMatrix() throws Exception {
+        String payload = "eyJhbGciOiJIUzI1NiJ9.ticket-payload.signature";
+
+        byte[] png = renderer.renderPng(payload);
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+
+        BitMatrix expected = new QRCodeWriter().encode(payload, BarcodeFormat.QR_CODE, 300, 300, Map.of(
+            EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.H,
+            EncodeHintType.CHARACTER_SET, "UTF-8",
+            EncodeHintType.MARGIN, 1));
+        assertEquals(expected.getWidth(), image.getWidth());
+        assertEquals(expected.getHeight(), image.getHeight());
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                boolean black = (image.getRGB(x, y) & 0xFFFFFF) == 0;
+                assertEquals(expected.get(x, y), black, "pixel " + x + "," + y);
+            }
+        }
+    }
+
+    @Test
+    void testRenderedImageIsCachedByPayloadHash() {
+        byte[] first = renderer.renderPng("PAYLOAD-A");
+        byte[] second = renderer.renderPng("PAYLOAD-A");
+
+        assertSame(first, second);
+        assertEquals(1, renderer.getCachedImageCount());
+        assertEquals(64, renderer.payloadHash("PAYLOAD-A").length());
+
+        String dataUri = renderer.renderDataUri("PAYLOAD-A");
+        assertArrayEquals(first, Base64.getDecoder().decode(dataUri.substring("data:image/png;base64,".length())));
+    }
+
+    @Test
+    void testCacheIsBounded() {
+        renderer.renderPng("PAYLOAD-A");
+        renderer.renderPng("PAYLOAD-B");
+        renderer.renderPng("PAYLOAD-C");
+
+        assertEquals(2, renderer.getCachedImageCount());
+    }
+}
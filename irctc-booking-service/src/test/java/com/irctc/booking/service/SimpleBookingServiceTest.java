@@ -0,0 +1,116 @@
+package com.irctc.booking.service;
+
+import com.irctc.booking.entity.SimpleBooking;
+import com.irctc.booking.entity.SimplePassenger;
+import com.irctc.booking.repository.SimpleBookingRepository;
+import com.irctc.shared.events.BookingEvents;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Seat inventory counts from the booking events, so they must go through the
+ * outbox in the same transaction as the booking change
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class SimpleBookingServiceTest {
+
+    @Mock
+    private SimpleBookingRepository bookingRepository;
+
+    @Mock
+    private OutboxEventService outboxEventService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @InjectMocks
+    private SimpleBookingService bookingService;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+            inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(bookingRepository.save(any(SimpleBooking.class))).thenAnswer(inv -> {
+            SimpleBooking booking = inv.getArgument(0);
+            if (booking.getId() == null) {
+                booking.setId(41L);
+            }
+            return booking;
+        });
+    }
+
+    @Test
+    void testCreatedEventIsWrittenToTheOutboxWithTheBooking() {
+        SimpleBooking booking = booking();
+
+        SimpleBooking saved = bookingService.createBooking(booking);
+
+        ArgumentCaptor<Object> event = ArgumentCaptor.forClass(Object.class);
+        InOrder order = inOrder(transactionTemplate, bookingRepository, outboxEventService);
+        order.verify(transactionTemplate).execute(any());
+        order.verify(bookingRepository).save(booking);
+        order.verify(outboxEventService).saveEvent(eq("booking-created"), event.capture());
+        BookingEvents.BookingCreatedEvent created = (BookingEvents.BookingCreatedEvent) event.getValue();
+        assertThat(created.getBookingId()).isEqualTo(saved.getId());
+        assertThat(created.getTrainId()).isEqualTo(7L);
+        assertThat(created.getPassengerCount()).isEqualTo(2);
+        assertThat(created.getJourneyDate()).isEqualTo(booking.getJourneyDate().atStartOfDay());
+        verify(kafkaTemplate, never()).send(anyString(), any());
+    }
+
+    @Test
+    void testCancelledEventIsWrittenToTheOutbox() {
+        SimpleBooking booking = booking();
+        booking.setId(42L);
+        booking.setStatus("CONFIRMED");
+        when(bookingRepository.findById(42L)).thenReturn(Optional.of(booking));
+
+        bookingService.cancelBooking(42L);
+
+        ArgumentCaptor<Object> event = ArgumentCaptor.forClass(Object.class);
+        verify(outboxEventService).saveEvent(eq("booking-cancelled"), event.capture());
+        BookingEvents.BookingCancelledEvent cancelled = (BookingEvents.BookingCancelledEvent) event.getValue();
+        assertThat(cancelled.getBookingId()).isEqualTo(42L);
+        assertThat(cancelled.getPassengerCount()).isEqualTo(2);
+        verify(kafkaTemplate, never()).send(anyString(), any());
+    }
+
+    private static SimpleBooking booking() {
+        SimpleBooking booking = new SimpleBooking();
+        booking.setUserId(3L);
+        booking.setTrainId(7L);
+        booking.setJourneyDate(LocalDate.now().plusDays(10));
+        booking.setTotalFare(new BigDecimal("900.00"));
+        booking.setPassengers(List.of(new SimplePassenger(), new SimplePassenger()));
+        return booking;
+    }
+}
@@ -0,0 +1,174 @@
+package com.irctc.booking.service;
+
+import com.irctc.booking.client.TrainServiceClient;
+import com.irctc.booking.client.TrainServiceClient.TrainReference;
+import com.irctc.shared.events.TrainEvents;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TrainReferenceStoreTest {
+
+    @Mock
+    private TrainServiceClient trainServiceClient;
+
+    private TrainReferenceStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new TrainReferenceStore(trainServiceClient);
+        store.setPageSize(2);
+    }
+
+    @Test
+    void shouldBootstrapByPagingAllTrains() {
+        when(trainServiceClient.getTrainReferences(0L, 2))
+            .thenReturn(page(List.of(reference(1L, "12951", 0L), reference(2L, "12952", 0L)), 2L, true));
+        when(trainServiceClient.getTrainReferences(2L, 2))
+            .thenReturn(page(List.of(reference(7L, "22691", 4L)), 7L, false));
+
+        store.reconcile();
+
+        assertThat(store.isReady()).isTrue();
+        assertThat(store.size()).isEqualTo(3);
+        assertThat(store.getByNumber("22691")).get().extracting(TrainReference::getId).isEqualTo(7L);
+        assertThat(store.get(2L)).get().extracting(TrainReference::getTrainNumber).isEqualTo("12952");
+    }
+
+    @Test
+    void shouldNeverLeaveTheProcessOnceReady() {
+        when(trainServiceClient.getTrainReferences(0L, 2)).thenReturn(page(List.of(), null, false));
+        store.reconcile();
+
+        assertThat(store.get(99L)).isEmpty();
+        assertThat(store.getByNumber("99999")).isEmpty();
+        verify(trainServiceClient, never()).getTrainById(anyLong());
+        verify(trainServiceClient, never()).getTrainByNumber(any());
+    }
+
+    @Test
+    void shouldReadThroughBeforeBootstrapAndYieldToReplicatedVersion() {
+        TrainServiceClient.TrainResponse live = new TrainServiceClient.TrainResponse();
+        live.setId(5L);
+        live.setTrainNumber("12301");
+        live.setTrainName("Howrah Rajdhani");
+        when(trainServiceClient.getTrainById(5L)).thenReturn(live);
+
+        assertThat(store.get(5L)).get().extracting(TrainReference::getTrainName).isEqualTo("Howrah Rajdhani");
+        assertThat(store.get(5L)).isPresent();
+        verify(trainServiceClient, times(1)).getTrainById(5L);
+
+        store.onTrainChanged(event(5L, "12301", "Howrah Rajdhani Express", 0L));
+
+        assertThat(store.getByNumber("12301")).get().extracting(TrainReference::getTrainName).isEqualTo("Howrah Rajdhani Express");
+    }
+
+    @Test
+    void shouldIgnoreStaleVersions() {
+        store.onTrainChanged(event(1L, "12951", "Mumbai Rajdhani", 3L));
+        store.onTrainChanged(event(1L, "12951", "Old Name", 2L));
+        store.onTrainChanged(event(1L, "12951", "Same Version", 3L));
+
+        assertThat(store.get(1L)).get().extracting(TrainReference::getTrainName).isEqualTo("Mumbai Rajdhani");
+
+        // A page read before the latest update must not roll it back
+        when(trainServiceClient.getTrainReferences(0L, 2))
+            .thenReturn(page(List.of(reference(1L, "12951", 1L)), 1L, false));
+        store.reconcile();
+
+        assertThat(store.get(1L)).get().extracting(TrainReference::getVersion).isEqualTo(3L);
+    }
+
+    @Test
+    void shouldReindexRenumberedTrains() {
+        store.onTrainChanged(event(1L, "12951", "Mumbai Rajdhani", 0L));
+        store.onTrainChanged(event(1L, "12953", "Mumbai Rajdhani", 1L));
+        when(trainServiceClient.getTrainReferences(0L, 2))
+            .thenReturn(page(List.of(reference(1L, "12953", 1L)), 1L, false));
+        store.reconcile();
+
+        assertThat(store.getByNumber("12951")).isEmpty();
+        assertThat(store.getByNumber("12953")).isPresent();
+    }
+
+    @Test
+    void shouldDropTrainsMissingFromCompletePassOnly() {
+        store.onTrainChanged(event(1L, "12951", "Mumbai Rajdhani", 0L));
+        store.onTrainChanged(event(2L, "12952", "New Delhi Rajdhani", 0L));
+
+        when(trainServiceClient.getTrainReferences(0L, 2))
+            .thenReturn(page(List.of(reference(1L, "12951", 0L), reference(3L, "12301", 0L)), 3L, true));
+        when(trainServiceClient.getTrainReferences(3L, 2)).thenReturn(null);
+        store.reconcile();
+
+        assertThat(store.get(2L)).isPresent();
+        assertThat(store.isReady()).isFalse();
+
+        when(trainServiceClient.getTrainReferences(3L, 2)).thenReturn(page(List.of(), 3L, false));
+        store.reconcile();
+
+        assertThat(store.isReady()).isTrue();
+        assertThat(store.get(2L)).isEmpty();
+        assertThat(store.getByNumber("12952")).isEmpty();
+        assertThat(store.size()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldKeepLatestSeatCountPerUpcomingDate() {
+        LocalDate first = LocalDate.now().plusDays(3);
+        LocalDate second = first.plusDays(1);
+        store.onSeatAvailabilityChanged(seats(1L, second, 40, 2L));
+        store.onSeatAvailabilityChanged(seats(1L, first, 12, 5L));
+        store.onSeatAvailabilityChanged(seats(1L, first, 15, 4L));
+        store.onSeatAvailabilityChanged(seats(1L, LocalDate.now().minusDays(1), 70, 9L));
+
+        assertThat(store.getAvailableSeatsByDate(1L, LocalDate.now())).containsExactly(
+            entry(first, 12), entry(second, 40));
+        assertThat(store.getAvailableSeatsByDate(1L, second)).containsOnlyKeys(second);
+        assertThat(store.getAvailableSeatsByDate(2L, LocalDate.now())).isEmpty();
+    }
+
+    private static TrainEvents.SeatAvailabilityChangedEvent seats(Long trainId, LocalDate date, int available, long version) {
+        TrainEvents.SeatAvailabilityChangedEvent event = new TrainEvents.SeatAvailabilityChangedEvent();
+        event.setTrainId(trainId);
+        event.setJourneyDate(date);
+        event.setTravelClass("3A");
+        event.setAvailableSeats(available);
+        event.setVersion(version);
+        return event;
+    }
+
+    private static TrainServiceClient.TrainReferencePage page(List<TrainReference> trains, Long nextAfterId, boolean hasMore) {
+        TrainServiceClient.TrainReferencePage page = new TrainServiceClient.TrainReferencePage();
+        page.setTrains(trains);
+        page.setNextAfterId(nextAfterId);
+        page.setHasMore(hasMore);
+        return page;
+    }
+
+    private static TrainReference reference(Long id, String number, Long version) {
+        return TrainReference.from(event(id, number, "Train " + number, version));
+    }
+
+    private static TrainEvents.TrainChangedEvent event(Long id, String number, String name, Long version) {
+        TrainEvents.TrainChangedEvent event = new TrainEvents.TrainChangedEvent();
+        event.setTrainId(id);
+        event.setTrainNumber(number);
+        event.setTrainName(name);
+        event.setSourceStation("NDLS");
+        event.setDestinationStation("MMCT");
+        event.setVersion(version);
+        return event;
+    }
+}
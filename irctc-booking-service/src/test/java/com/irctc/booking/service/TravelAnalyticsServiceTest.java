@@ -17,9 +17,11 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Base64;
 import java.util.List;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,13 +31,18 @@ class TravelAnalyticsServiceTest {
     private SimpleBookingRepository bookingRepository;
 
     @Mock
-    private TrainServiceClient trainServiceClient;
+    private TrainReferenceStore trainReferenceStore;
+
+    @Mock
+    private TravelStatsService travelStatsService;
 
     @InjectMocks
     private TravelAnalyticsService travelAnalyticsService;
 
     private SimpleBooking booking1;
     private SimpleBooking booking2;
+    private TrainServiceClient.TrainReference trainA;
+    private TrainServiceClient.TrainReference trainB;
 
     @BeforeEach
     void setUp() {
@@ -57,39 +64,43 @@ class TravelAnalyticsServiceTest {
         booking2.setBookingTime(LocalDateTime.of(2025, 2, 10, 12, 30));
         booking2.setTotalFare(BigDecimal.valueOf(800));
 
-        TrainServiceClient.TrainResponse trainA = new TrainServiceClient.TrainResponse();
+        trainA = new TrainServiceClient.TrainReference();
         trainA.setId(10L);
         trainA.setTrainName("Express A");
         trainA.setSourceStation("NDLS");
         trainA.setDestinationStation("BCT");
         trainA.setDistance(1384);
 
-        TrainServiceClient.TrainResponse trainB = new TrainServiceClient.TrainResponse();
+        trainB = new TrainServiceClient.TrainReference();
         trainB.setId(11L);
         trainB.setTrainName("Express B");
         trainB.setSourceStation("NDLS");
         trainB.setDestinationStation("HWH");
         trainB.setDistance(1450);
+    }
 
+    private void stubHistory() {
         when(bookingRepository.findByUserId(100L)).thenReturn(List.of(booking1, booking2));
-        when(trainServiceClient.getTrainById(10L)).thenReturn(trainA);
-        when(trainServiceClient.getTrainById(11L)).thenReturn(trainB);
+        when(trainReferenceStore.get(10L)).thenReturn(Optional.of(trainA));
+        when(trainReferenceStore.get(11L)).thenReturn(Optional.of(trainB));
     }
 
     @Test
-    void shouldComputeTravelAnalytics() {
+    void shouldServeAnalyticsFromTravelStatistics() {
+        TravelAnalyticsResponse stats = new TravelAnalyticsResponse();
+        stats.setUserId(100L);
+        stats.setTotalBookings(2);
+        when(travelStatsService.getStats(100L)).thenReturn(stats);
+
         TravelAnalyticsResponse response = travelAnalyticsService.getTravelAnalytics(100L);
 
-        assertThat(response.getTotalBookings()).isEqualTo(2);
-        assertThat(response.getConfirmedTrips()).isEqualTo(1);
-        assertThat(response.getCancelledTrips()).isEqualTo(1);
-        assertThat(response.getTotalSpent()).isEqualByComparingTo("2000");
-        assertThat(response.getFavoriteRoutes()).hasSize(2);
-        assertThat(response.getTopTrains()).hasSize(2);
+        assertThat(response).isSameAs(stats);
+        verifyNoInteractions(bookingRepository);
     }
 
     @Test
     void shouldReturnTimeline() {
+        stubHistory();
         List<TravelTimelineEntry> timeline = travelAnalyticsService.getTimeline(100L);
         assertThat(timeline).hasSize(2);
         assertThat(timeline.get(0).getPnrNumber()).isEqualTo("PNR101"); // most recent first
@@ -97,6 +108,7 @@ class TravelAnalyticsServiceTest {
 
     @Test
     void shouldExportHistoryAsCsv() {
+        stubHistory();
         TravelExportResponse export = travelAnalyticsService.exportTravelHistory(100L, "csv");
         assertThat(export.getFormat()).isEqualTo("csv");
         assertThat(export.getData()).isNotBlank();
@@ -0,0 +1,306 @@
+package com.irctc.booking.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.irctc.booking.client.TrainServiceClient;
+import com.irctc.booking.dto.analytics.TravelAnalyticsResponse;
+import com.irctc.booking.entity.SimpleBooking;
+import com.irctc.booking.entity.UserTravelStats;
+import com.irctc.booking.repository.BookingHistoryRepository;
+import com.irctc.booking.repository.UserTravelStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TravelStatsServiceTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Mock
+    private UserTravelStatsRepository statsRepository;
+
+    @Mock
+    private BookingHistoryRepository historyRepository;
+
+    @Mock
+    private TrainReferenceStore trainReferenceStore;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TravelStatsService service;
+    private SimpleBooking booking1;
+    private SimpleBooking booking2;
+
+    @BeforeEach
+    void setUp() {
+        service = new TravelStatsService(statsRepository, historyRepository, trainReferenceStore, transactionManager,
+            Runnable::run, 500);
+
+        booking1 = booking(1L, 10L, "CONFIRMED", 1200, LocalDateTime.of(2025, 1, 15, 10, 0), "tenant-a");
+        booking2 = booking(2L, 11L, "CANCELLED", 800, LocalDateTime.of(2025, 2, 10, 12, 30), null);
+    }
+
+    @Test
+    void shouldBuildFromHistoryOnFirstRead() {
+        stubTrains();
+        when(statsRepository.findByUserIdAndScopeIn(eq(100L), any())).thenReturn(List.of());
+        when(historyRepository.findForExport(100L, null, 0L, 500)).thenReturn(List.of(booking1, booking2));
+        when(statsRepository.findByUserId(100L)).thenReturn(List.of());
+
+        TravelAnalyticsResponse response = service.getStats(100L);
+
+        assertThat(response.getTotalBookings()).isEqualTo(2);
+        assertThat(response.getConfirmedTrips()).isEqualTo(1);
+        assertThat(response.getCancelledTrips()).isEqualTo(1);
+        assertThat(response.getTotalSpent()).isEqualByComparingTo("2000");
+        assertThat(response.getAverageFare()).isEqualByComparingTo("1000");
+        assertThat(response.getTotalDistanceKm()).isEqualTo(2834d);
+        assertThat(response.getUniqueRoutes()).isEqualTo(2);
+        assertThat(response.getFavoriteRoutes()).hasSize(2);
+        assertThat(response.getTopTrains()).hasSize(2);
+        assertThat(response.getMonthlySummaries()).extracting(TravelAnalyticsResponse.MonthlySummary::getMonth)
+            .containsExactly("2025-01", "2025-02");
+
+        Map<String, UserTravelStats> saved = savedRows();
+        assertThat(saved).containsOnlyKeys(UserTravelStats.ALL_TENANTS, "tenant-a");
+        assertThat(saved.get("tenant-a").getTotalBookings()).isEqualTo(1);
+        assertThat(saved.get("tenant-a").getStatsVersion()).isEqualTo(TravelStatsService.STATS_VERSION);
+    }
+
+    @Test
+    void shouldServeBuiltUserFromOneRow() {
+        stubTrains();
+        UserTravelStats row = row(UserTravelStats.ALL_TENANTS, booking1, booking2);
+        when(statsRepository.findByUserIdAndScopeIn(eq(100L), any())).thenReturn(List.of(row));
+
+        TravelAnalyticsResponse response = service.getStats(100L);
+
+        assertThat(response.getTotalBookings()).isEqualTo(2);
+        assertThat(response.getFavoriteRoutes()).hasSize(2);
+        verifyNoInteractions(historyRepository);
+        verify(statsRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void shouldApplyCancellationIncrementally() {
+        stubTrains();
+        UserTravelStats all = row(UserTravelStats.ALL_TENANTS, booking1, booking2);
+        UserTravelStats tenant = row("tenant-a", booking1);
+        when(statsRepository.findByUserIdAndScopeIn(eq(100L), any())).thenReturn(List.of(all, tenant));
+
+        BookingChangedEvent.Snapshot before = BookingChangedEvent.Snapshot.of(booking1, trainReferenceStore);
+        booking1.setStatus("CANCELLED");
+        service.onBookingChanged(BookingChangedEvent.changed(1L, before, booking1, trainReferenceStore));
+
+        Map<String, UserTravelStats> saved = savedRows();
+        TravelAnalyticsResponse overall = TravelStatsAggregate.read(saved.get(UserTravelStats.ALL_TENANTS), MAPPER)
+            .toResponse(100L);
+        assertThat(overall.getTotalBookings()).isEqualTo(2);
+        assertThat(overall.getConfirmedTrips()).isZero();
+        assertThat(overall.getCancelledTrips()).isEqualTo(2);
+        assertThat(overall.getTotalSpent()).isEqualByComparingTo("2000");
+        assertThat(overall.getFavoriteRoutes()).hasSize(2);
+
+        TravelAnalyticsResponse withinTenant = TravelStatsAggregate.read(saved.get("tenant-a"), MAPPER).toResponse(100L);
+        assertThat(withinTenant.getCancelledTrips()).isEqualTo(1);
+        verifyNoInteractions(historyRepository);
+    }
+
+    @Test
+    void shouldLeaveUnbuiltUsersToTheirFirstRead() {
+        when(statsRepository.findByUserIdAndScopeIn(eq(100L), any())).thenReturn(List.of());
+
+        service.onBookingChanged(BookingChangedEvent.created(booking2, null));
+
+        verify(statsRepository, never()).saveAll(any());
+        verifyNoInteractions(trainReferenceStore);
+    }
+
+    @Test
+    void shouldSubtractTheRouteCapturedWhenTheBookingWasMade() {
+        stubTrains();
+        UserTravelStats all = row(UserTravelStats.ALL_TENANTS, booking1, booking2);
+        when(statsRepository.findByUserIdAndScopeIn(eq(100L), any())).thenReturn(List.of(all));
+        BookingChangedEvent.Snapshot before = BookingChangedEvent.Snapshot.of(booking1, trainReferenceStore);
+
+        // The train's route changes after the booking was counted, and must not be read back
+        lenient().when(trainReferenceStore.get(10L)).thenReturn(Optional.of(train(10L, "NDLS", "MAS", 2180)));
+        service.onBookingChanged(new BookingChangedEvent(1L, before, null));
+
+        TravelAnalyticsResponse response = TravelStatsAggregate.read(savedRows().get(UserTravelStats.ALL_TENANTS), MAPPER)
+            .toResponse(100L);
+        assertThat(response.getTotalBookings()).isEqualTo(1);
+        assertThat(response.getTotalDistanceKm()).isEqualTo(1450d);
+        assertThat(response.getUniqueRoutes()).isEqualTo(1);
+        assertThat(response.getUniqueTrains()).isEqualTo(1);
+        assertThat(response.getFavoriteRoutes()).extracting(TravelAnalyticsResponse.RouteSummary::getDestinationStation)
+            .containsExactly("HWH");
+    }
+
+    @Test
+    void shouldMarkUsersForRebuildWhenTheExecutorRejectsTheUpdate() {
+        service = new TravelStatsService(statsRepository, historyRepository, trainReferenceStore, transactionManager,
+            task -> { throw new TaskRejectedException("queue full"); }, 500);
+        BookingChangedEvent.Snapshot before = BookingChangedEvent.Snapshot.of(booking2, (TrainReferenceStore) null);
+        booking2.setUserId(200L);
+
+        service.onBookingChanged(BookingChangedEvent.changed(2L, before, booking2, null));
+
+        verify(statsRepository).markForRebuild(100L);
+        verify(statsRepository).markForRebuild(200L);
+        verify(statsRepository, never()).findByUserIdAndScopeIn(anyLong(), any());
+    }
+
+    @Test
+    void shouldMarkUserForRebuildAfterRepeatedConflicts() {
+        when(statsRepository.findByUserIdAndScopeIn(eq(100L), any()))
+            .thenAnswer(invocation -> List.of(row(UserTravelStats.ALL_TENANTS)));
+        when(statsRepository.saveAll(any())).thenThrow(new OptimisticLockingFailureException("stale"));
+
+        service.onBookingChanged(BookingChangedEvent.created(booking2, null));
+
+        verify(statsRepository, times(3)).saveAll(any());
+        verify(statsRepository).markForRebuild(100L);
+    }
+
+    @Test
+    void shouldRebuildRowsOfAnOlderStatsVersion() {
+        stubTrains();
+        UserTravelStats outdated = row(UserTravelStats.ALL_TENANTS, booking1);
+        outdated.setStatsVersion(0);
+        UserTravelStats abandonedTenant = row("tenant-b", booking1);
+        abandonedTenant.setStatsVersion(0);
+        when(statsRepository.findUserIdsWithStatsVersionNot(eq(TravelStatsService.STATS_VERSION), any()))
+            .thenReturn(List.of(100L));
+        when(historyRepository.findForExport(100L, null, 0L, 500)).thenReturn(List.of(booking1, booking2));
+        when(statsRepository.findByUserId(100L)).thenReturn(List.of(outdated, abandonedTenant));
+
+        assertThat(service.rebuildOutdated()).isEqualTo(1);
+
+        Map<String, UserTravelStats> saved = savedRows();
+        assertThat(saved).containsOnlyKeys(UserTravelStats.ALL_TENANTS, "tenant-a", "tenant-b");
+        assertThat(saved.get(UserTravelStats.ALL_TENANTS)).isSameAs(outdated);
+        assertThat(outdated.getTotalBookings()).isEqualTo(2);
+        assertThat(outdated.getStatsVersion()).isEqualTo(TravelStatsService.STATS_VERSION);
+        assertThat(abandonedTenant.getTotalBookings()).isZero();
+    }
+
+    @Test
+    void shouldKeepHeaviestRoutesOnceSketchIsFull() {
+        TravelStatsAggregate aggregate = new TravelStatsAggregate();
+        for (int i = 0; i < 5; i++) {
+            aggregate.apply(trip(1L, "NDLS", "BCT", 1384), 1);
+        }
+        for (long id = 2; id <= 50; id++) {
+            aggregate.apply(trip(id, "STN" + id, "DST" + id, 100), 1);
+        }
+
+        TravelAnalyticsResponse response = aggregate.toResponse(100L);
+        assertThat(response.getTotalBookings()).isEqualTo(54);
+        assertThat(response.getUniqueRoutes()).isEqualTo(50);
+        assertThat(response.getFavoriteRoutes().get(0).getSourceStation()).isEqualTo("NDLS");
+        assertThat(response.getFavoriteRoutes().get(0).getTrips()).isEqualTo(5);
+
+        aggregate.apply(trip(1L, "NDLS", "BCT", 1384), -1);
+        assertThat(aggregate.toResponse(100L).getFavoriteRoutes().get(0).getTrips()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldCountUniqueRoutesAndTrainsBeyondTheSketch() {
+        TravelStatsAggregate aggregate = new TravelStatsAggregate();
+        for (long id = 1; id <= 50; id++) {
+            aggregate.apply(trip(id, "STN" + id, "DST" + id, 100), 1);
+        }
+        aggregate.apply(trip(1L, "STN1", "DST1", 100), 1);
+
+        UserTravelStats row = new UserTravelStats();
+        aggregate.writeTo(row, MAPPER);
+        TravelStatsAggregate reread = TravelStatsAggregate.read(row, MAPPER);
+        assertThat(reread.toResponse(100L).getUniqueRoutes()).isEqualTo(50);
+        assertThat(reread.toResponse(100L).getUniqueTrains()).isEqualTo(50);
+
+        reread.apply(trip(50L, "STN50", "DST50", 100), -1);
+        reread.apply(trip(1L, "STN1", "DST1", 100), -1);
+        assertThat(reread.toResponse(100L).getUniqueRoutes()).isEqualTo(49);
+        assertThat(reread.toResponse(100L).getUniqueTrains()).isEqualTo(49);
+    }
+
+    private Map<String, UserTravelStats> savedRows() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<UserTravelStats>> rows = ArgumentCaptor.forClass(Collection.class);
+        verify(statsRepository).saveAll(rows.capture());
+        return rows.getValue().stream().collect(Collectors.toMap(UserTravelStats::getScope, Function.identity()));
+    }
+
+    private void stubTrains() {
+        when(trainReferenceStore.get(10L)).thenReturn(Optional.of(train(10L, "NDLS", "BCT", 1384)));
+        when(trainReferenceStore.get(11L)).thenReturn(Optional.of(train(11L, "NDLS", "HWH", 1450)));
+    }
+
+    private UserTravelStats row(String scope, SimpleBooking... bookings) {
+        TravelStatsAggregate aggregate = new TravelStatsAggregate();
+        for (SimpleBooking booking : bookings) {
+            aggregate.apply(BookingChangedEvent.Snapshot.of(booking, trainReferenceStore), 1);
+        }
+        UserTravelStats row = new UserTravelStats();
+        row.setUserId(100L);
+        row.setScope(scope);
+        row.setStatsVersion(TravelStatsService.STATS_VERSION);
+        row.setVersion(1L);
+        aggregate.writeTo(row, MAPPER);
+        return row;
+    }
+
+    private BookingChangedEvent.Snapshot trip(Long trainId, String source, String destination, int distance) {
+        booking1.setTrainId(trainId);
+        return BookingChangedEvent.Snapshot.of(booking1, train(trainId, source, destination, distance));
+    }
+
+    private static SimpleBooking booking(Long id, Long trainId, String status, int fare,
+                                         LocalDateTime bookingTime, String tenantId) {
+        SimpleBooking booking = new SimpleBooking();
+        booking.setId(id);
+        booking.setUserId(100L);
+        booking.setTrainId(trainId);
+        booking.setPnrNumber("PNR" + id);
+        booking.setStatus(status);
+        booking.setTotalFare(BigDecimal.valueOf(fare));
+        booking.setBookingTime(bookingTime);
+        booking.setTenantId(tenantId);
+        booking.setPassengers(new ArrayList<>());
+        return booking;
+    }
+
+    private static TrainServiceClient.TrainReference train(Long id, String source, String destination, int distance) {
+        TrainServiceClient.TrainReference train = new TrainServiceClient.TrainReference();
+        train.setId(id);
+        train.setTrainName("Express " + id);
+        train.setSourceStation(source);
+        train.setDestinationStation(destination);
+        train.setDistance(distance);
+        return train;
+    }
+}
@@ -0,0 +1,134 @@
+package com.irctc.booking.websocket;
+
+import com.irctc.booking.entity.SimpleBooking;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookingStatusHandlerTest {
+
+    @Mock
+    private ObjectProvider<BookingUpdateRedisBridge> bridgeProvider;
+
+    @Mock
+    private BookingUpdateRedisBridge bridge;
+
+    private BookingStatusHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(bridgeProvider.getIfAvailable()).thenReturn(bridge);
+        handler = new BookingStatusHandler(bridgeProvider);
+    }
+
+    @Test
+    void testBroadcastReachesOnlySubscribersOfBookingOwnerWithSharedMessage() throws Exception {
+        WebSocketSession owner1 = openSession("s1");
+        WebSocketSession owner2 = openSession("s2");
+        WebSocketSession other = openSession("s3");
+        subscribe(owner1, 7L);
+        subscribe(owner2, 7L);
+        subscribe(other, 8L);
+        clearInvocations(owner1, owner2, other);
+
+        handler.broadcastBookingUpdate(booking(7L));
+
+        ArgumentCaptor<WebSocketMessage<?>> first = ArgumentCaptor.forClass(WebSocketMessage.class);
+        ArgumentCaptor<WebSocketMessage<?>> second = ArgumentCaptor.forClass(WebSocketMessage.class);
+        verify(owner1).sendMessage(first.capture());
+        verify(owner2).sendMessage(second.capture());
+        verify(other, never()).sendMessage(any());
+        assertThat(first.getValue()).isSameAs(second.getValue());
+        assertThat(((TextMessage) first.getValue()).getPayload()).contains("\"type\":\"booking_update\"");
+        verify(bridge).publish(eq(7L), startsWith("{\"type\":\"booking_update\""));
+    }
+
+    @Test
+    void testSlowSessionIsClosedAndOthersStillReceiveUpdate() throws Exception {
+        WebSocketSession slow = openSession("s1");
+        WebSocketSession healthy = openSession("s2");
+        subscribe(slow, 7L);
+        subscribe(healthy, 7L);
+        doThrow(new SessionLimitExceededException("Send time limit exceeded", CloseStatus.SESSION_NOT_RELIABLE))
+            .when(slow).sendMessage(any());
+
+        handler.broadcastBookingUpdate(booking(7L));
+        handler.broadcastBookingUpdate(booking(7L));
+
+        verify(slow).close(CloseStatus.SESSION_NOT_RELIABLE);
+        verify(healthy, atLeastOnce()).sendMessage(any());
+        verify(bridge, times(2)).publish(eq(7L), any());
+        assertThat(handler.getActiveConnections()).isEqualTo(1);
+        assertThat(handler.deliverToLocalSubscribers(7L, "{}")).isEqualTo(1);
+    }
+
+    @Test
+    void testClosedSessionIsRemovedFromUserIndex() throws Exception {
+        WebSocketSession session = openSession("s1");
+        subscribe(session, 7L);
+        assertThat(handler.getSubscribedUsers()).isEqualTo(1);
+
+        handler.afterConnectionClosed(session, CloseStatus.NORMAL);
+
+        assertThat(handler.getSubscribedUsers()).isZero();
+        assertThat(handler.deliverToLocalSubscribers(7L, "{}")).isZero();
+    }
+
+    @Test
+    void testResubscribeMovesSessionToNewUser() throws Exception {
+        WebSocketSession session = openSession("s1");
+        subscribe(session, 7L);
+        subscribe(session, 9L);
+
+        assertThat(handler.deliverToLocalSubscribers(7L, "{}")).isZero();
+        assertThat(handler.deliverToLocalSubscribers(9L, "{}")).isEqualTo(1);
+        verify(session, atLeastOnce()).sendMessage(any());
+    }
+
+    private WebSocketSession openSession(String id) throws Exception {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(id);
+        when(session.isOpen()).thenReturn(true);
+        handler.afterConnectionEstablished(session);
+        return session;
+    }
+
+    private void subscribe(WebSocketSession session, Long userId) throws Exception {
+        handler.handleTextMessage(session,
+            new TextMessage("{\"action\":\"subscribe\",\"userId\":" + userId + "}"));
+    }
+
+    private SimpleBooking booking(Long userId) {
+        SimpleBooking booking = new SimpleBooking();
+        booking.setId(1L);
+        booking.setUserId(userId);
+        booking.setPnrNumber("PNR123");
+        booking.setStatus("CONFIRMED");
+        booking.setTotalFare(BigDecimal.valueOf(500));
+        return booking;
+    }
+}
@@ -1,5 +1,6 @@
 package com.irctc.notification.config;
 
+import com.irctc.shared.events.codec.DualFormatEventDeserializer;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
@@ -52,8 +53,9 @@ public class KafkaConfig {
         configProps.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
         // Allow type headers from producers (e.g., BookingEvents.TicketConfirmationEvent)
         
+        // Accepts JSON and the binary shared-event codec while producers migrate
         return new DefaultKafkaConsumerFactory<>(configProps, new StringDeserializer(), 
-            new JsonDeserializer<>(Object.class));
+            new DualFormatEventDeserializer(new JsonDeserializer<>(Object.class)));
     }
 
     @Bean
@@ -1,10 +1,16 @@
 package com.irctc.notification.controller;
 
+import com.irctc.notification.service.DlqReplayJob;
 import com.irctc.notification.service.DlqReprocessorService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/notifications/dlq")
 public class DlqController {
@@ -14,11 +20,65 @@ public class DlqController {
 
     @PostMapping("/reprocess")
     public ResponseEntity<?> reprocess(@RequestParam(name = "limit", defaultValue = "50") int limit) {
-        int count = reprocessorService.reprocessDlq(
-                "ticket-confirmation-events.DLT",
-                "ticket-confirmation-events",
-                Math.max(1, Math.min(limit, 1000))
-        );
-        return ResponseEntity.ok("Reprocessed " + count + " DLQ records");
+        try {
+            int count = reprocessorService.reprocessDlq(
+                    "ticket-confirmation-events.DLT",
+                    "ticket-confirmation-events",
+                    Math.max(1, Math.min(limit, 1000))
+            );
+            return ResponseEntity.ok("Reprocessed " + count + " DLQ records");
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Start a background replay; limit 0 replays everything up to the current end of the DLT
+     */
+    @PostMapping("/replays")
+    public ResponseEntity<?> startReplay(
+            @RequestParam(defaultValue = "ticket-confirmation-events.DLT") String dltTopic,
+            @RequestParam(defaultValue = "ticket-confirmation-events") String mainTopic,
+            @RequestParam(defaultValue = "0") long limit,
+            @RequestParam(required = false) Double ratePerSecond,
+            @RequestParam(required = false) Integer workers,
+            @RequestParam(required = false) String errorClass,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        try {
+            DlqReplayJob job = reprocessorService.startReplay(new DlqReprocessorService.ReplayRequest(
+                dltTopic, mainTopic, Math.max(0, limit), ratePerSecond, workers, errorClass, from, to));
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/replays")
+    public ResponseEntity<List<DlqReplayJob>> getReplays() {
+        return ResponseEntity.ok(reprocessorService.getReplays());
+    }
+
+    @GetMapping("/replays/{jobId}")
+    public ResponseEntity<DlqReplayJob> getReplay(@PathVariable String jobId) {
+        return ResponseEntity.ok(reprocessorService.getReplay(jobId));
+    }
+
+    @PostMapping("/replays/{jobId}/pause")
+    public ResponseEntity<?> pauseReplay(@PathVariable String jobId) {
+        try {
+            return ResponseEntity.ok(reprocessorService.pauseReplay(jobId));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    @PostMapping("/replays/{jobId}/resume")
+    public ResponseEntity<?> resumeReplay(@PathVariable String jobId) {
+        try {
+            return ResponseEntity.ok(reprocessorService.resumeReplay(jobId));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
     }
 }
@@ -0,0 +1,31 @@
+package com.irctc.notification.controller;
+
+import com.irctc.notification.entity.SimpleNotification;
+import com.irctc.notification.service.SimpleNotificationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Bulk export of a user's notifications (used by the user service for GDPR data exports)
+ */
+@RestController
+@RequestMapping("/api/notifications/export")
+public class NotificationExportController {
+    
+    @Autowired
+    private SimpleNotificationService notificationService;
+    
+    /**
+     * Keyset-paginated notifications of a user
+     * GET /api/notifications/export?userId=1&afterId=0&limit=500
+     */
+    @GetMapping
+    public ResponseEntity<List<SimpleNotification>> exportNotifications(@RequestParam Long userId,
+                                                                        @RequestParam(defaultValue = "0") Long afterId,
+                                                                        @RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(notificationService.getNotificationsForExport(userId, afterId, limit));
+    }
+}
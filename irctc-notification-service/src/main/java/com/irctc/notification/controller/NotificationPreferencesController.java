@@ -8,6 +8,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Controller for notification preferences
@@ -77,5 +79,21 @@ public class NotificationPreferencesController {
         NotificationPreferences preferences = preferencesService.disableQuietHours(userId);
         return ResponseEntity.ok(preferences);
     }
+    
+    /**
+     * Resolve whether a notification may be sent to each of several users
+     */
+    @PostMapping("/decisions")
+    public ResponseEntity<Map<Long, Boolean>> getDecisions(
+            @RequestParam String notificationType,
+            @RequestParam String channel,
+            @RequestBody List<Long> userIds) {
+        
+        if (preferencesService == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        return ResponseEntity.ok(preferencesService.shouldSendNotifications(userIds, notificationType, channel));
+    }
 }
 
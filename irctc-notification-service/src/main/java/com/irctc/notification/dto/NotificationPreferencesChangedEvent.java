@@ -0,0 +1,17 @@
+package com.irctc.notification.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Broadcast after a user's notification preferences change, so every
+ * instance drops its cached copy
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationPreferencesChangedEvent {
+    private Long userId;
+    private Long version;
+}
@@ -77,6 +77,10 @@ public class NotificationPreferences implements TenantAware {
     @Column(name = "tenant_id", length = 50)
     private String tenantId;
     
+    // Bumped on every change; cached decisions carry it so stale invalidations are ignored
+    @Version
+    private Long version;
+    
     private java.time.LocalDateTime createdAt;
     private java.time.LocalDateTime updatedAt;
     
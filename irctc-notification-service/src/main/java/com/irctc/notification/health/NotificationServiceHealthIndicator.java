@@ -1,14 +1,11 @@
 package com.irctc.notification.health;
 
+import com.irctc.shared.health.DependencyHealthMonitor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthIndicator;
-import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
-import javax.sql.DataSource;
-import java.sql.Connection;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
@@ -17,71 +14,46 @@ import java.util.Map;
 /**
  * Custom Health Indicator for Notification Service
  * 
- * Checks connectivity and status of:
+ * Summarises the cached dependency checks of {@link DependencyHealthMonitor}:
  * - Database
  * - Kafka
- * - Notification statistics
  * 
  * @author IRCTC Development Team
- * @version 1.0.0
+ * @version 1.1.0
  */
 @Component
 public class NotificationServiceHealthIndicator implements HealthIndicator {
 
-    @Autowired(required = false)
-    private DataSource dataSource;
-
-    @Autowired(required = false)
-    private JdbcTemplate jdbcTemplate;
-
-    @Autowired(required = false)
-    private KafkaTemplate<String, Object> kafkaTemplate;
+    @Autowired
+    private DependencyHealthMonitor healthMonitor;
 
     @Override
     public Health health() {
         Map<String, Object> details = new HashMap<>();
-        boolean isHealthy = true;
 
         // Check Database
-        if (dataSource != null) {
-            try (Connection connection = dataSource.getConnection()) {
-                boolean valid = connection.isValid(2);
-                details.put("database", valid ? "connected" : "disconnected");
-                details.put("databaseValidation", valid);
-                if (!valid) isHealthy = false;
-            } catch (Exception e) {
-                details.put("database", "error: " + e.getMessage());
-                details.put("databaseValidation", false);
-                isHealthy = false;
-            }
-        } else {
+        DependencyHealthMonitor.ProbeResult database = healthMonitor.getResult(DependencyHealthMonitor.DATABASE);
+        boolean isHealthy = database != null
+                && (database.status() == null || healthMonitor.isHealthy(DependencyHealthMonitor.DATABASE));
+        if (database == null) {
+            details.put("database", "awaiting first check");
+        } else if (database.status() == null) {
             details.put("database", "not configured");
+        } else {
+            details.put("database", isHealthy ? "connected" : "disconnected");
+            details.put("databaseValidation", isHealthy);
+            details.put("databaseCheckAgeMs", database.ageMs());
         }
 
         // Check Kafka
-        if (kafkaTemplate != null) {
-            try {
-                kafkaTemplate.getProducerFactory();
-                details.put("kafka", "available");
-                details.put("kafkaValidation", true);
-            } catch (Exception e) {
-                details.put("kafka", "error: " + e.getMessage());
-                details.put("kafkaValidation", false);
-                isHealthy = false;
-            }
+        DependencyHealthMonitor.ProbeResult kafka = healthMonitor.getResult(DependencyHealthMonitor.KAFKA);
+        if (kafka == null || kafka.status() == null) {
+            details.put("kafka", kafka == null ? "awaiting first check" : "not configured");
         } else {
-            details.put("kafka", "not configured");
-        }
-
-        // Get notification statistics if possible
-        if (jdbcTemplate != null) {
-            try {
-                Long totalNotifications = jdbcTemplate.queryForObject(
-                    "SELECT COUNT(*) FROM notifications", Long.class);
-                details.put("totalNotifications", totalNotifications != null ? totalNotifications : 0);
-            } catch (Exception e) {
-                details.put("totalNotifications", "unknown");
-            }
+            boolean kafkaHealthy = healthMonitor.isHealthy(DependencyHealthMonitor.KAFKA);
+            details.put("kafka", kafkaHealthy ? "available" : "unavailable");
+            details.put("kafkaValidation", kafkaHealthy);
+            if (!kafkaHealthy) isHealthy = false;
         }
 
         // Add timestamp
@@ -99,4 +71,3 @@ public class NotificationServiceHealthIndicator implements HealthIndicator {
         }
     }
 }
-
@@ -3,10 +3,14 @@ package com.irctc.notification.repository;
 import com.irctc.notification.entity.NotificationPreferences;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface NotificationPreferencesRepository extends JpaRepository<NotificationPreferences, Long> {
     Optional<NotificationPreferences> findByUserId(Long userId);
+
+    List<NotificationPreferences> findByUserIdIn(Collection<Long> userIds);
 }
 
@@ -15,6 +15,8 @@ public interface SimpleNotificationRepository extends JpaRepository<SimpleNotifi
     List<SimpleNotification> findByUserId(Long userId);
     List<SimpleNotification> findByType(String type);
     Page<SimpleNotification> findByUserIdOrderBySentTimeDesc(Long userId, Pageable pageable);
+    List<SimpleNotification> findByUserIdAndIdGreaterThanOrderByIdAsc(Long userId, Long afterId, Pageable pageable);
+    List<SimpleNotification> findByUserIdAndTenantIdAndIdGreaterThanOrderByIdAsc(Long userId, String tenantId, Long afterId, Pageable pageable);
     
     @Query("SELECT n FROM SimpleNotification n WHERE n.userId = :userId AND n.sentTime BETWEEN :start AND :end")
     List<SimpleNotification> findByUserIdAndSentTimeBetween(
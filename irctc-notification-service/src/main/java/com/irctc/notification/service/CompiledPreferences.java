@@ -0,0 +1,101 @@
+package com.irctc.notification.service;
+
+import com.irctc.notification.entity.NotificationPreferences;
+
+import java.time.LocalTime;
+
+/**
+ * Compact form of a user's notification preferences used for dispatch decisions
+ *
+ * Enabled notification types and channels are bits of one mask and quiet
+ * hours are minutes of the day (-1 when unset). Types and channels without a
+ * bit are always allowed, as they were when read from the entity.
+ */
+public record CompiledPreferences(int mask, int quietHoursStart, int quietHoursEnd, long version) {
+
+    private static final int BOOKING_CONFIRMED = 1;
+    private static final int PAYMENT_SUCCESS = 1 << 1;
+    private static final int BOOKING_REMINDER = 1 << 2;
+    private static final int CANCELLATION = 1 << 3;
+    private static final int MODIFICATION = 1 << 4;
+
+    private static final int EMAIL = 1 << 8;
+    private static final int SMS = 1 << 9;
+    private static final int WHATSAPP = 1 << 10;
+    private static final int PUSH = 1 << 11;
+
+    private static final int QUIET_HOURS = 1 << 16;
+
+    /**
+     * Preferences of a user without a stored row
+     */
+    public static final CompiledPreferences DEFAULTS = of(new NotificationPreferences());
+
+    public static CompiledPreferences of(NotificationPreferences preferences) {
+        int mask = 0;
+        mask |= bit(preferences.getBookingConfirmed(), BOOKING_CONFIRMED);
+        mask |= bit(preferences.getPaymentSuccess(), PAYMENT_SUCCESS);
+        mask |= bit(preferences.getBookingReminder(), BOOKING_REMINDER);
+        mask |= bit(preferences.getCancellation(), CANCELLATION);
+        mask |= bit(preferences.getModification(), MODIFICATION);
+        mask |= bit(preferences.getEmailEnabled(), EMAIL);
+        mask |= bit(preferences.getSmsEnabled(), SMS);
+        mask |= bit(preferences.getWhatsappEnabled(), WHATSAPP);
+        mask |= bit(preferences.getPushEnabled(), PUSH);
+        mask |= bit(preferences.getQuietHoursEnabled(), QUIET_HOURS);
+        return new CompiledPreferences(mask,
+            minuteOfDay(preferences.getQuietHoursStart()),
+            minuteOfDay(preferences.getQuietHoursEnd()),
+            preferences.getVersion() != null ? preferences.getVersion() : -1L);
+    }
+
+    public boolean typeEnabled(String notificationType) {
+        int bit = switch (notificationType) {
+            case "BOOKING_CONFIRMED" -> BOOKING_CONFIRMED;
+            case "PAYMENT_SUCCESS" -> PAYMENT_SUCCESS;
+            case "BOOKING_REMINDER" -> BOOKING_REMINDER;
+            case "CANCELLATION" -> CANCELLATION;
+            case "MODIFICATION" -> MODIFICATION;
+            default -> 0;
+        };
+        return bit == 0 || (mask & bit) != 0;
+    }
+
+    public boolean channelEnabled(String channel) {
+        int bit = switch (channel) {
+            case "EMAIL" -> EMAIL;
+            case "SMS" -> SMS;
+            case "WHATSAPP" -> WHATSAPP;
+            case "PUSH" -> PUSH;
+            default -> 0;
+        };
+        return bit == 0 || (mask & bit) != 0;
+    }
+
+    public boolean quietHoursEnabled() {
+        return (mask & QUIET_HOURS) != 0;
+    }
+
+    /**
+     * Whether a minute of the day falls in the quiet hours; start is inclusive,
+     * end exclusive, and a start after the end spans midnight (22:00 to 08:00).
+     * A same-day window such as 13:00 to 15:00 is quiet only between the two.
+     */
+    public boolean inQuietHours(int minute) {
+        if (!quietHoursEnabled() || quietHoursStart < 0 || quietHoursEnd < 0) {
+            return false;
+        }
+        if (quietHoursStart <= quietHoursEnd) {
+            return minute >= quietHoursStart && minute < quietHoursEnd;
+        }
+        return minute >= quietHoursStart || minute < quietHoursEnd;
+    }
+
+    public static int minuteOfDay(LocalTime time) {
+        return time != null ? time.getHour() * 60 + time.getMinute() : -1;
+    }
+
+    private static int bit(Boolean enabled, int bit) {
+        return Boolean.TRUE.equals(enabled) ? bit : 0;
+    }
+}
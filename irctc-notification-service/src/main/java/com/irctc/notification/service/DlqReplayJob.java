@@ -0,0 +1,253 @@
+package com.irctc.notification.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * State and progress of one DLQ replay run by {@link DlqReprocessorService}
+ *
+ * The replay covers the DLT up to the end offsets seen when it was started.
+ * positions holds the next offset to replay per partition, which is also what
+ * has been committed for the replay's consumer group.
+ */
+public class DlqReplayJob {
+
+    public enum State {
+        RUNNING,
+        PAUSING,
+        PAUSED,
+        COMPLETED,
+        FAILED
+    }
+
+    private final String id;
+    private final String dltTopic;
+    private final String mainTopic;
+    private final String groupId;
+    private final long maxRecords;
+    private final int workers;
+    private final String errorClass;
+    private final Instant from;
+    private final Instant to;
+    private final TokenBucket rateLimiter;
+    private final Instant startedAt = Instant.now();
+
+    private final AtomicLong replayed = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong budget;
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+    private final Map<Integer, Long> positions = new ConcurrentHashMap<>();
+    private volatile Map<Integer, Long> endOffsets;
+    private volatile State state = State.RUNNING;
+    private volatile String error;
+    private volatile Instant finishedAt;
+    private volatile CompletableFuture<DlqReplayJob> completion = new CompletableFuture<>();
+
+    public DlqReplayJob(String id, String dltTopic, String mainTopic, String groupId, long maxRecords,
+                        double ratePerSecond, int workers, String errorClass, Instant from, Instant to) {
+        this.id = id;
+        this.dltTopic = dltTopic;
+        this.mainTopic = mainTopic;
+        this.groupId = groupId;
+        this.maxRecords = maxRecords;
+        this.workers = workers;
+        this.errorClass = errorClass;
+        this.from = from;
+        this.to = to;
+        this.rateLimiter = new TokenBucket(ratePerSecond);
+        this.budget = new AtomicLong(maxRecords > 0 ? maxRecords : Long.MAX_VALUE);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getDltTopic() {
+        return dltTopic;
+    }
+
+    public String getMainTopic() {
+        return mainTopic;
+    }
+
+    public String getGroupId() {
+        return groupId;
+    }
+
+    public long getMaxRecords() {
+        return maxRecords;
+    }
+
+    public double getRatePerSecond() {
+        return rateLimiter.getRatePerSecond();
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public String getErrorClass() {
+        return errorClass;
+    }
+
+    public Instant getFrom() {
+        return from;
+    }
+
+    public Instant getTo() {
+        return to;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public long getReplayed() {
+        return replayed.get();
+    }
+
+    public long getSkipped() {
+        return skipped.get();
+    }
+
+    public Map<Integer, Long> getPositions() {
+        return new TreeMap<>(positions);
+    }
+
+    public Map<Integer, Long> getEndOffsets() {
+        return endOffsets != null ? new TreeMap<>(endOffsets) : null;
+    }
+
+    /**
+     * Records left to consider before the replay reaches its end offsets
+     */
+    public long getRemaining() {
+        Map<Integer, Long> ends = endOffsets;
+        if (ends == null) {
+            return 0;
+        }
+        long remaining = 0;
+        for (Map.Entry<Integer, Long> end : ends.entrySet()) {
+            remaining += Math.max(0, end.getValue() - positions.getOrDefault(end.getKey(), 0L));
+        }
+        return remaining;
+    }
+
+    @JsonIgnore
+    public boolean isActive() {
+        return state == State.RUNNING || state == State.PAUSING;
+    }
+
+    @JsonIgnore
+    TokenBucket getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * Wait for the current run to stop, whether completed, paused or failed
+     */
+    public DlqReplayJob awaitCompletion() {
+        return completion.join();
+    }
+
+    boolean shouldContinue() {
+        return state == State.RUNNING;
+    }
+
+    /**
+     * Reserve one record of the maxRecords budget; false once it is used up
+     */
+    boolean takeBudget() {
+        return budget.getAndUpdate(left -> left > 0 ? left - 1 : 0) > 0;
+    }
+
+    boolean budgetExhausted() {
+        return budget.get() <= 0;
+    }
+
+    void recordReplayed(long count) {
+        replayed.addAndGet(count);
+    }
+
+    void recordSkipped() {
+        skipped.incrementAndGet();
+    }
+
+    void recordPosition(int partition, long nextOffset) {
+        positions.put(partition, nextOffset);
+    }
+
+    void setEndOffsets(Map<Integer, Long> endOffsets) {
+        this.endOffsets = Map.copyOf(endOffsets);
+    }
+
+    synchronized void start(int workerCount) {
+        state = State.RUNNING;
+        error = null;
+        finishedAt = null;
+        if (completion.isDone()) {
+            completion = new CompletableFuture<>();
+        }
+        activeWorkers.set(workerCount);
+        if (workerCount == 0) {
+            finish();
+        }
+    }
+
+    synchronized boolean requestPause() {
+        if (state != State.RUNNING) {
+            return false;
+        }
+        state = State.PAUSING;
+        return true;
+    }
+
+    synchronized void fail(String message) {
+        if (error == null) {
+            error = message;
+        }
+        if (isActive()) {
+            state = State.FAILED;
+        }
+    }
+
+    /**
+     * Called by each worker as it stops; the last one settles the state
+     */
+    void workerFinished() {
+        if (activeWorkers.decrementAndGet() == 0) {
+            finish();
+        }
+    }
+
+    private synchronized void finish() {
+        if (state == State.PAUSING) {
+            state = State.PAUSED;
+        } else if (state == State.RUNNING) {
+            state = State.COMPLETED;
+        }
+        if (state != State.PAUSED) {
+            finishedAt = Instant.now();
+        }
+        completion.complete(this);
+    }
+}
@@ -1,73 +1,439 @@
 package com.irctc.notification.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.irctc.shared.events.BookingEvents;
+import com.irctc.notification.exception.EntityNotFoundException;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
 import org.apache.kafka.common.serialization.ByteArrayDeserializer;
-import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
-import java.util.Collections;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Replays dead-lettered records back to their main topic
+ *
+ * Records are forwarded as raw key and value bytes with their headers, minus
+ * the kafka_dlt-* headers added when they were dead-lettered. Each replay
+ * covers the DLT up to the end offsets seen when it started, so records that
+ * fail again and land back on the DLT are not picked up by the same replay.
+ *
+ * Partitions are split between worker threads. Each worker sends a polled
+ * batch without waiting per record, waits for the whole batch to be
+ * acknowledged and then commits its offsets. Progress is therefore the
+ * committed offsets of the replay's consumer group, and a paused, failed or
+ * new replay of the same DLT and filter picks up where the last one stopped.
+ * All workers of a replay share one token bucket.
+ */
 @Service
 public class DlqReprocessorService {
 
     private static final Logger logger = LoggerFactory.getLogger(DlqReprocessorService.class);
 
+    static final String REPLAYED_FROM_HEADER = "x-dlq-replayed-from";
+    private static final String DLT_HEADER_PREFIX = "kafka_dlt-";
+    private static final String GROUP_PREFIX = "notification-dlq-replay.";
+    private static final int MAX_FINISHED_JOBS = 100;
+    private static final int MAX_IDLE_POLLS = 5;
+
     @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
     private String bootstrapServers;
 
-    @Autowired
-    private KafkaTemplate<String, Object> kafkaTemplate;
+    @Value("${dlq.replay.rate-per-second:500}")
+    private double defaultRatePerSecond;
+
+    @Value("${dlq.replay.workers:4}")
+    private int defaultWorkers;
+
+    @Value("${dlq.replay.batch-size:500}")
+    private int batchSize;
+
+    @Value("${dlq.replay.poll-timeout-ms:1000}")
+    private long pollTimeoutMs;
 
-    @Autowired
-    private ObjectMapper objectMapper;
+    private static final AtomicInteger THREADS = new AtomicInteger();
 
+    private final Map<String, DlqReplayJob> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "dlq-replay-" + THREADS.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Producer<byte[], byte[]> producer;
+
+    /**
+     * What to replay and how fast; a null errorClass, from or to does not filter
+     */
+    public record ReplayRequest(String dltTopic, String mainTopic, long maxRecords, Double ratePerSecond,
+                                Integer workers, String errorClass, Instant from, Instant to) {
+    }
+
+    /**
+     * Replay up to maxRecords records and wait for the replay to stop
+     *
+     * @return number of records replayed
+     */
     public int reprocessDlq(String dltTopic, String mainTopic, int maxRecords) {
+        DlqReplayJob job = startReplay(new ReplayRequest(dltTopic, mainTopic, maxRecords, null, null, null, null, null))
+            .awaitCompletion();
+        logger.info("DLQ reprocessing completed. Republished {} records from {} to {}",
+            job.getReplayed(), dltTopic, mainTopic);
+        return (int) job.getReplayed();
+    }
+
+    /**
+     * Start a replay in the background
+     *
+     * @throws IllegalStateException if a replay with the same DLT and filter is still running
+     */
+    public DlqReplayJob startReplay(ReplayRequest request) {
+        if (request.dltTopic() == null || request.mainTopic() == null) {
+            throw new IllegalArgumentException("dltTopic and mainTopic are required");
+        }
+        String groupId = groupId(request);
+        DlqReplayJob job;
+        synchronized (jobs) {
+            for (DlqReplayJob existing : jobs.values()) {
+                if (existing.isActive() && existing.getGroupId().equals(groupId)) {
+                    throw new IllegalStateException("Replay " + existing.getId() + " is already running for " + groupId);
+                }
+            }
+            pruneFinishedJobs();
+            job = new DlqReplayJob(UUID.randomUUID().toString(), request.dltTopic(), request.mainTopic(), groupId,
+                request.maxRecords(),
+                request.ratePerSecond() != null ? request.ratePerSecond() : defaultRatePerSecond,
+                request.workers() != null && request.workers() > 0 ? request.workers() : defaultWorkers,
+                request.errorClass(), request.from(), request.to());
+            jobs.put(job.getId(), job);
+            logger.info("🔄 Starting DLQ replay {}: {} -> {} (max: {}, rate: {}/s, workers: {})", job.getId(),
+                job.getDltTopic(), job.getMainTopic(), job.getMaxRecords(), job.getRatePerSecond(), job.getWorkers());
+            launch(job);
+        }
+        return job;
+    }
+
+    /**
+     * Stop a replay after the batches in flight are committed
+     */
+    public DlqReplayJob pauseReplay(String jobId) {
+        DlqReplayJob job = getReplay(jobId);
+        if (!job.requestPause()) {
+            throw new IllegalStateException("Replay " + jobId + " is " + job.getState());
+        }
+        logger.info("⏸️  Pausing DLQ replay {}", jobId);
+        return job;
+    }
+
+    /**
+     * Continue a paused or failed replay from its committed offsets
+     */
+    public DlqReplayJob resumeReplay(String jobId) {
+        DlqReplayJob job = getReplay(jobId);
+        synchronized (jobs) {
+            if (job.getState() != DlqReplayJob.State.PAUSED && job.getState() != DlqReplayJob.State.FAILED) {
+                throw new IllegalStateException("Replay " + jobId + " is " + job.getState());
+            }
+            for (DlqReplayJob other : jobs.values()) {
+                if (other != job && other.isActive() && other.getGroupId().equals(job.getGroupId())) {
+                    throw new IllegalStateException("Replay " + other.getId() + " is already running for " + job.getGroupId());
+                }
+            }
+            logger.info("▶️  Resuming DLQ replay {}", jobId);
+            launch(job);
+        }
+        return job;
+    }
+
+    public DlqReplayJob getReplay(String jobId) {
+        DlqReplayJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new EntityNotFoundException("DlqReplayJob", jobId);
+        }
+        return job;
+    }
+
+    public List<DlqReplayJob> getReplays() {
+        List<DlqReplayJob> all = new ArrayList<>(jobs.values());
+        all.sort(Comparator.comparing(DlqReplayJob::getStartedAt).reversed());
+        return all;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.values().forEach(DlqReplayJob::requestPause);
+        executor.shutdown();
+        if (producer != null) {
+            producer.close(Duration.ofSeconds(5));
+        }
+    }
+
+    /**
+     * Split the DLT's partitions between workers and start them; called holding the jobs lock
+     */
+    private void launch(DlqReplayJob job) {
+        List<TopicPartition> partitions;
+        try (Consumer<byte[], byte[]> metadata = createConsumer(job.getGroupId())) {
+            List<PartitionInfo> infos = metadata.partitionsFor(job.getDltTopic());
+            partitions = new ArrayList<>();
+            if (infos != null) {
+                for (PartitionInfo info : infos) {
+                    partitions.add(new TopicPartition(job.getDltTopic(), info.partition()));
+                }
+            }
+            if (job.getEndOffsets() == null) {
+                Map<Integer, Long> endOffsets = new HashMap<>();
+                metadata.endOffsets(partitions).forEach((tp, end) -> endOffsets.put(tp.partition(), end));
+                job.setEndOffsets(endOffsets);
+            }
+        } catch (Exception e) {
+            logger.error("DLQ replay {} could not read partitions of {}", job.getId(), job.getDltTopic(), e);
+            job.start(1);
+            job.fail(e.getMessage());
+            job.workerFinished();
+            return;
+        }
+
+        int workerCount = Math.min(job.getWorkers(), partitions.size());
+        List<List<TopicPartition>> assignments = new ArrayList<>();
+        for (int i = 0; i < workerCount; i++) {
+            assignments.add(new ArrayList<>());
+        }
+        for (int i = 0; i < partitions.size(); i++) {
+            assignments.get(i % workerCount).add(partitions.get(i));
+        }
+
+        job.start(workerCount);
+        for (List<TopicPartition> assigned : assignments) {
+            executor.submit(() -> runWorker(job, assigned));
+        }
+    }
+
+    private void runWorker(DlqReplayJob job, List<TopicPartition> partitions) {
+        try (Consumer<byte[], byte[]> consumer = createConsumer(job.getGroupId())) {
+            consumer.assign(partitions);
+            Map<TopicPartition, Long> ends = new HashMap<>();
+            Map<TopicPartition, Long> next = new HashMap<>();
+            for (TopicPartition tp : partitions) {
+                long position = consumer.position(tp);
+                job.recordPosition(tp.partition(), position);
+                long end = job.getEndOffsets().getOrDefault(tp.partition(), 0L);
+                if (position < end) {
+                    ends.put(tp, end);
+                    next.put(tp, position);
+                }
+            }
+
+            int idlePolls = 0;
+            while (!ends.isEmpty() && job.shouldContinue() && !job.budgetExhausted()) {
+                ConsumerRecords<byte[], byte[]> records = consumer.poll(Duration.ofMillis(pollTimeoutMs));
+                if (records.isEmpty()) {
+                    // Transaction markers or compaction can leave the end offset unreachable
+                    if (++idlePolls >= MAX_IDLE_POLLS) {
+                        break;
+                    }
+                    continue;
+                }
+                idlePolls = 0;
+                if (!replayBatch(job, consumer, records, ends, next)) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.fail("interrupted");
+        } catch (Exception e) {
+            logger.error("DLQ replay {} worker failed", job.getId(), e);
+            job.fail(e.getMessage());
+        } finally {
+            job.workerFinished();
+        }
+    }
+
+    /**
+     * Send one polled batch, wait for it and commit it
+     *
+     * @return false if the worker should stop
+     */
+    private boolean replayBatch(DlqReplayJob job, Consumer<byte[], byte[]> consumer,
+                                ConsumerRecords<byte[], byte[]> records,
+                                Map<TopicPartition, Long> ends, Map<TopicPartition, Long> next) throws Exception {
+        List<Future<RecordMetadata>> sends = new ArrayList<>();
+        Map<TopicPartition, OffsetAndMetadata> commits = new HashMap<>();
+        boolean budgetLeft = true;
+
+        for (TopicPartition tp : records.partitions()) {
+            Long end = ends.get(tp);
+            if (end == null) {
+                continue;
+            }
+            for (ConsumerRecord<byte[], byte[]> rec : records.records(tp)) {
+                if (rec.offset() >= end) {
+                    break;
+                }
+                if (matches(job, rec)) {
+                    if (!job.takeBudget()) {
+                        budgetLeft = false;
+                        break;
+                    }
+                    job.getRateLimiter().acquire();
+                    sends.add(producer().send(toReplay(job.getMainTopic(), rec)));
+                } else {
+                    job.recordSkipped();
+                }
+                next.put(tp, rec.offset() + 1);
+                commits.put(tp, new OffsetAndMetadata(rec.offset() + 1));
+            }
+            if (!budgetLeft) {
+                break;
+            }
+        }
+
+        for (Future<RecordMetadata> send : sends) {
+            send.get();
+        }
+        if (!commits.isEmpty()) {
+            consumer.commitSync(commits);
+        }
+        job.recordReplayed(sends.size());
+        commits.forEach((tp, offset) -> {
+            job.recordPosition(tp.partition(), offset.offset());
+            if (offset.offset() >= ends.get(tp)) {
+                ends.remove(tp);
+            }
+        });
+        // Uncommitted records already fetched are read again by the next run
+        return budgetLeft;
+    }
+
+    private boolean matches(DlqReplayJob job, ConsumerRecord<byte[], byte[]> rec) {
+        if (job.getFrom() != null && rec.timestamp() < job.getFrom().toEpochMilli()) {
+            return false;
+        }
+        if (job.getTo() != null && rec.timestamp() >= job.getTo().toEpochMilli()) {
+            return false;
+        }
+        if (job.getErrorClass() != null) {
+            return errorClassMatches(rec.headers(), KafkaHeaders.DLT_EXCEPTION_FQCN, job.getErrorClass())
+                || errorClassMatches(rec.headers(), KafkaHeaders.DLT_EXCEPTION_CAUSE_FQCN, job.getErrorClass());
+        }
+        return true;
+    }
+
+    private static boolean errorClassMatches(Headers headers, String header, String errorClass) {
+        Header value = headers.lastHeader(header);
+        if (value == null || value.value() == null) {
+            return false;
+        }
+        String fqcn = new String(value.value(), StandardCharsets.UTF_8);
+        return fqcn.equals(errorClass) || fqcn.endsWith("." + errorClass);
+    }
+
+    private static ProducerRecord<byte[], byte[]> toReplay(String mainTopic, ConsumerRecord<byte[], byte[]> rec) {
+        RecordHeaders headers = new RecordHeaders();
+        for (Header header : rec.headers()) {
+            if (!header.key().startsWith(DLT_HEADER_PREFIX)) {
+                headers.add(header);
+            }
+        }
+        headers.add(REPLAYED_FROM_HEADER,
+            (rec.topic() + "-" + rec.partition() + "@" + rec.offset()).getBytes(StandardCharsets.UTF_8));
+        return new ProducerRecord<>(mainTopic, null, rec.key(), rec.value(), headers);
+    }
+
+    /**
+     * Replays with a filter keep their own offsets, so the records they skip are
+     * still there for an unfiltered replay
+     */
+    private static String groupId(ReplayRequest request) {
+        String groupId = GROUP_PREFIX + request.dltTopic();
+        if (request.errorClass() != null || request.from() != null || request.to() != null) {
+            String filter = request.errorClass() + "|" + request.from() + "|" + request.to();
+            groupId += "." + Integer.toHexString(filter.hashCode());
+        }
+        return groupId;
+    }
+
+    private void pruneFinishedJobs() {
+        List<DlqReplayJob> finished = new ArrayList<>();
+        for (DlqReplayJob job : jobs.values()) {
+            if (job.getFinishedAt() != null) {
+                finished.add(job);
+            }
+        }
+        if (finished.size() >= MAX_FINISHED_JOBS) {
+            finished.sort(Comparator.comparing(DlqReplayJob::getFinishedAt));
+            for (int i = 0; i <= finished.size() - MAX_FINISHED_JOBS; i++) {
+                jobs.remove(finished.get(i).getId());
+            }
+        }
+    }
+
+    Consumer<byte[], byte[]> createConsumer(String groupId) {
         Properties props = new Properties();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        props.put(ConsumerConfig.GROUP_ID_CONFIG, "notification-dlq-reprocessor");
-        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class.getName());
         props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class.getName());
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
         props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, batchSize);
+        return new KafkaConsumer<>(props);
+    }
 
-        int reprocessed = 0;
-        try (KafkaConsumer<String, byte[]> consumer = new KafkaConsumer<>(props)) {
-            consumer.subscribe(Collections.singletonList(dltTopic));
+    Producer<byte[], byte[]> createProducer() {
+        Properties props = new Properties();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class.getName());
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class.getName());
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, 5);
+        return new KafkaProducer<>(props);
+    }
 
-            while (reprocessed < maxRecords) {
-                ConsumerRecords<String, byte[]> records = consumer.poll(Duration.ofSeconds(1));
-                if (records.isEmpty()) {
-                    break;
-                }
-                for (ConsumerRecord<String, byte[]> rec : records) {
-                    try {
-                        BookingEvents.TicketConfirmationEvent event = objectMapper.readValue(rec.value(), BookingEvents.TicketConfirmationEvent.class);
-                        kafkaTemplate.send(mainTopic, event).get();
-                        reprocessed++;
-                        if (reprocessed >= maxRecords) {
-                            break;
-                        }
-                    } catch (Exception e) {
-                        logger.error("Failed to reprocess DLQ record at offset {}", rec.offset(), e);
-                    }
+    private Producer<byte[], byte[]> producer() {
+        Producer<byte[], byte[]> current = producer;
+        if (current == null) {
+            synchronized (this) {
+                if (producer == null) {
+                    producer = createProducer();
                 }
+                current = producer;
             }
-        } catch (Exception e) {
-            logger.error("DLQ reprocessing error", e);
         }
-        logger.info("DLQ reprocessing completed. Republished {} records from {} to {}", reprocessed, dltTopic, mainTopic);
-        return reprocessed;
+        return current;
     }
 }
@@ -1,5 +1,7 @@
 package com.irctc.notification.service;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.irctc.external.notification.SendGridEmailService;
 import com.irctc.external.notification.TwilioSmsService;
 import com.irctc.shared.events.UserEvents;
@@ -17,6 +19,9 @@ import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * Kafka Consumer Service for Notifications
  * All consumers include idempotency checks to prevent duplicate processing
@@ -38,6 +43,10 @@ public class NotificationConsumerService {
     @Autowired
     private TrackedEventConsumer trackedEventConsumer;
 
+    private static final ObjectMapper objectMapper = new ObjectMapper()
+        .findAndRegisterModules()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
     /**
      * Handle user registration events with idempotency check
      */
@@ -153,6 +162,34 @@ public class NotificationConsumerService {
                                      @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
                                      @Header(KafkaHeaders.RECEIVED_PARTITION) Integer partition,
                                      @Header(KafkaHeaders.OFFSET) Long offset) {
+        confirmBooking(event, topic, partition, offset);
+    }
+
+    /**
+     * Handle group bookings, which Booking Service publishes as one event per chunk
+     * ({jobId, trainId, bookingCount, bookings: [BookingCreatedEvent...]}).
+     * Each booking is confirmed and tracked under its own event ID, so a redelivered
+     * batch only sends what was not sent yet.
+     */
+    @KafkaListener(topics = "booking-created-batch", groupId = "notification-service")
+    @Transactional
+    public void handleBookingCreatedBatch(Map<String, Object> batch,
+                                          @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
+                                          @Header(KafkaHeaders.RECEIVED_PARTITION) Integer partition,
+                                          @Header(KafkaHeaders.OFFSET) Long offset) {
+        Object bookings = batch.get("bookings");
+        if (!(bookings instanceof List<?> list)) {
+            logger.warn("⚠️ Booking batch from job {} carries no bookings, skipping", batch.get("jobId"));
+            return;
+        }
+        logger.info("Received booking batch from job {} with {} bookings", batch.get("jobId"), list.size());
+        for (Object booking : list) {
+            confirmBooking(objectMapper.convertValue(booking, BookingEvents.BookingCreatedEvent.class),
+                topic, partition, offset);
+        }
+    }
+
+    private void confirmBooking(BookingEvents.BookingCreatedEvent event, String topic, Integer partition, Long offset) {
         TrackedEventResult trackingResult = trackedEventConsumer.trackConsumption(
             topic, partition, offset, "notification-service", event
         );
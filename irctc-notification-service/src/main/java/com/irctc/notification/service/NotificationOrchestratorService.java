@@ -2,7 +2,6 @@ package com.irctc.notification.service;
 
 import com.irctc.notification.dto.NotificationRequest;
 import com.irctc.notification.dto.NotificationResponse;
-import com.irctc.notification.entity.NotificationPreferences;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -65,26 +64,13 @@ public class NotificationOrchestratorService {
                 }
             } else {
                 // Send to all enabled channels based on preferences
-                NotificationPreferences preferences = preferencesService.getPreferences(request.getUserId());
+                CompiledPreferences preferences = preferencesService.getCompiledPreferences(request.getUserId());
                 
-                if (preferences.getEmailEnabled()) {
-                    NotificationResponse response = sendToChannel(request, "EMAIL");
-                    if (response != null) responses.add(response);
-                }
-                
-                if (preferences.getSmsEnabled()) {
-                    NotificationResponse response = sendToChannel(request, "SMS");
-                    if (response != null) responses.add(response);
-                }
-                
-                if (preferences.getWhatsappEnabled()) {
-                    NotificationResponse response = sendToChannel(request, "WHATSAPP");
-                    if (response != null) responses.add(response);
-                }
-                
-                if (preferences.getPushEnabled()) {
-                    NotificationResponse response = sendToChannel(request, "PUSH");
-                    if (response != null) responses.add(response);
+                for (String channel : List.of("EMAIL", "SMS", "WHATSAPP", "PUSH")) {
+                    if (preferences.channelEnabled(channel)) {
+                        NotificationResponse response = sendToChannel(request, channel);
+                        if (response != null) responses.add(response);
+                    }
                 }
             }
         } else {
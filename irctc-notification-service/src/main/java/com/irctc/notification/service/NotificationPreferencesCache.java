@@ -0,0 +1,150 @@
+package com.irctc.notification.service;
+
+import com.irctc.notification.dto.NotificationPreferencesChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Bounded per-instance cache of {@link CompiledPreferences}
+ *
+ * Entries are dropped least recently used first beyond
+ * notification.preferences.cache.max-entries. A change to a user's
+ * preferences is broadcast on the notification.preferences.cache.topic Kafka
+ * topic, which every instance reads in its own consumer group, so each one
+ * evicts the user. Loads that overlap an eviction are not cached, so a row
+ * read before a change cannot outlive it.
+ */
+@Component
+public class NotificationPreferencesCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationPreferencesCache.class);
+
+    @Autowired(required = false)
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Value("${notification.preferences.cache.topic:notification-preferences-changed}")
+    private String topic;
+
+    private final Map<Long, CompiledPreferences> cache;
+    private long invalidations;
+
+    public NotificationPreferencesCache(
+            @Value("${notification.preferences.cache.max-entries:100000}") int maxEntries) {
+        this.cache = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CompiledPreferences> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Cached preferences of a user, loading them on a miss
+     */
+    public CompiledPreferences get(Long userId, Function<Long, CompiledPreferences> loader) {
+        long generation;
+        synchronized (cache) {
+            CompiledPreferences cached = cache.get(userId);
+            if (cached != null) {
+                return cached;
+            }
+            generation = invalidations;
+        }
+        CompiledPreferences loaded = loader.apply(userId);
+        putIfUnchanged(Map.of(userId, loaded), generation);
+        return loaded;
+    }
+
+    /**
+     * Cached preferences of several users; the loader is called once with all the misses
+     */
+    public Map<Long, CompiledPreferences> getAll(Collection<Long> userIds,
+                                                 Function<Collection<Long>, Map<Long, CompiledPreferences>> loader) {
+        Map<Long, CompiledPreferences> result = new HashMap<>();
+        List<Long> misses = new ArrayList<>();
+        long generation;
+        synchronized (cache) {
+            for (Long userId : userIds) {
+                CompiledPreferences cached = cache.get(userId);
+                if (cached != null) {
+                    result.put(userId, cached);
+                } else if (!result.containsKey(userId)) {
+                    misses.add(userId);
+                }
+            }
+            generation = invalidations;
+        }
+        if (!misses.isEmpty()) {
+            Map<Long, CompiledPreferences> loaded = loader.apply(misses);
+            result.putAll(loaded);
+            putIfUnchanged(loaded, generation);
+        }
+        return result;
+    }
+
+    /**
+     * Replace this instance's entry after a committed change and tell the other instances
+     */
+    public void publishChange(Long userId, CompiledPreferences preferences) {
+        synchronized (cache) {
+            invalidations++;
+            cache.put(userId, preferences);
+        }
+        if (kafkaTemplate != null) {
+            try {
+                kafkaTemplate.send(topic, String.valueOf(userId),
+                    new NotificationPreferencesChangedEvent(userId, preferences.version()));
+            } catch (Exception e) {
+                logger.warn("⚠️  Failed to broadcast preferences change for user {}: {}", userId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Evict a user unless this instance already holds the changed version or a later one
+     */
+    @KafkaListener(topics = "${notification.preferences.cache.topic:notification-preferences-changed}",
+                   groupId = "notification-preferences-cache-${random.uuid}",
+                   properties = "auto.offset.reset=latest")
+    public void onPreferencesChanged(NotificationPreferencesChangedEvent event) {
+        if (event == null || event.getUserId() == null) {
+            return;
+        }
+        synchronized (cache) {
+            CompiledPreferences cached = cache.get(event.getUserId());
+            if (cached != null && event.getVersion() != null && cached.version() >= event.getVersion()) {
+                return;
+            }
+            invalidations++;
+            cache.remove(event.getUserId());
+        }
+        logger.debug("Evicted cached preferences for user {}", event.getUserId());
+    }
+
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private void putIfUnchanged(Map<Long, CompiledPreferences> loaded, long generation) {
+        synchronized (cache) {
+            if (invalidations == generation) {
+                cache.putAll(loaded);
+            }
+        }
+    }
+}
@@ -8,21 +8,38 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalTime;
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Service for managing notification preferences
+ *
+ * Dispatch decisions are made from {@link CompiledPreferences} held in the
+ * {@link NotificationPreferencesCache}, so repeated checks for a user do not
+ * go to the database. Every change refreshes the cache once committed.
  */
 @Service
 public class NotificationPreferencesService {
     
     private static final Logger logger = LoggerFactory.getLogger(NotificationPreferencesService.class);
     
+    // Keeps IN lists within what every database accepts
+    private static final int BATCH_QUERY_SIZE = 1000;
+    
     @Autowired
     private NotificationPreferencesRepository preferencesRepository;
     
+    @Autowired
+    private NotificationPreferencesCache preferencesCache;
+    
     /**
      * Get preferences for user
      */
@@ -92,7 +109,7 @@ public class NotificationPreferencesService {
             existing.setChannelPreferences(preferences.getChannelPreferences());
         }
         
-        return preferencesRepository.save(existing);
+        return saveAndPublish(existing);
     }
     
     /**
@@ -104,7 +121,7 @@ public class NotificationPreferencesService {
         preferences.setQuietHoursEnabled(true);
         preferences.setQuietHoursStart(start);
         preferences.setQuietHoursEnd(end);
-        return preferencesRepository.save(preferences);
+        return saveAndPublish(preferences);
     }
     
     /**
@@ -114,70 +131,95 @@ public class NotificationPreferencesService {
     public NotificationPreferences disableQuietHours(Long userId) {
         NotificationPreferences preferences = getPreferences(userId);
         preferences.setQuietHoursEnabled(false);
-        return preferencesRepository.save(preferences);
+        return saveAndPublish(preferences);
+    }
+    
+    /**
+     * Compiled preferences for user, from the cache when possible.
+     * Users without stored preferences get the defaults without a row being created.
+     */
+    public CompiledPreferences getCompiledPreferences(Long userId) {
+        return preferencesCache.get(userId, id -> preferencesRepository.findByUserId(id)
+            .map(CompiledPreferences::of)
+            .orElse(CompiledPreferences.DEFAULTS));
     }
     
     /**
      * Check if notification should be sent based on preferences
      */
     public boolean shouldSendNotification(Long userId, String notificationType, String channel) {
-        NotificationPreferences preferences = getPreferences(userId);
-        
+        return shouldSend(userId, getCompiledPreferences(userId), notificationType, channel);
+    }
+    
+    /**
+     * Check a notification for several users at once. Users missing from the
+     * cache are loaded together, one query per 1000 users.
+     */
+    public Map<Long, Boolean> shouldSendNotifications(Collection<Long> userIds, String notificationType, String channel) {
+        Map<Long, CompiledPreferences> compiled = preferencesCache.getAll(userIds, this::loadCompiledPreferences);
+        Map<Long, Boolean> decisions = new LinkedHashMap<>();
+        for (Long userId : userIds) {
+            decisions.put(userId, shouldSend(userId, compiled.get(userId), notificationType, channel));
+        }
+        return decisions;
+    }
+    
+    private boolean shouldSend(Long userId, CompiledPreferences preferences, String notificationType, String channel) {
         // Check if notification type is enabled
-        boolean typeEnabled = switch (notificationType) {
-            case "BOOKING_CONFIRMED" -> preferences.getBookingConfirmed();
-            case "PAYMENT_SUCCESS" -> preferences.getPaymentSuccess();
-            case "BOOKING_REMINDER" -> preferences.getBookingReminder();
-            case "CANCELLATION" -> preferences.getCancellation();
-            case "MODIFICATION" -> preferences.getModification();
-            default -> true;
-        };
-        
-        if (!typeEnabled) {
+        if (!preferences.typeEnabled(notificationType)) {
             logger.debug("Notification type {} disabled for user {}", notificationType, userId);
             return false;
         }
         
         // Check if channel is enabled
-        boolean channelEnabled = switch (channel) {
-            case "EMAIL" -> preferences.getEmailEnabled();
-            case "SMS" -> preferences.getSmsEnabled();
-            case "WHATSAPP" -> preferences.getWhatsappEnabled();
-            case "PUSH" -> preferences.getPushEnabled();
-            default -> true;
-        };
-        
-        if (!channelEnabled) {
+        if (!preferences.channelEnabled(channel)) {
             logger.debug("Channel {} disabled for user {}", channel, userId);
             return false;
         }
         
         // Check quiet hours
-        if (preferences.getQuietHoursEnabled() && isQuietHours()) {
-            LocalTime now = LocalTime.now();
-            LocalTime start = preferences.getQuietHoursStart();
-            LocalTime end = preferences.getQuietHoursEnd();
-            
-            if (start != null && end != null) {
-                if (start.isBefore(end)) {
-                    // Same day quiet hours (e.g., 22:00 to 08:00 next day)
-                    if (now.isAfter(start) || now.isBefore(end)) {
-                        logger.debug("Quiet hours active for user {}", userId);
-                        return false;
-                    }
-                } else {
-                    // Overnight quiet hours (e.g., 22:00 to 08:00)
-                    if (now.isAfter(start) || now.isBefore(end)) {
-                        logger.debug("Quiet hours active for user {}", userId);
-                        return false;
-                    }
-                }
-            }
+        if (isQuietHours() && preferences.inQuietHours(CompiledPreferences.minuteOfDay(LocalTime.now()))) {
+            logger.debug("Quiet hours active for user {}", userId);
+            return false;
         }
         
         return true;
     }
     
+    private Map<Long, CompiledPreferences> loadCompiledPreferences(Collection<Long> userIds) {
+        Map<Long, CompiledPreferences> compiled = new HashMap<>();
+        List<Long> ids = new ArrayList<>(userIds);
+        for (int from = 0; from < ids.size(); from += BATCH_QUERY_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + BATCH_QUERY_SIZE, ids.size()));
+            for (NotificationPreferences preferences : preferencesRepository.findByUserIdIn(chunk)) {
+                compiled.put(preferences.getUserId(), CompiledPreferences.of(preferences));
+            }
+        }
+        for (Long userId : userIds) {
+            compiled.putIfAbsent(userId, CompiledPreferences.DEFAULTS);
+        }
+        return compiled;
+    }
+    
+    /**
+     * Save preferences and refresh the cache on every instance once the change is committed
+     */
+    private NotificationPreferences saveAndPublish(NotificationPreferences preferences) {
+        NotificationPreferences saved = preferencesRepository.saveAndFlush(preferences);
+        CompiledPreferences compiled = CompiledPreferences.of(saved);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    preferencesCache.publishChange(saved.getUserId(), compiled);
+                }
+            });
+        } else {
+            preferencesCache.publishChange(saved.getUserId(), compiled);
+        }
+        return saved;
+    }
+    
     /**
      * Check if currently in quiet hours
      */
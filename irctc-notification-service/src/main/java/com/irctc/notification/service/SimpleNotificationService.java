@@ -62,6 +62,20 @@ public class SimpleNotificationService {
         return notifications;
     }
 
+    /**
+     * Keyset page of a user's notifications with IDs greater than afterId, for GDPR exports
+     */
+    public List<SimpleNotification> getNotificationsForExport(Long userId, Long afterId, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, 1000));
+        long after = afterId != null ? afterId : 0L;
+        // Tenant goes into the query: a page filtered afterwards could come back empty and end the export early
+        if (TenantContext.hasTenant()) {
+            return notificationRepository.findByUserIdAndTenantIdAndIdGreaterThanOrderByIdAsc(
+                userId, TenantContext.getTenantId(), after, PageRequest.of(0, pageSize));
+        }
+        return notificationRepository.findByUserIdAndIdGreaterThanOrderByIdAsc(userId, after, PageRequest.of(0, pageSize));
+    }
+
     public List<SimpleNotification> getRecentNotificationsByUserId(Long userId, int limit) {
         int pageSize = Math.max(1, Math.min(limit, 100));
         Pageable pageable = PageRequest.of(0, pageSize);
@@ -0,0 +1,60 @@
+package com.irctc.notification.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket shared by the threads of one DLQ replay
+ *
+ * Refills at ratePerSecond up to one second of burst. Callers reserve a token
+ * and sleep outside the lock until it is due, so waiting threads queue up
+ * fairly without holding each other back. A rate of zero or less is unlimited.
+ */
+public class TokenBucket {
+
+    private final double ratePerSecond;
+    private final double capacity;
+    private final LongSupplier nanoClock;
+    private double tokens;
+    private long lastRefill;
+
+    public TokenBucket(double ratePerSecond) {
+        this(ratePerSecond, System::nanoTime);
+    }
+
+    TokenBucket(double ratePerSecond, LongSupplier nanoClock) {
+        this.ratePerSecond = ratePerSecond;
+        this.capacity = Math.max(1, ratePerSecond);
+        this.nanoClock = nanoClock;
+        this.tokens = capacity;
+        this.lastRefill = nanoClock.getAsLong();
+    }
+
+    /**
+     * Take one token, blocking until it is available
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Take one token and return how long to wait before using it
+     */
+    synchronized long reserve() {
+        if (ratePerSecond <= 0) {
+            return 0;
+        }
+        long now = nanoClock.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * ratePerSecond / 1_000_000_000d);
+        lastRefill = now;
+        tokens -= 1;
+        return tokens >= 0 ? 0 : (long) (-tokens / ratePerSecond * 1_000_000_000d);
+    }
+
+    public double getRatePerSecond() {
+        return ratePerSecond;
+    }
+}
@@ -0,0 +1,4 @@
+-- Version column for notification preferences
+-- Cached dispatch decisions are tagged with it so instances can ignore stale invalidations
+
+ALTER TABLE notification_preferences ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
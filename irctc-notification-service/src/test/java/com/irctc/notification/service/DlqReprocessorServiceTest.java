@@ -0,0 +1,259 @@
+package com.irctc.notification.service;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DlqReprocessorServiceTest {
+
+    private static final String DLT = "ticket-confirmation-events.DLT";
+    private static final String MAIN = "ticket-confirmation-events";
+    private static final String SERIALIZATION_ERROR = "org.apache.kafka.common.errors.SerializationException";
+    private static final String TIMEOUT_ERROR = "java.util.concurrent.TimeoutException";
+
+    private final Map<Integer, List<ConsumerRecord<byte[], byte[]>>> log = new HashMap<>();
+    private final Map<String, Map<TopicPartition, OffsetAndMetadata>> committed = new ConcurrentHashMap<>();
+    private MockProducer<byte[], byte[]> producer;
+    private boolean trickle;
+    private int unseenTail;
+    private DlqReprocessorService service;
+
+    @BeforeEach
+    void setUp() {
+        producer = new MockProducer<>(true, new ByteArraySerializer(), new ByteArraySerializer());
+        service = new DlqReprocessorService() {
+            @Override
+            Consumer<byte[], byte[]> createConsumer(String groupId) {
+                return brokerConsumer(groupId);
+            }
+
+            @Override
+            Producer<byte[], byte[]> createProducer() {
+                return producer;
+            }
+        };
+        ReflectionTestUtils.setField(service, "defaultRatePerSecond", 0d);
+        ReflectionTestUtils.setField(service, "defaultWorkers", 2);
+        ReflectionTestUtils.setField(service, "pollTimeoutMs", 10L);
+
+        for (int partition = 0; partition < 2; partition++) {
+            log.put(partition, new ArrayList<>());
+            for (int i = 0; i < 3; i++) {
+                append(partition, i == 1 ? TIMEOUT_ERROR : SERIALIZATION_ERROR, 1_000L * (i + 1));
+            }
+        }
+    }
+
+    @Test
+    void testReplaysRawRecordsAcrossPartitionsAndCommits() {
+        int replayed = service.reprocessDlq(DLT, MAIN, 1000);
+
+        assertEquals(6, replayed);
+        ProducerRecord<byte[], byte[]> first = producer.history().stream()
+            .filter(r -> header(r, DlqReprocessorService.REPLAYED_FROM_HEADER).equals(DLT + "-0@0"))
+            .findFirst().orElseThrow();
+        assertEquals(MAIN, first.topic());
+        assertEquals("key-0-0", new String(first.key(), StandardCharsets.UTF_8));
+        assertEquals("{\"pnr\":\"0-0\"}", new String(first.value(), StandardCharsets.UTF_8));
+        assertEquals("BookingEvents$TicketConfirmationEvent", header(first, "__TypeId__"));
+        assertNull(first.headers().lastHeader("kafka_dlt-exception-fqcn"));
+
+        Map<TopicPartition, OffsetAndMetadata> offsets = committed.get("notification-dlq-replay." + DLT);
+        assertEquals(3, offsets.get(new TopicPartition(DLT, 0)).offset());
+        assertEquals(3, offsets.get(new TopicPartition(DLT, 1)).offset());
+    }
+
+    @Test
+    void testReplayStopsAtEndOffsetsSeenAtStart() {
+        // The last record of each partition arrives after the replay has read the end offsets
+        unseenTail = 1;
+        DlqReplayJob job = service.startReplay(request(null, null, null)).awaitCompletion();
+
+        assertEquals(DlqReplayJob.State.COMPLETED, job.getState());
+        assertEquals(4, job.getReplayed());
+        assertEquals(Map.of(0, 2L, 1, 2L), job.getPositions());
+        assertEquals(0, job.getRemaining());
+
+        unseenTail = 0;
+        assertEquals(2, service.reprocessDlq(DLT, MAIN, 1000));
+    }
+
+    @Test
+    void testLimitedReplayContinuesFromCommittedOffsets() {
+        assertEquals(4, service.reprocessDlq(DLT, MAIN, 4));
+        assertEquals(2, service.reprocessDlq(DLT, MAIN, 4));
+        assertEquals(0, service.reprocessDlq(DLT, MAIN, 4));
+
+        Set<String> sources = new HashSet<>();
+        producer.history().forEach(r -> sources.add(header(r, DlqReprocessorService.REPLAYED_FROM_HEADER)));
+        assertEquals(6, sources.size());
+    }
+
+    @Test
+    void testFiltersSkipRecordsWithoutConsumingThemForOtherReplays() {
+        DlqReplayJob byError = service.startReplay(request("SerializationException", null, null)).awaitCompletion();
+        assertEquals(4, byError.getReplayed());
+        assertEquals(2, byError.getSkipped());
+
+        DlqReplayJob byTime = service.startReplay(request(null, Instant.ofEpochMilli(2_000), Instant.ofEpochMilli(3_000)))
+            .awaitCompletion();
+        assertEquals(2, byTime.getReplayed());
+        assertNotEquals(byError.getGroupId(), byTime.getGroupId());
+
+        assertEquals(6, service.reprocessDlq(DLT, MAIN, 1000));
+    }
+
+    @Test
+    void testPauseCommitsBatchInFlightAndResumeFinishes() throws Exception {
+        producer = new MockProducer<>(false, new ByteArraySerializer(), new ByteArraySerializer());
+        trickle = true;
+        DlqReplayJob job = service.startReplay(singleWorkerRequest());
+
+        awaitPendingSend();
+        service.pauseReplay(job.getId());
+        assertThrows(IllegalStateException.class, () -> service.startReplay(singleWorkerRequest()));
+        producer.completeNext();
+        job.awaitCompletion();
+
+        assertEquals(DlqReplayJob.State.PAUSED, job.getState());
+        assertEquals(1, job.getReplayed());
+        assertEquals(5, job.getRemaining());
+
+        service.resumeReplay(job.getId());
+        while (job.isActive()) {
+            if (!producer.completeNext()) {
+                Thread.sleep(2);
+            }
+        }
+        job.awaitCompletion();
+        assertEquals(DlqReplayJob.State.COMPLETED, job.getState());
+        assertEquals(6, job.getReplayed());
+        assertEquals(6, producer.history().size());
+    }
+
+    @Test
+    void testTokenBucketWaitsOnceBurstIsSpent() {
+        long[] now = {0};
+        TokenBucket bucket = new TokenBucket(10, () -> now[0]);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, bucket.reserve());
+        }
+        assertEquals(100_000_000L, bucket.reserve());
+        now[0] += 1_000_000_000L;
+        assertEquals(0, bucket.reserve());
+    }
+
+    private DlqReprocessorService.ReplayRequest request(String errorClass, Instant from, Instant to) {
+        return new DlqReprocessorService.ReplayRequest(DLT, MAIN, 0, null, null, errorClass, from, to);
+    }
+
+    private DlqReprocessorService.ReplayRequest singleWorkerRequest() {
+        return new DlqReprocessorService.ReplayRequest(DLT, MAIN, 0, null, 1, null, null, null);
+    }
+
+    private void append(int partition, String errorClass, long timestamp) {
+        List<ConsumerRecord<byte[], byte[]>> records = log.get(partition);
+        int offset = records.size();
+        RecordHeaders headers = new RecordHeaders();
+        headers.add("__TypeId__", "BookingEvents$TicketConfirmationEvent".getBytes(StandardCharsets.UTF_8));
+        headers.add("kafka_dlt-exception-fqcn", errorClass.getBytes(StandardCharsets.UTF_8));
+        records.add(new ConsumerRecord<>(DLT, partition, offset, timestamp, TimestampType.CREATE_TIME, 0, 0,
+            ("key-" + partition + "-" + offset).getBytes(StandardCharsets.UTF_8),
+            ("{\"pnr\":\"" + partition + "-" + offset + "\"}").getBytes(StandardCharsets.UTF_8),
+            headers, Optional.empty()));
+    }
+
+    /**
+     * A consumer over the in-memory log that shares committed offsets per group
+     */
+    private Consumer<byte[], byte[]> brokerConsumer(String groupId) {
+        Map<TopicPartition, OffsetAndMetadata> groupOffsets = committed.computeIfAbsent(groupId, g -> new ConcurrentHashMap<>());
+        MockConsumer<byte[], byte[]> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST) {
+            @Override
+            public synchronized void commitSync(Map<TopicPartition, OffsetAndMetadata> offsets) {
+                super.commitSync(offsets);
+                groupOffsets.putAll(offsets);
+            }
+
+            @Override
+            public synchronized void assign(Collection<TopicPartition> assigned) {
+                super.assign(assigned);
+                Map<TopicPartition, OffsetAndMetadata> known = new HashMap<>();
+                assigned.stream().filter(groupOffsets::containsKey).forEach(tp -> known.put(tp, groupOffsets.get(tp)));
+                super.commitSync(known);
+            }
+        };
+        List<PartitionInfo> partitions = new ArrayList<>();
+        Map<TopicPartition, Long> beginnings = new HashMap<>();
+        Map<TopicPartition, Long> ends = new HashMap<>();
+        Node node = new Node(0, "localhost", 9092);
+        for (Map.Entry<Integer, List<ConsumerRecord<byte[], byte[]>>> entry : log.entrySet()) {
+            partitions.add(new PartitionInfo(DLT, entry.getKey(), node, new Node[]{node}, new Node[]{node}));
+            beginnings.put(new TopicPartition(DLT, entry.getKey()), 0L);
+            ends.put(new TopicPartition(DLT, entry.getKey()), (long) entry.getValue().size() - unseenTail);
+        }
+        consumer.updatePartitions(DLT, partitions);
+        consumer.updateBeginningOffsets(beginnings);
+        consumer.updateEndOffsets(ends);
+
+        List<ConsumerRecord<byte[], byte[]>> pending = new ArrayList<>();
+        log.values().forEach(pending::addAll);
+        if (trickle) {
+            for (int i = 0; i < pending.size(); i++) {
+                ConsumerRecord<byte[], byte[]> rec = pending.get(i);
+                consumer.schedulePollTask(() -> addIfAssigned(consumer, rec));
+            }
+        } else {
+            consumer.schedulePollTask(() -> pending.forEach(rec -> addIfAssigned(consumer, rec)));
+        }
+        return consumer;
+    }
+
+    private static void addIfAssigned(MockConsumer<byte[], byte[]> consumer, ConsumerRecord<byte[], byte[]> rec) {
+        TopicPartition tp = new TopicPartition(rec.topic(), rec.partition());
+        if (consumer.assignment().contains(tp) && rec.offset() >= consumer.position(tp)) {
+            consumer.addRecord(rec);
+        }
+    }
+
+    private void awaitPendingSend() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (producer.history().isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(2);
+        }
+        assertFalse(producer.history().isEmpty());
+    }
+
+    private static String header(ProducerRecord<byte[], byte[]> record, String key) {
+        return new String(record.headers().lastHeader(key).value(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,102 @@
+package com.irctc.notification.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.irctc.external.notification.SendGridEmailService;
+import com.irctc.notification.entity.SimpleNotification;
+import com.irctc.notification.eventtracking.TrackedEventConsumer;
+import com.irctc.notification.eventtracking.TrackedEventConsumer.TrackedEventResult;
+import com.irctc.shared.events.BookingEvents;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationConsumerServiceTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+        .findAndRegisterModules()
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Mock
+    private SendGridEmailService emailService;
+
+    @Mock
+    private SimpleNotificationService notificationService;
+
+    @Mock
+    private TrackedEventConsumer trackedEventConsumer;
+
+    @InjectMocks
+    private NotificationConsumerService consumerService;
+
+    @Test
+    void shouldConfirmEveryBookingOfAGroupBatch() {
+        BookingEvents.BookingCreatedEvent first = created(101L, "PNR0000101");
+        BookingEvents.BookingCreatedEvent second = created(102L, "PNR0000102");
+        TrackedEventResult fresh = mock(TrackedEventResult.class);
+        when(trackedEventConsumer.trackConsumption(eq("booking-created-batch"), eq(0), eq(5L), eq("notification-service"), any()))
+            .thenReturn(fresh);
+        when(emailService.sendBookingConfirmation(anyString(), anyString(), anyString(), anyString(), anyString()))
+            .thenReturn(Mono.empty());
+
+        consumerService.handleBookingCreatedBatch(batchOf(first, second), "booking-created-batch", 0, 5L);
+
+        ArgumentCaptor<SimpleNotification> notifications = ArgumentCaptor.forClass(SimpleNotification.class);
+        verify(notificationService, times(2)).createNotification(notifications.capture());
+        assertEquals(List.of("Your booking has been confirmed. PNR: PNR0000101",
+                "Your booking has been confirmed. PNR: PNR0000102"),
+            notifications.getAllValues().stream().map(SimpleNotification::getMessage).toList());
+        // Each booking is tracked under its own event ID
+        verify(trackedEventConsumer).trackConsumption(eq("booking-created-batch"), eq(0), eq(5L), eq("notification-service"),
+            argThat(event -> event instanceof BookingEvents.BookingCreatedEvent e && first.getEventId().equals(e.getEventId())));
+        verify(fresh, times(2)).markProcessed();
+    }
+
+    @Test
+    void shouldSkipBookingsAlreadyConfirmedOnRedelivery() {
+        BookingEvents.BookingCreatedEvent sent = created(101L, "PNR0000101");
+        BookingEvents.BookingCreatedEvent pending = created(102L, "PNR0000102");
+        TrackedEventResult processed = mock(TrackedEventResult.class);
+        when(processed.isAlreadyProcessed()).thenReturn(true);
+        TrackedEventResult fresh = mock(TrackedEventResult.class);
+        when(trackedEventConsumer.trackConsumption(anyString(), any(), any(), anyString(), any()))
+            .thenReturn(processed, fresh);
+        when(emailService.sendBookingConfirmation(anyString(), anyString(), anyString(), anyString(), anyString()))
+            .thenReturn(Mono.empty());
+
+        consumerService.handleBookingCreatedBatch(batchOf(sent, pending), "booking-created-batch", 0, 5L);
+
+        verify(emailService, times(1)).sendBookingConfirmation(anyString(), anyString(), eq("PNR0000102"), anyString(), anyString());
+        verify(notificationService, times(1)).createNotification(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> batchOf(BookingEvents.BookingCreatedEvent... events) {
+        // Shaped like the outbox payload after it went through Kafka as JSON
+        Map<String, Object> batch = Map.of("jobId", "job-1", "trainId", 12L, "bookingCount", events.length,
+            "bookings", List.of(events));
+        return MAPPER.convertValue(batch, Map.class);
+    }
+
+    private static BookingEvents.BookingCreatedEvent created(Long bookingId, String pnr) {
+        return new BookingEvents.BookingCreatedEvent(bookingId, 7L, 12L, pnr, new BigDecimal("950.00"), 2,
+            LocalDateTime.of(2026, 12, 1, 6, 15));
+    }
+}
@@ -0,0 +1,152 @@
+package com.irctc.notification.service;
+
+import com.irctc.notification.dto.NotificationPreferencesChangedEvent;
+import com.irctc.notification.entity.NotificationPreferences;
+import com.irctc.notification.repository.NotificationPreferencesRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationPreferencesServiceTest {
+
+    @Mock
+    private NotificationPreferencesRepository preferencesRepository;
+
+    @InjectMocks
+    private NotificationPreferencesService preferencesService;
+
+    private NotificationPreferencesCache preferencesCache;
+
+    @BeforeEach
+    void setUp() {
+        preferencesCache = new NotificationPreferencesCache(100);
+        ReflectionTestUtils.setField(preferencesService, "preferencesCache", preferencesCache);
+    }
+
+    @Test
+    void testDecisionsForAllChannelsUseOneLookup() {
+        NotificationPreferences preferences = preferences(1L, 3L);
+        preferences.setSmsEnabled(false);
+        when(preferencesRepository.findByUserId(1L)).thenReturn(Optional.of(preferences));
+
+        assertTrue(preferencesService.shouldSendNotification(1L, "BOOKING_CONFIRMED", "EMAIL"));
+        assertFalse(preferencesService.shouldSendNotification(1L, "BOOKING_CONFIRMED", "SMS"));
+        assertFalse(preferencesService.shouldSendNotification(1L, "BOOKING_CONFIRMED", "WHATSAPP"));
+        assertTrue(preferencesService.shouldSendNotification(1L, "BOOKING_CONFIRMED", "PUSH"));
+
+        verify(preferencesRepository, times(1)).findByUserId(1L);
+    }
+
+    @Test
+    void testUserWithoutRowGetsDefaultsWithoutInsert() {
+        when(preferencesRepository.findByUserId(2L)).thenReturn(Optional.empty());
+
+        assertTrue(preferencesService.shouldSendNotification(2L, "PAYMENT_SUCCESS", "EMAIL"));
+        assertFalse(preferencesService.shouldSendNotification(2L, "PAYMENT_SUCCESS", "WHATSAPP"));
+
+        verify(preferencesRepository, never()).save(any());
+    }
+
+    @Test
+    void testBatchDecisionsLoadMissesInOneQuery() {
+        NotificationPreferences optedOut = preferences(10L, 1L);
+        optedOut.setCancellation(false);
+        when(preferencesRepository.findByUserId(11L)).thenReturn(Optional.of(preferences(11L, 1L)));
+        when(preferencesRepository.findByUserIdIn(anyCollection())).thenReturn(List.of(optedOut));
+
+        preferencesService.shouldSendNotification(11L, "CANCELLATION", "EMAIL");
+        Map<Long, Boolean> decisions = preferencesService.shouldSendNotifications(
+            List.of(10L, 11L, 12L), "CANCELLATION", "EMAIL");
+
+        assertEquals(Map.of(10L, false, 11L, true, 12L, true), decisions);
+        verify(preferencesRepository, times(1)).findByUserIdIn(List.of(10L, 12L));
+        preferencesService.shouldSendNotifications(List.of(10L, 11L, 12L), "CANCELLATION", "EMAIL");
+        verifyNoMoreInteractions(preferencesRepository);
+    }
+
+    @Test
+    void testUpdateRefreshesCachedDecision() {
+        NotificationPreferences stored = preferences(3L, 1L);
+        when(preferencesRepository.findByUserId(3L)).thenReturn(Optional.of(stored));
+        when(preferencesRepository.saveAndFlush(any())).thenAnswer(invocation -> {
+            NotificationPreferences saved = invocation.getArgument(0);
+            saved.setVersion(saved.getVersion() + 1);
+            return saved;
+        });
+        assertTrue(preferencesService.shouldSendNotification(3L, "BOOKING_REMINDER", "EMAIL"));
+
+        NotificationPreferences update = new NotificationPreferences();
+        update.setBookingReminder(false);
+        preferencesService.updatePreferences(3L, update);
+
+        assertFalse(preferencesService.shouldSendNotification(3L, "BOOKING_REMINDER", "EMAIL"));
+        assertEquals(2L, preferencesService.getCompiledPreferences(3L).version());
+    }
+
+    @Test
+    void testRemoteChangeEvictsOnlyOlderVersions() {
+        when(preferencesRepository.findByUserId(4L)).thenReturn(Optional.of(preferences(4L, 5L)));
+        preferencesService.getCompiledPreferences(4L);
+
+        preferencesCache.onPreferencesChanged(new NotificationPreferencesChangedEvent(4L, 5L));
+        assertEquals(1, preferencesCache.size());
+
+        preferencesCache.onPreferencesChanged(new NotificationPreferencesChangedEvent(4L, 6L));
+        assertEquals(0, preferencesCache.size());
+    }
+
+    @Test
+    void testQuietHoursSpanningMidnight() {
+        NotificationPreferences preferences = preferences(5L, 1L);
+        preferences.setQuietHoursEnabled(true);
+        preferences.setQuietHoursStart(LocalTime.of(22, 0));
+        preferences.setQuietHoursEnd(LocalTime.of(8, 0));
+        CompiledPreferences compiled = CompiledPreferences.of(preferences);
+
+        assertTrue(compiled.inQuietHours(23 * 60));
+        assertTrue(compiled.inQuietHours(7 * 60 + 59));
+        assertFalse(compiled.inQuietHours(8 * 60));
+        assertFalse(compiled.inQuietHours(12 * 60));
+
+        preferences.setQuietHoursEnabled(false);
+        assertFalse(CompiledPreferences.of(preferences).inQuietHours(23 * 60));
+    }
+
+    @Test
+    void testQuietHoursWithinOneDay() {
+        NotificationPreferences preferences = preferences(6L, 1L);
+        preferences.setQuietHoursEnabled(true);
+        preferences.setQuietHoursStart(LocalTime.of(13, 0));
+        preferences.setQuietHoursEnd(LocalTime.of(15, 0));
+        CompiledPreferences compiled = CompiledPreferences.of(preferences);
+
+        // Suppressed inside the window only, start inclusive and end exclusive
+        assertTrue(compiled.inQuietHours(13 * 60));
+        assertTrue(compiled.inQuietHours(14 * 60 + 30));
+        assertFalse(compiled.inQuietHours(15 * 60));
+        assertFalse(compiled.inQuietHours(12 * 60 + 59));
+        assertFalse(compiled.inQuietHours(23 * 60));
+    }
+
+    private NotificationPreferences preferences(Long userId, Long version) {
+        NotificationPreferences preferences = new NotificationPreferences();
+        preferences.setId(userId);
+        preferences.setUserId(userId);
+        preferences.setVersion(version);
+        return preferences;
+    }
+}
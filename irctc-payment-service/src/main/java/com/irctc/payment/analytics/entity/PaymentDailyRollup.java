@@ -0,0 +1,56 @@
+package com.irctc.payment.analytics.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Payment totals for one (day, gateway, payment method, status) bucket.
+ * The day is the payment's paymentTime date; payments without a gateway are
+ * kept under {@link #NO_GATEWAY}.
+ */
+@Entity
+@Table(name = "payment_daily_rollups", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_payment_rollup_bucket",
+        columnNames = {"rollup_date", "gateway_name", "payment_method", "status"})
+})
+@Data
+public class PaymentDailyRollup {
+    
+    public static final String NO_GATEWAY = "-";
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate rollupDate;
+    
+    @Column(name = "gateway_name", nullable = false, length = 50)
+    private String gatewayName;
+    
+    @Column(name = "payment_method", nullable = false, length = 50)
+    private String paymentMethod;
+    
+    @Column(nullable = false, length = 50)
+    private String status;
+    
+    @Column(nullable = false)
+    private Long transactions = 0L;
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount = BigDecimal.ZERO;
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal fees = BigDecimal.ZERO;
+    
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,32 @@
+package com.irctc.payment.analytics.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Single-row marker of the last day whose rollups were rebuilt from the
+ * payments table. Later days are answered from the payments table directly.
+ */
+@Entity
+@Table(name = "payment_rollup_state")
+@Data
+public class PaymentRollupState {
+    
+    public static final Long SINGLETON_ID = 1L;
+    
+    @Id
+    private Long id = SINGLETON_ID;
+    
+    @Column(name = "rebuilt_through", nullable = false)
+    private LocalDate rebuiltThrough;
+    
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,40 @@
+package com.irctc.payment.analytics.repository;
+
+import com.irctc.payment.analytics.entity.PaymentDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface PaymentDailyRollupRepository extends JpaRepository<PaymentDailyRollup, Long> {
+    
+    List<PaymentDailyRollup> findByRollupDateBetween(LocalDate startDate, LocalDate endDate);
+    
+    /**
+     * Add a delta to an existing bucket; returns 0 when the bucket does not exist yet
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE PaymentDailyRollup r SET r.transactions = r.transactions + :transactions, " +
+           "r.amount = r.amount + :amount, r.fees = r.fees + :fees, r.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE r.rollupDate = :rollupDate AND r.gatewayName = :gatewayName " +
+           "AND r.paymentMethod = :paymentMethod AND r.status = :status")
+    int addToBucket(@Param("rollupDate") LocalDate rollupDate,
+                    @Param("gatewayName") String gatewayName,
+                    @Param("paymentMethod") String paymentMethod,
+                    @Param("status") String status,
+                    @Param("transactions") long transactions,
+                    @Param("amount") BigDecimal amount,
+                    @Param("fees") BigDecimal fees);
+    
+    @Modifying
+    @Query("DELETE FROM PaymentDailyRollup r WHERE r.rollupDate = :rollupDate")
+    int deleteByRollupDate(@Param("rollupDate") LocalDate rollupDate);
+}
@@ -0,0 +1,9 @@
+package com.irctc.payment.analytics.repository;
+
+import com.irctc.payment.analytics.entity.PaymentRollupState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PaymentRollupStateRepository extends JpaRepository<PaymentRollupState, Long> {
+}
@@ -1,8 +1,7 @@
 package com.irctc.payment.analytics.service;
 
 import com.irctc.payment.analytics.dto.AnalyticsResponse;
-import com.irctc.payment.entity.SimplePayment;
-import com.irctc.payment.repository.SimplePaymentRepository;
+import com.irctc.payment.analytics.entity.PaymentDailyRollup;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,14 +11,18 @@ import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.TreeMap;
 
 /**
  * Service for payment analytics
+ *
+ * Reads are summed from the pre-aggregated (day, gateway, method, status)
+ * buckets kept by {@link PaymentRollupService}. Days that have not been
+ * rebuilt yet, normally just the current partial day, are aggregated from the
+ * payments table with a GROUP BY query instead of loading payment rows.
  */
 @Service
 public class AnalyticsService {
@@ -27,113 +30,53 @@ public class AnalyticsService {
     private static final Logger logger = LoggerFactory.getLogger(AnalyticsService.class);
     
     @Autowired
-    private SimplePaymentRepository paymentRepository;
+    private PaymentRollupService rollupService;
     
     @Cacheable(value = "analytics-overview", key = "#startDate.toString() + '-' + #endDate.toString()")
     public AnalyticsResponse.Overview getOverview(LocalDate startDate, LocalDate endDate) {
-        LocalDateTime start = startDate.atStartOfDay();
-        LocalDateTime end = endDate.atTime(23, 59, 59);
-        
-        List<SimplePayment> payments = paymentRepository.findByPaymentTimeBetween(start, end);
+        Totals totals = new Totals();
+        loadBuckets(startDate, endDate).forEach(totals::add);
         
         AnalyticsResponse.Overview overview = new AnalyticsResponse.Overview();
-        overview.setTotalTransactions((long) payments.size());
-        
-        long successful = payments.stream()
-            .filter(p -> "COMPLETED".equals(p.getStatus()) || "SUCCESS".equals(p.getStatus()))
-            .count();
-        overview.setSuccessfulTransactions(successful);
-        
-        long failed = payments.stream()
-            .filter(p -> "FAILED".equals(p.getStatus()))
-            .count();
-        overview.setFailedTransactions(failed);
-        
-        BigDecimal totalAmount = payments.stream()
-            .filter(p -> "COMPLETED".equals(p.getStatus()) || "SUCCESS".equals(p.getStatus()))
-            .map(p -> BigDecimal.valueOf(p.getAmount()))
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-        overview.setTotalAmount(totalAmount);
-        
-        BigDecimal totalFees = payments.stream()
-            .filter(p -> p.getGatewayFee() != null)
-            .map(p -> BigDecimal.valueOf(p.getGatewayFee()))
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-        overview.setTotalFees(totalFees);
-        
-        if (successful > 0) {
-            overview.setAverageTransactionAmount(totalAmount.divide(
-                BigDecimal.valueOf(successful), 2, RoundingMode.HALF_UP));
+        overview.setTotalTransactions(totals.transactions);
+        overview.setSuccessfulTransactions(totals.successful);
+        overview.setFailedTransactions(totals.failed);
+        overview.setTotalAmount(totals.successfulAmount);
+        overview.setTotalFees(totals.fees);
+        
+        if (totals.successful > 0) {
+            overview.setAverageTransactionAmount(totals.successfulAmount.divide(
+                BigDecimal.valueOf(totals.successful), 2, RoundingMode.HALF_UP));
         } else {
             overview.setAverageTransactionAmount(BigDecimal.ZERO);
         }
-        
-        if (payments.size() > 0) {
-            overview.setSuccessRate((double) successful / payments.size() * 100.0);
-        } else {
-            overview.setSuccessRate(0.0);
-        }
-        
-        long refunds = payments.stream()
-            .filter(p -> "REFUNDED".equals(p.getStatus()))
-            .count();
-        overview.setRefundsCount(refunds);
-        
-        BigDecimal refundsAmount = payments.stream()
-            .filter(p -> "REFUNDED".equals(p.getStatus()))
-            .map(p -> BigDecimal.valueOf(p.getAmount()))
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-        overview.setRefundsAmount(refundsAmount);
+        overview.setSuccessRate(totals.successRate());
+        overview.setRefundsCount(totals.refunds);
+        overview.setRefundsAmount(totals.refundsAmount);
         
         return overview;
     }
     
     public List<AnalyticsResponse.DailyStats> getDailyStats(LocalDate startDate, LocalDate endDate) {
-        LocalDateTime start = startDate.atStartOfDay();
-        LocalDateTime end = endDate.atTime(23, 59, 59);
-        
-        List<SimplePayment> payments = paymentRepository.findByPaymentTimeBetween(start, end);
-        
-        Map<LocalDate, List<SimplePayment>> paymentsByDate = payments.stream()
-            .collect(Collectors.groupingBy(p -> p.getPaymentTime().toLocalDate()));
+        Map<LocalDate, Totals> totalsByDate = new TreeMap<>();
+        for (PaymentDailyRollup bucket : loadBuckets(startDate, endDate)) {
+            totalsByDate.computeIfAbsent(bucket.getRollupDate(), d -> new Totals()).add(bucket);
+        }
         
         List<AnalyticsResponse.DailyStats> stats = new ArrayList<>();
         
         LocalDate current = startDate;
         while (!current.isAfter(endDate)) {
-            List<SimplePayment> dayPayments = paymentsByDate.getOrDefault(current, List.of());
+            Totals totals = totalsByDate.getOrDefault(current, new Totals());
             
             AnalyticsResponse.DailyStats dailyStats = new AnalyticsResponse.DailyStats();
             dailyStats.setDate(current);
-            dailyStats.setTransactions((long) dayPayments.size());
-            
-            long successful = dayPayments.stream()
-                .filter(p -> "COMPLETED".equals(p.getStatus()) || "SUCCESS".equals(p.getStatus()))
-                .count();
-            dailyStats.setSuccessfulTransactions(successful);
-            
-            long failed = dayPayments.stream()
-                .filter(p -> "FAILED".equals(p.getStatus()))
-                .count();
-            dailyStats.setFailedTransactions(failed);
-            
-            BigDecimal totalAmount = dayPayments.stream()
-                .filter(p -> "COMPLETED".equals(p.getStatus()) || "SUCCESS".equals(p.getStatus()))
-                .map(p -> BigDecimal.valueOf(p.getAmount()))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-            dailyStats.setTotalAmount(totalAmount);
-            
-            BigDecimal totalFees = dayPayments.stream()
-                .filter(p -> p.getGatewayFee() != null)
-                .map(p -> BigDecimal.valueOf(p.getGatewayFee()))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-            dailyStats.setTotalFees(totalFees);
-            
-            if (dayPayments.size() > 0) {
-                dailyStats.setSuccessRate((double) successful / dayPayments.size() * 100.0);
-            } else {
-                dailyStats.setSuccessRate(0.0);
-            }
+            dailyStats.setTransactions(totals.transactions);
+            dailyStats.setSuccessfulTransactions(totals.successful);
+            dailyStats.setFailedTransactions(totals.failed);
+            dailyStats.setTotalAmount(totals.successfulAmount);
+            dailyStats.setTotalFees(totals.fees);
+            dailyStats.setSuccessRate(totals.successRate());
             
             stats.add(dailyStats);
             current = current.plusDays(1);
@@ -155,104 +98,117 @@ public class AnalyticsService {
     }
     
     public List<AnalyticsResponse.GatewayPerformance> getGatewayPerformance(LocalDate startDate, LocalDate endDate) {
-        LocalDateTime start = startDate.atStartOfDay();
-        LocalDateTime end = endDate.atTime(23, 59, 59);
-        
-        List<SimplePayment> payments = paymentRepository.findByPaymentTimeBetween(start, end);
-        
-        Map<String, List<SimplePayment>> paymentsByGateway = payments.stream()
-            .filter(p -> p.getGatewayName() != null)
-            .collect(Collectors.groupingBy(SimplePayment::getGatewayName));
+        Map<String, Totals> totalsByGateway = new TreeMap<>();
+        for (PaymentDailyRollup bucket : loadBuckets(startDate, endDate)) {
+            if (!PaymentDailyRollup.NO_GATEWAY.equals(bucket.getGatewayName())) {
+                totalsByGateway.computeIfAbsent(bucket.getGatewayName(), g -> new Totals()).add(bucket);
+            }
+        }
         
-        return paymentsByGateway.entrySet().stream()
-            .map(entry -> {
-                List<SimplePayment> gatewayPayments = entry.getValue();
-                
-                AnalyticsResponse.GatewayPerformance performance = new AnalyticsResponse.GatewayPerformance();
-                performance.setGatewayName(entry.getKey());
-                performance.setTransactions((long) gatewayPayments.size());
-                
-                long successful = gatewayPayments.stream()
-                    .filter(p -> "COMPLETED".equals(p.getStatus()) || "SUCCESS".equals(p.getStatus()))
-                    .count();
-                performance.setSuccessfulTransactions(successful);
-                
-                long failed = gatewayPayments.stream()
-                    .filter(p -> "FAILED".equals(p.getStatus()))
-                    .count();
-                performance.setFailedTransactions(failed);
-                
-                BigDecimal totalAmount = gatewayPayments.stream()
-                    .filter(p -> "COMPLETED".equals(p.getStatus()) || "SUCCESS".equals(p.getStatus()))
-                    .map(p -> BigDecimal.valueOf(p.getAmount()))
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-                performance.setTotalAmount(totalAmount);
-                
-                BigDecimal totalFees = gatewayPayments.stream()
-                    .filter(p -> p.getGatewayFee() != null)
-                    .map(p -> BigDecimal.valueOf(p.getGatewayFee()))
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-                performance.setTotalFees(totalFees);
-                
-                if (gatewayPayments.size() > 0) {
-                    performance.setSuccessRate((double) successful / gatewayPayments.size() * 100.0);
-                } else {
-                    performance.setSuccessRate(0.0);
-                }
-                
-                if (successful > 0) {
-                    performance.setAverageFee(totalFees.divide(
-                        BigDecimal.valueOf(successful), 2, RoundingMode.HALF_UP));
-                } else {
-                    performance.setAverageFee(BigDecimal.ZERO);
-                }
-                
-                return performance;
-            })
-            .collect(Collectors.toList());
+        List<AnalyticsResponse.GatewayPerformance> result = new ArrayList<>(totalsByGateway.size());
+        totalsByGateway.forEach((gatewayName, totals) -> {
+            AnalyticsResponse.GatewayPerformance performance = new AnalyticsResponse.GatewayPerformance();
+            performance.setGatewayName(gatewayName);
+            performance.setTransactions(totals.transactions);
+            performance.setSuccessfulTransactions(totals.successful);
+            performance.setFailedTransactions(totals.failed);
+            performance.setTotalAmount(totals.successfulAmount);
+            performance.setTotalFees(totals.fees);
+            performance.setSuccessRate(totals.successRate());
+            
+            if (totals.successful > 0) {
+                performance.setAverageFee(totals.fees.divide(
+                    BigDecimal.valueOf(totals.successful), 2, RoundingMode.HALF_UP));
+            } else {
+                performance.setAverageFee(BigDecimal.ZERO);
+            }
+            result.add(performance);
+        });
+        return result;
     }
     
     public List<AnalyticsResponse.PaymentMethodStats> getPaymentMethodStats(LocalDate startDate, LocalDate endDate) {
-        LocalDateTime start = startDate.atStartOfDay();
-        LocalDateTime end = endDate.atTime(23, 59, 59);
-        
-        List<SimplePayment> payments = paymentRepository.findByPaymentTimeBetween(start, end);
+        Map<String, Totals> totalsByMethod = new TreeMap<>();
+        Totals overall = new Totals();
+        for (PaymentDailyRollup bucket : loadBuckets(startDate, endDate)) {
+            totalsByMethod.computeIfAbsent(bucket.getPaymentMethod(), m -> new Totals()).add(bucket);
+            overall.add(bucket);
+        }
         
-        Map<String, List<SimplePayment>> paymentsByMethod = payments.stream()
-            .collect(Collectors.groupingBy(SimplePayment::getPaymentMethod));
+        List<AnalyticsResponse.PaymentMethodStats> result = new ArrayList<>(totalsByMethod.size());
+        totalsByMethod.forEach((paymentMethod, totals) -> {
+            AnalyticsResponse.PaymentMethodStats stats = new AnalyticsResponse.PaymentMethodStats();
+            stats.setPaymentMethod(paymentMethod);
+            stats.setTransactions(totals.transactions);
+            stats.setSuccessfulTransactions(totals.successful);
+            stats.setTotalAmount(totals.successfulAmount);
+            
+            if (overall.successful > 0) {
+                stats.setPercentage((double) totals.successful / overall.successful * 100.0);
+            } else {
+                stats.setPercentage(0.0);
+            }
+            result.add(stats);
+        });
+        return result;
+    }
+    
+    /**
+     * Buckets for [startDate, endDate]: stored rollups up to the last rebuilt day,
+     * then a raw aggregate per remaining day up to today
+     */
+    private List<PaymentDailyRollup> loadBuckets(LocalDate startDate, LocalDate endDate) {
+        List<PaymentDailyRollup> buckets = new ArrayList<>();
+        LocalDate rawFrom = startDate;
+        
+        LocalDate rebuiltThrough = rollupService.getRebuiltThrough();
+        if (rebuiltThrough != null && !rebuiltThrough.isBefore(startDate)) {
+            LocalDate rollupEnd = endDate.isBefore(rebuiltThrough) ? endDate : rebuiltThrough;
+            buckets.addAll(rollupService.getRollups(startDate, rollupEnd));
+            rawFrom = rollupEnd.plusDays(1);
+        }
         
-        long totalSuccessful = payments.stream()
-            .filter(p -> "COMPLETED".equals(p.getStatus()) || "SUCCESS".equals(p.getStatus()))
-            .count();
+        LocalDate today = LocalDate.now();
+        LocalDate rawTo = endDate.isAfter(today) ? today : endDate;
+        if (!rawFrom.isAfter(rawTo) && rawFrom.isBefore(today)) {
+            logger.debug("Rollups not rebuilt for {} to {}, aggregating from payments", rawFrom, rawTo);
+        }
+        for (LocalDate day = rawFrom; !day.isAfter(rawTo); day = day.plusDays(1)) {
+            buckets.addAll(rollupService.aggregateDay(day));
+        }
+        return buckets;
+    }
+    
+    /**
+     * Running totals over a set of buckets
+     */
+    private static final class Totals {
+        private long transactions;
+        private long successful;
+        private long failed;
+        private long refunds;
+        private BigDecimal successfulAmount = BigDecimal.ZERO;
+        private BigDecimal refundsAmount = BigDecimal.ZERO;
+        private BigDecimal fees = BigDecimal.ZERO;
+        
+        void add(PaymentDailyRollup bucket) {
+            long count = bucket.getTransactions();
+            transactions += count;
+            fees = fees.add(bucket.getFees());
+            String status = bucket.getStatus();
+            if ("COMPLETED".equals(status) || "SUCCESS".equals(status)) {
+                successful += count;
+                successfulAmount = successfulAmount.add(bucket.getAmount());
+            } else if ("FAILED".equals(status)) {
+                failed += count;
+            } else if ("REFUNDED".equals(status)) {
+                refunds += count;
+                refundsAmount = refundsAmount.add(bucket.getAmount());
+            }
+        }
         
-        return paymentsByMethod.entrySet().stream()
-            .map(entry -> {
-                List<SimplePayment> methodPayments = entry.getValue();
-                
-                AnalyticsResponse.PaymentMethodStats stats = new AnalyticsResponse.PaymentMethodStats();
-                stats.setPaymentMethod(entry.getKey());
-                stats.setTransactions((long) methodPayments.size());
-                
-                long successful = methodPayments.stream()
-                    .filter(p -> "COMPLETED".equals(p.getStatus()) || "SUCCESS".equals(p.getStatus()))
-                    .count();
-                stats.setSuccessfulTransactions(successful);
-                
-                BigDecimal totalAmount = methodPayments.stream()
-                    .filter(p -> "COMPLETED".equals(p.getStatus()) || "SUCCESS".equals(p.getStatus()))
-                    .map(p -> BigDecimal.valueOf(p.getAmount()))
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-                stats.setTotalAmount(totalAmount);
-                
-                if (totalSuccessful > 0) {
-                    stats.setPercentage((double) successful / totalSuccessful * 100.0);
-                } else {
-                    stats.setPercentage(0.0);
-                }
-                
-                return stats;
-            })
-            .collect(Collectors.toList());
+        double successRate() {
+            return transactions > 0 ? (double) successful / transactions * 100.0 : 0.0;
+        }
     }
 }
-
@@ -0,0 +1,251 @@
+package com.irctc.payment.analytics.service;
+
+import com.irctc.payment.analytics.entity.PaymentDailyRollup;
+import com.irctc.payment.analytics.entity.PaymentRollupState;
+import com.irctc.payment.analytics.repository.PaymentDailyRollupRepository;
+import com.irctc.payment.analytics.repository.PaymentRollupStateRepository;
+import com.irctc.payment.entity.SimplePayment;
+import com.irctc.payment.repository.SimplePaymentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Maintains the per (day, gateway, method, status) payment rollups read by
+ * {@link AnalyticsService}.
+ *
+ * Payment writes move one payment between buckets as they happen. Closed days
+ * are additionally rebuilt once from the payments table, which doubles as the
+ * one-time backfill of history: the first run starts from the earliest payment
+ * and walks forward a day at a time, recording progress in
+ * payment_rollup_state so an interrupted backfill resumes where it stopped.
+ */
+@Service
+public class PaymentRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentRollupService.class);
+
+    private static final int MONEY_SCALE = 2;
+
+    @Autowired
+    private PaymentDailyRollupRepository rollupRepository;
+
+    @Autowired
+    private PaymentRollupStateRepository stateRepository;
+
+    @Autowired
+    private SimplePaymentRepository paymentRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final AtomicBoolean catchingUp = new AtomicBoolean();
+
+    /**
+     * The bucket a payment counts towards and what it contributes to it
+     */
+    public record Snapshot(LocalDate day, String gatewayName, String paymentMethod, String status,
+                           BigDecimal amount, BigDecimal fee) {
+    }
+
+    /**
+     * Bucket contribution of a payment as it is now, or null if it is not counted
+     * (no payment time yet)
+     */
+    public static Snapshot snapshot(SimplePayment payment) {
+        if (payment == null || payment.getPaymentTime() == null || payment.getStatus() == null
+            || payment.getPaymentMethod() == null) {
+            return null;
+        }
+        return new Snapshot(
+            payment.getPaymentTime().toLocalDate(),
+            payment.getGatewayName() != null ? payment.getGatewayName() : PaymentDailyRollup.NO_GATEWAY,
+            payment.getPaymentMethod(),
+            payment.getStatus(),
+            money(payment.getAmount()),
+            money(payment.getGatewayFee()));
+    }
+
+    /**
+     * Move a saved payment from the bucket it was counted in (null for a new
+     * payment) to the bucket it belongs to now
+     */
+    public void recordTransition(Snapshot before, SimplePayment payment) {
+        Snapshot after = snapshot(payment);
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        if (before != null) {
+            addToBucket(before, -1);
+        }
+        if (after != null) {
+            addToBucket(after, 1);
+        }
+    }
+
+    /**
+     * Last day whose rollups are complete, or null before the backfill has finished its first day
+     */
+    public LocalDate getRebuiltThrough() {
+        return stateRepository.findById(PaymentRollupState.SINGLETON_ID)
+            .map(PaymentRollupState::getRebuiltThrough)
+            .orElse(null);
+    }
+
+    /**
+     * Rollups for [startDate, endDate]
+     */
+    public List<PaymentDailyRollup> getRollups(LocalDate startDate, LocalDate endDate) {
+        return rollupRepository.findByRollupDateBetween(startDate, endDate);
+    }
+
+    /**
+     * Aggregate one day straight from the payments table. The returned buckets are not persisted.
+     */
+    public List<PaymentDailyRollup> aggregateDay(LocalDate day) {
+        List<Object[]> rows = paymentRepository.aggregateByPaymentTime(
+            day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+        List<PaymentDailyRollup> buckets = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            PaymentDailyRollup bucket = new PaymentDailyRollup();
+            bucket.setRollupDate(day);
+            bucket.setGatewayName(row[0] != null ? (String) row[0] : PaymentDailyRollup.NO_GATEWAY);
+            bucket.setPaymentMethod((String) row[1]);
+            bucket.setStatus((String) row[2]);
+            bucket.setTransactions(((Number) row[3]).longValue());
+            bucket.setAmount(money((Number) row[4]));
+            bucket.setFees(money((Number) row[5]));
+            buckets.add(bucket);
+        }
+        return buckets;
+    }
+
+    /**
+     * Rebuild every closed day after the last rebuilt one. The first run backfills all history.
+     */
+    @Scheduled(initialDelayString = "${payment.analytics.rollup.initial-delay-ms:30000}",
+               fixedDelayString = "${payment.analytics.rollup.catch-up-interval-ms:900000}")
+    public void catchUp() {
+        if (!catchingUp.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            LocalDate yesterday = LocalDate.now().minusDays(1);
+            LocalDate rebuiltThrough = getRebuiltThrough();
+            LocalDate next;
+            if (rebuiltThrough != null) {
+                next = rebuiltThrough.plusDays(1);
+            } else {
+                LocalDateTime earliest = paymentRepository.findEarliestPaymentTime();
+                next = earliest != null ? earliest.toLocalDate() : LocalDate.now();
+                logger.info("📊 Backfilling payment rollups from {}", next);
+            }
+
+            int days = 0;
+            while (!next.isAfter(yesterday)) {
+                rebuildDay(next);
+                next = next.plusDays(1);
+                days++;
+            }
+            if (rebuiltThrough == null && days == 0) {
+                // Nothing before today: mark history as covered so reads use the rollups
+                markRebuiltThrough(yesterday);
+            }
+            if (days > 0) {
+                logger.info("📊 Rebuilt payment rollups for {} day(s) through {}", days, yesterday);
+            }
+        } catch (Exception e) {
+            logger.error("Payment rollup catch-up failed: {}", e.getMessage(), e);
+        } finally {
+            catchingUp.set(false);
+        }
+    }
+
+    /**
+     * Replace one day's buckets with totals from the payments table and advance the marker
+     */
+    public void rebuildDay(LocalDate day) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            List<PaymentDailyRollup> buckets = aggregateDay(day);
+            rollupRepository.deleteByRollupDate(day);
+            rollupRepository.saveAll(buckets);
+            markRebuiltThrough(day);
+        });
+    }
+
+    private void markRebuiltThrough(LocalDate day) {
+        PaymentRollupState state = stateRepository.findById(PaymentRollupState.SINGLETON_ID)
+            .orElseGet(PaymentRollupState::new);
+        state.setRebuiltThrough(day);
+        stateRepository.save(state);
+    }
+
+    private void addToBucket(Snapshot snapshot, int sign) {
+        long transactions = sign;
+        BigDecimal amount = sign < 0 ? snapshot.amount().negate() : snapshot.amount();
+        BigDecimal fee = sign < 0 ? snapshot.fee().negate() : snapshot.fee();
+        if (update(snapshot, transactions, amount, fee)) {
+            return;
+        }
+        PaymentDailyRollup bucket = new PaymentDailyRollup();
+        bucket.setRollupDate(snapshot.day());
+        bucket.setGatewayName(snapshot.gatewayName());
+        bucket.setPaymentMethod(snapshot.paymentMethod());
+        bucket.setStatus(snapshot.status());
+        bucket.setTransactions(transactions);
+        bucket.setAmount(amount);
+        bucket.setFees(fee);
+        try {
+            rollupRepository.saveAndFlush(bucket);
+        } catch (DataIntegrityViolationException e) {
+            // Another writer created the bucket first
+            if (!update(snapshot, transactions, amount, fee)) {
+                throw e;
+            }
+        }
+    }
+
+    private boolean update(Snapshot snapshot, long transactions, BigDecimal amount, BigDecimal fee) {
+        return rollupRepository.addToBucket(snapshot.day(), snapshot.gatewayName(), snapshot.paymentMethod(),
+            snapshot.status(), transactions, amount, fee) > 0;
+    }
+
+    /**
+     * Amounts in rupees at paise scale. Exact sums (BigDecimal, integers) are
+     * never routed through a double; doubles go through their shortest decimal
+     * form, so 0.1 stays 0.10 rather than 0.1000000000000000055...
+     */
+    static BigDecimal money(Number value) {
+        if (value == null) {
+            return BigDecimal.ZERO.setScale(MONEY_SCALE);
+        }
+        BigDecimal decimal;
+        if (value instanceof BigDecimal exact) {
+            decimal = exact;
+        } else if (value instanceof BigInteger integer) {
+            decimal = new BigDecimal(integer);
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            decimal = BigDecimal.valueOf(value.longValue());
+        } else if (value instanceof Float) {
+            decimal = new BigDecimal(value.toString());
+        } else {
+            decimal = BigDecimal.valueOf(value.doubleValue());
+        }
+        return decimal.setScale(MONEY_SCALE, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,24 @@
+package com.irctc.payment.client;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
+
+/**
+ * Feign client for Booking Service data exports
+ */
+@FeignClient(name = "irctc-booking-service", contextId = "bookingIdExportClient")
+public interface BookingServiceClient {
+
+    /**
+     * Keyset page of the IDs of a user's bookings greater than afterId, in ID order
+     */
+    @GetMapping("/api/bookings/export/ids")
+    List<Long> exportBookingIds(@RequestHeader(value = "X-Tenant-Id", required = false) String tenantId,
+                                @RequestParam("userId") Long userId,
+                                @RequestParam("afterId") Long afterId,
+                                @RequestParam("limit") int limit);
+}
@@ -40,6 +40,18 @@ public class SimplePaymentController {
         return ResponseEntity.ok(paymentService.getPaymentsByBookingId(bookingId));
     }
 
+    /**
+     * Keyset-paginated payments of a user's bookings for data exports, ordered by booking ID then ID
+     * GET /api/payments/export?userId=1&afterBookingId=0&afterId=0&limit=500
+     */
+    @GetMapping("/export")
+    public ResponseEntity<List<SimplePayment>> exportPayments(@RequestParam Long userId,
+                                                              @RequestParam(defaultValue = "0") Long afterBookingId,
+                                                              @RequestParam(defaultValue = "0") Long afterId,
+                                                              @RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(paymentService.getPaymentsForExport(userId, afterBookingId, afterId, limit));
+    }
+
     @PostMapping
     public ResponseEntity<SimplePayment> processPayment(@RequestBody SimplePayment payment,
                                                          @RequestParam(value = "gateway", required = false) String preferredGateway) {
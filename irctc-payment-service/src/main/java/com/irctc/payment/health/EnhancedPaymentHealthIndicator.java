@@ -1,236 +1,50 @@
 package com.irctc.payment.health;
 
-import com.netflix.appinfo.InstanceInfo;
-import com.netflix.discovery.EurekaClient;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.irctc.shared.health.DependencyHealthMonitor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthIndicator;
-import org.springframework.boot.actuate.health.Status;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
-import javax.sql.DataSource;
-import java.sql.Connection;
-import java.sql.DatabaseMetaData;
-import java.time.Duration;
-import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
 
 /**
  * Enhanced Health Indicator for Payment Service
  * 
+ * Reports the latest background results of {@link DependencyHealthMonitor}
+ * with their age; nothing is checked on the probe path.
+ * 
  * @author IRCTC Development Team
- * @version 2.0.0
+ * @version 2.1.0
  */
 @Component
 public class EnhancedPaymentHealthIndicator implements HealthIndicator {
 
-    private static final Logger logger = LoggerFactory.getLogger(EnhancedPaymentHealthIndicator.class);
-
-    @Autowired(required = false)
-    private DataSource dataSource;
-
-    @Autowired(required = false)
-    private JdbcTemplate jdbcTemplate;
-
-    @Autowired(required = false)
-    private RedisTemplate<String, Object> redisTemplate;
-
-    @Autowired(required = false)
-    private EurekaClient eurekaClient;
+    @Autowired
+    private DependencyHealthMonitor healthMonitor;
 
     @Override
     public Health health() {
         Map<String, Object> details = new HashMap<>();
         Map<String, Object> components = new HashMap<>();
-        boolean isHealthy = true;
-        Status overallStatus = Status.UP;
-
-        Instant startTime = Instant.now();
 
-        // Database Health Check
-        Map<String, Object> dbHealth = checkDatabase();
-        components.put("database", dbHealth);
-        if (!Boolean.TRUE.equals(dbHealth.get("status"))) {
-            isHealthy = false;
-            overallStatus = Status.DOWN;
-        }
+        // Database is required; Redis and Eureka are informational
+        components.put("database", healthMonitor.describe(DependencyHealthMonitor.DATABASE));
+        components.put("redis", healthMonitor.describe(DependencyHealthMonitor.REDIS));
+        components.put("eureka", healthMonitor.describe(DependencyHealthMonitor.EUREKA));
+        boolean isHealthy = healthMonitor.isHealthy(DependencyHealthMonitor.DATABASE);
 
-        // Redis Health Check (Optional)
-        Map<String, Object> redisHealth = checkRedis();
-        components.put("redis", redisHealth);
-
-        // Eureka Health Check
-        Map<String, Object> eurekaHealth = checkEureka();
-        components.put("eureka", eurekaHealth);
-
-        // Service Statistics
-        Map<String, Object> stats = getServiceStatistics();
-        components.put("statistics", stats);
-
-        Duration checkDuration = Duration.between(startTime, Instant.now());
-        details.put("checkDuration", checkDuration.toMillis() + "ms");
         details.put("timestamp", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
         details.put("service", "irctc-payment-service");
-        details.put("version", "2.0.0");
+        details.put("version", "2.1.0");
         details.put("components", components);
 
         Health.Builder healthBuilder = isHealthy ? Health.up() : Health.down();
         return healthBuilder
-                .status(overallStatus)
                 .withDetails(details)
                 .build();
     }
-
-    private Map<String, Object> checkDatabase() {
-        Map<String, Object> dbHealth = new HashMap<>();
-        dbHealth.put("status", false);
-        
-        if (dataSource == null) {
-            dbHealth.put("status", null);
-            dbHealth.put("message", "not configured");
-            return dbHealth;
-        }
-
-        try {
-            Instant start = Instant.now();
-            try (Connection connection = dataSource.getConnection()) {
-                boolean valid = connection.isValid(2);
-                Duration duration = Duration.between(start, Instant.now());
-                
-                if (valid) {
-                    DatabaseMetaData metaData = connection.getMetaData();
-                    dbHealth.put("status", true);
-                    dbHealth.put("url", metaData.getURL());
-                    dbHealth.put("driverName", metaData.getDriverName());
-                    dbHealth.put("responseTime", duration.toMillis() + "ms");
-                    
-                    if (jdbcTemplate != null) {
-                        try {
-                            Instant queryStart = Instant.now();
-                            Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM payments", Long.class);
-                            Duration queryDuration = Duration.between(queryStart, Instant.now());
-                            dbHealth.put("queryTest", "success");
-                            dbHealth.put("queryTime", queryDuration.toMillis() + "ms");
-                        } catch (Exception e) {
-                            dbHealth.put("queryTest", "failed: " + e.getMessage());
-                        }
-                    }
-                } else {
-                    dbHealth.put("status", false);
-                    dbHealth.put("message", "connection validation failed");
-                }
-            }
-        } catch (Exception e) {
-            logger.error("Database health check failed", e);
-            dbHealth.put("status", false);
-            dbHealth.put("message", "error: " + e.getMessage());
-        }
-        
-        return dbHealth;
-    }
-
-    private Map<String, Object> checkRedis() {
-        Map<String, Object> redisHealth = new HashMap<>();
-        redisHealth.put("status", false);
-        redisHealth.put("required", false);
-        
-        if (redisTemplate == null) {
-            redisHealth.put("status", null);
-            redisHealth.put("message", "not configured");
-            return redisHealth;
-        }
-
-        try {
-            Instant start = Instant.now();
-            var connection = redisTemplate.getConnectionFactory().getConnection();
-            String pong = connection.ping();
-            Duration duration = Duration.between(start, Instant.now());
-            
-            redisHealth.put("status", true);
-            redisHealth.put("ping", pong);
-            redisHealth.put("responseTime", duration.toMillis() + "ms");
-            
-            try {
-                String testKey = "health-check:" + System.currentTimeMillis();
-                redisTemplate.opsForValue().set(testKey, "test", 1, TimeUnit.SECONDS);
-                Object value = redisTemplate.opsForValue().get(testKey);
-                redisTemplate.delete(testKey);
-                redisHealth.put("cacheTest", value != null ? "success" : "failed");
-            } catch (Exception e) {
-                redisHealth.put("cacheTest", "failed: " + e.getMessage());
-            }
-            
-            connection.close();
-        } catch (Exception e) {
-            logger.warn("Redis health check failed (optional)", e);
-            redisHealth.put("status", false);
-            redisHealth.put("message", "error: " + e.getMessage());
-        }
-        
-        return redisHealth;
-    }
-
-    private Map<String, Object> checkEureka() {
-        Map<String, Object> eurekaHealth = new HashMap<>();
-        eurekaHealth.put("status", false);
-        
-        if (eurekaClient == null) {
-            eurekaHealth.put("status", null);
-            eurekaHealth.put("message", "not configured");
-            return eurekaHealth;
-        }
-
-        try {
-            InstanceInfo instanceInfo = eurekaClient.getApplicationInfoManager().getInfo();
-            if (instanceInfo != null) {
-                eurekaHealth.put("status", true);
-                eurekaHealth.put("instanceId", instanceInfo.getInstanceId());
-                eurekaHealth.put("appName", instanceInfo.getAppName());
-                eurekaHealth.put("status", instanceInfo.getStatus().toString());
-            } else {
-                eurekaHealth.put("status", false);
-                eurekaHealth.put("message", "instance info not available");
-            }
-        } catch (Exception e) {
-            logger.warn("Eureka health check failed", e);
-            eurekaHealth.put("status", false);
-            eurekaHealth.put("message", "error: " + e.getMessage());
-        }
-        
-        return eurekaHealth;
-    }
-
-    private Map<String, Object> getServiceStatistics() {
-        Map<String, Object> stats = new HashMap<>();
-        
-        if (jdbcTemplate != null) {
-            try {
-                Long totalPayments = jdbcTemplate.queryForObject(
-                    "SELECT COUNT(*) FROM payments", Long.class);
-                stats.put("totalPayments", totalPayments != null ? totalPayments : 0);
-                
-                Long completedPayments = jdbcTemplate.queryForObject(
-                    "SELECT COUNT(*) FROM payments WHERE status = 'COMPLETED'", Long.class);
-                stats.put("completedPayments", completedPayments != null ? completedPayments : 0);
-                
-                Long refundedPayments = jdbcTemplate.queryForObject(
-                    "SELECT COUNT(*) FROM payments WHERE status = 'REFUNDED'", Long.class);
-                stats.put("refundedPayments", refundedPayments != null ? refundedPayments : 0);
-            } catch (Exception e) {
-                logger.debug("Failed to get service statistics", e);
-                stats.put("error", "unable to retrieve statistics");
-            }
-        }
-        
-        return stats;
-    }
 }
-
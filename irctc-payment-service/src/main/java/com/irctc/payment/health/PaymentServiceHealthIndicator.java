@@ -1,13 +1,11 @@
 package com.irctc.payment.health;
 
+import com.irctc.shared.health.DependencyHealthMonitor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthIndicator;
-import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
-import javax.sql.DataSource;
-import java.sql.Connection;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
@@ -16,52 +14,33 @@ import java.util.Map;
 /**
  * Custom Health Indicator for Payment Service
  * 
- * Checks connectivity and status of:
- * - Database
- * - Payment statistics
+ * Summarises the cached database check of {@link DependencyHealthMonitor}.
  * 
  * @author IRCTC Development Team
- * @version 1.0.0
+ * @version 1.1.0
  */
 @Component
 public class PaymentServiceHealthIndicator implements HealthIndicator {
 
-    @Autowired(required = false)
-    private DataSource dataSource;
-
-    @Autowired(required = false)
-    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private DependencyHealthMonitor healthMonitor;
 
     @Override
     public Health health() {
         Map<String, Object> details = new HashMap<>();
-        boolean isHealthy = true;
 
         // Check Database
-        if (dataSource != null) {
-            try (Connection connection = dataSource.getConnection()) {
-                boolean valid = connection.isValid(2);
-                details.put("database", valid ? "connected" : "disconnected");
-                details.put("databaseValidation", valid);
-                if (!valid) isHealthy = false;
-            } catch (Exception e) {
-                details.put("database", "error: " + e.getMessage());
-                details.put("databaseValidation", false);
-                isHealthy = false;
-            }
-        } else {
+        DependencyHealthMonitor.ProbeResult database = healthMonitor.getResult(DependencyHealthMonitor.DATABASE);
+        boolean isHealthy = database != null
+                && (database.status() == null || healthMonitor.isHealthy(DependencyHealthMonitor.DATABASE));
+        if (database == null) {
+            details.put("database", "awaiting first check");
+        } else if (database.status() == null) {
             details.put("database", "not configured");
-        }
-
-        // Get payment statistics if possible
-        if (jdbcTemplate != null) {
-            try {
-                Long totalPayments = jdbcTemplate.queryForObject(
-                    "SELECT COUNT(*) FROM payments", Long.class);
-                details.put("totalPayments", totalPayments != null ? totalPayments : 0);
-            } catch (Exception e) {
-                details.put("totalPayments", "unknown");
-            }
+        } else {
+            details.put("database", isHealthy ? "connected" : "disconnected");
+            details.put("databaseValidation", isHealthy);
+            details.put("databaseCheckAgeMs", database.ageMs());
         }
 
         // Add timestamp
@@ -79,4 +58,3 @@ public class PaymentServiceHealthIndicator implements HealthIndicator {
         }
     }
 }
-
@@ -1,6 +1,7 @@
 package com.irctc.payment.listener;
 
 import com.irctc.payment.service.AutomatedRefundService;
+import com.irctc.shared.events.BookingEvents;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,7 +9,6 @@ import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
-import java.util.Map;
 
 /**
  * Kafka listener for booking cancellation events to trigger automatic refunds
@@ -25,27 +25,16 @@ public class BookingCancellationListener {
      * Listen for booking cancellation events and trigger auto-refund
      */
     @KafkaListener(topics = "booking-cancelled", groupId = "payment-service-refund-group")
-    public void handleBookingCancellation(Map<String, Object> event) {
+    public void handleBookingCancellation(BookingEvents.BookingCancelledEvent event) {
         try {
-            logger.info("📥 Received booking cancellation event: {}", event);
+            logger.info("📥 Received booking cancellation event for booking: {}", event.getBookingId());
             
-            Long bookingId = Long.valueOf(event.get("bookingId").toString());
+            Long bookingId = event.getBookingId();
             LocalDateTime cancellationTime = LocalDateTime.now();
+            // The event carries the journey date only, not the departure time the refund policies are keyed on
             LocalDateTime departureTime = null;
-            String reason = "Booking cancellation";
-            
-            // Extract departure time if available
-            if (event.containsKey("departureTime")) {
-                departureTime = LocalDateTime.parse(event.get("departureTime").toString());
-            } else if (event.containsKey("travelDate")) {
-                // Fallback to travel date
-                departureTime = LocalDateTime.parse(event.get("travelDate").toString());
-            }
-            
-            // Extract cancellation reason if available
-            if (event.containsKey("cancellationReason")) {
-                reason = event.get("cancellationReason").toString();
-            }
+            String reason = event.getCancellationReason() != null
+                ? event.getCancellationReason() : "Booking cancellation";
             
             // Trigger automatic refund
             automatedRefundService.autoRefundOnCancellation(
@@ -58,4 +47,3 @@ public class BookingCancellationListener {
         }
     }
 }
-
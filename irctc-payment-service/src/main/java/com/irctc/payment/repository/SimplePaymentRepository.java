@@ -1,6 +1,7 @@
 package com.irctc.payment.repository;
 
 import com.irctc.payment.entity.SimplePayment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import java.util.List;
@@ -11,9 +12,43 @@ public interface SimplePaymentRepository extends JpaRepository<SimplePayment, Lo
     Optional<SimplePayment> findByTransactionId(String transactionId);
     List<SimplePayment> findByBookingId(Long bookingId);
     
+    /**
+     * Keyset page of the payments of a set of bookings after the (bookingId, id) cursor, in that order,
+     * used for bulk exports
+     */
+    @org.springframework.data.jpa.repository.Query("SELECT p FROM SimplePayment p WHERE p.bookingId IN :bookingIds " +
+        "AND (p.bookingId > :afterBookingId OR (p.bookingId = :afterBookingId AND p.id > :afterId)) " +
+        "ORDER BY p.bookingId ASC, p.id ASC")
+    List<SimplePayment> findExportPage(@org.springframework.data.repository.query.Param("bookingIds") List<Long> bookingIds,
+                                       @org.springframework.data.repository.query.Param("afterBookingId") Long afterBookingId,
+                                       @org.springframework.data.repository.query.Param("afterId") Long afterId,
+                                       Pageable pageable);
+
+    @org.springframework.data.jpa.repository.Query("SELECT p FROM SimplePayment p WHERE p.bookingId IN :bookingIds " +
+        "AND p.tenantId = :tenantId " +
+        "AND (p.bookingId > :afterBookingId OR (p.bookingId = :afterBookingId AND p.id > :afterId)) " +
+        "ORDER BY p.bookingId ASC, p.id ASC")
+    List<SimplePayment> findExportPageWithinTenant(@org.springframework.data.repository.query.Param("bookingIds") List<Long> bookingIds,
+                                                   @org.springframework.data.repository.query.Param("tenantId") String tenantId,
+                                                   @org.springframework.data.repository.query.Param("afterBookingId") Long afterBookingId,
+                                                   @org.springframework.data.repository.query.Param("afterId") Long afterId,
+                                                   Pageable pageable);
+    
     @org.springframework.data.jpa.repository.Query("SELECT p FROM SimplePayment p WHERE p.paymentTime BETWEEN :start AND :end")
     java.util.List<SimplePayment> findByPaymentTimeBetween(@org.springframework.data.repository.query.Param("start") java.time.LocalDateTime start, @org.springframework.data.repository.query.Param("end") java.time.LocalDateTime end);
     
+    /**
+     * Count, amount and fee totals per (gateway, method, status) for payments in [start, end).
+     * Each row is {gatewayName, paymentMethod, status, count, sum(amount), sum(gatewayFee)}.
+     */
+    @org.springframework.data.jpa.repository.Query("SELECT p.gatewayName, p.paymentMethod, p.status, COUNT(p), SUM(p.amount), SUM(p.gatewayFee) " +
+           "FROM SimplePayment p WHERE p.paymentTime >= :start AND p.paymentTime < :end " +
+           "GROUP BY p.gatewayName, p.paymentMethod, p.status")
+    List<Object[]> aggregateByPaymentTime(@org.springframework.data.repository.query.Param("start") java.time.LocalDateTime start, @org.springframework.data.repository.query.Param("end") java.time.LocalDateTime end);
+    
+    @org.springframework.data.jpa.repository.Query("SELECT MIN(p.paymentTime) FROM SimplePayment p")
+    java.time.LocalDateTime findEarliestPaymentTime();
+    
     List<SimplePayment> findByGatewayName(String gatewayName);
     List<SimplePayment> findByStatus(String status);
 }
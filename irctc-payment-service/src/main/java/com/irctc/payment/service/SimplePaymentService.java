@@ -1,5 +1,7 @@
 package com.irctc.payment.service;
 
+import com.irctc.payment.analytics.service.PaymentRollupService;
+import com.irctc.payment.client.BookingServiceClient;
 import com.irctc.payment.dto.PaymentRequest;
 import com.irctc.payment.dto.PaymentResponse;
 import com.irctc.payment.dto.RefundRequest;
@@ -19,9 +21,11 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -33,6 +37,11 @@ public class SimplePaymentService {
 
     private static final Logger logger = LoggerFactory.getLogger(SimplePaymentService.class);
 
+    /**
+     * Booking IDs fetched per call and bound per payment query during exports
+     */
+    private static final int EXPORT_BOOKING_BATCH = 500;
+
     @Autowired
     private SimplePaymentRepository paymentRepository;
     
@@ -47,6 +56,12 @@ public class SimplePaymentService {
     
     @Autowired(required = false)
     private WalletService walletService;
+    
+    @Autowired(required = false)
+    private PaymentRollupService rollupService;
+
+    @Autowired(required = false)
+    private BookingServiceClient bookingServiceClient;
 
     public List<SimplePayment> getAllPayments() {
         List<SimplePayment> payments = paymentRepository.findAll();
@@ -86,6 +101,43 @@ public class SimplePaymentService {
         return payment;
     }
 
+    /**
+     * Keyset page of the payments of a user's bookings after the (afterBookingId, afterId) cursor,
+     * ordered by booking ID then payment ID, for GDPR exports. The next page starts after the last
+     * payment's booking ID and ID.
+     * The bookings are asked from Booking Service rather than taken from the caller, so only the
+     * user's own payments can be exported. Bookings are read one batch at a time from the cursor's
+     * booking on, so a page costs the same however long the user's history is.
+     */
+    public List<SimplePayment> getPaymentsForExport(Long userId, Long afterBookingId, Long afterId, int limit) {
+        if (bookingServiceClient == null) {
+            throw new IllegalStateException("Booking Service is not available for payment exports");
+        }
+        int pageSize = Math.max(1, Math.min(limit, 1000));
+        long cursorBookingId = afterBookingId != null ? afterBookingId : 0L;
+        long after = afterId != null ? afterId : 0L;
+        String tenantId = TenantContext.hasTenant() ? TenantContext.getTenantId() : null;
+
+        List<SimplePayment> payments = new ArrayList<>();
+        // The cursor's booking may still have payments left, so the first batch starts with it
+        long bookingsAfter = cursorBookingId > 0 ? cursorBookingId - 1 : 0L;
+        while (payments.size() < pageSize) {
+            List<Long> bookingIds = bookingServiceClient.exportBookingIds(tenantId, userId, bookingsAfter, EXPORT_BOOKING_BATCH);
+            if (bookingIds.isEmpty()) {
+                break;
+            }
+            PageRequest remaining = PageRequest.of(0, pageSize - payments.size());
+            payments.addAll(tenantId != null
+                ? paymentRepository.findExportPageWithinTenant(bookingIds, tenantId, cursorBookingId, after, remaining)
+                : paymentRepository.findExportPage(bookingIds, cursorBookingId, after, remaining));
+            if (bookingIds.size() < EXPORT_BOOKING_BATCH) {
+                break;
+            }
+            bookingsAfter = bookingIds.get(bookingIds.size() - 1);
+        }
+        return payments;
+    }
+
     @Bulkhead(name = "payment-query", type = Bulkhead.Type.SEMAPHORE)
     @Cacheable(value = "payments-by-booking", key = "#bookingId")
     public List<SimplePayment> getPaymentsByBookingId(Long bookingId) {
@@ -203,6 +255,7 @@ public class SimplePaymentService {
         payment.setCreatedAt(LocalDateTime.now());
         
         SimplePayment saved = paymentRepository.save(payment);
+        recordRollup(null, saved);
         
         // Store event in event store (Event Sourcing)
         if (eventStore != null) {
@@ -317,6 +370,7 @@ public class SimplePaymentService {
             payment.setCreatedAt(LocalDateTime.now());
             
             SimplePayment saved = paymentRepository.save(payment);
+            recordRollup(null, saved);
             
             // Store event in event store
             if (eventStore != null) {
@@ -350,7 +404,9 @@ public class SimplePaymentService {
             payment.setTransactionId(UUID.randomUUID().toString());
             payment.setPaymentTime(LocalDateTime.now());
             payment.setCreatedAt(LocalDateTime.now());
-            return paymentRepository.save(payment);
+            SimplePayment saved = paymentRepository.save(payment);
+            recordRollup(null, saved);
+            return saved;
         }
     }
     
@@ -359,12 +415,16 @@ public class SimplePaymentService {
      */
     private SimplePayment processPaymentFallback(SimplePayment payment, String preferredGateway, Exception e) {
         logger.warn("Payment gateway circuit breaker triggered, using fallback: {}", e.getMessage());
+        // The payment may already have been saved (and rolled up) before the failure
+        PaymentRollupService.Snapshot before = payment.getId() != null ? PaymentRollupService.snapshot(payment) : null;
         payment.setTransactionId(UUID.randomUUID().toString());
         payment.setGatewayName("FALLBACK");
         payment.setPaymentTime(LocalDateTime.now());
         payment.setStatus("COMPLETED");
         payment.setCreatedAt(LocalDateTime.now());
-        return paymentRepository.save(payment);
+        SimplePayment saved = paymentRepository.save(payment);
+        recordRollup(before, saved);
+        return saved;
     }
 
     /**
@@ -377,6 +437,7 @@ public class SimplePaymentService {
     public SimplePayment refundPayment(Long id) {
         SimplePayment payment = paymentRepository.findById(id)
                 .orElseThrow(() -> new com.irctc.payment.exception.EntityNotFoundException("Payment", id));
+        PaymentRollupService.Snapshot before = PaymentRollupService.snapshot(payment);
         
         // Process wallet refund
         if ("WALLET".equals(payment.getGatewayName()) && walletService != null) {
@@ -433,6 +494,7 @@ public class SimplePaymentService {
         }
         
         SimplePayment saved = paymentRepository.save(payment);
+        recordRollup(before, saved);
         
         // Store event in event store (Event Sourcing)
         if (eventStore != null) {
@@ -456,4 +518,19 @@ public class SimplePaymentService {
         
         return saved;
     }
+    
+    /**
+     * Move the payment to its analytics rollup bucket. Failures are logged only,
+     * the payment itself is already saved.
+     */
+    private void recordRollup(PaymentRollupService.Snapshot before, SimplePayment saved) {
+        if (rollupService == null) {
+            return;
+        }
+        try {
+            rollupService.recordTransition(before, saved);
+        } catch (Exception e) {
+            logger.warn("Could not update payment rollup for payment {}: {}", saved.getId(), e.getMessage());
+        }
+    }
 }
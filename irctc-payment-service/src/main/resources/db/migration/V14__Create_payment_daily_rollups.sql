@@ -0,0 +1,24 @@
+-- Pre-aggregated payment totals per (day, gateway, method, status) for analytics
+
+CREATE TABLE IF NOT EXISTS payment_daily_rollups (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    rollup_date DATE NOT NULL,
+    gateway_name VARCHAR(50) NOT NULL,
+    payment_method VARCHAR(50) NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    transactions BIGINT NOT NULL DEFAULT 0,
+    amount DECIMAL(19, 2) NOT NULL DEFAULT 0,
+    fees DECIMAL(19, 2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP,
+    CONSTRAINT uk_payment_rollup_bucket UNIQUE (rollup_date, gateway_name, payment_method, status)
+);
+
+-- Tracks how far closed days have been rebuilt from the payments table
+CREATE TABLE IF NOT EXISTS payment_rollup_state (
+    id BIGINT PRIMARY KEY,
+    rebuilt_through DATE NOT NULL,
+    updated_at TIMESTAMP
+);
+
+-- Day-window scans for rebuilds and the current-day raw path
+CREATE INDEX IF NOT EXISTS idx_payments_payment_time ON payments(payment_time);
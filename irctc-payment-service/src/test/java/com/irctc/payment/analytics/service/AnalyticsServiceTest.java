@@ -0,0 +1,108 @@
+package com.irctc.payment.analytics.service;
+
+import com.irctc.payment.analytics.dto.AnalyticsResponse;
+import com.irctc.payment.analytics.entity.PaymentDailyRollup;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AnalyticsServiceTest {
+    
+    @Mock
+    private PaymentRollupService rollupService;
+    
+    @InjectMocks
+    private AnalyticsService analyticsService;
+    
+    private final LocalDate today = LocalDate.now();
+    
+    @Test
+    void testOverviewSumsRollupsAndScansOnlyToday() {
+        LocalDate start = today.minusDays(2);
+        when(rollupService.getRebuiltThrough()).thenReturn(today.minusDays(1));
+        when(rollupService.getRollups(start, today.minusDays(1))).thenReturn(List.of(
+            bucket(start, "RAZORPAY", "UPI", "SUCCESS", 3, "300.00", "6.00"),
+            bucket(start, "RAZORPAY", "UPI", "FAILED", 1, "100.00", "0.00"),
+            bucket(today.minusDays(1), "STRIPE", "CARD", "REFUNDED", 1, "50.00", "1.00")));
+        when(rollupService.aggregateDay(today)).thenReturn(List.of(
+            bucket(today, "STRIPE", "CARD", "COMPLETED", 1, "100.00", "2.00")));
+        
+        AnalyticsResponse.Overview overview = analyticsService.getOverview(start, today);
+        
+        assertEquals(6L, overview.getTotalTransactions());
+        assertEquals(4L, overview.getSuccessfulTransactions());
+        assertEquals(1L, overview.getFailedTransactions());
+        assertEquals(new BigDecimal("400.00"), overview.getTotalAmount());
+        assertEquals(new BigDecimal("9.00"), overview.getTotalFees());
+        assertEquals(new BigDecimal("100.00"), overview.getAverageTransactionAmount());
+        assertEquals(1L, overview.getRefundsCount());
+        assertEquals(new BigDecimal("50.00"), overview.getRefundsAmount());
+        verify(rollupService, times(1)).aggregateDay(any());
+    }
+    
+    @Test
+    void testDaysNotYetRebuiltAreAggregatedFromPayments() {
+        LocalDate start = today.minusDays(2);
+        when(rollupService.getRebuiltThrough()).thenReturn(today.minusDays(2));
+        when(rollupService.getRollups(start, start)).thenReturn(List.of());
+        when(rollupService.aggregateDay(any())).thenReturn(List.of());
+        
+        List<AnalyticsResponse.DailyStats> stats = analyticsService.getDailyStats(start, today.plusDays(1));
+        
+        assertEquals(4, stats.size());
+        verify(rollupService).aggregateDay(today.minusDays(1));
+        verify(rollupService).aggregateDay(today);
+        verify(rollupService, never()).aggregateDay(today.plusDays(1));
+    }
+    
+    @Test
+    void testDailyAndGatewayStatsGroupBuckets() {
+        LocalDate day = today.minusDays(5);
+        when(rollupService.getRebuiltThrough()).thenReturn(today.minusDays(1));
+        when(rollupService.getRollups(day, day)).thenReturn(List.of(
+            bucket(day, "RAZORPAY", "UPI", "SUCCESS", 2, "200.00", "4.00"),
+            bucket(day, "RAZORPAY", "CARD", "FAILED", 2, "80.00", "0.00"),
+            bucket(day, PaymentDailyRollup.NO_GATEWAY, "CARD", "COMPLETED", 1, "10.00", "0.00")));
+        
+        List<AnalyticsResponse.DailyStats> daily = analyticsService.getDailyStats(day, day);
+        assertEquals(1, daily.size());
+        assertEquals(5L, daily.get(0).getTransactions());
+        assertEquals(60.0, daily.get(0).getSuccessRate(), 0.001);
+        
+        List<AnalyticsResponse.GatewayPerformance> gateways = analyticsService.getGatewayPerformance(day, day);
+        assertEquals(1, gateways.size());
+        assertEquals("RAZORPAY", gateways.get(0).getGatewayName());
+        assertEquals(4L, gateways.get(0).getTransactions());
+        assertEquals(new BigDecimal("2.00"), gateways.get(0).getAverageFee());
+        
+        List<AnalyticsResponse.PaymentMethodStats> methods = analyticsService.getPaymentMethodStats(day, day);
+        assertEquals(2, methods.size());
+        assertEquals("CARD", methods.get(0).getPaymentMethod());
+        assertEquals(100.0 / 3, methods.get(0).getPercentage(), 0.001);
+        verify(rollupService, never()).aggregateDay(any());
+    }
+    
+    private PaymentDailyRollup bucket(LocalDate day, String gateway, String method, String status,
+                                      long transactions, String amount, String fees) {
+        PaymentDailyRollup bucket = new PaymentDailyRollup();
+        bucket.setRollupDate(day);
+        bucket.setGatewayName(gateway);
+        bucket.setPaymentMethod(method);
+        bucket.setStatus(status);
+        bucket.setTransactions(transactions);
+        bucket.setAmount(new BigDecimal(amount));
+        bucket.setFees(new BigDecimal(fees));
+        return bucket;
+    }
+}
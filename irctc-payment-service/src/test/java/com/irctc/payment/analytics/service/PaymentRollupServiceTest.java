@@ -0,0 +1,139 @@
+package com.irctc.payment.analytics.service;
+
+import com.irctc.payment.analytics.entity.PaymentDailyRollup;
+import com.irctc.payment.analytics.entity.PaymentRollupState;
+import com.irctc.payment.analytics.repository.PaymentDailyRollupRepository;
+import com.irctc.payment.analytics.repository.PaymentRollupStateRepository;
+import com.irctc.payment.entity.SimplePayment;
+import com.irctc.payment.repository.SimplePaymentRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentRollupServiceTest {
+    
+    @Mock
+    private PaymentDailyRollupRepository rollupRepository;
+    
+    @Mock
+    private PaymentRollupStateRepository stateRepository;
+    
+    @Mock
+    private SimplePaymentRepository paymentRepository;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    @InjectMocks
+    private PaymentRollupService rollupService;
+    
+    private final LocalDateTime paidAt = LocalDateTime.of(2026, 10, 1, 14, 30);
+    
+    @Test
+    void testRefundMovesPaymentBetweenBuckets() {
+        SimplePayment payment = payment("SUCCESS");
+        PaymentRollupService.Snapshot before = PaymentRollupService.snapshot(payment);
+        payment.setStatus("REFUNDED");
+        when(rollupRepository.addToBucket(any(), any(), any(), any(), anyLong(), any(), any())).thenReturn(1);
+        
+        rollupService.recordTransition(before, payment);
+        
+        LocalDate day = paidAt.toLocalDate();
+        verify(rollupRepository).addToBucket(day, "RAZORPAY", "UPI", "SUCCESS", -1L,
+            new BigDecimal("-500.00"), new BigDecimal("-10.00"));
+        verify(rollupRepository).addToBucket(day, "RAZORPAY", "UPI", "REFUNDED", 1L,
+            new BigDecimal("500.00"), new BigDecimal("10.00"));
+        verify(rollupRepository, never()).saveAndFlush(any());
+    }
+    
+    @Test
+    void testNewBucketIsInsertedWhenMissing() {
+        SimplePayment payment = payment("SUCCESS");
+        payment.setGatewayName(null);
+        when(rollupRepository.addToBucket(any(), any(), any(), any(), anyLong(), any(), any())).thenReturn(0);
+        
+        rollupService.recordTransition(null, payment);
+        
+        ArgumentCaptor<PaymentDailyRollup> captor = ArgumentCaptor.forClass(PaymentDailyRollup.class);
+        verify(rollupRepository).saveAndFlush(captor.capture());
+        assertEquals(PaymentDailyRollup.NO_GATEWAY, captor.getValue().getGatewayName());
+        assertEquals(1L, captor.getValue().getTransactions());
+        assertEquals(new BigDecimal("500.00"), captor.getValue().getAmount());
+    }
+    
+    @Test
+    void testUnchangedOrUncountedPaymentsAreIgnored() {
+        SimplePayment payment = payment("SUCCESS");
+        rollupService.recordTransition(PaymentRollupService.snapshot(payment), payment);
+        
+        payment.setPaymentTime(null);
+        rollupService.recordTransition(null, payment);
+        
+        verifyNoInteractions(rollupRepository);
+    }
+    
+    @Test
+    void testMoneyKeepsExactSumsAndRoundsDoublesAtPaiseScale() {
+        // Beyond a double's 15-16 significant digits
+        assertEquals(new BigDecimal("12345678901234567.89"),
+            PaymentRollupService.money(new BigDecimal("12345678901234567.885")));
+        assertEquals(new BigDecimal("1500.00"), PaymentRollupService.money(1500L));
+        assertEquals(new BigDecimal("0.10"), PaymentRollupService.money(0.1d));
+        assertEquals(new BigDecimal("2.68"), PaymentRollupService.money(2.675d));
+        assertEquals(new BigDecimal("0.30"), PaymentRollupService.money(0.3f));
+        assertEquals(new BigDecimal("0.00"), PaymentRollupService.money(null));
+    }
+    
+    @Test
+    void testFirstCatchUpBackfillsEveryClosedDay() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        LocalDate earliest = yesterday.minusDays(2);
+        List<LocalDate> rebuilt = new ArrayList<>();
+        when(stateRepository.findById(PaymentRollupState.SINGLETON_ID)).thenReturn(Optional.empty());
+        when(paymentRepository.findEarliestPaymentTime()).thenReturn(earliest.atTime(9, 0));
+        when(paymentRepository.aggregateByPaymentTime(any(), any())).thenAnswer(invocation -> {
+            LocalDateTime start = invocation.getArgument(0);
+            rebuilt.add(start.toLocalDate());
+            return List.<Object[]>of(new Object[]{"STRIPE", "CARD", "SUCCESS", 2L, 300.0, null});
+        });
+        
+        rollupService.catchUp();
+        
+        assertEquals(List.of(earliest, earliest.plusDays(1), yesterday), rebuilt);
+        verify(rollupRepository, times(3)).deleteByRollupDate(any());
+        verify(rollupRepository).deleteByRollupDate(eq(yesterday));
+        ArgumentCaptor<PaymentRollupState> state = ArgumentCaptor.forClass(PaymentRollupState.class);
+        verify(stateRepository, times(3)).save(state.capture());
+        assertEquals(yesterday, state.getValue().getRebuiltThrough());
+    }
+    
+    private SimplePayment payment(String status) {
+        SimplePayment payment = new SimplePayment();
+        payment.setId(1L);
+        payment.setAmount(500.0);
+        payment.setGatewayFee(10.0);
+        payment.setGatewayName("RAZORPAY");
+        payment.setPaymentMethod("UPI");
+        payment.setStatus(status);
+        payment.setPaymentTime(paidAt);
+        return payment;
+    }
+}
@@ -0,0 +1,98 @@
+package com.irctc.payment.health;
+
+import com.irctc.shared.health.DependencyChecks;
+import com.irctc.shared.health.DependencyHealthMonitor;
+import com.irctc.shared.health.HealthProbeSettings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PaymentServiceHealthIndicatorTest {
+
+    private DependencyHealthMonitor monitor;
+    private DataSource dataSource;
+    private PaymentServiceHealthIndicator indicator;
+
+    @BeforeEach
+    void setUp() {
+        HealthProbeSettings settings = new HealthProbeSettings();
+        settings.setIntervalMs(3_600_000L);
+        settings.setTimeoutMs(200L);
+        dataSource = mock(DataSource.class);
+        monitor = new DependencyHealthMonitor(settings)
+            .register(DependencyHealthMonitor.DATABASE, DependencyChecks.database(dataSource, settings.getTimeoutMs()));
+        indicator = new PaymentServiceHealthIndicator();
+        ReflectionTestUtils.setField(indicator, "healthMonitor", monitor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        monitor.stop();
+    }
+
+    @Test
+    void testHealthIsServedFromLastBackgroundCheck() throws Exception {
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery("SELECT 1")).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(metaData.getDatabaseProductName()).thenReturn("H2");
+
+        monitor.start();
+        awaitResult();
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(Status.UP, indicator.health().getStatus());
+        }
+        // Probes never reach the database; only the one background check did
+        verify(dataSource, times(1)).getConnection();
+        assertEquals("connected", indicator.health().getDetails().get("database"));
+    }
+
+    @Test
+    void testSlowDatabaseIsReportedDown() throws Exception {
+        when(dataSource.getConnection()).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return null;
+        });
+
+        monitor.start();
+        awaitResult();
+
+        Health health = indicator.health();
+        assertEquals(Status.DOWN, health.getStatus());
+        assertEquals("disconnected", health.getDetails().get("database"));
+    }
+
+    @Test
+    void testDownBeforeTheFirstCheck() {
+        Health health = indicator.health();
+        assertEquals(Status.DOWN, health.getStatus());
+        assertEquals("awaiting first check", health.getDetails().get("database"));
+    }
+
+    private void awaitResult() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (monitor.getResult(DependencyHealthMonitor.DATABASE) == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertNotNull(monitor.getResult(DependencyHealthMonitor.DATABASE));
+    }
+}
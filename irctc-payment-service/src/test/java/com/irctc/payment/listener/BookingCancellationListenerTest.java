@@ -0,0 +1,73 @@
+package com.irctc.payment.listener;
+
+import com.irctc.payment.config.KafkaConfig;
+import com.irctc.payment.service.AutomatedRefundService;
+import com.irctc.shared.events.BookingEvents;
+import com.irctc.shared.events.codec.BinaryEventSerializer;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingCancellationListenerTest {
+
+    @Mock
+    private AutomatedRefundService automatedRefundService;
+
+    @InjectMocks
+    private BookingCancellationListener listener;
+
+    @Test
+    void shouldRefundBinaryEncodedCancellation() {
+        assertRefunded(new BinaryEventSerializer());
+    }
+
+    @Test
+    void shouldRefundJsonEncodedCancellation() {
+        assertRefunded(new JsonSerializer<>());
+    }
+
+    private void assertRefunded(Serializer<Object> producerSerializer) {
+        BookingEvents.BookingCancelledEvent sent = new BookingEvents.BookingCancelledEvent(
+            42L, 7L, "PNR4200000", "Plans changed", new BigDecimal("500.00"));
+        producerSerializer.configure(Map.of(), false);
+        RecordHeaders headers = new RecordHeaders();
+        byte[] payload = producerSerializer.serialize("booking-cancelled", headers, sent);
+
+        Object received = valueDeserializer().deserialize("booking-cancelled", headers, payload);
+        assertInstanceOf(BookingEvents.BookingCancelledEvent.class, received);
+        listener.handleBookingCancellation((BookingEvents.BookingCancelledEvent) received);
+
+        verify(automatedRefundService).autoRefundOnCancellation(eq(42L), any(), isNull(), eq("Plans changed"));
+    }
+
+    /**
+     * The value deserializer exactly as the payment consumers get it
+     */
+    private static Deserializer<Object> valueDeserializer() {
+        KafkaConfig config = new KafkaConfig();
+        ReflectionTestUtils.setField(config, "bootstrapServers", "localhost:9092");
+        DefaultKafkaConsumerFactory<String, Object> factory =
+            (DefaultKafkaConsumerFactory<String, Object>) config.consumerFactory();
+        Deserializer<Object> deserializer = factory.getValueDeserializer();
+        deserializer.configure(factory.getConfigurationProperties(), false);
+        return deserializer;
+    }
+}
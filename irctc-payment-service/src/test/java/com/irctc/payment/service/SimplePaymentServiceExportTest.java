@@ -0,0 +1,101 @@
+package com.irctc.payment.service;
+
+import com.irctc.payment.client.BookingServiceClient;
+import com.irctc.payment.entity.SimplePayment;
+import com.irctc.payment.repository.SimplePaymentRepository;
+import com.irctc.payment.tenant.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SimplePaymentServiceExportTest {
+
+    @Mock
+    private SimplePaymentRepository paymentRepository;
+
+    @Mock
+    private BookingServiceClient bookingServiceClient;
+
+    @InjectMocks
+    private SimplePaymentService paymentService;
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void shouldExportOnlyPaymentsOfTheUsersBookingsWithinTenant() {
+        TenantContext.setTenantId("tenant-a");
+        when(bookingServiceClient.exportBookingIds("tenant-a", 7L, 10L, 500)).thenReturn(List.of(11L, 12L));
+        when(paymentRepository.findExportPageWithinTenant(
+                eq(List.of(11L, 12L)), eq("tenant-a"), eq(11L), eq(40L), any(Pageable.class)))
+            .thenReturn(List.of(payment(41L, 11L), payment(39L, 12L)));
+
+        List<SimplePayment> page = paymentService.getPaymentsForExport(7L, 11L, 40L, 100);
+
+        assertEquals(List.of(41L, 39L), page.stream().map(SimplePayment::getId).toList());
+        verify(paymentRepository, never()).findExportPage(anyList(), any(), any(), any());
+    }
+
+    @Test
+    void shouldReadBookingBatchesOnlyUntilThePageIsFull() {
+        List<Long> firstIds = LongStream.rangeClosed(1, 500).boxed().toList();
+        when(bookingServiceClient.exportBookingIds(null, 7L, 0L, 500)).thenReturn(firstIds);
+        when(bookingServiceClient.exportBookingIds(null, 7L, 500L, 500)).thenReturn(List.of(501L, 502L));
+        when(paymentRepository.findExportPage(eq(firstIds), eq(0L), eq(0L), eq(PageRequest.of(0, 3))))
+            .thenReturn(List.of(payment(9L, 1L), payment(2L, 3L)));
+        when(paymentRepository.findExportPage(eq(List.of(501L, 502L)), eq(0L), eq(0L), eq(PageRequest.of(0, 1))))
+            .thenReturn(List.of(payment(5L, 501L)));
+
+        List<SimplePayment> page = paymentService.getPaymentsForExport(7L, 0L, 0L, 3);
+
+        assertEquals(List.of(9L, 2L, 5L), page.stream().map(SimplePayment::getId).toList());
+        verify(bookingServiceClient, times(2)).exportBookingIds(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void shouldNotFetchFurtherBookingsOnceThePageIsFull() {
+        List<Long> firstIds = LongStream.rangeClosed(1, 500).boxed().toList();
+        when(bookingServiceClient.exportBookingIds(null, 7L, 0L, 500)).thenReturn(firstIds);
+        when(paymentRepository.findExportPage(eq(firstIds), eq(0L), eq(0L), any(Pageable.class)))
+            .thenReturn(List.of(payment(9L, 1L), payment(2L, 3L)));
+
+        List<SimplePayment> page = paymentService.getPaymentsForExport(7L, 0L, 0L, 2);
+
+        assertEquals(2, page.size());
+        verify(bookingServiceClient, times(1)).exportBookingIds(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void shouldReturnEmptyPageForUserWithoutBookings() {
+        when(bookingServiceClient.exportBookingIds(null, 7L, 0L, 500)).thenReturn(List.of());
+
+        assertTrue(paymentService.getPaymentsForExport(7L, 0L, 0L, 100).isEmpty());
+        verifyNoInteractions(paymentRepository);
+    }
+
+    private static SimplePayment payment(Long id, Long bookingId) {
+        SimplePayment payment = new SimplePayment();
+        payment.setId(id);
+        payment.setBookingId(bookingId);
+        payment.setTenantId("tenant-a");
+        return payment;
+    }
+}
@@ -321,6 +321,15 @@ public class BookingEvents {
         @JsonProperty("pnrNumber")
         private String pnrNumber;
         
+        @JsonProperty("trainId")
+        private Long trainId;
+        
+        @JsonProperty("passengerCount")
+        private Integer passengerCount;
+        
+        @JsonProperty("journeyDate")
+        private LocalDateTime journeyDate;
+        
         @JsonProperty("cancellationReason")
         private String cancellationReason;
         
@@ -360,6 +369,15 @@ public class BookingEvents {
         public String getPnrNumber() { return pnrNumber; }
         public void setPnrNumber(String pnrNumber) { this.pnrNumber = pnrNumber; }
         
+        public Long getTrainId() { return trainId; }
+        public void setTrainId(Long trainId) { this.trainId = trainId; }
+        
+        public Integer getPassengerCount() { return passengerCount; }
+        public void setPassengerCount(Integer passengerCount) { this.passengerCount = passengerCount; }
+        
+        public LocalDateTime getJourneyDate() { return journeyDate; }
+        public void setJourneyDate(LocalDateTime journeyDate) { this.journeyDate = journeyDate; }
+        
         public String getCancellationReason() { return cancellationReason; }
         public void setCancellationReason(String cancellationReason) { this.cancellationReason = cancellationReason; }
         
@@ -372,4 +390,95 @@ public class BookingEvents {
         public String getEventType() { return eventType; }
         public void setEventType(String eventType) { this.eventType = eventType; }
     }
+
+    /**
+     * A booking moved to another journey date or train; its seats leave the
+     * previous train and date and are taken on the new ones
+     */
+    public static class BookingJourneyChangedEvent {
+        @JsonProperty("eventId")
+        private String eventId;
+        
+        @JsonProperty("bookingId")
+        private Long bookingId;
+        
+        @JsonProperty("userId")
+        private Long userId;
+        
+        @JsonProperty("pnrNumber")
+        private String pnrNumber;
+        
+        @JsonProperty("passengerCount")
+        private Integer passengerCount;
+        
+        @JsonProperty("previousTrainId")
+        private Long previousTrainId;
+        
+        @JsonProperty("previousJourneyDate")
+        private LocalDateTime previousJourneyDate;
+        
+        @JsonProperty("trainId")
+        private Long trainId;
+        
+        @JsonProperty("journeyDate")
+        private LocalDateTime journeyDate;
+        
+        @JsonProperty("changeTime")
+        private LocalDateTime changeTime;
+        
+        @JsonProperty("eventType")
+        private String eventType = "BOOKING_JOURNEY_CHANGED";
+
+        // Constructors
+        public BookingJourneyChangedEvent() {}
+
+        public BookingJourneyChangedEvent(Long bookingId, Long userId, String pnrNumber, Integer passengerCount,
+                                          Long previousTrainId, LocalDateTime previousJourneyDate,
+                                          Long trainId, LocalDateTime journeyDate) {
+            this.eventId = java.util.UUID.randomUUID().toString();
+            this.bookingId = bookingId;
+            this.userId = userId;
+            this.pnrNumber = pnrNumber;
+            this.passengerCount = passengerCount;
+            this.previousTrainId = previousTrainId;
+            this.previousJourneyDate = previousJourneyDate;
+            this.trainId = trainId;
+            this.journeyDate = journeyDate;
+            this.changeTime = LocalDateTime.now();
+        }
+
+        // Getters and Setters
+        public String getEventId() { return eventId; }
+        public void setEventId(String eventId) { this.eventId = eventId; }
+        
+        public Long getBookingId() { return bookingId; }
+        public void setBookingId(Long bookingId) { this.bookingId = bookingId; }
+        
+        public Long getUserId() { return userId; }
+        public void setUserId(Long userId) { this.userId = userId; }
+        
+        public String getPnrNumber() { return pnrNumber; }
+        public void setPnrNumber(String pnrNumber) { this.pnrNumber = pnrNumber; }
+        
+        public Integer getPassengerCount() { return passengerCount; }
+        public void setPassengerCount(Integer passengerCount) { this.passengerCount = passengerCount; }
+        
+        public Long getPreviousTrainId() { return previousTrainId; }
+        public void setPreviousTrainId(Long previousTrainId) { this.previousTrainId = previousTrainId; }
+        
+        public LocalDateTime getPreviousJourneyDate() { return previousJourneyDate; }
+        public void setPreviousJourneyDate(LocalDateTime previousJourneyDate) { this.previousJourneyDate = previousJourneyDate; }
+        
+        public Long getTrainId() { return trainId; }
+        public void setTrainId(Long trainId) { this.trainId = trainId; }
+        
+        public LocalDateTime getJourneyDate() { return journeyDate; }
+        public void setJourneyDate(LocalDateTime journeyDate) { this.journeyDate = journeyDate; }
+        
+        public LocalDateTime getChangeTime() { return changeTime; }
+        public void setChangeTime(LocalDateTime changeTime) { this.changeTime = changeTime; }
+        
+        public String getEventType() { return eventType; }
+        public void setEventType(String eventType) { this.eventType = eventType; }
+    }
 }
@@ -0,0 +1,219 @@
+package com.irctc.shared.events;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Train reference data events for Kafka messaging
+ */
+public class TrainEvents {
+
+    /**
+     * Full state of a train after it was created, updated or deactivated.
+     * version is the train's optimistic-lock version, so consumers keep the
+     * highest version they have seen and ignore older or replayed events.
+     */
+    public static class TrainChangedEvent {
+        @JsonProperty("eventId")
+        private String eventId;
+        
+        @JsonProperty("trainId")
+        private Long trainId;
+        
+        @JsonProperty("trainNumber")
+        private String trainNumber;
+        
+        @JsonProperty("trainName")
+        private String trainName;
+        
+        @JsonProperty("sourceStation")
+        private String sourceStation;
+        
+        @JsonProperty("destinationStation")
+        private String destinationStation;
+        
+        @JsonProperty("departureTime")
+        private LocalDateTime departureTime;
+        
+        @JsonProperty("arrivalTime")
+        private LocalDateTime arrivalTime;
+        
+        @JsonProperty("trainType")
+        private String trainType;
+        
+        @JsonProperty("trainClass")
+        private String trainClass;
+        
+        @JsonProperty("baseFare")
+        private Double baseFare;
+        
+        @JsonProperty("totalSeats")
+        private Integer totalSeats;
+        
+        @JsonProperty("availableSeats")
+        private Integer availableSeats;
+        
+        @JsonProperty("distance")
+        private Integer distance;
+        
+        @JsonProperty("duration")
+        private Integer duration;
+        
+        @JsonProperty("status")
+        private String status;
+        
+        @JsonProperty("version")
+        private Long version;
+        
+        @JsonProperty("timestamp")
+        private LocalDateTime timestamp;
+        
+        @JsonProperty("eventType")
+        private String eventType = "TRAIN_CHANGED";
+
+        // Constructors
+        public TrainChangedEvent() {
+            this.eventId = java.util.UUID.randomUUID().toString();
+            this.timestamp = LocalDateTime.now();
+        }
+
+        // Getters and Setters
+        public String getEventId() { return eventId; }
+        public void setEventId(String eventId) { this.eventId = eventId; }
+        
+        public Long getTrainId() { return trainId; }
+        public void setTrainId(Long trainId) { this.trainId = trainId; }
+        
+        public String getTrainNumber() { return trainNumber; }
+        public void setTrainNumber(String trainNumber) { this.trainNumber = trainNumber; }
+        
+        public String getTrainName() { return trainName; }
+        public void setTrainName(String trainName) { this.trainName = trainName; }
+        
+        public String getSourceStation() { return sourceStation; }
+        public void setSourceStation(String sourceStation) { this.sourceStation = sourceStation; }
+        
+        public String getDestinationStation() { return destinationStation; }
+        public void setDestinationStation(String destinationStation) { this.destinationStation = destinationStation; }
+        
+        public LocalDateTime getDepartureTime() { return departureTime; }
+        public void setDepartureTime(LocalDateTime departureTime) { this.departureTime = departureTime; }
+        
+        public LocalDateTime getArrivalTime() { return arrivalTime; }
+        public void setArrivalTime(LocalDateTime arrivalTime) { this.arrivalTime = arrivalTime; }
+        
+        public String getTrainType() { return trainType; }
+        public void setTrainType(String trainType) { this.trainType = trainType; }
+        
+        public String getTrainClass() { return trainClass; }
+        public void setTrainClass(String trainClass) { this.trainClass = trainClass; }
+        
+        public Double getBaseFare() { return baseFare; }
+        public void setBaseFare(Double baseFare) { this.baseFare = baseFare; }
+        
+        public Integer getTotalSeats() { return totalSeats; }
+        public void setTotalSeats(Integer totalSeats) { this.totalSeats = totalSeats; }
+        
+        public Integer getAvailableSeats() { return availableSeats; }
+        public void setAvailableSeats(Integer availableSeats) { this.availableSeats = availableSeats; }
+        
+        public Integer getDistance() { return distance; }
+        public void setDistance(Integer distance) { this.distance = distance; }
+        
+        public Integer getDuration() { return duration; }
+        public void setDuration(Integer duration) { this.duration = duration; }
+        
+        public String getStatus() { return status; }
+        public void setStatus(String status) { this.status = status; }
+        
+        public Long getVersion() { return version; }
+        public void setVersion(Long version) { this.version = version; }
+        
+        public LocalDateTime getTimestamp() { return timestamp; }
+        public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
+        
+        public String getEventType() { return eventType; }
+        public void setEventType(String eventType) { this.eventType = eventType; }
+    }
+
+    /**
+     * Seats booked and left on one train, journey date and class after a
+     * batch of bookings or cancellations was applied. version increases with
+     * every change to the counter, so consumers keep the highest one seen.
+     */
+    public static class SeatAvailabilityChangedEvent {
+        @JsonProperty("eventId")
+        private String eventId;
+        
+        @JsonProperty("trainId")
+        private Long trainId;
+        
+        @JsonProperty("trainNumber")
+        private String trainNumber;
+        
+        @JsonProperty("journeyDate")
+        private LocalDate journeyDate;
+        
+        @JsonProperty("travelClass")
+        private String travelClass;
+        
+        @JsonProperty("totalSeats")
+        private Integer totalSeats;
+        
+        @JsonProperty("bookedSeats")
+        private Integer bookedSeats;
+        
+        @JsonProperty("availableSeats")
+        private Integer availableSeats;
+        
+        @JsonProperty("version")
+        private Long version;
+        
+        @JsonProperty("timestamp")
+        private LocalDateTime timestamp;
+        
+        @JsonProperty("eventType")
+        private String eventType = "SEAT_AVAILABILITY_CHANGED";
+
+        // Constructors
+        public SeatAvailabilityChangedEvent() {
+            this.eventId = java.util.UUID.randomUUID().toString();
+            this.timestamp = LocalDateTime.now();
+        }
+
+        // Getters and Setters
+        public String getEventId() { return eventId; }
+        public void setEventId(String eventId) { this.eventId = eventId; }
+        
+        public Long getTrainId() { return trainId; }
+        public void setTrainId(Long trainId) { this.trainId = trainId; }
+        
+        public String getTrainNumber() { return trainNumber; }
+        public void setTrainNumber(String trainNumber) { this.trainNumber = trainNumber; }
+        
+        public LocalDate getJourneyDate() { return journeyDate; }
+        public void setJourneyDate(LocalDate journeyDate) { this.journeyDate = journeyDate; }
+        
+        public String getTravelClass() { return travelClass; }
+        public void setTravelClass(String travelClass) { this.travelClass = travelClass; }
+        
+        public Integer getTotalSeats() { return totalSeats; }
+        public void setTotalSeats(Integer totalSeats) { this.totalSeats = totalSeats; }
+        
+        public Integer getBookedSeats() { return bookedSeats; }
+        public void setBookedSeats(Integer bookedSeats) { this.bookedSeats = bookedSeats; }
+        
+        public Integer getAvailableSeats() { return availableSeats; }
+        public void setAvailableSeats(Integer availableSeats) { this.availableSeats = availableSeats; }
+        
+        public Long getVersion() { return version; }
+        public void setVersion(Long version) { this.version = version; }
+        
+        public LocalDateTime getTimestamp() { return timestamp; }
+        public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
+        
+        public String getEventType() { return eventType; }
+        public void setEventType(String eventType) { this.eventType = eventType; }
+    }
+}
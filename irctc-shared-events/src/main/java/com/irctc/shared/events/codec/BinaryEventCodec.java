@@ -0,0 +1,374 @@
+package com.irctc.shared.events.codec;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compact binary encoding for registered events.
+ *
+ * Layout: magic byte, schema ID (varint), a null bitmap with one bit per schema
+ * field, then the non-null values in schema order. Integers are zigzag varints,
+ * UUID strings take 16 bytes, timestamps are UTC epoch seconds plus nanos and
+ * decimals are scale plus unscaled bytes. Field names are never written.
+ *
+ * The magic byte 0xC1 can never start a UTF-8 JSON document, so readers can
+ * tell the two formats apart without headers.
+ */
+public class BinaryEventCodec {
+
+    public static final byte MAGIC = (byte) 0xC1;
+
+    private final EventSchemaRegistry registry;
+    private final Map<Integer, Binding> bindings = new ConcurrentHashMap<>();
+
+    public BinaryEventCodec(EventSchemaRegistry registry) {
+        this.registry = registry;
+    }
+
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length > 0 && data[0] == MAGIC;
+    }
+
+    public boolean supports(Class<?> type) {
+        return registry.latestFor(type) != null;
+    }
+
+    public byte[] encode(Object event) {
+        EventSchema schema = registry.latestFor(event.getClass());
+        if (schema == null) {
+            throw new IllegalArgumentException("No event schema registered for " + event.getClass().getName());
+        }
+        Binding binding = binding(schema);
+        List<EventSchema.FieldSpec> fields = schema.getFields();
+        Object[] values = new Object[fields.size()];
+        byte[] nullBits = new byte[(fields.size() + 7) / 8];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = binding.get(i, event);
+            if (values[i] == null) {
+                nullBits[i >> 3] |= (byte) (1 << (i & 7));
+            }
+        }
+
+        Output out = new Output(64 + fields.size() * 8);
+        out.writeByte(MAGIC);
+        out.writeVarInt(schema.getId());
+        out.writeBytes(nullBits);
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                write(out, fields.get(i).getType(), values[i]);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    public Object decode(byte[] data) {
+        Input in = new Input(data);
+        if (in.readByte() != MAGIC) {
+            throw new IllegalArgumentException("Not a binary event payload");
+        }
+        EventSchema schema = registry.byId(in.readVarInt());
+        Binding binding = binding(schema);
+        List<EventSchema.FieldSpec> fields = schema.getFields();
+        byte[] nullBits = in.readBytes((fields.size() + 7) / 8);
+
+        Object event = binding.newInstance();
+        for (int i = 0; i < fields.size(); i++) {
+            if ((nullBits[i >> 3] & (1 << (i & 7))) != 0) {
+                continue;
+            }
+            // Fields the reader's class no longer has are still read to keep the position
+            binding.set(i, event, read(in, fields.get(i).getType()));
+        }
+        return event;
+    }
+
+    private Binding binding(EventSchema schema) {
+        return bindings.computeIfAbsent(schema.getId(), id -> new Binding(schema));
+    }
+
+    private static void write(Output out, EventSchema.FieldType type, Object value) {
+        switch (type) {
+            case STRING -> out.writeString((String) value);
+            case UUID -> writeUuid(out, (String) value);
+            case LONG -> out.writeVarLong(zigzag(((Number) value).longValue()));
+            case INT -> out.writeVarLong(zigzag(((Number) value).intValue()));
+            case BOOLEAN -> out.writeByte((byte) (((Boolean) value) ? 1 : 0));
+            case DECIMAL -> {
+                BigDecimal decimal = (BigDecimal) value;
+                out.writeVarLong(zigzag(decimal.scale()));
+                byte[] unscaled = decimal.unscaledValue().toByteArray();
+                out.writeVarInt(unscaled.length);
+                out.writeBytes(unscaled);
+            }
+            case DATETIME -> {
+                LocalDateTime dateTime = (LocalDateTime) value;
+                out.writeVarLong(zigzag(dateTime.toEpochSecond(ZoneOffset.UTC)));
+                out.writeVarInt(dateTime.getNano());
+            }
+        }
+    }
+
+    private static Object read(Input in, EventSchema.FieldType type) {
+        return switch (type) {
+            case STRING -> in.readString();
+            case UUID -> readUuid(in);
+            case LONG -> unzigzag(in.readVarLong());
+            case INT -> (int) unzigzag(in.readVarLong());
+            case BOOLEAN -> in.readByte() != 0;
+            case DECIMAL -> {
+                int scale = (int) unzigzag(in.readVarLong());
+                yield new BigDecimal(new BigInteger(in.readBytes(in.readVarInt())), scale);
+            }
+            case DATETIME -> {
+                long seconds = unzigzag(in.readVarLong());
+                yield LocalDateTime.ofEpochSecond(seconds, in.readVarInt(), ZoneOffset.UTC);
+            }
+        };
+    }
+
+    /**
+     * Canonical UUIDs take a tag byte and 16 bytes; anything else is kept as a string
+     */
+    private static void writeUuid(Output out, String value) {
+        UUID uuid = parseCanonicalUuid(value);
+        if (uuid == null) {
+            out.writeByte((byte) 0);
+            out.writeString(value);
+            return;
+        }
+        out.writeByte((byte) 1);
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    private static String readUuid(Input in) {
+        if (in.readByte() == 0) {
+            return in.readString();
+        }
+        return new UUID(in.readLong(), in.readLong()).toString();
+    }
+
+    private static UUID parseCanonicalUuid(String value) {
+        if (value.length() != 36) {
+            return null;
+        }
+        try {
+            UUID uuid = UUID.fromString(value);
+            // Upper-case input would not survive the round trip
+            return uuid.toString().equals(value) ? uuid : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Reflective accessors for one schema, resolved once
+     */
+    private static final class Binding {
+        private final Constructor<?> constructor;
+        private final Field[] fields;
+
+        Binding(EventSchema schema) {
+            try {
+                Class<?> type = Class.forName(schema.getType(), true, BinaryEventCodec.class.getClassLoader());
+                constructor = type.getDeclaredConstructor();
+                constructor.setAccessible(true);
+                List<EventSchema.FieldSpec> specs = schema.getFields();
+                fields = new Field[specs.size()];
+                for (int i = 0; i < specs.size(); i++) {
+                    fields[i] = findField(type, specs.get(i));
+                }
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot bind event schema " + schema.getId() + ": " + e.getMessage(), e);
+            }
+        }
+
+        Object newInstance() {
+            try {
+                return constructor.newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot instantiate " + constructor.getDeclaringClass().getName(), e);
+            }
+        }
+
+        Object get(int index, Object target) {
+            try {
+                return fields[index] != null ? fields[index].get(target) : null;
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        void set(int index, Object target, Object value) {
+            if (fields[index] == null) {
+                return;
+            }
+            try {
+                fields[index].set(target, value);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private static Field findField(Class<?> type, EventSchema.FieldSpec spec) {
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                try {
+                    Field field = c.getDeclaredField(spec.getName());
+                    if (!javaType(spec.getType()).isAssignableFrom(field.getType())) {
+                        throw new IllegalStateException("Field " + type.getName() + "." + spec.getName()
+                            + " is " + field.getType().getSimpleName() + ", schema says " + spec);
+                    }
+                    field.setAccessible(true);
+                    return field;
+                } catch (NoSuchFieldException e) {
+                    // keep looking in the superclass
+                }
+            }
+            return null;
+        }
+
+        private static Class<?> javaType(EventSchema.FieldType type) {
+            return switch (type) {
+                case STRING, UUID -> String.class;
+                case LONG -> Long.class;
+                case INT -> Integer.class;
+                case DECIMAL -> BigDecimal.class;
+                case DATETIME -> LocalDateTime.class;
+                case BOOLEAN -> Boolean.class;
+            };
+        }
+    }
+
+    private static final class Output {
+        private byte[] buffer;
+        private int position;
+
+        Output(int capacity) {
+            buffer = new byte[capacity];
+        }
+
+        void writeByte(byte b) {
+            ensure(1);
+            buffer[position++] = b;
+        }
+
+        void writeBytes(byte[] bytes) {
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        void writeVarInt(int value) {
+            writeVarLong(value & 0xFFFFFFFFL);
+        }
+
+        void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void writeLong(long value) {
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte) (value >>> shift);
+            }
+        }
+
+        void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length);
+            writeBytes(bytes);
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+
+        private void ensure(int bytes) {
+            if (position + bytes > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + bytes));
+            }
+        }
+    }
+
+    private static final class Input {
+        private final byte[] buffer;
+        private int position;
+
+        Input(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        byte readByte() {
+            if (position >= buffer.length) {
+                throw new IllegalArgumentException("Truncated binary event payload");
+            }
+            return buffer[position++];
+        }
+
+        byte[] readBytes(int length) {
+            if (length < 0 || position + length > buffer.length) {
+                throw new IllegalArgumentException("Truncated binary event payload");
+            }
+            byte[] bytes = Arrays.copyOfRange(buffer, position, position + length);
+            position += length;
+            return bytes;
+        }
+
+        int readVarInt() {
+            return (int) readVarLong();
+        }
+
+        long readVarLong() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = readByte();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint in binary event payload");
+        }
+
+        long readLong() {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (readByte() & 0xFF);
+            }
+            return value;
+        }
+
+        String readString() {
+            int length = readVarInt();
+            if (length < 0 || position + length > buffer.length) {
+                throw new IllegalArgumentException("Truncated binary event payload");
+            }
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.irctc.shared.events.codec;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Map;
+
+/**
+ * Kafka value serializer writing registered events in the binary format.
+ *
+ * Payloads without a registered schema (outbox strings, maps, service-local
+ * event classes) still go through Spring's {@link JsonSerializer}, exactly as
+ * before. Consumers must read with {@link DualFormatEventDeserializer}.
+ */
+public class BinaryEventSerializer implements Serializer<Object> {
+
+    /**
+     * Optional path of an extra schema file, see {@link EventSchemaRegistry}
+     */
+    public static final String SCHEMA_REGISTRY_PATH = "irctc.events.schema-registry.path";
+
+    private final JsonSerializer<Object> jsonFallback = new JsonSerializer<>();
+    private BinaryEventCodec codec;
+
+    public BinaryEventSerializer() {
+    }
+
+    public BinaryEventSerializer(BinaryEventCodec codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        if (codec == null) {
+            Object path = configs.get(SCHEMA_REGISTRY_PATH);
+            codec = new BinaryEventCodec(EventSchemaRegistry.load(path != null ? path.toString() : null));
+        }
+        jsonFallback.configure(configs, isKey);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        return serialize(topic, null, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, Object data) {
+        if (data == null) {
+            return null;
+        }
+        if (codec == null) {
+            codec = new BinaryEventCodec(EventSchemaRegistry.load(null));
+        }
+        if (codec.supports(data.getClass())) {
+            return codec.encode(data);
+        }
+        return headers != null ? jsonFallback.serialize(topic, headers, data) : jsonFallback.serialize(topic, data);
+    }
+
+    @Override
+    public void close() {
+        jsonFallback.close();
+    }
+}
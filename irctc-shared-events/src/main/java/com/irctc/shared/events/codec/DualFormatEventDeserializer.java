@@ -0,0 +1,67 @@
+package com.irctc.shared.events.codec;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.Map;
+
+/**
+ * Kafka value deserializer accepting both the binary event format and JSON.
+ *
+ * Binary payloads are recognised by {@link BinaryEventCodec#MAGIC} and decoded
+ * with the writer's schema; everything else goes to the JSON delegate. Deploy
+ * this on every consumer before switching any producer to
+ * {@link BinaryEventSerializer}.
+ */
+public class DualFormatEventDeserializer implements Deserializer<Object> {
+
+    private final JsonDeserializer<Object> jsonDelegate;
+    private BinaryEventCodec codec;
+
+    public DualFormatEventDeserializer() {
+        this(new JsonDeserializer<>());
+    }
+
+    public DualFormatEventDeserializer(JsonDeserializer<Object> jsonDelegate) {
+        this.jsonDelegate = jsonDelegate;
+    }
+
+    public DualFormatEventDeserializer(JsonDeserializer<Object> jsonDelegate, BinaryEventCodec codec) {
+        this.jsonDelegate = jsonDelegate;
+        this.codec = codec;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        if (codec == null) {
+            Object path = configs.get(BinaryEventSerializer.SCHEMA_REGISTRY_PATH);
+            codec = new BinaryEventCodec(EventSchemaRegistry.load(path != null ? path.toString() : null));
+        }
+        jsonDelegate.configure(configs, isKey);
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        return deserialize(topic, null, data);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (BinaryEventCodec.isBinary(data)) {
+            if (codec == null) {
+                codec = new BinaryEventCodec(EventSchemaRegistry.load(null));
+            }
+            return codec.decode(data);
+        }
+        return headers != null ? jsonDelegate.deserialize(topic, headers, data) : jsonDelegate.deserialize(topic, data);
+    }
+
+    @Override
+    public void close() {
+        jsonDelegate.close();
+    }
+}
@@ -0,0 +1,71 @@
+package com.irctc.shared.events.codec;
+
+import java.util.List;
+
+/**
+ * One registered version of an event's binary layout.
+ *
+ * Fields are written in the listed order. The schema ID travels with every
+ * record, so a reader always decodes with the writer's layout and then maps
+ * fields onto its own class by name.
+ */
+public class EventSchema {
+
+    public enum FieldType {
+        STRING, UUID, LONG, INT, DECIMAL, DATETIME, BOOLEAN
+    }
+
+    public static class FieldSpec {
+        private final String name;
+        private final FieldType type;
+
+        public FieldSpec(String name, FieldType type) {
+            this.name = name;
+            this.type = type;
+        }
+
+        /**
+         * Parses the registry notation "name:type"
+         */
+        public static FieldSpec parse(String spec) {
+            int colon = spec.indexOf(':');
+            if (colon <= 0 || colon == spec.length() - 1) {
+                throw new IllegalArgumentException("Field spec must be name:type, got '" + spec + "'");
+            }
+            return new FieldSpec(spec.substring(0, colon).trim(),
+                FieldType.valueOf(spec.substring(colon + 1).trim().toUpperCase()));
+        }
+
+        public String getName() { return name; }
+
+        public FieldType getType() { return type; }
+
+        @Override
+        public String toString() { return name + ":" + type.name().toLowerCase(); }
+    }
+
+    private final int id;
+    private final String type;
+    private final int version;
+    private final List<FieldSpec> fields;
+
+    public EventSchema(int id, String type, int version, List<FieldSpec> fields) {
+        this.id = id;
+        this.type = type;
+        this.version = version;
+        this.fields = List.copyOf(fields);
+    }
+
+    public int getId() { return id; }
+
+    public String getType() { return type; }
+
+    public int getVersion() { return version; }
+
+    public List<FieldSpec> getFields() { return fields; }
+
+    @Override
+    public String toString() {
+        return "EventSchema{id=" + id + ", type=" + type + ", version=" + version + ", fields=" + fields + "}";
+    }
+}
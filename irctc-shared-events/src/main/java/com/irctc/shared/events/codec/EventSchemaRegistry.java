@@ -0,0 +1,110 @@
+package com.irctc.shared.events.codec;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * File-based stand-in for a schema registry.
+ *
+ * Schemas are read from {@value #CLASSPATH_RESOURCE} shipped in this jar, plus
+ * an optional external file with the same layout so a service can pick up a
+ * newer schema without a rebuild. IDs are global and immutable: the same ID
+ * registered twice with a different definition fails fast at startup.
+ */
+public class EventSchemaRegistry {
+
+    public static final String CLASSPATH_RESOURCE = "irctc-event-schemas.json";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Map<Integer, EventSchema> byId = new HashMap<>();
+    private final Map<String, EventSchema> latestByType = new HashMap<>();
+
+    public EventSchemaRegistry(Collection<EventSchema> schemas) {
+        for (EventSchema schema : schemas) {
+            register(schema);
+        }
+    }
+
+    /**
+     * Bundled schemas, merged with the external file when a path is given
+     */
+    public static EventSchemaRegistry load(String externalPath) {
+        List<EventSchema> schemas = new ArrayList<>();
+        try (InputStream in = EventSchemaRegistry.class.getClassLoader().getResourceAsStream(CLASSPATH_RESOURCE)) {
+            if (in == null) {
+                throw new IllegalStateException(CLASSPATH_RESOURCE + " not found on classpath");
+            }
+            schemas.addAll(parse(MAPPER.readTree(in)));
+            if (externalPath != null && !externalPath.isBlank()) {
+                schemas.addAll(parse(MAPPER.readTree(Files.readAllBytes(Path.of(externalPath)))));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to load event schemas: " + e.getMessage(), e);
+        }
+        return new EventSchemaRegistry(schemas);
+    }
+
+    public EventSchema byId(int id) {
+        EventSchema schema = byId.get(id);
+        if (schema == null) {
+            throw new IllegalArgumentException("Unknown event schema id " + id);
+        }
+        return schema;
+    }
+
+    /**
+     * Newest schema for the class, or null when the class is not registered
+     */
+    public EventSchema latestFor(Class<?> type) {
+        return latestByType.get(type.getName());
+    }
+
+    public Collection<EventSchema> all() {
+        return byId.values();
+    }
+
+    private void register(EventSchema schema) {
+        EventSchema existing = byId.get(schema.getId());
+        if (existing != null) {
+            if (!sameDefinition(existing, schema)) {
+                throw new IllegalStateException("Conflicting definitions for event schema id " + schema.getId()
+                    + ": " + existing + " vs " + schema);
+            }
+            return;
+        }
+        byId.put(schema.getId(), schema);
+        latestByType.merge(schema.getType(), schema,
+            (current, candidate) -> candidate.getVersion() > current.getVersion() ? candidate : current);
+    }
+
+    private static boolean sameDefinition(EventSchema a, EventSchema b) {
+        return a.getType().equals(b.getType())
+            && a.getVersion() == b.getVersion()
+            && Objects.equals(a.getFields().toString(), b.getFields().toString());
+    }
+
+    private static List<EventSchema> parse(JsonNode root) {
+        List<EventSchema> schemas = new ArrayList<>();
+        for (JsonNode node : root.path("schemas")) {
+            List<EventSchema.FieldSpec> fields = new ArrayList<>();
+            for (JsonNode field : node.path("fields")) {
+                fields.add(EventSchema.FieldSpec.parse(field.asText()));
+            }
+            schemas.add(new EventSchema(node.path("id").asInt(), node.path("type").asText(),
+                node.path("version").asInt(1), fields));
+        }
+        return schemas;
+    }
+}
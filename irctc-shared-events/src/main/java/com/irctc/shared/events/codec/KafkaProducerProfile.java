@@ -0,0 +1,47 @@
+package com.irctc.shared.events.codec;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Named producer tunings for event topics.
+ *
+ * DEFAULT leaves the service's own settings untouched. LZ4 trades a few
+ * milliseconds of linger for larger, cheaply compressed batches on the booking
+ * path. ZSTD compresses hardest and suits bulk or analytics traffic where
+ * latency matters less than broker and network bytes.
+ */
+public enum KafkaProducerProfile {
+
+    DEFAULT(null, null, null),
+    LZ4("lz4", 5, 64 * 1024),
+    ZSTD("zstd", 20, 256 * 1024);
+
+    private final String compressionType;
+    private final Integer lingerMs;
+    private final Integer batchSize;
+
+    KafkaProducerProfile(String compressionType, Integer lingerMs, Integer batchSize) {
+        this.compressionType = compressionType;
+        this.lingerMs = lingerMs;
+        this.batchSize = batchSize;
+    }
+
+    public void applyTo(Map<String, Object> configProps) {
+        if (compressionType == null) {
+            return;
+        }
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+    }
+
+    public static KafkaProducerProfile fromName(String name) {
+        if (name == null || name.isBlank()) {
+            return DEFAULT;
+        }
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+}
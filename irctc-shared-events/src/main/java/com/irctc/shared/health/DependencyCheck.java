@@ -0,0 +1,16 @@
+package com.irctc.shared.health;
+
+import java.util.Map;
+
+/**
+ * One dependency check run by {@link DependencyHealthMonitor}.
+ *
+ * The returned map carries a Boolean "status" (null when the dependency is
+ * not configured) plus any details to show in health output. A check that
+ * throws is reported down with the exception message.
+ */
+@FunctionalInterface
+public interface DependencyCheck {
+
+    Map<String, Object> check() throws Exception;
+}
@@ -0,0 +1,101 @@
+package com.irctc.shared.health;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.EurekaClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Database, Redis and Eureka checks for {@link DependencyHealthMonitor}.
+ *
+ * The database check is a SELECT 1 and the Redis check a PING, so no table
+ * is read and no key is written. Each factory accepts null for a dependency
+ * the service does not have, and the check then reports "not configured".
+ */
+public final class DependencyChecks {
+
+    private static final Logger logger = LoggerFactory.getLogger(DependencyChecks.class);
+
+    private DependencyChecks() {
+    }
+
+    public static DependencyCheck database(DataSource dataSource, long timeoutMs) {
+        return () -> {
+            Map<String, Object> dbHealth = new HashMap<>();
+            if (dataSource == null) {
+                return notConfigured(dbHealth);
+            }
+
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(timeoutMs)));
+                try (ResultSet rs = statement.executeQuery("SELECT 1")) {
+                    dbHealth.put("status", rs.next());
+                }
+                dbHealth.put("databaseProductName", connection.getMetaData().getDatabaseProductName());
+            } catch (Exception e) {
+                logger.warn("Database health check failed: {}", e.getMessage());
+                dbHealth.put("status", false);
+                dbHealth.put("message", "error: " + e.getMessage());
+            }
+            return dbHealth;
+        };
+    }
+
+    public static DependencyCheck redis(RedisConnectionFactory redisConnectionFactory) {
+        return () -> {
+            Map<String, Object> redisHealth = new HashMap<>();
+            redisHealth.put("required", false);
+            if (redisConnectionFactory == null) {
+                return notConfigured(redisHealth);
+            }
+
+            try (RedisConnection connection = redisConnectionFactory.getConnection()) {
+                redisHealth.put("ping", connection.ping());
+                redisHealth.put("status", true);
+            } catch (Exception e) {
+                logger.debug("Redis health check failed (optional): {}", e.getMessage());
+                redisHealth.put("status", false);
+                redisHealth.put("message", "error: " + e.getMessage());
+            }
+            return redisHealth;
+        };
+    }
+
+    public static DependencyCheck eureka(EurekaClient eurekaClient) {
+        return () -> {
+            Map<String, Object> eurekaHealth = new HashMap<>();
+            if (eurekaClient == null) {
+                return notConfigured(eurekaHealth);
+            }
+
+            InstanceInfo instanceInfo = eurekaClient.getApplicationInfoManager().getInfo();
+            if (instanceInfo != null) {
+                eurekaHealth.put("status", true);
+                eurekaHealth.put("instanceId", instanceInfo.getInstanceId());
+                eurekaHealth.put("appName", instanceInfo.getAppName());
+                eurekaHealth.put("instanceStatus", instanceInfo.getStatus().toString());
+            } else {
+                eurekaHealth.put("status", false);
+                eurekaHealth.put("message", "instance info not available");
+            }
+            return eurekaHealth;
+        };
+    }
+
+    static Map<String, Object> notConfigured(Map<String, Object> details) {
+        details.put("status", null);
+        details.put("message", "not configured");
+        return details;
+    }
+}
@@ -0,0 +1,186 @@
+package com.irctc.shared.health;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Background dependency checks for the health indicators.
+ *
+ * Services register their checks (see {@link DependencyChecks} and
+ * {@link KafkaClusterProbe}) and expose the monitor as a bean started with
+ * the context. Checks run in parallel on daemon threads every
+ * health.probe.interval-ms, all bounded by one health.probe.timeout-ms
+ * deadline. Health indicators only read the last result, so actuator probes
+ * are answered from memory however slow a dependency is.
+ */
+public class DependencyHealthMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(DependencyHealthMonitor.class);
+
+    public static final String DATABASE = "database";
+    public static final String REDIS = "redis";
+    public static final String KAFKA = "kafka";
+    public static final String EUREKA = "eureka";
+
+    private final HealthProbeSettings settings;
+    private final Map<String, DependencyCheck> checks = new LinkedHashMap<>();
+    private final Map<String, ProbeResult> results = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+    private ExecutorService checkExecutor;
+
+    /**
+     * Outcome of one check; status is null when the dependency is not configured
+     */
+    public record ProbeResult(Boolean status, Map<String, Object> details, Instant checkedAt, long durationMs) {
+        public long ageMs() {
+            return Duration.between(checkedAt, Instant.now()).toMillis();
+        }
+    }
+
+    public DependencyHealthMonitor(HealthProbeSettings settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * Add a check under the given name; call before {@link #start()}
+     */
+    public DependencyHealthMonitor register(String name, DependencyCheck check) {
+        checks.put(name, check);
+        return this;
+    }
+
+    public HealthProbeSettings getSettings() {
+        return settings;
+    }
+
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("health-probe-scheduler"));
+        checkExecutor = Executors.newFixedThreadPool(Math.max(1, checks.size()), daemonThreads("health-probe"));
+        scheduler.scheduleWithFixedDelay(this::refresh, 0, settings.getIntervalMs(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop the schedule and close any check holding a client, such as the Kafka probe
+     */
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        if (checkExecutor != null) {
+            checkExecutor.shutdownNow();
+        }
+        for (DependencyCheck check : checks.values()) {
+            if (check instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    logger.debug("Failed to close health check: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Run every check once, in parallel, and store the results
+     */
+    public void refresh() {
+        try {
+            runChecks();
+        } catch (Exception e) {
+            // Never let an exception cancel the schedule
+            logger.error("Health probe refresh failed", e);
+        }
+    }
+
+    /**
+     * Latest result of a check, or null before it has completed once
+     */
+    public ProbeResult getResult(String name) {
+        return results.get(name);
+    }
+
+    /**
+     * True when the latest result of a check is healthy and not older than health.probe.max-age-ms
+     */
+    public boolean isHealthy(String name) {
+        ProbeResult result = results.get(name);
+        return result != null && Boolean.TRUE.equals(result.status()) && result.ageMs() <= settings.getMaxAgeMs();
+    }
+
+    /**
+     * Details of the latest result of a check, with its status and age, for health output
+     */
+    public Map<String, Object> describe(String name) {
+        ProbeResult result = results.get(name);
+        Map<String, Object> details = new HashMap<>();
+        if (result == null) {
+            details.put("status", null);
+            details.put("message", "awaiting first check");
+            return details;
+        }
+        details.putAll(result.details());
+        details.put("status", result.status());
+        details.put("responseTime", result.durationMs() + "ms");
+        details.put("checkedAt", result.checkedAt().toString());
+        long age = result.ageMs();
+        details.put("ageMs", age);
+        if (age > settings.getMaxAgeMs()) {
+            details.put("stale", true);
+        }
+        return details;
+    }
+
+    private void runChecks() {
+        Instant start = Instant.now();
+        long timeoutMs = settings.getTimeoutMs();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        Map<String, Future<Map<String, Object>>> futures = new LinkedHashMap<>();
+        checks.forEach((name, check) -> futures.put(name, checkExecutor.submit(check::check)));
+
+        futures.forEach((name, future) -> {
+            Map<String, Object> details;
+            try {
+                details = new HashMap<>(future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                details = new HashMap<>();
+                details.put("status", false);
+                details.put("message", "timed out after " + timeoutMs + "ms");
+            } catch (Exception e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                logger.warn("{} health check failed: {}", name, cause.getMessage());
+                details = new HashMap<>();
+                details.put("status", false);
+                details.put("message", "error: " + cause.getMessage());
+            }
+            Boolean status = (Boolean) details.remove("status");
+            Instant checkedAt = Instant.now();
+            results.put(name, new ProbeResult(status, details, checkedAt,
+                Duration.between(start, checkedAt).toMillis()));
+        });
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,40 @@
+package com.irctc.shared.health;
+
+/**
+ * Schedule and limits for {@link DependencyHealthMonitor}.
+ *
+ * Services bind these from health.probe (interval-ms, timeout-ms, max-age-ms).
+ * Every check is bounded by the timeout, and a result older than the max age
+ * no longer counts as healthy, so a stuck scheduler shows up as a failing
+ * probe rather than a frozen UP.
+ */
+public class HealthProbeSettings {
+
+    private long intervalMs = 10_000;
+    private long timeoutMs = 2_000;
+    private long maxAgeMs = 30_000;
+
+    public long getIntervalMs() {
+        return intervalMs;
+    }
+
+    public void setIntervalMs(long intervalMs) {
+        this.intervalMs = intervalMs;
+    }
+
+    public long getTimeoutMs() {
+        return timeoutMs;
+    }
+
+    public void setTimeoutMs(long timeoutMs) {
+        this.timeoutMs = timeoutMs;
+    }
+
+    public long getMaxAgeMs() {
+        return maxAgeMs;
+    }
+
+    public void setMaxAgeMs(long maxAgeMs) {
+        this.maxAgeMs = maxAgeMs;
+    }
+}
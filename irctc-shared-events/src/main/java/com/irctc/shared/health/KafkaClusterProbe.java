@@ -0,0 +1,87 @@
+package com.irctc.shared.health;
+
+import org.apache.kafka.clients.CommonClientConfigs;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.DescribeClusterOptions;
+import org.apache.kafka.clients.admin.DescribeClusterResult;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kafka check for {@link DependencyHealthMonitor} that asks the brokers.
+ *
+ * Each run is an AdminClient describeCluster call bounded by the probe
+ * timeout, so the check is down when no broker answers rather than whenever
+ * a producer happens to be configured. The AdminClient is built on first use
+ * from the connection and security keys of the given client config (usually
+ * the producer factory's) and reused until {@link #close()}.
+ */
+public class KafkaClusterProbe implements DependencyCheck, AutoCloseable {
+
+    private final Map<String, Object> adminConfig;
+    private final long timeoutMs;
+    private AdminClient adminClient;
+
+    /**
+     * @param clientConfig Kafka client config with at least bootstrap.servers, or null when Kafka is not configured
+     * @param timeoutMs    bound on each describeCluster call
+     */
+    public KafkaClusterProbe(Map<String, Object> clientConfig, long timeoutMs) {
+        this.adminConfig = clientConfig != null ? adminConfig(clientConfig, timeoutMs) : null;
+        this.timeoutMs = timeoutMs;
+    }
+
+    @Override
+    public Map<String, Object> check() throws Exception {
+        Map<String, Object> kafkaHealth = new HashMap<>();
+        if (adminConfig == null || adminConfig.get(CommonClientConfigs.BOOTSTRAP_SERVERS_CONFIG) == null) {
+            return DependencyChecks.notConfigured(kafkaHealth);
+        }
+
+        kafkaHealth.put("bootstrapServers", adminConfig.get(CommonClientConfigs.BOOTSTRAP_SERVERS_CONFIG));
+        DescribeClusterResult cluster = adminClient()
+            .describeCluster(new DescribeClusterOptions().timeoutMs((int) timeoutMs));
+        kafkaHealth.put("clusterId", cluster.clusterId().get(timeoutMs, TimeUnit.MILLISECONDS));
+        int nodes = cluster.nodes().get(timeoutMs, TimeUnit.MILLISECONDS).size();
+        kafkaHealth.put("nodes", nodes);
+        kafkaHealth.put("status", nodes > 0);
+        return kafkaHealth;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (adminClient != null) {
+            adminClient.close(Duration.ofMillis(timeoutMs));
+            adminClient = null;
+        }
+    }
+
+    private synchronized AdminClient adminClient() {
+        if (adminClient == null) {
+            adminClient = AdminClient.create(adminConfig);
+        }
+        return adminClient;
+    }
+
+    private static Map<String, Object> adminConfig(Map<String, Object> clientConfig, long timeoutMs) {
+        Map<String, Object> config = new HashMap<>();
+        clientConfig.forEach((key, value) -> {
+            if (key.equals(CommonClientConfigs.BOOTSTRAP_SERVERS_CONFIG)
+                    || key.equals(CommonClientConfigs.SECURITY_PROTOCOL_CONFIG)
+                    || key.equals(CommonClientConfigs.CLIENT_DNS_LOOKUP_CONFIG)
+                    || key.startsWith("sasl.")
+                    || key.startsWith("ssl.")) {
+                config.put(key, value);
+            }
+        });
+        int timeout = (int) timeoutMs;
+        config.put(AdminClientConfig.CLIENT_ID_CONFIG, "health-probe");
+        config.put(AdminClientConfig.REQUEST_TIMEOUT_MS_CONFIG, timeout);
+        config.put(AdminClientConfig.DEFAULT_API_TIMEOUT_MS_CONFIG, timeout);
+        return config;
+    }
+}
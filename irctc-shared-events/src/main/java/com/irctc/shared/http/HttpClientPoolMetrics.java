@@ -0,0 +1,45 @@
+package com.irctc.shared.http;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.hc.core5.pool.PoolStats;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Pool saturation gauges for a {@link PooledFeignClient}, tagged with the calling service.
+ *
+ * pending above zero means calls are queueing for a connection; the
+ * acquire.timeouts counter counts the ones that gave up.
+ */
+public class HttpClientPoolMetrics implements MeterBinder {
+
+    private final String service;
+    private final PooledFeignClient client;
+
+    public HttpClientPoolMetrics(String service, PooledFeignClient client) {
+        this.service = service;
+        this.client = client;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        gauge(registry, "http.client.pool.leased", "Connections in use", PoolStats::getLeased);
+        gauge(registry, "http.client.pool.pending", "Calls waiting for a connection", PoolStats::getPending);
+        gauge(registry, "http.client.pool.available", "Idle kept-alive connections", PoolStats::getAvailable);
+        gauge(registry, "http.client.pool.max", "Maximum connections across all routes", PoolStats::getMax);
+        FunctionCounter.builder("http.client.pool.acquire.timeouts", client, PooledFeignClient::getPoolAcquireTimeouts)
+            .description("Calls that timed out waiting for a pooled connection")
+            .tag("service", service)
+            .register(registry);
+    }
+
+    private void gauge(MeterRegistry registry, String name, String description, ToDoubleFunction<PoolStats> value) {
+        Gauge.builder(name, client, c -> value.applyAsDouble(c.getPoolStats()))
+            .description(description)
+            .tag("service", service)
+            .register(registry);
+    }
+}
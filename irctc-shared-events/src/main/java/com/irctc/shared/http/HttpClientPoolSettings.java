@@ -0,0 +1,116 @@
+package com.irctc.shared.http;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Pool, timeout and compression settings for {@link PooledFeignClient}.
+ *
+ * Services bind these from irctc.http.client. Pools are kept per route, i.e.
+ * per host and port the load balancer resolved, so maxPerRoute caps the
+ * connections to any single peer instance and maxTotal caps them all.
+ *
+ * The read timeout of a call is the Feign client's readTimeout
+ * (spring.cloud.openfeign.client.config) unless methodReadTimeouts has an
+ * entry for its Feign config key, either in full such as
+ * "PaymentServiceClient#processPayment(PaymentRequest)" or without the
+ * parameter list such as "PaymentServiceClient#processPayment".
+ */
+public class HttpClientPoolSettings {
+
+    private int maxTotal = 200;
+    private int maxPerRoute = 50;
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration poolAcquireTimeout = Duration.ofSeconds(1);
+    private Duration idleTimeout = Duration.ofSeconds(30);
+    private Duration timeToLive = Duration.ofMinutes(5);
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+    private boolean compression = true;
+    private Map<String, Duration> methodReadTimeouts = new LinkedHashMap<>();
+
+    public int getMaxTotal() {
+        return maxTotal;
+    }
+
+    public void setMaxTotal(int maxTotal) {
+        this.maxTotal = maxTotal;
+    }
+
+    public int getMaxPerRoute() {
+        return maxPerRoute;
+    }
+
+    public void setMaxPerRoute(int maxPerRoute) {
+        this.maxPerRoute = maxPerRoute;
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    /**
+     * How long a call waits for a free pooled connection before failing
+     */
+    public Duration getPoolAcquireTimeout() {
+        return poolAcquireTimeout;
+    }
+
+    public void setPoolAcquireTimeout(Duration poolAcquireTimeout) {
+        this.poolAcquireTimeout = poolAcquireTimeout;
+    }
+
+    /**
+     * Idle connections are closed in the background after this long
+     */
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * Upper bound on a connection's lifetime, so instances that left the
+     * load balancer stop receiving traffic over kept-alive connections
+     */
+    public Duration getTimeToLive() {
+        return timeToLive;
+    }
+
+    public void setTimeToLive(Duration timeToLive) {
+        this.timeToLive = timeToLive;
+    }
+
+    public Duration getValidateAfterInactivity() {
+        return validateAfterInactivity;
+    }
+
+    public void setValidateAfterInactivity(Duration validateAfterInactivity) {
+        this.validateAfterInactivity = validateAfterInactivity;
+    }
+
+    /**
+     * Ask peers for gzip or deflate responses and decompress them transparently
+     */
+    public boolean isCompression() {
+        return compression;
+    }
+
+    public void setCompression(boolean compression) {
+        this.compression = compression;
+    }
+
+    public Map<String, Duration> getMethodReadTimeouts() {
+        return methodReadTimeouts;
+    }
+
+    public void setMethodReadTimeouts(Map<String, Duration> methodReadTimeouts) {
+        this.methodReadTimeouts = methodReadTimeouts;
+    }
+}
@@ -0,0 +1,248 @@
+package com.irctc.shared.http;
+
+import feign.Client;
+import feign.MethodMetadata;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.ConnectionRequestTimeoutException;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
+import org.apache.hc.core5.http.message.BasicClassicHttpRequest;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Feign {@link Client} on a pooled Apache HttpClient 5.
+ *
+ * Connections are kept alive and reused per route. When wrapped by Spring
+ * Cloud's load-balancing Feign client, each call arrives here with the
+ * instance's host and port already resolved, so every instance gets its own
+ * pool and a connection is only ever reused for the instance it was opened
+ * to. Redirects follow the Feign options, and retries are left to Feign and
+ * the circuit breakers.
+ *
+ * A response body that was not read to the end is drained on close, up to
+ * DRAIN_LIMIT bytes, so its connection can go back to the pool.
+ */
+public class PooledFeignClient implements Client, Closeable {
+
+    private static final int DRAIN_LIMIT = 64 * 1024;
+
+    private final HttpClientPoolSettings settings;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+    private final Timeout poolAcquireTimeout;
+    private final Map<String, Optional<Duration>> readTimeoutsByConfigKey = new ConcurrentHashMap<>();
+    private final AtomicLong poolAcquireTimeouts = new AtomicLong();
+
+    public PooledFeignClient(HttpClientPoolSettings settings) {
+        this.settings = settings;
+        this.poolAcquireTimeout = Timeout.of(settings.getPoolAcquireTimeout());
+        this.connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(settings.getMaxTotal())
+            .setMaxConnPerRoute(settings.getMaxPerRoute())
+            .setConnPoolPolicy(PoolReusePolicy.LIFO)
+            .setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.of(settings.getConnectTimeout()))
+                .setTimeToLive(TimeValue.of(settings.getTimeToLive()))
+                .setValidateAfterInactivity(TimeValue.of(settings.getValidateAfterInactivity()))
+                .build())
+            .build();
+
+        HttpClientBuilder builder = HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            .evictExpiredConnections()
+            .evictIdleConnections(TimeValue.of(settings.getIdleTimeout()))
+            .disableAutomaticRetries()
+            .disableCookieManagement();
+        if (!settings.isCompression()) {
+            builder.disableContentCompression();
+        }
+        this.httpClient = builder.build();
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        HttpClientContext context = HttpClientContext.create();
+        context.setRequestConfig(RequestConfig.custom()
+            .setConnectionRequestTimeout(poolAcquireTimeout)
+            .setResponseTimeout(Timeout.of(readTimeout(request, options)))
+            .setRedirectsEnabled(options.isFollowRedirects())
+            .build());
+
+        CloseableHttpResponse response;
+        try {
+            response = httpClient.execute(toHttpRequest(request), context);
+        } catch (ConnectionRequestTimeoutException e) {
+            poolAcquireTimeouts.incrementAndGet();
+            throw e;
+        }
+
+        Map<String, Collection<String>> headers = new LinkedHashMap<>();
+        for (Header header : response.getHeaders()) {
+            headers.computeIfAbsent(header.getName(), name -> new ArrayList<>()).add(header.getValue());
+        }
+        HttpEntity entity = response.getEntity();
+        Response.Builder builder = Response.builder()
+            .status(response.getCode())
+            .reason(response.getReasonPhrase())
+            .headers(headers)
+            .request(request);
+        if (entity == null) {
+            response.close();
+            return builder.build();
+        }
+        return builder.body(new PooledBody(response, entity)).build();
+    }
+
+    /**
+     * Totals across all routes: leased, pending, available and max connections
+     */
+    public PoolStats getPoolStats() {
+        return connectionManager.getTotalStats();
+    }
+
+    /**
+     * Calls that failed because no pooled connection became free within poolAcquireTimeout
+     */
+    public long getPoolAcquireTimeouts() {
+        return poolAcquireTimeouts.get();
+    }
+
+    @Override
+    public void close() {
+        httpClient.close(CloseMode.GRACEFUL);
+    }
+
+    Duration readTimeout(Request request, Request.Options options) {
+        RequestTemplate template = request.requestTemplate();
+        MethodMetadata metadata = template != null ? template.methodMetadata() : null;
+        if (metadata != null && !settings.getMethodReadTimeouts().isEmpty()) {
+            Optional<Duration> override = readTimeoutsByConfigKey.computeIfAbsent(metadata.configKey(), this::lookupReadTimeout);
+            if (override.isPresent()) {
+                return override.get();
+            }
+        }
+        return Duration.ofMillis(options.readTimeoutUnit().toMillis(options.readTimeout()));
+    }
+
+    private Optional<Duration> lookupReadTimeout(String configKey) {
+        Map<String, Duration> timeouts = settings.getMethodReadTimeouts();
+        Duration timeout = timeouts.get(configKey);
+        int params = configKey.indexOf('(');
+        if (timeout == null && params > 0) {
+            timeout = timeouts.get(configKey.substring(0, params));
+        }
+        return Optional.ofNullable(timeout);
+    }
+
+    private static BasicClassicHttpRequest toHttpRequest(Request request) {
+        BasicClassicHttpRequest httpRequest = new BasicClassicHttpRequest(request.httpMethod().name(), URI.create(request.url()));
+        String contentType = null;
+        for (Map.Entry<String, Collection<String>> header : request.headers().entrySet()) {
+            String name = header.getKey();
+            // Framing headers are set by the client from the entity
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name) || HttpHeaders.TRANSFER_ENCODING.equalsIgnoreCase(name)) {
+                continue;
+            }
+            for (String value : header.getValue()) {
+                if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)) {
+                    contentType = value;
+                }
+                httpRequest.addHeader(name, value);
+            }
+        }
+        if (request.body() != null) {
+            httpRequest.setEntity(new ByteArrayEntity(request.body(),
+                contentType != null ? ContentType.parseLenient(contentType) : null));
+        }
+        return httpRequest;
+    }
+
+    /**
+     * Streams the entity and releases the connection once Feign closes the response
+     */
+    private static final class PooledBody implements Response.Body {
+
+        private final CloseableHttpResponse response;
+        private final HttpEntity entity;
+        private InputStream stream;
+
+        private PooledBody(CloseableHttpResponse response, HttpEntity entity) {
+            this.response = response;
+            this.entity = entity;
+        }
+
+        @Override
+        public Integer length() {
+            long length = entity.getContentLength();
+            return length >= 0 && length <= Integer.MAX_VALUE ? (int) length : null;
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return entity.isRepeatable();
+        }
+
+        @Override
+        public InputStream asInputStream() throws IOException {
+            if (stream == null) {
+                stream = entity.getContent();
+            }
+            return stream;
+        }
+
+        @Override
+        public Reader asReader(Charset charset) throws IOException {
+            return new InputStreamReader(asInputStream(), charset);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try (response) {
+                InputStream in = asInputStream();
+                if (in != null) {
+                    byte[] buffer = new byte[4096];
+                    long drained = 0;
+                    int read;
+                    while (drained < DRAIN_LIMIT && (read = in.read(buffer)) >= 0) {
+                        drained += read;
+                    }
+                    in.close();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.irctc.shared.events.codec;
+
+import com.irctc.shared.events.BookingEvents;
+import com.irctc.shared.events.PaymentEvents;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BinaryEventCodecTest {
+
+    private final BinaryEventCodec codec = new BinaryEventCodec(EventSchemaRegistry.load(null));
+
+    @Test
+    void testRegisteredEventRoundTripsWithAllFields() {
+        BookingEvents.BookingCreatedEvent event = new BookingEvents.BookingCreatedEvent(
+            42L, 7L, 12951L, "PNR1234567", new BigDecimal("1545.50"), 3, LocalDateTime.of(2026, 11, 2, 6, 15));
+
+        byte[] bytes = codec.encode(event);
+        BookingEvents.BookingCreatedEvent decoded = (BookingEvents.BookingCreatedEvent) codec.decode(bytes);
+
+        assertThat(BinaryEventCodec.isBinary(bytes)).isTrue();
+        assertThat(decoded).usingRecursiveComparison().isEqualTo(event);
+        assertThat(decoded.getEventType()).isEqualTo("BOOKING_CREATED");
+    }
+
+    @Test
+    void testNullFieldsAndNonUuidEventIdsSurvive() {
+        PaymentEvents.PaymentCompletedEvent event = new PaymentEvents.PaymentCompletedEvent();
+        event.setEventId("legacy-event-1");
+        event.setPaymentId(-5L);
+        event.setAmount(new BigDecimal("-0.01"));
+
+        PaymentEvents.PaymentCompletedEvent decoded = (PaymentEvents.PaymentCompletedEvent) codec.decode(codec.encode(event));
+
+        assertThat(decoded).usingRecursiveComparison().isEqualTo(event);
+        assertThat(decoded.getTransactionId()).isNull();
+    }
+
+    @Test
+    void testReaderDecodesOlderSchemaAndSkipsRemovedFields() {
+        String type = BookingEvents.BookingConfirmedEvent.class.getName();
+        EventSchema v1 = new EventSchema(901, type, 1, List.of(
+            EventSchema.FieldSpec.parse("bookingId:long"),
+            EventSchema.FieldSpec.parse("retiredField:string"),
+            EventSchema.FieldSpec.parse("pnrNumber:string")));
+        EventSchema v2 = new EventSchema(902, type, 2, List.of(
+            EventSchema.FieldSpec.parse("bookingId:long"),
+            EventSchema.FieldSpec.parse("pnrNumber:string"),
+            EventSchema.FieldSpec.parse("userId:long")));
+        BookingEvents.BookingConfirmedEvent event = new BookingEvents.BookingConfirmedEvent(9L, 3L, "PNR9");
+
+        byte[] writtenWithV1 = new BinaryEventCodec(new EventSchemaRegistry(List.of(v1))).encode(event);
+        BinaryEventCodec reader = new BinaryEventCodec(new EventSchemaRegistry(List.of(v1, v2)));
+        BookingEvents.BookingConfirmedEvent decoded = (BookingEvents.BookingConfirmedEvent) reader.decode(writtenWithV1);
+
+        assertThat(decoded.getBookingId()).isEqualTo(9L);
+        assertThat(decoded.getPnrNumber()).isEqualTo("PNR9");
+        assertThat(decoded.getUserId()).isNull();
+        // New writes use the latest version
+        assertThat(reader.encode(event)[1]).isNotEqualTo(writtenWithV1[1]);
+    }
+
+    @Test
+    void testConflictingSchemaIdsAreRejected() {
+        String type = BookingEvents.BookingConfirmedEvent.class.getName();
+        EventSchema a = new EventSchema(1, type, 1, List.of(EventSchema.FieldSpec.parse("bookingId:long")));
+        EventSchema b = new EventSchema(1, type, 1, List.of(EventSchema.FieldSpec.parse("pnrNumber:string")));
+
+        assertThatThrownBy(() -> new EventSchemaRegistry(List.of(a, b)))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("Conflicting");
+    }
+
+    @Test
+    void testDualFormatDeserializerReadsBinaryAndJson() {
+        BinaryEventSerializer binarySerializer = new BinaryEventSerializer(codec);
+        org.springframework.kafka.support.serializer.JsonSerializer<Object> jsonSerializer =
+            new org.springframework.kafka.support.serializer.JsonSerializer<>();
+        DualFormatEventDeserializer deserializer = new DualFormatEventDeserializer(new JsonDeserializer<>(), codec);
+        deserializer.configure(Map.of(JsonDeserializer.TRUSTED_PACKAGES, "com.irctc.shared.events"), false);
+        BookingEvents.BookingCancelledEvent event = new BookingEvents.BookingCancelledEvent(
+            11L, 4L, "PNR11", "Plans changed", new BigDecimal("900.00"));
+
+        RecordHeaders jsonHeaders = new RecordHeaders();
+        byte[] json = jsonSerializer.serialize("booking-events", jsonHeaders, event);
+        byte[] binary = binarySerializer.serialize("booking-events", new RecordHeaders(), event);
+
+        assertThat(deserializer.deserialize("booking-events", jsonHeaders, json))
+            .usingRecursiveComparison().isEqualTo(event);
+        assertThat(deserializer.deserialize("booking-events", new RecordHeaders(), binary))
+            .usingRecursiveComparison().isEqualTo(event);
+    }
+
+    @Test
+    void testUnregisteredPayloadsFallBackToJson() {
+        BinaryEventSerializer serializer = new BinaryEventSerializer(codec);
+
+        byte[] bytes = serializer.serialize("booking-created", "{\"bookingId\":1}");
+
+        assertThat(BinaryEventCodec.isBinary(bytes)).isFalse();
+        assertThat(new String(bytes)).startsWith("\"");
+    }
+
+    @Test
+    void testProducerProfilesSetCompressionAndBatching() {
+        Map<String, Object> props = new java.util.HashMap<>();
+        KafkaProducerProfile.fromName("zstd").applyTo(props);
+        assertThat(props).containsEntry("compression.type", "zstd").containsEntry("linger.ms", 20);
+
+        Map<String, Object> untouched = new java.util.HashMap<>(Map.of("linger.ms", 1));
+        KafkaProducerProfile.fromName("default").applyTo(untouched);
+        assertThat(untouched).containsOnlyKeys("linger.ms");
+    }
+}
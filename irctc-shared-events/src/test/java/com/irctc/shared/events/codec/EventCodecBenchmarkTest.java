@@ -0,0 +1,149 @@
+package com.irctc.shared.events.codec;
+
+import com.irctc.shared.events.BookingEvents;
+import com.irctc.shared.events.PaymentEvents;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.CompressionType;
+import org.apache.kafka.common.record.MemoryRecords;
+import org.apache.kafka.common.record.MemoryRecordsBuilder;
+import org.apache.kafka.common.record.TimestampType;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Bytes per event and serde cost, JSON with type headers vs the binary codec.
+ *
+ * Batch sizes are measured with Kafka's own record batch builder, so they
+ * include record framing and headers as they would travel to the broker.
+ * Timings are a rough single-threaded ns/op after warm-up, for comparison only.
+ */
+@Tag("benchmark")
+class EventCodecBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventCodecBenchmarkTest.class);
+
+    private static final int EVENTS = 2_000;
+    private static final int BATCH = 200;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 5;
+
+    private final BinaryEventCodec codec = new BinaryEventCodec(EventSchemaRegistry.load(null));
+
+    @Test
+    void testBinaryEncodingIsSmallerThanJson() {
+        report("BookingCreatedEvent", i -> new BookingEvents.BookingCreatedEvent(100_000L + i, 5_000L + i % 97,
+            12_000L + i % 13, "PNR" + (4_000_000 + i), new BigDecimal("1545.50").add(BigDecimal.valueOf(i % 40)),
+            1 + i % 6, LocalDateTime.of(2026, 12, 1, 6, 15).plusDays(i % 60)));
+        report("PaymentCompletedEvent", i -> new PaymentEvents.PaymentCompletedEvent(70_000L + i, 100_000L + i,
+            5_000L + i % 97, new BigDecimal("1545.50"), "TXN" + java.util.UUID.randomUUID(), "RAZORPAY"));
+    }
+
+    private void report(String name, IntFunction<Object> factory) {
+        List<Object> events = new ArrayList<>(EVENTS);
+        for (int i = 0; i < EVENTS; i++) {
+            events.add(factory.apply(i));
+        }
+
+        JsonSerializer<Object> jsonSerializer = new JsonSerializer<>();
+        JsonDeserializer<Object> jsonDeserializer = new JsonDeserializer<>();
+        jsonDeserializer.configure(Map.of(JsonDeserializer.TRUSTED_PACKAGES, "com.irctc.shared.events"), false);
+        BinaryEventSerializer binarySerializer = new BinaryEventSerializer(codec);
+        DualFormatEventDeserializer binaryDeserializer = new DualFormatEventDeserializer(new JsonDeserializer<>(), codec);
+
+        Result json = measure(events, jsonSerializer, jsonDeserializer);
+        Result binary = measure(events, binarySerializer, binaryDeserializer);
+
+        logger.info("{} over {} events (batches of {})\n{}\n{}\n{}",
+            name, EVENTS, BATCH,
+            String.format("  %-7s %9s %11s %11s %11s %9s %9s",
+                "format", "bytes/evt", "batch/none", "batch/lz4", "batch/zstd", "ser ns", "deser ns"),
+            json.row("json"), binary.row("binary"));
+
+        assertTrue(binary.rawBytes < json.rawBytes / 2, name + ": binary " + binary.rawBytes + " vs json " + json.rawBytes);
+        assertTrue(binary.batchBytes[0] < json.batchBytes[0], name + ": uncompressed batches");
+    }
+
+    private Result measure(List<Object> events, Serializer<Object> serializer, Deserializer<Object> deserializer) {
+        List<byte[]> payloads = new ArrayList<>(events.size());
+        List<Header[]> headers = new ArrayList<>(events.size());
+        for (Object event : events) {
+            RecordHeaders recordHeaders = new RecordHeaders();
+            payloads.add(serializer.serialize("events", recordHeaders, event));
+            headers.add(recordHeaders.toArray());
+        }
+
+        Result result = new Result();
+        long total = 0;
+        for (byte[] payload : payloads) {
+            total += payload.length;
+        }
+        result.rawBytes = (double) total / payloads.size();
+        CompressionType[] types = {CompressionType.NONE, CompressionType.LZ4, CompressionType.ZSTD};
+        for (int t = 0; t < types.length; t++) {
+            result.batchBytes[t] = batchBytesPerEvent(payloads, headers, types[t]);
+        }
+
+        long serNanos = 0;
+        long deserNanos = 0;
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (Object event : events) {
+                serializer.serialize("events", new RecordHeaders(), event);
+            }
+            long middle = System.nanoTime();
+            for (int i = 0; i < payloads.size(); i++) {
+                deserializer.deserialize("events", new RecordHeaders(headers.get(i)), payloads.get(i));
+            }
+            long end = System.nanoTime();
+            if (round >= WARMUP_ROUNDS) {
+                serNanos += middle - start;
+                deserNanos += end - middle;
+            }
+        }
+        result.serNsPerOp = (double) serNanos / (MEASURED_ROUNDS * events.size());
+        result.deserNsPerOp = (double) deserNanos / (MEASURED_ROUNDS * events.size());
+        return result;
+    }
+
+    private static double batchBytesPerEvent(List<byte[]> payloads, List<Header[]> headers, CompressionType type) {
+        long total = 0;
+        for (int from = 0; from < payloads.size(); from += BATCH) {
+            MemoryRecordsBuilder builder = MemoryRecords.builder(ByteBuffer.allocate(1024 * 1024), type,
+                TimestampType.CREATE_TIME, 0L);
+            for (int i = from; i < Math.min(from + BATCH, payloads.size()); i++) {
+                builder.append(System.currentTimeMillis(), null, payloads.get(i), headers.get(i));
+            }
+            total += builder.build().sizeInBytes();
+        }
+        return (double) total / payloads.size();
+    }
+
+    private static final class Result {
+        double rawBytes;
+        final double[] batchBytes = new double[3];
+        double serNsPerOp;
+        double deserNsPerOp;
+
+        String row(String format) {
+            return String.format("  %-7s %9.1f %11.1f %11.1f %11.1f %9.0f %9.0f",
+                format, rawBytes, batchBytes[0], batchBytes[1], batchBytes[2], serNsPerOp, deserNsPerOp);
+        }
+    }
+}
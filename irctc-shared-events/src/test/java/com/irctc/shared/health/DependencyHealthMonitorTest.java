@@ -0,0 +1,114 @@
+package com.irctc.shared.health;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DependencyHealthMonitorTest {
+
+    private DependencyHealthMonitor monitor;
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        HealthProbeSettings settings = new HealthProbeSettings();
+        settings.setIntervalMs(3_600_000L);
+        settings.setTimeoutMs(500L);
+        dataSource = mock(DataSource.class);
+        monitor = new DependencyHealthMonitor(settings)
+            .register(DependencyHealthMonitor.DATABASE, DependencyChecks.database(dataSource, settings.getTimeoutMs()))
+            .register(DependencyHealthMonitor.REDIS, DependencyChecks.redis(null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        monitor.stop();
+    }
+
+    @Test
+    void testResultsAreKeptFromTheBackgroundCheck() throws Exception {
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery("SELECT 1")).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(metaData.getDatabaseProductName()).thenReturn("H2");
+
+        monitor.start();
+        awaitResult(DependencyHealthMonitor.DATABASE);
+
+        assertTrue(monitor.isHealthy(DependencyHealthMonitor.DATABASE));
+        Map<String, Object> details = monitor.describe(DependencyHealthMonitor.DATABASE);
+        assertEquals(true, details.get("status"));
+        assertEquals("H2", details.get("databaseProductName"));
+        assertTrue(details.containsKey("ageMs"));
+        assertEquals("not configured", monitor.describe(DependencyHealthMonitor.REDIS).get("message"));
+        assertFalse(monitor.isHealthy(DependencyHealthMonitor.REDIS));
+    }
+
+    @Test
+    void testSlowDatabaseIsReportedDownAfterTimeout() throws Exception {
+        when(dataSource.getConnection()).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return null;
+        });
+
+        monitor.start();
+        awaitResult(DependencyHealthMonitor.DATABASE);
+
+        assertFalse(monitor.isHealthy(DependencyHealthMonitor.DATABASE));
+        assertEquals("timed out after 500ms", monitor.describe(DependencyHealthMonitor.DATABASE).get("message"));
+    }
+
+    @Test
+    void testNothingIsHealthyBeforeTheFirstCheck() {
+        assertFalse(monitor.isHealthy(DependencyHealthMonitor.DATABASE));
+        assertEquals("awaiting first check", monitor.describe(DependencyHealthMonitor.DATABASE).get("message"));
+    }
+
+    @Test
+    void testUnreachableKafkaIsReportedDownWithinTheTimeout() throws Exception {
+        // Nothing listens on port 1, so describeCluster can never be answered
+        KafkaClusterProbe kafka = new KafkaClusterProbe(Map.of("bootstrap.servers", "localhost:1"), 500L);
+        monitor.register(DependencyHealthMonitor.KAFKA, kafka);
+
+        long start = System.currentTimeMillis();
+        monitor.start();
+        awaitResult(DependencyHealthMonitor.KAFKA);
+
+        assertTrue(System.currentTimeMillis() - start < 3_000);
+        assertFalse(monitor.isHealthy(DependencyHealthMonitor.KAFKA));
+        assertEquals(false, monitor.describe(DependencyHealthMonitor.KAFKA).get("status"));
+    }
+
+    @Test
+    void testKafkaWithoutBootstrapServersIsNotConfigured() throws Exception {
+        try (KafkaClusterProbe kafka = new KafkaClusterProbe(null, 500L)) {
+            Map<String, Object> details = kafka.check();
+            assertNull(details.get("status"));
+            assertEquals("not configured", details.get("message"));
+        }
+    }
+
+    private void awaitResult(String name) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (monitor.getResult(name) == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertNotNull(monitor.getResult(name));
+    }
+}
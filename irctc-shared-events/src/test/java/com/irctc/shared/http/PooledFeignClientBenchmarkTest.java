@@ -0,0 +1,182 @@
+package com.irctc.shared.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import feign.Client;
+import feign.Feign;
+import feign.Request;
+import feign.RequestLine;
+import feign.Retryer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Call latency of Feign's default HttpURLConnection client vs the pooled client against a local stub.
+ *
+ * Callers run concurrently, as request threads do in the services. The stub
+ * records the client port of every request, so the number of distinct ports
+ * is the number of TCP connections each client opened. Timings are rough
+ * loopback figures after warm-up, for comparison only.
+ */
+@Tag("benchmark")
+class PooledFeignClientBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(PooledFeignClientBenchmarkTest.class);
+
+    static {
+        // The stub writes headers and body separately; without this, delayed ACKs stall every call
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private static final int THREADS = 16;
+    private static final int CALLS_PER_THREAD = 250;
+    private static final int WARMUP_CALLS_PER_THREAD = 50;
+
+    interface TrainApi {
+        @RequestLine("GET /api/trains/12951")
+        String getTrain();
+    }
+
+    private HttpServer server;
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private byte[] plain;
+    private byte[] gzipped;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        StringBuilder body = new StringBuilder("{\"trainNumber\":\"12951\",\"name\":\"Mumbai Rajdhani\",\"coaches\":[");
+        for (int i = 0; i < 40; i++) {
+            body.append(i == 0 ? "" : ",").append("{\"coach\":\"B").append(i).append("\",\"class\":\"3A\",\"available\":").append(i % 9).append('}');
+        }
+        plain = body.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(plain);
+        }
+        gzipped = compressed.toByteArray();
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 256);
+        server.createContext("/api/trains/12951", this::respond);
+        server.setExecutor(Executors.newFixedThreadPool(THREADS * 2));
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void testCallLatencyAgainstDefaultClient() throws Exception {
+        Result defaultClient = run("default", new Client.Default(null, null));
+
+        HttpClientPoolSettings settings = new HttpClientPoolSettings();
+        settings.setCompression(false);
+        Result pooled;
+        try (PooledFeignClient client = new PooledFeignClient(settings)) {
+            pooled = run("pooled", client);
+        }
+        Result pooledGzip;
+        try (PooledFeignClient client = new PooledFeignClient(new HttpClientPoolSettings())) {
+            pooledGzip = run("pooled+gzip", client);
+        }
+
+        logger.info("{} threads x {} calls, {} byte body ({} gzipped)",
+            THREADS, CALLS_PER_THREAD, plain.length, gzipped.length);
+        logger.info(String.format("  %-12s %11s %9s %9s %9s", "client", "connections", "p50 us", "p99 us", "mean us"));
+        logger.info(defaultClient.row());
+        logger.info(pooled.row());
+        logger.info(pooledGzip.row());
+
+        assertTrue(pooled.connections <= THREADS, "pooled client opened " + pooled.connections + " connections");
+        assertTrue(pooledGzip.connections <= THREADS, "pooled+gzip client opened " + pooledGzip.connections + " connections");
+    }
+
+    private Result run(String name, Client client) throws Exception {
+        TrainApi api = Feign.builder()
+            .client(client)
+            .retryer(Retryer.NEVER_RETRY)
+            .options(new Request.Options(2, TimeUnit.SECONDS, 5, TimeUnit.SECONDS, true))
+            .target(TrainApi.class, "http://127.0.0.1:" + server.getAddress().getPort());
+
+        callConcurrently(api, WARMUP_CALLS_PER_THREAD);
+        clientPorts.clear();
+        long[] latencies = callConcurrently(api, CALLS_PER_THREAD);
+        return new Result(name, clientPorts.size(), latencies);
+    }
+
+    private long[] callConcurrently(TrainApi api, int callsPerThread) throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(callers.submit(() -> {
+                    long[] nanos = new long[callsPerThread];
+                    for (int i = 0; i < callsPerThread; i++) {
+                        long start = System.nanoTime();
+                        String body = api.getTrain();
+                        nanos[i] = System.nanoTime() - start;
+                        assertEquals(plain.length, body.length());
+                    }
+                    return nanos;
+                }));
+            }
+            long[] all = new long[THREADS * callsPerThread];
+            for (int t = 0; t < THREADS; t++) {
+                System.arraycopy(futures.get(t).get(), 0, all, t * callsPerThread, callsPerThread);
+            }
+            return all;
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+        exchange.getRequestBody().readAllBytes();
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        byte[] body = plain;
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            body = gzipped;
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        }
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private record Result(String name, int connections, long[] latencies) {
+        String row() {
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            return String.format("  %-12s %11d %9d %9d %9d", name, connections,
+                sorted[sorted.length / 2] / 1000, sorted[(int) (sorted.length * 0.99)] / 1000,
+                (long) Arrays.stream(sorted).average().orElse(0) / 1000);
+        }
+    }
+}
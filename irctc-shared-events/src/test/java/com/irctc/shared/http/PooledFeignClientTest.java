@@ -0,0 +1,177 @@
+package com.irctc.shared.http;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import feign.Feign;
+import feign.Request;
+import feign.RequestLine;
+import feign.RetryableException;
+import feign.Retryer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PooledFeignClientTest {
+
+    static {
+        // The stub writes headers and body separately; without this, delayed ACKs stall every call
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    interface StubApi {
+        @RequestLine("GET /fast")
+        String fast();
+
+        @RequestLine("GET /slow")
+        String slow();
+
+        @RequestLine("POST /echo")
+        @feign.Headers("Content-Type: application/json")
+        String echo(String body);
+    }
+
+    private HttpServer server;
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private volatile Headers lastHeaders;
+    private PooledFeignClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/fast", exchange -> respond(exchange, "{\"trainNumber\":\"12951\"}"));
+        server.createContext("/slow", exchange -> {
+            sleep(300);
+            respond(exchange, "late");
+        });
+        server.createContext("/echo", exchange -> respond(exchange,
+            new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8)));
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (client != null) {
+            client.close();
+        }
+        server.stop(0);
+    }
+
+    @Test
+    void testSequentialCallsReuseOneConnection() {
+        StubApi api = api(new HttpClientPoolSettings());
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals("{\"trainNumber\":\"12951\"}", api.fast());
+        }
+
+        assertEquals(1, clientPorts.size());
+        assertEquals(0, client.getPoolStats().getLeased());
+        assertEquals(1, client.getPoolStats().getAvailable());
+    }
+
+    @Test
+    void testGzipResponsesAreDecompressed() {
+        StubApi api = api(new HttpClientPoolSettings());
+
+        assertEquals("{\"trainNumber\":\"12951\"}", api.fast());
+        assertTrue(lastHeaders.getFirst("Accept-Encoding").contains("gzip"));
+    }
+
+    @Test
+    void testCompressionCanBeDisabled() {
+        HttpClientPoolSettings settings = new HttpClientPoolSettings();
+        settings.setCompression(false);
+        StubApi api = api(settings);
+
+        assertEquals("{\"trainNumber\":\"12951\"}", api.fast());
+        assertNull(lastHeaders.getFirst("Accept-Encoding"));
+    }
+
+    @Test
+    void testMethodReadTimeoutOverridesClientTimeout() {
+        HttpClientPoolSettings settings = new HttpClientPoolSettings();
+        settings.getMethodReadTimeouts().put("StubApi#slow", Duration.ofMillis(50));
+        StubApi api = api(settings);
+
+        RetryableException e = assertThrows(RetryableException.class, api::slow);
+        assertInstanceOf(SocketTimeoutException.class, e.getCause());
+        assertEquals("{\"trainNumber\":\"12951\"}", api.fast());
+    }
+
+    @Test
+    void testRequestBodyAndContentTypeAreSent() {
+        StubApi api = api(new HttpClientPoolSettings());
+
+        assertEquals("{\"pnr\":\"4000001\"}", api.echo("{\"pnr\":\"4000001\"}"));
+        assertEquals("application/json", lastHeaders.getFirst("Content-Type"));
+    }
+
+    @Test
+    void testPoolMetricsAreRegistered() {
+        StubApi api = api(new HttpClientPoolSettings());
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new HttpClientPoolMetrics("booking", client).bindTo(registry);
+
+        api.fast();
+
+        assertEquals(1.0, registry.get("http.client.pool.available").tag("service", "booking").gauge().value());
+        assertEquals(0.0, registry.get("http.client.pool.pending").gauge().value());
+        assertEquals(200.0, registry.get("http.client.pool.max").gauge().value());
+        assertEquals(0.0, registry.get("http.client.pool.acquire.timeouts").functionCounter().count());
+    }
+
+    private StubApi api(HttpClientPoolSettings settings) {
+        client = new PooledFeignClient(settings);
+        return Feign.builder()
+            .client(client)
+            .retryer(Retryer.NEVER_RETRY)
+            .options(new Request.Options(1, TimeUnit.SECONDS, 5, TimeUnit.SECONDS, true))
+            .target(StubApi.class, "http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    private void respond(HttpExchange exchange, String body) throws IOException {
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+        lastHeaders = exchange.getRequestHeaders();
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(bytes);
+            }
+            bytes = compressed.toByteArray();
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        }
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
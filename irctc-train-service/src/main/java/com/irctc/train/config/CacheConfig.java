@@ -48,10 +48,10 @@ public class CacheConfig extends CachingConfigurerSupport {
                 config.entryTtl(Duration.ofMinutes(30)))
             .withCacheConfiguration("trains-by-number", 
                 config.entryTtl(Duration.ofHours(1))) // Train numbers are stable
-            .withCacheConfiguration("train-search", 
-                config.entryTtl(Duration.ofMinutes(15))) // Search results cached shorter
             .withCacheConfiguration("all-trains", 
                 config.entryTtl(Duration.ofMinutes(10))) // All trains list changes more often
+            .withCacheConfiguration("train-recommendations",
+                config.entryTtl(Duration.ofMinutes(1))) // Scores follow per-date seat availability
             .build();
     }
 
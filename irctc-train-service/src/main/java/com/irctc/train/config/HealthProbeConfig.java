@@ -0,0 +1,41 @@
+package com.irctc.train.config;
+
+import com.irctc.shared.health.DependencyChecks;
+import com.irctc.shared.health.DependencyHealthMonitor;
+import com.irctc.shared.health.HealthProbeSettings;
+import com.netflix.discovery.EurekaClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import javax.sql.DataSource;
+
+/**
+ * Background dependency checks behind the Train health indicators
+ *
+ * Database, Redis and Eureka checks run on the shared monitor (health.probe.*);
+ * the indicators only read its last results.
+ */
+@Configuration
+public class HealthProbeConfig {
+
+    @Bean
+    @ConfigurationProperties(prefix = "health.probe")
+    public HealthProbeSettings healthProbeSettings() {
+        return new HealthProbeSettings();
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public DependencyHealthMonitor dependencyHealthMonitor(HealthProbeSettings healthProbeSettings,
+                                                         ObjectProvider<DataSource> dataSource,
+                                                         ObjectProvider<RedisConnectionFactory> redisConnectionFactory,
+                                                         ObjectProvider<EurekaClient> eurekaClient) {
+        long timeoutMs = healthProbeSettings.getTimeoutMs();
+        return new DependencyHealthMonitor(healthProbeSettings)
+            .register(DependencyHealthMonitor.DATABASE, DependencyChecks.database(dataSource.getIfAvailable(), timeoutMs))
+            .register(DependencyHealthMonitor.REDIS, DependencyChecks.redis(redisConnectionFactory.getIfAvailable()))
+            .register(DependencyHealthMonitor.EUREKA, DependencyChecks.eureka(eurekaClient.getIfAvailable()));
+    }
+}
@@ -0,0 +1,57 @@
+package com.irctc.train.config;
+
+import com.irctc.shared.events.codec.DualFormatEventDeserializer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Kafka consumer configuration for Train Service
+ *
+ * @author IRCTC Development Team
+ * @version 1.0.0
+ */
+@Configuration
+@EnableKafka
+public class KafkaConfig {
+
+    @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
+    private String bootstrapServers;
+
+    @Value("${train.seat-inventory.max-poll-records:500}")
+    private int seatInventoryMaxPollRecords;
+
+    /**
+     * Batch listener for booking events; each poll is applied to seat inventory as one flush
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> seatInventoryListenerContainerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        configProps.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, seatInventoryMaxPollRecords);
+        configProps.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
+        // Accepts JSON and the binary shared-event codec; undecodable records arrive as null and are skipped
+        ErrorHandlingDeserializer<Object> valueDeserializer = new ErrorHandlingDeserializer<>(
+            new DualFormatEventDeserializer(new JsonDeserializer<>(Object.class)));
+
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(configProps, new StringDeserializer(), valueDeserializer));
+        factory.setBatchListener(true);
+        // A failed flush rolled back completely, so the batch is retried until the database is back
+        factory.setCommonErrorHandler(new DefaultErrorHandler(new FixedBackOff(2000L, FixedBackOff.UNLIMITED_ATTEMPTS)));
+        return factory;
+    }
+}
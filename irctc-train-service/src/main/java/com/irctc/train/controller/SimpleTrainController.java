@@ -1,10 +1,15 @@
 package com.irctc.train.controller;
 
+import com.irctc.train.dto.SeatAvailabilityResponse;
+import com.irctc.train.dto.TrainReferencePage;
 import com.irctc.train.entity.SimpleTrain;
+import com.irctc.train.service.SeatInventoryService;
 import com.irctc.train.service.SimpleTrainService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,12 +20,25 @@ public class SimpleTrainController {
     @Autowired
     private SimpleTrainService trainService;
 
+    @Autowired
+    private SeatInventoryService seatInventoryService;
+
     @GetMapping
     public ResponseEntity<List<SimpleTrain>> getAllTrains() {
         List<SimpleTrain> trains = trainService.getAllTrains();
         return ResponseEntity.ok(trains);
     }
 
+    /**
+     * Paged export of train reference data, for services that keep a local replica
+     */
+    @GetMapping("/reference")
+    public ResponseEntity<TrainReferencePage> getTrainReferences(
+            @RequestParam(defaultValue = "0") Long afterId,
+            @RequestParam(defaultValue = "500") int size) {
+        return ResponseEntity.ok(trainService.getTrainReferences(afterId, size));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<SimpleTrain> getTrainById(@PathVariable Long id) {
         return trainService.getTrainById(id)
@@ -28,6 +46,19 @@ public class SimpleTrainController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Seats left for a journey date, served from the in-memory seat inventory
+     */
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<SeatAvailabilityResponse> getSeatAvailability(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) String seatClass) {
+        return trainService.getTrainById(id)
+                .map(train -> ResponseEntity.ok(seatInventoryService.getAvailability(train, date, seatClass)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @GetMapping("/number/{trainNumber}")
     public ResponseEntity<SimpleTrain> getTrainByNumber(@PathVariable String trainNumber) {
         return trainService.getTrainByNumber(trainNumber)
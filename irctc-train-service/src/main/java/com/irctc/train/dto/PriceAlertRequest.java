@@ -31,6 +31,9 @@ public class PriceAlertRequest {
 
     private LocalDate travelDate;
 
+    @Size(max = 20)
+    private String travelClass;
+
     @NotBlank
     private String alertType; // PRICE_DROP, AVAILABILITY
 
@@ -16,6 +16,7 @@ public class PriceAlertResponse {
     private String sourceStation;
     private String destinationStation;
     private LocalDate travelDate;
+    private String travelClass;
     private String alertType;
     private String notificationChannel;
     private BigDecimal targetPrice;
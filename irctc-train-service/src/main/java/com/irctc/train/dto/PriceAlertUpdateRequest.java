@@ -18,6 +18,9 @@ public class PriceAlertUpdateRequest {
     private Integer minAvailability;
     private LocalDate travelDate;
 
+    @Size(max = 20)
+    private String travelClass;
+
     @Size(max = 50)
     private String trainNumber;
 
@@ -0,0 +1,19 @@
+package com.irctc.train.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * Seats left on a train for one journey date and class
+ */
+@Data
+public class SeatAvailabilityResponse {
+    private Long trainId;
+    private LocalDate journeyDate;
+    private String seatClass;
+    private boolean available;
+    private Integer availableSeats;
+    private Integer waitlistSeats;
+    private Integer racSeats;
+}
@@ -0,0 +1,50 @@
+package com.irctc.train.dto;
+
+import com.irctc.train.entity.SimpleTrain;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Train reference data replicated by other services, without amenities or tenant details
+ */
+@Data
+public class TrainReferenceDTO {
+    private Long id;
+    private String trainNumber;
+    private String trainName;
+    private String sourceStation;
+    private String destinationStation;
+    private LocalDateTime departureTime;
+    private LocalDateTime arrivalTime;
+    private String trainType;
+    private String trainClass;
+    private Double baseFare;
+    private Integer totalSeats;
+    private Integer availableSeats;
+    private Integer distance;
+    private Integer duration;
+    private String status;
+    private Long version;
+
+    public static TrainReferenceDTO from(SimpleTrain train) {
+        TrainReferenceDTO dto = new TrainReferenceDTO();
+        dto.setId(train.getId());
+        dto.setTrainNumber(train.getTrainNumber());
+        dto.setTrainName(train.getTrainName());
+        dto.setSourceStation(train.getSourceStation());
+        dto.setDestinationStation(train.getDestinationStation());
+        dto.setDepartureTime(train.getDepartureTime());
+        dto.setArrivalTime(train.getArrivalTime());
+        dto.setTrainType(train.getTrainType());
+        dto.setTrainClass(train.getTrainClass());
+        dto.setBaseFare(train.getBaseFare());
+        dto.setTotalSeats(train.getTotalSeats());
+        dto.setAvailableSeats(train.getAvailableSeats());
+        dto.setDistance(train.getDistance());
+        dto.setDuration(train.getDuration());
+        dto.setStatus(train.getStatus());
+        dto.setVersion(train.getVersion());
+        return dto;
+    }
+}
@@ -0,0 +1,20 @@
+package com.irctc.train.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of the train reference export, ordered by id.
+ * Pass nextAfterId as afterId to read the following page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrainReferencePage {
+    private List<TrainReferenceDTO> trains;
+    private Long nextAfterId;
+    private boolean hasMore;
+}
@@ -31,6 +31,9 @@ public class PriceAlert implements TenantAware {
     private String destinationStation;
     private LocalDate travelDate;
 
+    @Column(length = 20)
+    private String travelClass; // null matches any class
+
     @Column(nullable = false, length = 40)
     private String alertType; // PRICE_DROP, AVAILABILITY
 
@@ -0,0 +1,44 @@
+package com.irctc.train.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Id of a booking event already applied to seat inventory.
+ * Always new when saved, so saving inserts without a lookup and a replay fails on the key.
+ */
+@Entity
+@Table(name = "seat_inventory_events")
+@Data
+@NoArgsConstructor
+public class ProcessedSeatEvent implements Persistable<String> {
+
+    @Id
+    @Column(name = "event_id", length = 64)
+    private String eventId;
+
+    @Column(name = "processed_at", nullable = false)
+    private LocalDateTime processedAt;
+
+    public ProcessedSeatEvent(String eventId, LocalDateTime processedAt) {
+        this.eventId = eventId;
+        this.processedAt = processedAt;
+    }
+
+    @Override
+    public String getId() {
+        return eventId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
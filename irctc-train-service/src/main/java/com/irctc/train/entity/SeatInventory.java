@@ -0,0 +1,42 @@
+package com.irctc.train.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Seats booked on one train, journey date and class.
+ * Written only by coalesced increments; version grows with every increment.
+ */
+@Entity
+@Table(name = "seat_inventory",
+    uniqueConstraints = @UniqueConstraint(name = "uk_seat_inventory_key",
+        columnNames = {"train_id", "journey_date", "travel_class"}),
+    indexes = @Index(name = "idx_seat_inventory_updated", columnList = "updated_at"))
+@Data
+public class SeatInventory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "train_id", nullable = false)
+    private Long trainId;
+
+    @Column(name = "journey_date", nullable = false)
+    private LocalDate journeyDate;
+
+    @Column(name = "travel_class", nullable = false, length = 20)
+    private String travelClass;
+
+    @Column(name = "booked_seats", nullable = false)
+    private Integer bookedSeats = 0;
+
+    @Column(nullable = false)
+    private Long version = 0L;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
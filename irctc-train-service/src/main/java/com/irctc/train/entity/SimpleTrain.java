@@ -70,6 +70,13 @@ public class SimpleTrain implements TenantAware {
     @Column(name = "amenity")
     private List<String> amenities;
     
+    // Ordered halts from origin to terminus, indexed for intermediate-station search
+    @ElementCollection
+    @CollectionTable(name = "train_stops", joinColumns = @JoinColumn(name = "train_id"))
+    @OrderColumn(name = "stop_sequence")
+    @Column(name = "station_code")
+    private List<String> stops;
+    
     @Column(columnDefinition = "TEXT")
     private String routeDescription;
     
@@ -81,6 +88,9 @@ public class SimpleTrain implements TenantAware {
     
     @Column(name = "tenant_id", length = 50)
     private String tenantId;
+
+    @Version
+    private Long version;
     
     @PrePersist
     protected void onCreate() {
@@ -0,0 +1,21 @@
+package com.irctc.train.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * Published after booking events changed the seats left on one train,
+ * journey date and class, once the new counter was committed.
+ */
+@Data
+@AllArgsConstructor
+public class SeatAvailabilityChangedEvent {
+
+    private String trainNumber;
+    private String trainClass;
+    private LocalDate journeyDate;
+    private Integer previousAvailableSeats;
+    private Integer newAvailableSeats;
+}
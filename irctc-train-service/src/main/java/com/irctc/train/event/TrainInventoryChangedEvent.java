@@ -0,0 +1,37 @@
+package com.irctc.train.event;
+
+import com.irctc.train.entity.SimpleTrain;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Published after a train's fare or seat availability was written.
+ * Previous values are null for a newly created train.
+ */
+@Data
+@AllArgsConstructor
+public class TrainInventoryChangedEvent {
+
+    private String trainNumber;
+    private String sourceStation;
+    private String destinationStation;
+    private String trainClass;
+    private Double previousFare;
+    private Double newFare;
+    private Integer previousAvailableSeats;
+    private Integer newAvailableSeats;
+
+    public static TrainInventoryChangedEvent of(SimpleTrain train, Double previousFare, Integer previousAvailableSeats) {
+        return new TrainInventoryChangedEvent(train.getTrainNumber(), train.getSourceStation(),
+            train.getDestinationStation(), train.getTrainClass(), previousFare, train.getBaseFare(),
+            previousAvailableSeats, train.getAvailableSeats());
+    }
+
+    public boolean fareChanged() {
+        return newFare != null && !newFare.equals(previousFare);
+    }
+
+    public boolean availabilityChanged() {
+        return newAvailableSeats != null && !newAvailableSeats.equals(previousAvailableSeats);
+    }
+}
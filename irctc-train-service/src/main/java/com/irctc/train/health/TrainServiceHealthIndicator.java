@@ -1,14 +1,11 @@
 package com.irctc.train.health;
 
+import com.irctc.shared.health.DependencyHealthMonitor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthIndicator;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
-import javax.sql.DataSource;
-import java.sql.Connection;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
@@ -17,71 +14,46 @@ import java.util.Map;
 /**
  * Custom Health Indicator for Train Service
  * 
- * Checks connectivity and status of:
+ * Summarises the cached dependency checks of {@link DependencyHealthMonitor}:
  * - Database
  * - Redis
- * - Train count
  * 
  * @author IRCTC Development Team
- * @version 1.0.0
+ * @version 1.1.0
  */
 @Component
 public class TrainServiceHealthIndicator implements HealthIndicator {
 
-    @Autowired(required = false)
-    private DataSource dataSource;
-
-    @Autowired(required = false)
-    private JdbcTemplate jdbcTemplate;
-
-    @Autowired(required = false)
-    private RedisTemplate<String, Object> redisTemplate;
+    @Autowired
+    private DependencyHealthMonitor healthMonitor;
 
     @Override
     public Health health() {
         Map<String, Object> details = new HashMap<>();
-        boolean isHealthy = true;
 
         // Check Database
-        if (dataSource != null) {
-            try (Connection connection = dataSource.getConnection()) {
-                boolean valid = connection.isValid(2);
-                details.put("database", valid ? "connected" : "disconnected");
-                details.put("databaseValidation", valid);
-                if (!valid) isHealthy = false;
-            } catch (Exception e) {
-                details.put("database", "error: " + e.getMessage());
-                details.put("databaseValidation", false);
-                isHealthy = false;
-            }
-        } else {
+        DependencyHealthMonitor.ProbeResult database = healthMonitor.getResult(DependencyHealthMonitor.DATABASE);
+        boolean isHealthy = database != null
+                && (database.status() == null || healthMonitor.isHealthy(DependencyHealthMonitor.DATABASE));
+        if (database == null) {
+            details.put("database", "awaiting first check");
+        } else if (database.status() == null) {
             details.put("database", "not configured");
+        } else {
+            details.put("database", isHealthy ? "connected" : "disconnected");
+            details.put("databaseValidation", isHealthy);
+            details.put("databaseCheckAgeMs", database.ageMs());
         }
 
         // Check Redis
-        if (redisTemplate != null) {
-            try {
-                redisTemplate.getConnectionFactory().getConnection().ping();
-                details.put("redis", "connected");
-                details.put("redisValidation", true);
-            } catch (Exception e) {
-                details.put("redis", "error: " + e.getMessage());
-                details.put("redisValidation", false);
-                // Redis is optional
-            }
+        DependencyHealthMonitor.ProbeResult redis = healthMonitor.getResult(DependencyHealthMonitor.REDIS);
+        if (redis == null || redis.status() == null) {
+            details.put("redis", redis == null ? "awaiting first check" : "not configured");
         } else {
-            details.put("redis", "not configured");
-        }
-
-        // Get train count if possible
-        if (jdbcTemplate != null) {
-            try {
-                Long trainCount = jdbcTemplate.queryForObject(
-                    "SELECT COUNT(*) FROM trains", Long.class);
-                details.put("totalTrains", trainCount != null ? trainCount : 0);
-            } catch (Exception e) {
-                details.put("totalTrains", "unknown");
-            }
+            boolean redisHealthy = healthMonitor.isHealthy(DependencyHealthMonitor.REDIS);
+            details.put("redis", redisHealthy ? "connected" : "disconnected");
+            details.put("redisValidation", redisHealthy);
+            // Redis is optional, don't fail health if Redis is down
         }
 
         // Add timestamp
@@ -99,4 +71,3 @@ public class TrainServiceHealthIndicator implements HealthIndicator {
         }
     }
 }
-
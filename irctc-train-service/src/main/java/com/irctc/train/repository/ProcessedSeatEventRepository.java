@@ -0,0 +1,18 @@
+package com.irctc.train.repository;
+
+import com.irctc.train.entity.ProcessedSeatEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ProcessedSeatEventRepository extends JpaRepository<ProcessedSeatEvent, String> {
+
+    @Modifying
+    @Query("DELETE FROM ProcessedSeatEvent e WHERE e.processedAt < :cutoff")
+    int deleteByProcessedAtBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,36 @@
+package com.irctc.train.repository;
+
+import com.irctc.train.entity.SeatInventory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SeatInventoryRepository extends JpaRepository<SeatInventory, Long> {
+
+    Optional<SeatInventory> findByTrainIdAndJourneyDateAndTravelClass(Long trainId, LocalDate journeyDate, String travelClass);
+
+    List<SeatInventory> findByJourneyDateGreaterThanEqual(LocalDate journeyDate);
+
+    List<SeatInventory> findByUpdatedAtGreaterThanEqual(LocalDateTime updatedAt);
+
+    /**
+     * Adds delta in place so concurrent writers never overwrite each other
+     *
+     * @return 0 when no row exists yet for the key
+     */
+    @Modifying
+    @Query("UPDATE SeatInventory s SET s.bookedSeats = s.bookedSeats + :delta, s.version = s.version + 1, " +
+           "s.updatedAt = :updatedAt WHERE s.trainId = :trainId AND s.journeyDate = :journeyDate " +
+           "AND s.travelClass = :travelClass")
+    int addBookedSeats(@Param("trainId") Long trainId, @Param("journeyDate") LocalDate journeyDate,
+                       @Param("travelClass") String travelClass, @Param("delta") int delta,
+                       @Param("updatedAt") LocalDateTime updatedAt);
+}
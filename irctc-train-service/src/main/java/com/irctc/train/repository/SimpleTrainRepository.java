@@ -1,6 +1,8 @@
 package com.irctc.train.repository;
 
 import com.irctc.train.entity.SimpleTrain;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import java.util.List;
@@ -10,4 +12,8 @@ import java.util.Optional;
 public interface SimpleTrainRepository extends JpaRepository<SimpleTrain, Long> {
     Optional<SimpleTrain> findByTrainNumber(String trainNumber);
     List<SimpleTrain> findBySourceStationAndDestinationStation(String source, String destination);
+    List<SimpleTrain> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    @EntityGraph(attributePaths = "stops")
+    List<SimpleTrain> findAllWithStopsBy();
 }
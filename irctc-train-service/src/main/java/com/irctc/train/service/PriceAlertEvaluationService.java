@@ -4,19 +4,47 @@ import com.irctc.train.client.NotificationServiceClient;
 import com.irctc.train.dto.PushNotificationRequest;
 import com.irctc.train.entity.PriceAlert;
 import com.irctc.train.entity.SimpleTrain;
+import com.irctc.train.event.SeatAvailabilityChangedEvent;
+import com.irctc.train.event.TrainInventoryChangedEvent;
 import com.irctc.train.repository.SimpleTrainRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
 
+/**
+ * Price alert engine.
+ *
+ * Fare and seat changes arrive as {@link TrainInventoryChangedEvent}s. Each one
+ * asks the {@link PriceAlertIndex} for the alerts whose threshold the change
+ * crossed, so an update touches only those alerts instead of every active one.
+ * Alerts watching a route follow the cheapest train on it; the route is read
+ * once per event and only when some alert watches it.
+ *
+ * Alerts for a travel date compare against the seats left on that date,
+ * which {@link SeatAvailabilityChangedEvent}s report as bookings come in.
+ *
+ * The periodic scan remains as a reconciliation safety net: it rebuilds the
+ * index from the database and re-checks every active alert, resolving each
+ * train or route once per run.
+ */
 @Service
 public class PriceAlertEvaluationService {
 
@@ -25,36 +53,148 @@ public class PriceAlertEvaluationService {
     private final PriceAlertService priceAlertService;
     private final SimpleTrainRepository trainRepository;
     private final NotificationServiceClient notificationClient;
+    private final PriceAlertIndex priceAlertIndex;
+
+    @Autowired(required = false)
+    private SeatInventoryProjection seatInventory;
 
     @Value("${price.alerts.notification.enabled:true}")
     private boolean notificationsEnabled;
 
     public PriceAlertEvaluationService(PriceAlertService priceAlertService,
                                        SimpleTrainRepository trainRepository,
-                                       NotificationServiceClient notificationClient) {
+                                       NotificationServiceClient notificationClient,
+                                       PriceAlertIndex priceAlertIndex) {
         this.priceAlertService = priceAlertService;
         this.trainRepository = trainRepository;
         this.notificationClient = notificationClient;
+        this.priceAlertIndex = priceAlertIndex;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndex() {
+        priceAlertIndex.rebuild(priceAlertService.getActiveAlerts());
+        logger.info("Price alert index loaded with {} active alerts", priceAlertIndex.size());
+    }
+
+    /**
+     * Evaluates only the alerts whose threshold this change crossed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrainInventoryChanged(TrainInventoryChangedEvent event) {
+        LocalDate today = LocalDate.now();
+        Set<Long> candidates = new LinkedHashSet<>();
+
+        if (event.getTrainNumber() != null) {
+            String target = PriceAlertIndex.trainTarget(event.getTrainNumber());
+            if (event.fareChanged()) {
+                candidates.addAll(priceAlertIndex.priceCrossed(target, event.getTrainClass(),
+                    toDecimal(event.getPreviousFare()), toDecimal(event.getNewFare()), today));
+            }
+            if (event.availabilityChanged()) {
+                candidates.addAll(priceAlertIndex.availabilityCrossed(target, event.getTrainClass(),
+                    event.getPreviousAvailableSeats(), event.getNewAvailableSeats(), today));
+            }
+        }
+
+        String routeTarget = PriceAlertIndex.routeTarget(event.getSourceStation(), event.getDestinationStation());
+        if (event.getSourceStation() != null && priceAlertIndex.watches(routeTarget)) {
+            candidates.addAll(routeCandidates(event, routeTarget, today));
+        }
+
+        if (candidates.isEmpty()) {
+            return;
+        }
+        logger.debug("Train {} change crossed {} price alerts", event.getTrainNumber(), candidates.size());
+        Map<String, Optional<SimpleTrain>> resolved = new HashMap<>();
+        for (Long alertId : candidates) {
+            priceAlertService.findActiveAlert(alertId).ifPresent(alert -> evaluateAlert(alert, resolved));
+        }
+    }
+
+    /**
+     * Evaluates the availability alerts for this journey date whose minimum the change crossed
+     */
+    @EventListener
+    public void onSeatAvailabilityChanged(SeatAvailabilityChangedEvent event) {
+        if (event.getTrainNumber() == null || event.getJourneyDate() == null) {
+            return;
+        }
+        List<Long> candidates = priceAlertIndex.availabilityCrossed(PriceAlertIndex.trainTarget(event.getTrainNumber()),
+            event.getTrainClass(), event.getPreviousAvailableSeats(), event.getNewAvailableSeats(), LocalDate.now());
+        if (candidates.isEmpty()) {
+            return;
+        }
+        Map<String, Optional<SimpleTrain>> resolved = new HashMap<>();
+        for (Long alertId : candidates) {
+            priceAlertService.findActiveAlert(alertId)
+                .filter(alert -> event.getJourneyDate().equals(alert.getTravelDate()))
+                .ifPresent(alert -> evaluateAlert(alert, resolved));
+        }
     }
 
-    @Scheduled(fixedDelayString = "${price.alerts.evaluation.delay:60000}")
+    /**
+     * Reconciliation safety net for missed events and alerts edited outside this service
+     */
+    @Scheduled(fixedDelayString = "${price.alerts.reconciliation.delay:${price.alerts.evaluation.delay:900000}}")
     public void evaluateAlerts() {
         List<PriceAlert> alerts = priceAlertService.getActiveAlerts();
+        priceAlertIndex.rebuild(alerts);
         if (alerts.isEmpty()) {
             return;
         }
-        logger.debug("Evaluating {} price alerts", alerts.size());
-        alerts.forEach(this::evaluateAlert);
+        logger.debug("Reconciling {} price alerts", alerts.size());
+        Map<String, Optional<SimpleTrain>> resolved = new HashMap<>();
+        alerts.forEach(alert -> evaluateAlert(alert, resolved));
     }
 
-    private void evaluateAlert(PriceAlert alert) {
-        Optional<SimpleTrain> trainOptional = resolveTrain(alert);
+    /**
+     * Route alerts compare the cheapest train on the route before and after the change
+     */
+    private List<Long> routeCandidates(TrainInventoryChangedEvent event, String routeTarget, LocalDate today) {
+        List<SimpleTrain> trains = trainRepository.findBySourceStationAndDestinationStation(
+            event.getSourceStation(), event.getDestinationStation());
+        Optional<SimpleTrain> cheapest = cheapest(trains);
+        if (cheapest.isEmpty()) {
+            return List.of();
+        }
+        // The same route as it was before this change
+        List<SimpleTrain> before = new ArrayList<>();
+        for (SimpleTrain train : trains) {
+            if (!Objects.equals(train.getTrainNumber(), event.getTrainNumber())) {
+                before.add(train);
+            } else if (event.getPreviousFare() != null) {
+                SimpleTrain previous = new SimpleTrain();
+                previous.setTrainNumber(train.getTrainNumber());
+                previous.setBaseFare(event.getPreviousFare());
+                previous.setAvailableSeats(event.getPreviousAvailableSeats());
+                before.add(previous);
+            }
+        }
+        Optional<SimpleTrain> cheapestBefore = cheapest(before);
+
+        SimpleTrain now = cheapest.get();
+        List<Long> crossed = new ArrayList<>(priceAlertIndex.priceCrossed(routeTarget, now.getTrainClass(),
+            cheapestBefore.map(t -> toDecimal(t.getBaseFare())).orElse(null), toDecimal(now.getBaseFare()), today));
+        crossed.addAll(priceAlertIndex.availabilityCrossed(routeTarget, now.getTrainClass(),
+            cheapestBefore.map(SimpleTrain::getAvailableSeats).orElse(null), now.getAvailableSeats(), today));
+        return crossed;
+    }
+
+    private void evaluateAlert(PriceAlert alert, Map<String, Optional<SimpleTrain>> resolved) {
+        if (alert.getTravelDate() != null && alert.getTravelDate().isBefore(LocalDate.now())) {
+            return;
+        }
+        Optional<SimpleTrain> trainOptional = resolveTrain(alert, resolved);
         if (trainOptional.isEmpty()) {
             logger.debug("No train data found for alert {}", alert.getId());
             return;
         }
 
         SimpleTrain train = trainOptional.get();
+        if (alert.getTravelClass() != null && !alert.getTravelClass().equalsIgnoreCase(train.getTrainClass())) {
+            return;
+        }
         boolean shouldTrigger = switch (alert.getAlertType()) {
             case "PRICE_DROP" -> meetsPriceCondition(alert, train);
             case "AVAILABILITY" -> meetsAvailabilityCondition(alert, train);
@@ -69,22 +209,32 @@ public class PriceAlertEvaluationService {
         sendNotification(alert, train);
     }
 
-    private Optional<SimpleTrain> resolveTrain(PriceAlert alert) {
+    private Optional<SimpleTrain> resolveTrain(PriceAlert alert, Map<String, Optional<SimpleTrain>> resolved) {
         if (alert.getTrainNumber() != null && !alert.getTrainNumber().isBlank()) {
-            return trainRepository.findByTrainNumber(alert.getTrainNumber());
+            return resolved.computeIfAbsent(PriceAlertIndex.trainTarget(alert.getTrainNumber()),
+                key -> trainRepository.findByTrainNumber(alert.getTrainNumber()));
         }
 
         if (alert.getSourceStation() != null && alert.getDestinationStation() != null) {
-            List<SimpleTrain> trains = trainRepository.findBySourceStationAndDestinationStation(
-                alert.getSourceStation(), alert.getDestinationStation());
-            return trains.stream()
-                .sorted(Comparator.comparing(SimpleTrain::getBaseFare))
-                .findFirst();
+            return resolved.computeIfAbsent(
+                PriceAlertIndex.routeTarget(alert.getSourceStation(), alert.getDestinationStation()),
+                key -> cheapest(trainRepository.findBySourceStationAndDestinationStation(
+                    alert.getSourceStation(), alert.getDestinationStation())));
         }
 
         return Optional.empty();
     }
 
+    private static Optional<SimpleTrain> cheapest(List<SimpleTrain> trains) {
+        return trains.stream()
+            .filter(train -> train.getBaseFare() != null)
+            .min(Comparator.comparing(SimpleTrain::getBaseFare));
+    }
+
+    private static BigDecimal toDecimal(Double value) {
+        return value != null ? BigDecimal.valueOf(value) : null;
+    }
+
     private boolean meetsPriceCondition(PriceAlert alert, SimpleTrain train) {
         if (alert.getTargetPrice() == null) {
             return false;
@@ -99,11 +249,22 @@ public class PriceAlertEvaluationService {
         if (alert.getMinAvailability() == null) {
             return false;
         }
-        boolean result = train.getAvailableSeats() >= alert.getMinAvailability();
-        logger.debug("Availability alert {} evaluation: seats={} min={} -> {}", alert.getId(), train.getAvailableSeats(), alert.getMinAvailability(), result);
+        Integer seats = availableSeats(alert, train);
+        boolean result = seats != null && seats >= alert.getMinAvailability();
+        logger.debug("Availability alert {} evaluation: seats={} min={} -> {}", alert.getId(), seats, alert.getMinAvailability(), result);
         return result;
     }
 
+    /**
+     * Seats left on the alert's travel date when it has one, otherwise on the train
+     */
+    private Integer availableSeats(PriceAlert alert, SimpleTrain train) {
+        if (seatInventory == null || alert.getTravelDate() == null) {
+            return train.getAvailableSeats();
+        }
+        return seatInventory.availableSeats(train, alert.getTravelDate());
+    }
+
     private void sendNotification(PriceAlert alert, SimpleTrain train) {
         if (!notificationsEnabled) {
             logger.info("Notifications disabled. Price alert {} triggered but no notification sent.", alert.getId());
@@ -129,7 +290,7 @@ public class PriceAlertEvaluationService {
                 train.getTrainNumber(), train.getBaseFare(), alert.getTargetPrice());
         }
         if ("AVAILABILITY".equals(alert.getAlertType())) {
-            return String.format("Seats available for %s: %d", train.getTrainNumber(), train.getAvailableSeats());
+            return String.format("Seats available for %s: %d", train.getTrainNumber(), availableSeats(alert, train));
         }
         return "A saved alert condition has been met.";
     }
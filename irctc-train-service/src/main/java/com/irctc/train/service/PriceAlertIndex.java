@@ -0,0 +1,217 @@
+package com.irctc.train.service;
+
+import com.irctc.train.entity.PriceAlert;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of active price alerts.
+ *
+ * Alerts are bucketed by what they watch (a train number, or a route when no
+ * train is given) and by travel class, with a wildcard bucket for alerts
+ * without a class. Inside a bucket PRICE_DROP alerts are sorted by target
+ * price and AVAILABILITY alerts by minimum seats, so a change from an old to
+ * a new value finds exactly the alerts whose threshold lies between the two
+ * with one sub-map view.
+ *
+ * Travel date is kept per entry and used as a filter: trains carry a single
+ * fare and seat count, not per-date inventory, so it cannot narrow a lookup.
+ */
+@Component
+public class PriceAlertIndex {
+
+    static final String ANY_CLASS = "*";
+
+    record Key(String target, String travelClass) {
+    }
+
+    record Entry(Long alertId, LocalDate travelDate, BigDecimal targetPrice, Integer minAvailability) {
+    }
+
+    private static final class Bucket {
+        final TreeMap<BigDecimal, Set<Entry>> byTargetPrice = new TreeMap<>();
+        final TreeMap<Integer, Set<Entry>> byMinAvailability = new TreeMap<>();
+
+        boolean isEmpty() {
+            return byTargetPrice.isEmpty() && byMinAvailability.isEmpty();
+        }
+    }
+
+    private final Map<Key, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Map<Long, Key> keysByAlert = new ConcurrentHashMap<>();
+    private final Map<Long, Entry> entriesByAlert = new ConcurrentHashMap<>();
+
+    /**
+     * Index or re-index an alert; inactive or incomplete alerts are removed
+     */
+    public synchronized void put(PriceAlert alert) {
+        remove(alert.getId());
+        Key key = keyFor(alert);
+        if (key == null || !"ACTIVE".equals(alert.getStatus())) {
+            return;
+        }
+        Entry entry;
+        if ("PRICE_DROP".equals(alert.getAlertType()) && alert.getTargetPrice() != null) {
+            entry = new Entry(alert.getId(), alert.getTravelDate(), alert.getTargetPrice(), null);
+        } else if ("AVAILABILITY".equals(alert.getAlertType()) && alert.getMinAvailability() != null) {
+            entry = new Entry(alert.getId(), alert.getTravelDate(), null, alert.getMinAvailability());
+        } else {
+            return;
+        }
+        Bucket bucket = buckets.computeIfAbsent(key, k -> new Bucket());
+        synchronized (bucket) {
+            if (entry.targetPrice() != null) {
+                bucket.byTargetPrice.computeIfAbsent(entry.targetPrice(), p -> new HashSet<>()).add(entry);
+            } else {
+                bucket.byMinAvailability.computeIfAbsent(entry.minAvailability(), m -> new HashSet<>()).add(entry);
+            }
+        }
+        keysByAlert.put(alert.getId(), key);
+        entriesByAlert.put(alert.getId(), entry);
+    }
+
+    public synchronized void remove(Long alertId) {
+        Key key = keysByAlert.remove(alertId);
+        Entry entry = entriesByAlert.remove(alertId);
+        if (key == null || entry == null) {
+            return;
+        }
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            return;
+        }
+        synchronized (bucket) {
+            if (entry.targetPrice() != null) {
+                removeEntry(bucket.byTargetPrice, entry.targetPrice(), entry);
+            } else {
+                removeEntry(bucket.byMinAvailability, entry.minAvailability(), entry);
+            }
+            if (bucket.isEmpty()) {
+                buckets.remove(key, bucket);
+            }
+        }
+    }
+
+    /**
+     * Replace the whole index, used by the reconciliation scan
+     */
+    public synchronized void rebuild(Collection<PriceAlert> activeAlerts) {
+        buckets.clear();
+        keysByAlert.clear();
+        entriesByAlert.clear();
+        activeAlerts.forEach(this::put);
+    }
+
+    /**
+     * PRICE_DROP alerts whose target lies in [newFare, previousFare), i.e. that
+     * the fare has just dropped to or below. A null previous fare means every
+     * target at or above the new fare.
+     */
+    public List<Long> priceCrossed(String target, String travelClass, BigDecimal previousFare, BigDecimal newFare,
+                                   LocalDate today) {
+        if (newFare == null || (previousFare != null && newFare.compareTo(previousFare) >= 0)) {
+            return List.of();
+        }
+        List<Long> crossed = new ArrayList<>();
+        for (Bucket bucket : bucketsFor(target, travelClass)) {
+            synchronized (bucket) {
+                NavigableMap<BigDecimal, Set<Entry>> range = previousFare == null
+                    ? bucket.byTargetPrice.tailMap(newFare, true)
+                    : bucket.byTargetPrice.subMap(newFare, true, previousFare, false);
+                collect(range.values(), today, crossed);
+            }
+        }
+        return crossed;
+    }
+
+    /**
+     * AVAILABILITY alerts whose minimum lies in (previousSeats, newSeats]
+     */
+    public List<Long> availabilityCrossed(String target, String travelClass, Integer previousSeats, Integer newSeats,
+                                          LocalDate today) {
+        if (newSeats == null || (previousSeats != null && newSeats <= previousSeats)) {
+            return List.of();
+        }
+        List<Long> crossed = new ArrayList<>();
+        for (Bucket bucket : bucketsFor(target, travelClass)) {
+            synchronized (bucket) {
+                NavigableMap<Integer, Set<Entry>> range = previousSeats == null
+                    ? bucket.byMinAvailability.headMap(newSeats, true)
+                    : bucket.byMinAvailability.subMap(previousSeats, false, newSeats, true);
+                collect(range.values(), today, crossed);
+            }
+        }
+        return crossed;
+    }
+
+    public boolean watches(String target) {
+        return buckets.keySet().stream().anyMatch(key -> key.target().equals(target));
+    }
+
+    public int size() {
+        return keysByAlert.size();
+    }
+
+    static String trainTarget(String trainNumber) {
+        return "T:" + trainNumber;
+    }
+
+    static String routeTarget(String source, String destination) {
+        return "R:" + source + "-" + destination;
+    }
+
+    private List<Bucket> bucketsFor(String target, String travelClass) {
+        List<Bucket> result = new ArrayList<>(2);
+        Bucket any = buckets.get(new Key(target, ANY_CLASS));
+        if (any != null) {
+            result.add(any);
+        }
+        if (travelClass != null) {
+            Bucket specific = buckets.get(new Key(target, travelClass.toUpperCase()));
+            if (specific != null) {
+                result.add(specific);
+            }
+        }
+        return result;
+    }
+
+    private static <T> void removeEntry(TreeMap<T, Set<Entry>> thresholds, T threshold, Entry entry) {
+        Set<Entry> entries = thresholds.get(threshold);
+        if (entries != null && entries.remove(entry) && entries.isEmpty()) {
+            thresholds.remove(threshold);
+        }
+    }
+
+    private static void collect(Collection<Set<Entry>> entrySets, LocalDate today, List<Long> out) {
+        for (Set<Entry> entries : entrySets) {
+            for (Entry entry : entries) {
+                if (entry.travelDate() == null || !entry.travelDate().isBefore(today)) {
+                    out.add(entry.alertId());
+                }
+            }
+        }
+    }
+
+    private static Key keyFor(PriceAlert alert) {
+        String travelClass = alert.getTravelClass() == null || alert.getTravelClass().isBlank()
+            ? ANY_CLASS : alert.getTravelClass().toUpperCase();
+        if (alert.getTrainNumber() != null && !alert.getTrainNumber().isBlank()) {
+            return new Key(trainTarget(alert.getTrainNumber()), travelClass);
+        }
+        if (alert.getSourceStation() != null && alert.getDestinationStation() != null) {
+            return new Key(routeTarget(alert.getSourceStation(), alert.getDestinationStation()), travelClass);
+        }
+        return null;
+    }
+}
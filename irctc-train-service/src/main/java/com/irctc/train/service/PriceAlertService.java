@@ -15,6 +15,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,9 +24,11 @@ public class PriceAlertService {
     private static final Logger logger = LoggerFactory.getLogger(PriceAlertService.class);
 
     private final PriceAlertRepository priceAlertRepository;
+    private final PriceAlertIndex priceAlertIndex;
 
-    public PriceAlertService(PriceAlertRepository priceAlertRepository) {
+    public PriceAlertService(PriceAlertRepository priceAlertRepository, PriceAlertIndex priceAlertIndex) {
         this.priceAlertRepository = priceAlertRepository;
+        this.priceAlertIndex = priceAlertIndex;
     }
 
     @Transactional
@@ -37,6 +40,7 @@ public class PriceAlertService {
         }
         alert.setStatus("ACTIVE");
         PriceAlert saved = priceAlertRepository.save(alert);
+        priceAlertIndex.put(saved);
         logger.info("✅ Price alert created for user {} - {}", saved.getUserId(), saved.getId());
         return toResponse(saved);
     }
@@ -72,6 +76,9 @@ public class PriceAlertService {
         if (request.getTravelDate() != null) {
             alert.setTravelDate(request.getTravelDate());
         }
+        if (request.getTravelClass() != null) {
+            alert.setTravelClass(request.getTravelClass());
+        }
         if (request.getTrainNumber() != null) {
             alert.setTrainNumber(request.getTrainNumber());
         }
@@ -88,6 +95,7 @@ public class PriceAlertService {
             alert.setStatus(request.getStatus());
         }
         PriceAlert saved = priceAlertRepository.save(alert);
+        priceAlertIndex.put(saved);
         logger.info("✏️ Price alert {} updated", id);
         return toResponse(saved);
     }
@@ -96,6 +104,7 @@ public class PriceAlertService {
     public void deleteAlert(Long id) {
         PriceAlert alert = getAlertEntity(id);
         priceAlertRepository.delete(alert);
+        priceAlertIndex.remove(id);
         logger.info("🗑️ Price alert {} deleted", id);
     }
 
@@ -104,7 +113,17 @@ public class PriceAlertService {
         alert.setStatus(alert.getRecurrence() != null && alert.getRecurrence().equalsIgnoreCase("RECURRING")
             ? "ACTIVE" : "TRIGGERED");
         alert.setLastTriggeredAt(LocalDateTime.now());
-        return priceAlertRepository.save(alert);
+        PriceAlert saved = priceAlertRepository.save(alert);
+        priceAlertIndex.put(saved);
+        return saved;
+    }
+
+    /**
+     * Fresh copy of an alert that is still active, for event-driven triggering
+     */
+    @Transactional(readOnly = true)
+    public Optional<PriceAlert> findActiveAlert(Long id) {
+        return priceAlertRepository.findById(id).filter(alert -> "ACTIVE".equals(alert.getStatus()));
     }
 
     @Transactional(readOnly = true)
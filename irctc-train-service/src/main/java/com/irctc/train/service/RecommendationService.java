@@ -6,6 +6,7 @@ import com.irctc.train.entity.SimpleTrain;
 import com.irctc.train.repository.SimpleTrainRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
@@ -25,11 +26,15 @@ public class RecommendationService {
 
     private final SimpleTrainRepository trainRepository;
 
+    // Seats left per journey date; without it scoring uses the train-level count
+    @Autowired(required = false)
+    private SeatInventoryProjection seatInventory;
+
     public RecommendationService(SimpleTrainRepository trainRepository) {
         this.trainRepository = trainRepository;
     }
 
-    @Cacheable(value = "train-recommendations", key = "#request.userId + ':' + #request.sourceStation + ':' + #request.destinationStation")
+    @Cacheable(value = "train-recommendations", key = "#request.userId + ':' + #request.sourceStation + ':' + #request.destinationStation + ':' + #request.travelDate")
     public List<RecommendationResponse> recommendTrains(RecommendationRequest request) {
         logger.info("Generating recommendations for user {} from {} to {}", request.getUserId(),
             request.getSourceStation(), request.getDestinationStation());
@@ -53,8 +58,10 @@ public class RecommendationService {
         double score = 0.0;
         StringBuilder reason = new StringBuilder();
 
-        if (train.getAvailableSeats() != null && train.getTotalSeats() != null && train.getTotalSeats() > 0) {
-            double availability = (double) train.getAvailableSeats() / train.getTotalSeats();
+        Integer availableSeats = seatInventory != null && request.getTravelDate() != null
+            ? seatInventory.availableSeats(train, request.getTravelDate()) : train.getAvailableSeats();
+        if (availableSeats != null && train.getTotalSeats() != null && train.getTotalSeats() > 0) {
+            double availability = (double) availableSeats / train.getTotalSeats();
             score += availability * 40;
             reason.append("Availability ").append(String.format(Locale.ENGLISH, "%.0f%%", availability * 100)).append(". ");
         }
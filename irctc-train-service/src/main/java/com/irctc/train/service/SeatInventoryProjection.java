@@ -0,0 +1,103 @@
+package com.irctc.train.service;
+
+import com.irctc.train.entity.SeatInventory;
+import com.irctc.train.entity.SimpleTrain;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of seats booked per train, journey date and class.
+ *
+ * Holds the absolute counters read back from seat_inventory, each with the
+ * row's version. A counter is only replaced by a higher version, so the flush
+ * of this instance and the periodic refresh of rows written by other instances
+ * can arrive in any order without rolling a counter back.
+ */
+@Component
+public class SeatInventoryProjection {
+
+    record Key(Long trainId, LocalDate journeyDate, String travelClass) {
+
+        static Key of(Long trainId, LocalDate journeyDate, String travelClass) {
+            return new Key(trainId, journeyDate, travelClass != null ? travelClass.toUpperCase(Locale.ROOT) : "");
+        }
+    }
+
+    record Counter(int bookedSeats, long version) {
+    }
+
+    private final Map<Key, Counter> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Store a row's counter unless an equal or newer version is already held
+     *
+     * @return seats booked before this row, or null if the row was stale
+     */
+    public Integer apply(SeatInventory row) {
+        Key key = Key.of(row.getTrainId(), row.getJourneyDate(), row.getTravelClass());
+        Counter incoming = new Counter(row.getBookedSeats() != null ? row.getBookedSeats() : 0,
+            row.getVersion() != null ? row.getVersion() : 0L);
+        Integer[] previous = new Integer[1];
+        counters.compute(key, (k, current) -> {
+            if (current != null && current.version() >= incoming.version()) {
+                return current;
+            }
+            previous[0] = current != null ? current.bookedSeats() : 0;
+            return incoming;
+        });
+        return previous[0];
+    }
+
+    public int bookedSeats(Long trainId, LocalDate journeyDate, String travelClass) {
+        Counter counter = counters.get(Key.of(trainId, journeyDate, travelClass));
+        return counter != null ? counter.bookedSeats() : 0;
+    }
+
+    /**
+     * Seats left on the train's class for a journey date; without a date the train-level count
+     */
+    public Integer availableSeats(SimpleTrain train, LocalDate journeyDate) {
+        if (journeyDate == null || train.getId() == null || train.getTotalSeats() == null) {
+            return train.getAvailableSeats();
+        }
+        return available(train.getTotalSeats(), bookedSeats(train.getId(), journeyDate, train.getTrainClass()));
+    }
+
+    /**
+     * Seats left per journey date from {@code from} onwards, for dates with at least one booking
+     */
+    public Map<LocalDate, Integer> availableSeatsFrom(SimpleTrain train, LocalDate from) {
+        Map<LocalDate, Integer> byDate = new TreeMap<>();
+        if (train.getId() == null || train.getTotalSeats() == null) {
+            return byDate;
+        }
+        Key probe = Key.of(train.getId(), from, train.getTrainClass());
+        counters.forEach((key, counter) -> {
+            if (key.trainId().equals(probe.trainId()) && key.travelClass().equals(probe.travelClass())
+                    && !key.journeyDate().isBefore(from)) {
+                byDate.put(key.journeyDate(), available(train.getTotalSeats(), counter.bookedSeats()));
+            }
+        });
+        return byDate;
+    }
+
+    /**
+     * Drop counters for journeys that have already left
+     */
+    public void evictBefore(LocalDate date) {
+        counters.keySet().removeIf(key -> key.journeyDate().isBefore(date));
+    }
+
+    public int size() {
+        return counters.size();
+    }
+
+    static int available(int totalSeats, int bookedSeats) {
+        return Math.max(0, Math.min(totalSeats, totalSeats - bookedSeats));
+    }
+}
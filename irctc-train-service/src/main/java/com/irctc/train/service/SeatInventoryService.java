@@ -0,0 +1,343 @@
+package com.irctc.train.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.irctc.shared.events.BookingEvents;
+import com.irctc.train.dto.SeatAvailabilityResponse;
+import com.irctc.train.entity.ProcessedSeatEvent;
+import com.irctc.train.entity.SeatInventory;
+import com.irctc.train.entity.SimpleTrain;
+import com.irctc.train.event.SeatAvailabilityChangedEvent;
+import com.irctc.train.repository.ProcessedSeatEventRepository;
+import com.irctc.train.repository.SeatInventoryRepository;
+import com.irctc.train.repository.SimpleTrainRepository;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Event-driven seat counters per train, journey date and class.
+ *
+ * Booking Service publishes booking-created, booking-created-batch,
+ * booking-cancelled and booking-journey-changed (a date or train change, which
+ * releases seats on the old train and date and takes them on the new ones);
+ * this service consumes them in batches. Each poll becomes one transaction
+ * that records the event ids, adds one coalesced delta per counter in place
+ * and reads the absolute counters back. Event ids are checked
+ * in memory and against seat_inventory_events, so a redelivered or replayed
+ * event is never counted twice. Reads are served from the
+ * {@link SeatInventoryProjection}, which is refreshed from rows written by
+ * other instances every few seconds.
+ *
+ * Booking Service writes these events to its outbox in the same transaction
+ * as the booking change, so every committed change is eventually counted.
+ * Counters are not backfilled: bookings made before the counters existed are
+ * not in them.
+ *
+ * Bookings carry no class, so seats are counted against the train's class.
+ */
+@Service
+public class SeatInventoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatInventoryService.class);
+
+    static final String BOOKING_CREATED_TOPIC = "booking-created";
+    static final String BOOKING_CREATED_BATCH_TOPIC = "booking-created-batch";
+    static final String BOOKING_CANCELLED_TOPIC = "booking-cancelled";
+    static final String BOOKING_JOURNEY_CHANGED_TOPIC = "booking-journey-changed";
+
+    private static final ObjectMapper objectMapper = new ObjectMapper()
+        .findAndRegisterModules()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    /**
+     * Seats taken (positive) or released (negative) by one booking event
+     */
+    record SeatChange(String eventId, Long trainId, LocalDate journeyDate, int seats) {
+    }
+
+    private final SeatInventoryRepository seatInventoryRepository;
+    private final ProcessedSeatEventRepository processedEventRepository;
+    private final SimpleTrainRepository trainRepository;
+    private final SeatInventoryProjection projection;
+    private final TrainReferencePublisher referencePublisher;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    // Recently applied event ids, so most redeliveries are dropped without a query
+    private final Set<String> recentEventIds;
+
+    @Value("${train.seat-inventory.refresh-overlap-ms:10000}")
+    private long refreshOverlapMs = 10000;
+
+    @Value("${train.seat-inventory.event-retention-days:7}")
+    private int eventRetentionDays = 7;
+
+    private volatile LocalDateTime refreshedFrom;
+
+    public SeatInventoryService(SeatInventoryRepository seatInventoryRepository,
+                                ProcessedSeatEventRepository processedEventRepository,
+                                SimpleTrainRepository trainRepository,
+                                SeatInventoryProjection projection,
+                                TrainReferencePublisher referencePublisher,
+                                ApplicationEventPublisher eventPublisher,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${train.seat-inventory.recent-event-ids:50000}") int recentEventIdCapacity) {
+        this.seatInventoryRepository = seatInventoryRepository;
+        this.processedEventRepository = processedEventRepository;
+        this.trainRepository = trainRepository;
+        this.projection = projection;
+        this.referencePublisher = referencePublisher;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.recentEventIds = Collections.synchronizedSet(Collections.newSetFromMap(
+            new LinkedHashMap<>(16, 0.75f, false) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                    return size() > recentEventIdCapacity;
+                }
+            }));
+    }
+
+    /**
+     * Seats left on a train for a journey date, from memory
+     */
+    public Integer getAvailableSeats(SimpleTrain train, LocalDate journeyDate) {
+        return projection.availableSeats(train, journeyDate);
+    }
+
+    /**
+     * Seats left for a journey date and class; a class the train does not run has none
+     */
+    public SeatAvailabilityResponse getAvailability(SimpleTrain train, LocalDate journeyDate, String seatClass) {
+        boolean runsClass = seatClass == null || seatClass.equalsIgnoreCase(train.getTrainClass());
+        Integer seats = runsClass ? projection.availableSeats(train, journeyDate) : Integer.valueOf(0);
+        SeatAvailabilityResponse response = new SeatAvailabilityResponse();
+        response.setTrainId(train.getId());
+        response.setJourneyDate(journeyDate);
+        response.setSeatClass(seatClass != null ? seatClass : train.getTrainClass());
+        response.setAvailableSeats(seats != null ? seats : 0);
+        response.setAvailable(response.getAvailableSeats() > 0);
+        // Waitlist and RAC quotas are not tracked per journey yet
+        response.setWaitlistSeats(0);
+        response.setRacSeats(0);
+        return response;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadProjection() {
+        LocalDateTime started = LocalDateTime.now();
+        seatInventoryRepository.findByJourneyDateGreaterThanEqual(LocalDate.now()).forEach(projection::apply);
+        refreshedFrom = started.minusNanos(refreshOverlapMs * 1_000_000);
+        logger.info("Seat inventory loaded with {} counters", projection.size());
+    }
+
+    @KafkaListener(
+        topics = {BOOKING_CREATED_TOPIC, BOOKING_CREATED_BATCH_TOPIC, BOOKING_CANCELLED_TOPIC,
+            BOOKING_JOURNEY_CHANGED_TOPIC},
+        // One group across instances: each booking event is applied by exactly one of them
+        groupId = "${train.seat-inventory.group-id:irctc-train-seat-inventory}",
+        properties = "auto.offset.reset=earliest",
+        containerFactory = "seatInventoryListenerContainerFactory")
+    public void onBookingEvents(List<ConsumerRecord<String, Object>> records) {
+        List<SeatChange> changes = new ArrayList<>();
+        for (ConsumerRecord<String, Object> record : records) {
+            try {
+                changes.addAll(toSeatChanges(record.topic(), record.value()));
+            } catch (Exception e) {
+                logger.warn("⚠️  Skipping unreadable {} record at offset {}: {}", record.topic(), record.offset(), e.getMessage());
+            }
+        }
+        apply(changes);
+    }
+
+    /**
+     * Apply a batch of seat changes as one flush; redelivered events are ignored
+     */
+    void apply(List<SeatChange> changes) {
+        Map<String, SeatChange> pending = new LinkedHashMap<>();
+        for (SeatChange change : changes) {
+            if (change.eventId() != null && change.trainId() != null && change.journeyDate() != null
+                    && change.seats() != 0 && !recentEventIds.contains(change.eventId())) {
+                pending.putIfAbsent(change.eventId(), change);
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Map<Long, SimpleTrain> trains = trainRepository.findAllById(
+                pending.values().stream().map(SeatChange::trainId).collect(Collectors.toSet()))
+            .stream().collect(Collectors.toMap(SimpleTrain::getId, Function.identity()));
+        pending.values().removeIf(change -> {
+            if (trains.containsKey(change.trainId())) {
+                return false;
+            }
+            logger.warn("⚠️  Ignoring booking event {} for unknown train {}", change.eventId(), change.trainId());
+            return true;
+        });
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<String> eventIds = List.copyOf(pending.keySet());
+        List<SeatInventory> flushed = transactionTemplate.execute(status -> flush(pending, trains));
+        recentEventIds.addAll(eventIds);
+        if (flushed == null) {
+            return;
+        }
+        for (SeatInventory row : flushed) {
+            Integer previousBooked = projection.apply(row);
+            if (previousBooked != null && previousBooked.intValue() != row.getBookedSeats()) {
+                announce(trains.get(row.getTrainId()), row, previousBooked);
+            }
+        }
+    }
+
+    private List<SeatInventory> flush(Map<String, SeatChange> pending, Map<Long, SimpleTrain> trains) {
+        LocalDateTime now = LocalDateTime.now();
+        processedEventRepository.findAllById(pending.keySet())
+            .forEach(processed -> pending.remove(processed.getEventId()));
+        if (pending.isEmpty()) {
+            return List.of();
+        }
+        processedEventRepository.saveAll(pending.keySet().stream()
+            .map(eventId -> new ProcessedSeatEvent(eventId, now))
+            .toList());
+
+        Map<SeatInventoryProjection.Key, Integer> deltas = new LinkedHashMap<>();
+        for (SeatChange change : pending.values()) {
+            deltas.merge(SeatInventoryProjection.Key.of(change.trainId(), change.journeyDate(),
+                trains.get(change.trainId()).getTrainClass()), change.seats(), Integer::sum);
+        }
+
+        List<SeatInventory> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((key, delta) -> {
+            if (delta != 0 && seatInventoryRepository.addBookedSeats(
+                    key.trainId(), key.journeyDate(), key.travelClass(), delta, now) == 0) {
+                // First booking for this journey; a concurrent insert fails the key and the batch is retried
+                SeatInventory row = new SeatInventory();
+                row.setTrainId(key.trainId());
+                row.setJourneyDate(key.journeyDate());
+                row.setTravelClass(key.travelClass());
+                row.setBookedSeats(delta);
+                row.setVersion(1L);
+                row.setUpdatedAt(now);
+                seatInventoryRepository.save(row);
+            }
+            seatInventoryRepository.findByTrainIdAndJourneyDateAndTravelClass(
+                key.trainId(), key.journeyDate(), key.travelClass()).ifPresent(rows::add);
+        });
+        logger.debug("Applied {} booking events to {} seat counters", pending.size(), rows.size());
+        return rows;
+    }
+
+    /**
+     * Pick up counters written by other instances; stale rows are ignored by version
+     */
+    @Scheduled(initialDelayString = "${train.seat-inventory.refresh-interval-ms:2000}",
+               fixedDelayString = "${train.seat-inventory.refresh-interval-ms:2000}")
+    public void refresh() {
+        if (refreshedFrom == null) {
+            return;
+        }
+        LocalDateTime started = LocalDateTime.now();
+        // Re-read a short overlap so rows committed late or stamped by a lagging clock are not missed
+        seatInventoryRepository.findByUpdatedAtGreaterThanEqual(refreshedFrom).forEach(projection::apply);
+        refreshedFrom = started.minusNanos(refreshOverlapMs * 1_000_000);
+    }
+
+    @Scheduled(cron = "${train.seat-inventory.cleanup-cron:0 30 2 * * *}")
+    public void cleanup() {
+        projection.evictBefore(LocalDate.now());
+        Integer deleted = transactionTemplate.execute(status ->
+            processedEventRepository.deleteByProcessedAtBefore(LocalDateTime.now().minusDays(eventRetentionDays)));
+        logger.info("🧹 Seat inventory cleanup removed {} processed event ids", deleted);
+    }
+
+    private void announce(SimpleTrain train, SeatInventory row, int previousBooked) {
+        int total = train.getTotalSeats() != null ? train.getTotalSeats() : 0;
+        int previousAvailable = SeatInventoryProjection.available(total, previousBooked);
+        int available = SeatInventoryProjection.available(total, row.getBookedSeats());
+        try {
+            eventPublisher.publishEvent(new SeatAvailabilityChangedEvent(train.getTrainNumber(), train.getTrainClass(),
+                row.getJourneyDate(), previousAvailable, available));
+        } catch (Exception e) {
+            logger.warn("⚠️  Seat availability listeners failed for train {}: {}", train.getTrainNumber(), e.getMessage());
+        }
+        referencePublisher.publishSeatAvailability(train, row, available);
+    }
+
+    static List<SeatChange> toSeatChanges(String topic, Object payload) {
+        if (payload == null) {
+            return List.of();
+        }
+        if (BOOKING_CREATED_BATCH_TOPIC.equals(topic)) {
+            Object bookings = payload instanceof Map<?, ?> batch ? batch.get("bookings") : null;
+            if (!(bookings instanceof List<?> list)) {
+                return List.of();
+            }
+            List<SeatChange> changes = new ArrayList<>(list.size());
+            for (Object booking : list) {
+                changes.add(created(objectMapper.convertValue(booking, BookingEvents.BookingCreatedEvent.class)));
+            }
+            return changes;
+        }
+        if (BOOKING_CANCELLED_TOPIC.equals(topic)) {
+            BookingEvents.BookingCancelledEvent event = payload instanceof BookingEvents.BookingCancelledEvent cancelled
+                ? cancelled : objectMapper.convertValue(payload, BookingEvents.BookingCancelledEvent.class);
+            return List.of(new SeatChange(event.getEventId(), event.getTrainId(), dateOf(event.getJourneyDate()),
+                -seats(event.getPassengerCount())));
+        }
+        if (BOOKING_JOURNEY_CHANGED_TOPIC.equals(topic)) {
+            BookingEvents.BookingJourneyChangedEvent event = payload instanceof BookingEvents.BookingJourneyChangedEvent moved
+                ? moved : objectMapper.convertValue(payload, BookingEvents.BookingJourneyChangedEvent.class);
+            if (event.getEventId() == null) {
+                return List.of();
+            }
+            // Two changes under derived ids, so each half is applied exactly once
+            int seats = seats(event.getPassengerCount());
+            return List.of(
+                new SeatChange(event.getEventId() + ":release", event.getPreviousTrainId(),
+                    dateOf(event.getPreviousJourneyDate()), -seats),
+                new SeatChange(event.getEventId() + ":take", event.getTrainId(), dateOf(event.getJourneyDate()), seats));
+        }
+        BookingEvents.BookingCreatedEvent event = payload instanceof BookingEvents.BookingCreatedEvent created
+            ? created : objectMapper.convertValue(payload, BookingEvents.BookingCreatedEvent.class);
+        return List.of(created(event));
+    }
+
+    private static SeatChange created(BookingEvents.BookingCreatedEvent event) {
+        return new SeatChange(event.getEventId(), event.getTrainId(), dateOf(event.getJourneyDate()),
+            seats(event.getPassengerCount()));
+    }
+
+    private static LocalDate dateOf(LocalDateTime journeyDate) {
+        return journeyDate != null ? journeyDate.toLocalDate() : null;
+    }
+
+    // Events published before passenger counts were carried stand for one seat
+    private static int seats(Integer passengerCount) {
+        return passengerCount != null && passengerCount > 0 ? passengerCount : 1;
+    }
+}
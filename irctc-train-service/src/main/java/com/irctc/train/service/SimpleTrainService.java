@@ -1,25 +1,48 @@
 package com.irctc.train.service;
 
+import com.irctc.train.dto.TrainReferenceDTO;
+import com.irctc.train.dto.TrainReferencePage;
 import com.irctc.train.entity.SimpleTrain;
+import com.irctc.train.event.TrainInventoryChangedEvent;
 import com.irctc.train.tenant.TenantContext;
 import com.irctc.train.repository.SimpleTrainRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
 @Service
 public class SimpleTrainService {
 
+    private static final Logger logger = LoggerFactory.getLogger(SimpleTrainService.class);
+
     @Autowired
     private SimpleTrainRepository trainRepository;
 
+    @Autowired
+    private TrainRouteIndex routeIndex;
+
     @Autowired(required = false)
     private TrainCacheService cacheService;
 
+    @Autowired(required = false)
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired(required = false)
+    private TrainReferencePublisher referencePublisher;
+
     @Cacheable(value = "all-trains")
     public List<SimpleTrain> getAllTrains() {
         List<SimpleTrain> trains = trainRepository.findAll();
@@ -59,20 +82,24 @@ public class SimpleTrainService {
         return train;
     }
 
-    @Cacheable(value = "train-search", key = "#source + ':' + #destination")
+    /**
+     * Trains that halt at source and later at destination, intermediate halts
+     * included, ordered by departure. Answered from the route index, so only
+     * the matching trains are read.
+     */
     public List<SimpleTrain> searchTrains(String source, String destination) {
-        List<SimpleTrain> trains = trainRepository.findBySourceStationAndDestinationStation(source, destination);
-        // Filter by tenant if context is set
-        if (TenantContext.hasTenant()) {
-            String tenantId = TenantContext.getTenantId();
-            return trains.stream()
-                .filter(t -> tenantId.equals(t.getTenantId()))
-                .toList();
+        String tenantId = TenantContext.hasTenant() ? TenantContext.getTenantId() : null;
+        List<Long> trainIds = routeIndex.trainsBetween(source, destination, tenantId);
+        if (trainIds.isEmpty()) {
+            return List.of();
         }
+        List<SimpleTrain> trains = new ArrayList<>(trainRepository.findAllById(trainIds));
+        trains.sort(Comparator.comparing(SimpleTrain::getDepartureTime,
+            Comparator.nullsLast(Comparator.naturalOrder())));
         return trains;
     }
 
-    @CacheEvict(value = {"all-trains", "train-search"}, allEntries = true)
+    @CacheEvict(value = "all-trains", allEntries = true)
     public SimpleTrain createTrain(SimpleTrain train) {
         // Set tenant ID from context
         if (TenantContext.hasTenant()) {
@@ -81,14 +108,19 @@ public class SimpleTrainService {
         // createdAt will be set automatically by @PrePersist
         train.setStatus("ACTIVE");
         SimpleTrain saved = trainRepository.save(train);
+        routeIndex.put(saved);
+        publishInventoryChange(TrainInventoryChangedEvent.of(saved, null, null));
+        publishReferenceChange(saved);
         return saved;
     }
 
-    @CacheEvict(value = {"trains", "trains-by-number", "all-trains", "train-search"}, 
+    @CacheEvict(value = {"trains", "trains-by-number", "all-trains"}, 
                 key = "#id", allEntries = false)
     public SimpleTrain updateTrain(Long id, SimpleTrain trainDetails) {
         SimpleTrain train = trainRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Train not found with id: " + id));
+        Double previousFare = train.getBaseFare();
+        Integer previousAvailableSeats = train.getAvailableSeats();
 
         train.setTrainName(trainDetails.getTrainName());
         train.setSourceStation(trainDetails.getSourceStation());
@@ -102,19 +134,70 @@ public class SimpleTrainService {
         train.setAvailableSeats(trainDetails.getAvailableSeats());
         train.setAmenities(trainDetails.getAmenities());
         train.setRouteDescription(trainDetails.getRouteDescription());
+        if (trainDetails.getStops() != null) {
+            train.setStops(new ArrayList<>(trainDetails.getStops()));
+        }
         train.setDistance(trainDetails.getDistance());
         train.setDuration(trainDetails.getDuration());
 
         SimpleTrain saved = trainRepository.save(train);
+        routeIndex.put(saved);
+        TrainInventoryChangedEvent event = TrainInventoryChangedEvent.of(saved, previousFare, previousAvailableSeats);
+        if (event.fareChanged() || event.availabilityChanged()) {
+            publishInventoryChange(event);
+        }
+        publishReferenceChange(saved);
         return saved;
     }
 
-    @CacheEvict(value = {"trains", "trains-by-number", "all-trains", "train-search"}, 
+    @CacheEvict(value = {"trains", "trains-by-number", "all-trains"}, 
                 key = "#id", allEntries = false)
     public void deleteTrain(Long id) {
         SimpleTrain train = trainRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Train not found with id: " + id));
         train.setStatus("INACTIVE");
-        trainRepository.save(train);
+        routeIndex.remove(id);
+        publishReferenceChange(trainRepository.save(train));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadRouteIndex() {
+        routeIndex.rebuild(trainRepository::findAllWithStopsBy);
+        logger.info("Route index loaded with {} trains over {} stations", routeIndex.size(), routeIndex.stationCount());
+    }
+
+    /**
+     * Rebuild the route index from the database; each instance indexes its own
+     * writes immediately, this picks up the ones made elsewhere
+     */
+    @Scheduled(initialDelayString = "${train.route-index.reconcile-delay:300000}",
+               fixedDelayString = "${train.route-index.reconcile-delay:300000}")
+    public void reconcileRouteIndex() {
+        routeIndex.rebuild(trainRepository::findAllWithStopsBy);
+    }
+
+    /**
+     * Page through every train by id for services that replicate reference data.
+     * Not tenant filtered: the export serves internal replicas, not tenants.
+     */
+    public TrainReferencePage getTrainReferences(Long afterId, int size) {
+        int pageSize = Math.max(1, Math.min(size, 1000));
+        List<SimpleTrain> trains = trainRepository.findByIdGreaterThanOrderByIdAsc(
+            afterId != null ? afterId : 0L, PageRequest.of(0, pageSize));
+        List<TrainReferenceDTO> items = trains.stream().map(TrainReferenceDTO::from).toList();
+        Long nextAfterId = items.isEmpty() ? afterId : items.get(items.size() - 1).getId();
+        return new TrainReferencePage(items, nextAfterId, items.size() == pageSize);
+    }
+
+    private void publishInventoryChange(TrainInventoryChangedEvent event) {
+        if (eventPublisher != null) {
+            eventPublisher.publishEvent(event);
+        }
+    }
+
+    private void publishReferenceChange(SimpleTrain train) {
+        if (referencePublisher != null) {
+            referencePublisher.publish(train);
+        }
     }
 }
@@ -0,0 +1,94 @@
+package com.irctc.train.service;
+
+import com.irctc.shared.events.TrainEvents;
+import com.irctc.train.entity.SeatInventory;
+import com.irctc.train.entity.SimpleTrain;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Broadcasts train reference changes for services that replicate them
+ *
+ * Events are keyed by train id so each train's changes stay in order on one
+ * partition. A lost event is repaired by the consumers' periodic
+ * reconciliation against /api/trains/reference.
+ *
+ * Seat counters per journey date go to their own topic, also keyed by train
+ * id; each carries the counter's version.
+ */
+@Component
+public class TrainReferencePublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrainReferencePublisher.class);
+
+    @Autowired(required = false)
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Value("${train.reference.topic:train-reference-events}")
+    private String topic;
+
+    @Value("${train.seat-inventory.topic:train-seat-availability-events}")
+    private String seatAvailabilityTopic;
+
+    public void publish(SimpleTrain train) {
+        if (kafkaTemplate == null || train.getId() == null) {
+            return;
+        }
+        try {
+            kafkaTemplate.send(topic, String.valueOf(train.getId()), toEvent(train));
+        } catch (Exception e) {
+            logger.warn("⚠️  Failed to publish reference change for train {}: {}", train.getTrainNumber(), e.getMessage());
+        }
+    }
+
+    public void publishSeatAvailability(SimpleTrain train, SeatInventory counter, int availableSeats) {
+        if (kafkaTemplate == null || train.getId() == null) {
+            return;
+        }
+        try {
+            kafkaTemplate.send(seatAvailabilityTopic, String.valueOf(train.getId()),
+                toSeatAvailabilityEvent(train, counter, availableSeats));
+        } catch (Exception e) {
+            logger.warn("⚠️  Failed to publish seat availability for train {}: {}", train.getTrainNumber(), e.getMessage());
+        }
+    }
+
+    static TrainEvents.TrainChangedEvent toEvent(SimpleTrain train) {
+        TrainEvents.TrainChangedEvent event = new TrainEvents.TrainChangedEvent();
+        event.setTrainId(train.getId());
+        event.setTrainNumber(train.getTrainNumber());
+        event.setTrainName(train.getTrainName());
+        event.setSourceStation(train.getSourceStation());
+        event.setDestinationStation(train.getDestinationStation());
+        event.setDepartureTime(train.getDepartureTime());
+        event.setArrivalTime(train.getArrivalTime());
+        event.setTrainType(train.getTrainType());
+        event.setTrainClass(train.getTrainClass());
+        event.setBaseFare(train.getBaseFare());
+        event.setTotalSeats(train.getTotalSeats());
+        event.setAvailableSeats(train.getAvailableSeats());
+        event.setDistance(train.getDistance());
+        event.setDuration(train.getDuration());
+        event.setStatus(train.getStatus());
+        event.setVersion(train.getVersion());
+        return event;
+    }
+
+    static TrainEvents.SeatAvailabilityChangedEvent toSeatAvailabilityEvent(SimpleTrain train, SeatInventory counter,
+                                                                          int availableSeats) {
+        TrainEvents.SeatAvailabilityChangedEvent event = new TrainEvents.SeatAvailabilityChangedEvent();
+        event.setTrainId(train.getId());
+        event.setTrainNumber(train.getTrainNumber());
+        event.setJourneyDate(counter.getJourneyDate());
+        event.setTravelClass(counter.getTravelClass());
+        event.setTotalSeats(train.getTotalSeats());
+        event.setBookedSeats(counter.getBookedSeats());
+        event.setAvailableSeats(availableSeats);
+        event.setVersion(counter.getVersion());
+        return event;
+    }
+}
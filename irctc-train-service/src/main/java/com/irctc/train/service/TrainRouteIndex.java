@@ -0,0 +1,340 @@
+package com.irctc.train.service;
+
+import com.irctc.train.entity.SimpleTrain;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * In-memory station-stop index for "trains between stations" search.
+ *
+ * Every train contributes its ordered stop list (origin, intermediate halts,
+ * terminus). Each station keeps a posting list of the trains that halt there,
+ * sorted by train id, with the first and last position of the halt on that
+ * train. A train runs from A to B when it appears in both posting lists and
+ * its first halt at A comes before its last halt at B, so a search is one
+ * intersection of two sorted lists.
+ *
+ * Posting lists are immutable and replaced on write, so searches never lock.
+ * A rebuild indexes the loaded trains into a fresh pair of maps and publishes
+ * both with one reference swap; writes made while it was loading are replayed
+ * onto the new maps first, so they are not lost to an older read.
+ * Station codes are matched case-insensitively. INACTIVE trains are not indexed.
+ */
+@Component
+public class TrainRouteIndex {
+
+    // Below this size ratio a linear merge beats probing the longer list
+    private static final int PROBE_RATIO = 8;
+
+    record Route(String tenantId, List<String> stations) {
+    }
+
+    /**
+     * Trains halting at one station, sorted by train id
+     */
+    record Postings(long[] trainIds, int[] firstStops, int[] lastStops) {
+
+        static final Postings EMPTY = new Postings(new long[0], new int[0], new int[0]);
+
+        int size() {
+            return trainIds.length;
+        }
+
+        Postings with(long trainId, int firstStop, int lastStop) {
+            int at = Arrays.binarySearch(trainIds, trainId);
+            if (at >= 0) {
+                int[] first = firstStops.clone();
+                int[] last = lastStops.clone();
+                first[at] = firstStop;
+                last[at] = lastStop;
+                return new Postings(trainIds, first, last);
+            }
+            int insert = -at - 1;
+            return new Postings(insert(trainIds, insert, trainId), insert(firstStops, insert, firstStop),
+                insert(lastStops, insert, lastStop));
+        }
+
+        Postings without(long trainId) {
+            int at = Arrays.binarySearch(trainIds, trainId);
+            if (at < 0) {
+                return this;
+            }
+            return new Postings(delete(trainIds, at), delete(firstStops, at), delete(lastStops, at));
+        }
+    }
+
+    /**
+     * Postings and routes of one build, always published together
+     */
+    private record Generation(Map<String, Postings> postingsByStation, Map<Long, Route> routesByTrain) {
+    }
+
+    private volatile Generation current = new Generation(new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+
+    private final Object rebuildLock = new Object();
+
+    // Writes made while a rebuild is loading, by train id; a null route is a removal
+    private Map<Long, Route> writesDuringRebuild;
+
+    /**
+     * Index or re-index a train; INACTIVE trains are removed
+     */
+    public synchronized void put(SimpleTrain train) {
+        if (train.getId() == null) {
+            return;
+        }
+        record(train.getId(), indexable(train) ? new Route(train.getTenantId(), routeOf(train)) : null);
+    }
+
+    public synchronized void remove(Long trainId) {
+        record(trainId, null);
+    }
+
+    /**
+     * Replace the whole index, used at startup and by the reconciliation pass.
+     * The loader runs without holding the index, so puts and removes made
+     * meanwhile go to the current maps and are replayed onto the new ones.
+     */
+    public void rebuild(Supplier<? extends Collection<SimpleTrain>> loader) {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                writesDuringRebuild = new HashMap<>();
+            }
+            try {
+                Generation rebuilt = build(loader.get());
+                synchronized (this) {
+                    writesDuringRebuild.forEach((trainId, route) -> apply(rebuilt, trainId, route));
+                    current = rebuilt;
+                }
+            } finally {
+                synchronized (this) {
+                    writesDuringRebuild = null;
+                }
+            }
+        }
+    }
+
+    public void rebuild(Collection<SimpleTrain> trains) {
+        rebuild(() -> trains);
+    }
+
+    private void record(Long trainId, Route route) {
+        apply(current, trainId, route);
+        if (writesDuringRebuild != null) {
+            writesDuringRebuild.put(trainId, route);
+        }
+    }
+
+    private static void apply(Generation generation, Long trainId, Route route) {
+        Route previous = generation.routesByTrain().remove(trainId);
+        if (previous != null) {
+            for (String station : previous.stations()) {
+                generation.postingsByStation().computeIfPresent(station, (s, postings) -> {
+                    Postings remaining = postings.without(trainId);
+                    return remaining.size() == 0 ? null : remaining;
+                });
+            }
+        }
+        if (route == null) {
+            return;
+        }
+        generation.routesByTrain().put(trainId, route);
+        halts(route.stations()).forEach((station, positions) -> generation.postingsByStation().compute(station,
+            (s, postings) -> (postings != null ? postings : Postings.EMPTY).with(trainId, positions[0], positions[1])));
+    }
+
+    private static Generation build(Collection<SimpleTrain> trains) {
+        Map<String, List<long[]>> collected = new HashMap<>();
+        Map<Long, Route> routes = new HashMap<>();
+        for (SimpleTrain train : trains) {
+            if (train.getId() == null || !indexable(train)) {
+                continue;
+            }
+            List<String> stations = routeOf(train);
+            routes.put(train.getId(), new Route(train.getTenantId(), stations));
+            halts(stations).forEach((station, positions) -> collected
+                .computeIfAbsent(station, s -> new ArrayList<>())
+                .add(new long[]{train.getId(), positions[0], positions[1]}));
+        }
+        Map<String, Postings> postings = new HashMap<>();
+        collected.forEach((station, entries) -> {
+            entries.sort((a, b) -> Long.compare(a[0], b[0]));
+            long[] ids = new long[entries.size()];
+            int[] first = new int[entries.size()];
+            int[] last = new int[entries.size()];
+            for (int i = 0; i < entries.size(); i++) {
+                ids[i] = entries.get(i)[0];
+                first[i] = (int) entries.get(i)[1];
+                last[i] = (int) entries.get(i)[2];
+            }
+            postings.put(station, new Postings(ids, first, last));
+        });
+        return new Generation(new ConcurrentHashMap<>(postings), new ConcurrentHashMap<>(routes));
+    }
+
+    private static boolean indexable(SimpleTrain train) {
+        return !"INACTIVE".equalsIgnoreCase(train.getStatus()) && routeOf(train).size() >= 2;
+    }
+
+    /**
+     * Ids of trains that halt at {@code from} and later at {@code to}, in id order.
+     *
+     * @param tenantId only trains of this tenant, or every train when null
+     */
+    public List<Long> trainsBetween(String from, String to, String tenantId) {
+        String source = normalize(from);
+        String destination = normalize(to);
+        if (source == null || destination == null || source.equals(destination)) {
+            return List.of();
+        }
+        Generation generation = current;
+        Postings boarding = generation.postingsByStation().get(source);
+        Postings alighting = generation.postingsByStation().get(destination);
+        if (boarding == null || alighting == null) {
+            return List.of();
+        }
+        List<Long> matches = new ArrayList<>();
+        if (boarding.size() * PROBE_RATIO < alighting.size()) {
+            probe(boarding, alighting, true, matches);
+        } else if (alighting.size() * PROBE_RATIO < boarding.size()) {
+            probe(alighting, boarding, false, matches);
+        } else {
+            merge(boarding, alighting, matches);
+        }
+        if (tenantId == null) {
+            return matches;
+        }
+        matches.removeIf(trainId -> {
+            Route route = generation.routesByTrain().get(trainId);
+            return route == null || !tenantId.equals(route.tenantId());
+        });
+        return matches;
+    }
+
+    public int size() {
+        return current.routesByTrain().size();
+    }
+
+    public int stationCount() {
+        return current.postingsByStation().size();
+    }
+
+    private static void merge(Postings boarding, Postings alighting, List<Long> out) {
+        int i = 0;
+        int j = 0;
+        while (i < boarding.size() && j < alighting.size()) {
+            long a = boarding.trainIds()[i];
+            long b = alighting.trainIds()[j];
+            if (a < b) {
+                i++;
+            } else if (a > b) {
+                j++;
+            } else {
+                if (boarding.firstStops()[i] < alighting.lastStops()[j]) {
+                    out.add(a);
+                }
+                i++;
+                j++;
+            }
+        }
+    }
+
+    /**
+     * Look each train of the short list up in the long one, narrowing the search window as ids grow
+     */
+    private static void probe(Postings shorter, Postings longer, boolean shorterIsBoarding, List<Long> out) {
+        int from = 0;
+        for (int i = 0; i < shorter.size() && from < longer.size(); i++) {
+            long trainId = shorter.trainIds()[i];
+            int at = Arrays.binarySearch(longer.trainIds(), from, longer.size(), trainId);
+            if (at < 0) {
+                from = -at - 1;
+                continue;
+            }
+            int boardAt = shorterIsBoarding ? shorter.firstStops()[i] : longer.firstStops()[at];
+            int alightAt = shorterIsBoarding ? longer.lastStops()[at] : shorter.lastStops()[i];
+            if (boardAt < alightAt) {
+                out.add(trainId);
+            }
+            from = at + 1;
+        }
+    }
+
+    /**
+     * The train's halts in order: its stop list, framed by origin and terminus if the list omits them
+     */
+    static List<String> routeOf(SimpleTrain train) {
+        List<String> stations = new ArrayList<>();
+        if (train.getStops() != null) {
+            train.getStops().stream().map(TrainRouteIndex::normalize).filter(Objects::nonNull).forEach(stations::add);
+        }
+        String source = normalize(train.getSourceStation());
+        String destination = normalize(train.getDestinationStation());
+        if (source != null && (stations.isEmpty() || !stations.get(0).equals(source))) {
+            stations.add(0, source);
+        }
+        if (destination != null && (stations.isEmpty() || !stations.get(stations.size() - 1).equals(destination))) {
+            stations.add(destination);
+        }
+        return List.copyOf(stations);
+    }
+
+    /**
+     * First and last position of every station on a route; loop routes can halt twice at one station
+     */
+    private static Map<String, int[]> halts(List<String> stations) {
+        Map<String, int[]> halts = new HashMap<>();
+        for (int position = 0; position < stations.size(); position++) {
+            int at = position;
+            halts.merge(stations.get(position), new int[]{at, at}, (current, added) -> new int[]{current[0], at});
+        }
+        return halts;
+    }
+
+    private static String normalize(String station) {
+        if (station == null || station.isBlank()) {
+            return null;
+        }
+        return station.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static long[] insert(long[] values, int at, long value) {
+        long[] result = new long[values.length + 1];
+        System.arraycopy(values, 0, result, 0, at);
+        result[at] = value;
+        System.arraycopy(values, at, result, at + 1, values.length - at);
+        return result;
+    }
+
+    private static int[] insert(int[] values, int at, int value) {
+        int[] result = new int[values.length + 1];
+        System.arraycopy(values, 0, result, 0, at);
+        result[at] = value;
+        System.arraycopy(values, at, result, at + 1, values.length - at);
+        return result;
+    }
+
+    private static long[] delete(long[] values, int at) {
+        long[] result = new long[values.length - 1];
+        System.arraycopy(values, 0, result, 0, at);
+        System.arraycopy(values, at + 1, result, at, values.length - at - 1);
+        return result;
+    }
+
+    private static int[] delete(int[] values, int at) {
+        int[] result = new int[values.length - 1];
+        System.arraycopy(values, 0, result, 0, at);
+        System.arraycopy(values, at + 1, result, at, values.length - at - 1);
+        return result;
+    }
+}
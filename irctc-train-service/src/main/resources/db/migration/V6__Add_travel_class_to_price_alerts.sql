@@ -0,0 +1,2 @@
+-- Optional class filter for price alerts; NULL matches any class
+ALTER TABLE price_alerts ADD COLUMN IF NOT EXISTS travel_class VARCHAR(20);
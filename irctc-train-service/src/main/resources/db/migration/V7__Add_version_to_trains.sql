@@ -0,0 +1,2 @@
+-- Optimistic-lock version, also used by replicas of train reference data to order changes
+ALTER TABLE trains ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
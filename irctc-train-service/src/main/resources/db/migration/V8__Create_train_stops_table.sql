@@ -0,0 +1,10 @@
+-- Ordered halts per train, origin first and terminus last
+CREATE TABLE IF NOT EXISTS train_stops (
+  train_id BIGINT NOT NULL,
+  stop_sequence INT NOT NULL,
+  station_code VARCHAR(100) NOT NULL,
+  PRIMARY KEY (train_id, stop_sequence),
+  FOREIGN KEY (train_id) REFERENCES trains(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_train_stops_station ON train_stops(station_code);
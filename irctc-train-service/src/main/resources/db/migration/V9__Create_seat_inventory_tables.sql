@@ -0,0 +1,21 @@
+-- Seats booked per train, journey date and class, maintained from booking events
+CREATE TABLE IF NOT EXISTS seat_inventory (
+  id BIGINT AUTO_INCREMENT PRIMARY KEY,
+  train_id BIGINT NOT NULL,
+  journey_date DATE NOT NULL,
+  travel_class VARCHAR(20) NOT NULL,
+  booked_seats INT NOT NULL DEFAULT 0,
+  version BIGINT NOT NULL DEFAULT 0,
+  updated_at TIMESTAMP NOT NULL,
+  CONSTRAINT uk_seat_inventory_key UNIQUE (train_id, journey_date, travel_class)
+);
+
+CREATE INDEX IF NOT EXISTS idx_seat_inventory_updated ON seat_inventory(updated_at);
+
+-- Booking events already applied to seat_inventory, for at-most-once application
+CREATE TABLE IF NOT EXISTS seat_inventory_events (
+  event_id VARCHAR(64) PRIMARY KEY,
+  processed_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_seat_inventory_events_processed ON seat_inventory_events(processed_at);
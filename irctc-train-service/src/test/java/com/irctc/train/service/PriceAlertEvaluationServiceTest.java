@@ -3,7 +3,10 @@ package com.irctc.train.service;
 import com.irctc.train.client.NotificationServiceClient;
 import com.irctc.train.dto.PushNotificationRequest;
 import com.irctc.train.entity.PriceAlert;
+import com.irctc.train.entity.SeatInventory;
 import com.irctc.train.entity.SimpleTrain;
+import com.irctc.train.event.SeatAvailabilityChangedEvent;
+import com.irctc.train.event.TrainInventoryChangedEvent;
 import com.irctc.train.repository.SimpleTrainRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,6 +19,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -35,6 +39,9 @@ class PriceAlertEvaluationServiceTest {
     @Mock
     private NotificationServiceClient notificationServiceClient;
 
+    @Mock
+    private PriceAlertIndex priceAlertIndex;
+
     @InjectMocks
     private PriceAlertEvaluationService evaluationService;
 
@@ -86,5 +93,140 @@ class PriceAlertEvaluationServiceTest {
         verify(priceAlertService, never()).markTriggered(any());
         verify(notificationServiceClient, never()).sendPushNotification(any());
     }
-}
 
+    @Test
+    void shouldOnlyEvaluateAlertsWhoseThresholdTheFareDropCrossed() {
+        PriceAlertIndex index = new PriceAlertIndex();
+        PriceAlertEvaluationService service = new PriceAlertEvaluationService(
+            priceAlertService, trainRepository, notificationServiceClient, index);
+        ReflectionTestUtils.setField(service, "notificationsEnabled", true);
+        index.put(alert); // target 900
+        PriceAlert alreadyMet = priceAlert(2L, BigDecimal.valueOf(1200));
+        PriceAlert notYet = priceAlert(3L, BigDecimal.valueOf(800));
+        index.put(alreadyMet);
+        index.put(notYet);
+
+        when(priceAlertService.findActiveAlert(1L)).thenReturn(Optional.of(alert));
+        when(trainRepository.findByTrainNumber("12345")).thenReturn(Optional.of(train));
+        when(notificationServiceClient.sendPushNotification(any())).thenReturn(ResponseEntity.accepted().build());
+
+        service.onTrainInventoryChanged(new TrainInventoryChangedEvent("12345", "DEL", "BCT", "SL",
+            1000.0, 850.0, 50, 50));
+
+        verify(priceAlertService).markTriggered(alert);
+        verify(priceAlertService, never()).findActiveAlert(2L);
+        verify(priceAlertService, never()).findActiveAlert(3L);
+        verify(priceAlertService, never()).getActiveAlerts();
+    }
+
+    @Test
+    void shouldIgnoreFareIncrease() {
+        PriceAlertIndex index = new PriceAlertIndex();
+        PriceAlertEvaluationService service = new PriceAlertEvaluationService(
+            priceAlertService, trainRepository, notificationServiceClient, index);
+        index.put(alert);
+
+        service.onTrainInventoryChanged(new TrainInventoryChangedEvent("12345", "DEL", "BCT", "SL",
+            850.0, 950.0, 50, 50));
+
+        verifyNoInteractions(trainRepository);
+        verify(priceAlertService, never()).markTriggered(any());
+    }
+
+    @Test
+    void shouldTriggerRouteAlertWhenCheapestTrainGainsSeats() {
+        PriceAlertIndex index = new PriceAlertIndex();
+        PriceAlertEvaluationService service = new PriceAlertEvaluationService(
+            priceAlertService, trainRepository, notificationServiceClient, index);
+        ReflectionTestUtils.setField(service, "notificationsEnabled", false);
+        PriceAlert routeAlert = new PriceAlert();
+        routeAlert.setId(4L);
+        routeAlert.setUserId(5L);
+        routeAlert.setAlertType("AVAILABILITY");
+        routeAlert.setMinAvailability(10);
+        routeAlert.setSourceStation("DEL");
+        routeAlert.setDestinationStation("BCT");
+        routeAlert.setStatus("ACTIVE");
+        index.put(routeAlert);
+
+        when(trainRepository.findBySourceStationAndDestinationStation("DEL", "BCT")).thenReturn(List.of(train));
+        when(priceAlertService.findActiveAlert(4L)).thenReturn(Optional.of(routeAlert));
+
+        service.onTrainInventoryChanged(new TrainInventoryChangedEvent("12345", "DEL", "BCT", "SL",
+            850.0, 850.0, 0, 50));
+
+        verify(priceAlertService).markTriggered(routeAlert);
+        // One route read for the event and one to re-check the alert
+        verify(trainRepository, times(2)).findBySourceStationAndDestinationStation("DEL", "BCT");
+    }
+
+    @Test
+    void shouldTriggerDatedAvailabilityAlertOnSeatsLeftForThatDate() {
+        LocalDate journeyDate = LocalDate.now().plusDays(10);
+        PriceAlertIndex index = new PriceAlertIndex();
+        SeatInventoryProjection seatInventory = new SeatInventoryProjection();
+        PriceAlertEvaluationService service = new PriceAlertEvaluationService(
+            priceAlertService, trainRepository, notificationServiceClient, index);
+        ReflectionTestUtils.setField(service, "seatInventory", seatInventory);
+        ReflectionTestUtils.setField(service, "notificationsEnabled", false);
+
+        train.setId(9L);
+        train.setTrainClass("3A");
+        train.setTotalSeats(72);
+        PriceAlert dated = new PriceAlert();
+        dated.setId(6L);
+        dated.setUserId(5L);
+        dated.setAlertType("AVAILABILITY");
+        dated.setMinAvailability(5);
+        dated.setTrainNumber("12345");
+        dated.setTravelDate(journeyDate);
+        dated.setStatus("ACTIVE");
+        PriceAlert otherDate = new PriceAlert();
+        otherDate.setId(7L);
+        otherDate.setUserId(5L);
+        otherDate.setAlertType("AVAILABILITY");
+        otherDate.setMinAvailability(5);
+        otherDate.setTrainNumber("12345");
+        otherDate.setTravelDate(journeyDate.plusDays(1));
+        otherDate.setStatus("ACTIVE");
+        index.put(dated);
+        index.put(otherDate);
+
+        // 70 of 72 seats booked: the train-level count (50) would trigger, the date must not
+        seatInventory.apply(counter(9L, journeyDate, 70, 1L));
+        seatInventory.apply(counter(9L, journeyDate.plusDays(1), 70, 1L));
+        when(trainRepository.findByTrainNumber("12345")).thenReturn(Optional.of(train));
+        when(priceAlertService.getActiveAlerts()).thenReturn(List.of(dated, otherDate));
+        service.evaluateAlerts();
+        verify(priceAlertService, never()).markTriggered(any());
+
+        seatInventory.apply(counter(9L, journeyDate, 64, 2L));
+        when(priceAlertService.findActiveAlert(6L)).thenReturn(Optional.of(dated));
+        when(priceAlertService.findActiveAlert(7L)).thenReturn(Optional.of(otherDate));
+        service.onSeatAvailabilityChanged(new SeatAvailabilityChangedEvent("12345", "3A", journeyDate, 2, 8));
+
+        verify(priceAlertService).markTriggered(dated);
+        verify(priceAlertService, never()).markTriggered(otherDate);
+    }
+
+    private static SeatInventory counter(Long trainId, LocalDate journeyDate, int bookedSeats, long version) {
+        SeatInventory counter = new SeatInventory();
+        counter.setTrainId(trainId);
+        counter.setJourneyDate(journeyDate);
+        counter.setTravelClass("3A");
+        counter.setBookedSeats(bookedSeats);
+        counter.setVersion(version);
+        return counter;
+    }
+
+    private PriceAlert priceAlert(Long id, BigDecimal target) {
+        PriceAlert priceAlert = new PriceAlert();
+        priceAlert.setId(id);
+        priceAlert.setUserId(5L);
+        priceAlert.setAlertType("PRICE_DROP");
+        priceAlert.setTargetPrice(target);
+        priceAlert.setTrainNumber("12345");
+        priceAlert.setStatus("ACTIVE");
+        return priceAlert;
+    }
+}
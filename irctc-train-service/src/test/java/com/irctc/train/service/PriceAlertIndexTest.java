@@ -0,0 +1,102 @@
+package com.irctc.train.service;
+
+import com.irctc.train.entity.PriceAlert;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PriceAlertIndexTest {
+
+    private final PriceAlertIndex index = new PriceAlertIndex();
+    private final LocalDate today = LocalDate.now();
+    private final String train = PriceAlertIndex.trainTarget("12951");
+
+    @Test
+    void shouldReturnOnlyThresholdsBetweenOldAndNewFare() {
+        index.put(priceDrop(1L, "700", null, null));
+        index.put(priceDrop(2L, "900", null, null));
+        index.put(priceDrop(3L, "1100", null, null));
+
+        assertThat(index.priceCrossed(train, "3A", new BigDecimal("1000"), new BigDecimal("850"), today))
+            .containsExactly(2L);
+        assertThat(index.priceCrossed(train, "3A", null, new BigDecimal("850"), today))
+            .containsExactlyInAnyOrder(2L, 3L);
+        assertThat(index.priceCrossed(train, "3A", new BigDecimal("850"), new BigDecimal("1000"), today)).isEmpty();
+    }
+
+    @Test
+    void shouldMatchClassSpecificAndAnyClassAlerts() {
+        index.put(priceDrop(1L, "900", "3A", null));
+        index.put(priceDrop(2L, "900", "SL", null));
+        index.put(priceDrop(3L, "900", null, null));
+
+        assertThat(index.priceCrossed(train, "3a", new BigDecimal("1000"), new BigDecimal("850"), today))
+            .containsExactlyInAnyOrder(1L, 3L);
+    }
+
+    @Test
+    void shouldSkipPastTravelDatesAndRemovedAlerts() {
+        index.put(priceDrop(1L, "900", null, today.minusDays(1)));
+        index.put(priceDrop(2L, "900", null, today));
+        index.put(priceDrop(3L, "900", null, null));
+        index.remove(3L);
+
+        assertThat(index.priceCrossed(train, null, new BigDecimal("1000"), new BigDecimal("850"), today))
+            .containsExactly(2L);
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldReindexOnUpdateAndDropInactiveAlerts() {
+        PriceAlert alert = priceDrop(1L, "900", null, null);
+        index.put(alert);
+        alert.setTargetPrice(new BigDecimal("700"));
+        index.put(alert);
+
+        assertThat(index.priceCrossed(train, null, new BigDecimal("1000"), new BigDecimal("850"), today)).isEmpty();
+
+        alert.setStatus("TRIGGERED");
+        index.put(alert);
+        assertThat(index.size()).isZero();
+        assertThat(index.watches(train)).isFalse();
+    }
+
+    @Test
+    void shouldReturnAvailabilityAlertsCrossedBySeatIncrease() {
+        PriceAlert small = availability(1L, 2);
+        PriceAlert large = availability(2L, 40);
+        index.rebuild(List.of(small, large));
+
+        assertThat(index.availabilityCrossed(train, null, 0, 10, today)).containsExactly(1L);
+        assertThat(index.availabilityCrossed(train, null, 10, 50, today)).containsExactly(2L);
+        assertThat(index.availabilityCrossed(train, null, 50, 10, today)).isEmpty();
+    }
+
+    private PriceAlert priceDrop(Long id, String target, String travelClass, LocalDate travelDate) {
+        PriceAlert alert = alert(id);
+        alert.setAlertType("PRICE_DROP");
+        alert.setTargetPrice(new BigDecimal(target));
+        alert.setTravelClass(travelClass);
+        alert.setTravelDate(travelDate);
+        return alert;
+    }
+
+    private PriceAlert availability(Long id, int minSeats) {
+        PriceAlert alert = alert(id);
+        alert.setAlertType("AVAILABILITY");
+        alert.setMinAvailability(minSeats);
+        return alert;
+    }
+
+    private PriceAlert alert(Long id) {
+        PriceAlert alert = new PriceAlert();
+        alert.setId(id);
+        alert.setTrainNumber("12951");
+        alert.setStatus("ACTIVE");
+        return alert;
+    }
+}
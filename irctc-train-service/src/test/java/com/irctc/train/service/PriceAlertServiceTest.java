@@ -28,6 +28,9 @@ class PriceAlertServiceTest {
     @Mock
     private PriceAlertRepository priceAlertRepository;
 
+    @Mock
+    private PriceAlertIndex priceAlertIndex;
+
     @InjectMocks
     private PriceAlertService priceAlertService;
 
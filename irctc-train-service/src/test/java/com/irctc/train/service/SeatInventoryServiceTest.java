@@ -0,0 +1,209 @@
+package com.irctc.train.service;
+
+import com.irctc.shared.events.BookingEvents;
+import com.irctc.train.entity.ProcessedSeatEvent;
+import com.irctc.train.entity.SeatInventory;
+import com.irctc.train.entity.SimpleTrain;
+import com.irctc.train.event.SeatAvailabilityChangedEvent;
+import com.irctc.train.repository.ProcessedSeatEventRepository;
+import com.irctc.train.repository.SeatInventoryRepository;
+import com.irctc.train.repository.SimpleTrainRepository;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SeatInventoryServiceTest {
+
+    private static final LocalDate JOURNEY = LocalDate.now().plusDays(14);
+
+    @Mock
+    private SeatInventoryRepository seatInventoryRepository;
+
+    @Mock
+    private ProcessedSeatEventRepository processedEventRepository;
+
+    @Mock
+    private SimpleTrainRepository trainRepository;
+
+    @Mock
+    private TrainReferencePublisher referencePublisher;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SeatInventoryProjection projection;
+    private SeatInventoryService service;
+    private SimpleTrain train;
+
+    @BeforeEach
+    void setUp() {
+        projection = new SeatInventoryProjection();
+        service = new SeatInventoryService(seatInventoryRepository, processedEventRepository, trainRepository,
+            projection, referencePublisher, eventPublisher, transactionManager, 1000);
+
+        train = new SimpleTrain();
+        train.setId(9L);
+        train.setTrainNumber("12951");
+        train.setTrainClass("3A");
+        train.setTotalSeats(72);
+        train.setAvailableSeats(72);
+    }
+
+    @Test
+    void shouldCoalesceBatchIntoOneIncrementPerCounter() {
+        when(trainRepository.findAllById(any())).thenReturn(List.of(train));
+        when(seatInventoryRepository.addBookedSeats(eq(9L), eq(JOURNEY), eq("3A"), anyInt(), any())).thenReturn(1);
+        when(seatInventoryRepository.addBookedSeats(eq(9L), eq(JOURNEY.plusDays(1)), eq("3A"), anyInt(), any())).thenReturn(0);
+        when(seatInventoryRepository.findByTrainIdAndJourneyDateAndTravelClass(9L, JOURNEY, "3A"))
+            .thenReturn(Optional.of(counter(JOURNEY, 12, 4L)));
+        when(seatInventoryRepository.findByTrainIdAndJourneyDateAndTravelClass(9L, JOURNEY.plusDays(1), "3A"))
+            .thenReturn(Optional.of(counter(JOURNEY.plusDays(1), 3, 1L)));
+
+        service.apply(List.of(
+            new SeatInventoryService.SeatChange("e1", 9L, JOURNEY, 4),
+            new SeatInventoryService.SeatChange("e2", 9L, JOURNEY, 2),
+            new SeatInventoryService.SeatChange("e3", 9L, JOURNEY, -1),
+            new SeatInventoryService.SeatChange("e2", 9L, JOURNEY, 2),
+            new SeatInventoryService.SeatChange("e4", 9L, JOURNEY.plusDays(1), 3)));
+
+        verify(seatInventoryRepository).addBookedSeats(eq(9L), eq(JOURNEY), eq("3A"), eq(5), any());
+        verify(seatInventoryRepository).addBookedSeats(eq(9L), eq(JOURNEY.plusDays(1)), eq("3A"), eq(3), any());
+        verify(seatInventoryRepository, times(1)).save(any(SeatInventory.class));
+        verify(processedEventRepository).saveAll(argThat(events ->
+            ((List<ProcessedSeatEvent>) events).stream().map(ProcessedSeatEvent::getEventId).toList()
+                .equals(List.of("e1", "e2", "e3", "e4"))));
+
+        assertThat(service.getAvailableSeats(train, JOURNEY)).isEqualTo(60);
+        assertThat(service.getAvailableSeats(train, JOURNEY.plusDays(1))).isEqualTo(69);
+        assertThat(service.getAvailableSeats(train, null)).isEqualTo(72);
+
+        ArgumentCaptor<SeatAvailabilityChangedEvent> changed = ArgumentCaptor.forClass(SeatAvailabilityChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(changed.capture());
+        assertThat(changed.getAllValues().get(0).getPreviousAvailableSeats()).isEqualTo(72);
+        assertThat(changed.getAllValues().get(0).getNewAvailableSeats()).isEqualTo(60);
+        verify(referencePublisher).publishSeatAvailability(eq(train), any(SeatInventory.class), eq(60));
+    }
+
+    @Test
+    void shouldCountEachEventOnce() {
+        when(trainRepository.findAllById(any())).thenReturn(List.of(train));
+        when(processedEventRepository.findAllById(any()))
+            .thenReturn(List.of(new ProcessedSeatEvent("e1", LocalDateTime.now())));
+        when(seatInventoryRepository.addBookedSeats(anyLong(), any(), anyString(), anyInt(), any())).thenReturn(1);
+        when(seatInventoryRepository.findByTrainIdAndJourneyDateAndTravelClass(9L, JOURNEY, "3A"))
+            .thenReturn(Optional.of(counter(JOURNEY, 2, 2L)));
+
+        List<SeatInventoryService.SeatChange> batch = List.of(
+            new SeatInventoryService.SeatChange("e1", 9L, JOURNEY, 4),
+            new SeatInventoryService.SeatChange("e2", 9L, JOURNEY, 2));
+        service.apply(batch);
+        // Redelivery of the same poll is dropped before any query
+        service.apply(batch);
+
+        verify(seatInventoryRepository).addBookedSeats(eq(9L), eq(JOURNEY), eq("3A"), eq(2), any());
+        verify(trainRepository, times(1)).findAllById(any());
+        verify(processedEventRepository, times(1)).saveAll(any());
+    }
+
+    @Test
+    void shouldNotRollCountersBackOnStaleRefresh() {
+        projection.apply(counter(JOURNEY, 20, 5L));
+        when(seatInventoryRepository.findByJourneyDateGreaterThanEqual(any())).thenReturn(List.of());
+        when(seatInventoryRepository.findByUpdatedAtGreaterThanEqual(any()))
+            .thenReturn(List.of(counter(JOURNEY, 14, 4L), counter(JOURNEY.plusDays(2), 7, 3L)));
+
+        service.loadProjection();
+        service.refresh();
+
+        assertThat(projection.bookedSeats(9L, JOURNEY, "3a")).isEqualTo(20);
+        assertThat(projection.bookedSeats(9L, JOURNEY.plusDays(2), "3A")).isEqualTo(7);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void shouldReadCreatedBatchAndCancelledPayloads() {
+        BookingEvents.BookingCreatedEvent created = new BookingEvents.BookingCreatedEvent();
+        created.setTrainId(9L);
+        created.setPassengerCount(3);
+        created.setJourneyDate(JOURNEY.atStartOfDay());
+        Map<String, Object> batch = Map.of("jobId", "job-1", "trainId", 9L, "bookingCount", 1, "bookings", List.of(
+            Map.of("eventId", "b1", "trainId", 9, "passengerCount", 2, "journeyDate", JOURNEY.atStartOfDay().toString())));
+        Map<String, Object> cancelled = Map.of("eventId", "c1", "bookingId", 4, "trainId", 9, "passengerCount", 2,
+            "journeyDate", JOURNEY.atStartOfDay().toString());
+
+        List<SeatInventoryService.SeatChange> changes = new ArrayList<>();
+        changes.addAll(SeatInventoryService.toSeatChanges("booking-created", created));
+        changes.addAll(SeatInventoryService.toSeatChanges("booking-created-batch", batch));
+        changes.addAll(SeatInventoryService.toSeatChanges("booking-cancelled", cancelled));
+
+        assertThat(changes).containsExactly(
+            new SeatInventoryService.SeatChange(created.getEventId(), 9L, JOURNEY, 3),
+            new SeatInventoryService.SeatChange("b1", 9L, JOURNEY, 2),
+            new SeatInventoryService.SeatChange("c1", 9L, JOURNEY, -2));
+    }
+
+    @Test
+    void shouldMoveSeatsWhenTheJourneyDateChanges() {
+        BookingEvents.BookingJourneyChangedEvent moved = new BookingEvents.BookingJourneyChangedEvent(
+            4L, 1L, "PNR4", 2, 9L, JOURNEY.atStartOfDay(), 9L, JOURNEY.plusDays(3).atStartOfDay());
+        Map<String, Object> movedAsJson = Map.of("eventId", "m1", "passengerCount", 1,
+            "previousTrainId", 9, "previousJourneyDate", JOURNEY.atStartOfDay().toString(),
+            "trainId", 10, "journeyDate", JOURNEY.atStartOfDay().toString());
+
+        assertThat(SeatInventoryService.toSeatChanges("booking-journey-changed", moved)).containsExactly(
+            new SeatInventoryService.SeatChange(moved.getEventId() + ":release", 9L, JOURNEY, -2),
+            new SeatInventoryService.SeatChange(moved.getEventId() + ":take", 9L, JOURNEY.plusDays(3), 2));
+        assertThat(SeatInventoryService.toSeatChanges("booking-journey-changed", movedAsJson)).containsExactly(
+            new SeatInventoryService.SeatChange("m1:release", 9L, JOURNEY, -1),
+            new SeatInventoryService.SeatChange("m1:take", 10L, JOURNEY, 1));
+    }
+
+    @Test
+    void shouldSkipUnreadableRecordsAndUnknownTrains() {
+        when(trainRepository.findAllById(any())).thenReturn(List.of());
+
+        service.onBookingEvents(List.of(
+            new ConsumerRecord<>("booking-created", 0, 1L, "k", "not an event"),
+            new ConsumerRecord<>("booking-cancelled", 0, 2L, "k", null),
+            new ConsumerRecord<>("booking-created", 0, 3L, "k", Map.of("eventId", "x1", "trainId", 404,
+                "passengerCount", 1, "journeyDate", JOURNEY.atStartOfDay().toString()))));
+
+        verifyNoInteractions(processedEventRepository, seatInventoryRepository, eventPublisher);
+    }
+
+    private static SeatInventory counter(LocalDate journeyDate, int bookedSeats, long version) {
+        SeatInventory counter = new SeatInventory();
+        counter.setTrainId(9L);
+        counter.setJourneyDate(journeyDate);
+        counter.setTravelClass("3A");
+        counter.setBookedSeats(bookedSeats);
+        counter.setVersion(version);
+        counter.setUpdatedAt(LocalDateTime.now());
+        return counter;
+    }
+}
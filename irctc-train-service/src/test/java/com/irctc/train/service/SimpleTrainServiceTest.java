@@ -0,0 +1,126 @@
+package com.irctc.train.service;
+
+import com.irctc.shared.events.TrainEvents;
+import com.irctc.train.dto.TrainReferencePage;
+import com.irctc.train.entity.SimpleTrain;
+import com.irctc.train.repository.SimpleTrainRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SimpleTrainServiceTest {
+
+    @Mock
+    private SimpleTrainRepository trainRepository;
+
+    @Mock
+    private TrainReferencePublisher referencePublisher;
+
+    @Mock
+    private TrainRouteIndex routeIndex;
+
+    @InjectMocks
+    private SimpleTrainService trainService;
+
+    @Test
+    void shouldPageTrainReferencesById() {
+        when(trainRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 2)))
+            .thenReturn(List.of(train(1L, "12951"), train(2L, "12952")));
+        when(trainRepository.findByIdGreaterThanOrderByIdAsc(2L, PageRequest.of(0, 2)))
+            .thenReturn(List.of(train(5L, "12301")));
+
+        TrainReferencePage first = trainService.getTrainReferences(0L, 2);
+        TrainReferencePage last = trainService.getTrainReferences(first.getNextAfterId(), 2);
+
+        assertThat(first.getTrains()).extracting("trainNumber").containsExactly("12951", "12952");
+        assertThat(first.isHasMore()).isTrue();
+        assertThat(first.getNextAfterId()).isEqualTo(2L);
+        assertThat(last.getTrains()).extracting("trainNumber").containsExactly("12301");
+        assertThat(last.getTrains().get(0).getVersion()).isEqualTo(3L);
+        assertThat(last.isHasMore()).isFalse();
+        assertThat(last.getNextAfterId()).isEqualTo(5L);
+    }
+
+    @Test
+    void shouldPublishReferenceChangeOnUpdateAndDelete() {
+        SimpleTrain existing = train(1L, "12951");
+        when(trainRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(trainRepository.save(any(SimpleTrain.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        SimpleTrain details = train(null, "12951");
+        details.setTrainName("Mumbai Rajdhani Express");
+        trainService.updateTrain(1L, details);
+        trainService.deleteTrain(1L);
+
+        verify(referencePublisher, times(2)).publish(existing);
+        verify(routeIndex).put(existing);
+        verify(routeIndex).remove(1L);
+        assertThat(existing.getStatus()).isEqualTo("INACTIVE");
+        assertThat(existing.getTrainName()).isEqualTo("Mumbai Rajdhani Express");
+    }
+
+    @Test
+    void shouldSearchThroughRouteIndexOrderedByDeparture() {
+        SimpleTrain late = train(4L, "12953");
+        late.setDepartureTime(LocalDateTime.of(2026, 11, 1, 21, 10));
+        SimpleTrain early = train(9L, "12009");
+        early.setDepartureTime(LocalDateTime.of(2026, 11, 1, 6, 20));
+        when(routeIndex.trainsBetween("BRC", "MMCT", null)).thenReturn(List.of(4L, 9L));
+        when(trainRepository.findAllById(List.of(4L, 9L))).thenReturn(List.of(late, early));
+
+        List<SimpleTrain> trains = trainService.searchTrains("BRC", "MMCT");
+
+        assertThat(trains).extracting("trainNumber").containsExactly("12009", "12953");
+    }
+
+    @Test
+    void shouldSkipDatabaseWhenNoTrainRunsBetweenStations() {
+        when(routeIndex.trainsBetween("MMCT", "NDLS", null)).thenReturn(List.of());
+
+        assertThat(trainService.searchTrains("MMCT", "NDLS")).isEmpty();
+        verifyNoInteractions(trainRepository);
+    }
+
+    @Test
+    void shouldCarryVersionInReferenceEvent() {
+        TrainEvents.TrainChangedEvent event = TrainReferencePublisher.toEvent(train(7L, "22691"));
+
+        assertThat(event.getTrainId()).isEqualTo(7L);
+        assertThat(event.getTrainNumber()).isEqualTo("22691");
+        assertThat(event.getVersion()).isEqualTo(3L);
+        assertThat(event.getEventId()).isNotBlank();
+    }
+
+    private static SimpleTrain train(Long id, String number) {
+        SimpleTrain train = new SimpleTrain();
+        train.setId(id);
+        train.setTrainNumber(number);
+        train.setTrainName("Rajdhani " + number);
+        train.setSourceStation("NDLS");
+        train.setDestinationStation("MMCT");
+        train.setDepartureTime(LocalDateTime.of(2026, 11, 1, 16, 55));
+        train.setArrivalTime(LocalDateTime.of(2026, 11, 2, 8, 35));
+        train.setTrainType("RAJDHANI");
+        train.setTrainClass("3A");
+        train.setBaseFare(2450.0);
+        train.setTotalSeats(500);
+        train.setAvailableSeats(120);
+        train.setDistance(1384);
+        train.setDuration(940);
+        train.setStatus("ACTIVE");
+        train.setVersion(3L);
+        return train;
+    }
+}
@@ -0,0 +1,133 @@
+package com.irctc.train.service;
+
+import com.irctc.train.entity.SimpleTrain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrainRouteIndexTest {
+
+    private TrainRouteIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrainRouteIndex();
+        index.rebuild(List.of(
+            train(1L, "NDLS", "MMCT", List.of("NDLS", "MTJ", "KOTA", "RTM", "BRC", "MMCT"), "tenant-a"),
+            train(2L, "MMCT", "NDLS", List.of("MMCT", "BRC", "RTM", "KOTA", "NDLS"), "tenant-a"),
+            train(3L, "NDLS", "HWH", null, "tenant-b")
+        ));
+    }
+
+    @Test
+    void shouldFindTrainsBoardingAndAlightingAtIntermediateHalts() {
+        assertThat(index.trainsBetween("KOTA", "BRC", null)).containsExactly(1L);
+        assertThat(index.trainsBetween("BRC", "KOTA", null)).containsExactly(2L);
+        assertThat(index.trainsBetween("rtm", " kota ", null)).containsExactly(2L);
+    }
+
+    @Test
+    void shouldFallBackToOriginAndTerminusWithoutStopList() {
+        assertThat(index.trainsBetween("NDLS", "HWH", null)).containsExactly(3L);
+        assertThat(index.trainsBetween("HWH", "NDLS", null)).isEmpty();
+        assertThat(index.trainsBetween("NDLS", "NDLS", null)).isEmpty();
+        assertThat(index.trainsBetween("NDLS", "XYZ", null)).isEmpty();
+    }
+
+    @Test
+    void shouldFilterByTenant() {
+        assertThat(index.trainsBetween("NDLS", "MMCT", "tenant-a")).containsExactly(1L);
+        assertThat(index.trainsBetween("NDLS", "MMCT", "tenant-b")).isEmpty();
+        assertThat(index.trainsBetween("NDLS", "HWH", "tenant-b")).containsExactly(3L);
+    }
+
+    @Test
+    void shouldReindexIncrementally() {
+        SimpleTrain rerouted = train(1L, "NDLS", "MMCT", List.of("NDLS", "AGC", "BPL", "MMCT"), "tenant-a");
+        index.put(rerouted);
+
+        assertThat(index.trainsBetween("KOTA", "BRC", null)).isEmpty();
+        assertThat(index.trainsBetween("AGC", "BPL", null)).containsExactly(1L);
+
+        index.put(train(7L, "AGC", "BPL", null, "tenant-a"));
+        assertThat(index.trainsBetween("AGC", "BPL", null)).containsExactly(1L, 7L);
+
+        index.remove(1L);
+        assertThat(index.trainsBetween("AGC", "BPL", null)).containsExactly(7L);
+        assertThat(index.trainsBetween("NDLS", "MMCT", null)).isEmpty();
+    }
+
+    @Test
+    void shouldDropInactiveTrains() {
+        SimpleTrain retired = train(3L, "NDLS", "HWH", null, "tenant-b");
+        retired.setStatus("INACTIVE");
+        index.put(retired);
+
+        assertThat(index.trainsBetween("NDLS", "HWH", null)).isEmpty();
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldHonourLoopRoutesHaltingTwiceAtOneStation() {
+        index.put(train(8L, "SBC", "SBC", List.of("SBC", "MYS", "HAS", "SBC"), null));
+
+        assertThat(index.trainsBetween("HAS", "SBC", null)).containsExactly(8L);
+        assertThat(index.trainsBetween("SBC", "MYS", null)).containsExactly(8L);
+    }
+
+    @Test
+    void shouldReplayWritesMadeWhileRebuildWasLoading() {
+        List<SimpleTrain> staleRead = List.of(
+            train(1L, "NDLS", "MMCT", List.of("NDLS", "MTJ", "KOTA", "RTM", "BRC", "MMCT"), "tenant-a"),
+            train(2L, "MMCT", "NDLS", List.of("MMCT", "BRC", "RTM", "KOTA", "NDLS"), "tenant-a"));
+
+        index.rebuild(() -> {
+            // Written by a request after the reconciliation read the table
+            index.put(train(9L, "AGC", "BPL", null, "tenant-a"));
+            index.remove(2L);
+            assertThat(index.trainsBetween("AGC", "BPL", null)).containsExactly(9L);
+            return staleRead;
+        });
+
+        assertThat(index.trainsBetween("AGC", "BPL", "tenant-a")).containsExactly(9L);
+        assertThat(index.trainsBetween("BRC", "KOTA", null)).isEmpty();
+        assertThat(index.trainsBetween("NDLS", "HWH", null)).isEmpty();
+        assertThat(index.size()).isEqualTo(2);
+
+        // Once the rebuild is published, later rebuilds no longer replay it
+        index.rebuild(staleRead);
+        assertThat(index.trainsBetween("AGC", "BPL", null)).isEmpty();
+    }
+
+    @Test
+    void shouldIntersectSkewedPostingListsByProbing() {
+        List<SimpleTrain> trains = new ArrayList<>();
+        for (long id = 1; id <= 400; id++) {
+            // Every train halts at the junction; only every 50th continues to the branch terminus
+            List<String> stops = id % 50 == 0 ? List.of("JN", "MID", "BRANCH") : List.of("JN", "MID");
+            trains.add(train(id, "JN", stops.get(stops.size() - 1), stops, null));
+        }
+        trains.add(train(500L, "BRANCH", "JN", List.of("BRANCH", "JN"), null));
+        index.rebuild(trains);
+
+        assertThat(index.trainsBetween("JN", "BRANCH", null)).containsExactly(50L, 100L, 150L, 200L, 250L, 300L, 350L, 400L);
+        assertThat(index.trainsBetween("BRANCH", "JN", null)).containsExactly(500L);
+        assertThat(index.trainsBetween("MID", "JN", null)).isEmpty();
+    }
+
+    private static SimpleTrain train(Long id, String source, String destination, List<String> stops, String tenantId) {
+        SimpleTrain train = new SimpleTrain();
+        train.setId(id);
+        train.setTrainNumber(String.valueOf(12900 + id));
+        train.setSourceStation(source);
+        train.setDestinationStation(destination);
+        train.setStops(stops);
+        train.setTenantId(tenantId);
+        train.setStatus("ACTIVE");
+        return train;
+    }
+}
@@ -3,6 +3,7 @@ package com.irctc.user;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.scheduling.annotation.EnableAsync;
 /**
  * IRCTC User Service - Microservice for User Management
@@ -20,6 +21,7 @@ import org.springframework.scheduling.annotation.EnableAsync;
 @SpringBootApplication
 @EnableCaching
 @EnableAsync
+@EnableFeignClients
 public class UserServiceApplication {
 
     public static void main(String[] args) {
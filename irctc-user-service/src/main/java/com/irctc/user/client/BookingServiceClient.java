@@ -0,0 +1,25 @@
+package com.irctc.user.client;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Feign client for Booking Service data exports
+ */
+@FeignClient(name = "irctc-booking-service", contextId = "bookingExportClient")
+public interface BookingServiceClient {
+    
+    /**
+     * Keyset page of a user's bookings with IDs greater than afterId, in ID order
+     */
+    @GetMapping("/api/bookings/export")
+    List<Map<String, Object>> exportBookings(@RequestHeader(value = "X-Tenant-Id", required = false) String tenantId,
+                                             @RequestParam("userId") Long userId,
+                                             @RequestParam("afterId") Long afterId,
+                                             @RequestParam("limit") int limit);
+}
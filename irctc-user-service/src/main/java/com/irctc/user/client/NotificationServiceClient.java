@@ -0,0 +1,25 @@
+package com.irctc.user.client;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Feign client for Notification Service data exports
+ */
+@FeignClient(name = "irctc-notification-service", contextId = "notificationExportClient")
+public interface NotificationServiceClient {
+    
+    /**
+     * Keyset page of a user's notifications with IDs greater than afterId, in ID order
+     */
+    @GetMapping("/api/notifications/export")
+    List<Map<String, Object>> exportNotifications(@RequestHeader(value = "X-Tenant-Id", required = false) String tenantId,
+                                                  @RequestParam("userId") Long userId,
+                                                  @RequestParam("afterId") Long afterId,
+                                                  @RequestParam("limit") int limit);
+}
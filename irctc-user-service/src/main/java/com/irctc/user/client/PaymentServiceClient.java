@@ -0,0 +1,27 @@
+package com.irctc.user.client;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Feign client for Payment Service data exports
+ */
+@FeignClient(name = "irctc-payment-service", contextId = "paymentExportClient")
+public interface PaymentServiceClient {
+    
+    /**
+     * Keyset page of the payments of a user's bookings after the (afterBookingId, afterId) cursor,
+     * in booking ID then ID order
+     */
+    @GetMapping("/api/payments/export")
+    List<Map<String, Object>> exportPayments(@RequestHeader(value = "X-Tenant-Id", required = false) String tenantId,
+                                             @RequestParam("userId") Long userId,
+                                             @RequestParam("afterBookingId") Long afterBookingId,
+                                             @RequestParam("afterId") Long afterId,
+                                             @RequestParam("limit") int limit);
+}
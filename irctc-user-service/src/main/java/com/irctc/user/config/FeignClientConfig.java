@@ -0,0 +1,57 @@
+package com.irctc.user.config;
+
+import com.irctc.shared.http.HttpClientPoolMetrics;
+import com.irctc.shared.http.HttpClientPoolSettings;
+import com.irctc.shared.http.PooledFeignClient;
+import feign.Client;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.cloud.openfeign.loadbalancer.FeignBlockingLoadBalancerClient;
+
+import java.util.List;
+
+/**
+ * Feign transport for Booking, Payment and Notification service calls
+ *
+ * Replaces Feign's default HttpURLConnection client with the shared pooled
+ * HttpClient 5 client (irctc.http.client.*), behind Spring Cloud's load
+ * balancer so connections are pooled per resolved instance.
+ */
+@Configuration
+public class FeignClientConfig {
+
+    @Bean
+    @ConfigurationProperties(prefix = "irctc.http.client")
+    public HttpClientPoolSettings httpClientPoolSettings() {
+        return new HttpClientPoolSettings();
+    }
+
+    @Bean(destroyMethod = "close")
+    public PooledFeignClient pooledFeignClient(HttpClientPoolSettings httpClientPoolSettings) {
+        return new PooledFeignClient(httpClientPoolSettings);
+    }
+
+    @Bean
+    @Primary
+    public Client feignClient(PooledFeignClient pooledFeignClient,
+                              ObjectProvider<LoadBalancerClient> loadBalancerClient,
+                              ObjectProvider<LoadBalancerClientFactory> loadBalancerClientFactory) {
+        LoadBalancerClient balancer = loadBalancerClient.getIfAvailable();
+        LoadBalancerClientFactory balancerFactory = loadBalancerClientFactory.getIfAvailable();
+        if (balancer == null || balancerFactory == null) {
+            return pooledFeignClient;
+        }
+        return new FeignBlockingLoadBalancerClient(pooledFeignClient, balancer, balancerFactory, List.of());
+    }
+
+    @Bean
+    public MeterBinder httpClientPoolMetrics(PooledFeignClient pooledFeignClient) {
+        return new HttpClientPoolMetrics("irctc-user-service", pooledFeignClient);
+    }
+}
@@ -0,0 +1,33 @@
+package com.irctc.user.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Executor for GDPR data exports
+ * 
+ * Exports are long-running and I/O heavy, so they get their own small, bounded
+ * pool instead of the shared @Async executor. When the queue is full new
+ * export requests are rejected and marked FAILED rather than piling up.
+ */
+@Configuration
+public class GdprExportConfig {
+    
+    @Bean(name = "gdprExportExecutor")
+    public Executor gdprExportExecutor(@Value("${gdpr.export.max-concurrent:2}") int maxConcurrent,
+                                       @Value("${gdpr.export.queue-capacity:20}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrent);
+        executor.setMaxPoolSize(maxConcurrent);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("gdpr-export-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.initialize();
+        return executor;
+    }
+}
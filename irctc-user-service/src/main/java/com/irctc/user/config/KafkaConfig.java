@@ -1,5 +1,7 @@
 package com.irctc.user.config;
 
+import com.irctc.shared.events.codec.BinaryEventSerializer;
+import com.irctc.shared.events.codec.KafkaProducerProfile;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
@@ -22,15 +24,28 @@ public class KafkaConfig {
     @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
     private String bootstrapServers;
 
+    @Value("${events.codec:json}")
+    private String eventCodec;
+
+    @Value("${events.producer-profile:default}")
+    private String producerProfile;
+
+    @Value("${events.schema-registry-path:}")
+    private String schemaRegistryPath;
+
     @Bean
     public ProducerFactory<String, Object> producerFactory() {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        // Binary only once every consumer reads with DualFormatEventDeserializer
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG,
+            "binary".equalsIgnoreCase(eventCodec) ? BinaryEventSerializer.class : JsonSerializer.class);
+        configProps.put(BinaryEventSerializer.SCHEMA_REGISTRY_PATH, schemaRegistryPath);
         configProps.put(ProducerConfig.ACKS_CONFIG, "all");
         configProps.put(ProducerConfig.RETRIES_CONFIG, 3);
         configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        KafkaProducerProfile.fromName(producerProfile).applyTo(configProps);
         
         return new DefaultKafkaProducerFactory<>(configProps);
     }
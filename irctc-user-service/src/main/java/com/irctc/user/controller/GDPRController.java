@@ -8,12 +8,15 @@ import com.irctc.user.service.ConsentService;
 import com.irctc.user.service.GDPRService;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -53,13 +56,33 @@ public class GDPRController {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
         
-        if ("COMPLETED".equals(exportRequest.getStatus())) {
-            // In production, return file download
-            // For now, return status
-            return ResponseEntity.ok(convertToResponse(exportRequest));
+        return ResponseEntity.ok(convertToResponse(exportRequest));
+    }
+    
+    /**
+     * GET /api/users/{id}/export-data/{requestId}/download
+     * Download a completed export as gzip-compressed JSON
+     */
+    @GetMapping("/{id}/export-data/{requestId}/download")
+    public ResponseEntity<Resource> downloadExportData(@PathVariable Long id, @PathVariable String requestId) {
+        DataExportRequest exportRequest = gdprService.getExportRequestStatus(requestId);
+        
+        if (!exportRequest.getUserId().equals(id)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        if (!"COMPLETED".equals(exportRequest.getStatus()) || exportRequest.getFilePath() == null
+                || (exportRequest.getExpiresAt() != null && exportRequest.getExpiresAt().isBefore(LocalDateTime.now()))) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
         
-        return ResponseEntity.ok(convertToResponse(exportRequest));
+        Resource file = new FileSystemResource(exportRequest.getFilePath());
+        if (!file.exists()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType("application/gzip"))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + requestId + ".json.gz\"")
+            .body(file);
     }
     
     /**
@@ -158,6 +181,9 @@ public class GDPRController {
         response.setCompletedAt(exportRequest.getCompletedAt());
         response.setErrorMessage(exportRequest.getErrorMessage());
         response.setDataCategories(exportRequest.getDataCategories());
+        response.setCurrentCategory(exportRequest.getCurrentCategory());
+        response.setRecordsExported(exportRequest.getRecordsExported());
+        response.setFileSizeBytes(exportRequest.getFileSizeBytes());
         return response;
     }
     
@@ -18,5 +18,8 @@ public class DataExportResponse {
     private LocalDateTime completedAt;
     private String errorMessage;
     private String dataCategories;
+    private String currentCategory;
+    private Long recordsExported;
+    private Long fileSizeBytes;
 }
 
@@ -53,6 +53,15 @@ public class DataExportRequest implements TenantAware {
     @Column(name = "data_categories", length = 500)
     private String dataCategories; // Comma-separated list of data categories exported
     
+    @Column(name = "current_category", length = 50)
+    private String currentCategory; // Category being written while PROCESSING
+    
+    @Column(name = "records_exported")
+    private Long recordsExported = 0L;
+    
+    @Column(name = "file_size_bytes")
+    private Long fileSizeBytes; // Compressed size of the export file
+    
     @Column(name = "tenant_id", length = 50)
     private String tenantId;
     
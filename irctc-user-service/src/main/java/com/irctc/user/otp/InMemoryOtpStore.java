@@ -0,0 +1,220 @@
+package com.irctc.user.otp;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded single-instance OTP store, used in tests and when Redis is not configured
+ *
+ * Entries follow the same rules as {@link RedisOtpStore}: one entry per user,
+ * kept until both its OTP and its request window have ended. Expiry runs on a
+ * time wheel of wheelSize slots of tickMs each; an entry sits in the slot of
+ * the tick its deadline falls in, and every operation first sweeps the slots
+ * whose tick has passed. Deadlines further out than one turn of the wheel stay
+ * in their slot until a later turn reaches them. When maxEntries is reached
+ * the entry closest to expiry is evicted, so memory stays bounded however many
+ * OTPs are abandoned.
+ *
+ * @author IRCTC Development Team
+ * @version 1.0.0
+ */
+public class InMemoryOtpStore implements OtpStore {
+
+    private final int maxEntries;
+    private final long tickMs;
+    private final LongSupplier clock;
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Set<String>[] wheel;
+    private long currentTick;
+    private long evictions;
+
+    private static final class Entry {
+        private String otp;
+        private long expiresAt;
+        private int attempts;
+        private int issued;
+        private long windowEndsAt;
+        private long deadline;
+        private int slot = -1;
+    }
+
+    public InMemoryOtpStore(int maxEntries, long tickMs, int wheelSize) {
+        this(maxEntries, tickMs, wheelSize, System::currentTimeMillis);
+    }
+
+    @SuppressWarnings("unchecked")
+    InMemoryOtpStore(int maxEntries, long tickMs, int wheelSize, LongSupplier clock) {
+        if (maxEntries < 1 || tickMs < 1 || wheelSize < 1) {
+            throw new IllegalArgumentException("maxEntries, tickMs and wheelSize must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.tickMs = tickMs;
+        this.clock = clock;
+        this.wheel = new Set[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            wheel[i] = new HashSet<>();
+        }
+        this.currentTick = clock.getAsLong() / tickMs;
+    }
+
+    @Override
+    public synchronized boolean issue(String userId, String otp, Duration validity, int maxRequests, Duration window) {
+        long now = advance();
+        Entry entry = live(userId, now);
+        if (entry != null && entry.windowEndsAt > now) {
+            if (entry.issued >= maxRequests) {
+                return false;
+            }
+        } else {
+            if (entry == null) {
+                if (entries.size() >= maxEntries) {
+                    evictOne();
+                }
+                entry = new Entry();
+                entries.put(userId, entry);
+            }
+            entry.issued = 0;
+            entry.windowEndsAt = now + window.toMillis();
+        }
+        entry.issued++;
+        entry.otp = otp;
+        entry.expiresAt = now + validity.toMillis();
+        entry.attempts = 0;
+        schedule(userId, entry, Math.max(entry.windowEndsAt, entry.expiresAt));
+        return true;
+    }
+
+    @Override
+    public synchronized VerifyResult verify(String userId, String otp, int maxAttempts) {
+        long now = advance();
+        Entry entry = live(userId, now);
+        if (entry == null || entry.otp == null) {
+            return new VerifyResult(Outcome.NOT_FOUND, 0);
+        }
+        if (entry.expiresAt <= now) {
+            clearOtp(userId, entry, now);
+            return new VerifyResult(Outcome.EXPIRED, 0);
+        }
+        if (entry.attempts >= maxAttempts) {
+            clearOtp(userId, entry, now);
+            return new VerifyResult(Outcome.LOCKED, 0);
+        }
+        if (entry.otp.equals(otp)) {
+            clearOtp(userId, entry, now);
+            return new VerifyResult(Outcome.VERIFIED, 0);
+        }
+        entry.attempts++;
+        if (entry.attempts >= maxAttempts) {
+            clearOtp(userId, entry, now);
+            return new VerifyResult(Outcome.LOCKED, 0);
+        }
+        return new VerifyResult(Outcome.INVALID, maxAttempts - entry.attempts);
+    }
+
+    @Override
+    public synchronized void invalidate(String userId) {
+        long now = advance();
+        Entry entry = live(userId, now);
+        if (entry != null) {
+            clearOtp(userId, entry, now);
+        }
+    }
+
+    /**
+     * Number of users with an entry, expired or not yet swept
+     */
+    public synchronized int size() {
+        advance();
+        return entries.size();
+    }
+
+    /**
+     * Entries dropped because the store was full
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    private Entry live(String userId, long now) {
+        Entry entry = entries.get(userId);
+        if (entry != null && entry.deadline <= now) {
+            remove(userId, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    private void clearOtp(String userId, Entry entry, long now) {
+        entry.otp = null;
+        if (entry.windowEndsAt > now) {
+            schedule(userId, entry, entry.windowEndsAt);
+        } else {
+            remove(userId, entry);
+        }
+    }
+
+    private void schedule(String userId, Entry entry, long deadline) {
+        // Slot of the first tick at or after the deadline, so a swept slot holds nothing still live
+        int slot = (int) (Math.floorDiv(deadline + tickMs - 1, tickMs) % wheel.length);
+        if (entry.slot != slot) {
+            if (entry.slot >= 0) {
+                wheel[entry.slot].remove(userId);
+            }
+            wheel[slot].add(userId);
+            entry.slot = slot;
+        }
+        entry.deadline = deadline;
+    }
+
+    private void remove(String userId, Entry entry) {
+        entries.remove(userId);
+        if (entry.slot >= 0) {
+            wheel[entry.slot].remove(userId);
+        }
+    }
+
+    private long advance() {
+        long now = clock.getAsLong();
+        long tick = now / tickMs;
+        if (tick > currentTick) {
+            // Sweeping a full turn covers every slot, however long the store sat idle
+            long from = Math.max(currentTick + 1, tick - wheel.length + 1);
+            for (long t = from; t <= tick; t++) {
+                sweep(wheel[(int) (t % wheel.length)], now);
+            }
+            currentTick = tick;
+        }
+        return now;
+    }
+
+    private void sweep(Set<String> slot, long now) {
+        Iterator<String> it = slot.iterator();
+        while (it.hasNext()) {
+            String userId = it.next();
+            Entry entry = entries.get(userId);
+            if (entry == null) {
+                it.remove();
+            } else if (entry.deadline <= now) {
+                it.remove();
+                entries.remove(userId);
+            }
+        }
+    }
+
+    private void evictOne() {
+        for (int i = 1; i <= wheel.length; i++) {
+            Set<String> slot = wheel[(int) ((currentTick + i) % wheel.length)];
+            if (!slot.isEmpty()) {
+                String userId = slot.iterator().next();
+                remove(userId, entries.get(userId));
+                evictions++;
+                return;
+            }
+        }
+    }
+}
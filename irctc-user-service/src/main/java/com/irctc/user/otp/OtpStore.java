@@ -0,0 +1,54 @@
+package com.irctc.user.otp;
+
+import java.time.Duration;
+
+/**
+ * Storage for one-time passwords and their per-user request windows
+ *
+ * Each user has a single entry holding the outstanding OTP, its failed
+ * verification attempts and the OTP request counter of the current rate-limit
+ * window. Implementations make issue and verify atomic per user, so concurrent
+ * requests cannot exceed the limits.
+ *
+ * @author IRCTC Development Team
+ * @version 1.0.0
+ */
+public interface OtpStore {
+
+    /**
+     * Outcome of a verification
+     */
+    enum Outcome {
+        NOT_FOUND,
+        EXPIRED,
+        LOCKED,
+        VERIFIED,
+        INVALID
+    }
+
+    /**
+     * Verification outcome; remainingAttempts is only meaningful for INVALID
+     */
+    record VerifyResult(Outcome outcome, int remainingAttempts) {
+    }
+
+    /**
+     * Replace the user's OTP unless maxRequests OTPs were already issued in the
+     * current window. A new window of the given length starts with the first
+     * request after the previous one ended.
+     *
+     * @return false when the request limit is reached
+     */
+    boolean issue(String userId, String otp, Duration validity, int maxRequests, Duration window);
+
+    /**
+     * Check an OTP, counting a wrong one as a failed attempt. The OTP is removed
+     * once verified, expired or out of attempts.
+     */
+    VerifyResult verify(String userId, String otp, int maxAttempts);
+
+    /**
+     * Drop the user's outstanding OTP; the request window is kept
+     */
+    void invalidate(String userId);
+}
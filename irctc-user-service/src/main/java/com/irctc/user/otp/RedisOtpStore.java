@@ -0,0 +1,123 @@
+package com.irctc.user.otp;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Redis OTP store shared by all service instances
+ *
+ * One hash per user at otp:{userId} holds the OTP (otp, expires, attempts)
+ * and the request window (issued, window). The key expires with whichever of
+ * the OTP and the window ends last, so abandoned OTPs cost nothing once their
+ * window has passed. Issue and verify are Lua scripts, which makes the limit
+ * check and the attempt counter atomic across instances. Times are passed in
+ * by the caller as epoch milliseconds.
+ *
+ * @author IRCTC Development Team
+ * @version 1.0.0
+ */
+@Component
+@ConditionalOnProperty(name = "spring.data.redis.host")
+public class RedisOtpStore implements OtpStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisOtpStore.class);
+    private static final String KEY_PREFIX = "otp:";
+
+    // ARGV: otp, now, validityMs, maxRequests, windowMs
+    private static final String ISSUE_SCRIPT =
+        "local now = tonumber(ARGV[2]) " +
+        "local windowEnd = tonumber(redis.call('hget', KEYS[1], 'window') or '0') " +
+        "local issued = 0 " +
+        "if windowEnd > now then " +
+        "  issued = tonumber(redis.call('hget', KEYS[1], 'issued') or '0') " +
+        "  if issued >= tonumber(ARGV[4]) then return 0 end " +
+        "else " +
+        "  windowEnd = now + tonumber(ARGV[5]) " +
+        "end " +
+        "local expires = now + tonumber(ARGV[3]) " +
+        "redis.call('hset', KEYS[1], 'otp', ARGV[1], 'expires', expires, 'attempts', 0, " +
+        "  'issued', issued + 1, 'window', windowEnd) " +
+        "redis.call('pexpireat', KEYS[1], math.max(windowEnd, expires)) " +
+        "return 1";
+
+    // ARGV: otp, now, maxAttempts. Returns {outcome, remainingAttempts}
+    private static final String VERIFY_SCRIPT =
+        "local h = redis.call('hmget', KEYS[1], 'otp', 'expires', 'attempts') " +
+        "if not h[1] then return {0, 0} end " +
+        "local max = tonumber(ARGV[3]) " +
+        "if tonumber(h[2]) <= tonumber(ARGV[2]) then " +
+        "  redis.call('hdel', KEYS[1], 'otp', 'expires', 'attempts') return {1, 0} " +
+        "end " +
+        "local attempts = tonumber(h[3]) " +
+        "if attempts >= max then " +
+        "  redis.call('hdel', KEYS[1], 'otp', 'expires', 'attempts') return {2, 0} " +
+        "end " +
+        "if h[1] == ARGV[1] then " +
+        "  redis.call('hdel', KEYS[1], 'otp', 'expires', 'attempts') return {3, 0} " +
+        "end " +
+        "attempts = attempts + 1 " +
+        "if attempts >= max then " +
+        "  redis.call('hdel', KEYS[1], 'otp', 'expires', 'attempts') return {2, 0} " +
+        "end " +
+        "redis.call('hset', KEYS[1], 'attempts', attempts) " +
+        "return {4, max - attempts}";
+
+    @Autowired
+    private RedisTemplate<String, String> redisTemplate;
+
+    private DefaultRedisScript<Long> issueScript;
+    @SuppressWarnings("rawtypes")
+    private DefaultRedisScript<List> verifyScript;
+
+    @PostConstruct
+    public void init() {
+        issueScript = new DefaultRedisScript<>(ISSUE_SCRIPT, Long.class);
+        verifyScript = new DefaultRedisScript<>(VERIFY_SCRIPT, List.class);
+        logger.info("✅ Redis OTP store initialized");
+    }
+
+    @Override
+    public boolean issue(String userId, String otp, Duration validity, int maxRequests, Duration window) {
+        Long issued = redisTemplate.execute(issueScript, Collections.singletonList(KEY_PREFIX + userId),
+            otp,
+            String.valueOf(System.currentTimeMillis()),
+            String.valueOf(validity.toMillis()),
+            String.valueOf(maxRequests),
+            String.valueOf(window.toMillis()));
+        return issued != null && issued == 1L;
+    }
+
+    @Override
+    public VerifyResult verify(String userId, String otp, int maxAttempts) {
+        List<?> result = redisTemplate.execute(verifyScript, Collections.singletonList(KEY_PREFIX + userId),
+            otp,
+            String.valueOf(System.currentTimeMillis()),
+            String.valueOf(maxAttempts));
+        if (result == null || result.size() < 2) {
+            throw new IllegalStateException("Unexpected OTP verify result: " + result);
+        }
+        Outcome outcome = switch (((Number) result.get(0)).intValue()) {
+            case 0 -> Outcome.NOT_FOUND;
+            case 1 -> Outcome.EXPIRED;
+            case 2 -> Outcome.LOCKED;
+            case 3 -> Outcome.VERIFIED;
+            default -> Outcome.INVALID;
+        };
+        return new VerifyResult(outcome, ((Number) result.get(1)).intValue());
+    }
+
+    @Override
+    public void invalidate(String userId) {
+        redisTemplate.opsForHash().delete(KEY_PREFIX + userId, "otp", "expires", "attempts");
+    }
+}
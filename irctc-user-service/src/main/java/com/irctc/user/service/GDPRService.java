@@ -1,6 +1,5 @@
 package com.irctc.user.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.irctc.user.entity.DataExportRequest;
 import com.irctc.user.entity.SimpleUser;
 import com.irctc.user.entity.SocialAccount;
@@ -12,16 +11,18 @@ import com.irctc.user.tenant.TenantContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Service for GDPR compliance features
@@ -42,14 +43,16 @@ public class GDPRService {
     @Autowired
     private SocialAccountRepository socialAccountRepository;
     
+    @Autowired
+    private GdprExportWriter exportWriter;
+    
     @Autowired(required = false)
-    private RestTemplate restTemplate;
+    @Qualifier("gdprExportExecutor")
+    private Executor gdprExportExecutor;
     
     @Autowired(required = false)
     private KafkaTemplate<String, Object> kafkaTemplate;
     
-    private final ObjectMapper objectMapper = new ObjectMapper();
-    
     /**
      * Export all user data
      */
@@ -77,116 +80,71 @@ public class GDPRService {
         
         DataExportRequest savedRequest = exportRequestRepository.save(exportRequest);
         
-        // Process export asynchronously
-        processDataExportAsync(savedRequest, user);
+        // Process export in the background once the request row is committed
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submitDataExport(savedRequest, user);
+                }
+            });
+        } else {
+            submitDataExport(savedRequest, user);
+        }
         
         return savedRequest;
     }
     
     /**
-     * Process data export asynchronously
+     * Hand the export to the dedicated export executor
      */
-    @Async
-    public CompletableFuture<Void> processDataExportAsync(DataExportRequest exportRequest, SimpleUser user) {
+    private void submitDataExport(DataExportRequest exportRequest, SimpleUser user) {
+        if (gdprExportExecutor == null) {
+            processDataExport(exportRequest, user);
+            return;
+        }
+        try {
+            gdprExportExecutor.execute(() -> processDataExport(exportRequest, user));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Data export queue is full, rejecting requestId: {}", exportRequest.getRequestId());
+            exportRequest.setStatus("FAILED");
+            exportRequest.setErrorMessage("Too many data exports in progress, please try again later");
+            exportRequestRepository.save(exportRequest);
+        }
+    }
+    
+    /**
+     * Stream the user's data to the export file and record the outcome on the request
+     */
+    public void processDataExport(DataExportRequest exportRequest, SimpleUser user) {
         try {
             logger.info("Processing data export for user: {}, requestId: {}", 
                 user.getId(), exportRequest.getRequestId());
             
-            // Collect user data
-            Map<String, Object> userData = new HashMap<>();
-            
-            // User profile data
-            Map<String, Object> profile = new HashMap<>();
-            profile.put("id", user.getId());
-            profile.put("username", user.getUsername());
-            profile.put("email", user.getEmail());
-            profile.put("firstName", user.getFirstName());
-            profile.put("lastName", user.getLastName());
-            profile.put("phoneNumber", user.getPhoneNumber());
-            profile.put("roles", user.getRoles());
-            profile.put("createdAt", user.getCreatedAt() != null ? user.getCreatedAt().toString() : null);
-            profile.put("updatedAt", user.getUpdatedAt() != null ? user.getUpdatedAt().toString() : null);
-            userData.put("profile", profile);
-            
-            // Social accounts
-            List<SocialAccount> socialAccounts = socialAccountRepository.findByUserId(user.getId());
-            List<Map<String, Object>> socialAccountsData = new ArrayList<>();
-            for (SocialAccount account : socialAccounts) {
-                Map<String, Object> accountData = new HashMap<>();
-                accountData.put("provider", account.getProvider());
-                accountData.put("providerEmail", account.getProviderEmail());
-                accountData.put("providerName", account.getProviderName());
-                accountData.put("linkedAt", account.getLinkedAt() != null ? account.getLinkedAt().toString() : null);
-                accountData.put("lastUsedAt", account.getLastUsedAt() != null ? account.getLastUsedAt().toString() : null);
-                socialAccountsData.add(accountData);
-            }
-            userData.put("socialAccounts", socialAccountsData);
-            
-            // Fetch data from other services (simulated - in production, call actual services)
-            userData.put("bookings", fetchBookingsFromBookingService(user.getId()));
-            userData.put("payments", fetchPaymentsFromPaymentService(user.getId()));
-            userData.put("notifications", fetchNotificationsFromNotificationService(user.getId()));
+            Path exportFile = exportWriter.write(exportRequest, user);
             
-            // Convert to JSON
-            String jsonData = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(userData);
-            
-            // In production, save to file storage (S3, Azure Blob, etc.)
-            // For now, store in database or return as response
             exportRequest.setStatus("COMPLETED");
             exportRequest.setCompletedAt(LocalDateTime.now());
-            exportRequest.setDataCategories("PROFILE,SOCIAL_ACCOUNTS,BOOKINGS,PAYMENTS,NOTIFICATIONS");
-            // In production: exportRequest.setFileUrl("https://storage.example.com/exports/" + exportRequest.getRequestId() + ".json");
-            exportRequest.setFileUrl("/api/users/" + user.getId() + "/export-data/" + exportRequest.getRequestId());
-            
-            // Save updated request
-            if (exportRequestRepository != null) {
-                exportRequestRepository.save(exportRequest);
-            }
+            exportRequest.setCurrentCategory(null);
+            exportRequest.setDataCategories(GdprExportWriter.DATA_CATEGORIES);
+            exportRequest.setFilePath(exportFile.toString());
+            exportRequest.setFileUrl("/api/users/" + user.getId() + "/export-data/" + exportRequest.getRequestId() + "/download");
+            exportRequestRepository.save(exportRequest);
             
             // Publish export event
             publishDataExportEvent(exportRequest);
             
             logger.info("✅ Data export completed for user: {}, requestId: {}", 
                 user.getId(), exportRequest.getRequestId());
-            
-            return CompletableFuture.completedFuture(null);
         } catch (Exception e) {
             logger.error("Error processing data export for user {}: {}", 
                 user.getId(), e.getMessage(), e);
             exportRequest.setStatus("FAILED");
             exportRequest.setErrorMessage(e.getMessage());
             exportRequestRepository.save(exportRequest);
-            return CompletableFuture.failedFuture(e);
         }
     }
     
-    /**
-     * Fetch bookings from booking service (simulated)
-     */
-    private List<Map<String, Object>> fetchBookingsFromBookingService(Long userId) {
-        // In production, call booking service via Feign client
-        // For now, return empty list
-        return new ArrayList<>();
-    }
-    
-    /**
-     * Fetch payments from payment service (simulated)
-     */
-    private List<Map<String, Object>> fetchPaymentsFromPaymentService(Long userId) {
-        // In production, call payment service via Feign client
-        // For now, return empty list
-        return new ArrayList<>();
-    }
-    
-    /**
-     * Fetch notifications from notification service (simulated)
-     */
-    private List<Map<String, Object>> fetchNotificationsFromNotificationService(Long userId) {
-        // In production, call notification service via Feign client
-        // For now, return empty list
-        return new ArrayList<>();
-    }
-    
     /**
      * Delete all user data (Right to be forgotten)
      */
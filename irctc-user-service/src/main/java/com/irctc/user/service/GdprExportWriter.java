@@ -0,0 +1,202 @@
+package com.irctc.user.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.irctc.user.client.BookingServiceClient;
+import com.irctc.user.client.NotificationServiceClient;
+import com.irctc.user.client.PaymentServiceClient;
+import com.irctc.user.entity.DataExportRequest;
+import com.irctc.user.entity.SimpleUser;
+import com.irctc.user.entity.SocialAccount;
+import com.irctc.user.repository.DataExportRequestRepository;
+import com.irctc.user.repository.SocialAccountRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams a user's GDPR data export to a gzip-compressed JSON file
+ * 
+ * Each category is pulled page by page (keyset pagination on record ID) from
+ * the owning service and written straight to a {@link JsonGenerator}, so only
+ * one page is held in memory at a time. Progress is saved on the
+ * {@link DataExportRequest} after every page. The file is written under a
+ * temporary name and moved into place once complete.
+ * 
+ * Every source service resolves the user's records itself and filters by
+ * tenant in its query, so an empty page always means the category is done.
+ */
+@Component
+public class GdprExportWriter {
+    
+    private static final Logger logger = LoggerFactory.getLogger(GdprExportWriter.class);
+    
+    public static final String DATA_CATEGORIES = "PROFILE,SOCIAL_ACCOUNTS,BOOKINGS,PAYMENTS,NOTIFICATIONS";
+    
+    @Autowired
+    private SocialAccountRepository socialAccountRepository;
+    
+    @Autowired
+    private DataExportRequestRepository exportRequestRepository;
+    
+    @Autowired(required = false)
+    private BookingServiceClient bookingServiceClient;
+    
+    @Autowired(required = false)
+    private PaymentServiceClient paymentServiceClient;
+    
+    @Autowired(required = false)
+    private NotificationServiceClient notificationServiceClient;
+    
+    @Value("${gdpr.export.directory:${java.io.tmpdir}/irctc-gdpr-exports}")
+    private String exportDirectory;
+    
+    @Value("${gdpr.export.page-size:500}")
+    private int pageSize = 500;
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    /**
+     * Fetches the page of records after the last record of the previous page, or the first page when it is null
+     */
+    @FunctionalInterface
+    interface PageFetcher {
+        List<Map<String, Object>> fetch(Map<String, Object> last);
+    }
+    
+    /**
+     * Write the export file for a request and return its path
+     */
+    public Path write(DataExportRequest exportRequest, SimpleUser user) throws IOException {
+        Path directory = Paths.get(exportDirectory);
+        Files.createDirectories(directory);
+        Path target = directory.resolve(exportRequest.getRequestId() + ".json.gz");
+        Path partial = directory.resolve(exportRequest.getRequestId() + ".json.gz.part");
+        String tenantId = exportRequest.getTenantId();
+        
+        try (OutputStream out = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(partial)), 64 * 1024);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.useDefaultPrettyPrinter();
+            generator.writeStartObject();
+            generator.writeStringField("requestId", exportRequest.getRequestId());
+            generator.writeStringField("generatedAt", LocalDateTime.now().toString());
+            
+            reportProgress(exportRequest, "PROFILE", 0);
+            writeProfile(generator, user);
+            writeSocialAccounts(generator, exportRequest, user.getId());
+            
+            streamPages(generator, "bookings", exportRequest, "BOOKINGS", bookingServiceClient == null ? null :
+                last -> bookingServiceClient.exportBookings(tenantId, user.getId(), field(last, "id"), pageSize));
+            
+            streamPages(generator, "payments", exportRequest, "PAYMENTS", paymentServiceClient == null ? null :
+                last -> paymentServiceClient.exportPayments(tenantId, user.getId(),
+                    field(last, "bookingId"), field(last, "id"), pageSize));
+            
+            streamPages(generator, "notifications", exportRequest, "NOTIFICATIONS", notificationServiceClient == null ? null :
+                last -> notificationServiceClient.exportNotifications(tenantId, user.getId(), field(last, "id"), pageSize));
+            
+            generator.writeEndObject();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        
+        Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING);
+        exportRequest.setFileSizeBytes(Files.size(target));
+        logger.info("Wrote data export {} ({} records, {} bytes)",
+            exportRequest.getRequestId(), exportRequest.getRecordsExported(), exportRequest.getFileSizeBytes());
+        return target;
+    }
+    
+    private void writeProfile(JsonGenerator generator, SimpleUser user) throws IOException {
+        generator.writeObjectFieldStart("profile");
+        generator.writeNumberField("id", user.getId());
+        generator.writeStringField("username", user.getUsername());
+        generator.writeStringField("email", user.getEmail());
+        generator.writeStringField("firstName", user.getFirstName());
+        generator.writeStringField("lastName", user.getLastName());
+        generator.writeStringField("phoneNumber", user.getPhoneNumber());
+        generator.writeObjectField("roles", user.getRoles());
+        generator.writeStringField("createdAt", user.getCreatedAt() != null ? user.getCreatedAt().toString() : null);
+        generator.writeStringField("updatedAt", user.getUpdatedAt() != null ? user.getUpdatedAt().toString() : null);
+        generator.writeEndObject();
+    }
+    
+    private void writeSocialAccounts(JsonGenerator generator, DataExportRequest exportRequest, Long userId) throws IOException {
+        List<SocialAccount> socialAccounts = socialAccountRepository.findByUserId(userId);
+        generator.writeArrayFieldStart("socialAccounts");
+        for (SocialAccount account : socialAccounts) {
+            generator.writeStartObject();
+            generator.writeStringField("provider", account.getProvider());
+            generator.writeStringField("providerEmail", account.getProviderEmail());
+            generator.writeStringField("providerName", account.getProviderName());
+            generator.writeStringField("linkedAt", account.getLinkedAt() != null ? account.getLinkedAt().toString() : null);
+            generator.writeStringField("lastUsedAt", account.getLastUsedAt() != null ? account.getLastUsedAt().toString() : null);
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        reportProgress(exportRequest, "SOCIAL_ACCOUNTS", socialAccounts.size());
+    }
+    
+    /**
+     * Write one category as a JSON array; a null fetcher means the source service is not available
+     */
+    private void streamPages(JsonGenerator generator, String field, DataExportRequest exportRequest,
+                             String category, PageFetcher fetcher) throws IOException {
+        generator.writeArrayFieldStart(field);
+        if (fetcher != null) {
+            writePages(generator, exportRequest, category, fetcher);
+        }
+        generator.writeEndArray();
+    }
+    
+    private void writePages(JsonGenerator generator, DataExportRequest exportRequest, String category,
+                            PageFetcher fetcher) throws IOException {
+        Map<String, Object> last = null;
+        while (true) {
+            List<Map<String, Object>> page = fetcher.fetch(last);
+            if (page == null || page.isEmpty()) {
+                return;
+            }
+            for (Map<String, Object> record : page) {
+                generator.writeObject(record);
+            }
+            // Pages are in cursor order, so the last record is where the next page starts
+            Map<String, Object> pageLast = page.get(page.size() - 1);
+            if (last != null && field(pageLast, "id") == field(last, "id")) {
+                throw new IllegalStateException("Export of " + category + " did not advance past ID " + field(last, "id"));
+            }
+            last = pageLast;
+            reportProgress(exportRequest, category, page.size());
+        }
+    }
+    
+    /**
+     * Numeric cursor field of a record, 0 before the first page
+     */
+    private static long field(Map<String, Object> record, String name) {
+        Object value = record != null ? record.get(name) : null;
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+    
+    private void reportProgress(DataExportRequest exportRequest, String category, int written) {
+        exportRequest.setCurrentCategory(category);
+        long total = exportRequest.getRecordsExported() != null ? exportRequest.getRecordsExported() : 0L;
+        exportRequest.setRecordsExported(total + written);
+        exportRequestRepository.save(exportRequest);
+    }
+}
@@ -1,21 +1,23 @@
 package com.irctc.user.service;
 
+import com.irctc.user.otp.InMemoryOtpStore;
+import com.irctc.user.otp.OtpStore;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.security.SecureRandom;
-import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
+import java.time.Duration;
 
 /**
  * Two-Factor Authentication Service for IRCTC User Service
  * 
+ * OTPs, failed attempts and the per-user request limit live in the
+ * {@link OtpStore}: Redis when configured, otherwise a bounded in-memory store.
+ * 
  * @author IRCTC Development Team
  * @version 1.0.0
  */
@@ -28,33 +30,43 @@ public class TwoFactorAuthService {
     private static final int OTP_LENGTH = 6;
     private static final int OTP_VALIDITY_MINUTES = 5;
     private static final int MAX_OTP_ATTEMPTS = 3;
+    private static final int MAX_OTP_REQUESTS = 5;
+    private static final int OTP_REQUEST_WINDOW_MINUTES = 60;
+
+    private static final SecureRandom random = new SecureRandom();
+
+    @Autowired(required = false)
+    private OtpStore otpStore;
 
-    // Store OTPs temporarily (in production, use Redis or database)
-    private final Map<String, OtpData> otpStorage = new ConcurrentHashMap<>();
+    @Value("${otp.memory.max-entries:100000}")
+    private int memoryMaxEntries;
 
-    // Store failed attempts
-    private final Map<String, Integer> failedAttempts = new ConcurrentHashMap<>();
+    @Value("${otp.memory.tick-ms:1000}")
+    private long memoryTickMs;
+
+    @Value("${otp.memory.wheel-size:4096}")
+    private int memoryWheelSize;
+
+    @PostConstruct
+    public void init() {
+        if (otpStore == null) {
+            logger.warn("⚠️  Redis not configured, OTPs are kept in memory on this instance only");
+            otpStore = new InMemoryOtpStore(memoryMaxEntries, memoryTickMs, memoryWheelSize);
+        }
+    }
 
     /**
      * Generate and send OTP
      */
     public OtpResult generateOtp(String userId, String phoneNumber, String email) {
         try {
-            // Check if user has exceeded OTP generation limit
-            if (hasExceededOtpLimit(userId)) {
+            // Generate OTP and store it unless the user has exceeded the OTP generation limit
+            String otp = generateSecureOtp();
+            if (!otpStore.issue(userId, otp, Duration.ofMinutes(OTP_VALIDITY_MINUTES),
+                    MAX_OTP_REQUESTS, Duration.ofMinutes(OTP_REQUEST_WINDOW_MINUTES))) {
                 return new OtpResult(false, "Too many OTP requests. Please try again later.", null);
             }
 
-            // Generate OTP
-            String otp = generateSecureOtp();
-            LocalDateTime expiryTime = LocalDateTime.now().plusMinutes(OTP_VALIDITY_MINUTES);
-
-            // Store OTP data
-            OtpData otpData = new OtpData(otp, expiryTime, 0);
-            String cacheKey = "otp:" + userId;
-            otpStorage.put(cacheKey, otpData);
-            logger.info("Stored OTP with key: {} in in-memory storage", cacheKey);
-
             // Send OTP via SMS and Email (mock implementation)
             boolean smsSent = sendOtpViaSms(phoneNumber, otp);
             boolean emailSent = sendOtpViaEmail(email, otp);
@@ -77,47 +89,21 @@ public class TwoFactorAuthService {
      */
     public OtpResult verifyOtp(String userId, String inputOtp) {
         try {
-            String cacheKey = "otp:" + userId;
-            OtpData otpData = otpStorage.get(cacheKey);
-            logger.info("Looking for OTP with key: {}, found: {}", cacheKey, otpData != null ? "YES" : "NO");
-            logger.info("Available keys in storage: {}", otpStorage.keySet());
-
-            if (otpData == null) {
-                return new OtpResult(false, "OTP not found or expired", null);
-            }
-
-            // Check if OTP is expired
-            if (LocalDateTime.now().isAfter(otpData.getExpiryTime())) {
-                otpStorage.remove(cacheKey);
-                return new OtpResult(false, "OTP has expired", null);
-            }
-
-            // Check if too many attempts
-            if (otpData.getAttempts() >= MAX_OTP_ATTEMPTS) {
-                otpStorage.remove(cacheKey);
-                return new OtpResult(false, "Too many incorrect attempts. OTP invalidated.", null);
-            }
-
-            // Verify OTP
-            if (otpData.getOtp().equals(inputOtp)) {
-                // OTP is correct
-                otpStorage.remove(cacheKey);
-                clearFailedAttempts(userId);
-                logger.info("OTP verified successfully for user: {}", userId);
-                return new OtpResult(true, "OTP verified successfully", null);
-            } else {
-                // Increment attempts
-                otpData.incrementAttempts();
-                otpStorage.put(cacheKey, otpData);
-
-                int remainingAttempts = MAX_OTP_ATTEMPTS - otpData.getAttempts();
-                if (remainingAttempts <= 0) {
-                    otpStorage.remove(cacheKey);
+            OtpStore.VerifyResult result = otpStore.verify(userId, inputOtp, MAX_OTP_ATTEMPTS);
+
+            switch (result.outcome()) {
+                case VERIFIED:
+                    logger.info("OTP verified successfully for user: {}", userId);
+                    return new OtpResult(true, "OTP verified successfully", null);
+                case NOT_FOUND:
+                    return new OtpResult(false, "OTP not found or expired", null);
+                case EXPIRED:
+                    return new OtpResult(false, "OTP has expired", null);
+                case LOCKED:
                     return new OtpResult(false, "Too many incorrect attempts. OTP invalidated.", null);
-                }
-
-                return new OtpResult(false,
-                    String.format("Invalid OTP. %d attempts remaining.", remainingAttempts), null);
+                default:
+                    return new OtpResult(false,
+                        String.format("Invalid OTP. %d attempts remaining.", result.remainingAttempts()), null);
             }
 
         } catch (Exception e) {
@@ -132,8 +118,7 @@ public class TwoFactorAuthService {
     public OtpResult resendOtp(String userId, String phoneNumber, String email) {
         logger.info("Resending OTP for user: {}", userId);
         // Invalidate any existing OTP for the user
-        String cacheKey = "otp:" + userId;
-        otpStorage.remove(cacheKey);
+        otpStore.invalidate(userId);
         return generateOtp(userId, phoneNumber, email);
     }
 
@@ -141,7 +126,6 @@ public class TwoFactorAuthService {
      * Generate secure OTP
      */
     private String generateSecureOtp() {
-        SecureRandom random = new SecureRandom();
         StringBuilder otp = new StringBuilder(OTP_LENGTH);
         for (int i = 0; i < OTP_LENGTH; i++) {
             otp.append(random.nextInt(10)); // 0-9
@@ -172,63 +156,6 @@ public class TwoFactorAuthService {
         }
     }
 
-    /**
-     * Check if user has exceeded OTP generation limit
-     */
-    private boolean hasExceededOtpLimit(String userId) {
-        String limitKey = "otp:limit:" + userId;
-        Integer attempts = failedAttempts.get(limitKey);
-
-        if (attempts != null && attempts >= 5) { // Max 5 OTPs per hour
-            return true;
-        }
-
-        // Increment counter
-        int currentAttempts = (attempts != null ? attempts : 0) + 1;
-        failedAttempts.put(limitKey, currentAttempts);
-
-        return false;
-    }
-
-    /**
-     * Clear failed attempts for user
-     */
-    private void clearFailedAttempts(String userId) {
-        String attemptsKey = "failed:attempts:" + userId;
-        failedAttempts.remove(attemptsKey);
-    }
-
-    /**
-     * OTP Data class
-     */
-    public static class OtpData {
-        private String otp;
-        private LocalDateTime expiryTime;
-        private int attempts;
-
-        public OtpData(String otp, LocalDateTime expiryTime, int attempts) {
-            this.otp = otp;
-            this.expiryTime = expiryTime;
-            this.attempts = attempts;
-        }
-
-        public String getOtp() {
-            return otp;
-        }
-
-        public LocalDateTime getExpiryTime() {
-            return expiryTime;
-        }
-
-        public int getAttempts() {
-            return attempts;
-        }
-
-        public void incrementAttempts() {
-            this.attempts++;
-        }
-    }
-
     /**
      * OTP Result class
      */
@@ -0,0 +1,9 @@
+-- Progress tracking for streaming GDPR data exports
+ALTER TABLE data_export_requests
+    ADD COLUMN IF NOT EXISTS current_category VARCHAR(50);
+
+ALTER TABLE data_export_requests
+    ADD COLUMN IF NOT EXISTS records_exported BIGINT DEFAULT 0;
+
+ALTER TABLE data_export_requests
+    ADD COLUMN IF NOT EXISTS file_size_bytes BIGINT;
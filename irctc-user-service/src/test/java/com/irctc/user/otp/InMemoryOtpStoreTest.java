@@ -0,0 +1,144 @@
+package com.irctc.user.otp;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryOtpStoreTest {
+
+    private static final Duration VALIDITY = Duration.ofMinutes(5);
+    private static final Duration WINDOW = Duration.ofMinutes(60);
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+    private InMemoryOtpStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryOtpStore(1000, 1000, 512, now::get);
+    }
+
+    @Test
+    void testVerifyConsumesOtp() {
+        assertTrue(store.issue("u1", "123456", VALIDITY, 5, WINDOW));
+
+        assertEquals(OtpStore.Outcome.VERIFIED, store.verify("u1", "123456", 3).outcome());
+        assertEquals(OtpStore.Outcome.NOT_FOUND, store.verify("u1", "123456", 3).outcome());
+    }
+
+    @Test
+    void testWrongOtpCountsAttemptsUntilLocked() {
+        store.issue("u1", "123456", VALIDITY, 5, WINDOW);
+
+        OtpStore.VerifyResult first = store.verify("u1", "000000", 3);
+        assertEquals(OtpStore.Outcome.INVALID, first.outcome());
+        assertEquals(2, first.remainingAttempts());
+        assertEquals(1, store.verify("u1", "000000", 3).remainingAttempts());
+        assertEquals(OtpStore.Outcome.LOCKED, store.verify("u1", "000000", 3).outcome());
+        assertEquals(OtpStore.Outcome.NOT_FOUND, store.verify("u1", "123456", 3).outcome());
+    }
+
+    @Test
+    void testExpiredOtpIsReportedOnceThenGone() {
+        store.issue("u1", "123456", VALIDITY, 5, WINDOW);
+        now.addAndGet(VALIDITY.toMillis());
+
+        assertEquals(OtpStore.Outcome.EXPIRED, store.verify("u1", "123456", 3).outcome());
+        assertEquals(OtpStore.Outcome.NOT_FOUND, store.verify("u1", "123456", 3).outcome());
+    }
+
+    @Test
+    void testRequestLimitHoldsForWindowAndSurvivesInvalidate() {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(store.issue("u1", "11111" + i, VALIDITY, 5, WINDOW));
+        }
+        store.invalidate("u1");
+        assertFalse(store.issue("u1", "999999", VALIDITY, 5, WINDOW));
+        assertTrue(store.issue("u2", "999999", VALIDITY, 5, WINDOW));
+
+        now.addAndGet(WINDOW.toMillis());
+        assertTrue(store.issue("u1", "222222", VALIDITY, 5, WINDOW));
+        assertEquals(OtpStore.Outcome.VERIFIED, store.verify("u1", "222222", 3).outcome());
+    }
+
+    @Test
+    void testNewOtpReplacesOldOneAndResetsAttempts() {
+        store.issue("u1", "123456", VALIDITY, 5, WINDOW);
+        store.verify("u1", "000000", 3);
+        store.verify("u1", "000000", 3);
+        store.issue("u1", "654321", VALIDITY, 5, WINDOW);
+
+        assertEquals(2, store.verify("u1", "123456", 3).remainingAttempts());
+        assertEquals(OtpStore.Outcome.VERIFIED, store.verify("u1", "654321", 3).outcome());
+    }
+
+    @Test
+    void testEntriesAreSweptOnceWindowEnds() {
+        for (int i = 0; i < 100; i++) {
+            store.issue("user-" + i, "123456", VALIDITY, 5, WINDOW);
+        }
+        assertEquals(100, store.size());
+
+        // Longer than one turn of the wheel (512s): entries survive until their deadline
+        now.addAndGet(WINDOW.toMillis() - 1);
+        assertEquals(100, store.size());
+        now.addAndGet(1000);
+        assertEquals(0, store.size());
+        assertEquals(0, store.getEvictions());
+    }
+
+    @Test
+    void testMillionAbandonedOtpsKeepMemoryFlat() {
+        // One abandoned OTP every millisecond with a 30s validity and 60s window:
+        // at most ~60k users are live at any time however many OTPs are issued
+        InMemoryOtpStore loaded = new InMemoryOtpStore(100_000, 100, 1024, now::get);
+        Duration validity = Duration.ofSeconds(30);
+        Duration window = Duration.ofSeconds(60);
+        long liveBound = window.toMillis() + 100;
+
+        long heapAtWarmup = 0;
+        int maxSize = 0;
+        for (int i = 0; i < 1_000_000; i++) {
+            loaded.issue("user-" + i, "123456", validity, 5, window);
+            now.incrementAndGet();
+            if (i % 10_000 == 0) {
+                maxSize = Math.max(maxSize, loaded.size());
+            }
+            if (i == 200_000) {
+                heapAtWarmup = usedHeapAfterGc();
+            }
+        }
+        long heapAtEnd = usedHeapAfterGc();
+
+        assertTrue(maxSize <= liveBound, "live entries " + maxSize);
+        assertTrue(loaded.size() <= liveBound);
+        assertEquals(0, loaded.getEvictions());
+        assertTrue(heapAtEnd - heapAtWarmup < 32L * 1024 * 1024,
+            "heap grew by " + (heapAtEnd - heapAtWarmup) + " bytes");
+    }
+
+    @Test
+    void testMillionAbandonedOtpsAreCappedAtMaxEntries() {
+        // Clock frozen, so nothing expires and the cap alone bounds the store
+        for (int i = 0; i < 1_000_000; i++) {
+            store.issue("user-" + i, "123456", VALIDITY, 5, WINDOW);
+        }
+
+        assertEquals(1000, store.size());
+        assertEquals(999_000, store.getEvictions());
+        assertEquals(OtpStore.Outcome.VERIFIED, store.verify("user-999999", "123456", 3).outcome());
+    }
+
+    private static long usedHeapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -14,6 +14,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -38,6 +39,9 @@ class GDPRServiceTest {
     @Mock
     private org.springframework.kafka.core.KafkaTemplate<String, Object> kafkaTemplate;
     
+    @Mock
+    private GdprExportWriter exportWriter;
+    
     @InjectMocks
     private GDPRService gdprService;
     
@@ -56,7 +60,7 @@ class GDPRServiceTest {
     }
     
     @Test
-    void testExportUserData() {
+    void testExportUserData() throws Exception {
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
         when(exportRequestRepository.save(any(DataExportRequest.class)))
             .thenAnswer(invocation -> {
@@ -69,8 +73,8 @@ class GDPRServiceTest {
                 }
                 return request;
             });
-        when(socialAccountRepository.findByUserId(1L))
-            .thenReturn(new ArrayList<>());
+        when(exportWriter.write(any(DataExportRequest.class), eq(user)))
+            .thenReturn(Path.of("/tmp/exports/EXPORT_1.json.gz"));
         
         DataExportRequest result = gdprService.exportUserData(1L);
         
@@ -83,6 +87,23 @@ class GDPRServiceTest {
         assertNotNull(result.getRequestId(), "RequestId should not be null");
         // Verify initial save was called
         verify(exportRequestRepository, atLeastOnce()).save(any(DataExportRequest.class));
+        // Without a transaction or export executor the export runs inline
+        assertEquals("COMPLETED", result.getStatus());
+        assertEquals("/tmp/exports/EXPORT_1.json.gz", result.getFilePath());
+    }
+    
+    @Test
+    void testExportUserData_WriterFailureMarksRequestFailed() throws Exception {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(exportRequestRepository.save(any(DataExportRequest.class)))
+            .thenAnswer(invocation -> invocation.getArgument(0));
+        when(exportWriter.write(any(DataExportRequest.class), eq(user)))
+            .thenThrow(new java.io.IOException("disk full"));
+        
+        DataExportRequest result = gdprService.exportUserData(1L);
+        
+        assertEquals("FAILED", result.getStatus());
+        assertEquals("disk full", result.getErrorMessage());
     }
     
     @Test
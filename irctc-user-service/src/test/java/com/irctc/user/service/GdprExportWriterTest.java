@@ -0,0 +1,133 @@
+package com.irctc.user.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.irctc.user.client.BookingServiceClient;
+import com.irctc.user.client.NotificationServiceClient;
+import com.irctc.user.client.PaymentServiceClient;
+import com.irctc.user.entity.DataExportRequest;
+import com.irctc.user.entity.SimpleUser;
+import com.irctc.user.repository.DataExportRequestRepository;
+import com.irctc.user.repository.SocialAccountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GdprExportWriterTest {
+    
+    @Mock
+    private SocialAccountRepository socialAccountRepository;
+    
+    @Mock
+    private DataExportRequestRepository exportRequestRepository;
+    
+    @Mock
+    private BookingServiceClient bookingServiceClient;
+    
+    @Mock
+    private PaymentServiceClient paymentServiceClient;
+    
+    @Mock
+    private NotificationServiceClient notificationServiceClient;
+    
+    @InjectMocks
+    private GdprExportWriter exportWriter;
+    
+    @TempDir
+    Path exportDir;
+    
+    private SimpleUser user;
+    private DataExportRequest exportRequest;
+    
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(exportWriter, "exportDirectory", exportDir.toString());
+        ReflectionTestUtils.setField(exportWriter, "pageSize", 2);
+        
+        user = new SimpleUser();
+        user.setId(7L);
+        user.setUsername("traveller");
+        user.setEmail("traveller@example.com");
+        
+        exportRequest = new DataExportRequest();
+        exportRequest.setId(1L);
+        exportRequest.setUserId(7L);
+        exportRequest.setRequestId("EXPORT_1_7");
+        exportRequest.setTenantId("tenant-a");
+    }
+    
+    @Test
+    void testWritesAllCategoriesPageByPage() throws Exception {
+        when(socialAccountRepository.findByUserId(7L)).thenReturn(List.of());
+        when(bookingServiceClient.exportBookings("tenant-a", 7L, 0L, 2))
+            .thenReturn(List.of(record(10), record(11)));
+        when(bookingServiceClient.exportBookings("tenant-a", 7L, 11L, 2))
+            .thenReturn(List.of(record(15)));
+        when(bookingServiceClient.exportBookings("tenant-a", 7L, 15L, 2))
+            .thenReturn(List.of());
+        // Payments are paged by (bookingId, id), so IDs need not rise across bookings
+        when(paymentServiceClient.exportPayments("tenant-a", 7L, 0L, 0L, 2))
+            .thenReturn(List.of(payment(100, 10), payment(90, 11)));
+        when(paymentServiceClient.exportPayments("tenant-a", 7L, 11L, 90L, 2))
+            .thenReturn(List.of(payment(95, 15)));
+        when(paymentServiceClient.exportPayments("tenant-a", 7L, 15L, 95L, 2))
+            .thenReturn(List.of());
+        when(notificationServiceClient.exportNotifications("tenant-a", 7L, 0L, 2))
+            .thenReturn(List.of());
+        
+        Path file = exportWriter.write(exportRequest, user);
+        
+        assertEquals(exportDir.resolve("EXPORT_1_7.json.gz"), file);
+        assertFalse(Files.exists(exportDir.resolve("EXPORT_1_7.json.gz.part")));
+        JsonNode export;
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            export = new ObjectMapper().readTree(in);
+        }
+        assertEquals("traveller", export.get("profile").get("username").asText());
+        assertEquals(3, export.get("bookings").size());
+        assertEquals(15, export.get("bookings").get(2).get("id").asLong());
+        assertEquals(3, export.get("payments").size());
+        assertEquals(0, export.get("notifications").size());
+        
+        assertEquals(6L, exportRequest.getRecordsExported());
+        assertEquals(Files.size(file), exportRequest.getFileSizeBytes());
+        verify(exportRequestRepository, atLeast(4)).save(exportRequest);
+    }
+    
+    @Test
+    void testFailedSourceLeavesNoFile() {
+        when(socialAccountRepository.findByUserId(7L)).thenReturn(List.of());
+        when(bookingServiceClient.exportBookings(any(), anyLong(), anyLong(), anyInt()))
+            .thenThrow(new IllegalStateException("booking service unavailable"));
+        
+        assertThrows(IllegalStateException.class, () -> exportWriter.write(exportRequest, user));
+        
+        assertFalse(Files.exists(exportDir.resolve("EXPORT_1_7.json.gz")));
+        assertFalse(Files.exists(exportDir.resolve("EXPORT_1_7.json.gz.part")));
+    }
+    
+    private Map<String, Object> record(long id) {
+        return Map.of("id", id, "status", "CONFIRMED");
+    }
+    
+    private Map<String, Object> payment(long id, long bookingId) {
+        return Map.of("id", id, "bookingId", bookingId, "status", "SUCCESS");
+    }
+}
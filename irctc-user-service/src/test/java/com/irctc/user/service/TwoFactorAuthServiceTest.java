@@ -0,0 +1,85 @@
+package com.irctc.user.service;
+
+import com.irctc.user.otp.OtpStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TwoFactorAuthServiceTest {
+
+    @Mock
+    private OtpStore otpStore;
+
+    @InjectMocks
+    private TwoFactorAuthService twoFactorAuthService;
+
+    @Test
+    void testGenerateOtpIssuesSixDigitOtpWithLimits() {
+        when(otpStore.issue(eq("u1"), anyString(), any(), anyInt(), any())).thenReturn(true);
+
+        TwoFactorAuthService.OtpResult result = twoFactorAuthService.generateOtp("u1", "9999999999", "a@b.com");
+
+        ArgumentCaptor<String> otp = ArgumentCaptor.forClass(String.class);
+        verify(otpStore).issue(eq("u1"), otp.capture(), eq(Duration.ofMinutes(5)), eq(5), eq(Duration.ofMinutes(60)));
+        assertTrue(result.isSuccess());
+        assertTrue(otp.getValue().matches("\\d{6}"));
+    }
+
+    @Test
+    void testGenerateOtpRejectedWhenLimitReached() {
+        when(otpStore.issue(anyString(), anyString(), any(), anyInt(), any())).thenReturn(false);
+
+        TwoFactorAuthService.OtpResult result = twoFactorAuthService.generateOtp("u1", "9999999999", "a@b.com");
+
+        assertFalse(result.isSuccess());
+        assertEquals("Too many OTP requests. Please try again later.", result.getMessage());
+    }
+
+    @Test
+    void testVerifyOtpMapsStoreOutcomes() {
+        assertVerifyMessage(OtpStore.Outcome.VERIFIED, 0, "OTP verified successfully");
+        assertVerifyMessage(OtpStore.Outcome.NOT_FOUND, 0, "OTP not found or expired");
+        assertVerifyMessage(OtpStore.Outcome.EXPIRED, 0, "OTP has expired");
+        assertVerifyMessage(OtpStore.Outcome.LOCKED, 0, "Too many incorrect attempts. OTP invalidated.");
+        assertVerifyMessage(OtpStore.Outcome.INVALID, 2, "Invalid OTP. 2 attempts remaining.");
+    }
+
+    @Test
+    void testVerifyOtpReportsStoreFailure() {
+        when(otpStore.verify("u1", "123456", 3)).thenThrow(new IllegalStateException("redis down"));
+
+        TwoFactorAuthService.OtpResult result = twoFactorAuthService.verifyOtp("u1", "123456");
+
+        assertFalse(result.isSuccess());
+        assertEquals("Failed to verify OTP", result.getMessage());
+    }
+
+    @Test
+    void testResendOtpInvalidatesPreviousOtp() {
+        when(otpStore.issue(anyString(), anyString(), any(), anyInt(), any())).thenReturn(true);
+
+        twoFactorAuthService.resendOtp("u1", "9999999999", "a@b.com");
+
+        verify(otpStore).invalidate("u1");
+        verify(otpStore).issue(eq("u1"), anyString(), any(), anyInt(), any());
+    }
+
+    private void assertVerifyMessage(OtpStore.Outcome outcome, int remaining, String message) {
+        when(otpStore.verify("u1", "123456", 3)).thenReturn(new OtpStore.VerifyResult(outcome, remaining));
+
+        TwoFactorAuthService.OtpResult result = twoFactorAuthService.verifyOtp("u1", "123456");
+
+        assertEquals(outcome == OtpStore.Outcome.VERIFIED, result.isSuccess());
+        assertEquals(message, result.getMessage());
+    }
+}
@@ -1,11 +1,13 @@
 package com.irctc_backend.irctc.config;
 
 import com.irctc_backend.irctc.entity.*;
+import com.irctc_backend.irctc.events.FareRulesChangedEvent;
 import com.irctc_backend.irctc.repository.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
@@ -74,6 +76,9 @@ public class SimpleDataInitializer implements CommandLineRunner {
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     @Override
     public void run(String... args) throws Exception {
         logger.info("🚀 Initializing simple dummy data for testing...");
@@ -331,6 +336,7 @@ public class SimpleDataInitializer implements CommandLineRunner {
         }
         
         fareRuleRepository.saveAll(fareRules);
+        eventPublisher.publishEvent(new FareRulesChangedEvent("sample fare rules created"));
         logger.info("💰 Created {} fare rules", fareRules.size());
     }
     
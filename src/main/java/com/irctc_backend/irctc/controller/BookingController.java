@@ -155,6 +155,18 @@ public class BookingController {
         return ResponseEntity.ok(bookings);
     }
     
+    @GetMapping("/search/transaction")
+    public ResponseEntity<List<Booking>> searchBookingsByTransactionId(@RequestParam String transactionId) {
+        List<Booking> bookings = bookingService.searchBookingsByTransactionId(transactionId);
+        return ResponseEntity.ok(bookings);
+    }
+    
+    @GetMapping("/search/mobile")
+    public ResponseEntity<List<Booking>> searchBookingsByMobile(@RequestParam String mobile) {
+        List<Booking> bookings = bookingService.searchBookingsByMobile(mobile);
+        return ResponseEntity.ok(bookings);
+    }
+    
     @PutMapping("/{id}/status")
     public ResponseEntity<?> updateBookingStatus(@PathVariable Long id, @RequestParam Booking.BookingStatus status) {
         try {
@@ -20,6 +20,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -93,6 +94,32 @@ public class FareCalculationController {
         }
     }
     
+    /**
+     * Calculate fares for a page of search results in one call
+     */
+    @PostMapping("/calculate/batch")
+    @Operation(
+        summary = "Calculate fares in batch",
+        description = "Price every row of a search page in one call; rows that cannot be priced are returned as null"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Fares calculated successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid request parameters")
+    })
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<List<FareCalculationResponse>> calculateFares(
+            @Valid @RequestBody List<@Valid FareCalculationRequest> requests) {
+        
+        logger.info("Calculating fares for {} search results", requests.size());
+        
+        try {
+            return ResponseEntity.ok(fareCalculationService.calculateFares(requests));
+        } catch (Exception e) {
+            logger.error("Error calculating fares: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+        }
+    }
+    
     /**
      * Get fare estimate for a quick calculation
      */
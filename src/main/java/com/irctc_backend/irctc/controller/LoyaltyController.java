@@ -21,6 +21,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -278,14 +279,21 @@ public class LoyaltyController {
         logger.info("Processing expired points");
         
         try {
-            loyaltyService.processExpiredPoints();
+            BigDecimal expiredPoints = loyaltyService.processExpiredPoints();
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("message", "Expired points processed successfully");
+            response.put("expiredPoints", expiredPoints);
             response.put("timestamp", System.currentTimeMillis());
             
             return ResponseEntity.ok(response);
+        } catch (IllegalStateException e) {
+            // Another instance or the nightly job is expiring points right now
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
         } catch (Exception e) {
             logger.error("Error processing expired points: {}", e.getMessage(), e);
             Map<String, Object> errorResponse = new HashMap<>();
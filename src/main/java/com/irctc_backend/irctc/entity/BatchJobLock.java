@@ -0,0 +1,37 @@
+package com.irctc_backend.irctc.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Status row that lets one instance at a time run a batch job.
+ *
+ * A run takes the row by moving locked_until into the future and gives it
+ * back when it finishes. A run that dies keeps the row only until
+ * locked_until passes, after which the next run takes it over.
+ *
+ * @author IRCTC Development Team
+ * @version 1.0.0
+ */
+@Entity
+@Table(name = "batch_job_locks")
+@Data
+@NoArgsConstructor
+public class BatchJobLock {
+
+    @Id
+    @Column(name = "job_name", length = 100)
+    private String jobName;
+
+    @Column(name = "locked_by", length = 100)
+    private String lockedBy;
+
+    @Column(name = "locked_at")
+    private LocalDateTime lockedAt;
+
+    @Column(name = "locked_until", nullable = false)
+    private LocalDateTime lockedUntil;
+}
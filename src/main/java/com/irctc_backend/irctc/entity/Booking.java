@@ -1,6 +1,7 @@
 package com.irctc_backend.irctc.entity;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -19,6 +20,7 @@ import java.util.List;
     name = "bookings",
     indexes = {
         @Index(name = "idx_bookings_pnr", columnList = "pnr_number"),
+        @Index(name = "idx_bookings_pnr_search_key", columnList = "pnr_search_key"),
         @Index(name = "idx_bookings_user", columnList = "user_id"),
         @Index(name = "idx_bookings_train", columnList = "train_id"),
         @Index(name = "idx_bookings_journey_date", columnList = "journey_date"),
@@ -38,6 +40,11 @@ public class Booking {
     @Column(name = "pnr_number", unique = true, nullable = false)
     private String pnrNumber;
     
+    // Normalised PNR (trimmed, upper case) backing index-friendly "starts with" lookups
+    @JsonIgnore
+    @Column(name = "pnr_search_key", length = 32)
+    private String pnrSearchKey;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     @JsonBackReference("user-bookings")
@@ -123,6 +130,16 @@ public class Booking {
     @JsonManagedReference("booking-payments")
     private List<Payment> payments;
     
+    @PrePersist
+    @PreUpdate
+    protected void updatePnrSearchKey() {
+        pnrSearchKey = normalizeSearchKey(pnrNumber);
+    }
+    
+    public static String normalizeSearchKey(String value) {
+        return value == null ? null : value.replaceAll("\\s+", "").toUpperCase();
+    }
+    
     public enum BookingStatus {
         CONFIRMED, WAITLIST, RAC, CANCELLED, COMPLETED
     }
@@ -0,0 +1,47 @@
+package com.irctc_backend.irctc.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marks one train as finished within a chart preparation run.
+ *
+ * Written in the same transaction as the train's confirmations, so a train has
+ * a checkpoint if and only if its work committed.
+ *
+ * @author IRCTC Development Team
+ * @version 1.0.0
+ */
+@Entity
+@Table(name = "chart_preparation_checkpoints", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_chart_checkpoint_run_train", columnNames = {"run_id", "train_id"})
+})
+@Data
+@NoArgsConstructor
+public class ChartPreparationCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "run_id", nullable = false)
+    private Long runId;
+
+    @Column(name = "train_id", nullable = false)
+    private Long trainId;
+
+    @Column(name = "train_number", length = 20)
+    private String trainNumber;
+
+    @Column(name = "confirmations", nullable = false)
+    private Integer confirmations = 0;
+
+    @Column(name = "processing_time_ms")
+    private Long processingTimeMs;
+
+    @Column(name = "completed_at", nullable = false)
+    private LocalDateTime completedAt;
+}
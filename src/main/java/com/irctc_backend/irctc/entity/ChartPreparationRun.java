@@ -0,0 +1,81 @@
+package com.irctc_backend.irctc.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One run of the ticket confirmation / chart preparation batch.
+ *
+ * The run keeps the train selection it was started with, so a run interrupted
+ * by a crash can be picked up again with the same trains and journey dates.
+ *
+ * @author IRCTC Development Team
+ * @version 1.0.0
+ */
+@Entity
+@Table(name = "chart_preparation_runs", indexes = {
+    @Index(name = "idx_chart_run_type_status", columnList = "run_type,status")
+})
+@Data
+@NoArgsConstructor
+public class ChartPreparationRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "run_type", nullable = false, length = 20)
+    private RunType runType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private RunStatus status = RunStatus.RUNNING;
+
+    @Column(name = "request_id", length = 100)
+    private String requestId;
+
+    @Column(name = "journey_date_from", nullable = false)
+    private LocalDate journeyDateFrom;
+
+    @Column(name = "journey_date_to", nullable = false)
+    private LocalDate journeyDateTo;
+
+    // Departure window for CHART runs, null for ROLLING runs
+    @Column(name = "departure_from")
+    private LocalDateTime departureFrom;
+
+    @Column(name = "departure_until")
+    private LocalDateTime departureUntil;
+
+    @Column(name = "total_trains")
+    private Integer totalTrains = 0;
+
+    @Column(name = "completed_trains")
+    private Integer completedTrains = 0;
+
+    @Column(name = "failed_trains")
+    private Integer failedTrains = 0;
+
+    @Column(name = "total_confirmations")
+    private Integer totalConfirmations = 0;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    public enum RunType {
+        ROLLING,    // Every active train, next few journey dates
+        CHART       // Trains departing within the next few hours
+    }
+
+    public enum RunStatus {
+        RUNNING, COMPLETED, ABANDONED
+    }
+}
@@ -13,7 +13,9 @@ import java.time.LocalDateTime;
  * @version 1.0.0
  */
 @Entity
-@Table(name = "loyalty_transactions")
+@Table(name = "loyalty_transactions", indexes = {
+    @Index(name = "idx_loyalty_txn_expiry", columnList = "loyalty_account_id, is_expired, expiry_date")
+})
 public class LoyaltyTransaction {
     
     @Id
@@ -0,0 +1,31 @@
+package com.irctc_backend.irctc.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Published by BookingService when a booking's searchable keys may have changed
+ * (PNR on create, transaction ID once a payment exists), and by UserService when
+ * a user's mobile number changes, which re-keys all of that user's bookings.
+ * Keeps the booking search index current without re-reading the whole table.
+ */
+@Data
+@AllArgsConstructor
+public class BookingIndexEvent {
+
+    private Long bookingId;
+    private Long userId;
+    private Type type;
+
+    public BookingIndexEvent(Long bookingId, Type type) {
+        this(bookingId, null, type);
+    }
+
+    public static BookingIndexEvent userUpdated(Long userId) {
+        return new BookingIndexEvent(null, userId, Type.USER_UPDATED);
+    }
+
+    public enum Type {
+        CREATED, CANCELLED, PAYMENT_UPDATED, USER_UPDATED
+    }
+}
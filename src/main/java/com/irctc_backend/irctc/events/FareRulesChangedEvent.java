@@ -0,0 +1,15 @@
+package com.irctc_backend.irctc.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Published after fare rules are created, changed or deactivated. The fare rule
+ * engine rebuilds its in-memory table once the publishing transaction commits.
+ */
+@Data
+@AllArgsConstructor
+public class FareRulesChangedEvent {
+
+    private String reason;
+}
@@ -0,0 +1,20 @@
+package com.irctc_backend.irctc.events;
+
+import com.irctc_backend.irctc.entity.Coach;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * Published when a cancellation frees a seat. The waitlist allocation engine
+ * queues the (train, date, class) for its next promotion batch.
+ */
+@Data
+@AllArgsConstructor
+public class SeatReleasedEvent {
+
+    private Long trainId;
+    private Coach.CoachType coachType;
+    private LocalDate journeyDate;
+}
@@ -0,0 +1,34 @@
+package com.irctc_backend.irctc.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Written to the outbox when the confirmation batch finishes a train, in the
+ * same transaction as the train's confirmations.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrainChartPreparedEvent {
+
+    public static final String TOPIC = "chart-preparation-events";
+
+    private Long runId;
+    private String runType;
+    private Long trainId;
+    private String trainNumber;
+    private LocalTime departureTime;
+    private LocalDate journeyDateFrom;
+    private LocalDate journeyDateTo;
+    private Integer confirmations;
+    private Long processingTimeMs;
+    private LocalDateTime completedAt;
+}
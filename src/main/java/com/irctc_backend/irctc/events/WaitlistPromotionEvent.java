@@ -0,0 +1,40 @@
+package com.irctc_backend.irctc.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Written to the outbox for every waitlist or RAC promotion, so passengers are
+ * told exactly once per promotion that actually committed.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitlistPromotionEvent {
+
+    public static final String TOPIC = "waitlist-promotion-events";
+
+    private String batchId;
+    private Long userId;
+    private Long trainId;
+    private String trainNumber;
+    private LocalDate journeyDate;
+    private String coachType;
+    private String coachNumber;
+    private String seatNumber;
+
+    // WAITLIST_TO_RAC, RAC_TO_CONFIRMED or WAITLIST_TO_CONFIRMED
+    private String promotion;
+    private Long waitlistEntryId;
+    private Long racEntryId;
+    private Integer waitlistNumber;
+    private Integer racNumber;
+    private String quotaType;
+    private LocalDateTime promotedAt;
+}
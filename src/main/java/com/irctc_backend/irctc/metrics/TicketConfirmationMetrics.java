@@ -1,8 +1,10 @@
 package com.irctc_backend.irctc.metrics;
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -25,6 +27,8 @@ public class TicketConfirmationMetrics {
     private final Counter batchProcessingErrors;
     private final Counter kafkaEventsPublished;
     private final Counter kafkaEventsFailed;
+    private final Counter trainsProcessed;
+    private final Counter trainsFailed;
     
     // Timers for tracking performance
     private final Timer batchProcessingTime;
@@ -36,6 +40,9 @@ public class TicketConfirmationMetrics {
     private final AtomicLong pendingConfirmations;
     private final AtomicLong totalConfirmationsToday;
     
+    // Trains per second of the last completed run
+    private volatile double lastRunThroughput;
+    
     public TicketConfirmationMetrics(MeterRegistry meterRegistry) {
         
         // Initialize counters
@@ -66,6 +73,14 @@ public class TicketConfirmationMetrics {
         this.kafkaEventsFailed = Counter.builder("ticket.kafka.events.failed")
             .description("Number of Kafka events failed")
             .register(meterRegistry);
+            
+        this.trainsProcessed = Counter.builder("ticket.batch.trains.processed")
+            .description("Number of trains finished by the batch")
+            .register(meterRegistry);
+            
+        this.trainsFailed = Counter.builder("ticket.batch.trains.failed")
+            .description("Number of trains whose batch transaction rolled back")
+            .register(meterRegistry);
         
         // Initialize timers
         this.batchProcessingTime = Timer.builder("ticket.batch.processing.time")
@@ -74,6 +89,7 @@ public class TicketConfirmationMetrics {
             
         this.trainProcessingTime = Timer.builder("ticket.train.processing.time")
             .description("Time taken to process a train")
+            .publishPercentiles(0.5, 0.95, 0.99)
             .register(meterRegistry);
             
         this.coachProcessingTime = Timer.builder("ticket.coach.processing.time")
@@ -84,6 +100,10 @@ public class TicketConfirmationMetrics {
         this.activeBatchJobs = meterRegistry.gauge("ticket.batch.active.jobs", new AtomicLong(0));
         this.pendingConfirmations = meterRegistry.gauge("ticket.confirmations.pending", new AtomicLong(0));
         this.totalConfirmationsToday = meterRegistry.gauge("ticket.confirmations.today", new AtomicLong(0));
+        Gauge.builder("ticket.batch.throughput", this, metrics -> metrics.lastRunThroughput)
+            .description("Trains per second processed by the last batch run")
+            .baseUnit("trains/s")
+            .register(meterRegistry);
     }
     
     /**
@@ -150,6 +170,28 @@ public class TicketConfirmationMetrics {
         coachProcessingTime.record(duration);
     }
     
+    /**
+     * Record a train finished by the batch
+     */
+    public void recordTrainProcessed() {
+        trainsProcessed.increment();
+    }
+    
+    /**
+     * Record a train whose batch transaction failed
+     */
+    public void recordTrainFailed() {
+        trainsFailed.increment();
+    }
+    
+    /**
+     * Record the throughput of a finished batch run
+     */
+    public void recordRunThroughput(int trains, Duration duration) {
+        long millis = Math.max(1, duration.toMillis());
+        lastRunThroughput = trains * 1000.0 / millis;
+    }
+    
     /**
      * Set active batch jobs count
      */
@@ -193,6 +235,10 @@ public class TicketConfirmationMetrics {
             .averageBatchProcessingTime(batchProcessingTime.mean(java.util.concurrent.TimeUnit.MILLISECONDS))
             .averageTrainProcessingTime(trainProcessingTime.mean(java.util.concurrent.TimeUnit.MILLISECONDS))
             .averageCoachProcessingTime(coachProcessingTime.mean(java.util.concurrent.TimeUnit.MILLISECONDS))
+            .p95TrainProcessingTime(trainPercentile(0.95))
+            .trainsProcessed(trainsProcessed.count())
+            .trainsFailed(trainsFailed.count())
+            .lastRunThroughput(lastRunThroughput)
             .activeBatchJobs(activeBatchJobs.get())
             .pendingConfirmations(pendingConfirmations.get())
             .totalConfirmationsToday(totalConfirmationsToday.get())
@@ -200,6 +246,15 @@ public class TicketConfirmationMetrics {
             .build();
     }
     
+    private double trainPercentile(double percentile) {
+        for (ValueAtPercentile value : trainProcessingTime.takeSnapshot().percentileValues()) {
+            if (value.percentile() == percentile) {
+                return value.value(java.util.concurrent.TimeUnit.MILLISECONDS);
+            }
+        }
+        return 0.0;
+    }
+    
     /**
      * Reset daily counters (called at midnight)
      */
@@ -223,6 +278,10 @@ public class TicketConfirmationMetrics {
         private double averageBatchProcessingTime;
         private double averageTrainProcessingTime;
         private double averageCoachProcessingTime;
+        private double p95TrainProcessingTime;
+        private double trainsProcessed;
+        private double trainsFailed;
+        private double lastRunThroughput;
         private long activeBatchJobs;
         private long pendingConfirmations;
         private long totalConfirmationsToday;
@@ -16,7 +16,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
     
     Optional<Booking> findByPnrNumber(String pnrNumber);
     
@@ -56,8 +56,5 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     @Query("SELECT COUNT(b) FROM Booking b WHERE b.train = :train AND b.journeyDate = :date AND b.status = 'CONFIRMED'")
     Long countConfirmedBookingsByTrainAndDate(@Param("train") Train train, @Param("date") LocalDate date);
     
-    @Query("SELECT b FROM Booking b WHERE b.pnrNumber LIKE %:pnr%")
-    List<Booking> findByPnrNumberContaining(@Param("pnr") String pnr);
-    
     Page<Booking> findByUser(User user, Pageable pageable);
 } 
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.irctc_backend.irctc.repository;
+
+import com.irctc_backend.irctc.entity.Booking;
+
+import java.util.List;
+
+/**
+ * Partial-match booking lookups served by the search index instead of
+ * LIKE '%...%' scans. See {@link BookingRepositoryCustomImpl}.
+ */
+public interface BookingRepositoryCustom {
+
+    List<Booking> findByPnrNumberContaining(String pnr);
+
+    List<Booking> findByTransactionIdContaining(String transactionId);
+
+    List<Booking> findByMobileNumberContaining(String mobileNumber);
+}
@@ -0,0 +1,99 @@
+package com.irctc_backend.irctc.repository;
+
+import com.irctc_backend.irctc.entity.Booking;
+import com.irctc_backend.irctc.service.BookingSearchIndex;
+import com.irctc_backend.irctc.service.BookingSearchRedisIndex;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Lookup order for partial matches:
+ * 1. PNR fragments shorter than a trigram use the indexed pnr_search_key prefix
+ * 2. the in-memory trigram index, once built
+ * 3. the shared Redis suffix index, when enabled
+ * 4. a contains query on the database, only while neither index can answer
+ * Steps 2 and 3 return IDs; the bookings are then loaded by primary key.
+ */
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    @Lazy
+    private BookingSearchIndex searchIndex;
+
+    @Autowired(required = false)
+    @Lazy
+    private BookingSearchRedisIndex redisIndex;
+
+    @Value("${booking.search.max-results:100}")
+    private int maxResults;
+
+    @Override
+    public List<Booking> findByPnrNumberContaining(String pnr) {
+        String query = Booking.normalizeSearchKey(pnr);
+        if (query == null || query.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (query.length() < BookingSearchIndex.GRAM) {
+            return entityManager.createQuery(
+                    "SELECT b FROM Booking b WHERE b.pnrSearchKey LIKE :prefix ORDER BY b.id", Booking.class)
+                .setParameter("prefix", query + "%")
+                .setMaxResults(maxResults)
+                .getResultList();
+        }
+        return search(BookingSearchIndex.Field.PNR, query,
+            "SELECT b FROM Booking b WHERE b.pnrSearchKey LIKE :fragment ORDER BY b.id");
+    }
+
+    @Override
+    public List<Booking> findByTransactionIdContaining(String transactionId) {
+        return search(BookingSearchIndex.Field.TRANSACTION_ID, Booking.normalizeSearchKey(transactionId),
+            "SELECT DISTINCT b FROM Payment p JOIN p.booking b WHERE UPPER(p.transactionId) LIKE :fragment ORDER BY b.id");
+    }
+
+    @Override
+    public List<Booking> findByMobileNumberContaining(String mobileNumber) {
+        return search(BookingSearchIndex.Field.MOBILE, Booking.normalizeSearchKey(mobileNumber),
+            "SELECT b FROM Booking b WHERE b.user.phoneNumber LIKE :fragment ORDER BY b.id");
+    }
+
+    private List<Booking> search(BookingSearchIndex.Field field, String query, String fallbackJpql) {
+        if (query == null || query.length() < BookingSearchIndex.GRAM) {
+            return Collections.emptyList();
+        }
+        List<Long> ids = null;
+        if (searchIndex.isReady()) {
+            ids = searchIndex.search(field, query, maxResults);
+        } else if (redisIndex != null) {
+            ids = redisIndex.search(field, query, maxResults);
+        }
+        if (ids == null) {
+            return entityManager.createQuery(fallbackJpql, Booking.class)
+                .setParameter("fragment", "%" + query + "%")
+                .setMaxResults(maxResults)
+                .getResultList();
+        }
+        return findAllByIds(ids);
+    }
+
+    private List<Booking> findAllByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Booking> bookings = entityManager.createQuery(
+                "SELECT b FROM Booking b WHERE b.id IN :ids", Booking.class)
+            .setParameter("ids", ids)
+            .getResultList();
+        bookings.sort(Comparator.comparing(Booking::getId));
+        return bookings;
+    }
+}
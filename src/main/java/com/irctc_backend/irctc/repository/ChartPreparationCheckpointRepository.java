@@ -0,0 +1,25 @@
+package com.irctc_backend.irctc.repository;
+
+import com.irctc_backend.irctc.entity.ChartPreparationCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for ChartPreparationCheckpoint entity
+ *
+ * @author IRCTC Development Team
+ * @version 1.0.0
+ */
+@Repository
+public interface ChartPreparationCheckpointRepository extends JpaRepository<ChartPreparationCheckpoint, Long> {
+
+    @Query("SELECT c.trainId FROM ChartPreparationCheckpoint c WHERE c.runId = :runId")
+    List<Long> findTrainIdsByRunId(@Param("runId") Long runId);
+
+    @Query("SELECT COALESCE(SUM(c.confirmations), 0) FROM ChartPreparationCheckpoint c WHERE c.runId = :runId")
+    Long sumConfirmationsByRunId(@Param("runId") Long runId);
+}
@@ -0,0 +1,20 @@
+package com.irctc_backend.irctc.repository;
+
+import com.irctc_backend.irctc.entity.ChartPreparationRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository for ChartPreparationRun entity
+ *
+ * @author IRCTC Development Team
+ * @version 1.0.0
+ */
+@Repository
+public interface ChartPreparationRunRepository extends JpaRepository<ChartPreparationRun, Long> {
+
+    Optional<ChartPreparationRun> findFirstByRunTypeAndStatusOrderByStartedAtDesc(ChartPreparationRun.RunType runType,
+                                                                                  ChartPreparationRun.RunStatus status);
+}
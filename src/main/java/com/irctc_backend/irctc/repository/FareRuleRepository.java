@@ -67,4 +67,16 @@ public interface FareRuleRepository extends JpaRepository<FareRule, Long> {
     List<FareRule> findClosestFareRuleByDistance(@Param("train") Train train, 
                                                 @Param("coachType") Coach.CoachType coachType,
                                                 @Param("distance") Integer distance);
+    
+    /**
+     * Find all active fare rules with their trains, for the in-memory fare rule table
+     */
+    @Query("SELECT fr FROM FareRule fr JOIN FETCH fr.train WHERE fr.isActive = true")
+    List<FareRule> findAllActiveWithTrain();
+    
+    /**
+     * Latest update timestamp across all fare rules
+     */
+    @Query("SELECT MAX(fr.updatedAt) FROM FareRule fr")
+    LocalDateTime findLatestUpdate();
 }
@@ -0,0 +1,45 @@
+package com.irctc_backend.irctc.repository;
+
+import com.irctc_backend.irctc.entity.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for OutboxEvent entity
+ *
+ * @author IRCTC Development Team
+ * @version 1.0.0
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Oldest pending events, locked so two instances never publish the same row
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM OutboxEvent e WHERE e.status = 'PENDING' AND e.retryCount < e.maxRetries ORDER BY e.id ASC")
+    List<OutboxEvent> findPendingEvents(Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = 'PUBLISHED', e.publishedAt = :publishedAt WHERE e.id = :id")
+    void markAsPublished(@Param("id") Long id, @Param("publishedAt") LocalDateTime publishedAt);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.retryCount = e.retryCount + 1, e.errorMessage = :errorMessage WHERE e.id = :id")
+    void incrementRetryCount(@Param("id") Long id, @Param("errorMessage") String errorMessage);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = 'FAILED' WHERE e.id = :id")
+    void markAsFailed(@Param("id") Long id);
+
+    long countByStatus(OutboxEvent.OutboxStatus status);
+}
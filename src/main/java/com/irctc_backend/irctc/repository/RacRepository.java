@@ -81,4 +81,18 @@ public interface RacRepository extends JpaRepository<RacEntry, Long> {
     
     @Query("SELECT r FROM RacEntry r WHERE r.coach = :coach AND r.journeyDate = :journeyDate AND r.status = 'RAC' ORDER BY r.racNumber ASC LIMIT 1")
     Optional<RacEntry> findFirstRacByCoachAndDate(@Param("coach") Coach coach, @Param("journeyDate") LocalDateTime journeyDate);
+    
+    /**
+     * Active RAC entries as queue rows: id, train id, journey date, coach type, coach id,
+     * RAC number, quota type, berth seat id
+     */
+    @Query("SELECT r.id, r.train.id, r.journeyDate, r.coach.coachType, r.coach.id, r.racNumber, r.quotaType, r.seat.id " +
+           "FROM RacEntry r WHERE r.status = 'RAC' AND r.journeyDate >= :from AND r.journeyDate < :until")
+    List<Object[]> findActiveQueueRows(@Param("from") LocalDateTime from, @Param("until") LocalDateTime until);
+    
+    @Query("SELECT r.id, r.train.id, r.journeyDate, r.coach.coachType, r.coach.id, r.racNumber, r.quotaType, r.seat.id " +
+           "FROM RacEntry r WHERE r.train.id = :trainId AND r.status = 'RAC' " +
+           "AND r.journeyDate >= :from AND r.journeyDate < :until")
+    List<Object[]> findActiveQueueRowsForTrain(@Param("trainId") Long trainId, @Param("from") LocalDateTime from, 
+                                               @Param("until") LocalDateTime until);
 }
@@ -45,4 +45,12 @@ public interface SeatRepository extends JpaRepository<Seat, Long> {
     
     @Query("SELECT COUNT(s) FROM Seat s WHERE s.coach = :coach AND s.status = 'BOOKED'")
     Long countBookedSeatsByCoach(@Param("coach") Coach coach);
-} 
\ No newline at end of file
+    
+    /**
+     * Available seats of one class across all coaches of a train, in (coach, seat) order
+     */
+    @Query("SELECT s FROM Seat s JOIN FETCH s.coach c WHERE c.train.id = :trainId AND c.coachType = :coachType " +
+           "AND s.status = 'AVAILABLE' ORDER BY c.id, s.id")
+    List<Seat> findAvailableSeatsByTrainAndCoachType(@Param("trainId") Long trainId, 
+                                                     @Param("coachType") Coach.CoachType coachType);
+}
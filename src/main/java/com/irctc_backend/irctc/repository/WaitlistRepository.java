@@ -75,4 +75,18 @@ public interface WaitlistRepository extends JpaRepository<WaitlistEntry, Long> {
     
     @Query("SELECT w FROM WaitlistEntry w WHERE w.train = :train AND w.journeyDate = :journeyDate AND w.quotaType = :quotaType AND w.status = 'PENDING' AND w.waitlistNumber = :waitlistNumber")
     Optional<WaitlistEntry> findByTrainDateQuotaAndWaitlistNumber(@Param("train") Train train, @Param("journeyDate") LocalDateTime journeyDate, @Param("quotaType") WaitlistEntry.QuotaType quotaType, @Param("waitlistNumber") Integer waitlistNumber);
+    
+    /**
+     * Pending entries as queue rows: id, train id, journey date, coach type, coach id,
+     * waitlist number, quota type
+     */
+    @Query("SELECT w.id, w.train.id, w.journeyDate, w.coach.coachType, w.coach.id, w.waitlistNumber, w.quotaType " +
+           "FROM WaitlistEntry w WHERE w.status = 'PENDING' AND w.journeyDate >= :from AND w.journeyDate < :until")
+    List<Object[]> findPendingQueueRows(@Param("from") LocalDateTime from, @Param("until") LocalDateTime until);
+    
+    @Query("SELECT w.id, w.train.id, w.journeyDate, w.coach.coachType, w.coach.id, w.waitlistNumber, w.quotaType " +
+           "FROM WaitlistEntry w WHERE w.train.id = :trainId AND w.status = 'PENDING' " +
+           "AND w.journeyDate >= :from AND w.journeyDate < :until")
+    List<Object[]> findPendingQueueRowsForTrain(@Param("trainId") Long trainId, @Param("from") LocalDateTime from, 
+                                                @Param("until") LocalDateTime until);
 }
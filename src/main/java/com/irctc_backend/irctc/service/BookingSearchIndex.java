@@ -0,0 +1,307 @@
+package com.irctc_backend.irctc.service;
+
+import com.irctc_backend.irctc.entity.Booking;
+import com.irctc_backend.irctc.events.BookingIndexEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory trigram index for partial booking lookups.
+ *
+ * Support staff and the "find my booking" screen search with fragments of a PNR,
+ * payment transaction ID or mobile number. A LIKE '%x%' can never use a B-tree
+ * index, so every such search used to scan the bookings table. Here each key is
+ * split into overlapping three-character grams with a posting set of booking IDs
+ * per gram. A query walks the smallest posting set among its own grams and
+ * checks each candidate's stored keys for the full fragment.
+ *
+ * The index is built in keyset pages once the application is ready and kept
+ * current from {@link BookingIndexEvent}s, each of which replaces the keys of
+ * the bookings it names. Until it is built {@link #isReady()} is false and
+ * callers fall back to Redis or the database. Fragments shorter than a gram
+ * cannot be answered here.
+ */
+@Service
+public class BookingSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingSearchIndex.class);
+
+    public static final int GRAM = 3;
+
+    public enum Field {
+        PNR, TRANSACTION_ID, MOBILE
+    }
+
+    private static final String KEYS_SQL =
+        "SELECT b.id, b.pnr_number, u.phone_number, p.transaction_id FROM bookings b " +
+        "LEFT JOIN users u ON u.id = b.user_id LEFT JOIN payments p ON p.booking_id = b.id ";
+
+    private final Map<Field, Map<String, Set<Long>>> postings = new EnumMap<>(Field.class);
+    private final Map<Field, Map<Long, Set<String>>> keys = new EnumMap<>(Field.class);
+    private volatile boolean ready;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired(required = false)
+    private BookingSearchRedisIndex redisIndex;
+
+    @Value("${booking.search.index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${booking.search.index.page-size:5000}")
+    private int pageSize;
+
+    public BookingSearchIndex() {
+        for (Field field : Field.values()) {
+            postings.put(field, new ConcurrentHashMap<>());
+            keys.put(field, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Booking IDs whose key for the field contains the fragment, in ID order
+     */
+    public List<Long> search(Field field, String fragment, int limit) {
+        String query = Booking.normalizeSearchKey(fragment);
+        if (query == null || query.length() < GRAM) {
+            return Collections.emptyList();
+        }
+
+        Map<String, Set<Long>> fieldPostings = postings.get(field);
+        Set<Long> smallest = null;
+        for (String gram : grams(query)) {
+            Set<Long> posting = fieldPostings.get(gram);
+            if (posting == null) {
+                return Collections.emptyList();
+            }
+            if (smallest == null || posting.size() < smallest.size()) {
+                smallest = posting;
+            }
+        }
+
+        Map<Long, Set<String>> fieldKeys = keys.get(field);
+        TreeSet<Long> matches = new TreeSet<>();
+        for (Long bookingId : smallest) {
+            Set<String> bookingKeys = fieldKeys.get(bookingId);
+            if (bookingKeys != null && bookingKeys.stream().anyMatch(key -> key.contains(query))) {
+                matches.add(bookingId);
+            }
+        }
+        List<Long> result = new ArrayList<>(Math.min(matches.size(), limit));
+        for (Long bookingId : matches) {
+            if (result.size() == limit) {
+                break;
+            }
+            result.add(bookingId);
+        }
+        return result;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return keys.get(Field.PNR).size();
+    }
+
+    /**
+     * Runs after the publishing transaction commits so the keys read here are
+     * the committed ones. The booking's keys are replaced, so a changed mobile
+     * number or transaction ID stops matching, and a deleted booking drops out.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingIndexEvent(BookingIndexEvent event) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Map<Long, IndexedKeys> current = new HashMap<>();
+            if (event.getBookingId() != null) {
+                current.put(event.getBookingId(), new IndexedKeys());
+                jdbcTemplate.query(KEYS_SQL + "WHERE b.id = ?", rs -> {
+                    collect(current, rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4));
+                }, event.getBookingId());
+            } else if (event.getUserId() != null) {
+                jdbcTemplate.query(KEYS_SQL + "WHERE b.user_id = ?", rs -> {
+                    collect(current, rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4));
+                }, event.getUserId());
+            }
+            current.forEach((bookingId, found) -> replace(bookingId, found.pnr, found.mobiles, found.transactionIds));
+        } catch (Exception e) {
+            // A missed update only costs recall until the next rebuild
+            logger.warn("Failed to index {} after {}: {}", event.getBookingId() != null
+                ? "booking " + event.getBookingId() : "bookings of user " + event.getUserId(),
+                event.getType(), e.getMessage());
+        }
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        // Rows written before the prefix column existed
+        int backfilled = jdbcTemplate.update(
+            "UPDATE bookings SET pnr_search_key = UPPER(pnr_number) WHERE pnr_search_key IS NULL");
+        boolean seedRedis = redisIndex != null && redisIndex.isEmpty();
+
+        long afterId = 0;
+        while (true) {
+            long[] lastId = {-1};
+            jdbcTemplate.query(KEYS_SQL + "WHERE b.id IN (SELECT id FROM bookings WHERE id > ? ORDER BY id LIMIT ?)",
+                rs -> {
+                    long bookingId = rs.getLong(1);
+                    String pnr = rs.getString(2);
+                    String mobile = rs.getString(3);
+                    String transactionId = rs.getString(4);
+                    index(bookingId, pnr, mobile, transactionId, seedRedis);
+                    lastId[0] = Math.max(lastId[0], bookingId);
+                }, afterId, pageSize);
+            if (lastId[0] < 0) {
+                break;
+            }
+            afterId = lastId[0];
+        }
+        ready = true;
+        logger.info("Booking search index built: {} bookings in {} ms ({} search keys backfilled)",
+            size(), System.currentTimeMillis() - startTime, backfilled);
+    }
+
+    /**
+     * Make the booking's keys exactly the given ones, dropping any it no longer has
+     */
+    void replace(long bookingId, String pnr, Collection<String> mobiles, Collection<String> transactionIds) {
+        replace(Field.PNR, bookingId, pnr == null ? List.of() : List.of(pnr));
+        replace(Field.MOBILE, bookingId, mobiles);
+        replace(Field.TRANSACTION_ID, bookingId, transactionIds);
+    }
+
+    private void replace(Field field, long bookingId, Collection<String> values) {
+        Set<String> current = new HashSet<>();
+        for (String value : values) {
+            String key = Booking.normalizeSearchKey(value);
+            if (key != null && !key.isEmpty()) {
+                current.add(key);
+            }
+        }
+        Set<String> previous = keys.get(field).get(bookingId);
+        if (previous != null) {
+            for (String stale : new ArrayList<>(previous)) {
+                if (!current.contains(stale)) {
+                    remove(field, bookingId, stale);
+                }
+            }
+        }
+        for (String key : current) {
+            add(field, bookingId, key, true);
+        }
+    }
+
+    private void index(long bookingId, String pnr, String mobile, String transactionId, boolean toRedis) {
+        add(Field.PNR, bookingId, pnr, toRedis);
+        add(Field.MOBILE, bookingId, mobile, toRedis);
+        add(Field.TRANSACTION_ID, bookingId, transactionId, toRedis);
+    }
+
+    private void add(Field field, long bookingId, String value, boolean toRedis) {
+        String key = Booking.normalizeSearchKey(value);
+        if (key == null || key.isEmpty()) {
+            return;
+        }
+        boolean added = keys.get(field).computeIfAbsent(bookingId, id -> ConcurrentHashMap.newKeySet()).add(key);
+        if (!added) {
+            return;
+        }
+        Map<String, Set<Long>> fieldPostings = postings.get(field);
+        for (String gram : grams(key)) {
+            fieldPostings.compute(gram, (g, ids) -> {
+                Set<Long> posting = ids != null ? ids : ConcurrentHashMap.<Long>newKeySet();
+                posting.add(bookingId);
+                return posting;
+            });
+        }
+        if (toRedis && redisIndex != null) {
+            redisIndex.add(field, bookingId, key);
+        }
+    }
+
+    private void remove(Field field, long bookingId, String key) {
+        Set<String> bookingKeys = keys.get(field).get(bookingId);
+        if (bookingKeys == null || !bookingKeys.remove(key)) {
+            return;
+        }
+        // Grams still covered by another key of the same booking keep their posting
+        Set<String> kept = new HashSet<>();
+        for (String other : bookingKeys) {
+            kept.addAll(grams(other));
+        }
+        Map<String, Set<Long>> fieldPostings = postings.get(field);
+        for (String gram : grams(key)) {
+            if (!kept.contains(gram)) {
+                fieldPostings.computeIfPresent(gram, (g, ids) -> {
+                    ids.remove(bookingId);
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+        }
+        if (bookingKeys.isEmpty()) {
+            keys.get(field).remove(bookingId, bookingKeys);
+        }
+        if (redisIndex != null) {
+            redisIndex.remove(field, bookingId, key);
+        }
+    }
+
+    private static void collect(Map<Long, IndexedKeys> current, long bookingId, String pnr,
+                                String mobile, String transactionId) {
+        IndexedKeys found = current.computeIfAbsent(bookingId, id -> new IndexedKeys());
+        found.pnr = pnr;
+        if (mobile != null) {
+            found.mobiles.add(mobile);
+        }
+        if (transactionId != null) {
+            found.transactionIds.add(transactionId);
+        }
+    }
+
+    /**
+     * Keys of one booking as read back from the database; one row per payment
+     */
+    private static final class IndexedKeys {
+        private String pnr;
+        private final Set<String> mobiles = new HashSet<>();
+        private final Set<String> transactionIds = new HashSet<>();
+    }
+
+    static Set<String> grams(String key) {
+        Set<String> grams = new TreeSet<>();
+        for (int i = 0; i + GRAM <= key.length(); i++) {
+            grams.add(key.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+}
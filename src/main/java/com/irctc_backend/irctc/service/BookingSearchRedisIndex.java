@@ -0,0 +1,111 @@
+package com.irctc_backend.irctc.service;
+
+import com.irctc_backend.irctc.entity.Booking;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Shared suffix index in Redis sorted sets.
+ *
+ * Every suffix of a key is stored as the member "SUFFIX bookingId" with score 0,
+ * so a lexicographic range on the fragment returns every booking whose key
+ * contains it. Used by instances whose in-memory index is still building, and
+ * shared by all of them so a restart does not fall back to table scans.
+ *
+ * Only created when booking.search.redis.enabled=true. Redis errors are logged
+ * and a failed search returns null, letting the caller fall back to the database.
+ */
+@Service
+@ConditionalOnProperty(name = "booking.search.redis.enabled", havingValue = "true")
+public class BookingSearchRedisIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingSearchRedisIndex.class);
+
+    private static final Map<BookingSearchIndex.Field, String> KEYS = new EnumMap<>(BookingSearchIndex.Field.class);
+
+    static {
+        KEYS.put(BookingSearchIndex.Field.PNR, "booking:search:pnr");
+        KEYS.put(BookingSearchIndex.Field.TRANSACTION_ID, "booking:search:txn");
+        KEYS.put(BookingSearchIndex.Field.MOBILE, "booking:search:mobile");
+    }
+
+    private final StringRedisTemplate redisTemplate;
+
+    public BookingSearchRedisIndex(RedisConnectionFactory connectionFactory) {
+        this.redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    public void add(BookingSearchIndex.Field field, long bookingId, String key) {
+        try {
+            String redisKey = KEYS.get(field);
+            for (int i = 0; i < key.length(); i++) {
+                redisTemplate.opsForZSet().add(redisKey, key.substring(i) + " " + bookingId, 0);
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to add booking {} to Redis search index: {}", bookingId, e.getMessage());
+        }
+    }
+
+    public void remove(BookingSearchIndex.Field field, long bookingId, String key) {
+        try {
+            Object[] members = new Object[key.length()];
+            for (int i = 0; i < key.length(); i++) {
+                members[i] = key.substring(i) + " " + bookingId;
+            }
+            redisTemplate.opsForZSet().remove(KEYS.get(field), members);
+        } catch (Exception e) {
+            logger.warn("Failed to remove booking {} from Redis search index: {}", bookingId, e.getMessage());
+        }
+    }
+
+    public boolean isEmpty() {
+        try {
+            Long size = redisTemplate.opsForZSet().zCard(KEYS.get(BookingSearchIndex.Field.PNR));
+            return size == null || size == 0;
+        } catch (Exception e) {
+            logger.warn("Redis search index unavailable: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Booking IDs whose key for the field contains the fragment, in ID order,
+     * or null when Redis could not be queried
+     */
+    public List<Long> search(BookingSearchIndex.Field field, String fragment, int limit) {
+        String query = Booking.normalizeSearchKey(fragment);
+        if (query == null || query.isEmpty()) {
+            return Collections.emptyList();
+        }
+        try {
+            // One booking contributes a member per matching suffix, so read past the limit
+            Set<String> members = redisTemplate.opsForZSet().rangeByLex(KEYS.get(field),
+                Range.closed(query, query + Character.MAX_VALUE),
+                Limit.limit().count(limit * 4));
+            if (members == null) {
+                return Collections.emptyList();
+            }
+            TreeSet<Long> bookingIds = new TreeSet<>();
+            for (String member : members) {
+                bookingIds.add(Long.parseLong(member.substring(member.lastIndexOf(' ') + 1)));
+            }
+            return bookingIds.stream().limit(limit).toList();
+        } catch (Exception e) {
+            logger.warn("Redis search for {} failed: {}", field, e.getMessage());
+            return null;
+        }
+    }
+}
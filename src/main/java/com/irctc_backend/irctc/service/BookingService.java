@@ -2,6 +2,8 @@ package com.irctc_backend.irctc.service;
 
 import com.irctc_backend.irctc.annotation.ExecutionTime;
 import com.irctc_backend.irctc.entity.*;
+import com.irctc_backend.irctc.events.BookingIndexEvent;
+import com.irctc_backend.irctc.events.SeatReleasedEvent;
 import com.irctc_backend.irctc.repository.BookingRepository;
 import com.irctc_backend.irctc.repository.CoachRepository;
 import com.irctc_backend.irctc.repository.SeatRepository;
@@ -12,6 +14,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -41,6 +44,9 @@ public class BookingService {
     @Autowired
     private NotificationService notificationService;
     
+    @Autowired(required = false)
+    private ApplicationEventPublisher eventPublisher;
+    
     @ExecutionTime("Create Train Booking")
     @CacheEvict(value = {"bookings", "train-schedules"}, allEntries = true)
     public Booking createBooking(Booking booking) {
@@ -97,6 +103,7 @@ public class BookingService {
         
         // Save the booking
         Booking savedBooking = bookingRepository.save(booking);
+        publishIndexEvent(savedBooking.getId(), BookingIndexEvent.Type.CREATED);
         
         // Publish booking confirmed event to Kafka for notifications
         try {
@@ -185,6 +192,16 @@ public class BookingService {
         return bookingRepository.findByPnrNumberContaining(pnr);
     }
     
+    @Cacheable(value = "bookings", key = "'txn-' + #transactionId")
+    public List<Booking> searchBookingsByTransactionId(String transactionId) {
+        return bookingRepository.findByTransactionIdContaining(transactionId);
+    }
+    
+    @Cacheable(value = "bookings", key = "'mobile-' + #mobileNumber")
+    public List<Booking> searchBookingsByMobile(String mobileNumber) {
+        return bookingRepository.findByMobileNumberContaining(mobileNumber);
+    }
+    
     @ExecutionTime("Update Booking Status")
     @CacheEvict(value = {"bookings", "train-schedules"}, allEntries = true)
     public Booking updateBookingStatus(Long bookingId, Booking.BookingStatus status) {
@@ -221,6 +238,8 @@ public class BookingService {
         
         // Publish booking cancelled event to Kafka if cancelled
         if (status == Booking.BookingStatus.CANCELLED) {
+            publishIndexEvent(updatedBooking.getId(), BookingIndexEvent.Type.CANCELLED);
+            publishSeatReleased(updatedBooking);
             try {
                 notificationService.publishBookingCancelledEvent(updatedBooking);
             } catch (Exception e) {
@@ -239,6 +258,7 @@ public class BookingService {
         booking.setPaymentStatus(paymentStatus);
         
         Booking updatedBooking = bookingRepository.save(booking);
+        publishIndexEvent(updatedBooking.getId(), BookingIndexEvent.Type.PAYMENT_UPDATED);
         
         // Publish payment completed event to Kafka if payment is completed
         if (paymentStatus == Booking.PaymentStatus.COMPLETED) {
@@ -312,4 +332,24 @@ public class BookingService {
         
         booking.setTotalFare(totalFare);
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Keeps the in-memory booking search index in step with writes
+     */
+    private void publishIndexEvent(Long bookingId, BookingIndexEvent.Type type) {
+        if (eventPublisher != null) {
+            eventPublisher.publishEvent(new BookingIndexEvent(bookingId, type));
+        }
+    }
+    
+    /**
+     * Lets the waitlist allocation engine promote into the freed seat
+     */
+    private void publishSeatReleased(Booking booking) {
+        if (eventPublisher != null && booking.getTrain() != null && booking.getCoach() != null
+                && booking.getJourneyDate() != null) {
+            eventPublisher.publishEvent(new SeatReleasedEvent(booking.getTrain().getId(),
+                booking.getCoach().getCoachType(), booking.getJourneyDate()));
+        }
+    }
+}
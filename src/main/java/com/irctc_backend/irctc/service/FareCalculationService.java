@@ -5,6 +5,7 @@ import com.irctc_backend.irctc.dto.FareCalculationResponse;
 import com.irctc_backend.irctc.entity.Coach;
 import com.irctc_backend.irctc.entity.FareRule;
 import com.irctc_backend.irctc.entity.Train;
+import com.irctc_backend.irctc.service.FareRuleTable.Rule;
 import com.irctc_backend.irctc.repository.FareRuleRepository;
 import com.irctc_backend.irctc.repository.TrainRepository;
 import org.slf4j.Logger;
@@ -23,6 +24,11 @@ import java.util.Optional;
 
 /**
  * Service for dynamic fare calculation with surge pricing
+ * 
+ * Rules come from the {@link FareRuleEngine} table when it is loaded, so a quote
+ * needs no queries; the repositories are only used for trains the table does not
+ * know yet. Search pages should price all rows with {@link #calculateFares(List)}.
+ * 
  * @author IRCTC Development Team
  * @version 1.0.0
  */
@@ -37,6 +43,9 @@ public class FareCalculationService {
     @Autowired
     private TrainRepository trainRepository;
     
+    @Autowired
+    private FareRuleEngine fareRuleEngine;
+    
     // GST rate (18%)
     private static final BigDecimal GST_RATE = new BigDecimal("0.18");
     
@@ -54,40 +63,7 @@ public class FareCalculationService {
                    request.getTrainId(), request.getCoachType(), request.getNumberOfPassengers());
         
         try {
-            // Get train information
-            Train train = trainRepository.findById(request.getTrainId())
-                    .orElseThrow(() -> new RuntimeException("Train not found"));
-            
-            // Find applicable fare rule
-            FareRule fareRule = findApplicableFareRule(train, request.getCoachType(), request.getJourneyDate());
-            
-            // Create response object
-            FareCalculationResponse response = new FareCalculationResponse(
-                    train.getId(), train.getTrainNumber(), train.getTrainName(), 
-                    request.getCoachType(), request.getJourneyDate());
-            
-            // Set basic information
-            response.setNumberOfPassengers(request.getNumberOfPassengers());
-            response.setDistanceKm(request.getDistanceKm());
-            response.setQuotaType(request.getQuotaType());
-            response.setFareRuleId(fareRule.getId().toString());
-            
-            // Calculate base fare
-            BigDecimal baseFare = calculateBaseFare(fareRule, request);
-            response.setBaseFare(baseFare);
-            
-            // Calculate surge pricing
-            calculateSurgePricing(response, request, fareRule);
-            
-            // Calculate discounts
-            calculateDiscounts(response, request, fareRule);
-            
-            // Calculate final amounts
-            calculateFinalAmounts(response, request);
-            
-            // Calculate passenger-wise breakdown
-            calculatePassengerBreakdown(response, request);
-            
+            FareCalculationResponse response = quote(fareRuleEngine.snapshot(), request);
             logger.info("Fare calculation completed. Final amount: {}", response.getFinalAmount());
             return response;
             
@@ -97,6 +73,78 @@ public class FareCalculationService {
         }
     }
     
+    /**
+     * Price a page of search results against one rule table snapshot.
+     * Responses are in request order; a row that cannot be priced is null
+     * instead of failing the whole page.
+     */
+    public List<FareCalculationResponse> calculateFares(List<FareCalculationRequest> requests) {
+        FareRuleTable table = fareRuleEngine.snapshot();
+        List<FareCalculationResponse> responses = new ArrayList<>(requests.size());
+        int failed = 0;
+        
+        for (FareCalculationRequest request : requests) {
+            try {
+                responses.add(quote(table, request));
+            } catch (Exception e) {
+                logger.warn("Could not price train: {}, coach: {}: {}", 
+                           request.getTrainId(), request.getCoachType(), e.getMessage());
+                responses.add(null);
+                failed++;
+            }
+        }
+        
+        logger.debug("Priced {} fares in one batch ({} failed)", requests.size(), failed);
+        return responses;
+    }
+    
+    /**
+     * Calculate one fare, using the rule table when it knows the train and coach type
+     */
+    private FareCalculationResponse quote(FareRuleTable table, FareCalculationRequest request) {
+        Rule rule = table.isLoaded() 
+                ? table.find(request.getTrainId(), request.getCoachType(), request.getJourneyDate()) 
+                : null;
+        
+        if (rule == null) {
+            // Get train information
+            Train train = trainRepository.findById(request.getTrainId())
+                    .orElseThrow(() -> new RuntimeException("Train not found"));
+            
+            // Find applicable fare rule
+            rule = Rule.compile(findApplicableFareRule(train, request.getCoachType(), request.getJourneyDate()), train);
+        }
+        
+        // Create response object
+        FareCalculationResponse response = new FareCalculationResponse(
+                rule.getTrainId(), rule.getTrainNumber(), rule.getTrainName(), 
+                request.getCoachType(), request.getJourneyDate());
+        
+        // Set basic information
+        response.setNumberOfPassengers(request.getNumberOfPassengers());
+        response.setDistanceKm(request.getDistanceKm());
+        response.setQuotaType(request.getQuotaType());
+        response.setFareRuleId(rule.getId().toString());
+        
+        // Calculate base fare
+        BigDecimal baseFare = rule.baseFareFor(request.getDistanceKm(), request.getNumberOfPassengers());
+        response.setBaseFare(baseFare);
+        
+        // Calculate surge pricing
+        calculateSurgePricing(response, request, rule);
+        
+        // Calculate discounts
+        calculateDiscounts(response, request, rule);
+        
+        // Calculate final amounts
+        calculateFinalAmounts(response, request);
+        
+        // Calculate passenger-wise breakdown
+        calculatePassengerBreakdown(response, request);
+        
+        return response;
+    }
+    
     /**
      * Find applicable fare rule for the given criteria
      */
@@ -117,37 +165,17 @@ public class FareCalculationService {
                                  " and coach type: " + coachType);
     }
     
-    /**
-     * Calculate base fare
-     */
-    private BigDecimal calculateBaseFare(FareRule fareRule, FareCalculationRequest request) {
-        BigDecimal baseFare = fareRule.getBaseFare();
-        
-        // Apply distance-based calculation if needed
-        if (request.getDistanceKm() != null && fareRule.getDistanceKm() != null) {
-            if (!request.getDistanceKm().equals(fareRule.getDistanceKm())) {
-                // Calculate per km rate and apply to actual distance
-                BigDecimal perKmRate = fareRule.getBaseFare().divide(
-                        new BigDecimal(fareRule.getDistanceKm()), 2, RoundingMode.HALF_UP);
-                baseFare = perKmRate.multiply(new BigDecimal(request.getDistanceKm()));
-            }
-        }
-        
-        return baseFare.multiply(new BigDecimal(request.getNumberOfPassengers()));
-    }
-    
     /**
      * Calculate surge pricing based on various factors
      */
-    private void calculateSurgePricing(FareCalculationResponse response, FareCalculationRequest request, FareRule fareRule) {
-        BigDecimal totalSurgeMultiplier = BigDecimal.ONE;
+    private void calculateSurgePricing(FareCalculationResponse response, FareCalculationRequest request, Rule fareRule) {
+        int surgeConditions = 0;
         List<String> surgeReasons = new ArrayList<>();
         
         // Peak hour surge
         if (isPeakHour(request.getJourneyDate())) {
-            BigDecimal peakMultiplier = fareRule.getPeakHourMultiplier() != null ? 
-                    fareRule.getPeakHourMultiplier() : new BigDecimal("1.2");
-            totalSurgeMultiplier = totalSurgeMultiplier.multiply(peakMultiplier);
+            BigDecimal peakMultiplier = fareRule.getPeakHourMultiplier();
+            surgeConditions |= FareRuleTable.PEAK;
             response.setPeakHourMultiplier(peakMultiplier);
             response.setPeakHourFare(response.getBaseFare().multiply(peakMultiplier.subtract(BigDecimal.ONE)));
             surgeReasons.add("Peak Hour");
@@ -155,9 +183,8 @@ public class FareCalculationService {
         
         // Weekend surge
         if (isWeekend(request.getJourneyDate())) {
-            BigDecimal weekendMultiplier = fareRule.getWeekendMultiplier() != null ? 
-                    fareRule.getWeekendMultiplier() : new BigDecimal("1.15");
-            totalSurgeMultiplier = totalSurgeMultiplier.multiply(weekendMultiplier);
+            BigDecimal weekendMultiplier = fareRule.getWeekendMultiplier();
+            surgeConditions |= FareRuleTable.WEEKEND;
             response.setWeekendMultiplier(weekendMultiplier);
             response.setWeekendFare(response.getBaseFare().multiply(weekendMultiplier.subtract(BigDecimal.ONE)));
             surgeReasons.add("Weekend");
@@ -165,19 +192,16 @@ public class FareCalculationService {
         
         // Festival surge (simplified - in real implementation, this would check festival calendar)
         if (isFestivalPeriod(request.getJourneyDate())) {
-            BigDecimal festivalMultiplier = fareRule.getFestivalMultiplier() != null ? 
-                    fareRule.getFestivalMultiplier() : new BigDecimal("1.3");
-            totalSurgeMultiplier = totalSurgeMultiplier.multiply(festivalMultiplier);
+            BigDecimal festivalMultiplier = fareRule.getFestivalMultiplier();
+            surgeConditions |= FareRuleTable.FESTIVAL;
             response.setFestivalMultiplier(festivalMultiplier);
             response.setFestivalFare(response.getBaseFare().multiply(festivalMultiplier.subtract(BigDecimal.ONE)));
             surgeReasons.add("Festival Period");
         }
         
-        // General surge multiplier
-        BigDecimal generalSurgeMultiplier = fareRule.getSurgeMultiplier() != null ? 
-                fareRule.getSurgeMultiplier() : BigDecimal.ONE;
-        totalSurgeMultiplier = totalSurgeMultiplier.multiply(generalSurgeMultiplier);
-        response.setSurgeMultiplier(generalSurgeMultiplier);
+        // General surge multiplier, precombined with the conditions above
+        BigDecimal totalSurgeMultiplier = fareRule.totalSurgeMultiplier(surgeConditions);
+        response.setSurgeMultiplier(fareRule.getSurgeMultiplier());
         
         // Calculate surge fare
         if (totalSurgeMultiplier.compareTo(BigDecimal.ONE) > 0) {
@@ -197,7 +221,7 @@ public class FareCalculationService {
     /**
      * Calculate applicable discounts
      */
-    private void calculateDiscounts(FareCalculationResponse response, FareCalculationRequest request, FareRule fareRule) {
+    private void calculateDiscounts(FareCalculationResponse response, FareCalculationRequest request, Rule fareRule) {
         BigDecimal totalDiscount = BigDecimal.ZERO;
         
         // Ladies quota discount
@@ -0,0 +1,98 @@
+package com.irctc_backend.irctc.service;
+
+import com.irctc_backend.irctc.entity.FareRule;
+import com.irctc_backend.irctc.events.FareRulesChangedEvent;
+import com.irctc_backend.irctc.repository.FareRuleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current {@link FareRuleTable} and swaps in a new one when rules change.
+ *
+ * Readers take one snapshot and price against it, so a quote never sees half of
+ * an update. The table is rebuilt on {@link FareRulesChangedEvent}s and, for
+ * changes made outside the application, whenever the rule count or latest
+ * update timestamp no longer match the loaded table.
+ */
+@Service
+public class FareRuleEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(FareRuleEngine.class);
+
+    private final AtomicReference<FareRuleTable> table = new AtomicReference<>(FareRuleTable.EMPTY);
+
+    @Autowired
+    private FareRuleRepository fareRuleRepository;
+
+    @Value("${fare.engine.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Current table; not loaded until the application is ready
+     */
+    public FareRuleTable snapshot() {
+        return table.get();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload("startup");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFareRulesChanged(FareRulesChangedEvent event) {
+        reload(event.getReason());
+    }
+
+    @Scheduled(fixedDelayString = "${fare.engine.refresh-delay:60000}",
+               initialDelayString = "${fare.engine.refresh-delay:60000}")
+    public void refreshIfStale() {
+        FareRuleTable current = table.get();
+        if (!enabled || !current.isLoaded()) {
+            return;
+        }
+        try {
+            if (fareRuleRepository.count() != current.getRuleCount()
+                    || !Objects.equals(fareRuleRepository.findLatestUpdate(), current.getLastUpdated())) {
+                reload("rules changed outside the application");
+            }
+        } catch (Exception e) {
+            logger.warn("Fare rule staleness check failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Builds a new table and publishes it in one step. A failed rebuild keeps
+     * serving the previous table.
+     */
+    public synchronized void reload(String reason) {
+        if (!enabled) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        try {
+            // Fingerprint first, so a change made while loading triggers another reload
+            long ruleCount = fareRuleRepository.count();
+            LocalDateTime lastUpdated = fareRuleRepository.findLatestUpdate();
+            List<FareRule> activeRules = fareRuleRepository.findAllActiveWithTrain();
+            FareRuleTable rebuilt = FareRuleTable.build(activeRules, ruleCount, lastUpdated);
+            table.set(rebuilt);
+            logger.info("Fare rule table loaded ({}): {} active rules in {} ms",
+                       reason, rebuilt.size(), System.currentTimeMillis() - startTime);
+        } catch (Exception e) {
+            logger.error("Failed to rebuild fare rule table ({}): {}", reason, e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.irctc_backend.irctc.service;
+
+import com.irctc_backend.irctc.entity.Coach;
+import com.irctc_backend.irctc.entity.FareRule;
+import com.irctc_backend.irctc.entity.Train;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Immutable snapshot of every active fare rule, indexed by (train, coach type).
+ *
+ * Each rule is compiled once when the table is built: the validity window becomes
+ * a predicate, missing multipliers are resolved to their defaults, the per-km rate
+ * is divided out and the combined surge multiplier is precomputed for every
+ * peak/weekend/festival combination. Quoting a fare then needs no queries and no
+ * repeated BigDecimal setup.
+ *
+ * Fare rules are stored per train rather than per train type, and quotas are
+ * discount columns on the rule, so quotas compile into discount terms instead of
+ * a separate index dimension.
+ */
+public final class FareRuleTable {
+
+    public static final int PEAK = 1;
+    public static final int WEEKEND = 2;
+    public static final int FESTIVAL = 4;
+
+    static final FareRuleTable EMPTY = new FareRuleTable(Collections.emptyMap(), -1, null, false);
+
+    // Most specific window first, so an explicit seasonal rule beats an open-ended one
+    private static final Comparator<Rule> PRECEDENCE = Comparator
+        .comparing((Rule rule) -> rule.validFrom, Comparator.nullsLast(Comparator.reverseOrder()))
+        .thenComparing(rule -> rule.id, Comparator.reverseOrder());
+
+    private final Map<Key, Entry> entries;
+    private final long ruleCount;
+    private final LocalDateTime lastUpdated;
+    private final boolean loaded;
+
+    private FareRuleTable(Map<Key, Entry> entries, long ruleCount, LocalDateTime lastUpdated, boolean loaded) {
+        this.entries = entries;
+        this.ruleCount = ruleCount;
+        this.lastUpdated = lastUpdated;
+        this.loaded = loaded;
+    }
+
+    /**
+     * @param activeRules active rules with their train already fetched
+     * @param ruleCount   number of rule rows, active or not, when the rules were read
+     * @param lastUpdated latest update timestamp across all rule rows
+     */
+    public static FareRuleTable build(List<FareRule> activeRules, long ruleCount, LocalDateTime lastUpdated) {
+        Map<Key, List<Rule>> grouped = new HashMap<>();
+        for (FareRule fareRule : activeRules) {
+            Rule rule = Rule.compile(fareRule, fareRule.getTrain());
+            grouped.computeIfAbsent(new Key(rule.trainId, rule.coachType), key -> new ArrayList<>()).add(rule);
+        }
+
+        Map<Key, Entry> entries = new HashMap<>(grouped.size() * 2);
+        grouped.forEach((key, rules) -> {
+            rules.sort(PRECEDENCE);
+            // Same choice as the repository's distance fallback for distance 0
+            Rule closest = rules.stream()
+                .min(Comparator.comparing((Rule rule) -> rule.distanceKm == null ? Integer.MAX_VALUE : Math.abs(rule.distanceKm)))
+                .orElse(null);
+            entries.put(key, new Entry(rules.toArray(new Rule[0]), closest));
+        });
+        return new FareRuleTable(Map.copyOf(entries), ruleCount, lastUpdated, true);
+    }
+
+    /**
+     * Rule in force for the journey date, else the closest distance-based rule,
+     * or null when the table has no rules for the train and coach type
+     */
+    public Rule find(Long trainId, Coach.CoachType coachType, LocalDateTime journeyDate) {
+        Entry entry = entries.get(new Key(trainId, coachType));
+        if (entry == null) {
+            return null;
+        }
+        for (Rule rule : entry.rules) {
+            if (rule.validity.test(journeyDate)) {
+                return rule;
+            }
+        }
+        return entry.closest;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public int size() {
+        return entries.values().stream().mapToInt(entry -> entry.rules.length).sum();
+    }
+
+    long getRuleCount() {
+        return ruleCount;
+    }
+
+    LocalDateTime getLastUpdated() {
+        return lastUpdated;
+    }
+
+    private record Key(Long trainId, Coach.CoachType coachType) {
+    }
+
+    private record Entry(Rule[] rules, Rule closest) {
+    }
+
+    /**
+     * A fare rule with its conditions and defaults resolved. Carries the train's
+     * display fields so a quote does not need to load the train.
+     */
+    public static final class Rule {
+
+        private static final BigDecimal DEFAULT_PEAK_MULTIPLIER = new BigDecimal("1.2");
+        private static final BigDecimal DEFAULT_WEEKEND_MULTIPLIER = new BigDecimal("1.15");
+        private static final BigDecimal DEFAULT_FESTIVAL_MULTIPLIER = new BigDecimal("1.3");
+
+        private final Long id;
+        private final Long trainId;
+        private final String trainNumber;
+        private final String trainName;
+        private final Coach.CoachType coachType;
+        private final BigDecimal baseFare;
+        private final Integer distanceKm;
+        private final BigDecimal perKmRate;
+        private final BigDecimal peakHourMultiplier;
+        private final BigDecimal weekendMultiplier;
+        private final BigDecimal festivalMultiplier;
+        private final BigDecimal surgeMultiplier;
+        private final BigDecimal ladiesQuotaDiscount;
+        private final BigDecimal seniorCitizenDiscount;
+        private final BigDecimal handicappedDiscount;
+        private final LocalDateTime validFrom;
+        private final Predicate<LocalDateTime> validity;
+        private final BigDecimal[] totalSurgeByConditions = new BigDecimal[8];
+
+        private Rule(FareRule fareRule, Train train) {
+            this.id = fareRule.getId();
+            this.trainId = train.getId();
+            this.trainNumber = train.getTrainNumber();
+            this.trainName = train.getTrainName();
+            this.coachType = fareRule.getCoachType();
+            this.baseFare = fareRule.getBaseFare();
+            this.distanceKm = fareRule.getDistanceKm();
+            this.perKmRate = distanceKm != null && distanceKm != 0
+                ? baseFare.divide(new BigDecimal(distanceKm), 2, RoundingMode.HALF_UP) : null;
+            this.peakHourMultiplier = orDefault(fareRule.getPeakHourMultiplier(), DEFAULT_PEAK_MULTIPLIER);
+            this.weekendMultiplier = orDefault(fareRule.getWeekendMultiplier(), DEFAULT_WEEKEND_MULTIPLIER);
+            this.festivalMultiplier = orDefault(fareRule.getFestivalMultiplier(), DEFAULT_FESTIVAL_MULTIPLIER);
+            this.surgeMultiplier = orDefault(fareRule.getSurgeMultiplier(), BigDecimal.ONE);
+            this.ladiesQuotaDiscount = fareRule.getLadiesQuotaDiscount();
+            this.seniorCitizenDiscount = fareRule.getSeniorCitizenDiscount();
+            this.handicappedDiscount = fareRule.getHandicappedDiscount();
+            this.validFrom = fareRule.getValidFrom();
+            this.validity = compileValidity(fareRule.getValidFrom(), fareRule.getValidUntil());
+
+            // Multiplied in the same order as the per-request calculation did
+            for (int conditions = 0; conditions < totalSurgeByConditions.length; conditions++) {
+                BigDecimal total = BigDecimal.ONE;
+                if ((conditions & PEAK) != 0) {
+                    total = total.multiply(peakHourMultiplier);
+                }
+                if ((conditions & WEEKEND) != 0) {
+                    total = total.multiply(weekendMultiplier);
+                }
+                if ((conditions & FESTIVAL) != 0) {
+                    total = total.multiply(festivalMultiplier);
+                }
+                totalSurgeByConditions[conditions] = total.multiply(surgeMultiplier);
+            }
+        }
+
+        public static Rule compile(FareRule fareRule, Train train) {
+            return new Rule(fareRule, train);
+        }
+
+        private static Predicate<LocalDateTime> compileValidity(LocalDateTime from, LocalDateTime until) {
+            if (from == null && until == null) {
+                return date -> true;
+            }
+            if (until == null) {
+                return date -> !date.isBefore(from);
+            }
+            if (from == null) {
+                return date -> !date.isAfter(until);
+            }
+            return date -> !date.isBefore(from) && !date.isAfter(until);
+        }
+
+        private static BigDecimal orDefault(BigDecimal value, BigDecimal fallback) {
+            return value != null ? value : fallback;
+        }
+
+        /**
+         * Base fare for all passengers, pro-rated when the journey distance differs
+         * from the rule's distance
+         */
+        public BigDecimal baseFareFor(Integer journeyDistanceKm, int passengers) {
+            BigDecimal fare = baseFare;
+            if (journeyDistanceKm != null && perKmRate != null && !journeyDistanceKm.equals(distanceKm)) {
+                fare = perKmRate.multiply(new BigDecimal(journeyDistanceKm));
+            }
+            return fare.multiply(new BigDecimal(passengers));
+        }
+
+        /**
+         * Combined multiplier for a set of {@link #PEAK}, {@link #WEEKEND} and
+         * {@link #FESTIVAL} flags, including the rule's general surge multiplier
+         */
+        public BigDecimal totalSurgeMultiplier(int conditions) {
+            return totalSurgeByConditions[conditions];
+        }
+
+        public Long getId() { return id; }
+
+        public Long getTrainId() { return trainId; }
+
+        public String getTrainNumber() { return trainNumber; }
+
+        public String getTrainName() { return trainName; }
+
+        public Coach.CoachType getCoachType() { return coachType; }
+
+        public BigDecimal getPeakHourMultiplier() { return peakHourMultiplier; }
+
+        public BigDecimal getWeekendMultiplier() { return weekendMultiplier; }
+
+        public BigDecimal getFestivalMultiplier() { return festivalMultiplier; }
+
+        public BigDecimal getSurgeMultiplier() { return surgeMultiplier; }
+
+        public BigDecimal getLadiesQuotaDiscount() { return ladiesQuotaDiscount; }
+
+        public BigDecimal getSeniorCitizenDiscount() { return seniorCitizenDiscount; }
+
+        public BigDecimal getHandicappedDiscount() { return handicappedDiscount; }
+    }
+}
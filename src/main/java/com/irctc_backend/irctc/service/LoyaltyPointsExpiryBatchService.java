@@ -0,0 +1,266 @@
+package com.irctc_backend.irctc.service;
+
+import com.irctc_backend.irctc.entity.LoyaltyAccount;
+import com.irctc_backend.irctc.util.LoggingUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Set-based batch job that expires loyalty points.
+ *
+ * Instead of loading every expired transaction as an entity, the job splits the
+ * loyalty account ID space into ranges and processes each range in its own
+ * transaction on a bounded worker pool. Per range it aggregates the expiring
+ * points per account in SQL, applies all balance changes with a single MERGE,
+ * flags the source transactions and batch-inserts one EXPIRED ledger row per
+ * account. The transaction ID high-water mark captured at the start of a run
+ * keeps ranges consistent with each other, and because source rows are flagged
+ * in the same transaction as the balance update a re-run finds nothing left to expire.
+ *
+ * Runs on different instances, or a scheduled run and one started from the admin
+ * endpoint, would read the same unflagged rows, so each run first takes the
+ * job's row in batch_job_locks and gives it back when it is done.
+ */
+@Service
+public class LoyaltyPointsExpiryBatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoyaltyPointsExpiryBatchService.class);
+
+    private static final String EXPIRING_CONDITION =
+        "lt.loyalty_account_id BETWEEN ? AND ? AND lt.id <= ? AND lt.expiry_date < ? " +
+        "AND lt.is_expired = FALSE AND lt.points > 0 AND lt.transaction_type IN ('EARNED', 'BONUS', 'REFUND')";
+
+    private static final String AGGREGATE_SQL =
+        "SELECT lt.loyalty_account_id, SUM(lt.points) AS expiring_points, la.tier " +
+        "FROM loyalty_transactions lt JOIN loyalty_accounts la ON la.id = lt.loyalty_account_id " +
+        "WHERE " + EXPIRING_CONDITION + " GROUP BY lt.loyalty_account_id, la.tier";
+
+    private static final String UPDATE_ACCOUNTS_SQL =
+        "MERGE INTO loyalty_accounts la USING (" +
+        "SELECT lt.loyalty_account_id AS account_id, SUM(lt.points) AS expiring_points " +
+        "FROM loyalty_transactions lt WHERE " + EXPIRING_CONDITION + " GROUP BY lt.loyalty_account_id" +
+        ") e ON (la.id = e.account_id) WHEN MATCHED THEN UPDATE SET " +
+        "available_points = COALESCE(la.available_points, 0) - e.expiring_points, " +
+        "expired_points = COALESCE(la.expired_points, 0) + e.expiring_points, " +
+        "updated_at = ?";
+
+    private static final String MARK_EXPIRED_SQL =
+        "UPDATE loyalty_transactions lt SET is_expired = TRUE WHERE " + EXPIRING_CONDITION;
+
+    private static final String INSERT_LEDGER_SQL =
+        "INSERT INTO loyalty_transactions (loyalty_account_id, transaction_type, points, description, " +
+        "reference_id, reference_type, expiry_date, is_expired, tier_at_transaction, multiplier_applied, created_at) " +
+        "VALUES (?, 'EXPIRED', ?, ?, ?, 'ADMIN', NULL, TRUE, ?, 1, ?)";
+
+    static final String JOB_NAME = "LOYALTY_POINTS_EXPIRY";
+
+    private static final String TAKE_LOCK_SQL =
+        "UPDATE batch_job_locks SET locked_by = ?, locked_at = ?, locked_until = ? " +
+        "WHERE job_name = ? AND locked_until < ?";
+
+    private static final String INSERT_LOCK_SQL =
+        "INSERT INTO batch_job_locks (job_name, locked_by, locked_at, locked_until) VALUES (?, ?, ?, ?)";
+
+    private static final String RELEASE_LOCK_SQL =
+        "UPDATE batch_job_locks SET locked_until = ? WHERE job_name = ? AND locked_by = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${loyalty.expiry.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${loyalty.expiry.parallelism:4}")
+    private int parallelism;
+
+    // Longest a run may hold the lock before another instance may assume it died
+    @Value("${loyalty.expiry.lock-timeout-minutes:60}")
+    private int lockTimeoutMinutes;
+
+    /**
+     * Nightly expiry run
+     */
+    @Scheduled(cron = "${loyalty.expiry.cron:0 30 1 * * *}")
+    public void scheduledExpiry() {
+        try {
+            expirePoints(LocalDateTime.now());
+        } catch (IllegalStateException e) {
+            logger.info("Skipping scheduled loyalty points expiry: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Expire all points whose expiry date has passed at the cutoff, normally the run instant
+     *
+     * @return total number of points expired by this run
+     * @throws IllegalStateException when another run holds the job lock
+     */
+    public BigDecimal expirePoints(LocalDateTime cutoff) {
+        String requestId = LoggingUtil.generateRequestId();
+        if (!acquireLock(requestId)) {
+            throw new IllegalStateException("Loyalty points expiry is already running");
+        }
+        try {
+            return runExpiry(cutoff, requestId);
+        } finally {
+            releaseLock(requestId);
+        }
+    }
+
+    private BigDecimal runExpiry(LocalDateTime cutoff, String requestId) {
+        long startTime = System.currentTimeMillis();
+        LocalDate runDate = cutoff.toLocalDate();
+
+        Long[] bounds = jdbcTemplate.queryForObject(
+            "SELECT MIN(id), MAX(id) FROM loyalty_accounts",
+            (rs, rowNum) -> new Long[] { rs.getObject(1, Long.class), rs.getObject(2, Long.class) });
+        Long maxTransactionId = jdbcTemplate.queryForObject(
+            "SELECT MAX(id) FROM loyalty_transactions", Long.class);
+
+        if (bounds == null || bounds[0] == null || maxTransactionId == null) {
+            logger.info("No loyalty data to expire for run date {} - RequestId: {}", runDate, requestId);
+            return BigDecimal.ZERO;
+        }
+
+        logger.info("Starting loyalty points expiry for run date {} over accounts {}..{} - RequestId: {}",
+                   runDate, bounds[0], bounds[1], requestId);
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, parallelism));
+        List<Future<BigDecimal>> futures = new ArrayList<>();
+        try {
+            for (long from = bounds[0]; from <= bounds[1]; from += chunkSize) {
+                long to = Math.min(from + chunkSize - 1, bounds[1]);
+                long rangeFrom = from;
+                futures.add(executor.submit(() ->
+                    expireRange(rangeFrom, to, maxTransactionId, cutoff, runDate)));
+            }
+
+            BigDecimal totalExpired = BigDecimal.ZERO;
+            int failedChunks = 0;
+            for (Future<BigDecimal> future : futures) {
+                try {
+                    totalExpired = totalExpired.add(future.get());
+                } catch (Exception e) {
+                    failedChunks++;
+                    logger.error("Loyalty expiry chunk failed - RequestId: {}", requestId, e);
+                }
+            }
+
+            long processingTime = System.currentTimeMillis() - startTime;
+            logger.info("Completed loyalty points expiry for run date {} - RequestId: {}, Chunks: {}, " +
+                       "Failed chunks: {}, Points expired: {}, Processing time: {}ms",
+                       runDate, requestId, futures.size(), failedChunks, totalExpired, processingTime);
+            LoggingUtil.logBusinessOperation("LOYALTY_POINTS_EXPIRY", "BATCH_JOB", requestId, "SYSTEM",
+                                           String.format("Expired %s points in %dms", totalExpired, processingTime));
+            return totalExpired;
+        } finally {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Expire one account ID range in a single transaction
+     */
+    private BigDecimal expireRange(long fromAccountId, long toAccountId, long maxTransactionId,
+                                   LocalDateTime cutoff, LocalDate runDate) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        return transactionTemplate.execute(status -> {
+            Object[] conditionArgs = { fromAccountId, toAccountId, maxTransactionId, Timestamp.valueOf(cutoff) };
+
+            List<Object[]> ledgerRows = new ArrayList<>();
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            String referenceId = "EXPIRY-" + runDate;
+            BigDecimal[] chunkTotal = { BigDecimal.ZERO };
+
+            jdbcTemplate.query(AGGREGATE_SQL, rs -> {
+                BigDecimal points = rs.getBigDecimal("expiring_points");
+                chunkTotal[0] = chunkTotal[0].add(points);
+                ledgerRows.add(new Object[] {
+                    rs.getLong("loyalty_account_id"),
+                    points,
+                    "Points expired on " + runDate,
+                    referenceId,
+                    tierDisplayName(rs.getString("tier")),
+                    now
+                });
+            }, conditionArgs);
+
+            if (ledgerRows.isEmpty()) {
+                return BigDecimal.ZERO;
+            }
+
+            Object[] mergeArgs = new Object[conditionArgs.length + 1];
+            System.arraycopy(conditionArgs, 0, mergeArgs, 0, conditionArgs.length);
+            mergeArgs[conditionArgs.length] = now;
+            jdbcTemplate.update(UPDATE_ACCOUNTS_SQL, mergeArgs);
+            jdbcTemplate.update(MARK_EXPIRED_SQL, conditionArgs);
+            jdbcTemplate.batchUpdate(INSERT_LEDGER_SQL, ledgerRows);
+
+            logger.debug("Expired {} points across {} accounts in range {}..{}",
+                        chunkTotal[0], ledgerRows.size(), fromAccountId, toAccountId);
+            return chunkTotal[0];
+        });
+    }
+
+    /**
+     * Take the job's lock row, creating it on the very first run
+     */
+    private boolean acquireLock(String owner) {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp lockedAt = Timestamp.valueOf(now);
+        Timestamp lockedUntil = Timestamp.valueOf(now.plusMinutes(lockTimeoutMinutes));
+        if (jdbcTemplate.update(TAKE_LOCK_SQL, owner, lockedAt, lockedUntil, JOB_NAME, lockedAt) == 1) {
+            return true;
+        }
+        try {
+            return jdbcTemplate.update(INSERT_LOCK_SQL, JOB_NAME, owner, lockedAt, lockedUntil) == 1;
+        } catch (DuplicateKeyException e) {
+            // The row exists and another run holds it
+            return false;
+        }
+    }
+
+    private void releaseLock(String owner) {
+        try {
+            jdbcTemplate.update(RELEASE_LOCK_SQL, Timestamp.valueOf(LocalDateTime.now()), JOB_NAME, owner);
+        } catch (Exception e) {
+            logger.warn("Failed to release loyalty expiry lock, it lapses after {} minutes: {}",
+                       lockTimeoutMinutes, e.getMessage());
+        }
+    }
+
+    private String tierDisplayName(String tier) {
+        try {
+            return LoyaltyAccount.LoyaltyTier.valueOf(tier).getDisplayName();
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return tier;
+        }
+    }
+}
@@ -41,6 +41,9 @@ public class LoyaltyService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private LoyaltyPointsExpiryBatchService loyaltyPointsExpiryBatchService;
+    
     /**
      * Create loyalty account for user
      */
@@ -202,30 +205,11 @@ public class LoyaltyService {
     /**
      * Process expired points
      */
-    public void processExpiredPoints() {
+    public BigDecimal processExpiredPoints() {
         logger.info("Processing expired points");
         
-        LocalDateTime currentDate = LocalDateTime.now();
-        List<LoyaltyTransaction> expiredTransactions = loyaltyTransactionRepository.findExpiredTransactions(currentDate);
-        
-        for (LoyaltyTransaction transaction : expiredTransactions) {
-            if (transaction.getPoints().compareTo(BigDecimal.ZERO) > 0) {
-                // Mark transaction as expired
-                transaction.setIsExpired(true);
-                loyaltyTransactionRepository.save(transaction);
-                
-                // Update loyalty account
-                LoyaltyAccount account = transaction.getLoyaltyAccount();
-                account.setAvailablePoints(account.getAvailablePoints().subtract(transaction.getPoints()));
-                account.setExpiredPoints(account.getExpiredPoints().add(transaction.getPoints()));
-                loyaltyAccountRepository.save(account);
-                
-                // Create expired transaction record
-                createExpiredPointsTransaction(account, transaction.getPoints());
-                
-                logger.info("Expired {} points for user {}", transaction.getPoints(), account.getUser().getUsername());
-            }
-        }
+        // Delegates to the set-based batch job so expiry never loads transactions as entities
+        return loyaltyPointsExpiryBatchService.expirePoints(LocalDateTime.now());
     }
     
     // Helper methods
@@ -350,16 +334,4 @@ public class LoyaltyService {
         
         loyaltyTransactionRepository.save(transaction);
     }
-    
-    private void createExpiredPointsTransaction(LoyaltyAccount loyaltyAccount, BigDecimal points) {
-        LoyaltyTransaction transaction = new LoyaltyTransaction(
-            loyaltyAccount, 
-            LoyaltyTransaction.TransactionType.EXPIRED, 
-            points, 
-            "Points expired due to inactivity"
-        );
-        transaction.setReferenceType(LoyaltyTransaction.ReferenceType.ADMIN);
-        
-        loyaltyTransactionRepository.save(transaction);
-    }
 }
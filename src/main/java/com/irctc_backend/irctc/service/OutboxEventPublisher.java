@@ -0,0 +1,173 @@
+package com.irctc_backend.irctc.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.irctc_backend.irctc.entity.OutboxEvent;
+import com.irctc_backend.irctc.repository.OutboxEventRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls the outbox table and publishes pending events to Kafka.
+ *
+ * Polling runs on the publisher's own single-thread scheduler, so a slow or
+ * unreachable broker cannot hold up the application's other scheduled jobs.
+ * A batch is sent in ID order without waiting on each record; the sends are
+ * then awaited together against one deadline and each row is marked from its
+ * own outcome in a short transaction. A failed send is retried on the next
+ * poll until the event's retry limit is reached, after which it is marked FAILED.
+ *
+ * @author IRCTC Development Team
+ * @version 1.0.0
+ */
+@Service
+public class OutboxEventPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxEventPublisher.class);
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired(required = false)
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${outbox.publisher.batch-size:200}")
+    private int batchSize;
+
+    @Value("${outbox.publisher.send-timeout-ms:5000}")
+    private long sendTimeoutMs;
+
+    @Value("${outbox.publisher.delay:5000}")
+    private long delayMs;
+
+    private ThreadPoolTaskScheduler scheduler;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        if (kafkaTemplate == null) {
+            return;
+        }
+        scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("outbox-publisher-");
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationSeconds((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(sendTimeoutMs) + 1));
+        scheduler.initialize();
+        scheduler.scheduleWithFixedDelay(this::pollSafely, Instant.now().plusMillis(delayMs), Duration.ofMillis(delayMs));
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    /**
+     * Publish one batch of pending events
+     *
+     * @return number of events published
+     */
+    public int publishPendingEvents() {
+        if (kafkaTemplate == null) {
+            return 0;
+        }
+
+        List<OutboxEvent> pendingEvents = outboxEventRepository.findPendingEvents(PageRequest.of(0, batchSize));
+        if (pendingEvents.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<?>> sends = new ArrayList<>(pendingEvents.size());
+        for (OutboxEvent event : pendingEvents) {
+            try {
+                Object payload = objectMapper.readValue(event.getPayload(), Object.class);
+                sends.add(kafkaTemplate.send(event.getTopic(), event.getEventKey(), payload));
+            } catch (Exception e) {
+                sends.add(CompletableFuture.failedFuture(e));
+            }
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        int published = 0;
+        for (int i = 0; i < pendingEvents.size(); i++) {
+            OutboxEvent event = pendingEvents.get(i);
+            try {
+                sends.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                transactionTemplate.executeWithoutResult(status ->
+                    outboxEventRepository.markAsPublished(event.getId(), LocalDateTime.now()));
+                published++;
+            } catch (ExecutionException e) {
+                recordFailure(event, e.getCause() != null ? e.getCause() : e);
+            } catch (Exception e) {
+                recordFailure(event, e);
+            }
+        }
+
+        logger.info("Published {} of {} pending outbox events", published, pendingEvents.size());
+        return published;
+    }
+
+    private void pollSafely() {
+        try {
+            publishPendingEvents();
+        } catch (Exception e) {
+            // Keep the schedule alive; the rows stay pending for the next poll
+            logger.error("Outbox poll failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void recordFailure(OutboxEvent event, Throwable e) {
+        if (e instanceof InterruptedException) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> handlePublishFailure(event, e));
+        } catch (Exception updateFailure) {
+            logger.error("Failed to record publish failure of outbox event {}: {}",
+                        event.getId(), updateFailure.getMessage());
+        }
+    }
+
+    private void handlePublishFailure(OutboxEvent event, Throwable e) {
+        if (event.getRetryCount() + 1 >= event.getMaxRetries()) {
+            logger.error("Outbox event {} for topic {} failed {} times, marking as failed",
+                        event.getId(), event.getTopic(), event.getMaxRetries());
+            outboxEventRepository.markAsFailed(event.getId());
+        }
+        String errorMessage = e.getMessage();
+        if (errorMessage != null && errorMessage.length() > 500) {
+            errorMessage = errorMessage.substring(0, 500);
+        }
+        outboxEventRepository.incrementRetryCount(event.getId(), errorMessage);
+        logger.warn("Failed to publish outbox event {} to topic {}: {}",
+                   event.getId(), event.getTopic(), e.getMessage());
+    }
+}
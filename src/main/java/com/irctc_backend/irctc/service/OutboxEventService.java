@@ -0,0 +1,53 @@
+package com.irctc_backend.irctc.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.irctc_backend.irctc.entity.OutboxEvent;
+import com.irctc_backend.irctc.repository.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Writes events to the outbox table inside the caller's transaction.
+ * OutboxEventPublisher sends them to Kafka after the transaction commits,
+ * giving at-least-once delivery without a distributed transaction.
+ *
+ * @author IRCTC Development Team
+ * @version 1.0.0
+ */
+@Service
+public class OutboxEventService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxEventService.class);
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Save an event to the outbox; fails if no transaction is active
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public OutboxEvent saveEvent(String topic, String key, Object payload) {
+        try {
+            OutboxEvent event = new OutboxEvent();
+            event.setTopic(topic);
+            event.setEventKey(key);
+            event.setPayload(objectMapper.writeValueAsString(payload));
+            event.setStatus(OutboxEvent.OutboxStatus.PENDING);
+
+            OutboxEvent saved = outboxEventRepository.save(event);
+            logger.debug("Saved outbox event {} for topic {}", saved.getId(), topic);
+            return saved;
+
+        } catch (Exception e) {
+            logger.error("Error saving event to outbox for topic {}: {}", topic, e.getMessage(), e);
+            throw new RuntimeException("Failed to save event to outbox: " + e.getMessage(), e);
+        }
+    }
+}
@@ -7,6 +7,7 @@ import com.irctc_backend.irctc.dto.PaymentRequest;
 import com.irctc_backend.irctc.dto.PaymentResponse;
 import com.irctc_backend.irctc.entity.Booking;
 import com.irctc_backend.irctc.entity.Payment;
+import com.irctc_backend.irctc.events.BookingIndexEvent;
 import com.irctc_backend.irctc.repository.BookingRepository;
 import com.irctc_backend.irctc.repository.PaymentRepository;
 import com.irctc_backend.irctc.util.LoggingUtil;
@@ -18,6 +19,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -54,6 +56,9 @@ public class PaymentService {
     @Autowired
     private NotificationService notificationService;
     
+    @Autowired(required = false)
+    private ApplicationEventPublisher eventPublisher;
+    
     private RazorpayClient razorpayClient;
     
     /**
@@ -94,6 +99,7 @@ public class PaymentService {
             // Create payment record
             Payment payment = createPaymentRecord(paymentRequest, booking);
             payment = paymentRepository.save(payment);
+            publishIndexEvent(booking.getId());
             
             // Initialize Razorpay client
             initializeRazorpayClient();
@@ -228,6 +234,7 @@ public class PaymentService {
      * @return PaymentResponse with retry details
      */
     @ExecutionTime("Retry Payment")
+    @CacheEvict(value = {"bookings", "payments"}, allEntries = true)
     public PaymentResponse retryPayment(Long paymentId) {
         Payment payment = paymentRepository.findById(paymentId)
             .orElseThrow(() -> new RuntimeException("Payment not found"));
@@ -247,7 +254,8 @@ public class PaymentService {
         payment.setNextRetryAt(null);
         payment = paymentRepository.save(payment);
         
-        // Create new payment request and initiate
+        // Create new payment request and initiate; the self-call skips the proxy,
+        // so the new transaction ID is evicted from the caches by this method
         PaymentRequest retryRequest = createRetryPaymentRequest(payment);
         return initiatePayment(retryRequest);
     }
@@ -417,4 +425,13 @@ public class PaymentService {
         request.setCustomerPhone(payment.getBooking().getUser().getPhoneNumber());
         return request;
     }
+    
+    /**
+     * Lets the booking search index pick up the new transaction ID
+     */
+    private void publishIndexEvent(Long bookingId) {
+        if (eventPublisher != null) {
+            eventPublisher.publishEvent(new BookingIndexEvent(bookingId, BookingIndexEvent.Type.PAYMENT_UPDATED));
+        }
+    }
 }
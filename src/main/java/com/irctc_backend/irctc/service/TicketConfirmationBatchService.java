@@ -2,29 +2,46 @@ package com.irctc_backend.irctc.service;
 
 import com.irctc_backend.irctc.entity.*;
 import com.irctc_backend.irctc.events.TicketConfirmationEvent;
+import com.irctc_backend.irctc.events.TrainChartPreparedEvent;
 import com.irctc_backend.irctc.repository.*;
 import com.irctc_backend.irctc.util.LoggingUtil;
 import com.irctc_backend.irctc.metrics.TicketConfirmationMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 /**
  * Service responsible for batch processing of ticket confirmations
  * Automatically converts RAC and Waitlist tickets to confirmed status
  * and publishes events for notification services
+ *
+ * Trains are partitioned by departure window and the partitions processed in
+ * parallel on a bounded worker pool, departing-soonest window first. Each
+ * train is processed in its own transaction, which also writes the train's
+ * checkpoint and its completion event to the outbox. A run interrupted by a
+ * crash is resumed by the next run of the same type, skipping every train
+ * that already has a checkpoint.
  */
 @Service
 @EnableScheduling
@@ -56,52 +73,109 @@ public class TicketConfirmationBatchService {
     @Autowired
     private TicketConfirmationMetrics metrics;
     
+    @Autowired
+    private ChartPreparationRunRepository runRepository;
+    
+    @Autowired
+    private ChartPreparationCheckpointRepository checkpointRepository;
+    
+    @Autowired
+    private OutboxEventService outboxEventService;
+    
+    @Autowired
+    private WaitlistAllocationEngine allocationEngine;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${chart.preparation.parallelism:4}")
+    private int parallelism;
+    
+    @Value("${chart.preparation.window-minutes:120}")
+    private int windowMinutes;
+    
+    @Value("${chart.preparation.horizon-days:7}")
+    private int horizonDays;
+    
+    @Value("${chart.preparation.resume-max-age-hours:6}")
+    private int resumeMaxAgeHours;
+    
+    // Runs never overlap, so two runs can never confirm into the same seats
+    private final AtomicBoolean runInProgress = new AtomicBoolean(false);
+    
     /**
      * Main scheduled job that runs every 30 minutes to process ticket confirmations
      */
     @Scheduled(fixedRate = 1800000) // 30 minutes
     public void processTicketConfirmations() {
-        String requestId = LoggingUtil.generateRequestId();
-        long startTime = System.currentTimeMillis();
-        
-        logger.info("Starting ticket confirmation batch processing - RequestId: {}", requestId);
+        LocalDate today = LocalDate.now();
+        runBatch(ChartPreparationRun.RunType.ROLLING, today, today.plusDays(horizonDays - 1), null, null);
+    }
+    
+    /**
+     * Emergency batch processing for chart preparation (runs 4 hours before departure)
+     */
+    @Scheduled(cron = "0 0 */4 * * *") // Every 4 hours
+    public void processChartPreparationConfirmations() {
+        // Get trains departing in next 6 hours
+        LocalDateTime now = LocalDateTime.now();
+        runBatch(ChartPreparationRun.RunType.CHART, now.toLocalDate(), now.toLocalDate(), now, now.plusHours(6));
+    }
+    
+    /**
+     * Starts or resumes a run of the given type and processes its remaining trains
+     */
+    private void runBatch(ChartPreparationRun.RunType runType, LocalDate journeyDateFrom, LocalDate journeyDateTo,
+                          LocalDateTime departureFrom, LocalDateTime departureUntil) {
+        if (!runInProgress.compareAndSet(false, true)) {
+            logger.info("Skipping {} confirmation run, another run is still in progress", runType);
+            return;
+        }
         
-        // Record metrics
+        long startTime = System.currentTimeMillis();
         metrics.recordBatchProcessingRun();
         metrics.incrementActiveBatchJobs();
+        String requestId = LoggingUtil.generateRequestId();
         
         try {
-            // Get all active trains with upcoming journeys
-            List<Train> upcomingTrains = getUpcomingTrains();
-            logger.info("Found {} trains to process for confirmations", upcomingTrains.size());
-            
-            int totalConfirmations = 0;
-            
-            // Process each train
-            for (Train train : upcomingTrains) {
-                long trainStartTime = System.currentTimeMillis();
-                int trainConfirmations = processTrainConfirmations(train, requestId);
-                totalConfirmations += trainConfirmations;
-                
-                // Record train processing time
-                long trainProcessingTime = System.currentTimeMillis() - trainStartTime;
-                metrics.recordTrainProcessingTime(java.time.Duration.ofMillis(trainProcessingTime));
-            }
+            ChartPreparationRun run = resumeOrStartRun(runType, requestId, journeyDateFrom, journeyDateTo,
+                                                       departureFrom, departureUntil);
+            requestId = run.getRequestId();
+            
+            Set<Long> finishedTrainIds = new HashSet<>(checkpointRepository.findTrainIdsByRunId(run.getId()));
+            List<Train> trains = selectTrains(run);
+            List<Train> remaining = trains.stream()
+                .filter(train -> !finishedTrainIds.contains(train.getId()))
+                .collect(Collectors.toList());
+            List<List<Train>> partitions = partitionByDepartureWindow(remaining, LocalTime.now());
+            
+            logger.info("Starting {} confirmation run {} - RequestId: {}, Trains: {}, Already finished: {}, " +
+                       "Departure windows: {}", runType, run.getId(), requestId, trains.size(),
+                       trains.size() - remaining.size(), partitions.size());
+            
+            int[] outcome = processPartitions(run, partitions, requestId);
             
             long processingTime = System.currentTimeMillis() - startTime;
+            run.setStatus(ChartPreparationRun.RunStatus.COMPLETED);
+            run.setTotalTrains(trains.size());
+            run.setCompletedTrains(checkpointRepository.findTrainIdsByRunId(run.getId()).size());
+            run.setFailedTrains(outcome[1]);
+            run.setTotalConfirmations(checkpointRepository.sumConfirmationsByRunId(run.getId()).intValue());
+            run.setFinishedAt(LocalDateTime.now());
+            runRepository.save(run);
             
-            // Record batch processing time
-            metrics.recordBatchProcessingTime(java.time.Duration.ofMillis(processingTime));
+            metrics.recordBatchProcessingTime(Duration.ofMillis(processingTime));
+            metrics.recordRunThroughput(outcome[0], Duration.ofMillis(processingTime));
             
-            logger.info("Completed ticket confirmation batch processing - RequestId: {}, " +
-                       "Total confirmations: {}, Processing time: {}ms", 
-                       requestId, totalConfirmations, processingTime);
+            logger.info("Completed {} confirmation run {} - RequestId: {}, Trains processed: {}, Failed: {}, " +
+                       "Total confirmations: {}, Processing time: {}ms", runType, run.getId(), requestId,
+                       outcome[0], outcome[1], run.getTotalConfirmations(), processingTime);
             
             // Log batch processing metrics
             LoggingUtil.logBusinessOperation("BATCH_CONFIRMATION_PROCESSING", "BATCH_JOB", 
                                            requestId, "SYSTEM", 
-                                           String.format("Processed %d confirmations in %dms", 
-                                                        totalConfirmations, processingTime));
+                                           String.format("Processed %d trains, %d confirmations in %dms", 
+                                                        outcome[0], run.getTotalConfirmations(), processingTime));
             
         } catch (Exception e) {
             logger.error("Error in ticket confirmation batch processing - RequestId: {}", requestId, e);
@@ -110,36 +184,210 @@ public class TicketConfirmationBatchService {
                                "SYSTEM", "Batch processing failed", e);
         } finally {
             metrics.decrementActiveBatchJobs();
+            runInProgress.set(false);
         }
     }
     
     /**
-     * Process confirmations for a specific train
+     * Picks up the last unfinished run of this type, or starts a new one.
+     * Runs older than the resume limit are abandoned rather than resumed.
+     */
+    private ChartPreparationRun resumeOrStartRun(ChartPreparationRun.RunType runType, String requestId,
+                                                 LocalDate journeyDateFrom, LocalDate journeyDateTo,
+                                                 LocalDateTime departureFrom, LocalDateTime departureUntil) {
+        Optional<ChartPreparationRun> unfinished = runRepository
+            .findFirstByRunTypeAndStatusOrderByStartedAtDesc(runType, ChartPreparationRun.RunStatus.RUNNING);
+        if (unfinished.isPresent()) {
+            ChartPreparationRun run = unfinished.get();
+            if (run.getStartedAt().isAfter(LocalDateTime.now().minusHours(resumeMaxAgeHours))) {
+                logger.info("Resuming interrupted {} confirmation run {} started at {} - RequestId: {}",
+                           runType, run.getId(), run.getStartedAt(), run.getRequestId());
+                return run;
+            }
+            logger.warn("Abandoning stale {} confirmation run {} started at {}", runType, run.getId(), run.getStartedAt());
+            run.setStatus(ChartPreparationRun.RunStatus.ABANDONED);
+            run.setFinishedAt(LocalDateTime.now());
+            runRepository.save(run);
+        }
+        
+        ChartPreparationRun run = new ChartPreparationRun();
+        run.setRunType(runType);
+        run.setRequestId(requestId);
+        run.setJourneyDateFrom(journeyDateFrom);
+        run.setJourneyDateTo(journeyDateTo);
+        run.setDepartureFrom(departureFrom);
+        run.setDepartureUntil(departureUntil);
+        run.setStartedAt(LocalDateTime.now());
+        return runRepository.save(run);
+    }
+    
+    /**
+     * Active trains for the run, restricted to its departure window when it has one
+     */
+    private List<Train> selectTrains(ChartPreparationRun run) {
+        List<Train> trains = getUpcomingTrains();
+        if (run.getDepartureFrom() == null) {
+            return trains;
+        }
+        return trains.stream()
+            .filter(train -> {
+                if (train.getDepartureTime() == null) return false;
+                LocalDateTime departureTime = LocalDateTime.of(run.getJourneyDateFrom(), train.getDepartureTime());
+                return departureTime.isAfter(run.getDepartureFrom()) && departureTime.isBefore(run.getDepartureUntil());
+            })
+            .collect(Collectors.toList());
+    }
+    
+    /**
+     * Groups trains into departure windows of windowMinutes, ordered so the
+     * window departing soonest after now comes first. Trains within a window
+     * are ordered by departure time, then ID.
+     */
+    List<List<Train>> partitionByDepartureWindow(List<Train> trains, LocalTime now) {
+        int windowsPerDay = Math.max(1, (24 * 60 + windowMinutes - 1) / windowMinutes);
+        int currentWindow = (now.toSecondOfDay() / 60) / windowMinutes;
+        
+        Map<Integer, List<Train>> windows = new TreeMap<>();
+        for (Train train : trains) {
+            LocalTime departure = train.getDepartureTime() != null ? train.getDepartureTime() : LocalTime.MIDNIGHT;
+            int window = (departure.toSecondOfDay() / 60) / windowMinutes;
+            // Windows already past today sort after the ones still ahead
+            int order = Math.floorMod(window - currentWindow, windowsPerDay);
+            windows.computeIfAbsent(order, k -> new ArrayList<>()).add(train);
+        }
+        
+        Comparator<Train> byDeparture = Comparator
+            .comparing((Train train) -> train.getDepartureTime(), Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Train::getId);
+        List<List<Train>> partitions = new ArrayList<>(windows.size());
+        for (List<Train> window : windows.values()) {
+            window.sort(byDeparture);
+            partitions.add(window);
+        }
+        return partitions;
+    }
+    
+    /**
+     * Processes each departure window on a bounded worker pool, trains within a
+     * window one after the other
+     *
+     * @return trains processed and trains failed
+     */
+    private int[] processPartitions(ChartPreparationRun run, List<List<Train>> partitions, String requestId) {
+        if (partitions.isEmpty()) {
+            return new int[] { 0, 0 };
+        }
+        
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, partitions.size())));
+        List<Future<int[]>> futures = new ArrayList<>();
+        try {
+            for (List<Train> partition : partitions) {
+                futures.add(executor.submit(() -> processPartition(run, partition, requestId)));
+            }
+            
+            int processed = 0;
+            int failed = 0;
+            for (Future<int[]> future : futures) {
+                try {
+                    int[] outcome = future.get();
+                    processed += outcome[0];
+                    failed += outcome[1];
+                } catch (Exception e) {
+                    logger.error("Confirmation partition failed - RequestId: {}", requestId, e);
+                }
+            }
+            return new int[] { processed, failed };
+        } finally {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    private int[] processPartition(ChartPreparationRun run, List<Train> trains, String requestId) {
+        int processed = 0;
+        int failed = 0;
+        for (Train train : trains) {
+            long trainStartTime = System.currentTimeMillis();
+            try {
+                processTrainWithCheckpoint(run, train, requestId);
+                processed++;
+                metrics.recordTrainProcessed();
+            } catch (Exception e) {
+                // Rolled back without a checkpoint, so the train is retried by the next run
+                failed++;
+                metrics.recordTrainFailed();
+                logger.error("Confirmation transaction failed for train: {} - RequestId: {}", 
+                            train.getTrainNumber(), requestId, e);
+            }
+            
+            // Record train processing time
+            metrics.recordTrainProcessingTime(Duration.ofMillis(System.currentTimeMillis() - trainStartTime));
+        }
+        return new int[] { processed, failed };
+    }
+    
+    /**
+     * One transaction per train: its confirmations, its checkpoint and its
+     * completion event commit or roll back together
+     */
+    private void processTrainWithCheckpoint(ChartPreparationRun run, Train train, String requestId) {
+        long trainStartTime = System.currentTimeMillis();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            int confirmations = processTrainConfirmations(train, run.getJourneyDateFrom(), run.getJourneyDateTo(), requestId);
+            long processingTime = System.currentTimeMillis() - trainStartTime;
+            LocalDateTime completedAt = LocalDateTime.now();
+            
+            ChartPreparationCheckpoint checkpoint = new ChartPreparationCheckpoint();
+            checkpoint.setRunId(run.getId());
+            checkpoint.setTrainId(train.getId());
+            checkpoint.setTrainNumber(train.getTrainNumber());
+            checkpoint.setConfirmations(confirmations);
+            checkpoint.setProcessingTimeMs(processingTime);
+            checkpoint.setCompletedAt(completedAt);
+            checkpointRepository.save(checkpoint);
+            
+            TrainChartPreparedEvent event = TrainChartPreparedEvent.builder()
+                .runId(run.getId())
+                .runType(run.getRunType().name())
+                .trainId(train.getId())
+                .trainNumber(train.getTrainNumber())
+                .departureTime(train.getDepartureTime())
+                .journeyDateFrom(run.getJourneyDateFrom())
+                .journeyDateTo(run.getJourneyDateTo())
+                .confirmations(confirmations)
+                .processingTimeMs(processingTime)
+                .completedAt(completedAt)
+                .build();
+            outboxEventService.saveEvent(TrainChartPreparedEvent.TOPIC, String.valueOf(train.getId()), event);
+        });
+    }
+    
+    /**
+     * Process confirmations for a specific train over a range of journey dates
      */
     @Transactional
-    public int processTrainConfirmations(Train train, String requestId) {
+    public int processTrainConfirmations(Train train, LocalDate journeyDateFrom, LocalDate journeyDateTo, String requestId) {
         logger.info("Processing confirmations for train: {} - RequestId: {}", 
                    train.getTrainNumber(), requestId);
         
         int totalConfirmations = 0;
         
-        try {
-            // Get journey dates for next 7 days
-            LocalDate today = LocalDate.now();
-            for (int i = 0; i < 7; i++) {
-                LocalDate journeyDate = today.plusDays(i);
-                int dateConfirmations = processJourneyDateConfirmations(train, journeyDate, requestId);
-                totalConfirmations += dateConfirmations;
+        for (LocalDate journeyDate = journeyDateFrom; !journeyDate.isAfter(journeyDateTo); journeyDate = journeyDate.plusDays(1)) {
+            int dateConfirmations = processJourneyDateConfirmations(train, journeyDate, requestId);
+            totalConfirmations += dateConfirmations;
+            if (dateConfirmations > 0) {
+                // Confirmations here bypass the allocation queues, so resync them once this commits
+                allocationEngine.refresh(train.getId(), journeyDate);
             }
-            
-            logger.info("Completed processing for train: {}, Total confirmations: {} - RequestId: {}", 
-                       train.getTrainNumber(), totalConfirmations, requestId);
-            
-        } catch (Exception e) {
-            logger.error("Error processing confirmations for train: {} - RequestId: {}", 
-                        train.getTrainNumber(), requestId, e);
         }
         
+        logger.info("Completed processing for train: {}, Total confirmations: {} - RequestId: {}", 
+                   train.getTrainNumber(), totalConfirmations, requestId);
+        
         return totalConfirmations;
     }
     
@@ -480,7 +728,10 @@ public class TicketConfirmationBatchService {
             Train train = trainRepository.findById(trainId)
                 .orElseThrow(() -> new RuntimeException("Train not found with ID: " + trainId));
             
-            return processTrainConfirmations(train, requestId);
+            LocalDate today = LocalDate.now();
+            Integer confirmations = new TransactionTemplate(transactionManager).execute(status ->
+                processTrainConfirmations(train, today, today.plusDays(horizonDays - 1), requestId));
+            return confirmations != null ? confirmations : 0;
             
         } catch (Exception e) {
             logger.error("Error in manual train confirmation processing - TrainId: {}, RequestId: {}", 
@@ -488,40 +739,4 @@ public class TicketConfirmationBatchService {
             return 0;
         }
     }
-    
-    /**
-     * Emergency batch processing for chart preparation (runs 4 hours before departure)
-     */
-    @Scheduled(cron = "0 0 */4 * * *") // Every 4 hours
-    public void processChartPreparationConfirmations() {
-        String requestId = LoggingUtil.generateRequestId();
-        logger.info("Starting chart preparation confirmation processing - RequestId: {}", requestId);
-        
-        try {
-            // Get trains departing in next 6 hours
-            LocalDateTime now = LocalDateTime.now();
-            LocalDateTime sixHoursFromNow = now.plusHours(6);
-            
-            List<Train> departingTrains = trainRepository.findAll()
-                .stream()
-                .filter(train -> {
-                    if (!train.getIsRunning()) return false;
-                    LocalDateTime departureTime = LocalDateTime.of(LocalDate.now(), train.getDepartureTime());
-                    return departureTime.isAfter(now) && departureTime.isBefore(sixHoursFromNow);
-                })
-                .collect(Collectors.toList());
-            
-            int totalConfirmations = 0;
-            for (Train train : departingTrains) {
-                int confirmations = processTrainConfirmations(train, requestId);
-                totalConfirmations += confirmations;
-            }
-            
-            logger.info("Completed chart preparation processing - RequestId: {}, Confirmations: {}", 
-                       requestId, totalConfirmations);
-            
-        } catch (Exception e) {
-            logger.error("Error in chart preparation processing - RequestId: {}", requestId, e);
-        }
-    }
 }
@@ -1,15 +1,18 @@
 package com.irctc_backend.irctc.service;
 
 import com.irctc_backend.irctc.entity.User;
+import com.irctc_backend.irctc.events.BookingIndexEvent;
 import com.irctc_backend.irctc.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
@@ -21,6 +24,9 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Autowired(required = false)
+    private ApplicationEventPublisher eventPublisher;
+    
     @CacheEvict(value = {"user-sessions", "stations"}, allEntries = true)
     public User registerUser(User user) {
         // Check if username already exists
@@ -96,10 +102,15 @@ public class UserService {
         return userRepository.findByEmailContaining(email);
     }
     
-    @CacheEvict(value = "user-sessions", allEntries = true)
+    /**
+     * Bookings are searchable by the user's mobile number, so a new number also
+     * drops the cached booking searches and re-keys the user's bookings
+     */
+    @CacheEvict(value = {"user-sessions", "bookings"}, allEntries = true)
     public User updateUser(User user) {
         User existingUser = userRepository.findById(user.getId())
             .orElseThrow(() -> new RuntimeException("User not found"));
+        boolean phoneChanged = !Objects.equals(existingUser.getPhoneNumber(), user.getPhoneNumber());
         
         // Update fields
         existingUser.setFirstName(user.getFirstName());
@@ -111,7 +122,11 @@ public class UserService {
         existingUser.setIdProofNumber(user.getIdProofNumber());
         existingUser.setUpdatedAt(LocalDateTime.now());
         
-        return userRepository.save(existingUser);
+        User savedUser = userRepository.save(existingUser);
+        if (phoneChanged && eventPublisher != null) {
+            eventPublisher.publishEvent(BookingIndexEvent.userUpdated(savedUser.getId()));
+        }
+        return savedUser;
     }
     
     @CacheEvict(value = "user-sessions", allEntries = true)
@@ -0,0 +1,521 @@
+package com.irctc_backend.irctc.service;
+
+import com.irctc_backend.irctc.entity.Coach;
+import com.irctc_backend.irctc.entity.RacEntry;
+import com.irctc_backend.irctc.entity.Seat;
+import com.irctc_backend.irctc.entity.WaitlistEntry;
+import com.irctc_backend.irctc.events.SeatReleasedEvent;
+import com.irctc_backend.irctc.events.WaitlistPromotionEvent;
+import com.irctc_backend.irctc.repository.RacRepository;
+import com.irctc_backend.irctc.repository.SeatRepository;
+import com.irctc_backend.irctc.repository.WaitlistRepository;
+import com.irctc_backend.irctc.service.WaitlistAllocationQueues.Key;
+import com.irctc_backend.irctc.service.WaitlistAllocationQueues.Promotion;
+import com.irctc_backend.irctc.service.WaitlistAllocationQueues.PromotionType;
+import com.irctc_backend.irctc.service.WaitlistAllocationQueues.QueuedEntry;
+import com.irctc_backend.irctc.service.WaitlistAllocationQueues.SeatSlot;
+import com.irctc_backend.irctc.util.LoggingUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Promotes waitlist and RAC passengers when seats are released.
+ *
+ * Cancellations only mark their (train, date, class) as pending. A drain takes
+ * the pending keys in a fixed order and promotes them in batches, each batch in
+ * one transaction: one seat query per train and class, one bulk load each for
+ * the entries and berths involved, and the promotions plus their outbox
+ * notifications written together. Promotions therefore commit or roll back as a batch, and a
+ * passenger is notified only about promotions that committed.
+ *
+ * Queues live in {@link WaitlistAllocationQueues}, built from the database when
+ * the application is ready. Entries changed behind the engine's back (expired,
+ * cancelled, confirmed by another job) are detected when a batch loads them,
+ * dropped from the queues and their seats retried in the next drain.
+ */
+@Service
+public class WaitlistAllocationEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(WaitlistAllocationEngine.class);
+
+    private final WaitlistAllocationQueues queues = new WaitlistAllocationQueues();
+    private final Set<Key> pendingKeys = ConcurrentHashMap.newKeySet();
+    private final Set<Key> staleKeys = ConcurrentHashMap.newKeySet();
+    private volatile boolean ready;
+
+    @Autowired
+    private WaitlistRepository waitlistRepository;
+
+    @Autowired
+    private RacRepository racRepository;
+
+    @Autowired
+    private SeatRepository seatRepository;
+
+    @Autowired
+    private OutboxEventService outboxEventService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${waitlist.allocation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${waitlist.allocation.batch-size:50}")
+    private int batchSize;
+
+    private TransactionTemplate batchTransaction;
+
+    /**
+     * Loads every open waitlist and RAC entry from today onwards
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        LocalDateTime from = LocalDate.now().atStartOfDay();
+        // Well beyond the advance reservation period
+        LocalDateTime until = from.plusYears(1);
+
+        queues.clear();
+        List<Object[]> waitlistRows = waitlistRepository.findPendingQueueRows(from, until);
+        List<Object[]> racRows = racRepository.findActiveQueueRows(from, until);
+        waitlistRows.forEach(row -> queues.addWaitlist(keyOf(row), waitlistEntryOf(row)));
+        racRows.forEach(row -> queues.addRac(keyOf(row), racEntryOf(row)));
+        staleKeys.clear();
+        ready = true;
+
+        logger.info("Waitlist allocation queues built: {} waitlist and {} RAC entries across {} train/date/class keys in {} ms",
+                   waitlistRows.size(), racRows.size(), queues.keys().size(), System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * Marks the released seat's (train, date, class) for the next drain
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeatReleased(SeatReleasedEvent event) {
+        if (event.getTrainId() == null || event.getCoachType() == null || event.getJourneyDate() == null) {
+            return;
+        }
+        pendingKeys.add(new Key(event.getTrainId(), event.getJourneyDate(), event.getCoachType()));
+    }
+
+    /**
+     * Queues a new waitlist entry once the current transaction commits
+     */
+    public void enqueue(WaitlistEntry entry) {
+        Key key = keyOf(entry);
+        QueuedEntry queued = new QueuedEntry(entry.getId(), entry.getWaitlistNumber(), entry.getQuotaType(),
+            entry.getCoach().getId(), null);
+        afterCommit(() -> queues.addWaitlist(key, queued));
+    }
+
+    /**
+     * Drops a cancelled waitlist entry once the current transaction commits
+     */
+    public void dequeue(WaitlistEntry entry) {
+        Key key = keyOf(entry);
+        Long entryId = entry.getId();
+        afterCommit(() -> queues.removeWaitlist(key, entryId));
+    }
+
+    /**
+     * Reloads one train and date from the database after the current transaction
+     * commits, for code paths that change waitlist or RAC state directly
+     */
+    public void refresh(Long trainId, LocalDate journeyDate) {
+        afterCommit(() -> reload(trainId, journeyDate));
+    }
+
+    @Scheduled(fixedDelayString = "${waitlist.allocation.drain-delay:2000}")
+    public void drainPendingKeys() {
+        if (!ready || pendingKeys.isEmpty()) {
+            return;
+        }
+        TreeSet<Key> keys = new TreeSet<>();
+        for (Key key : List.copyOf(pendingKeys)) {
+            pendingKeys.remove(key);
+            keys.add(key);
+        }
+        allocate(keys);
+    }
+
+    /**
+     * Promotes every class of a train and date now, for chart preparation and
+     * manual triggers. Returns the number of promotions by type.
+     */
+    public Map<PromotionType, Integer> allocateNow(Long trainId, LocalDate journeyDate) {
+        if (!ready) {
+            logger.warn("Waitlist allocation queues not built yet, skipping train: {}, date: {}", trainId, journeyDate);
+            return new EnumMap<>(PromotionType.class);
+        }
+        TreeSet<Key> keys = new TreeSet<>();
+        for (Coach.CoachType coachType : Coach.CoachType.values()) {
+            keys.add(new Key(trainId, journeyDate, coachType));
+        }
+        return allocate(keys);
+    }
+
+    public int waitlistSize(Long trainId, LocalDate journeyDate, Coach.CoachType coachType) {
+        return queues.waitlistSize(new Key(trainId, journeyDate, coachType));
+    }
+
+    public int racSize(Long trainId, LocalDate journeyDate, Coach.CoachType coachType) {
+        return queues.racSize(new Key(trainId, journeyDate, coachType));
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Runs batches of at most batchSize keys, one transaction each, in key order
+     */
+    private synchronized Map<PromotionType, Integer> allocate(TreeSet<Key> keys) {
+        Map<PromotionType, Integer> totals = new EnumMap<>(PromotionType.class);
+        refreshStaleKeys();
+
+        List<Key> batch = new ArrayList<>(batchSize);
+        for (Key key : keys) {
+            if (!queues.hasEntries(key)) {
+                continue;
+            }
+            batch.add(key);
+            if (batch.size() == batchSize) {
+                runBatch(batch, totals);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            runBatch(batch, totals);
+        }
+        return totals;
+    }
+
+    private void runBatch(List<Key> keys, Map<PromotionType, Integer> totals) {
+        String batchId = LoggingUtil.generateRequestId();
+        long startTime = System.currentTimeMillis();
+        try {
+            List<BatchOutcome> outcomes = transaction().execute(status -> applyBatch(keys, batchId));
+            // Only now is the batch durable, so only now do the queues move
+            int promoted = 0;
+            for (BatchOutcome outcome : outcomes) {
+                queues.commit(outcome.key, outcome.removedWaitlistIds, outcome.removedRacIds, outcome.addedRac);
+                outcome.counts.forEach((type, count) -> totals.merge(type, count, Integer::sum));
+                promoted += outcome.counts.values().stream().mapToInt(Integer::intValue).sum();
+                if (outcome.hadStaleEntries) {
+                    pendingKeys.add(outcome.key);
+                }
+            }
+            if (promoted > 0) {
+                logger.info("Waitlist allocation batch {}: {} promotions across {} keys in {} ms",
+                           batchId, promoted, keys.size(), System.currentTimeMillis() - startTime);
+            }
+        } catch (Exception e) {
+            logger.error("Waitlist allocation batch {} rolled back for {} keys: {}", batchId, keys.size(), e.getMessage(), e);
+            // Reload before retrying in case the queues no longer match the database
+            staleKeys.addAll(keys);
+            pendingKeys.addAll(keys);
+        }
+    }
+
+    private List<BatchOutcome> applyBatch(List<Key> keys, String batchId) {
+        // Plan every key against its free seats. Seat status is not kept per
+        // journey date, so keys for the same train and class on different dates
+        // share one pool, and a seat planned for one key is gone for the next.
+        Map<Key, List<Promotion>> plans = new HashMap<>();
+        Map<Long, Seat> seats = new HashMap<>();
+        Map<String, Map<Long, SeatSlot>> freeSeatPools = new HashMap<>();
+        Set<Long> waitlistIds = new HashSet<>();
+        Set<Long> racIds = new HashSet<>();
+        Set<Long> berthIds = new HashSet<>();
+        for (Key key : keys) {
+            Map<Long, SeatSlot> pool = freeSeatPools.computeIfAbsent(key.trainId() + "|" + key.coachType(),
+                k -> loadFreeSeats(key, seats));
+            List<Promotion> plan = queues.plan(key, pool.values());
+            plans.put(key, plan);
+            for (Promotion promotion : plan) {
+                if (promotion.type() == PromotionType.RAC_TO_CONFIRMED) {
+                    racIds.add(promotion.entry().id());
+                } else {
+                    waitlistIds.add(promotion.entry().id());
+                }
+                if (promotion.type() == PromotionType.WAITLIST_TO_RAC) {
+                    berthIds.add(promotion.seatId());
+                } else {
+                    pool.remove(promotion.seatId());
+                }
+            }
+        }
+
+        // One bulk load per entity type for the whole batch
+        Map<Long, WaitlistEntry> waitlistEntries = byId(waitlistRepository.findAllById(waitlistIds), WaitlistEntry::getId);
+        Map<Long, RacEntry> racEntries = byId(racRepository.findAllById(racIds), RacEntry::getId);
+        Map<Long, Seat> berths = byId(seatRepository.findAllById(berthIds), Seat::getId);
+        Map<String, Integer> nextRacNumbers = new HashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        List<BatchOutcome> outcomes = new ArrayList<>(keys.size());
+        List<WaitlistEntry> changedWaitlist = new ArrayList<>();
+        List<RacEntry> changedRac = new ArrayList<>();
+        for (Key key : keys) {
+            BatchOutcome outcome = new BatchOutcome(key);
+            Set<Long> vacatedBerths = new HashSet<>();
+            for (Promotion promotion : plans.get(key)) {
+                switch (promotion.type()) {
+                    case RAC_TO_CONFIRMED -> {
+                        RacEntry racEntry = racEntries.get(promotion.entry().id());
+                        outcome.removedRacIds.add(promotion.entry().id());
+                        if (racEntry == null || racEntry.getStatus() != RacEntry.RacStatus.RAC) {
+                            outcome.hadStaleEntries = true;
+                            continue;
+                        }
+                        Seat seat = seats.get(promotion.seatId());
+                        racEntry.setStatus(RacEntry.RacStatus.CONFIRMED);
+                        racEntry.setConfirmedAt(now);
+                        racEntry.setSeat(seat);
+                        racEntry.setCoach(seat.getCoach());
+                        seat.setStatus(Seat.SeatStatus.BOOKED);
+                        changedRac.add(racEntry);
+                        vacatedBerths.add(promotion.entry().berthSeatId());
+                        notify(batchId, promotion, key, null, racEntry, seat, now);
+                        outcome.count(promotion.type());
+                    }
+                    case WAITLIST_TO_CONFIRMED -> {
+                        WaitlistEntry entry = waitlistEntries.get(promotion.entry().id());
+                        outcome.removedWaitlistIds.add(promotion.entry().id());
+                        if (entry == null || entry.getStatus() != WaitlistEntry.WaitlistStatus.PENDING) {
+                            outcome.hadStaleEntries = true;
+                            continue;
+                        }
+                        Seat seat = seats.get(promotion.seatId());
+                        entry.setStatus(WaitlistEntry.WaitlistStatus.CONFIRMED);
+                        entry.setConfirmedAt(now);
+                        entry.setCoach(seat.getCoach());
+                        seat.setStatus(Seat.SeatStatus.BOOKED);
+                        changedWaitlist.add(entry);
+                        notify(batchId, promotion, key, entry, null, seat, now);
+                        outcome.count(promotion.type());
+                    }
+                    case WAITLIST_TO_RAC -> {
+                        WaitlistEntry entry = waitlistEntries.get(promotion.entry().id());
+                        if (!vacatedBerths.contains(promotion.seatId())) {
+                            // The RAC passenger ahead was stale, so the berth is still taken
+                            continue;
+                        }
+                        outcome.removedWaitlistIds.add(promotion.entry().id());
+                        if (entry == null || entry.getStatus() != WaitlistEntry.WaitlistStatus.PENDING) {
+                            outcome.hadStaleEntries = true;
+                            continue;
+                        }
+                        Seat berth = berths.get(promotion.seatId());
+                        RacEntry racEntry = toRacEntry(entry, berth, nextRacNumber(nextRacNumbers, entry));
+                        racEntry = racRepository.save(racEntry);
+                        entry.setStatus(WaitlistEntry.WaitlistStatus.RAC);
+                        changedWaitlist.add(entry);
+                        outcome.addedRac.add(new QueuedEntry(racEntry.getId(), racEntry.getRacNumber(),
+                            entry.getQuotaType(), berth.getCoach().getId(), berth.getId()));
+                        notify(batchId, promotion, key, entry, racEntry, berth, now);
+                        outcome.count(promotion.type());
+                    }
+                }
+            }
+            outcomes.add(outcome);
+        }
+
+        waitlistRepository.saveAll(changedWaitlist);
+        racRepository.saveAll(changedRac);
+        seatRepository.saveAll(seats.values().stream()
+            .filter(seat -> seat.getStatus() == Seat.SeatStatus.BOOKED)
+            .collect(Collectors.toList()));
+        return outcomes;
+    }
+
+    /**
+     * Free seats of the key's train and class, in seat order, keyed by seat ID
+     */
+    private Map<Long, SeatSlot> loadFreeSeats(Key key, Map<Long, Seat> seats) {
+        List<Seat> freeSeats = seatRepository.findAvailableSeatsByTrainAndCoachType(key.trainId(), key.coachType());
+        Map<Long, SeatSlot> slots = new LinkedHashMap<>(freeSeats.size() * 2);
+        for (Seat seat : freeSeats) {
+            seats.put(seat.getId(), seat);
+            slots.put(seat.getId(), new SeatSlot(seat.getId(), seat.getCoach().getId()));
+        }
+        return slots;
+    }
+
+    private RacEntry toRacEntry(WaitlistEntry entry, Seat berth, int racNumber) {
+        RacEntry racEntry = new RacEntry();
+        racEntry.setUser(entry.getUser());
+        racEntry.setTrain(entry.getTrain());
+        racEntry.setCoach(berth.getCoach());
+        racEntry.setSeat(berth);
+        racEntry.setJourneyDate(entry.getJourneyDate());
+        racEntry.setRacNumber(racNumber);
+        racEntry.setStatus(RacEntry.RacStatus.RAC);
+        racEntry.setQuotaType(RacEntry.QuotaType.valueOf(entry.getQuotaType().name()));
+        racEntry.setPassengerCount(entry.getPassengerCount());
+        racEntry.setBerthType(entry.getPreferredBerthType());
+        racEntry.setSeatType(entry.getPreferredSeatType());
+        racEntry.setIsLadiesQuota(entry.getIsLadiesQuota());
+        racEntry.setIsSeniorCitizenQuota(entry.getIsSeniorCitizenQuota());
+        racEntry.setIsHandicappedFriendly(entry.getIsHandicappedFriendly());
+        racEntry.setAutoUpgradeEnabled(entry.getAutoUpgradeEnabled());
+        racEntry.setPriorityScore(entry.getPriorityScore());
+        return racEntry;
+    }
+
+    /**
+     * Next RAC number per (train, journey date, quota), read once per batch
+     */
+    private int nextRacNumber(Map<String, Integer> nextRacNumbers, WaitlistEntry entry) {
+        String quotaKey = entry.getTrain().getId() + "|" + entry.getJourneyDate() + "|" + entry.getQuotaType();
+        int next = nextRacNumbers.computeIfAbsent(quotaKey, k -> racRepository
+            .findMaxRacNumberByTrainDateAndQuota(entry.getTrain(), entry.getJourneyDate(),
+                RacEntry.QuotaType.valueOf(entry.getQuotaType().name()))
+            .orElse(0) + 1);
+        nextRacNumbers.put(quotaKey, next + 1);
+        return next;
+    }
+
+    private void notify(String batchId, Promotion promotion, Key key, WaitlistEntry waitlistEntry,
+                        RacEntry racEntry, Seat seat, LocalDateTime now) {
+        Long userId = waitlistEntry != null ? waitlistEntry.getUser().getId() : racEntry.getUser().getId();
+        String trainNumber = waitlistEntry != null ? waitlistEntry.getTrain().getTrainNumber() : racEntry.getTrain().getTrainNumber();
+        WaitlistPromotionEvent event = WaitlistPromotionEvent.builder()
+            .batchId(batchId)
+            .userId(userId)
+            .trainId(key.trainId())
+            .trainNumber(trainNumber)
+            .journeyDate(key.journeyDate())
+            .coachType(key.coachType().name())
+            .coachNumber(seat.getCoach().getCoachNumber())
+            .seatNumber(seat.getSeatNumber())
+            .promotion(promotion.type().name())
+            .waitlistEntryId(waitlistEntry != null ? waitlistEntry.getId() : null)
+            .racEntryId(racEntry != null ? racEntry.getId() : null)
+            .waitlistNumber(waitlistEntry != null ? waitlistEntry.getWaitlistNumber() : null)
+            .racNumber(racEntry != null ? racEntry.getRacNumber() : null)
+            .quotaType(promotion.entry().quotaType().name())
+            .promotedAt(now)
+            .build();
+        outboxEventService.saveEvent(WaitlistPromotionEvent.TOPIC, String.valueOf(userId), event);
+    }
+
+    private void refreshStaleKeys() {
+        if (staleKeys.isEmpty()) {
+            return;
+        }
+        Set<String> reloaded = new HashSet<>();
+        for (Key key : List.copyOf(staleKeys)) {
+            staleKeys.remove(key);
+            if (reloaded.add(key.trainId() + "|" + key.journeyDate())) {
+                reload(key.trainId(), key.journeyDate());
+            }
+        }
+    }
+
+    private synchronized void reload(Long trainId, LocalDate journeyDate) {
+        if (!ready) {
+            return;
+        }
+        LocalDateTime from = journeyDate.atStartOfDay();
+        LocalDateTime until = journeyDate.plusDays(1).atStartOfDay();
+        Map<Key, List<QueuedEntry>> waitlist = waitlistRepository.findPendingQueueRowsForTrain(trainId, from, until)
+            .stream().collect(Collectors.groupingBy(this::keyOf, Collectors.mapping(this::waitlistEntryOf, Collectors.toList())));
+        Map<Key, List<QueuedEntry>> rac = racRepository.findActiveQueueRowsForTrain(trainId, from, until)
+            .stream().collect(Collectors.groupingBy(this::keyOf, Collectors.mapping(this::racEntryOf, Collectors.toList())));
+        queues.replace(trainId, journeyDate, waitlist, rac);
+    }
+
+    private TransactionTemplate transaction() {
+        if (batchTransaction == null) {
+            // Each batch commits on its own, even when called from inside another transaction
+            batchTransaction = new TransactionTemplate(transactionManager);
+            batchTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        }
+        return batchTransaction;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static <T> Map<Long, T> byId(List<T> entities, Function<T, Long> id) {
+        Map<Long, T> map = new HashMap<>(entities.size() * 2);
+        entities.forEach(entity -> map.put(id.apply(entity), entity));
+        return map;
+    }
+
+    private Key keyOf(WaitlistEntry entry) {
+        return new Key(entry.getTrain().getId(), entry.getJourneyDate().toLocalDate(), entry.getCoach().getCoachType());
+    }
+
+    private Key keyOf(Object[] row) {
+        return new Key((Long) row[1], ((LocalDateTime) row[2]).toLocalDate(), (Coach.CoachType) row[3]);
+    }
+
+    private QueuedEntry waitlistEntryOf(Object[] row) {
+        return new QueuedEntry((Long) row[0], (Integer) row[5], (WaitlistEntry.QuotaType) row[6], (Long) row[4], null);
+    }
+
+    private QueuedEntry racEntryOf(Object[] row) {
+        return new QueuedEntry((Long) row[0], (Integer) row[5],
+            WaitlistEntry.QuotaType.valueOf(((RacEntry.QuotaType) row[6]).name()), (Long) row[4], (Long) row[7]);
+    }
+
+    private static final class BatchOutcome {
+        private final Key key;
+        private final List<Long> removedWaitlistIds = new ArrayList<>();
+        private final List<Long> removedRacIds = new ArrayList<>();
+        private final List<QueuedEntry> addedRac = new ArrayList<>();
+        private final Map<PromotionType, Integer> counts = new EnumMap<>(PromotionType.class);
+        private boolean hadStaleEntries;
+
+        BatchOutcome(Key key) {
+            this.key = key;
+        }
+
+        void count(PromotionType type) {
+            counts.merge(type, 1, Integer::sum);
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.irctc_backend.irctc.service;
+
+import com.irctc_backend.irctc.entity.Coach;
+import com.irctc_backend.irctc.entity.WaitlistEntry;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory waitlist and RAC queues per (train, journey date, class), and the
+ * promotion planner that runs against them.
+ *
+ * Ordering is fixed and total: queue number, then quota in declaration order,
+ * then entry ID. Two planners given the same queues and the same free seats
+ * always produce the same promotions.
+ *
+ * For each free seat, in (coach, seat) order, the planner:
+ * <ol>
+ *   <li>confirms the head of the RAC queue, preferring a seat in the passenger's
+ *       own coach, and moves the head of the waitlist onto the RAC berth it
+ *       vacated;</li>
+ *   <li>otherwise, with no one on RAC, confirms the head of the waitlist.</li>
+ * </ol>
+ * Planning does not change the queues. The caller applies the plan and then
+ * reports what actually committed through {@link #commit}, so a rolled-back
+ * batch leaves the queues as they were. Entries moved to RAC join the RAC queue
+ * on commit and can be confirmed from the next batch.
+ *
+ * This class holds no Spring or JPA state so it can be driven directly by the
+ * allocation simulation.
+ */
+public class WaitlistAllocationQueues {
+
+    static final Comparator<QueuedEntry> ORDER = Comparator
+        .comparingInt(QueuedEntry::number)
+        .thenComparing(QueuedEntry::quotaType)
+        .thenComparingLong(QueuedEntry::id);
+
+    public record Key(Long trainId, LocalDate journeyDate, Coach.CoachType coachType) implements Comparable<Key> {
+
+        private static final Comparator<Key> KEY_ORDER = Comparator
+            .comparing(Key::journeyDate)
+            .thenComparing(Key::trainId)
+            .thenComparing(Key::coachType);
+
+        @Override
+        public int compareTo(Key other) {
+            return KEY_ORDER.compare(this, other);
+        }
+    }
+
+    /**
+     * A waitlist or RAC entry as the queues see it. berthSeatId is the shared
+     * RAC berth, null for waitlist entries.
+     */
+    public record QueuedEntry(long id, int number, WaitlistEntry.QuotaType quotaType, long coachId, Long berthSeatId) {
+    }
+
+    public record SeatSlot(long seatId, long coachId) {
+    }
+
+    public enum PromotionType {
+        RAC_TO_CONFIRMED, WAITLIST_TO_CONFIRMED, WAITLIST_TO_RAC
+    }
+
+    /**
+     * seatId is the confirmed seat, or for WAITLIST_TO_RAC the vacated RAC berth
+     */
+    public record Promotion(PromotionType type, QueuedEntry entry, long seatId) {
+    }
+
+    private static final class Queues {
+        private final TreeSet<QueuedEntry> waitlist = new TreeSet<>(ORDER);
+        private final TreeSet<QueuedEntry> rac = new TreeSet<>(ORDER);
+        private final Map<Long, QueuedEntry> waitlistById = new HashMap<>();
+        private final Map<Long, QueuedEntry> racById = new HashMap<>();
+
+        boolean isEmpty() {
+            return waitlist.isEmpty() && rac.isEmpty();
+        }
+    }
+
+    private final Map<Key, Queues> queues = new ConcurrentHashMap<>();
+
+    public void addWaitlist(Key key, QueuedEntry entry) {
+        Queues q = queues.computeIfAbsent(key, k -> new Queues());
+        synchronized (q) {
+            QueuedEntry previous = q.waitlistById.put(entry.id(), entry);
+            if (previous != null) {
+                q.waitlist.remove(previous);
+            }
+            q.waitlist.add(entry);
+        }
+    }
+
+    public void addRac(Key key, QueuedEntry entry) {
+        Queues q = queues.computeIfAbsent(key, k -> new Queues());
+        synchronized (q) {
+            QueuedEntry previous = q.racById.put(entry.id(), entry);
+            if (previous != null) {
+                q.rac.remove(previous);
+            }
+            q.rac.add(entry);
+        }
+    }
+
+    public boolean removeWaitlist(Key key, long entryId) {
+        Queues q = queues.get(key);
+        if (q == null) {
+            return false;
+        }
+        synchronized (q) {
+            QueuedEntry entry = q.waitlistById.remove(entryId);
+            return entry != null && q.waitlist.remove(entry);
+        }
+    }
+
+    public boolean removeRac(Key key, long entryId) {
+        Queues q = queues.get(key);
+        if (q == null) {
+            return false;
+        }
+        synchronized (q) {
+            QueuedEntry entry = q.racById.remove(entryId);
+            return entry != null && q.rac.remove(entry);
+        }
+    }
+
+    /**
+     * Replaces all queues of one train and journey date with freshly loaded entries
+     */
+    public void replace(Long trainId, LocalDate journeyDate, Map<Key, List<QueuedEntry>> waitlist,
+                        Map<Key, List<QueuedEntry>> rac) {
+        queues.keySet().removeIf(key -> key.trainId().equals(trainId) && key.journeyDate().equals(journeyDate));
+        waitlist.forEach((key, entries) -> entries.forEach(entry -> addWaitlist(key, entry)));
+        rac.forEach((key, entries) -> entries.forEach(entry -> addRac(key, entry)));
+    }
+
+    public void clear() {
+        queues.clear();
+    }
+
+    /**
+     * Plans promotions for the free seats without changing the queues
+     */
+    public List<Promotion> plan(Key key, Collection<SeatSlot> freeSeats) {
+        Queues q = queues.get(key);
+        if (q == null || freeSeats.isEmpty()) {
+            return List.of();
+        }
+
+        // No plan can use more entries than there are seats, plus one chained move per seat
+        int limit = freeSeats.size();
+        List<QueuedEntry> racHeads;
+        List<QueuedEntry> waitlistHeads;
+        int racQueued;
+        synchronized (q) {
+            racQueued = q.rac.size();
+            racHeads = heads(q.rac, limit);
+            waitlistHeads = heads(q.waitlist, limit * 2);
+        }
+
+        SeatPool pool = new SeatPool(freeSeats);
+        List<Promotion> promotions = new ArrayList<>();
+        int nextRac = 0;
+        int nextWaitlist = 0;
+        while (!pool.isEmpty()) {
+            if (nextRac < racHeads.size()) {
+                QueuedEntry racEntry = racHeads.get(nextRac++);
+                promotions.add(new Promotion(PromotionType.RAC_TO_CONFIRMED, racEntry, pool.take(racEntry.coachId())));
+                if (racEntry.berthSeatId() != null && nextWaitlist < waitlistHeads.size()) {
+                    promotions.add(new Promotion(PromotionType.WAITLIST_TO_RAC,
+                        waitlistHeads.get(nextWaitlist++), racEntry.berthSeatId()));
+                }
+            } else if (nextRac == racQueued && nextWaitlist < waitlistHeads.size()) {
+                QueuedEntry waitlistEntry = waitlistHeads.get(nextWaitlist++);
+                promotions.add(new Promotion(PromotionType.WAITLIST_TO_CONFIRMED, waitlistEntry,
+                    pool.take(waitlistEntry.coachId())));
+            } else {
+                break;
+            }
+        }
+        return promotions;
+    }
+
+    /**
+     * Applies the outcome of a committed batch: drops promoted or stale entries
+     * and queues the new RAC entries
+     */
+    public void commit(Key key, Collection<Long> removedWaitlistIds, Collection<Long> removedRacIds,
+                       Collection<QueuedEntry> addedRac) {
+        removedWaitlistIds.forEach(id -> removeWaitlist(key, id));
+        removedRacIds.forEach(id -> removeRac(key, id));
+        addedRac.forEach(entry -> addRac(key, entry));
+        queues.computeIfPresent(key, (k, q) -> {
+            synchronized (q) {
+                return q.isEmpty() ? null : q;
+            }
+        });
+    }
+
+    public boolean hasEntries(Key key) {
+        Queues q = queues.get(key);
+        if (q == null) {
+            return false;
+        }
+        synchronized (q) {
+            return !q.isEmpty();
+        }
+    }
+
+    public int waitlistSize(Key key) {
+        Queues q = queues.get(key);
+        if (q == null) {
+            return 0;
+        }
+        synchronized (q) {
+            return q.waitlist.size();
+        }
+    }
+
+    public int racSize(Key key) {
+        Queues q = queues.get(key);
+        if (q == null) {
+            return 0;
+        }
+        synchronized (q) {
+            return q.rac.size();
+        }
+    }
+
+    /**
+     * Waitlist entry IDs in promotion order
+     */
+    public List<Long> waitlistOrder(Key key) {
+        Queues q = queues.get(key);
+        if (q == null) {
+            return List.of();
+        }
+        synchronized (q) {
+            return q.waitlist.stream().map(QueuedEntry::id).collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * RAC entry IDs in promotion order
+     */
+    public List<Long> racOrder(Key key) {
+        Queues q = queues.get(key);
+        if (q == null) {
+            return List.of();
+        }
+        synchronized (q) {
+            return q.rac.stream().map(QueuedEntry::id).collect(Collectors.toList());
+        }
+    }
+
+    public Set<Key> keys() {
+        return Set.copyOf(queues.keySet());
+    }
+
+    private static List<QueuedEntry> heads(TreeSet<QueuedEntry> queue, int limit) {
+        List<QueuedEntry> heads = new ArrayList<>(Math.min(limit, queue.size()));
+        Iterator<QueuedEntry> iterator = queue.iterator();
+        while (iterator.hasNext() && heads.size() < limit) {
+            heads.add(iterator.next());
+        }
+        return heads;
+    }
+
+    /**
+     * Free seats in (coach, seat) order; a taker gets the first seat in its own
+     * coach when there is one, else the first seat overall
+     */
+    private static final class SeatPool {
+        private final Map<Long, ArrayDeque<SeatSlot>> byCoach = new LinkedHashMap<>();
+        private int remaining;
+
+        SeatPool(Collection<SeatSlot> seats) {
+            seats.stream()
+                .sorted(Comparator.comparingLong(SeatSlot::coachId).thenComparingLong(SeatSlot::seatId))
+                .forEach(seat -> byCoach.computeIfAbsent(seat.coachId(), c -> new ArrayDeque<>()).add(seat));
+            remaining = seats.size();
+        }
+
+        boolean isEmpty() {
+            return remaining == 0;
+        }
+
+        long take(long preferredCoachId) {
+            ArrayDeque<SeatSlot> coachSeats = byCoach.get(preferredCoachId);
+            if (coachSeats == null || coachSeats.isEmpty()) {
+                coachSeats = byCoach.values().stream().filter(d -> !d.isEmpty()).findFirst().orElseThrow();
+            }
+            remaining--;
+            return coachSeats.poll().seatId();
+        }
+    }
+}
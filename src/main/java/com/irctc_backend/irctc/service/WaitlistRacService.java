@@ -8,6 +8,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
@@ -48,6 +49,9 @@ public class WaitlistRacService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private WaitlistAllocationEngine allocationEngine;
+    
     /**
      * Add user to waitlist
      */
@@ -100,6 +104,7 @@ public class WaitlistRacService {
             waitlistEntry.setExpiryTime(calculateExpiryTime(request.getJourneyDate()));
             
             waitlistEntry = waitlistRepository.save(waitlistEntry);
+            allocationEngine.enqueue(waitlistEntry);
             
             // Create response
             WaitlistResponse response = convertToWaitlistResponse(waitlistEntry);
@@ -133,6 +138,9 @@ public class WaitlistRacService {
                 processWaitlistForCoach(coach, journeyDate);
             }
             
+            // Conversions above bypass the allocation queues, so resync this train and date
+            allocationEngine.refresh(trainId, journeyDate.toLocalDate());
+            
         } catch (Exception e) {
             logger.error("Error processing waitlist: {}", e.getMessage(), e);
         }
@@ -266,6 +274,7 @@ public class WaitlistRacService {
             entry.setCancellationReason("Cancelled by user");
             
             waitlistRepository.save(entry);
+            allocationEngine.dequeue(entry);
             
             logger.info("Successfully cancelled waitlist entry: {}", waitlistId);
             return true;
@@ -371,26 +380,21 @@ public class WaitlistRacService {
     }
     
     /**
-     * Enhanced batch processing method for automatic confirmations
-     * This method is called by the TicketConfirmationBatchService
+     * Enhanced batch processing method for automatic confirmations.
+     * Promotions are planned and applied by the {@link WaitlistAllocationEngine}
+     * in queue order, one transaction per batch of classes.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public int processBatchConfirmations(Long trainId, LocalDate journeyDate) {
         logger.info("Starting batch confirmation processing for train: {}, date: {}", trainId, journeyDate);
         
         try {
-            Train train = trainRepository.findById(trainId)
-                .orElseThrow(() -> new RuntimeException("Train not found with ID: " + trainId));
-            
-            List<Coach> coaches = coachRepository.findByTrain(train);
-            int totalConfirmations = 0;
+            Map<WaitlistAllocationQueues.PromotionType, Integer> promotions = allocationEngine.allocateNow(trainId, journeyDate);
+            int totalConfirmations = promotions.getOrDefault(WaitlistAllocationQueues.PromotionType.RAC_TO_CONFIRMED, 0)
+                + promotions.getOrDefault(WaitlistAllocationQueues.PromotionType.WAITLIST_TO_CONFIRMED, 0);
             
-            for (Coach coach : coaches) {
-                int coachConfirmations = processCoachBatchConfirmations(coach, journeyDate);
-                totalConfirmations += coachConfirmations;
-            }
-            
-            logger.info("Completed batch confirmation processing for train: {}, total confirmations: {}", 
-                       trainId, totalConfirmations);
+            logger.info("Completed batch confirmation processing for train: {}, total confirmations: {}, moved to RAC: {}", 
+                       trainId, totalConfirmations, promotions.getOrDefault(WaitlistAllocationQueues.PromotionType.WAITLIST_TO_RAC, 0));
             
             return totalConfirmations;
             
@@ -400,115 +404,6 @@ public class WaitlistRacService {
         }
     }
     
-    /**
-     * Process batch confirmations for a specific coach
-     */
-    private int processCoachBatchConfirmations(Coach coach, LocalDate journeyDate) {
-        logger.info("Processing batch confirmations for coach: {}, date: {}", 
-                   coach.getCoachNumber(), journeyDate);
-        
-        int confirmations = 0;
-        LocalDateTime journeyDateTime = journeyDate.atStartOfDay();
-        
-        try {
-            // Get available seats (cancelled seats)
-            List<Seat> availableSeats = seatRepository.findAvailableSeatsByCoach(coach);
-            
-            // Get RAC entries sorted by priority
-            List<RacEntry> racEntries = racRepository.findActiveRacByCoachAndDate(coach, journeyDateTime)
-                .stream()
-                .sorted(Comparator.comparing(RacEntry::getRacNumber))
-                .collect(Collectors.toList());
-            
-            // Get Waitlist entries sorted by priority
-            List<WaitlistEntry> waitlistEntries = waitlistRepository.findPendingWaitlistByCoachAndDate(coach, journeyDateTime)
-                .stream()
-                .sorted(Comparator.comparing(WaitlistEntry::getWaitlistNumber))
-                .collect(Collectors.toList());
-            
-            logger.info("Found {} available seats, {} RAC entries, {} waitlist entries for coach: {}", 
-                       availableSeats.size(), racEntries.size(), waitlistEntries.size(), coach.getCoachNumber());
-            
-            // Process confirmations
-            for (Seat seat : availableSeats) {
-                if (!racEntries.isEmpty()) {
-                    RacEntry racEntry = racEntries.remove(0);
-                    if (convertRacToConfirmedBatch(racEntry, seat)) {
-                        confirmations++;
-                    }
-                } else if (!waitlistEntries.isEmpty()) {
-                    WaitlistEntry waitlistEntry = waitlistEntries.remove(0);
-                    if (convertWaitlistToConfirmedBatch(waitlistEntry, seat)) {
-                        confirmations++;
-                    }
-                }
-            }
-            
-        } catch (Exception e) {
-            logger.error("Error processing batch confirmations for coach: {}", coach.getCoachNumber(), e);
-        }
-        
-        return confirmations;
-    }
-    
-    /**
-     * Convert RAC to confirmed (batch processing version)
-     */
-    private boolean convertRacToConfirmedBatch(RacEntry racEntry, Seat seat) {
-        try {
-            logger.info("Converting RAC {} to CONFIRMED (batch processing)", racEntry.getRacNumber());
-            
-            // Update RAC entry
-            racEntry.setStatus(RacEntry.RacStatus.CONFIRMED);
-            racEntry.setConfirmedAt(LocalDateTime.now());
-            racEntry.setSeat(seat);
-            
-            // Update seat
-            seat.setStatus(Seat.SeatStatus.BOOKED);
-            
-            // Save changes
-            racRepository.save(racEntry);
-            seatRepository.save(seat);
-            
-            logger.info("Successfully converted RAC {} to CONFIRMED (batch processing)", racEntry.getRacNumber());
-            return true;
-            
-        } catch (Exception e) {
-            logger.error("Error converting RAC {} to confirmed (batch processing): {}", 
-                        racEntry.getRacNumber(), e.getMessage());
-            return false;
-        }
-    }
-    
-    /**
-     * Convert Waitlist to confirmed (batch processing version)
-     */
-    private boolean convertWaitlistToConfirmedBatch(WaitlistEntry waitlistEntry, Seat seat) {
-        try {
-            logger.info("Converting Waitlist {} to CONFIRMED (batch processing)", waitlistEntry.getWaitlistNumber());
-            
-            // Update waitlist entry
-            waitlistEntry.setStatus(WaitlistEntry.WaitlistStatus.CONFIRMED);
-            waitlistEntry.setConfirmedAt(LocalDateTime.now());
-            
-            // Update seat
-            seat.setStatus(Seat.SeatStatus.BOOKED);
-            
-            // Save changes
-            waitlistRepository.save(waitlistEntry);
-            seatRepository.save(seat);
-            
-            logger.info("Successfully converted Waitlist {} to CONFIRMED (batch processing)", 
-                       waitlistEntry.getWaitlistNumber());
-            return true;
-            
-        } catch (Exception e) {
-            logger.error("Error converting Waitlist {} to confirmed (batch processing): {}", 
-                        waitlistEntry.getWaitlistNumber(), e.getMessage());
-            return false;
-        }
-    }
-    
     /**
      * Get confirmation statistics for monitoring
      */
@@ -0,0 +1,107 @@
+package com.irctc_backend.irctc.repository;
+
+import com.irctc_backend.irctc.entity.Booking;
+import com.irctc_backend.irctc.service.BookingSearchIndex;
+import com.irctc_backend.irctc.service.BookingSearchRedisIndex;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingRepositoryCustomImplTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private BookingSearchIndex searchIndex;
+
+    @Mock
+    private BookingSearchRedisIndex redisIndex;
+
+    @InjectMocks
+    private BookingRepositoryCustomImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(repository, "maxResults", 100);
+    }
+
+    @Test
+    void shouldRunPrefixQueryForFragmentsShorterThanAGram() {
+        TypedQuery<Booking> query = query("SELECT b FROM Booking b WHERE b.pnrSearchKey LIKE :prefix ORDER BY b.id",
+            List.of(booking(3L)));
+
+        assertThat(repository.findByPnrNumberContaining(" 4 5")).extracting(Booking::getId).containsExactly(3L);
+        verify(query).setParameter("prefix", "45%");
+        verifyNoInteractions(searchIndex, redisIndex);
+    }
+
+    @Test
+    void shouldLoadIdsFromTheLocalIndexOnceBuilt() {
+        when(searchIndex.isReady()).thenReturn(true);
+        when(searchIndex.search(BookingSearchIndex.Field.MOBILE, "98765", 100)).thenReturn(List.of(4L, 9L));
+        query("SELECT b FROM Booking b WHERE b.id IN :ids", List.of(booking(9L), booking(4L)));
+
+        assertThat(repository.findByMobileNumberContaining("98765")).extracting(Booking::getId).containsExactly(4L, 9L);
+        verifyNoInteractions(redisIndex);
+    }
+
+    @Test
+    void shouldAskRedisWhileTheLocalIndexIsBuilding() {
+        when(redisIndex.search(BookingSearchIndex.Field.TRANSACTION_ID, "TXN-1", 100)).thenReturn(List.of());
+
+        assertThat(repository.findByTransactionIdContaining("txn-1")).isEmpty();
+        verify(searchIndex, never()).search(eq(BookingSearchIndex.Field.TRANSACTION_ID), anyString(), anyInt());
+        verifyNoInteractions(entityManager);
+    }
+
+    @Test
+    void shouldFallBackToTheDatabaseWhenRedisFails() {
+        when(redisIndex.search(BookingSearchIndex.Field.PNR, "4512", 100)).thenReturn(null);
+        TypedQuery<Booking> query = query("SELECT b FROM Booking b WHERE b.pnrSearchKey LIKE :fragment ORDER BY b.id",
+            List.of(booking(5L)));
+
+        assertThat(repository.findByPnrNumberContaining("4512")).extracting(Booking::getId).containsExactly(5L);
+        verify(query).setParameter("fragment", "%4512%");
+    }
+
+    @SuppressWarnings("unchecked")
+    private TypedQuery<Booking> query(String jpql, List<Booking> result) {
+        TypedQuery<Booking> query = mock(TypedQuery.class);
+        when(entityManager.createQuery(contains(jpql), eq(Booking.class))).thenReturn(query);
+        when(query.setParameter(anyString(), any())).thenReturn(query);
+        if (!jpql.contains(":ids")) {
+            when(query.setMaxResults(100)).thenReturn(query);
+        }
+        when(query.getResultList()).thenReturn(new ArrayList<>(result));
+        return query;
+    }
+
+    private static Booking booking(Long id) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        return booking;
+    }
+}
@@ -0,0 +1,103 @@
+package com.irctc_backend.irctc.service;
+
+import com.irctc_backend.irctc.events.BookingIndexEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingSearchIndexTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private BookingSearchRedisIndex redisIndex;
+
+    @InjectMocks
+    private BookingSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(searchIndex, "enabled", true);
+        searchIndex.replace(1L, "4512378901", List.of("9876543210"), List.of("TXN-ABCXBCD"));
+        searchIndex.replace(2L, "4512399999", List.of("9123456789"), List.of("TXN-ABCD"));
+    }
+
+    @Test
+    void shouldNotAnswerFragmentsShorterThanAGram() {
+        assertThat(searchIndex.search(BookingSearchIndex.Field.PNR, "4", 10)).isEmpty();
+        assertThat(searchIndex.search(BookingSearchIndex.Field.MOBILE, "98", 10)).isEmpty();
+        assertThat(searchIndex.search(BookingSearchIndex.Field.PNR, "451", 10)).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void shouldMatchOnlyKeysContainingTheWholeFragment() {
+        // Booking 1 has both grams of "ABCD" (ABC, BCD) but not the fragment itself
+        assertThat(searchIndex.search(BookingSearchIndex.Field.TRANSACTION_ID, "abcd", 10)).containsExactly(2L);
+        assertThat(searchIndex.search(BookingSearchIndex.Field.TRANSACTION_ID, "XBC", 10)).containsExactly(1L);
+        assertThat(searchIndex.search(BookingSearchIndex.Field.PNR, "4512", 1)).containsExactly(1L);
+        assertThat(searchIndex.search(BookingSearchIndex.Field.PNR, "ZZZ", 10)).isEmpty();
+    }
+
+    @Test
+    void shouldDropStaleKeysWhenABookingIsReindexed() {
+        searchIndex.replace(1L, "4512378901", List.of("9000011111"), List.of("TXN-ABCXBCD", "TXN-RETRY9"));
+
+        assertThat(searchIndex.search(BookingSearchIndex.Field.MOBILE, "98765", 10)).isEmpty();
+        assertThat(searchIndex.search(BookingSearchIndex.Field.MOBILE, "00001", 10)).containsExactly(1L);
+        assertThat(searchIndex.search(BookingSearchIndex.Field.TRANSACTION_ID, "RETRY", 10)).containsExactly(1L);
+        assertThat(searchIndex.search(BookingSearchIndex.Field.TRANSACTION_ID, "TXN", 10)).containsExactly(1L, 2L);
+        verify(redisIndex).remove(BookingSearchIndex.Field.MOBILE, 1L, "9876543210");
+        verify(redisIndex).add(BookingSearchIndex.Field.MOBILE, 1L, "9000011111");
+    }
+
+    @Test
+    void shouldReindexAllBookingsOfAUserWhoseMobileChanged() throws Exception {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(row(2L, "4512399999", "9555500000", "TXN-ABCD"));
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT"), any(RowCallbackHandler.class), eq(7L));
+
+        searchIndex.onBookingIndexEvent(BookingIndexEvent.userUpdated(7L));
+
+        assertThat(searchIndex.search(BookingSearchIndex.Field.MOBILE, "912345", 10)).isEmpty();
+        assertThat(searchIndex.search(BookingSearchIndex.Field.MOBILE, "95555", 10)).containsExactly(2L);
+    }
+
+    @Test
+    void shouldForgetABookingThatNoLongerExists() {
+        searchIndex.onBookingIndexEvent(new BookingIndexEvent(2L, BookingIndexEvent.Type.CANCELLED));
+
+        assertThat(searchIndex.search(BookingSearchIndex.Field.PNR, "451", 10)).containsExactly(1L);
+        assertThat(searchIndex.search(BookingSearchIndex.Field.TRANSACTION_ID, "ABCD", 10)).isEmpty();
+    }
+
+    private static ResultSet row(long bookingId, String pnr, String mobile, String transactionId) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong(1)).thenReturn(bookingId);
+        when(rs.getString(2)).thenReturn(pnr);
+        when(rs.getString(3)).thenReturn(mobile);
+        when(rs.getString(4)).thenReturn(transactionId);
+        return rs;
+    }
+}
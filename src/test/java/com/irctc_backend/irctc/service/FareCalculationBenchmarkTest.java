@@ -0,0 +1,176 @@
+package com.irctc_backend.irctc.service;
+
+import com.irctc_backend.irctc.dto.FareCalculationRequest;
+import com.irctc_backend.irctc.dto.FareCalculationResponse;
+import com.irctc_backend.irctc.entity.Coach;
+import com.irctc_backend.irctc.entity.FareRule;
+import com.irctc_backend.irctc.entity.Train;
+import com.irctc_backend.irctc.repository.FareRuleRepository;
+import com.irctc_backend.irctc.repository.TrainRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Quotes per second for a search page, per-row repository lookups vs the
+ * precompiled rule table, and a check that both produce the same fares.
+ *
+ * Repositories are mocks, so the per-row path is timed without database round
+ * trips and the real gap is larger. Timings are single-threaded after warm-up,
+ * for comparison only. The timing test is tagged "benchmark" and skipped by
+ * default; run it with -DexcludedGroups= -Dgroups=benchmark.
+ */
+class FareCalculationBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(FareCalculationBenchmarkTest.class);
+
+    private static final int TRAINS = 300;
+    private static final int PAGE_SIZE = 50;
+    private static final int PAGES = 200;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 5;
+
+    private static final Coach.CoachType[] COACH_TYPES = {
+        Coach.CoachType.AC_2_TIER, Coach.CoachType.SLEEPER_CLASS, Coach.CoachType.AC_CHAIR_CAR
+    };
+
+    private final Map<Long, Train> trains = new HashMap<>();
+    private final List<FareRule> rules = new ArrayList<>();
+    private final FareRuleRepository fareRuleRepository = mock(FareRuleRepository.class);
+    private final TrainRepository trainRepository = mock(TrainRepository.class);
+    private FareRuleEngine engine;
+    private FareCalculationService service;
+
+    @BeforeEach
+    void setUp() {
+        long ruleId = 1;
+        for (long trainId = 1; trainId <= TRAINS; trainId++) {
+            Train train = new Train();
+            train.setId(trainId);
+            train.setTrainNumber(String.valueOf(12000 + trainId));
+            train.setTrainName("Express " + trainId);
+            trains.put(trainId, train);
+            for (int c = 0; c < COACH_TYPES.length; c++) {
+                FareRule rule = new FareRule(train, COACH_TYPES[c], BigDecimal.valueOf(800 + 700L * c), 1384);
+                rule.setId(ruleId++);
+                rule.setPeakHourMultiplier(new BigDecimal("1.20"));
+                rule.setWeekendMultiplier(new BigDecimal("1.15"));
+                rule.setFestivalMultiplier(new BigDecimal("1.30"));
+                rule.setSeniorCitizenDiscount(new BigDecimal("0.10"));
+                rule.setLadiesQuotaDiscount(new BigDecimal("0.05"));
+                rules.add(rule);
+            }
+        }
+
+        when(trainRepository.findById(any())).thenAnswer(inv -> Optional.ofNullable(trains.get(inv.<Long>getArgument(0))));
+        when(fareRuleRepository.findActiveFareRule(any(), any(), any())).thenAnswer(inv -> rules.stream()
+            .filter(rule -> rule.getTrain() == inv.getArgument(0) && rule.getCoachType() == inv.getArgument(1))
+            .findFirst());
+        when(fareRuleRepository.findClosestFareRuleByDistance(any(), any(), anyInt())).thenReturn(List.of());
+        when(fareRuleRepository.findAllActiveWithTrain()).thenReturn(rules);
+        when(fareRuleRepository.count()).thenReturn((long) rules.size());
+
+        engine = new FareRuleEngine();
+        ReflectionTestUtils.setField(engine, "fareRuleRepository", fareRuleRepository);
+        ReflectionTestUtils.setField(engine, "enabled", true);
+
+        service = new FareCalculationService();
+        ReflectionTestUtils.setField(service, "fareRuleRepository", fareRuleRepository);
+        ReflectionTestUtils.setField(service, "trainRepository", trainRepository);
+        ReflectionTestUtils.setField(service, "fareRuleEngine", engine);
+    }
+
+    @Test
+    void testRuleTableMatchesPerRowLookups() {
+        List<FareCalculationRequest> page = page(0);
+        List<FareCalculationResponse> perRow = service.calculateFares(page);
+        engine.reload("benchmark");
+        List<FareCalculationResponse> fromTable = service.calculateFares(page);
+
+        assertEquals(perRow.size(), fromTable.size());
+        for (int i = 0; i < perRow.size(); i++) {
+            assertNotNull(fromTable.get(i));
+            assertEquals(perRow.get(i).getFareRuleId(), fromTable.get(i).getFareRuleId());
+            assertEquals(perRow.get(i).getFinalAmount(), fromTable.get(i).getFinalAmount());
+            assertEquals(perRow.get(i).getTotalDiscount(), fromTable.get(i).getTotalDiscount());
+            assertEquals(perRow.get(i).getSurgeReason(), fromTable.get(i).getSurgeReason());
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    void testQuotesPerSecond() {
+        List<List<FareCalculationRequest>> pages = new ArrayList<>(PAGES);
+        for (int p = 0; p < PAGES; p++) {
+            pages.add(page(p));
+        }
+
+        double perRowRate = measure("per-row lookups", pages);
+        engine.reload("benchmark");
+        double tableRate = measure("rule table", pages);
+
+        assertTrue(tableRate > 0 && perRowRate > 0);
+    }
+
+    private double measure(String name, List<List<FareCalculationRequest>> pages) {
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            priceAll(pages);
+        }
+        long elapsed = 0;
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            long start = System.nanoTime();
+            priceAll(pages);
+            elapsed += System.nanoTime() - start;
+        }
+        double quotesPerSecond = (double) PAGES * PAGE_SIZE * MEASURED_ROUNDS / (elapsed / 1_000_000_000.0);
+        logger.info(String.format("%-16s %,12.0f quotes/s  %,8.0f search pages/s",
+            name, quotesPerSecond, quotesPerSecond / PAGE_SIZE));
+        return quotesPerSecond;
+    }
+
+    private void priceAll(List<List<FareCalculationRequest>> pages) {
+        for (List<FareCalculationRequest> page : pages) {
+            List<FareCalculationResponse> responses = service.calculateFares(page);
+            if (responses.size() != page.size()) {
+                throw new IllegalStateException("Short batch");
+            }
+        }
+    }
+
+    private List<FareCalculationRequest> page(int pageNumber) {
+        List<FareCalculationRequest> page = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            int row = pageNumber * PAGE_SIZE + i;
+            FareCalculationRequest request = new FareCalculationRequest();
+            request.setTrainId(1L + row % TRAINS);
+            request.setCoachType(COACH_TYPES[row % COACH_TYPES.length]);
+            request.setJourneyDate(LocalDateTime.of(2026, 10, 18, 7, 30).plusDays(row % 30).plusHours(row % 14));
+            request.setNumberOfPassengers(1 + row % 4);
+            request.setDistanceKm(row % 5 == 0 ? 1384 : 400 + row % 900);
+            request.setIsSeniorCitizenQuota(row % 7 == 0);
+            request.setIsLadiesQuota(row % 11 == 0);
+            request.setIsTatkal(row % 9 == 0);
+            page.add(request);
+        }
+        return page;
+    }
+}
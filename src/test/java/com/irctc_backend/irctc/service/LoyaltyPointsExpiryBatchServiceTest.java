@@ -0,0 +1,149 @@
+package com.irctc_backend.irctc.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the expiry job against H2 without a surrounding test transaction, since
+ * each account range commits on its own worker thread
+ */
+@DataJpaTest
+@Import(LoyaltyPointsExpiryBatchService.class)
+@TestPropertySource(properties = {
+    "loyalty.expiry.chunk-size=2",
+    "loyalty.expiry.parallelism=2"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LoyaltyPointsExpiryBatchServiceTest {
+
+    private static final LocalDateTime RUN_AT = LocalDateTime.of(2026, 3, 10, 1, 30);
+
+    @Autowired
+    private LoyaltyPointsExpiryBatchService expiryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long[] accounts;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM batch_job_locks");
+        jdbcTemplate.update("DELETE FROM loyalty_transactions");
+        jdbcTemplate.update("DELETE FROM loyalty_accounts");
+        jdbcTemplate.update("DELETE FROM users");
+
+        // Five accounts so the range split yields three chunks of at most two accounts
+        accounts = new long[5];
+        for (int i = 0; i < accounts.length; i++) {
+            accounts[i] = account(i, "1000");
+        }
+        // Account 0: two expired credits and one not yet due
+        transaction(accounts[0], "EARNED", "100", RUN_AT.minusDays(3), false);
+        transaction(accounts[0], "BONUS", "50", RUN_AT.minusMinutes(1), false);
+        transaction(accounts[0], "EARNED", "70", RUN_AT.plusHours(20), false);
+        // Account 2: an expired credit already flagged and an expired debit, neither counts
+        transaction(accounts[2], "EARNED", "40", RUN_AT.minusDays(1), true);
+        transaction(accounts[2], "REDEEMED", "30", RUN_AT.minusDays(1), false);
+        // Account 4, in the last chunk
+        transaction(accounts[4], "REFUND", "25", RUN_AT.minusDays(10), false);
+    }
+
+    @Test
+    void shouldExpireDueCreditsPerAccountAndWriteLedgerRows() {
+        BigDecimal expired = expiryService.expirePoints(RUN_AT);
+
+        assertThat(expired).isEqualByComparingTo("175");
+        assertThat(balance(accounts[0], "available_points")).isEqualByComparingTo("850");
+        assertThat(balance(accounts[0], "expired_points")).isEqualByComparingTo("150");
+        assertThat(balance(accounts[1], "available_points")).isEqualByComparingTo("1000");
+        assertThat(balance(accounts[2], "available_points")).isEqualByComparingTo("1000");
+        assertThat(balance(accounts[4], "available_points")).isEqualByComparingTo("975");
+        assertThat(balance(accounts[4], "expired_points")).isEqualByComparingTo("25");
+
+        assertThat(jdbcTemplate.queryForList(
+            "SELECT points FROM loyalty_transactions WHERE transaction_type = 'EXPIRED' ORDER BY loyalty_account_id",
+            BigDecimal.class)).usingElementComparator(BigDecimal::compareTo)
+            .containsExactly(new BigDecimal("150"), new BigDecimal("25"));
+        // Points due later on the run day are left alone
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT is_expired FROM loyalty_transactions WHERE loyalty_account_id = ? AND points = 70",
+            Boolean.class, accounts[0])).isFalse();
+    }
+
+    @Test
+    void shouldDoNothingWhenRerun() {
+        expiryService.expirePoints(RUN_AT);
+
+        BigDecimal rerun = expiryService.expirePoints(RUN_AT.plusMinutes(5));
+
+        assertThat(rerun).isEqualByComparingTo("0");
+        assertThat(balance(accounts[0], "available_points")).isEqualByComparingTo("850");
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM loyalty_transactions WHERE transaction_type = 'EXPIRED'", Integer.class))
+            .isEqualTo(2);
+    }
+
+    @Test
+    void shouldNotRunWhileAnotherRunHoldsTheLock() {
+        lock("other-instance", RUN_AT.plusYears(100));
+
+        assertThatThrownBy(() -> expiryService.expirePoints(RUN_AT))
+            .isInstanceOf(IllegalStateException.class);
+
+        assertThat(balance(accounts[0], "available_points")).isEqualByComparingTo("1000");
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT locked_by FROM batch_job_locks WHERE job_name = ?", String.class,
+            LoyaltyPointsExpiryBatchService.JOB_NAME)).isEqualTo("other-instance");
+    }
+
+    @Test
+    void shouldTakeOverALapsedLockAndReleaseIt() {
+        lock("crashed-instance", LocalDateTime.now().minusMinutes(1));
+
+        assertThat(expiryService.expirePoints(RUN_AT)).isEqualByComparingTo("175");
+
+        // Released, so the next run is not blocked
+        assertThat(expiryService.expirePoints(RUN_AT)).isEqualByComparingTo("0");
+    }
+
+    private void lock(String owner, LocalDateTime lockedUntil) {
+        jdbcTemplate.update("INSERT INTO batch_job_locks (job_name, locked_by, locked_at, locked_until) " +
+            "VALUES (?, ?, ?, ?)", LoyaltyPointsExpiryBatchService.JOB_NAME, owner,
+            Timestamp.valueOf(LocalDateTime.now()), Timestamp.valueOf(lockedUntil));
+    }
+
+    private long account(int index, String availablePoints) {
+        jdbcTemplate.update("INSERT INTO users (username, email, password, first_name, last_name) VALUES (?, ?, ?, ?, ?)",
+            "user" + index, "user" + index + "@example.com", "secret", "First", "Last");
+        Long userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = ?", Long.class, "user" + index);
+        jdbcTemplate.update("INSERT INTO loyalty_accounts (user_id, loyalty_number, tier, available_points, " +
+            "expired_points) VALUES (?, ?, 'GOLD', ?, 0)", userId, "LN" + index, new BigDecimal(availablePoints));
+        return jdbcTemplate.queryForObject("SELECT id FROM loyalty_accounts WHERE user_id = ?", Long.class, userId);
+    }
+
+    private void transaction(long accountId, String type, String points, LocalDateTime expiryDate, boolean expired) {
+        jdbcTemplate.update("INSERT INTO loyalty_transactions (loyalty_account_id, transaction_type, points, " +
+            "expiry_date, is_expired, multiplier_applied) VALUES (?, ?, ?, ?, ?, 1)",
+            accountId, type, new BigDecimal(points), Timestamp.valueOf(expiryDate), expired);
+    }
+
+    private BigDecimal balance(long accountId, String column) {
+        return jdbcTemplate.queryForObject("SELECT " + column + " FROM loyalty_accounts WHERE id = ?",
+            BigDecimal.class, accountId);
+    }
+}
@@ -0,0 +1,121 @@
+package com.irctc_backend.irctc.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.irctc_backend.irctc.entity.OutboxEvent;
+import com.irctc_backend.irctc.repository.OutboxEventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxEventPublisherTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private OutboxEventPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(publisher, "batchSize", 200);
+        ReflectionTestUtils.setField(publisher, "sendTimeoutMs", 200L);
+        ReflectionTestUtils.setField(publisher, "delayMs", 5000L);
+        publisher.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        publisher.stop();
+    }
+
+    @Test
+    void shouldMarkEachEventFromItsOwnSendOutcome() {
+        OutboxEvent sent = event(1L, 0);
+        OutboxEvent rejected = event(2L, 0);
+        OutboxEvent stuck = event(3L, 4);
+        when(outboxEventRepository.findPendingEvents(any(Pageable.class))).thenReturn(List.of(sent, rejected, stuck));
+        when(kafkaTemplate.send(eq("booking-events"), eq("key-1"), any()))
+            .thenReturn(CompletableFuture.completedFuture(new SendResult<>(null, null)));
+        when(kafkaTemplate.send(eq("booking-events"), eq("key-2"), any()))
+            .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+        when(kafkaTemplate.send(eq("booking-events"), eq("key-3"), any())).thenReturn(new CompletableFuture<>());
+
+        int published = publisher.publishPendingEvents();
+
+        assertThat(published).isEqualTo(1);
+        verify(outboxEventRepository).markAsPublished(eq(1L), any());
+        verify(outboxEventRepository).incrementRetryCount(2L, "broker down");
+        verify(outboxEventRepository, never()).markAsFailed(2L);
+        // The last send never completes: it times out with the batch and uses up its final retry
+        verify(outboxEventRepository).incrementRetryCount(eq(3L), any());
+        verify(outboxEventRepository).markAsFailed(3L);
+        verify(outboxEventRepository, never()).markAsPublished(eq(3L), any());
+    }
+
+    @Test
+    void shouldRetryEventsWhosePayloadCannotBeRead() {
+        OutboxEvent broken = event(4L, 0);
+        broken.setPayload("{not json");
+        when(outboxEventRepository.findPendingEvents(any(Pageable.class))).thenReturn(List.of(broken));
+
+        assertThat(publisher.publishPendingEvents()).isZero();
+        verify(kafkaTemplate, never()).send(anyString(), anyString(), any());
+        verify(outboxEventRepository).incrementRetryCount(eq(4L), any());
+    }
+
+    @Test
+    void shouldTimeOutWholeBatchAgainstOneDeadline() {
+        when(outboxEventRepository.findPendingEvents(any(Pageable.class)))
+            .thenReturn(List.of(event(5L, 0), event(6L, 0), event(7L, 0)));
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenReturn(new CompletableFuture<>());
+
+        long start = System.nanoTime();
+        publisher.publishPendingEvents();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // Three stuck sends cost one timeout, not three
+        assertThat(elapsedMs).isLessThan(500);
+        verify(outboxEventRepository).incrementRetryCount(eq(7L), eq(null));
+    }
+
+    private static OutboxEvent event(Long id, int retryCount) {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(id);
+        event.setTopic("booking-events");
+        event.setEventKey("key-" + id);
+        event.setPayload("{\"bookingId\":" + id + "}");
+        event.setRetryCount(retryCount);
+        return event;
+    }
+}
@@ -0,0 +1,234 @@
+package com.irctc_backend.irctc.service;
+
+import com.irctc_backend.irctc.entity.ChartPreparationCheckpoint;
+import com.irctc_backend.irctc.entity.ChartPreparationRun;
+import com.irctc_backend.irctc.entity.Train;
+import com.irctc_backend.irctc.events.TrainChartPreparedEvent;
+import com.irctc_backend.irctc.metrics.TicketConfirmationMetrics;
+import com.irctc_backend.irctc.repository.ChartPreparationCheckpointRepository;
+import com.irctc_backend.irctc.repository.ChartPreparationRunRepository;
+import com.irctc_backend.irctc.repository.CoachRepository;
+import com.irctc_backend.irctc.repository.TrainRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs and checkpoints are kept in memory, written only when a train's
+ * transaction gets as far as saving its checkpoint, the same all-or-nothing
+ * outcome the real per-train transaction gives
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class TicketConfirmationBatchServiceTest {
+
+    @Mock
+    private TrainRepository trainRepository;
+
+    @Mock
+    private CoachRepository coachRepository;
+
+    @Mock
+    private ChartPreparationRunRepository runRepository;
+
+    @Mock
+    private ChartPreparationCheckpointRepository checkpointRepository;
+
+    @Mock
+    private OutboxEventService outboxEventService;
+
+    @Mock
+    private WaitlistAllocationEngine allocationEngine;
+
+    @Mock
+    private TicketConfirmationMetrics metrics;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private TicketConfirmationBatchService batchService;
+
+    private final Map<Long, ChartPreparationRun> runs = new ConcurrentHashMap<>();
+    private final List<ChartPreparationCheckpoint> checkpoints = new CopyOnWriteArrayList<>();
+    private final AtomicLong ids = new AtomicLong(100);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(batchService, "parallelism", 2);
+        ReflectionTestUtils.setField(batchService, "windowMinutes", 120);
+        ReflectionTestUtils.setField(batchService, "horizonDays", 1);
+        ReflectionTestUtils.setField(batchService, "resumeMaxAgeHours", 6);
+
+        when(trainRepository.findAll()).thenReturn(List.of(
+            train(1L, LocalTime.of(6, 0)), train(2L, LocalTime.of(14, 0)), train(3L, LocalTime.of(22, 0))));
+        when(coachRepository.findByTrain(any())).thenReturn(List.of());
+
+        when(runRepository.save(any())).thenAnswer(inv -> {
+            ChartPreparationRun run = inv.getArgument(0);
+            if (run.getId() == null) {
+                run.setId(ids.incrementAndGet());
+            }
+            runs.put(run.getId(), run);
+            return run;
+        });
+        when(runRepository.findFirstByRunTypeAndStatusOrderByStartedAtDesc(any(), any())).thenAnswer(inv ->
+            runs.values().stream()
+                .filter(run -> run.getRunType() == inv.getArgument(0) && run.getStatus() == inv.getArgument(1))
+                .max(Comparator.comparing(ChartPreparationRun::getStartedAt)));
+
+        when(checkpointRepository.save(any())).thenAnswer(inv -> {
+            checkpoints.add(inv.getArgument(0));
+            return inv.getArgument(0);
+        });
+        when(checkpointRepository.findTrainIdsByRunId(anyLong())).thenAnswer(inv ->
+            checkpointsOf(inv.getArgument(0)).stream().map(ChartPreparationCheckpoint::getTrainId).toList());
+        when(checkpointRepository.sumConfirmationsByRunId(anyLong())).thenAnswer(inv ->
+            checkpointsOf(inv.getArgument(0)).stream().mapToLong(ChartPreparationCheckpoint::getConfirmations).sum());
+    }
+
+    @Test
+    void shouldResumeInterruptedRunAndSkipCheckpointedTrains() {
+        // A run that crashed after finishing train 1
+        ChartPreparationRun interrupted = runningRun(LocalDateTime.now().minusHours(1));
+        checkpoint(interrupted.getId(), 1L, 4);
+
+        batchService.processTicketConfirmations();
+
+        assertThat(runs).hasSize(1);
+        ChartPreparationRun run = runs.get(interrupted.getId());
+        assertThat(run.getStatus()).isEqualTo(ChartPreparationRun.RunStatus.COMPLETED);
+        assertThat(run.getRequestId()).isEqualTo("REQ-INTERRUPTED");
+        assertThat(run.getTotalTrains()).isEqualTo(3);
+        assertThat(run.getCompletedTrains()).isEqualTo(3);
+        assertThat(run.getFailedTrains()).isZero();
+        // Confirmations committed before the crash still count towards the run
+        assertThat(run.getTotalConfirmations()).isEqualTo(4);
+        assertThat(checkpointsOf(run.getId())).extracting(ChartPreparationCheckpoint::getTrainId)
+            .containsExactlyInAnyOrder(1L, 2L, 3L);
+        verify(coachRepository, never()).findByTrain(trainWithId(1L));
+        verify(outboxEventService, never()).saveEvent(eq(TrainChartPreparedEvent.TOPIC), eq("1"), any());
+        verify(outboxEventService).saveEvent(eq(TrainChartPreparedEvent.TOPIC), eq("2"), any());
+        verify(outboxEventService).saveEvent(eq(TrainChartPreparedEvent.TOPIC), eq("3"), any());
+    }
+
+    @Test
+    void shouldLeaveFailedTrainWithoutCheckpointAndProcessItOnTheNextRun() {
+        AtomicBoolean databaseDown = new AtomicBoolean(true);
+        doAnswer(inv -> {
+            ChartPreparationCheckpoint checkpoint = inv.getArgument(0);
+            if (checkpoint.getTrainId() == 2L && databaseDown.get()) {
+                throw new DataAccessResourceFailureException("connection reset");
+            }
+            checkpoints.add(checkpoint);
+            return checkpoint;
+        }).when(checkpointRepository).save(any());
+
+        batchService.processTicketConfirmations();
+
+        ChartPreparationRun failedRun = runs.values().iterator().next();
+        assertThat(failedRun.getCompletedTrains()).isEqualTo(2);
+        assertThat(failedRun.getFailedTrains()).isEqualTo(1);
+        assertThat(checkpointsOf(failedRun.getId())).extracting(ChartPreparationCheckpoint::getTrainId)
+            .containsExactlyInAnyOrder(1L, 3L);
+        verify(outboxEventService, never()).saveEvent(eq(TrainChartPreparedEvent.TOPIC), eq("2"), any());
+
+        databaseDown.set(false);
+        batchService.processTicketConfirmations();
+
+        assertThat(runs).hasSize(2);
+        ChartPreparationRun retryRun = runs.values().stream()
+            .filter(run -> !run.getId().equals(failedRun.getId())).findFirst().orElseThrow();
+        assertThat(retryRun.getStatus()).isEqualTo(ChartPreparationRun.RunStatus.COMPLETED);
+        assertThat(retryRun.getFailedTrains()).isZero();
+        assertThat(checkpointsOf(retryRun.getId())).extracting(ChartPreparationCheckpoint::getTrainId)
+            .contains(2L);
+    }
+
+    @Test
+    void shouldAbandonRunTooOldToResume() {
+        ChartPreparationRun stale = runningRun(LocalDateTime.now().minusHours(7));
+        checkpoint(stale.getId(), 1L, 4);
+
+        batchService.processTicketConfirmations();
+
+        assertThat(runs.get(stale.getId()).getStatus()).isEqualTo(ChartPreparationRun.RunStatus.ABANDONED);
+        ChartPreparationRun fresh = runs.values().stream()
+            .filter(run -> !run.getId().equals(stale.getId())).findFirst().orElseThrow();
+        assertThat(checkpointsOf(fresh.getId())).extracting(ChartPreparationCheckpoint::getTrainId)
+            .containsExactlyInAnyOrder(1L, 2L, 3L);
+    }
+
+    private ChartPreparationRun runningRun(LocalDateTime startedAt) {
+        ChartPreparationRun run = new ChartPreparationRun();
+        run.setRunType(ChartPreparationRun.RunType.ROLLING);
+        run.setRequestId("REQ-INTERRUPTED");
+        run.setJourneyDateFrom(LocalDate.now());
+        run.setJourneyDateTo(LocalDate.now());
+        run.setStartedAt(startedAt);
+        return runRepository.save(run);
+    }
+
+    private void checkpoint(Long runId, Long trainId, int confirmations) {
+        ChartPreparationCheckpoint checkpoint = new ChartPreparationCheckpoint();
+        checkpoint.setRunId(runId);
+        checkpoint.setTrainId(trainId);
+        checkpoint.setConfirmations(confirmations);
+        checkpoint.setCompletedAt(LocalDateTime.now().minusHours(1));
+        checkpoints.add(checkpoint);
+    }
+
+    private List<ChartPreparationCheckpoint> checkpointsOf(Long runId) {
+        List<ChartPreparationCheckpoint> result = new ArrayList<>();
+        for (ChartPreparationCheckpoint checkpoint : checkpoints) {
+            if (checkpoint.getRunId().equals(runId)) {
+                result.add(checkpoint);
+            }
+        }
+        return result;
+    }
+
+    private static Train trainWithId(Long id) {
+        return argThat(train -> train != null && id.equals(train.getId()));
+    }
+
+    private static Train train(Long id, LocalTime departure) {
+        Train train = new Train();
+        train.setId(id);
+        train.setTrainNumber(String.valueOf(12000 + id));
+        train.setDepartureTime(departure);
+        train.setIsRunning(true);
+        train.setStatus(Train.TrainStatus.ACTIVE);
+        return train;
+    }
+}
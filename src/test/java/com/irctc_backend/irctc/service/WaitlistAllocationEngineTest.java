@@ -0,0 +1,131 @@
+package com.irctc_backend.irctc.service;
+
+import com.irctc_backend.irctc.entity.Coach;
+import com.irctc_backend.irctc.entity.Seat;
+import com.irctc_backend.irctc.entity.Train;
+import com.irctc_backend.irctc.entity.User;
+import com.irctc_backend.irctc.entity.WaitlistEntry;
+import com.irctc_backend.irctc.events.SeatReleasedEvent;
+import com.irctc_backend.irctc.repository.RacRepository;
+import com.irctc_backend.irctc.repository.SeatRepository;
+import com.irctc_backend.irctc.repository.WaitlistRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Seat status is not kept per journey date, so the repository hands every
+ * date of a train and class the same free seats
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class WaitlistAllocationEngineTest {
+
+    private static final Long TRAIN_ID = 7L;
+    private static final Coach.CoachType COACH_TYPE = Coach.CoachType.SLEEPER_CLASS;
+
+    @Mock
+    private WaitlistRepository waitlistRepository;
+
+    @Mock
+    private RacRepository racRepository;
+
+    @Mock
+    private SeatRepository seatRepository;
+
+    @Mock
+    private OutboxEventService outboxEventService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private WaitlistAllocationEngine engine;
+
+    private Train train;
+    private Coach coach;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(engine, "enabled", true);
+        ReflectionTestUtils.setField(engine, "batchSize", 50);
+
+        train = new Train();
+        train.setId(TRAIN_ID);
+        train.setTrainNumber("12951");
+        coach = new Coach();
+        coach.setId(70L);
+        coach.setCoachNumber("S1");
+        coach.setCoachType(COACH_TYPE);
+    }
+
+    @Test
+    void testOneFreeSeatIsPromotedOnceAcrossTwoJourneyDates() {
+        LocalDate firstDate = LocalDate.now().plusDays(3);
+        LocalDate secondDate = firstDate.plusDays(1);
+        WaitlistEntry first = waitlistEntry(1L, firstDate);
+        WaitlistEntry second = waitlistEntry(2L, secondDate);
+        Seat seat = new Seat();
+        seat.setId(700L);
+        seat.setCoach(coach);
+        seat.setSeatNumber("1");
+        seat.setStatus(Seat.SeatStatus.AVAILABLE);
+
+        when(waitlistRepository.findPendingQueueRows(any(), any()))
+            .thenReturn(List.of(queueRow(first), queueRow(second)));
+        when(seatRepository.findAvailableSeatsByTrainAndCoachType(TRAIN_ID, COACH_TYPE)).thenReturn(List.of(seat));
+        when(waitlistRepository.findAllById(any())).thenReturn(List.of(first, second));
+
+        engine.rebuild();
+        engine.onSeatReleased(new SeatReleasedEvent(TRAIN_ID, COACH_TYPE, firstDate));
+        engine.onSeatReleased(new SeatReleasedEvent(TRAIN_ID, COACH_TYPE, secondDate));
+        engine.drainPendingKeys();
+
+        assertThat(first.getStatus()).isEqualTo(WaitlistEntry.WaitlistStatus.CONFIRMED);
+        assertThat(second.getStatus()).isEqualTo(WaitlistEntry.WaitlistStatus.PENDING);
+        assertThat(seat.getStatus()).isEqualTo(Seat.SeatStatus.BOOKED);
+        verify(seatRepository, times(1)).findAvailableSeatsByTrainAndCoachType(TRAIN_ID, COACH_TYPE);
+        verify(outboxEventService, times(1)).saveEvent(anyString(), eq("100"), any());
+        assertThat(engine.waitlistSize(TRAIN_ID, firstDate, COACH_TYPE)).isZero();
+        assertThat(engine.waitlistSize(TRAIN_ID, secondDate, COACH_TYPE)).isEqualTo(1);
+    }
+
+    private WaitlistEntry waitlistEntry(Long id, LocalDate journeyDate) {
+        User user = new User();
+        user.setId(99L + id);
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setId(id);
+        entry.setUser(user);
+        entry.setTrain(train);
+        entry.setCoach(coach);
+        entry.setJourneyDate(journeyDate.atTime(8, 0));
+        entry.setWaitlistNumber(1);
+        entry.setStatus(WaitlistEntry.WaitlistStatus.PENDING);
+        entry.setQuotaType(WaitlistEntry.QuotaType.GENERAL);
+        entry.setPassengerCount(1);
+        return entry;
+    }
+
+    private static Object[] queueRow(WaitlistEntry entry) {
+        return new Object[] { entry.getId(), TRAIN_ID, entry.getJourneyDate(), COACH_TYPE, entry.getCoach().getId(),
+            entry.getWaitlistNumber(), entry.getQuotaType() };
+    }
+}
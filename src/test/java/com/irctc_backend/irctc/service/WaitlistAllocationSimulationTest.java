@@ -0,0 +1,328 @@
+package com.irctc_backend.irctc.service;
+
+import com.irctc_backend.irctc.entity.Coach;
+import com.irctc_backend.irctc.entity.WaitlistEntry;
+import com.irctc_backend.irctc.service.WaitlistAllocationQueues.Key;
+import com.irctc_backend.irctc.service.WaitlistAllocationQueues.Promotion;
+import com.irctc_backend.irctc.service.WaitlistAllocationQueues.PromotionType;
+import com.irctc_backend.irctc.service.WaitlistAllocationQueues.QueuedEntry;
+import com.irctc_backend.irctc.service.WaitlistAllocationQueues.SeatSlot;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Replays a cancellation storm against the allocation queues, with waitlist
+ * bookings and waitlist cancellations interleaved, and checks after every
+ * batch that:
+ * <ul>
+ *   <li>no seat or RAC berth is handed out twice;</li>
+ *   <li>promotions follow queue order within each train, date and class;</li>
+ *   <li>no waitlist passenger is confirmed while anyone is still on RAC;</li>
+ *   <li>no entry is lost or duplicated, and the queues match the model.</li>
+ * </ul>
+ * Two runs from the same seed must produce the same promotions.
+ */
+class WaitlistAllocationSimulationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(WaitlistAllocationSimulationTest.class);
+
+    private static final long SEED = 20261018L;
+    private static final int TRAINS = 10;
+    private static final int DATES = 2;
+    private static final Coach.CoachType[] CLASSES = { Coach.CoachType.SLEEPER_CLASS, Coach.CoachType.AC_3_TIER };
+    private static final int COACHES_PER_CLASS = 2;
+    private static final int SEATS_PER_COACH = 60;
+    private static final int INITIAL_RAC = 20;
+    private static final int INITIAL_WAITLIST = 150;
+    private static final int CANCELLATIONS = 20_000;
+    private static final int DRAIN_EVERY = 25;
+
+    private static final WaitlistEntry.QuotaType[] QUOTAS = {
+        WaitlistEntry.QuotaType.GENERAL, WaitlistEntry.QuotaType.TATKAL, WaitlistEntry.QuotaType.LADIES
+    };
+
+    @Test
+    void cancellationStormPromotesInOrderWithoutDoubleAllocation() {
+        Simulation first = new Simulation(SEED);
+        long startTime = System.nanoTime();
+        first.run();
+        long elapsedMs = (System.nanoTime() - startTime) / 1_000_000;
+
+        Simulation second = new Simulation(SEED);
+        second.run();
+
+        logger.info("Waitlist allocation simulation: {} cancellations, {} batches, {} promotions " +
+                    "({} RAC->CNF, {} WL->CNF, {} WL->RAC) in {} ms",
+            CANCELLATIONS, first.batches, first.log.size(),
+            first.counts.getOrDefault(PromotionType.RAC_TO_CONFIRMED, 0),
+            first.counts.getOrDefault(PromotionType.WAITLIST_TO_CONFIRMED, 0),
+            first.counts.getOrDefault(PromotionType.WAITLIST_TO_RAC, 0), elapsedMs);
+
+        assertTrue(first.counts.getOrDefault(PromotionType.RAC_TO_CONFIRMED, 0) > 0);
+        assertTrue(first.counts.getOrDefault(PromotionType.WAITLIST_TO_CONFIRMED, 0) > 0);
+        assertTrue(first.counts.getOrDefault(PromotionType.WAITLIST_TO_RAC, 0) > 0);
+        assertEquals(first.log, second.log, "same seed must give the same promotions");
+    }
+
+    private static final class KeyState {
+        final List<Long> bookedSeats = new ArrayList<>();
+        final TreeSet<Long> freeSeats = new TreeSet<>();
+        final Map<Long, Long> coachOfSeat = new HashMap<>();
+        final List<Long> coachIds = new ArrayList<>();
+        int nextWaitlistNumber = 1;
+        int nextRacNumber = 1;
+    }
+
+    private enum Status { PENDING, RAC, CONFIRMED, CANCELLED }
+
+    private static final class Simulation {
+        final Random random;
+        final WaitlistAllocationQueues queues = new WaitlistAllocationQueues();
+        final Map<Key, KeyState> states = new TreeMap<>();
+        final List<Key> keys = new ArrayList<>();
+        final Map<Long, Status> waitlistStatus = new HashMap<>();
+        final Map<Long, Key> waitlistKey = new HashMap<>();
+        final Map<Long, Status> racStatus = new HashMap<>();
+        final Map<Long, Key> racKey = new HashMap<>();
+        final Set<Long> assignedSeats = new HashSet<>();
+        final Set<Key> pending = new TreeSet<>();
+        final List<String> log = new ArrayList<>();
+        final Map<PromotionType, Integer> counts = new HashMap<>();
+        long nextId = 1;
+        long nextSeatId = 1;
+        long nextCoachId = 1;
+        int batches;
+
+        Simulation(long seed) {
+            this.random = new Random(seed);
+        }
+
+        void run() {
+            LocalDate firstDate = LocalDate.of(2026, 11, 1);
+            for (long trainId = 1; trainId <= TRAINS; trainId++) {
+                for (int d = 0; d < DATES; d++) {
+                    for (Coach.CoachType coachType : CLASSES) {
+                        Key key = new Key(trainId, firstDate.plusDays(d), coachType);
+                        keys.add(key);
+                        states.put(key, seed(key));
+                    }
+                }
+            }
+
+            for (int step = 1; step <= CANCELLATIONS; step++) {
+                cancelBooking();
+                double roll = random.nextDouble();
+                if (roll < 0.4) {
+                    addWaitlist(keys.get(random.nextInt(keys.size())));
+                } else if (roll < 0.5) {
+                    cancelWaitlist();
+                }
+                if (step % DRAIN_EVERY == 0) {
+                    drain();
+                }
+            }
+            drain();
+            verifyConservation();
+        }
+
+        KeyState seed(Key key) {
+            KeyState state = new KeyState();
+            for (int c = 0; c < COACHES_PER_CLASS; c++) {
+                long coachId = nextCoachId++;
+                state.coachIds.add(coachId);
+                for (int s = 0; s < SEATS_PER_COACH; s++) {
+                    long seatId = nextSeatId++;
+                    state.coachOfSeat.put(seatId, coachId);
+                    state.bookedSeats.add(seatId);
+                    assignedSeats.add(seatId);
+                }
+            }
+            for (int r = 0; r < INITIAL_RAC; r++) {
+                // RAC berths are separate from the confirmed seats and never freed by a cancellation
+                long berthId = nextSeatId++;
+                long coachId = state.coachIds.get(r % COACHES_PER_CLASS);
+                assignedSeats.add(berthId);
+                long id = nextId++;
+                racStatus.put(id, Status.RAC);
+                racKey.put(id, key);
+                queues.addRac(key, new QueuedEntry(id, state.nextRacNumber++, quota(), coachId, berthId));
+            }
+            for (int w = 0; w < INITIAL_WAITLIST; w++) {
+                addWaitlist(key, state);
+            }
+            return state;
+        }
+
+        void addWaitlist(Key key) {
+            addWaitlist(key, states.get(key));
+        }
+
+        void addWaitlist(Key key, KeyState state) {
+            long id = nextId++;
+            waitlistStatus.put(id, Status.PENDING);
+            waitlistKey.put(id, key);
+            long coachId = state.coachIds.get(random.nextInt(state.coachIds.size()));
+            queues.addWaitlist(key, new QueuedEntry(id, state.nextWaitlistNumber++, quota(), coachId, null));
+        }
+
+        void cancelBooking() {
+            Key key = keys.get(random.nextInt(keys.size()));
+            KeyState state = states.get(key);
+            if (state.bookedSeats.isEmpty()) {
+                return;
+            }
+            int index = random.nextInt(state.bookedSeats.size());
+            long seatId = state.bookedSeats.get(index);
+            state.bookedSeats.set(index, state.bookedSeats.get(state.bookedSeats.size() - 1));
+            state.bookedSeats.remove(state.bookedSeats.size() - 1);
+            assertTrue(assignedSeats.remove(seatId));
+            state.freeSeats.add(seatId);
+            pending.add(key);
+        }
+
+        void cancelWaitlist() {
+            Key key = keys.get(random.nextInt(keys.size()));
+            List<Long> order = queues.waitlistOrder(key);
+            if (order.isEmpty()) {
+                return;
+            }
+            long id = order.get(random.nextInt(order.size()));
+            assertTrue(queues.removeWaitlist(key, id));
+            waitlistStatus.put(id, Status.CANCELLED);
+        }
+
+        void drain() {
+            for (Key key : pending) {
+                plan(key);
+            }
+            pending.clear();
+            batches++;
+        }
+
+        void plan(Key key) {
+            KeyState state = states.get(key);
+            List<Long> waitlistBefore = queues.waitlistOrder(key);
+            List<Long> racBefore = queues.racOrder(key);
+            List<SeatSlot> free = new ArrayList<>();
+            for (long seatId : state.freeSeats) {
+                free.add(new SeatSlot(seatId, state.coachOfSeat.get(seatId)));
+            }
+
+            List<Promotion> plan = queues.plan(key, free);
+
+            List<Long> racPromoted = new ArrayList<>();
+            List<Long> waitlistPromoted = new ArrayList<>();
+            List<Long> removedWaitlist = new ArrayList<>();
+            List<Long> removedRac = new ArrayList<>();
+            List<QueuedEntry> addedRac = new ArrayList<>();
+            Set<Long> vacatedBerths = new HashSet<>();
+            int seatsUsed = 0;
+            for (Promotion promotion : plan) {
+                long id = promotion.entry().id();
+                switch (promotion.type()) {
+                    case RAC_TO_CONFIRMED -> {
+                        assertEquals(Status.RAC, racStatus.get(id));
+                        assertEquals(key, racKey.get(id));
+                        takeSeat(state, promotion.seatId());
+                        racStatus.put(id, Status.CONFIRMED);
+                        racPromoted.add(id);
+                        removedRac.add(id);
+                        assertNotNull(promotion.entry().berthSeatId());
+                        vacatedBerths.add(promotion.entry().berthSeatId());
+                        seatsUsed++;
+                    }
+                    case WAITLIST_TO_CONFIRMED -> {
+                        assertEquals(racBefore.size(), racPromoted.size(),
+                            "waitlist confirmed while RAC passengers were waiting for " + key);
+                        assertEquals(Status.PENDING, waitlistStatus.get(id));
+                        takeSeat(state, promotion.seatId());
+                        waitlistStatus.put(id, Status.CONFIRMED);
+                        waitlistPromoted.add(id);
+                        removedWaitlist.add(id);
+                        seatsUsed++;
+                    }
+                    case WAITLIST_TO_RAC -> {
+                        assertTrue(vacatedBerths.remove(promotion.seatId()),
+                            "RAC berth " + promotion.seatId() + " was not vacated in this batch");
+                        assertEquals(Status.PENDING, waitlistStatus.get(id));
+                        waitlistStatus.put(id, Status.RAC);
+                        waitlistPromoted.add(id);
+                        removedWaitlist.add(id);
+                        long racId = nextId++;
+                        racStatus.put(racId, Status.RAC);
+                        racKey.put(racId, key);
+                        addedRac.add(new QueuedEntry(racId, state.nextRacNumber++, promotion.entry().quotaType(),
+                            promotion.entry().coachId(), promotion.seatId()));
+                    }
+                }
+                counts.merge(promotion.type(), 1, Integer::sum);
+                log.add(key + " " + promotion.type() + " " + id + " " + promotion.seatId());
+            }
+
+            assertEquals(racBefore.subList(0, racPromoted.size()), racPromoted, "RAC out of order for " + key);
+            assertEquals(waitlistBefore.subList(0, waitlistPromoted.size()), waitlistPromoted,
+                "waitlist out of order for " + key);
+            if (seatsUsed < free.size()) {
+                // Seats are only left over once both queues are exhausted
+                assertEquals(racBefore.size(), racPromoted.size());
+                assertEquals(waitlistBefore.size(), waitlistPromoted.size());
+            }
+
+            queues.commit(key, removedWaitlist, removedRac, addedRac);
+            assertEquals(waitlistBefore.size() - waitlistPromoted.size(), queues.waitlistSize(key));
+            assertEquals(racBefore.size() - racPromoted.size() + addedRac.size(), queues.racSize(key));
+        }
+
+        void takeSeat(KeyState state, long seatId) {
+            assertTrue(state.freeSeats.remove(seatId), "seat " + seatId + " is not free");
+            assertTrue(assignedSeats.add(seatId), "seat " + seatId + " assigned twice");
+            state.bookedSeats.add(seatId);
+        }
+
+        void verifyConservation() {
+            Map<Key, Integer> pendingByKey = new HashMap<>();
+            waitlistStatus.forEach((id, status) -> {
+                if (status == Status.PENDING) {
+                    pendingByKey.merge(waitlistKey.get(id), 1, Integer::sum);
+                }
+            });
+            Map<Key, Integer> racByKey = new HashMap<>();
+            racStatus.forEach((id, status) -> {
+                if (status == Status.RAC) {
+                    racByKey.merge(racKey.get(id), 1, Integer::sum);
+                }
+            });
+            for (Key key : keys) {
+                assertEquals(pendingByKey.getOrDefault(key, 0), queues.waitlistSize(key), "waitlist drift for " + key);
+                assertEquals(racByKey.getOrDefault(key, 0), queues.racSize(key), "RAC drift for " + key);
+            }
+
+            // Every waitlist entry ends in exactly one place, and each one moved to RAC created one RAC entry
+            long movedToRac = waitlistStatus.values().stream().filter(s -> s == Status.RAC).count();
+            assertEquals((long) TRAINS * DATES * CLASSES.length * INITIAL_RAC + movedToRac, racStatus.size());
+            assertEquals(counts.getOrDefault(PromotionType.WAITLIST_TO_RAC, 0).longValue(), movedToRac);
+            assertFalse(waitlistStatus.isEmpty());
+        }
+
+        WaitlistEntry.QuotaType quota() {
+            return QUOTAS[random.nextInt(QUOTAS.length)];
+        }
+    }
+}